@@ -0,0 +1,50 @@
+package org.dromara.common.mybatis.core.page;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ *
+ * @see CursorPageQuery
+ */
+@Data
+@NoArgsConstructor
+public class CursorPage<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 列表数据
+     */
+    private List<T> rows;
+
+    /**
+     * 下一页的游标，没有下一页时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    public CursorPage(List<T> rows, String nextCursor) {
+        this.rows = rows;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    /**
+     * 转换列表数据，游标不变
+     */
+    public <R> CursorPage<R> convert(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(rows.stream().<R>map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,220 @@
+package org.dromara.common.mybatis.core.page;
+
+import cn.hutool.core.util.ObjectUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.SpringUtils;
+import org.dromara.common.core.utils.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 游标分页查询实体类
+ * <p>
+ * 按 (排序列 desc, 主键 desc) 定位上一页最后一行之后的数据（keyset / seek 分页），
+ * 不使用 OFFSET，也不查询总数，翻到第几页的代价都与第一页相同；需要 (过滤列..., 排序列, 主键) 的联合索引配合。
+ * 排序列为 NULL 的行排在最后。
+ * <p>
+ * 游标是不透明的令牌，编码上一页最后一行的排序值与主键，并以 HMAC-SHA256 签名，
+ * 签名同时覆盖调用方给出的查询范围（过滤条件），换了过滤条件的游标会被拒绝。
+ * 签名秘钥取 mybatis-plus.cursorSecret，集群内各服务必须一致。
+ *
+ * <pre>{@code
+ * CursorPage<Models> page = query.selectPage(dataMapper, wrapper, Models::getCreatedTime, Models::getId,
+ *     "models:" + userId + ":" + status);
+ * }</pre>
+ */
+@Slf4j
+@Data
+@NoArgsConstructor
+public class CursorPageQuery implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 分页大小
+     */
+    private Integer pageSize;
+
+    /**
+     * 上一页返回的游标，为空表示第一页
+     */
+    private String cursor;
+
+    /**
+     * 每页显示记录数 默认值
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 每页显示记录数 上限
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String VERSION = "1";
+
+    private static final int SIGNATURE_BYTES = 16;
+
+    private static volatile byte[] secret;
+
+    public CursorPageQuery(Integer pageSize, String cursor) {
+        this.pageSize = pageSize;
+        this.cursor = cursor;
+    }
+
+    /**
+     * 查询一页
+     *
+     * @param mapper     Mapper
+     * @param wrapper    过滤条件，不要自带排序与 limit
+     * @param sortColumn 排序列，值类型为 Date / LocalDateTime / 数字 / 字符串
+     * @param idColumn   主键列，保证排序唯一
+     * @param scope      查询范围，应包含所有过滤条件的取值
+     */
+    public <T> CursorPage<T> selectPage(BaseMapper<T> mapper, LambdaQueryWrapper<T> wrapper,
+                                        SFunction<T, ?> sortColumn, SFunction<T, ?> idColumn, String scope) {
+        int size = Math.min(Math.max(ObjectUtil.defaultIfNull(pageSize, DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+        if (StringUtils.isNotBlank(cursor)) {
+            Object[] position = decode(cursor, scope);
+            Object sortValue = position[0];
+            Object idValue = position[1];
+            if (sortValue == null) {
+                wrapper.and(w -> w.isNull(sortColumn).lt(idColumn, idValue));
+            } else {
+                wrapper.and(w -> w.lt(sortColumn, sortValue)
+                    .or(o -> o.eq(sortColumn, sortValue).lt(idColumn, idValue))
+                    .or().isNull(sortColumn));
+            }
+        }
+        wrapper.orderByDesc(sortColumn).orderByDesc(idColumn).last("limit " + (size + 1));
+
+        List<T> rows = mapper.selectList(wrapper);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        rows = rows.subList(0, size);
+        T last = rows.get(size - 1);
+        return new CursorPage<>(rows, encode(sortColumn.apply(last), idColumn.apply(last), scope));
+    }
+
+    /**
+     * 编码游标：base64url(版本|排序值|主键).base64url(签名)
+     */
+    static String encode(Object sortValue, Object idValue, String scope) {
+        if (!(idValue instanceof Number)) {
+            throw new IllegalArgumentException("游标分页的主键必须为数字");
+        }
+        String payload = VERSION + "|" + ((Number) idValue).longValue() + "|" + encodeValue(sortValue);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + "." + encoder.encodeToString(sign(payload, scope));
+    }
+
+    /**
+     * 解码并校验游标
+     *
+     * @return [排序值, 主键]
+     */
+    static Object[] decode(String cursor, String scope) {
+        try {
+            int dot = cursor.indexOf('.');
+            if (dot <= 0) {
+                throw new IllegalArgumentException();
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            String payload = new String(decoder.decode(cursor.substring(0, dot)), StandardCharsets.UTF_8);
+            byte[] signature = decoder.decode(cursor.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload, scope))) {
+                throw new IllegalArgumentException();
+            }
+            String[] parts = payload.split("\\|", 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException();
+            }
+            return new Object[]{decodeValue(parts[2]), Long.parseLong(parts[1])};
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException("分页游标无效或与查询条件不匹配");
+        }
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return "z";
+        }
+        if (value instanceof Date date) {
+            return "d" + date.getTime();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return "l" + dateTime;
+        }
+        if (value instanceof Number number) {
+            return "n" + number.longValue();
+        }
+        return "s" + value;
+    }
+
+    private static Object decodeValue(String value) {
+        String body = value.substring(1);
+        return switch (value.charAt(0)) {
+            case 'z' -> null;
+            case 'd' -> new Timestamp(Long.parseLong(body));
+            case 'l' -> LocalDateTime.parse(body);
+            case 'n' -> Long.parseLong(body);
+            case 's' -> body;
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    private static byte[] sign(String payload, String scope) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret(), "HmacSHA256"));
+            mac.update(StringUtils.blankToDefault(scope, "").getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Arrays.copyOf(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] secret() {
+        byte[] key = secret;
+        if (key == null) {
+            synchronized (CursorPageQuery.class) {
+                key = secret;
+                if (key == null) {
+                    String configured = SpringUtils.getProperty("mybatis-plus.cursorSecret");
+                    if (StringUtils.isNotBlank(configured)) {
+                        key = configured.getBytes(StandardCharsets.UTF_8);
+                    } else {
+                        // 未配置时使用进程内随机秘钥，游标在重启后或其他实例上失效
+                        log.warn("未配置 mybatis-plus.cursorSecret，分页游标仅在当前进程内有效");
+                        key = new byte[32];
+                        new SecureRandom().nextBytes(key);
+                    }
+                    secret = key;
+                }
+            }
+        }
+        return key;
+    }
+}
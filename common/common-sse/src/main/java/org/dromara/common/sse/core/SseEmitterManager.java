@@ -5,10 +5,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.dromara.common.core.utils.SpringUtils;
 import org.dromara.common.redis.utils.RedisUtils;
 import org.dromara.common.sse.dto.SseMessageDto;
+import org.dromara.common.sse.dto.SseTopicEventDto;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -27,8 +29,18 @@ public class SseEmitterManager {
      */
     private final static String SSE_TOPIC = "global:sse";
 
+    /**
+     * 主题事件的频道
+     */
+    private final static String SSE_TOPIC_EVENT = "global:sse:topic";
+
     private final static Map<Long, Map<String, SseEmitter>> USER_TOKEN_EMITTERS = new ConcurrentHashMap<>();
 
+    /**
+     * 主题 -> 连接ID -> SseEmitter
+     */
+    private final static Map<String, Map<String, SseEmitter>> TOPIC_EMITTERS = new ConcurrentHashMap<>();
+
     public SseEmitterManager() {
         // 定时执行 SSE 心跳检测
         SpringUtils.getBean(ScheduledExecutorService.class)
@@ -129,6 +141,149 @@ public class SseEmitterManager {
                 }
             })
         );
+        TOPIC_EMITTERS.forEach((topic, map) ->
+            map.entrySet().removeIf(e -> {
+                try {
+                    e.getValue().send(SseEmitter.event().comment("heartbeat"));
+                    return false;
+                } catch (Exception ex) {
+                    log.warn("心跳失败，移除连接: topic={}, id={}", topic, e.getKey());
+                    e.getValue().complete();
+                    return true;
+                }
+            })
+        );
+        TOPIC_EMITTERS.entrySet().removeIf(e -> e.getValue().isEmpty());
+    }
+
+    /**
+     * 建立对指定主题的 SSE 连接，同一主题可有多个连接，连接之间互不影响
+     *
+     * @param topic   主题，如某个任务的标识
+     * @param timeout 连接超时时间（毫秒）
+     * @return 返回一个 SseEmitter 实例，客户端可以通过该实例接收该主题的事件
+     */
+    public SseEmitter connectTopic(String topic, long timeout) {
+        return connectTopic(topic, timeout, null);
+    }
+
+    /**
+     * 建立对指定主题的 SSE 连接，连接完成、超时或出错时回调 onClose
+     * <p>
+     * 适用于调用方自行向单个连接推送（{@link #sendTopicEvent(SseEmitter, SseTopicEventDto)}）、需要在连接断开时释放资源的场景，
+     * 心跳检测与连接管理仍由本类负责。onClose 可能被调用多次，调用方需自行保证幂等。
+     *
+     * @param topic   主题
+     * @param timeout 连接超时时间（毫秒）
+     * @param onClose 连接关闭时的回调，可为空
+     */
+    public SseEmitter connectTopic(String topic, long timeout, Runnable onClose) {
+        Map<String, SseEmitter> emitters = TOPIC_EMITTERS.computeIfAbsent(topic, k -> new ConcurrentHashMap<>());
+        String id = UUID.randomUUID().toString();
+        SseEmitter emitter = new SseEmitter(timeout);
+        emitters.put(id, emitter);
+
+        Runnable remove = () -> {
+            removeTopicEmitter(topic, id);
+            if (onClose != null) {
+                onClose.run();
+            }
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError((e) -> remove.run());
+
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            remove.run();
+        }
+        return emitter;
+    }
+
+    private void removeTopicEmitter(String topic, String id) {
+        Map<String, SseEmitter> emitters = TOPIC_EMITTERS.get(topic);
+        if (emitters == null) {
+            return;
+        }
+        SseEmitter remove = emitters.remove(id);
+        if (remove != null) {
+            remove.complete();
+        }
+        if (emitters.isEmpty()) {
+            TOPIC_EMITTERS.remove(topic, emitters);
+        }
+    }
+
+    /**
+     * 本机是否有该主题的连接
+     *
+     * @param topic 主题
+     */
+    public boolean hasTopicSubscribers(String topic) {
+        return MapUtil.isNotEmpty(TOPIC_EMITTERS.get(topic));
+    }
+
+    /**
+     * 向本机订阅了该主题的所有连接发送事件，最后一个事件发送后关闭这些连接
+     *
+     * @param event 主题事件
+     */
+    public void sendTopicEvent(SseTopicEventDto event) {
+        Map<String, SseEmitter> emitters = TOPIC_EMITTERS.get(event.getTopic());
+        if (MapUtil.isEmpty(emitters)) {
+            return;
+        }
+        for (Map.Entry<String, SseEmitter> entry : emitters.entrySet()) {
+            try {
+                sendTopicEvent(entry.getValue(), event);
+            } catch (Exception e) {
+                removeTopicEmitter(event.getTopic(), entry.getKey());
+            }
+        }
+        if (event.isLast()) {
+            TOPIC_EMITTERS.remove(event.getTopic());
+        }
+    }
+
+    /**
+     * 向单个连接发送主题事件，最后一个事件发送后关闭该连接
+     *
+     * @param emitter 连接
+     * @param event   主题事件
+     */
+    public void sendTopicEvent(SseEmitter emitter, SseTopicEventDto event) throws IOException {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().data(event.getData());
+        if (event.getId() != null) {
+            builder.id(event.getId());
+        }
+        if (event.getName() != null) {
+            builder.name(event.getName());
+        }
+        emitter.send(builder);
+        if (event.isLast()) {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * 订阅主题事件频道
+     *
+     * @param consumer 处理主题事件的消费者函数
+     */
+    public void subscribeTopicEvent(Consumer<SseTopicEventDto> consumer) {
+        RedisUtils.subscribe(SSE_TOPIC_EVENT, SseTopicEventDto.class, consumer);
+    }
+
+    /**
+     * 发布主题事件，由各实例推送给本机订阅了该主题的连接
+     *
+     * @param event 主题事件
+     */
+    public void publishTopicEvent(SseTopicEventDto event) {
+        RedisUtils.publish(SSE_TOPIC_EVENT, event, consumer -> {
+            log.debug("SSE发送主题事件topic:{} id:{} name:{}", event.getTopic(), event.getId(), event.getName());
+        });
     }
 
     /**
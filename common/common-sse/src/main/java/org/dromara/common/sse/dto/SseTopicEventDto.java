@@ -0,0 +1,44 @@
+package org.dromara.common.sse.dto;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 主题事件的dto
+ * 推送给订阅了某个主题（如某个任务）的所有连接，不区分用户
+ *
+ * @author Lion Li
+ */
+@Data
+public class SseTopicEventDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主题
+     */
+    private String topic;
+
+    /**
+     * 事件ID，客户端重连时通过 Last-Event-ID 回传
+     */
+    private String id;
+
+    /**
+     * 事件名称
+     */
+    private String name;
+
+    /**
+     * 事件数据
+     */
+    private String data;
+
+    /**
+     * 是否为该主题的最后一个事件，发送后关闭该主题的所有连接
+     */
+    private boolean last;
+}
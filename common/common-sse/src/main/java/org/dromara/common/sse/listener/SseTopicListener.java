@@ -38,6 +38,7 @@ public class SseTopicListener implements ApplicationRunner, Ordered {
                 sseEmitterManager.sendMessage(message.getMessage());
             }
         });
+        sseEmitterManager.subscribeTopicEvent(sseEmitterManager::sendTopicEvent);
         log.info("初始化SSE主题订阅监听器成功");
     }
 
@@ -0,0 +1,362 @@
+package org.dromara.data.cache;
+
+import com.qcloud.cos.model.ObjectMetadata;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.data.properties.ArtifactCacheProperties;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 节点本地制品缓存
+ * <p>
+ * 以“对象键 + ETag”为键，首次读取时从对象存储整体下载到本地磁盘，之后直接从磁盘发送；
+ * 对象被覆盖后 ETag 变化，自然落到新的缓存项，旧项随 LRU 淘汰。
+ * <ul>
+ *     <li>同一对象的并发请求只有一个负责下载，其余等待其完成后共享结果；</li>
+ *     <li>下载后校验长度，ETag 为内容 MD5 时校验 MD5，并记录 SHA-256 供启动时复核；</li>
+ *     <li>磁盘占用超过上限时淘汰最近最少使用的对象，访问时间同步到文件修改时间，重启后保持顺序；</li>
+ *     <li>文件名为“缓存键.批次号”，每次填充的批次号不同，已淘汰对象的读者释放时只删除自己那一批文件。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArtifactCache {
+
+    private static final String DATA_SUFFIX = ".bin";
+    private static final String META_SUFFIX = ".meta";
+    private static final String PART_SUFFIX = ".part";
+
+    /**
+     * 非分块上传的对象 ETag 即内容 MD5
+     */
+    private static final Pattern MD5_ETAG = Pattern.compile("^[0-9a-fA-F]{32}$");
+
+    private final ArtifactCacheProperties properties;
+    private final CosUtils cosUtils;
+
+    /**
+     * 缓存键 -> 缓存对象，按访问顺序排列，所有访问都持有该对象的锁
+     */
+    private final LinkedHashMap<String, CachedArtifact> index = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 缓存键 -> 正在进行的填充
+     */
+    private final Map<String, CompletableFuture<Void>> filling = new ConcurrentHashMap<>();
+
+    /**
+     * 已缓存与正在填充的字节数，受 index 锁保护
+     */
+    private long usedBytes;
+
+    private Path directory;
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            directory = Path.of(properties.getDirectory());
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            log.error("[ARTIFACT] 初始化本地缓存目录失败，缓存不可用: {}", properties.getDirectory(), e);
+            directory = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && directory != null;
+    }
+
+    /**
+     * 打开对象的本地缓存，未命中时从对象存储填充
+     *
+     * @return 已持有引用的缓存对象，用完必须 close；对象不存在或超过缓存上限时返回 null，由调用方直连对象存储
+     * @throws IOException 填充失败或等待超时
+     */
+    public CachedArtifact open(String objectKey) throws IOException {
+        ObjectMetadata metadata = cosUtils.getObjectMetadata(objectKey);
+        if (metadata == null || metadata.getContentLength() > properties.getMaxSizeBytes()) {
+            return null;
+        }
+        String eTag = metadata.getETag();
+        String cacheKey = cacheKey(objectKey, eTag);
+        CachedArtifact hit = retain(cacheKey);
+        if (hit != null) {
+            log.debug("[ARTIFACT] 命中本地缓存: {}", objectKey);
+            return hit;
+        }
+        awaitFill(cacheKey, objectKey, eTag, metadata.getContentLength());
+        // 填充后立即被淘汰的极端情况返回 null
+        return retain(cacheKey);
+    }
+
+    /**
+     * 同一缓存键只有一个请求执行填充，其余等待
+     */
+    private void awaitFill(String cacheKey, String objectKey, String eTag, long size) throws IOException {
+        CompletableFuture<Void> own = new CompletableFuture<>();
+        CompletableFuture<Void> running = filling.putIfAbsent(cacheKey, own);
+        if (running == null) {
+            try {
+                fill(cacheKey, objectKey, eTag, size);
+                own.complete(null);
+            } catch (Throwable e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                filling.remove(cacheKey, own);
+            }
+            return;
+        }
+        try {
+            running.get(properties.getFillTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待缓存填充被中断");
+        } catch (TimeoutException e) {
+            throw new IOException("等待缓存填充超时: " + objectKey);
+        } catch (ExecutionException e) {
+            throw new IOException("缓存填充失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void fill(String cacheKey, String objectKey, String eTag, long size) throws IOException {
+        synchronized (index) {
+            // 在本次登记之前刚好有其他请求完成了填充
+            if (index.containsKey(cacheKey)) {
+                return;
+            }
+            reserve(size);
+        }
+        String fileId = cacheKey + "." + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        Path part = directory.resolve(fileId + PART_SUFFIX);
+        boolean done = false;
+        try {
+            MessageDigest md5 = digest("MD5");
+            MessageDigest sha256 = digest("SHA-256");
+            try (OutputStream output = new DigestOutputStream(new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024), md5), sha256)) {
+                cosUtils.download(objectKey, eTag, output);
+            }
+            long actual = Files.size(part);
+            if (actual != size) {
+                throw new IOException("缓存内容长度不一致: 期望 " + size + " 字节，实际 " + actual + " 字节");
+            }
+            if (properties.isVerifyMd5() && eTag != null && MD5_ETAG.matcher(eTag).matches()
+                && !eTag.equalsIgnoreCase(HexFormat.of().formatHex(md5.digest()))) {
+                throw new IOException("缓存内容 MD5 校验失败: " + objectKey);
+            }
+
+            CachedArtifact artifact = new CachedArtifact(cacheKey, objectKey, eTag, size,
+                HexFormat.of().formatHex(sha256.digest()), dataFile(fileId), metaFile(fileId));
+            Files.move(part, artifact.getFile(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            ArtifactMeta meta = new ArtifactMeta();
+            meta.setObjectKey(objectKey);
+            meta.setETag(eTag);
+            meta.setSize(size);
+            meta.setGeneration(generation(fileId));
+            meta.setSha256(artifact.getSha256());
+            meta.setCreatedTime(System.currentTimeMillis());
+            // 元数据最后写入，崩溃时只留下无元数据的数据文件，启动时清理
+            Files.writeString(artifact.getMetaFile(), JsonUtils.toJsonString(meta), StandardCharsets.UTF_8);
+            synchronized (index) {
+                index.put(cacheKey, artifact);
+            }
+            done = true;
+            log.info("[ARTIFACT] 填充本地缓存: key={}, size={}", objectKey, size);
+        } finally {
+            if (!done) {
+                synchronized (index) {
+                    usedBytes -= size;
+                }
+                Files.deleteIfExists(part);
+                Files.deleteIfExists(dataFile(fileId));
+            }
+        }
+    }
+
+    /**
+     * 为即将写入的字节腾出空间，必须持有 index 锁
+     */
+    private void reserve(long size) {
+        Iterator<CachedArtifact> eldest = index.values().iterator();
+        while (usedBytes + size > properties.getMaxSizeBytes() && eldest.hasNext()) {
+            CachedArtifact artifact = eldest.next();
+            eldest.remove();
+            usedBytes -= artifact.getSize();
+            artifact.evict();
+            log.info("[ARTIFACT] 淘汰本地缓存: key={}, size={}", artifact.getObjectKey(), artifact.getSize());
+        }
+        usedBytes += size;
+    }
+
+    private CachedArtifact retain(String cacheKey) {
+        CachedArtifact artifact;
+        synchronized (index) {
+            artifact = index.get(cacheKey);
+            if (artifact == null) {
+                return null;
+            }
+            artifact.retain();
+        }
+        try {
+            Files.setLastModifiedTime(artifact.getFile(), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // 只影响重启后的淘汰顺序
+        }
+        return artifact;
+    }
+
+    /**
+     * 加载已有缓存：清理未完成的下载与不完整的缓存项，按修改时间恢复 LRU 顺序
+     */
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.toList();
+        }
+        List<CachedArtifact> loaded = new ArrayList<>();
+        for (Path path : files) {
+            String name = path.getFileName().toString();
+            if (name.endsWith(PART_SUFFIX)) {
+                Files.deleteIfExists(path);
+            } else if (name.endsWith(META_SUFFIX)) {
+                String fileId = name.substring(0, name.length() - META_SUFFIX.length());
+                CachedArtifact artifact = loadEntry(fileId);
+                if (artifact == null) {
+                    Files.deleteIfExists(path);
+                    Files.deleteIfExists(dataFile(fileId));
+                } else {
+                    loaded.add(artifact);
+                }
+            } else if (name.endsWith(DATA_SUFFIX)) {
+                String fileId = name.substring(0, name.length() - DATA_SUFFIX.length());
+                if (!Files.exists(metaFile(fileId))) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        loaded.sort(Comparator.comparing(this::lastModified));
+        synchronized (index) {
+            for (CachedArtifact artifact : loaded) {
+                // 同一缓存键有多批文件（旧批次的读者未释放时进程退出）时保留最新的一批
+                CachedArtifact previous = index.put(artifact.getCacheKey(), artifact);
+                if (previous != null) {
+                    usedBytes -= previous.getSize();
+                    previous.evict();
+                }
+                usedBytes += artifact.getSize();
+            }
+            // 上限调小后启动时先淘汰到上限以内
+            reserve(0);
+        }
+        log.info("[ARTIFACT] 加载本地缓存 {} 项，共 {} 字节，目录 {}", index.size(), usedBytes, directory);
+    }
+
+    private CachedArtifact loadEntry(String fileId) {
+        Path data = dataFile(fileId);
+        String cacheKey = fileId.contains(".") ? fileId.substring(0, fileId.indexOf('.')) : fileId;
+        try {
+            ArtifactMeta meta = JsonUtils.parseObject(Files.readString(metaFile(fileId), StandardCharsets.UTF_8),
+                ArtifactMeta.class);
+            if (meta == null || meta.getSize() == null || !Files.exists(data) || Files.size(data) != meta.getSize()
+                || !cacheKey.equals(cacheKey(meta.getObjectKey(), meta.getETag()))
+                || !Objects.equals(generation(fileId), meta.getGeneration())) {
+                log.warn("[ARTIFACT] 缓存项不完整，删除: {}", fileId);
+                return null;
+            }
+            if (properties.isVerifyOnLoad() && !meta.getSha256().equalsIgnoreCase(sha256Of(data))) {
+                log.warn("[ARTIFACT] 缓存内容 SHA-256 校验失败，删除: {}", meta.getObjectKey());
+                return null;
+            }
+            return new CachedArtifact(cacheKey, meta.getObjectKey(), meta.getETag(), meta.getSize(),
+                meta.getSha256(), data, metaFile(fileId));
+        } catch (Exception e) {
+            log.warn("[ARTIFACT] 读取缓存元数据失败，删除: {}", fileId, e);
+            return null;
+        }
+    }
+
+    private FileTime lastModified(CachedArtifact artifact) {
+        try {
+            return Files.getLastModifiedTime(artifact.getFile());
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path dataFile(String fileId) {
+        return directory.resolve(fileId + DATA_SUFFIX);
+    }
+
+    private Path metaFile(String fileId) {
+        return directory.resolve(fileId + META_SUFFIX);
+    }
+
+    /**
+     * 文件名中缓存键之后的批次号，没有时返回 null
+     */
+    private static String generation(String fileId) {
+        int dot = fileId.indexOf('.');
+        return dot < 0 ? null : fileId.substring(dot + 1);
+    }
+
+    private static String cacheKey(String objectKey, String eTag) {
+        byte[] hash = digest("SHA-256").digest((objectKey + "\n" + eTag).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private static String sha256Of(Path file) throws IOException {
+        MessageDigest digest = digest("SHA-256");
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
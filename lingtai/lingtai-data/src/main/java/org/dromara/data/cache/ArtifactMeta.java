@@ -0,0 +1,25 @@
+package org.dromara.data.cache;
+
+import lombok.Data;
+
+/**
+ * 缓存对象的元数据，与数据文件同名的 .meta 文件（JSON）
+ */
+@Data
+public class ArtifactMeta {
+
+    private String objectKey;
+
+    private String eTag;
+
+    private Long size;
+
+    /**
+     * 填充批次，与文件名中缓存键之后的部分一致
+     */
+    private String generation;
+
+    private String sha256;
+
+    private Long createdTime;
+}
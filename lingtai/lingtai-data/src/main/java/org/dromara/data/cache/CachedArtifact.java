@@ -0,0 +1,85 @@
+package org.dromara.data.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地缓存中的一个对象
+ * <p>
+ * 由 {@link ArtifactCache#open} 返回时已持有引用，用完 close 释放；
+ * 被淘汰时若仍有读者持有，文件延迟到最后一个读者释放后删除。
+ * 每次填充的文件名都带有独立的批次号，延迟删除只会删除本次填充的文件，不影响同一缓存键之后的填充。
+ */
+@Slf4j
+@Getter
+public class CachedArtifact implements AutoCloseable {
+
+    private final String cacheKey;
+
+    private final String objectKey;
+
+    private final String eTag;
+
+    private final long size;
+
+    /**
+     * 填充时计算的内容 SHA-256
+     */
+    private final String sha256;
+
+    private final Path file;
+
+    private final Path metaFile;
+
+    private final AtomicInteger refs = new AtomicInteger();
+
+    private volatile boolean evicted;
+
+    CachedArtifact(String cacheKey, String objectKey, String eTag, long size, String sha256, Path file, Path metaFile) {
+        this.cacheKey = cacheKey;
+        this.objectKey = objectKey;
+        this.eTag = eTag;
+        this.size = size;
+        this.sha256 = sha256;
+        this.file = file;
+        this.metaFile = metaFile;
+    }
+
+    /**
+     * 增加引用，只在缓存索引锁内对未淘汰的对象调用
+     */
+    void retain() {
+        refs.incrementAndGet();
+    }
+
+    /**
+     * 标记淘汰，没有读者时立即删除文件
+     */
+    void evict() {
+        evicted = true;
+        if (refs.get() == 0) {
+            deleteFiles();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (refs.decrementAndGet() == 0 && evicted) {
+            deleteFiles();
+        }
+    }
+
+    private void deleteFiles() {
+        try {
+            Files.deleteIfExists(metaFile);
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("[ARTIFACT] 删除缓存文件失败: {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.dromara.data.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 只读并截断到指定长度的 FileChannel 视图
+ * <p>
+ * Undertow 的 {@code ServletOutputStreamImpl#transferFrom} 从通道当前位置发送到 {@link #size()} 为止，
+ * 底层调用 {@link FileChannel#transferTo} 写入 socket（sendfile）。用该视图限定 size 即可零拷贝发送任意区间。
+ */
+public final class RangeFileChannel extends FileChannel {
+
+    private final FileChannel delegate;
+
+    private final long limit;
+
+    /**
+     * @param limit 可见长度，之后的内容不可读
+     */
+    public RangeFileChannel(FileChannel delegate, long limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        long position = delegate.position();
+        int n = read(dst, position);
+        if (n > 0) {
+            delegate.position(position + n);
+        }
+        return n;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (!dsts[i].hasRemaining()) {
+                continue;
+            }
+            int n = read(dsts[i]);
+            if (n < 0) {
+                return total == 0 ? -1 : total;
+            }
+            total += n;
+            if (dsts[i].hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        long available = size() - position;
+        if (available <= 0) {
+            return -1;
+        }
+        if (dst.remaining() <= available) {
+            return delegate.read(dst, position);
+        }
+        ByteBuffer slice = dst.slice();
+        slice.limit((int) available);
+        int n = delegate.read(slice, position);
+        if (n > 0) {
+            dst.position(dst.position() + n);
+        }
+        return n;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        long available = size() - position;
+        if (available <= 0) {
+            return 0;
+        }
+        return delegate.transferTo(position, Math.min(count, available), target);
+    }
+
+    @Override
+    public long position() throws IOException {
+        return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+        delegate.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return Math.min(limit, delegate.size());
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+        if (mode != MapMode.READ_ONLY) {
+            throw new NonWritableChannelException();
+        }
+        if (position + size > size()) {
+            throw new IllegalArgumentException("映射区间超出可见长度");
+        }
+        return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+        return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+        return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    public void force(boolean metaData) {
+        // 只读视图，无需刷盘
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public FileChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+        delegate.close();
+    }
+}
@@ -1,7 +1,12 @@
 package org.dromara.data.config;
 
+import org.dromara.common.core.utils.SpringUtils;
+import org.dromara.data.properties.ImportSchedulerProperties;
+import org.dromara.data.properties.TensorIndexProperties;
+import org.dromara.data.properties.TransferProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -17,8 +22,8 @@ import java.util.concurrent.ThreadPoolExecutor;
 public class AsyncImportConfig {
 
     /**
-     * 定义 Hub 模型导入任务专用的线程池
-     * Bean 名称 'taskExecutor' 必须与 HubImportTaskService 中的 @Async("taskExecutor") 一致。
+     * 通用后台任务线程池
+     * 目录重建索引、完整性巡检、张量索引回填等按 Bean 名称 'taskExecutor' 注入。
      */
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
@@ -42,4 +47,78 @@ public class AsyncImportConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * COS 分块并发上传线程池
+     * 由 ParallelMultipartUploader 使用，单个任务的在途分块数由 lingtai.transfer.part-concurrency 控制，
+     * 这里只限制全进程的上传线程总数。
+     */
+    @Bean(name = "cosPartExecutor")
+    public Executor cosPartExecutor(TransferProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getPartUploadThreads());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("CosPart-");
+        // 队列满时由读取线程自己上传，天然形成背压
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 仓库快照文件传输线程池
+     * 固定线程数即全进程同时传输的文件数上限（lingtai.transfer.snapshot-concurrency），
+     * 多个快照导入的文件在无界队列中排队，单个文件内部的分块并发仍由 cosPartExecutor 承担。
+     */
+    @Bean(name = "hubFileExecutor")
+    public Executor hubFileExecutor(TransferProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getSnapshotConcurrency());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("HubFile-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 张量索引线程池
+     * 固定线程数即全进程同时索引的文件数上限（lingtai.tensor-index.concurrency），上传、导入后触发的索引在无界队列中排队，
+     * 回填自行限制在途数量，不会一次性压入整个目录。
+     */
+    @Bean(name = "tensorIndexExecutor")
+    public Executor tensorIndexExecutor(TensorIndexProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getConcurrency());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("TensorIndex-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 导入任务执行线程池
+     * 并发数由 ImportScheduler 控制（lingtai.import-scheduler.max-concurrent），这里只提供执行线程；
+     * 导入是长时间阻塞的网络 IO，开启虚拟线程时每个任务使用一个虚拟线程。
+     */
+    @Bean(name = "importTaskExecutor")
+    public Executor importTaskExecutor(ImportSchedulerProperties properties) {
+        if (SpringUtils.isVirtual()) {
+            return new VirtualThreadTaskExecutor("ImportTask-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getMaxConcurrent());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // 任务结束时会在归还线程前调度下一个任务，队列容纳这一短暂重叠
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("ImportTask-");
+        executor.initialize();
+        return executor;
+    }
 }
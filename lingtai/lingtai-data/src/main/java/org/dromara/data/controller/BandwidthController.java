@@ -0,0 +1,51 @@
+package org.dromara.data.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.dromara.common.core.domain.R;
+import org.dromara.common.satoken.utils.LoginHelper;
+import org.dromara.data.entity.dto.BandwidthLimitDTO;
+import org.dromara.data.entity.dto.BandwidthStatsDTO;
+import org.dromara.data.transfer.BandwidthGovernor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 传输带宽控制器
+ * 查询各流量分类的吞吐，查询与调整运行时限速
+ */
+@RestController
+@RequestMapping("/api/edgeai/transfer/bandwidth")
+@RequiredArgsConstructor
+public class BandwidthController {
+
+    private final BandwidthGovernor bandwidthGovernor;
+
+    /**
+     * 查询本实例各流量分类的吞吐
+     */
+    @GetMapping("/stats")
+    public R<List<BandwidthStatsDTO>> stats() {
+        return R.ok(bandwidthGovernor.listStats());
+    }
+
+    /**
+     * 查询生效的限速
+     */
+    @GetMapping("/limits")
+    public R<List<BandwidthLimitDTO>> limits() {
+        return R.ok(bandwidthGovernor.listLimits());
+    }
+
+    /**
+     * 调整限速，立即对所有实例生效；bytesPerSecond 为空时撤销调整，恢复配置值
+     */
+    @PutMapping("/limits")
+    public R<Void> setLimit(@RequestBody BandwidthLimitDTO limit) {
+        if (!LoginHelper.isSuperAdmin()) {
+            return R.fail("仅超级管理员可调整限速");
+        }
+        bandwidthGovernor.setLimit(limit);
+        return R.ok("限速已更新");
+    }
+}
@@ -5,6 +5,10 @@ import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboReference;
 import org.dromara.common.core.domain.R;
+import org.dromara.data.entity.StorageBlob;
+import org.dromara.data.integrity.StoredObject;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.transfer.CosClientRegistry;
 import org.dromara.data.utils.CosUtils;
 import org.dromara.resource.api.RemoteFileService;
 import org.dromara.resource.api.domain.RemoteFile;
@@ -22,6 +26,12 @@ public class COSController {
     @Resource
     private CosUtils cosUtils;
 
+    @Resource
+    private CosClientRegistry cosClientRegistry;
+
+    @Resource
+    private IStorageBlobService storageBlobService;
+
     /**
      * 使用 @DubboReference 注入远程服务
      */
@@ -68,12 +78,18 @@ public class COSController {
 
                 totalSize += file.getSize();
 
-                // 上传文件（你的方法返回的是 key）
-                String key = cosUtils.uploadFile(
-                    file.getInputStream(),
-                    objectKey,
-                    file.getSize()
-                );
+                // 上传文件，边上传边计算 SHA-256 与 CRC64，并与 COS 返回的 CRC64 比对
+                StoredObject stored = cosUtils.uploadFile(file.getInputStream(), objectKey, file.getSize());
+                String key = stored.key();
+                String sha256 = stored.checksums().sha256();
+
+                // 内容已存在则引用已有对象，删除刚上传的副本
+                StorageBlob blob = storageBlobService.register(sha256, file.getSize(), key);
+                if (blob.getId() != null && !key.equals(blob.getObjectKey())) {
+                    cosUtils.deleteObject(key);
+                    key = blob.getObjectKey();
+                    log.info("文件 {} 内容已存在，复用对象 {}", originalFilename, key);
+                }
 
                 // 转换为可访问 URL （传入的是完整文件路径 key）
                 String url = cosUtils.getPublicUrl(key);
@@ -86,6 +102,9 @@ public class COSController {
                 fileInfo.put("url", url);
                 fileInfo.put("size", file.getSize());
                 fileInfo.put("key", key); // 完整的 COS Key
+                fileInfo.put("sha256", sha256);
+                fileInfo.put("crc64", stored.checksums().crc64());
+                fileInfo.put("blobId", blob.getId()); // 创建模型/数据集时可随文件回传，未回传时按 url 关联
 
                 uploadedFiles.add(fileInfo);
             }
@@ -146,6 +165,14 @@ public class COSController {
         return R.ok(result);
     }
 
+    /**
+     * COS 客户端连接池指标
+     */
+    @GetMapping("/pool/metrics")
+    public R<List<CosClientRegistry.ClientMetrics>> getPoolMetrics() {
+        return R.ok(cosClientRegistry.getMetrics());
+    }
+
     @GetMapping("/hi")
     public String hi() {
         return "hi from dubbo service";
@@ -0,0 +1,54 @@
+package org.dromara.data.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.dromara.common.core.domain.R;
+import org.dromara.common.satoken.utils.LoginHelper;
+import org.dromara.data.entity.dto.CatalogSearchQueryDTO;
+import org.dromara.data.entity.dto.CatalogSearchResultDTO;
+import org.dromara.data.entity.dto.CatalogStatsDTO;
+import org.dromara.data.service.ICatalogSearchService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 目录检索控制器
+ * 模型与数据集的全文检索，开启 lingtai.catalog.enabled 后可用
+ */
+@RestController
+@RequestMapping("/api/edgeai/catalog")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lingtai.catalog", name = "enabled", havingValue = "true")
+public class CatalogController {
+
+    private final ICatalogSearchService catalogSearchService;
+
+    /**
+     * 检索模型与数据集，返回高亮片段与分面统计
+     */
+    @GetMapping("/search")
+    public R<CatalogSearchResultDTO> search(CatalogSearchQueryDTO query) {
+        return R.ok(catalogSearchService.search(query, LoginHelper.getUserId()));
+    }
+
+    /**
+     * 全量重建索引（仅超级管理员）
+     */
+    @PostMapping("/reindex")
+    public R<Void> reindex() {
+        if (!LoginHelper.isSuperAdmin()) {
+            return R.fail("仅超级管理员可以重建索引");
+        }
+        if (catalogSearchService.reindex()) {
+            return R.ok("已开始重建索引");
+        }
+        return R.fail("重建正在进行中");
+    }
+
+    /**
+     * 索引延迟、发件箱积压与检索耗时
+     */
+    @GetMapping("/stats")
+    public R<CatalogStatsDTO> stats() {
+        return R.ok(catalogSearchService.stats());
+    }
+}
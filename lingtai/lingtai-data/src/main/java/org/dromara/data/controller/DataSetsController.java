@@ -5,14 +5,21 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import jakarta.annotation.Resource;
 import lombok.RequiredArgsConstructor;
 import org.dromara.common.core.domain.R;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
 import org.dromara.data.entity.DataSets;
 import org.dromara.data.entity.DataSetsFiles;
+import org.dromara.data.entity.dto.DataSetPreviewDTO;
 import org.dromara.data.entity.dto.DataSetsDTO;
 import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.progress.ProgressSsePublisher;
 import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.service.IDataSetPreviewService;
 import org.dromara.data.service.IDataSetsService; // 假设对应的数据集服务接口
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -26,8 +33,11 @@ import java.util.List;
 public class DataSetsController {
 
     private final IDataSetsService dataSetsService;
+    private final IDataSetPreviewService dataSetPreviewService;
     @Resource
     private ProgressStore progressStore; // 用于处理异步任务的进度存储
+    @Resource
+    private ProgressSsePublisher progressSsePublisher;
 
     /**
      * 查询所有数据集
@@ -60,6 +70,24 @@ public class DataSetsController {
         return R.ok(page);
     }
 
+    /**
+     * 游标分页查询数据集，按创建时间倒序；翻页时回传上一页的 nextCursor
+     * @param query 分页大小与游标
+     * @param name 数据集名称前缀（可选）
+     * @param status 状态（可选）
+     * @param dataType 数据类型（可选）
+     * @return 一页数据集与下一页的游标
+     */
+    @GetMapping("/cursor")
+    public R<CursorPage<DataSetsDTO>> cursorDataSets(
+        CursorPageQuery query,
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String dataType
+    ) {
+        return R.ok(dataSetsService.cursorDataSets(query, name, status, dataType));
+    }
+
     /**
      * 根据ID获取数据集详情
      * @param id 数据集ID
@@ -148,6 +176,16 @@ public class DataSetsController {
         }
         return R.ok(progress);
     }
+
+    /**
+     * 订阅导入进度（SSE），合并推送进度，成功/失败事件后关闭连接
+     * 断线重连时浏览器自动携带 Last-Event-ID，服务端补发更新的进度
+     */
+    @GetMapping(value = "/import/progress/{taskId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamImportProgress(@PathVariable String taskId,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return progressSsePublisher.subscribe(taskId, lastEventId);
+    }
     /**
      * 用模型id获取对应文件信息
      */
@@ -160,6 +198,19 @@ public class DataSetsController {
         return R.ok(fileInfo);
     }
 
+    /**
+     * 预览数据集文件（CSV、TSV、JSONL、Parquet），只按区间读取少量字节
+     *
+     * @param rows 样本行数
+     * @param mode head（文件开头）或 sample（均匀抽样）
+     */
+    @GetMapping("/file/{fileId}/preview")
+    public R<DataSetPreviewDTO> previewFile(@PathVariable Integer fileId,
+                                            @RequestParam(required = false) Integer rows,
+                                            @RequestParam(required = false) String mode) {
+        return R.ok(dataSetPreviewService.preview(fileId, rows, mode));
+    }
+
     // 可以根据需要添加其他功能，如：
     // @PostMapping("/{id}/label") 用于数据集标注
     // @GetMapping("/{id}/files") 用于获取数据集文件列表
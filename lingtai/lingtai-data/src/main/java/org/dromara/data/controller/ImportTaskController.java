@@ -0,0 +1,56 @@
+package org.dromara.data.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.dromara.common.core.domain.R;
+import org.dromara.common.satoken.utils.LoginHelper;
+import org.dromara.data.entity.dto.ImportTaskInfoDTO;
+import org.dromara.data.scheduler.ImportScheduler;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 导入任务调度控制器
+ * 查询排队位置与取消导入；模型与数据集的导入任务共用
+ */
+@RestController
+@RequestMapping("/api/edgeai/import")
+@RequiredArgsConstructor
+public class ImportTaskController {
+
+    private final ImportScheduler importScheduler;
+
+    /**
+     * 查询当前用户在本实例上排队和执行中的导入任务
+     */
+    @GetMapping("/tasks")
+    public R<List<ImportTaskInfoDTO>> listTasks() {
+        return R.ok(importScheduler.listByUser(LoginHelper.getUserId()));
+    }
+
+    /**
+     * 查询导入任务的调度状态与排队位置
+     * 任务在其他实例上或不属于当前用户时返回失败，排队位置也可从导入进度的消息中获得
+     */
+    @GetMapping("/tasks/{taskId}")
+    public R<ImportTaskInfoDTO> getTask(@PathVariable String taskId) {
+        Long requesterId = LoginHelper.isSuperAdmin() ? null : LoginHelper.getUserId();
+        ImportTaskInfoDTO info = importScheduler.info(taskId, requesterId);
+        if (info == null) {
+            return R.fail("任务不在本实例排队或已结束");
+        }
+        return R.ok(info);
+    }
+
+    /**
+     * 取消导入任务：排队中的任务直接移出队列，执行中的任务中断传输并标记失败
+     */
+    @PostMapping("/tasks/{taskId}/cancel")
+    public R<Void> cancelTask(@PathVariable String taskId) {
+        Long requesterId = LoginHelper.isSuperAdmin() ? null : LoginHelper.getUserId();
+        if (importScheduler.cancel(taskId, requesterId)) {
+            return R.ok("导入任务已取消");
+        }
+        return R.ok("已提交取消请求");
+    }
+}
@@ -5,17 +5,32 @@ package org.dromara.data.controller;
 import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.dromara.common.core.domain.R;
 
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
+import org.dromara.common.satoken.utils.LoginHelper;
+import org.dromara.data.entity.ModelTensor;
 import org.dromara.data.entity.Models;
 import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.ModelBulkRegisterDTO;
+import org.dromara.data.entity.dto.ModelBulkRegisterResultDTO;
+import org.dromara.data.entity.dto.ModelTensorIndexDTO;
 import org.dromara.data.entity.dto.ModelsDTO;
+import org.dromara.data.progress.ProgressSsePublisher;
 import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.service.IArtifactService;
 import org.dromara.data.service.IModelsService;
+import org.dromara.data.service.ITensorIndexService;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -30,6 +45,12 @@ public class ModelsController {
     private final IModelsService modelsService;
     @Resource
     private ProgressStore progressStore;
+    @Resource
+    private ProgressSsePublisher progressSsePublisher;
+    @Resource
+    private IArtifactService artifactService;
+    @Resource
+    private ITensorIndexService tensorIndexService;
 
     /**
      * 查询所有模型
@@ -59,6 +80,20 @@ public class ModelsController {
         return R.ok(page);
     }
 
+    /**
+     * 游标分页查询当前用户的模型，按创建时间倒序；翻页时回传上一页的 nextCursor
+     * @param query 分页大小与游标
+     * @param name 模型名称前缀（可选）
+     * @param status 状态（可选）
+     * @return 一页模型与下一页的游标
+     */
+    @GetMapping("/cursor")
+    public R<CursorPage<ModelsDTO>> getModelsCursor(CursorPageQuery query,
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String status) {
+        return R.ok(modelsService.getModelsCursor(query, LoginHelper.getUserId(), name, status));
+    }
+
     /**
      * 根据ID查询模型
      * @param id 模型ID
@@ -100,6 +135,17 @@ public class ModelsController {
         return R.fail("模型创建失败");
     }
 
+    /**
+     * 批量登记模型及其文件
+     * 校验失败的模型在结果中列出；atomic 为 true 时任一失败都不登记
+     * @param dto 待登记的模型
+     * @return 登记结果
+     */
+    @PostMapping("/bulk")
+    public R<ModelBulkRegisterResultDTO> bulkCreateModels(@RequestBody ModelBulkRegisterDTO dto) {
+        return R.ok(modelsService.bulkCreateModels(dto, LoginHelper.getUserId()));
+    }
+
     /**
      * 更新模型信息
      * @param id 模型ID
@@ -170,6 +216,16 @@ public class ModelsController {
         return R.ok(progress);
     }
 
+    /**
+     * 订阅导入进度（SSE），合并推送进度，成功/失败事件后关闭连接
+     * 断线重连时浏览器自动携带 Last-Event-ID，服务端补发更新的进度
+     */
+    @GetMapping(value = "/import/progress/{taskId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamImportProgress(@PathVariable String taskId,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return progressSsePublisher.subscribe(taskId, lastEventId);
+    }
+
 
 
     /**
@@ -199,4 +255,41 @@ public class ModelsController {
         }
         return R.ok(fileInfo);
     }
+
+    /**
+     * 下载模型文件，支持 Range 分段并发下载
+     * 启用节点缓存时由本地缓存发送，否则重定向到对象存储临时链接
+     */
+    @GetMapping("/file/{fileId}/download")
+    public void downloadFile(@PathVariable Integer fileId, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        artifactService.downloadModelFile(fileId, request, response);
+    }
+
+    /**
+     * 模型的参数量与各文件的张量索引状态
+     */
+    @GetMapping("/{id}/tensor-index")
+    public R<ModelTensorIndexDTO> getTensorIndex(@PathVariable Integer id) {
+        return R.ok(tensorIndexService.getModelIndex(id));
+    }
+
+    /**
+     * 模型文件的张量列表（名称、类型、形状、数据偏移）
+     */
+    @GetMapping("/file/{fileId}/tensors")
+    public R<List<ModelTensor>> listTensors(@PathVariable Integer fileId) {
+        return R.ok(tensorIndexService.listTensors(fileId));
+    }
+
+    /**
+     * 为已有模型文件补建张量索引，后台执行
+     */
+    @PostMapping("/tensor-index/backfill")
+    public R<Void> backfillTensorIndex() {
+        if (!LoginHelper.isSuperAdmin()) {
+            return R.fail("仅超级管理员可执行回填");
+        }
+        return tensorIndexService.backfill() ? R.ok("回填已开始") : R.fail("回填正在执行");
+    }
 }
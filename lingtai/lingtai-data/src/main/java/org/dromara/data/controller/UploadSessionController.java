@@ -0,0 +1,73 @@
+package org.dromara.data.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.dromara.common.core.domain.R;
+import org.dromara.common.satoken.utils.LoginHelper;
+import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.UploadPartDTO;
+import org.dromara.data.entity.dto.UploadSessionCompleteDTO;
+import org.dromara.data.entity.dto.UploadSessionCreateDTO;
+import org.dromara.data.entity.dto.UploadSessionDTO;
+import org.dromara.data.entity.dto.UploadSessionRegisterDTO;
+import org.dromara.data.service.IUploadSessionService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 浏览器直传控制器
+ * 大文件由浏览器按预签名 URL 直接分块上传到存储桶，不经过服务端：
+ * 创建会话 -> 获取分块 URL 并逐块 PUT -> 提交分块 ETag 完成 -> 登记为模型文件
+ */
+@RestController
+@RequestMapping("/api/cos/upload-sessions")
+@RequiredArgsConstructor
+public class UploadSessionController {
+
+    private final IUploadSessionService uploadSessionService;
+
+    /**
+     * 创建直传会话，返回分块大小、分块数与首批分块 URL
+     */
+    @PostMapping
+    public R<UploadSessionDTO> create(@RequestBody UploadSessionCreateDTO dto) {
+        return R.ok(uploadSessionService.create(dto, LoginHelper.getUserId()));
+    }
+
+    /**
+     * 签发分块 URL，从 from 开始最多 count 个；URL 过期后可重新签发
+     */
+    @GetMapping("/{sessionId}/parts")
+    public R<List<UploadPartDTO>> presignParts(@PathVariable Long sessionId,
+                                               @RequestParam(defaultValue = "1") int from,
+                                               @RequestParam(defaultValue = "100") int count) {
+        return R.ok(uploadSessionService.presignParts(sessionId, LoginHelper.getUserId(), from, count));
+    }
+
+    /**
+     * 提交全部分块的 ETag，核对后完成分块上传
+     */
+    @PostMapping("/{sessionId}/complete")
+    public R<FileInfoDTO> complete(@PathVariable Long sessionId, @RequestBody UploadSessionCompleteDTO dto) {
+        return R.ok(uploadSessionService.complete(sessionId, dto, LoginHelper.getUserId()));
+    }
+
+    /**
+     * 取消直传会话，清理已上传的分块或对象
+     */
+    @DeleteMapping("/{sessionId}")
+    public R<Void> abort(@PathVariable Long sessionId) {
+        if (uploadSessionService.abort(sessionId, LoginHelper.getUserId())) {
+            return R.ok("已取消上传");
+        }
+        return R.fail("会话已结束，无法取消");
+    }
+
+    /**
+     * 将已完成的直传会话登记为模型文件，全部成功或全部不登记
+     */
+    @PostMapping("/register")
+    public R<List<FileInfoDTO>> register(@RequestBody UploadSessionRegisterDTO dto) {
+        return R.ok(uploadSessionService.register(dto, LoginHelper.getUserId(), LoginHelper.isSuperAdmin()));
+    }
+}
@@ -0,0 +1,104 @@
+package org.dromara.data.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.dromara.easyes.annotation.IndexField;
+import org.dromara.easyes.annotation.IndexId;
+import org.dromara.easyes.annotation.IndexName;
+import org.dromara.easyes.annotation.rely.FieldType;
+import org.dromara.easyes.annotation.rely.IdType;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 目录检索文档 (对应搜索引擎索引 lingtai_catalog)
+ * 模型与数据集共用一个索引，以 targetType 区分；文本字段参与相关度排序与高亮，keyword 字段用于过滤与分面
+ */
+@Data
+@IndexName(CatalogDocument.INDEX)
+@Accessors(chain = true)
+public class CatalogDocument implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String INDEX = "lingtai_catalog";
+
+    /**
+     * 文档ID：对象类型-对象ID，例如 model-12
+     */
+    @IndexId(type = IdType.CUSTOMIZE)
+    private String id;
+
+    /**
+     * 对象类型（model dataset）
+     */
+    @IndexField(fieldType = FieldType.KEYWORD)
+    private String targetType;
+
+    /**
+     * 模型或数据集ID
+     */
+    @IndexField(fieldType = FieldType.INTEGER)
+    private Integer targetId;
+
+    @IndexField(fieldType = FieldType.LONG)
+    private Long userId;
+
+    @IndexField(fieldType = FieldType.TEXT)
+    private String name;
+
+    @IndexField(fieldType = FieldType.TEXT)
+    private String description;
+
+    /**
+     * 仓库路径（例如 meta-llama/Llama-3-8B），取自 hubUrl
+     */
+    @IndexField(fieldType = FieldType.TEXT)
+    private String hubRepo;
+
+    @IndexField(fieldType = FieldType.KEYWORD)
+    private String version;
+
+    @IndexField(fieldType = FieldType.KEYWORD)
+    private String status;
+
+    /**
+     * 数据集的数据类型
+     */
+    @IndexField(fieldType = FieldType.KEYWORD)
+    private String dataType;
+
+    /**
+     * 数据集来源
+     */
+    @IndexField(fieldType = FieldType.KEYWORD)
+    private String source;
+
+    /**
+     * 模型权重格式（safetensors gguf），取自张量索引
+     */
+    @IndexField(fieldType = FieldType.KEYWORD)
+    private List<String> formats;
+
+    /**
+     * 模型参数量，取自张量索引
+     */
+    @IndexField(fieldType = FieldType.LONG)
+    private Long parameterCount;
+
+    @IndexField(fieldType = FieldType.LONG)
+    private Long size;
+
+    @IndexField(fieldType = FieldType.DATE)
+    private Long createdTime;
+
+    @IndexField(fieldType = FieldType.DATE)
+    private Long updatedTime;
+
+    /**
+     * 写入该文档的全量重建批次，重建结束后删除批次不符的文档
+     */
+    @IndexField(fieldType = FieldType.LONG)
+    private Long generation;
+}
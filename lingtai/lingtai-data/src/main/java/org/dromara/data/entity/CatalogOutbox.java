@@ -0,0 +1,43 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 目录检索发件箱 (对应数据库表 catalog_outbox)
+ * 只记录哪个对象变了，索引时重新读取当前状态，因此同一对象的多条记录可以合并
+ */
+@Data
+@TableName("catalog_outbox")
+@Accessors(chain = true)
+public class CatalogOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键，单调递增，同时作为搜索文档的外部版本号
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 对象类型，见 {@link org.dromara.data.service.ICatalogOutboxService#TARGET_MODEL}
+     */
+    private String targetType;
+
+    /**
+     * 模型或数据集ID
+     */
+    private Integer targetId;
+
+    /**
+     * 登记时间
+     */
+    private Timestamp createdTime;
+}
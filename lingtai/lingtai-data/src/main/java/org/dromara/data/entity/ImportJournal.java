@@ -0,0 +1,108 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 导入任务断点日志 (对应数据库表 import_journal)
+ * 记录一次 Hub 导入的源站信息与 COS 分块上传进度，实例重启后据此续传
+ */
+@Data
+@TableName("import_journal")
+@Accessors(chain = true)
+public class ImportJournal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 前端轮询进度使用的任务ID
+     */
+    private String taskId;
+
+    /**
+     * 导入目标类型：MODEL, DATASET
+     */
+    private String targetType;
+
+    /**
+     * 导入目标ID（models.id 或 datasets.id）
+     */
+    private Integer targetId;
+
+    private Long userId;
+
+    /**
+     * 源站下载地址
+     */
+    private String sourceUrl;
+
+    /**
+     * 源站 ETag，续传前校验源文件是否变化
+     */
+    private String sourceEtag;
+
+    /**
+     * 源文件内容 SHA-256（源站可预知时，如 HuggingFace LFS 文件），用于去重
+     */
+    private String contentSha256;
+
+    /**
+     * 源文件总大小（字节）
+     */
+    private Long totalSize;
+
+    /**
+     * 分块大小（字节），续传时必须与当前配置一致
+     */
+    private Long partSize;
+
+    /**
+     * COS 对象键
+     */
+    private String objectKey;
+
+    /**
+     * COS 分块上传ID
+     */
+    private String uploadId;
+
+    /**
+     * 已提交分块的字节数
+     */
+    private Long completedBytes;
+
+    /**
+     * 状态：RUNNING, COMPLETED, FAILED, ABORTED
+     */
+    private String status;
+
+    /**
+     * 当前执行该任务的实例（pid@host）
+     */
+    private String owner;
+
+    /**
+     * 执行实例最近一次心跳时间，超时视为实例已退出
+     */
+    private Timestamp heartbeatTime;
+
+    /**
+     * 已自动续传次数
+     */
+    private Integer resumeCount;
+
+    private String errorMessage;
+
+    private Timestamp createdTime;
+
+    private Timestamp updatedTime;
+}
@@ -0,0 +1,51 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 导入任务已提交分块 (对应数据库表 import_journal_part)
+ */
+@Data
+@TableName("import_journal_part")
+@Accessors(chain = true)
+public class ImportJournalPart implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 【外键】关联的导入日志ID，指向 import_journal.id
+     */
+    private Long journalId;
+
+    /**
+     * 分块号（从 1 开始）
+     */
+    private Integer partNumber;
+
+    /**
+     * 源文件字节区间起点（含）
+     */
+    private Long rangeStart;
+
+    /**
+     * 源文件字节区间终点（含）
+     */
+    private Long rangeEnd;
+
+    /**
+     * COS 返回的分块 ETag
+     */
+    private String etag;
+
+    private Timestamp createdTime;
+}
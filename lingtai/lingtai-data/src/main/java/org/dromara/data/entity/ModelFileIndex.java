@@ -0,0 +1,77 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 模型文件张量索引 (对应数据库表 model_file_index)
+ * 每个 safetensors / gguf 文件一行，记录张量数、参数量与文件头元数据
+ */
+@Data
+@TableName("model_file_index")
+@Accessors(chain = true)
+public class ModelFileIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATUS_INDEXED = "INDEXED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 模型文件ID（model_files.id），唯一
+     */
+    private Integer fileId;
+
+    /**
+     * 模型ID
+     */
+    private Integer modelId;
+
+    /**
+     * 文件格式：safetensors、gguf
+     */
+    private String format;
+
+    /**
+     * 状态：INDEXED、FAILED
+     */
+    private String status;
+
+    /**
+     * 张量数
+     */
+    private Integer tensorCount;
+
+    /**
+     * 参数量（各张量元素数之和）
+     */
+    private Long parameterCount;
+
+    /**
+     * 文件头字节数（长度前缀 + JSON 头，或 GGUF 元数据与张量信息）
+     */
+    private Long headerBytes;
+
+    /**
+     * 文件头元数据（JSON），GGUF 的长数组只保留类型与长度
+     */
+    private String metadata;
+
+    /**
+     * 失败原因
+     */
+    private String errorMsg;
+
+    private Timestamp createdTime;
+
+    private Timestamp updatedTime;
+}
@@ -0,0 +1,58 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 模型张量 (对应数据库表 model_tensor)
+ */
+@Data
+@TableName("model_tensor")
+@Accessors(chain = true)
+public class ModelTensor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 模型文件ID（model_files.id）
+     */
+    private Integer fileId;
+
+    /**
+     * 张量名
+     */
+    private String name;
+
+    /**
+     * 数据类型，safetensors 如 F16、BF16，gguf 如 F32、Q4_K
+     */
+    private String dtype;
+
+    /**
+     * 形状（JSON 数组），safetensors 为行优先顺序，gguf 保持文件中的维度顺序（最内层维度在前）
+     */
+    private String shape;
+
+    /**
+     * 元素数
+     */
+    private Long numElements;
+
+    /**
+     * 数据起始偏移（文件内绝对偏移）
+     */
+    private Long dataStart;
+
+    /**
+     * 数据结束偏移（不含），gguf 未知量化类型时为空
+     */
+    private Long dataEnd;
+}
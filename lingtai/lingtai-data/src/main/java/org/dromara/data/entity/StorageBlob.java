@@ -0,0 +1,52 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 内容寻址对象 (对应数据库表 storage_blob)
+ * 相同内容（SHA-256 相同）的文件在 COS 中只保存一份，model_files / datasets_files 通过 blob_id 引用
+ */
+@Data
+@TableName("storage_blob")
+@Accessors(chain = true)
+public class StorageBlob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 内容 SHA-256（小写十六进制），唯一
+     */
+    private String sha256;
+
+    /**
+     * COS 对象键（首次上传时的对象键）
+     */
+    private String objectKey;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long size;
+
+    /**
+     * 被 model_files / datasets_files 引用的次数，为 0 且超过保留期后对象被删除
+     */
+    private Integer refCount;
+
+    private Timestamp createdTime;
+
+    /**
+     * 最近一次被引用或命中的时间
+     */
+    private Timestamp updatedTime;
+}
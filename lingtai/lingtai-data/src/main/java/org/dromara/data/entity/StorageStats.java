@@ -0,0 +1,57 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 模型/数据集存储统计计数 (对应数据库表 storage_stats)
+ * 每行是某个用户（user_id = 0 为全局）在某个维度取值下的数量与存储大小，随增删改增量维护，定时对账修正
+ */
+@Data
+@TableName("storage_stats")
+@Accessors(chain = true)
+public class StorageStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 统计对象：model / dataset
+     */
+    private String targetType;
+
+    /**
+     * 用户ID，0 表示全局
+     */
+    private Long userId;
+
+    /**
+     * 统计维度：status / version
+     */
+    private String dim;
+
+    /**
+     * 维度取值（状态或版本号），空值记为空串
+     */
+    private String dimValue;
+
+    /**
+     * 数量
+     */
+    private Long itemCount;
+
+    /**
+     * 存储大小（字节）
+     */
+    private Long sizeBytes;
+
+    private Timestamp updatedTime;
+}
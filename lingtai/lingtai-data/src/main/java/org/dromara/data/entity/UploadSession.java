@@ -0,0 +1,84 @@
+package org.dromara.data.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 浏览器直传会话 (对应数据库表 upload_session)
+ * 服务端初始化分块上传并签发分块 URL，客户端直接向存储桶上传分块，完成后登记为模型文件
+ */
+@Data
+@TableName("upload_session")
+@Accessors(chain = true)
+public class UploadSession implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 发起上传的用户ID
+     */
+    private Long userId;
+
+    /**
+     * 文件名（上传目录内相对路径）
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 分块大小（字节），最后一块可以更小
+     */
+    private Long partSize;
+
+    /**
+     * 分块数
+     */
+    private Integer partCount;
+
+    /**
+     * COS 对象键
+     */
+    private String objectKey;
+
+    /**
+     * COS 分块上传ID
+     */
+    private String uploadId;
+
+    /**
+     * 状态，见 {@link org.dromara.data.enums.UploadSessionStatus}
+     */
+    private String status;
+
+    /**
+     * 完成后 COS 返回的 CRC64
+     */
+    private String crc64;
+
+    /**
+     * 登记后的模型文件ID
+     */
+    private Integer modelFileId;
+
+    /**
+     * 过期时间，过期未登记的上传被清理
+     */
+    private Timestamp expireTime;
+
+    private Timestamp createdTime;
+
+    private Timestamp updatedTime;
+}
@@ -0,0 +1,34 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 带宽限速项
+ */
+@Data
+public class BandwidthLimitDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * INBOUND / OUTBOUND
+     */
+    private String direction;
+
+    /**
+     * GLOBAL / TENANT / USER
+     */
+    private String level;
+
+    /**
+     * 租户ID或用户ID；TENANT、USER 级别为空时表示该级别的默认限速
+     */
+    private String key;
+
+    /**
+     * 限速（字节/秒），0 表示不限；设置时为空表示撤销运行时覆盖，恢复配置值
+     */
+    private Long bytesPerSecond;
+}
@@ -0,0 +1,44 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 单个流量分类的传输吞吐（本实例）
+ */
+@Data
+public class BandwidthStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 流量分类
+     */
+    private String trafficClass;
+
+    /**
+     * INBOUND / OUTBOUND
+     */
+    private String direction;
+
+    /**
+     * 启动以来传输的总字节数
+     */
+    private Long totalBytes;
+
+    /**
+     * 最近一个采样周期的吞吐（字节/秒）
+     */
+    private Long bytesPerSecond;
+
+    /**
+     * 启动以来因限速等待的总时长（毫秒）
+     */
+    private Long throttledMillis;
+
+    /**
+     * 当前打开的流数量
+     */
+    private Integer activeStreams;
+}
@@ -0,0 +1,47 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 目录检索条件，过滤条件为空时不过滤
+ */
+@Data
+public class CatalogSearchQueryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 关键词，匹配名称、仓库路径与描述
+     */
+    private String keyword;
+
+    /**
+     * 对象类型（model dataset）
+     */
+    private String targetType;
+
+    private String status;
+
+    private String version;
+
+    /**
+     * 数据集的数据类型
+     */
+    private String dataType;
+
+    /**
+     * 模型权重格式（safetensors gguf）
+     */
+    private String format;
+
+    /**
+     * 只看自己的
+     */
+    private Boolean mine;
+
+    private Integer pageNum = 1;
+
+    private Integer pageSize = 20;
+}
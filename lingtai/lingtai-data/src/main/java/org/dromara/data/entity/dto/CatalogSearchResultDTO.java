@@ -0,0 +1,93 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 目录检索结果
+ */
+@Data
+public class CatalogSearchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 命中总数
+     */
+    private long total;
+
+    /**
+     * 搜索引擎耗时（毫秒）
+     */
+    private long took;
+
+    private List<Hit> hits = new ArrayList<>();
+
+    /**
+     * 分面统计：字段名 -> 取值及命中数，字段为 targetType status version dataType formats
+     */
+    private Map<String, List<Bucket>> facets = new LinkedHashMap<>();
+
+    @Data
+    public static class Hit implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 对象类型（model dataset）
+         */
+        private String targetType;
+
+        /**
+         * 模型或数据集ID
+         */
+        private Integer targetId;
+
+        private Long userId;
+
+        private String name;
+
+        private String description;
+
+        private String hubRepo;
+
+        private String version;
+
+        private String status;
+
+        private String dataType;
+
+        private List<String> formats;
+
+        private Long parameterCount;
+
+        private Long size;
+
+        private Long updatedTime;
+
+        /**
+         * 相关度得分，无关键词时为空
+         */
+        private Double score;
+
+        /**
+         * 高亮片段：字段名 -> 片段，命中词以 em 标签包裹
+         */
+        private Map<String, List<String>> highlights;
+    }
+
+    @Data
+    public static class Bucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String value;
+
+        private long count;
+    }
+}
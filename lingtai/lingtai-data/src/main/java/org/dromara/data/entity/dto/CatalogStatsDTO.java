@@ -0,0 +1,76 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 目录检索运行指标
+ */
+@Data
+public class CatalogStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 待索引的发件箱记录数
+     */
+    private long pending;
+
+    /**
+     * 最早一条待索引记录的等待时间（毫秒）
+     */
+    private long oldestPendingMillis;
+
+    /**
+     * 最近一批的索引延迟：从变更登记到写入索引（毫秒）
+     */
+    private long lastLagMillis;
+
+    /**
+     * 启动以来的最大索引延迟（毫秒）
+     */
+    private long maxLagMillis;
+
+    /**
+     * 启动以来写入、删除、失败的文档数
+     */
+    private long indexedDocs;
+
+    private long deletedDocs;
+
+    private long failedDocs;
+
+    /**
+     * 是否正在全量重建
+     */
+    private boolean reindexing;
+
+    /**
+     * 当前批次号（最近一次重建的开始时间）
+     */
+    private long generation;
+
+    /**
+     * 最近一次重建完成时间
+     */
+    private long lastReindexTime;
+
+    /**
+     * 启动以来的检索次数
+     */
+    private long queryCount;
+
+    /**
+     * 检索耗时（毫秒）：平均、最大，及最近 1024 次的分位数
+     */
+    private long queryAvgMillis;
+
+    private long queryMaxMillis;
+
+    private long queryP50Millis;
+
+    private long queryP95Millis;
+
+    private long queryP99Millis;
+}
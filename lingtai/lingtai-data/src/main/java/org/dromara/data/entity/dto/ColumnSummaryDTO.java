@@ -0,0 +1,46 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 预览中的一列：类型与基础统计
+ * CSV、JSONL 的统计来自样本行，Parquet 的统计来自 footer 中各行组的列统计
+ */
+@Data
+public class ColumnSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 列名，Parquet 嵌套列以 . 连接
+     */
+    private String name;
+
+    /**
+     * 类型：CSV、JSONL 为推断类型（integer、number、boolean、string、object、array），
+     * Parquet 为物理类型，有逻辑类型时附在括号中，如 BYTE_ARRAY(STRING)
+     */
+    private String type;
+
+    /**
+     * 空值数
+     */
+    private Long nullCount;
+
+    /**
+     * 不同值个数，Parquet 写入端未记录时为 null
+     */
+    private Long distinctCount;
+
+    /**
+     * 最小值，无法比较时为 null
+     */
+    private Object min;
+
+    /**
+     * 最大值，无法比较时为 null
+     */
+    private Object max;
+}
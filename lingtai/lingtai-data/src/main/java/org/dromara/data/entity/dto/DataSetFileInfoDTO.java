@@ -58,6 +58,18 @@ public class DataSetFileInfoDTO implements Serializable {
      */
     private String dataType;
 
-    // 您可以根据需要添加更多字段，例如：
-    // private String hashMd5; // 文件的MD5校验码
+    /**
+     * 引用的内容寻址对象ID（storage_blob.id），为空表示未参与去重的历史文件
+     */
+    private Long blobId;
+
+    /**
+     * 内容 SHA-256（十六进制小写），为空表示未计算
+     */
+    private String sha256;
+
+    /**
+     * 内容 CRC-64/ECMA-182（无符号十进制），与 COS 的 x-cos-hash-crc64ecma 一致
+     */
+    private String crc64;
 }
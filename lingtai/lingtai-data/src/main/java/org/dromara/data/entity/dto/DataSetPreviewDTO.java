@@ -0,0 +1,61 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据集文件预览：列结构、样本行与列统计
+ */
+@Data
+public class DataSetPreviewDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 文件格式：csv、tsv、jsonl、parquet
+     */
+    private String format;
+
+    /**
+     * 对象大小（字节）
+     */
+    private Long objectSize;
+
+    /**
+     * 生成预览时对象的 ETag
+     */
+    private String eTag;
+
+    /**
+     * 取样方式：head 为文件开头，sample 为均匀分布的若干位置，footer 为 Parquet 元数据
+     */
+    private String mode;
+
+    /**
+     * 列结构与统计
+     */
+    private List<ColumnSummaryDTO> columns;
+
+    /**
+     * 样本行，键为列名；Parquet 不返回样本行
+     */
+    private List<Map<String, Object>> rows;
+
+    /**
+     * 总行数，仅 Parquet 可从 footer 得到，其他格式为 null
+     */
+    private Long totalRows;
+
+    /**
+     * Parquet 行组数
+     */
+    private Integer rowGroups;
+
+    /**
+     * 生成预览读取的对象字节数
+     */
+    private Long bytesRead;
+}
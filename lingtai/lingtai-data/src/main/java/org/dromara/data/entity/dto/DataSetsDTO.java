@@ -79,6 +79,11 @@ public class DataSetsDTO implements Serializable {
      */
     private String hubUrl;
 
+    /**
+     * 导入优先级，越大越先执行，超出允许范围时按边界处理
+     */
+    private Integer priority;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,44 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 导入任务调度状态
+ */
+@Data
+public class ImportTaskInfoDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String taskId;
+
+    private Long userId;
+
+    /**
+     * QUEUED / RUNNING / CANCELLED / FINISHED
+     */
+    private String state;
+
+    private Integer priority;
+
+    /**
+     * 排队位置（从 1 开始），执行中为 0
+     */
+    private Integer position;
+
+    /**
+     * 当前排队任务总数
+     */
+    private Integer queued;
+
+    /**
+     * 当前执行中任务总数
+     */
+    private Integer running;
+
+    private Long submitTime;
+
+    private Long startTime;
+}
@@ -0,0 +1,26 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量登记模型的请求
+ */
+@Data
+public class ModelBulkRegisterDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 待登记的模型，每个模型携带自己的文件列表（modelFiles）
+     */
+    private List<ModelsDTO> models;
+
+    /**
+     * 是否全部成功才登记：为 true 时任一模型校验失败则都不登记，
+     * 为 false 时跳过校验失败的模型，其余照常登记
+     */
+    private Boolean atomic;
+}
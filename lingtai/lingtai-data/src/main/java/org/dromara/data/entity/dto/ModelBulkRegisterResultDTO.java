@@ -0,0 +1,76 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量登记模型的结果
+ */
+@Data
+public class ModelBulkRegisterResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 请求中的模型数
+     */
+    private int requested;
+
+    /**
+     * 已登记的模型数
+     */
+    private int created;
+
+    /**
+     * 已登记的文件数
+     */
+    private int fileCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 已登记的模型ID，与请求中的下标一一对应，未登记的为 null
+     */
+    private List<Integer> modelIds = new ArrayList<>();
+
+    /**
+     * 未登记的模型及原因
+     */
+    private List<Failure> failures = new ArrayList<>();
+
+    @Data
+    public static class Failure implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 模型在请求中的下标
+         */
+        private int index;
+
+        /**
+         * 模型名称
+         */
+        private String name;
+
+        /**
+         * 原因
+         */
+        private String reason;
+
+        public Failure() {
+        }
+
+        public Failure(int index, String name, String reason) {
+            this.index = index;
+            this.name = name;
+            this.reason = reason;
+        }
+    }
+}
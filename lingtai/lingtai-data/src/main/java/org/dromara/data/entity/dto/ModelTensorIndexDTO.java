@@ -0,0 +1,33 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+import org.dromara.data.entity.ModelFileIndex;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 模型的张量索引汇总
+ */
+@Data
+public class ModelTensorIndexDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer modelId;
+
+    /**
+     * 参数量，已索引文件的参数量之和
+     */
+    private Long parameterCount;
+
+    /**
+     * 张量数，已索引文件的张量数之和
+     */
+    private Integer tensorCount;
+
+    /**
+     * 各文件的索引状态
+     */
+    private List<ModelFileIndex> files;
+}
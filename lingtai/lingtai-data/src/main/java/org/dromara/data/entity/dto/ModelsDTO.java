@@ -8,6 +8,7 @@ import org.dromara.data.entity.Models;
 
 import java.io.Serializable;
 import java.sql.Timestamp;
+import java.util.List;
 
 /**
  * Models DTO
@@ -63,6 +64,26 @@ public class ModelsDTO implements Serializable {
      * HuggingFace url
      */
     private String hubUrl;
+
+    /**
+     * 导入优先级，越大越先执行，超出允许范围时按边界处理
+     */
+    private Integer priority;
+
+    /**
+     * HuggingFace 仓库 revision（分支、标签或 commit），为空时使用 main
+     */
+    private String revision;
+
+    /**
+     * 仓库快照导入时仅导入匹配的文件（glob，如 *.safetensors、tokenizer*）
+     */
+    private List<String> allowPatterns;
+
+    /**
+     * 仓库快照导入时忽略匹配的文件（glob）
+     */
+    private List<String> ignorePatterns;
     /**
      * 创建时间
      */
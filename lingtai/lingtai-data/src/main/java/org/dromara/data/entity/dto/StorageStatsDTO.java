@@ -0,0 +1,51 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 存储统计结果
+ */
+@Data
+public class StorageStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 总数量
+     */
+    private long total;
+
+    /**
+     * 各状态的数量，key 为状态
+     */
+    private Map<String, Long> statusCounts = new HashMap<>();
+
+    /**
+     * 不同版本号的数量
+     */
+    private long versions;
+
+    /**
+     * 总存储大小（字节）
+     */
+    private long storageUsed;
+
+    /**
+     * 指定状态的数量（忽略大小写）
+     */
+    public long count(String... statuses) {
+        long count = 0;
+        for (Map.Entry<String, Long> entry : statusCounts.entrySet()) {
+            for (String status : statuses) {
+                if (status.equalsIgnoreCase(entry.getKey())) {
+                    count += entry.getValue();
+                }
+            }
+        }
+        return count;
+    }
+}
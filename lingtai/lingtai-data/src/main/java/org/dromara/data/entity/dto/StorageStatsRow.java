@@ -0,0 +1,24 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * models / datasets 按 (用户, 状态, 版本) 分组的聚合结果
+ */
+@Data
+public class StorageStatsRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private String status;
+
+    private String version;
+
+    private Long itemCount;
+
+    private Long sizeBytes;
+}
@@ -0,0 +1,29 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 直传分块：签发时携带预签名 URL，完成时由客户端回传分块 ETag
+ */
+@Data
+public class UploadPartDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 分块号，从 1 开始
+     */
+    private Integer partNumber;
+
+    /**
+     * 上传该分块的预签名 URL（PUT）
+     */
+    private String url;
+
+    /**
+     * 上传该分块后响应头中的 ETag
+     */
+    private String etag;
+}
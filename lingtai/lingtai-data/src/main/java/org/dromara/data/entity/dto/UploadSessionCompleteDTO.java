@@ -0,0 +1,25 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 完成浏览器直传会话的请求
+ */
+@Data
+public class UploadSessionCompleteDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 已上传的分块（分块号与 ETag），必须覆盖全部分块
+     */
+    private List<UploadPartDTO> parts;
+
+    /**
+     * 客户端计算的 CRC-64/ECMA-182（无符号十进制），可选；与 COS 不一致时删除对象
+     */
+    private String crc64;
+}
@@ -0,0 +1,29 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 创建浏览器直传会话的请求
+ */
+@Data
+public class UploadSessionCreateDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 文件名（上传目录内相对路径，例如 tokenizer/vocab.json）
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 上传目录，为空时新建；同一个模型的多个文件传入第一个会话返回的目录，使其位于同一目录下（每个会话在其中另有独立子目录）
+     */
+    private String uploadDir;
+}
@@ -0,0 +1,61 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 浏览器直传会话
+ */
+@Data
+public class UploadSessionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 会话ID
+     */
+    private Long sessionId;
+
+    /**
+     * 上传目录，同一个模型的其他文件创建会话时回传
+     */
+    private String uploadDir;
+
+    /**
+     * 文件名（上传目录内相对路径）
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 分块大小（字节），除最后一块外每块必须恰好为该大小
+     */
+    private Long partSize;
+
+    /**
+     * 分块数
+     */
+    private Integer partCount;
+
+    /**
+     * 会话状态
+     */
+    private String status;
+
+    /**
+     * 会话过期时间
+     */
+    private Timestamp expireTime;
+
+    /**
+     * 首批分块的预签名 URL，其余分块通过签发接口获取
+     */
+    private List<UploadPartDTO> parts;
+}
@@ -0,0 +1,30 @@
+package org.dromara.data.entity.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 将已完成的直传会话登记为模型文件的请求
+ */
+@Data
+public class UploadSessionRegisterDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 模型ID
+     */
+    private Integer modelId;
+
+    /**
+     * 已完成的会话ID
+     */
+    private List<Long> sessionIds;
+
+    /**
+     * 主文件对应的会话ID，可为空
+     */
+    private Long primarySessionId;
+}
@@ -0,0 +1,16 @@
+package org.dromara.data.enums;
+
+/**
+ * 文件完整性校验状态枚举
+ */
+public enum ChecksumStatus {
+    /**
+     * 校验值与对象存储中的内容一致
+     */
+    VERIFIED,
+
+    /**
+     * 对象存储中的内容与记录的校验值不一致
+     */
+    MISMATCH
+}
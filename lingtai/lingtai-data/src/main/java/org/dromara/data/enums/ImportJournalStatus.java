@@ -0,0 +1,26 @@
+package org.dromara.data.enums;
+
+/**
+ * 导入断点日志状态枚举
+ */
+public enum ImportJournalStatus {
+    /**
+     * 进行中（执行实例退出后可被接管续传）
+     */
+    RUNNING,
+
+    /**
+     * 已完成
+     */
+    COMPLETED,
+
+    /**
+     * 失败，分块上传待清理
+     */
+    FAILED,
+
+    /**
+     * 失败且分块上传已清理
+     */
+    ABORTED
+}
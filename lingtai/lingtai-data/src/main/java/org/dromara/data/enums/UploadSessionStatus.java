@@ -0,0 +1,36 @@
+package org.dromara.data.enums;
+
+/**
+ * 浏览器直传会话状态枚举
+ */
+public enum UploadSessionStatus {
+    /**
+     * 分块上传已初始化，客户端正在上传分块
+     */
+    ACTIVE,
+
+    /**
+     * 正在完成分块上传（防止重复提交）
+     */
+    COMPLETING,
+
+    /**
+     * 对象已生成，等待登记为文件记录
+     */
+    COMPLETED,
+
+    /**
+     * 已登记为文件记录
+     */
+    REGISTERED,
+
+    /**
+     * 已取消，分块上传已清理
+     */
+    ABORTED,
+
+    /**
+     * 过期未完成或未登记，分块上传或对象已清理
+     */
+    EXPIRED
+}
@@ -0,0 +1,7 @@
+package org.dromara.data.esmapper;
+
+import org.dromara.data.entity.CatalogDocument;
+import org.dromara.easyes.core.kernel.BaseEsMapper;
+
+public interface CatalogDocumentMapper extends BaseEsMapper<CatalogDocument> {
+}
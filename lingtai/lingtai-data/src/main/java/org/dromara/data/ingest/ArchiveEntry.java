@@ -0,0 +1,13 @@
+package org.dromara.data.ingest;
+
+import java.io.InputStream;
+
+/**
+ * 压缩包中的一个文件
+ *
+ * @param name 包内路径
+ * @param size 文件大小，未知时为 -1（如带数据描述符的 zip 条目）
+ * @param data 文件内容，读到末尾即结束；关闭不会关闭压缩包，读取下一个条目前未读完的部分被跳过
+ */
+public record ArchiveEntry(String name, long size, InputStream data) {
+}
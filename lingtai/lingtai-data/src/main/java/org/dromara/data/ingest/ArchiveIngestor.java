@@ -0,0 +1,421 @@
+package org.dromara.data.ingest;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.data.entity.DataSetsFiles;
+import org.dromara.data.entity.StorageBlob;
+import org.dromara.data.enums.ChecksumStatus;
+import org.dromara.data.integrity.Checksums;
+import org.dromara.data.integrity.DigestingInputStream;
+import org.dromara.data.mapper.DataSetsFileMapper;
+import org.dromara.data.properties.IngestProperties;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.transfer.BandwidthGovernor;
+import org.dromara.data.transfer.RangeStreamImporter;
+import org.dromara.data.transfer.TrafficClass;
+import org.dromara.data.transfer.TransferProgressListener;
+import org.dromara.data.transfer.TransferSubject;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 数据集压缩包流式导入
+ * <p>
+ * 源站压缩包边下载边解压，不落本地磁盘：
+ * <ul>
+ *     <li>小文件读入内存后交给上传线程池并发上传，内存占用受 maxBufferedBytes 限制，超过时读取线程阻塞（背压）；</li>
+ *     <li>大文件在读取线程上直接分块上传；</li>
+ *     <li>文件按 SHA-256 去重，内容已存在时复用已有对象；</li>
+ *     <li>文件读取时一并计算 CRC64，与 COS 返回的值比对；压缩包本身读到末尾后校验大小与源站 SHA-256；</li>
+ *     <li>文件记录按批写库，清单（路径、大小、哈希、行数）逐行写入临时文件，结束后上传为 manifest.jsonl；</li>
+ *     <li>进度按读取的压缩包字节数上报。</li>
+ * </ul>
+ * 导入失败或取消时删除本次写入的文件记录并释放对象引用。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArchiveIngestor {
+
+    private static final Set<String> TEXT_TYPES = Set.of("csv", "tsv", "jsonl", "ndjson", "txt");
+
+    private static final Set<String> HEADER_TYPES = Set.of("csv", "tsv");
+
+    private static final String MANIFEST_NAME = "manifest.jsonl";
+
+    private final IngestProperties properties;
+    private final RangeStreamImporter rangeStreamImporter;
+    private final CosUtils cosUtils;
+    private final BandwidthGovernor bandwidthGovernor;
+    private final IStorageBlobService storageBlobService;
+    private final DataSetsFileMapper fileMapper;
+
+    @Resource(name = "cosPartExecutor")
+    private Executor uploadExecutor;
+
+    /**
+     * 导入压缩包中的全部文件到数据集
+     *
+     * @param sourceUrl 压缩包地址，可以是本存储桶对象的公有读 URL
+     * @param listener  进度监听器，transferred 为已读取的压缩包字节数，可为 null
+     */
+    public IngestResult ingest(Integer dataSetId, String dataType, String sourceUrl,
+                               TransferProgressListener listener) throws IOException, InterruptedException {
+        String key = cosUtils.keyOfUrl(sourceUrl);
+        String url = key != null ? cosUtils.getPresignedUrl(key, properties.getPresignExpireSeconds()) : sourceUrl;
+        if (StringUtils.isBlank(url) || !(url.startsWith("http://") || url.startsWith("https://"))) {
+            throw new ServiceException("数据集地址必须是 http(s) 地址");
+        }
+
+        Session session = new Session(dataSetId, dataType, bandwidthGovernor.currentSubject());
+        try {
+            HttpResponse<InputStream> response = rangeStreamImporter.open(url);
+            long total = response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+            String eTag = response.headers().firstValue("X-Linked-Etag")
+                .or(() -> response.headers().firstValue("ETag")).orElse(null);
+            try (CountingInputStream archive = new CountingInputStream(new DigestingInputStream(
+                bandwidthGovernor.throttle(response.body(), TrafficClass.IMPORT_DOWNLOAD, session.subject),
+                total, Checksums.sha256OfETag(eTag)))) {
+                ArchiveReader reader = ArchiveReader.open(archive, Charset.forName(properties.getZipCharset()));
+                int entries = 0;
+                ArchiveEntry entry;
+                while ((entry = reader.next()) != null) {
+                    session.checkFailure();
+                    String path = normalize(entry.name());
+                    if (path == null) {
+                        log.debug("[INGEST] 跳过条目: {}", entry.name());
+                        continue;
+                    }
+                    if (++entries > properties.getMaxEntries()) {
+                        throw new ServiceException("压缩包文件数超过上限 " + properties.getMaxEntries());
+                    }
+                    ingestEntry(session, path, entry);
+                    if (listener != null) {
+                        listener.onProgress(archive.getBytes(), total);
+                    }
+                }
+                // 压缩包结尾的填充与目录区读完才会校验整个压缩包
+                archive.transferTo(OutputStream.nullOutputStream());
+                session.awaitUploads();
+                session.checkFailure();
+                IngestResult result = session.finish();
+                result.setArchiveBytes(archive.getBytes());
+                log.info("[INGEST] 数据集 {} 导入完成：{} 个文件，{} 字节，去重 {} 个",
+                    dataSetId, result.getFileCount(), result.getTotalBytes(), result.getDedupCount());
+                return result;
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            rollback(session);
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    private void ingestEntry(Session session, String path, ArchiveEntry entry) throws IOException, InterruptedException {
+        DigestingInputStream digesting = new DigestingInputStream(entry.data(), entry.size(), null);
+        CountingInputStream counted = new CountingInputStream(digesting);
+        int threshold = Math.min(properties.getSmallEntryThreshold(), properties.getMaxBufferedBytes());
+        if (entry.size() > threshold) {
+            uploadLarge(session, path, counted, counted, digesting, entry.size());
+            return;
+        }
+
+        // 大小未知时按阈值预留，读完后退回多余部分
+        int reserved = entry.size() >= 0 ? (int) Math.max(1, entry.size()) : threshold;
+        session.budget.acquire(reserved);
+        byte[] data;
+        try {
+            data = counted.readNBytes(threshold + 1);
+        } catch (IOException e) {
+            session.budget.release(reserved);
+            throw e;
+        }
+        if (data.length > threshold) {
+            session.budget.release(reserved);
+            uploadLarge(session, path, new SequenceInputStream(new ByteArrayInputStream(data), counted),
+                counted, digesting, -1);
+            return;
+        }
+        int held = Math.max(1, data.length);
+        if (reserved > held) {
+            session.budget.release(reserved - held);
+        }
+
+        Checksums checksums = digesting.checksums();
+        Long rows = rows(path, counted);
+        uploadExecutor.execute(() -> {
+            try (BandwidthGovernor.Binding ignored = BandwidthGovernor.bind(session.subject)) {
+                if (session.failure.get() != null) {
+                    return;
+                }
+                StorageBlob blob = storageBlobService.findBySha256(checksums.sha256());
+                if (blob != null && storageBlobService.retain(blob.getId())) {
+                    session.complete(path, checksums, rows, blob.getObjectKey(), blob.getId(), true);
+                    return;
+                }
+                String key = objectKey(session.dataSetId, path);
+                String storedCrc64 = cosUtils.uploadToKey(key, new ByteArrayInputStream(data), data.length,
+                    TrafficClass.IMPORT_UPLOAD);
+                cosUtils.verifyStored(key, checksums, storedCrc64);
+                Stored stored = register(checksums, key);
+                session.complete(path, checksums, rows, stored.key(), stored.blobId(), false);
+            } catch (Throwable t) {
+                session.failure.compareAndSet(null, t);
+            } finally {
+                session.budget.release(held);
+            }
+        });
+    }
+
+    /**
+     * 大文件在读取线程上上传，上传完成后才能得到哈希，已存在相同内容时删除刚上传的副本
+     */
+    private void uploadLarge(Session session, String path, InputStream source, CountingInputStream counted,
+                             DigestingInputStream digesting, long size) throws IOException {
+        String key = objectKey(session.dataSetId, path);
+        String storedCrc64 = cosUtils.uploadToKey(key, source, size, TrafficClass.IMPORT_UPLOAD);
+        Checksums checksums = digesting.checksums();
+        cosUtils.verifyStored(key, checksums, storedCrc64);
+        StorageBlob existing = storageBlobService.findBySha256(checksums.sha256());
+        boolean deduped = existing != null && !key.equals(existing.getObjectKey());
+        Stored stored = register(checksums, key);
+        session.complete(path, checksums, rows(path, counted), stored.key(), stored.blobId(), deduped);
+    }
+
+    /**
+     * 登记内容寻址对象并增加引用，相同内容已登记在其他对象键时删除刚上传的副本
+     */
+    private Stored register(Checksums checksums, String key) {
+        StorageBlob blob = storageBlobService.register(checksums.sha256(), checksums.size(), key);
+        if (blob.getId() == null) {
+            return new Stored(key, null);
+        }
+        if (!key.equals(blob.getObjectKey())) {
+            cosUtils.deleteObject(key);
+        }
+        return new Stored(blob.getObjectKey(), storageBlobService.retain(blob.getId()) ? blob.getId() : null);
+    }
+
+    /**
+     * 删除本次导入写入的文件记录并释放对象引用，先清除中断标记，保证取消时也能写库
+     */
+    private void rollback(Session session) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            session.awaitUploads();
+            List<Long> blobIds = new ArrayList<>();
+            synchronized (session) {
+                session.batch.stream().map(DataSetsFiles::getBlobId).filter(Objects::nonNull).forEach(blobIds::add);
+                session.batch.clear();
+            }
+            LambdaQueryWrapper<DataSetsFiles> wrapper = new LambdaQueryWrapper<DataSetsFiles>()
+                .eq(DataSetsFiles::getDataSetId, session.dataSetId)
+                .eq(DataSetsFiles::getCreatedTime, session.createdTime);
+            fileMapper.selectList(wrapper).stream()
+                .map(DataSetsFiles::getBlobId).filter(Objects::nonNull).forEach(blobIds::add);
+            fileMapper.delete(wrapper);
+            storageBlobService.release(blobIds);
+        } catch (Exception e) {
+            log.error("[INGEST] 清理数据集 {} 的导入记录失败", session.dataSetId, e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 统一路径分隔符，去掉开头的 / 与 ./；目录、macOS 资源文件与包含 .. 的路径返回 null
+     */
+    static String normalize(String name) {
+        String path = name.replace('\\', '/');
+        while (path.startsWith("/") || path.startsWith("./")) {
+            path = path.substring(path.startsWith("/") ? 1 : 2);
+        }
+        if (path.isEmpty() || path.endsWith("/") || path.startsWith("__MACOSX/")) {
+            return null;
+        }
+        for (String segment : path.split("/")) {
+            if ("..".equals(segment)) {
+                return null;
+            }
+        }
+        return path;
+    }
+
+    private static Long rows(String path, CountingInputStream counted) {
+        String type = extension(path);
+        if (!TEXT_TYPES.contains(type)) {
+            return null;
+        }
+        long lines = counted.getLines();
+        return HEADER_TYPES.contains(type) ? Math.max(0, lines - 1) : lines;
+    }
+
+    private static String extension(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot + 1).toLowerCase() : "";
+    }
+
+    private String objectKey(Integer dataSetId, String path) {
+        return cosUtils.objectKey("datasets/" + dataSetId + "/files/" + path);
+    }
+
+    private record Stored(String key, Long blobId) {
+    }
+
+    /**
+     * 单次导入的状态，complete 由上传线程与读取线程并发调用
+     */
+    private final class Session {
+
+        private final Integer dataSetId;
+        private final String dataType;
+        private final TransferSubject subject;
+
+        /**
+         * 本次导入写入的记录使用同一个创建时间，失败时据此删除
+         */
+        private final Timestamp createdTime = new Timestamp(System.currentTimeMillis());
+
+        /**
+         * 读入内存、尚未上传完成的字节数额度
+         */
+        private final Semaphore budget = new Semaphore(properties.getMaxBufferedBytes());
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private final List<DataSetsFiles> batch = new ArrayList<>();
+
+        private final Path manifestFile;
+
+        private final BufferedWriter manifest;
+
+        private int fileCount;
+        private long totalBytes;
+        private int dedupCount;
+
+        Session(Integer dataSetId, String dataType, TransferSubject subject) throws IOException {
+            this.dataSetId = dataSetId;
+            this.dataType = dataType;
+            this.subject = subject;
+            this.manifestFile = Files.createTempFile("dataset-" + dataSetId + "-", ".jsonl");
+            this.manifest = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8);
+        }
+
+        synchronized void complete(String path, Checksums checksums, Long rows, String key, Long blobId,
+                                   boolean deduped) throws IOException {
+            long size = checksums.size();
+            batch.add(new DataSetsFiles()
+                .setDataSetId(dataSetId)
+                .setFileUrl(cosUtils.getPublicUrl(key))
+                .setFileName(path)
+                .setFileSize(size)
+                .setFileType(extension(path))
+                .setIsPrimary(0)
+                .setDataType(dataType)
+                .setCreatedTime(createdTime)
+                .setBlobId(blobId)
+                .setSha256(checksums.sha256())
+                .setCrc64(checksums.crc64())
+                .setChecksumStatus(ChecksumStatus.VERIFIED.name())
+                .setVerifiedTime(createdTime));
+            if (batch.size() >= properties.getDbBatchSize()) {
+                flush();
+            }
+            manifest.write(JsonUtils.toJsonString(new ManifestEntry()
+                .setPath(path).setSize(size).setSha256(checksums.sha256()).setCrc64(checksums.crc64())
+                .setRows(rows).setKey(key)));
+            manifest.newLine();
+            fileCount++;
+            totalBytes += size;
+            if (deduped) {
+                dedupCount++;
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                fileMapper.insertBatch(new ArrayList<>(batch));
+                batch.clear();
+            }
+        }
+
+        void checkFailure() throws IOException {
+            Throwable t = failure.get();
+            if (t != null) {
+                throw new IOException("文件上传失败: " + t.getMessage(), t);
+            }
+        }
+
+        /**
+         * 取回全部额度即所有在途上传已结束
+         */
+        void awaitUploads() {
+            budget.acquireUninterruptibly(properties.getMaxBufferedBytes());
+            budget.release(properties.getMaxBufferedBytes());
+        }
+
+        synchronized IngestResult finish() throws IOException {
+            flush();
+            manifest.close();
+            String key = cosUtils.objectKey("datasets/" + dataSetId + "/" + MANIFEST_NAME);
+            try (InputStream input = Files.newInputStream(manifestFile)) {
+                cosUtils.uploadToKey(key, input, Files.size(manifestFile), TrafficClass.IMPORT_UPLOAD);
+            }
+            String url = cosUtils.getPublicUrl(key);
+            fileMapper.insert(new DataSetsFiles()
+                .setDataSetId(dataSetId)
+                .setFileUrl(url)
+                .setFileName(MANIFEST_NAME)
+                .setFileSize(Files.size(manifestFile))
+                .setFileType("jsonl")
+                .setIsPrimary(1)
+                .setDataType("manifest")
+                .setCreatedTime(createdTime));
+
+            IngestResult result = new IngestResult();
+            result.setFileCount(fileCount);
+            result.setTotalBytes(totalBytes);
+            result.setDedupCount(dedupCount);
+            result.setManifestUrl(url);
+            return result;
+        }
+
+        void close() {
+            try {
+                manifest.close();
+                Files.deleteIfExists(manifestFile);
+            } catch (IOException e) {
+                log.warn("[INGEST] 删除临时清单失败: {}", manifestFile, e);
+            }
+        }
+    }
+}
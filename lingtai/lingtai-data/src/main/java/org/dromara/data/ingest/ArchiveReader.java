@@ -0,0 +1,45 @@
+package org.dromara.data.ingest;
+
+import org.dromara.common.core.exception.ServiceException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 流式读取压缩包，只返回普通文件，目录与链接被跳过
+ */
+public interface ArchiveReader {
+
+    /**
+     * 下一个文件，没有更多文件时返回 null
+     */
+    ArchiveEntry next() throws IOException;
+
+    /**
+     * 按文件头识别格式：zip、tar、tar.gz
+     *
+     * @param input       压缩包数据流
+     * @param zipCharset  zip 条目名未声明 UTF-8 时使用的字符集
+     */
+    static ArchiveReader open(InputStream input, Charset zipCharset) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, 64 * 1024);
+        buffered.mark(TarArchiveReader.BLOCK_SIZE);
+        byte[] head = buffered.readNBytes(TarArchiveReader.BLOCK_SIZE);
+        buffered.reset();
+        if (head.length >= 4 && head[0] == 'P' && head[1] == 'K' && (head[2] == 3 || head[2] == 5)) {
+            return new ZipArchiveReader(buffered, zipCharset);
+        }
+        if (head.length >= 2 && (head[0] & 0xFF) == 0x1F && (head[1] & 0xFF) == 0x8B) {
+            return new TarArchiveReader(new BufferedInputStream(new GZIPInputStream(buffered, 64 * 1024), 64 * 1024));
+        }
+        if (head.length == TarArchiveReader.BLOCK_SIZE
+            && "ustar".equals(new String(head, 257, 5, StandardCharsets.US_ASCII))) {
+            return new TarArchiveReader(buffered);
+        }
+        throw new ServiceException("不支持的压缩包格式，仅支持 zip、tar、tar.gz");
+    }
+}
@@ -0,0 +1,68 @@
+package org.dromara.data.ingest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 统计读过的字节数与行数的输入流
+ */
+class CountingInputStream extends FilterInputStream {
+
+    private long bytes;
+
+    private long newlines;
+
+    private int last = -1;
+
+    CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            bytes++;
+            if (b == '\n') {
+                newlines++;
+            }
+            last = b;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        for (int i = off; i < off + n; i++) {
+            if (b[i] == '\n') {
+                newlines++;
+            }
+        }
+        if (n > 0) {
+            bytes += n;
+            last = b[off + n - 1];
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的内容无法计数，只按读取处理
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        int read = read(buffer, 0, buffer.length);
+        return Math.max(read, 0);
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 行数，最后一行没有换行符也计入
+     */
+    long getLines() {
+        return bytes > 0 && last != '\n' ? newlines + 1 : newlines;
+    }
+}
@@ -0,0 +1,35 @@
+package org.dromara.data.ingest;
+
+import lombok.Data;
+
+/**
+ * 压缩包导入结果
+ */
+@Data
+public class IngestResult {
+
+    /**
+     * 导入的文件数，不含清单
+     */
+    private int fileCount;
+
+    /**
+     * 解压后的文件总大小（字节）
+     */
+    private long totalBytes;
+
+    /**
+     * 内容已存在、复用已有对象的文件数
+     */
+    private int dedupCount;
+
+    /**
+     * 读取的压缩包字节数
+     */
+    private long archiveBytes;
+
+    /**
+     * 清单公有读 URL
+     */
+    private String manifestUrl;
+}
@@ -0,0 +1,42 @@
+package org.dromara.data.ingest;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 导入清单中的一个文件，清单为 JSON Lines，每行一个条目
+ */
+@Data
+@Accessors(chain = true)
+public class ManifestEntry {
+
+    /**
+     * 包内路径
+     */
+    private String path;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long size;
+
+    /**
+     * 内容 SHA-256（十六进制小写）
+     */
+    private String sha256;
+
+    /**
+     * 内容 CRC-64/ECMA-182（无符号十进制）
+     */
+    private String crc64;
+
+    /**
+     * 文本类文件的数据行数（csv、tsv 不含表头），其他文件为 null
+     */
+    private Long rows;
+
+    /**
+     * 对象键，内容相同的文件指向同一个对象
+     */
+    private String key;
+}
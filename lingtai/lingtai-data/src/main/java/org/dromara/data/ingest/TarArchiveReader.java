@@ -0,0 +1,240 @@
+package org.dromara.data.ingest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * tar 流式读取（ustar / GNU / pax）
+ * <p>
+ * 支持 ustar 的 prefix 字段、GNU 长文件名（L）与 pax 扩展头（x）中的 path、size，
+ * 其他类型的条目（目录、链接、设备等）跳过。
+ */
+class TarArchiveReader implements ArchiveReader {
+
+    static final int BLOCK_SIZE = 512;
+
+    private final InputStream in;
+
+    /**
+     * 当前条目未读的数据字节数
+     */
+    private long remaining;
+
+    /**
+     * 当前条目数据之后的块对齐填充
+     */
+    private long padding;
+
+    TarArchiveReader(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public ArchiveEntry next() throws IOException {
+        skipCurrent();
+        String longName = null;
+        String paxPath = null;
+        long paxSize = -1;
+        while (true) {
+            byte[] header = in.readNBytes(BLOCK_SIZE);
+            if (header.length == 0 || isZeroBlock(header)) {
+                return null;
+            }
+            if (header.length < BLOCK_SIZE) {
+                throw new EOFException("tar 文件不完整");
+            }
+            verifyChecksum(header);
+
+            long size = parseNumber(header, 124, 12);
+            byte type = header[156];
+            if (type == 'L') {
+                longName = trimNull(new String(readData(size), StandardCharsets.UTF_8));
+                continue;
+            }
+            if (type == 'x') {
+                Map<String, String> pax = parsePax(readData(size));
+                paxPath = pax.get("path");
+                paxSize = pax.containsKey("size") ? Long.parseLong(pax.get("size")) : -1;
+                continue;
+            }
+            if (type == 'g') {
+                readData(size);
+                continue;
+            }
+
+            String name = readString(header, 0, 100);
+            if ("ustar".equals(readString(header, 257, 5))) {
+                String prefix = readString(header, 345, 155);
+                if (!prefix.isEmpty()) {
+                    name = prefix + "/" + name;
+                }
+            }
+            if (longName != null) {
+                name = longName;
+            }
+            if (paxPath != null) {
+                name = paxPath;
+            }
+            if (paxSize >= 0) {
+                size = paxSize;
+            }
+            longName = null;
+            paxPath = null;
+            paxSize = -1;
+
+            remaining = size;
+            padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+            // 0 与 '\0' 为普通文件，7 为连续文件，按普通文件处理
+            if (type == '0' || type == 0 || type == '7') {
+                return new ArchiveEntry(name, size, new EntryInputStream());
+            }
+            skipCurrent();
+        }
+    }
+
+    private void skipCurrent() throws IOException {
+        in.skipNBytes(remaining + padding);
+        remaining = 0;
+        padding = 0;
+    }
+
+    private byte[] readData(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("tar 扩展头过大");
+        }
+        byte[] data = in.readNBytes((int) size);
+        if (data.length < size) {
+            throw new EOFException("tar 文件不完整");
+        }
+        in.skipNBytes((BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+        return data;
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void verifyChecksum(byte[] header) throws IOException {
+        long expected = parseNumber(header, 148, 8);
+        long actual = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            actual += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xFF);
+        }
+        if (actual != expected) {
+            throw new IOException("tar 头校验失败，文件可能已损坏或不是 tar 格式");
+        }
+    }
+
+    /**
+     * 八进制数字，首字节最高位为 1 时为 GNU base-256 编码
+     */
+    private static long parseNumber(byte[] header, int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7F;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (header[i] & 0xFF);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b >= '0' && b <= '7') {
+                value = (value << 3) + (b - '0');
+            } else if (b == 0 || (b == ' ' && value > 0)) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    private static String readString(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNull(String value) {
+        int end = value.indexOf('\0');
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    /**
+     * pax 记录格式：“长度 key=value\n”，长度为整条记录的字节数
+     */
+    private static Map<String, String> parsePax(byte[] data) {
+        Map<String, String> values = new HashMap<>();
+        int offset = 0;
+        while (offset < data.length) {
+            int space = offset;
+            while (space < data.length && data[space] != ' ') {
+                space++;
+            }
+            if (space >= data.length) {
+                break;
+            }
+            int length = Integer.parseInt(new String(data, offset, space - offset, StandardCharsets.US_ASCII).trim());
+            if (length <= space - offset + 1 || offset + length > data.length) {
+                break;
+            }
+            String record = new String(data, space + 1, offset + length - space - 2, StandardCharsets.UTF_8);
+            int eq = record.indexOf('=');
+            if (eq > 0) {
+                values.put(record.substring(0, eq), record.substring(eq + 1));
+            }
+            offset += length;
+        }
+        return values;
+    }
+
+    /**
+     * 当前条目的数据流，关闭时不关闭 tar 流
+     */
+    private class EntryInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("tar 文件不完整");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n < 0) {
+                throw new EOFException("tar 文件不完整");
+            }
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+}
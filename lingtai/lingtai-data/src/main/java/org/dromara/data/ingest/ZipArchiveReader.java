@@ -0,0 +1,36 @@
+package org.dromara.data.ingest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * zip 流式读取，按本地文件头顺序返回条目，不依赖文件末尾的中央目录
+ */
+class ZipArchiveReader implements ArchiveReader {
+
+    private final ZipInputStream zip;
+
+    ZipArchiveReader(InputStream in, Charset charset) {
+        this.zip = new ZipInputStream(in, charset);
+    }
+
+    @Override
+    public ArchiveEntry next() throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return new ArchiveEntry(entry.getName(), entry.getSize(), new FilterInputStream(zip) {
+                    @Override
+                    public void close() {
+                        // 不关闭 zip 流，下一次 getNextEntry 会跳过未读完的部分
+                    }
+                });
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package org.dromara.data.integrity;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 同时计算 SHA-256 与 CRC64，数据只经过一次
+ */
+public final class ChecksumDigest {
+
+    private final MessageDigest sha256;
+
+    private final Crc64 crc64 = new Crc64();
+
+    private long size;
+
+    public ChecksumDigest() {
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void update(byte[] b, int off, int len) {
+        sha256.update(b, off, len);
+        crc64.update(b, off, len);
+        size += len;
+    }
+
+    /**
+     * 读取 position 到 limit 之间的字节，不改变缓冲区的位置
+     */
+    public void update(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        sha256.update(buffer.duplicate());
+        crc64.update(buffer);
+        size += length;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 结束计算，之后不能再 update
+     */
+    public Checksums finish() {
+        return new Checksums(size, HexFormat.of().formatHex(sha256.digest()), crc64.toUnsignedString());
+    }
+}
@@ -0,0 +1,37 @@
+package org.dromara.data.integrity;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 一段数据的大小与校验值
+ *
+ * @param size   字节数
+ * @param sha256 SHA-256（十六进制小写）
+ * @param crc64  CRC-64/ECMA-182（无符号十进制）
+ */
+public record Checksums(long size, String sha256, String crc64) {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+
+    /**
+     * 源站 ETag 是内容 SHA-256 时返回它（HuggingFace LFS 文件的 X-Linked-Etag），否则返回 null
+     */
+    public static String sha256OfETag(String eTag) {
+        if (eTag == null) {
+            return null;
+        }
+        String value = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        value = value.replace("\"", "").trim();
+        return SHA256_HEX.matcher(value).matches() ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 与对象存储返回的 CRC64 比对，对象存储未返回时跳过
+     */
+    public void verifyStored(String key, String storedCrc64) throws IntegrityException {
+        if (storedCrc64 != null && crc64 != null && !storedCrc64.trim().equals(crc64)) {
+            throw new IntegrityException("对象存储 CRC64 不一致: key=" + key + ", 本地 " + crc64 + ", COS " + storedCrc64);
+        }
+    }
+}
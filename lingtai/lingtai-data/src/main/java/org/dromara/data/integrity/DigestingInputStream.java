@@ -0,0 +1,106 @@
+package org.dromara.data.integrity;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 边读边计算 SHA-256 与 CRC64 的输入流
+ * <p>
+ * 给出期望大小或期望 SHA-256 时，读到流末尾即校验，不一致抛出 {@link IntegrityException}。
+ * 上传引擎在读到末尾之后才完成上传，因此截断或损坏的数据不会被提交。
+ */
+public class DigestingInputStream extends FilterInputStream {
+
+    private final ChecksumDigest digest = new ChecksumDigest();
+
+    private final long expectedSize;
+
+    private final String expectedSha256;
+
+    private Checksums checksums;
+
+    public DigestingInputStream(InputStream in) {
+        this(in, -1, null);
+    }
+
+    /**
+     * @param expectedSize   期望的字节数，未知时传 -1
+     * @param expectedSha256 期望的 SHA-256，未知时传 null
+     */
+    public DigestingInputStream(InputStream in, long expectedSize, String expectedSha256) {
+        super(in);
+        this.expectedSize = expectedSize;
+        this.expectedSha256 = expectedSha256;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n <= 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (checksums != null) {
+            return -1;
+        }
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            digest.update(b, off, n);
+        } else if (n < 0) {
+            finish();
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的字节也要计入摘要
+        byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+        int read = read(buffer, 0, buffer.length);
+        return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * 已读取的字节数
+     */
+    public long getBytes() {
+        return checksums != null ? checksums.size() : digest.size();
+    }
+
+    /**
+     * 读到流末尾后的校验值；未读到末尾时结束计算并返回当前已读部分的校验值
+     */
+    public Checksums checksums() {
+        if (checksums == null) {
+            checksums = digest.finish();
+        }
+        return checksums;
+    }
+
+    private void finish() throws IntegrityException {
+        Checksums actual = checksums();
+        if (expectedSize >= 0 && actual.size() != expectedSize) {
+            throw new IntegrityException("数据不完整: 期望 " + expectedSize + " 字节，实际 " + actual.size() + " 字节");
+        }
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(actual.sha256())) {
+            throw new IntegrityException("SHA-256 不一致: 期望 " + expectedSha256 + "，实际 " + actual.sha256());
+        }
+    }
+}
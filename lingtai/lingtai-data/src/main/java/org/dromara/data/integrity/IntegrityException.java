@@ -0,0 +1,15 @@
+package org.dromara.data.integrity;
+
+import java.io.IOException;
+
+/**
+ * 数据完整性校验失败：字节数、SHA-256 或 CRC64 与期望值不一致
+ */
+public class IntegrityException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IntegrityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package org.dromara.data.integrity;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 乱序完成的分块按分块序号顺序计入摘要
+ * <p>
+ * 轮到的分块立即计入，提前完成的分块连同缓冲区暂存，前面的分块到齐后依次计入。
+ * 分块计入后才执行它的回调（归还缓冲区等），所以暂存期间缓冲区内容不能被修改；
+ * 调用方应把在途额度一并留到回调中释放，暂存的分块数因此不会超过在途上限。
+ */
+public class OrderedChecksum {
+
+    private final ChecksumDigest digest = new ChecksumDigest();
+
+    private final Map<Integer, Pending> pending = new HashMap<>();
+
+    private int next;
+
+    private boolean discarded;
+
+    /**
+     * @param first 第一个分块的序号
+     */
+    public OrderedChecksum(int first) {
+        this.next = first;
+    }
+
+    /**
+     * 提交一个分块，计入摘要（或放弃计算）后执行 onDigested
+     */
+    public void submit(int index, ByteBuffer data, Runnable onDigested) {
+        synchronized (this) {
+            if (!discarded && index != next) {
+                pending.put(index, new Pending(data, onDigested));
+                return;
+            }
+        }
+        drain(index, data, onDigested);
+    }
+
+    private void drain(int index, ByteBuffer data, Runnable onDigested) {
+        while (true) {
+            synchronized (this) {
+                if (!discarded) {
+                    digest.update(data);
+                    next = index + 1;
+                }
+            }
+            onDigested.run();
+            synchronized (this) {
+                Pending ready = pending.remove(next);
+                if (ready == null || discarded) {
+                    return;
+                }
+                index = next;
+                data = ready.data();
+                onDigested = ready.onDigested();
+            }
+        }
+    }
+
+    /**
+     * 放弃计算，执行所有暂存分块的回调；之后提交的分块直接执行回调
+     */
+    public void discard() {
+        Map<Integer, Pending> released;
+        synchronized (this) {
+            discarded = true;
+            released = new HashMap<>(pending);
+            pending.clear();
+        }
+        released.values().forEach(p -> p.onDigested().run());
+    }
+
+    /**
+     * 全部分块计入后的校验值，已放弃或仍有分块未计入时返回 null
+     */
+    public synchronized Checksums finish() {
+        return discarded || !pending.isEmpty() ? null : digest.finish();
+    }
+
+    private record Pending(ByteBuffer data, Runnable onDigested) {
+    }
+}
@@ -0,0 +1,10 @@
+package org.dromara.data.integrity;
+
+/**
+ * 已写入对象存储并通过校验的对象
+ *
+ * @param key       对象键
+ * @param checksums 上传时计算的校验值
+ */
+public record StoredObject(String key, Checksums checksums) {
+}
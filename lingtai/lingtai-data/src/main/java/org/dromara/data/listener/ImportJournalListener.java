@@ -0,0 +1,144 @@
+package org.dromara.data.listener;
+
+import com.qcloud.cos.model.MultipartUpload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.entity.ImportJournal;
+import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.scheduler.ImportScheduler;
+import org.dromara.data.service.IImportJournalService;
+import org.dromara.data.service.IModelSnapshotService;
+import org.dromara.data.service.IModelsService;
+import org.dromara.data.service.IUploadSessionService;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入断点日志监听器
+ * <p>
+ * 启动后定期接管心跳超时的导入并续传（覆盖本实例重启与其他实例宕机两种情况），
+ * 同时清理失败导入遗留的分块上传，以及长时间不属于任何进行中导入的孤儿分块上传。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportJournalListener implements ApplicationRunner {
+
+    /**
+     * 单次扫描最多接管的导入数
+     */
+    private static final int CLAIM_BATCH_SIZE = 10;
+
+    private final IImportJournalService importJournalService;
+    private final IUploadSessionService uploadSessionService;
+    private final IModelsService modelsService;
+    private final IModelSnapshotService modelSnapshotService;
+    private final CosUtils cosUtils;
+    private final TransferProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final ImportScheduler importScheduler;
+    private final ProgressStore progressStore;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TransferProperties.Journal journal = properties.getJournal();
+        if (journal.isResumeEnabled()) {
+            // 本实例重启前的导入心跳需要先超时才会被接管
+            long interval = Math.max(10L, journal.getStaleSeconds() / 2);
+            scheduledExecutorService.scheduleWithFixedDelay(this::resumeStaleImports, 10L, interval, TimeUnit.SECONDS);
+        }
+        scheduledExecutorService.scheduleWithFixedDelay(this::sweepUploads, 60L,
+            journal.getSweepIntervalSeconds(), TimeUnit.SECONDS);
+        log.info("初始化导入断点续传与分块上传清理任务成功");
+    }
+
+    /**
+     * 接管并续传中断的导入
+     */
+    void resumeStaleImports() {
+        try {
+            List<ImportJournal> claimed = importJournalService.claimStale(CLAIM_BATCH_SIZE);
+            for (ImportJournal journal : claimed) {
+                if (IImportJournalService.TARGET_MODEL.equals(journal.getTargetType())) {
+                    submitResume(journal);
+                } else {
+                    // 快照文件的续传在 hubFileExecutor 中异步执行，并发由该线程池限制
+                    resume(journal);
+                }
+            }
+        } catch (Exception e) {
+            log.error("[JOURNAL] 扫描中断的导入失败", e);
+        }
+    }
+
+    /**
+     * 单文件导入的续传与新导入一样经调度器排队，受用户并发限额约束
+     */
+    private void submitResume(ImportJournal journal) {
+        try {
+            importScheduler.submit(journal.getTaskId(), journal.getTaskId(), journal.getUserId(), null,
+                importScheduler.resumePriority(), task -> resume(journal), () -> {
+                    importJournalService.fail(journal.getId(), "已取消");
+                    progressStore.fail(journal.getTaskId(), "导入已取消");
+                });
+        } catch (Exception e) {
+            // 调度器拒绝时释放接管，等待下次扫描
+            log.warn("[JOURNAL] 续传任务提交失败，journalId={}: {}", journal.getId(), e.getMessage());
+            importJournalService.suspend(journal.getId());
+        }
+    }
+
+    private void resume(ImportJournal journal) {
+        try {
+            if (IImportJournalService.TARGET_MODEL.equals(journal.getTargetType())) {
+                modelsService.resumeHubImport(journal);
+            } else if (IImportJournalService.TARGET_MODEL_FILE.equals(journal.getTargetType())) {
+                modelSnapshotService.resumeFile(journal);
+            } else {
+                log.warn("[JOURNAL] 不支持续传的导入类型 {}，journalId={}", journal.getTargetType(), journal.getId());
+                importJournalService.fail(journal.getId(), "不支持续传的导入类型: " + journal.getTargetType());
+            }
+        } catch (Exception e) {
+            log.error("[JOURNAL] 续传导入失败，journalId={}", journal.getId(), e);
+            importJournalService.fail(journal.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 清理失败导入与孤儿分块上传，避免未完成的分块持续占用存储
+     */
+    void sweepUploads() {
+        try {
+            for (ImportJournal journal : importJournalService.listFailedUploads()) {
+                cosUtils.abortMultipartUpload(journal.getObjectKey(), journal.getUploadId());
+                importJournalService.markAborted(journal.getId());
+            }
+
+            long deadline = System.currentTimeMillis()
+                - TimeUnit.HOURS.toMillis(properties.getJournal().getOrphanUploadHours());
+            Set<String> active = new HashSet<>(importJournalService.listActiveUploadIds());
+            // 浏览器直传的分块上传由客户端推进，服务端看不到进度，由会话过期清理负责
+            active.addAll(uploadSessionService.listActiveUploadIds());
+            for (MultipartUpload upload : cosUtils.listMultipartUploads()) {
+                if (active.contains(upload.getUploadId())
+                    || upload.getInitiated() == null || upload.getInitiated().getTime() > deadline) {
+                    continue;
+                }
+                log.info("[JOURNAL] 清理孤儿分块上传，key={}, UploadId={}, 初始化于 {}",
+                    upload.getKey(), upload.getUploadId(), upload.getInitiated());
+                cosUtils.abortMultipartUpload(upload.getKey(), upload.getUploadId());
+            }
+        } catch (Exception e) {
+            log.error("[JOURNAL] 清理分块上传失败", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.dromara.data.mapper;
+
+import org.dromara.common.mybatis.core.mapper.BaseMapperPlus;
+import org.dromara.data.entity.ImportJournal;
+
+public interface ImportJournalMapper extends BaseMapperPlus<ImportJournal, ImportJournal> {
+}
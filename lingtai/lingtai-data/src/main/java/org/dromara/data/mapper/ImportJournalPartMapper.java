@@ -0,0 +1,7 @@
+package org.dromara.data.mapper;
+
+import org.dromara.common.mybatis.core.mapper.BaseMapperPlus;
+import org.dromara.data.entity.ImportJournalPart;
+
+public interface ImportJournalPartMapper extends BaseMapperPlus<ImportJournalPart, ImportJournalPart> {
+}
@@ -0,0 +1,7 @@
+package org.dromara.data.mapper;
+
+import org.dromara.common.mybatis.core.mapper.BaseMapperPlus;
+import org.dromara.data.entity.ModelTensor;
+
+public interface ModelTensorMapper extends BaseMapperPlus<ModelTensor, ModelTensor> {
+}
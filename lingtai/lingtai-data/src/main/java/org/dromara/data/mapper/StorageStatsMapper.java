@@ -0,0 +1,28 @@
+package org.dromara.data.mapper;
+
+import org.apache.ibatis.annotations.Param;
+import org.dromara.common.mybatis.core.mapper.BaseMapperPlus;
+import org.dromara.data.entity.StorageStats;
+import org.dromara.data.entity.dto.StorageStatsRow;
+
+import java.util.List;
+
+public interface StorageStatsMapper extends BaseMapperPlus<StorageStats, StorageStats> {
+
+    /**
+     * 原子累加计数，行不存在时插入
+     */
+    int upsertDelta(@Param("targetType") String targetType, @Param("userId") Long userId,
+                    @Param("dim") String dim, @Param("dimValue") String dimValue,
+                    @Param("countDelta") long countDelta, @Param("sizeDelta") long sizeDelta);
+
+    /**
+     * 按 (用户, 状态, 版本) 聚合 models 表
+     */
+    List<StorageStatsRow> aggregateModels();
+
+    /**
+     * 按 (用户, 状态, 版本) 聚合 datasets 表
+     */
+    List<StorageStatsRow> aggregateDataSets();
+}
@@ -0,0 +1,7 @@
+package org.dromara.data.mapper;
+
+import org.dromara.common.mybatis.core.mapper.BaseMapperPlus;
+import org.dromara.data.entity.UploadSession;
+
+public interface UploadSessionMapper extends BaseMapperPlus<UploadSession, UploadSession> {
+}
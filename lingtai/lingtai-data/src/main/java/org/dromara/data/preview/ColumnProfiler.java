@@ -0,0 +1,150 @@
+package org.dromara.data.preview;
+
+import org.dromara.data.entity.dto.ColumnSummaryDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 根据样本行推断列类型并统计空值数、不同值个数与最值
+ */
+class ColumnProfiler {
+
+    private final Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    private int rows;
+
+    /**
+     * 加入一行，CSV 的值为字符串，按内容推断类型；空字符串视为空值
+     */
+    void add(Map<String, Object> row) {
+        rows++;
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            profiles.computeIfAbsent(entry.getKey(), k -> new Profile(rows - 1)).add(typed(entry.getValue()));
+        }
+        // 本行缺少的列按空值计
+        for (Profile profile : profiles.values()) {
+            if (profile.seen < rows) {
+                profile.add(null);
+            }
+        }
+    }
+
+    List<ColumnSummaryDTO> summaries() {
+        List<ColumnSummaryDTO> summaries = new ArrayList<>(profiles.size());
+        profiles.forEach((name, profile) -> {
+            ColumnSummaryDTO summary = new ColumnSummaryDTO();
+            summary.setName(name);
+            summary.setType(profile.type == null ? "null" : profile.type);
+            summary.setNullCount(profile.nulls);
+            summary.setDistinctCount((long) profile.distinct.size());
+            summary.setMin(profile.min);
+            summary.setMax(profile.max);
+            summaries.add(summary);
+        });
+        return summaries;
+    }
+
+    private static Object typed(Object value) {
+        if (!(value instanceof String text)) {
+            return value;
+        }
+        if (text.isEmpty()) {
+            return null;
+        }
+        if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+            return Boolean.parseBoolean(text);
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException ignored) {
+            // 不是整数
+        }
+        try {
+            double number = Double.parseDouble(text);
+            if (Double.isFinite(number) && !text.endsWith("d") && !text.endsWith("f")) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+            // 不是数字
+        }
+        return text;
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof java.math.BigInteger) {
+            return "integer";
+        }
+        if (value instanceof Number) {
+            return "number";
+        }
+        if (value instanceof Boolean) {
+            return "boolean";
+        }
+        if (value instanceof Map) {
+            return "object";
+        }
+        if (value instanceof List) {
+            return "array";
+        }
+        return "string";
+    }
+
+    private static class Profile {
+
+        private final Set<String> distinct = new HashSet<>();
+        private int seen;
+        private long nulls;
+        private String type;
+        private Object min;
+        private Object max;
+
+        Profile(int missed) {
+            this.seen = missed;
+            this.nulls = missed;
+        }
+
+        void add(Object value) {
+            seen++;
+            if (value == null) {
+                nulls++;
+                return;
+            }
+            distinct.add(String.valueOf(value));
+            String valueType = typeOf(value);
+            if (type == null) {
+                type = valueType;
+            } else if (!type.equals(valueType)) {
+                boolean numeric = (type.equals("integer") || type.equals("number"))
+                    && (valueType.equals("integer") || valueType.equals("number"));
+                type = numeric ? "number" : "string";
+                if (!numeric) {
+                    min = null;
+                    max = null;
+                }
+            }
+            if (type.equals("integer") || type.equals("number")) {
+                if (value instanceof Number number) {
+                    double d = number.doubleValue();
+                    if (min == null || d < ((Number) min).doubleValue()) {
+                        min = value;
+                    }
+                    if (max == null || d > ((Number) max).doubleValue()) {
+                        max = value;
+                    }
+                }
+            } else if (type.equals("string") && value instanceof String text) {
+                if (min == null || text.compareTo((String) min) < 0) {
+                    min = text;
+                }
+                if (max == null || text.compareTo((String) max) > 0) {
+                    max = text;
+                }
+            }
+        }
+    }
+}
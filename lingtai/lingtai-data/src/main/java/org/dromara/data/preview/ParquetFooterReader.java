@@ -0,0 +1,248 @@
+package org.dromara.data.preview;
+
+import org.dromara.data.entity.dto.ColumnSummaryDTO;
+import org.dromara.data.entity.dto.DataSetPreviewDTO;
+import org.dromara.data.properties.PreviewProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parquet 预览：只读取文件末尾的 footer（FileMetaData），得到列结构、总行数、行组数与各列统计
+ * <p>
+ * 文件末尾为 “footer + 4 字节小端 footer 长度 + PAR1”，先读末尾 parquetTailBytes 字节，
+ * footer 更长时再按实际长度补读一次。字段 ID 对应 parquet-format 的 parquet.thrift。
+ */
+public class ParquetFooterReader {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String[] PHYSICAL_TYPES = {
+        "BOOLEAN", "INT32", "INT64", "INT96", "FLOAT", "DOUBLE", "BYTE_ARRAY", "FIXED_LEN_BYTE_ARRAY"
+    };
+
+    private static final String[] CONVERTED_TYPES = {
+        "UTF8", "MAP", "MAP_KEY_VALUE", "LIST", "ENUM", "DECIMAL", "DATE", "TIME_MILLIS", "TIME_MICROS",
+        "TIMESTAMP_MILLIS", "TIMESTAMP_MICROS", "UINT_8", "UINT_16", "UINT_32", "UINT_64", "INT_8", "INT_16",
+        "INT_32", "INT_64", "JSON", "BSON", "INTERVAL"
+    };
+
+    /**
+     * LogicalType 联合体的字段 ID → 名称
+     */
+    private static final Map<Integer, String> LOGICAL_TYPES = Map.ofEntries(
+        Map.entry(1, "STRING"), Map.entry(2, "MAP"), Map.entry(3, "LIST"), Map.entry(4, "ENUM"),
+        Map.entry(5, "DECIMAL"), Map.entry(6, "DATE"), Map.entry(7, "TIME"), Map.entry(8, "TIMESTAMP"),
+        Map.entry(10, "INTEGER"), Map.entry(11, "NULL"), Map.entry(12, "JSON"), Map.entry(13, "BSON"),
+        Map.entry(14, "UUID"), Map.entry(15, "FLOAT16"));
+
+    private static final Set<String> STRING_TYPES = Set.of("UTF8", "STRING", "ENUM", "JSON");
+
+    private final RangeSource source;
+    private final long size;
+    private final PreviewProperties properties;
+
+    public ParquetFooterReader(RangeSource source, long size, PreviewProperties properties) {
+        this.source = source;
+        this.size = size;
+        this.properties = properties;
+    }
+
+    public DataSetPreviewDTO read() throws IOException {
+        if (size < 12) {
+            throw new IOException("不是有效的 Parquet 文件");
+        }
+        long tailStart = Math.max(0, size - properties.getParquetTailBytes());
+        byte[] tail = source.read(tailStart, size - 1);
+        int n = tail.length;
+        if (n < 8 || !matchesMagic(tail, n - 4)) {
+            throw new IOException("不是有效的 Parquet 文件");
+        }
+        int footerLength = ByteBuffer.wrap(tail, n - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if (footerLength <= 0 || footerLength > size - 12 || footerLength > properties.getMaxParquetFooterBytes()) {
+            throw new IOException("Parquet footer 长度无效: " + footerLength);
+        }
+
+        byte[] footer;
+        int offset;
+        if (footerLength + 8 <= n) {
+            footer = tail;
+            offset = n - 8 - footerLength;
+        } else {
+            footer = source.read(size - 8 - footerLength, size - 9);
+            offset = 0;
+            if (footer.length < footerLength) {
+                throw new IOException("Parquet footer 不完整");
+            }
+        }
+        try {
+            return toPreview(new ThriftCompactReader(footer, offset, footerLength).readStruct());
+        } catch (ClassCastException e) {
+            throw new IOException("Parquet footer 格式错误", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DataSetPreviewDTO toPreview(Map<Integer, Object> fileMeta) {
+        List<Map<Integer, Object>> leaves = leaves((List<Object>) fileMeta.getOrDefault(2, List.of()));
+        List<Object> rowGroups = (List<Object>) fileMeta.getOrDefault(4, List.of());
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (Object rowGroup : rowGroups) {
+            List<Object> chunks = (List<Object>) ((Map<Integer, Object>) rowGroup).getOrDefault(1, List.of());
+            for (int i = 0; i < chunks.size(); i++) {
+                Map<Integer, Object> meta = (Map<Integer, Object>) ((Map<Integer, Object>) chunks.get(i)).get(3);
+                if (meta == null) {
+                    // 加密列没有明文元数据
+                    continue;
+                }
+                String name = ((List<Object>) meta.getOrDefault(3, List.of())).stream()
+                    .map(part -> new String((byte[]) part, StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("."));
+                Map<Integer, Object> leaf = i < leaves.size() ? leaves.get(i) : Map.of();
+                columns.computeIfAbsent(name, k -> new Column(name, intValue(meta.get(1)), leaf))
+                    .add((Map<Integer, Object>) meta.get(12), rowGroups.size());
+            }
+        }
+
+        DataSetPreviewDTO preview = new DataSetPreviewDTO();
+        preview.setFormat("parquet");
+        preview.setObjectSize(size);
+        preview.setMode("footer");
+        preview.setTotalRows((Long) fileMeta.get(3));
+        preview.setRowGroups(rowGroups.size());
+        preview.setColumns(columns.values().stream().map(Column::summary).toList());
+        preview.setRows(List.of());
+        return preview;
+    }
+
+    /**
+     * schema 为深度优先展开的树，第一个元素为根，没有子节点的元素即叶子列，顺序与列块一致
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<Integer, Object>> leaves(List<Object> schema) {
+        List<Map<Integer, Object>> leaves = new ArrayList<>();
+        for (int i = 1; i < schema.size(); i++) {
+            Map<Integer, Object> element = (Map<Integer, Object>) schema.get(i);
+            if (intValue(element.get(5)) <= 0) {
+                leaves.add(element);
+            }
+        }
+        return leaves;
+    }
+
+    private static boolean matchesMagic(byte[] data, int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[offset + i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int intValue(Object value) {
+        return value == null ? -1 : ((Long) value).intValue();
+    }
+
+    /**
+     * 一列在各行组上的统计合并
+     */
+    private static class Column {
+
+        private final String name;
+        private final int physicalType;
+        private final String logicalType;
+        private Long nullCount = 0L;
+        private Long distinctCount;
+        private Comparable<Object> min;
+        private Comparable<Object> max;
+        private boolean minMaxKnown = true;
+
+        @SuppressWarnings("unchecked")
+        Column(String name, int physicalType, Map<Integer, Object> leaf) {
+            this.name = name;
+            this.physicalType = physicalType;
+            Map<Integer, Object> logical = (Map<Integer, Object>) leaf.get(10);
+            int converted = intValue(leaf.get(6));
+            if (logical != null && !logical.isEmpty()) {
+                this.logicalType = LOGICAL_TYPES.get(logical.keySet().iterator().next());
+            } else if (converted >= 0 && converted < CONVERTED_TYPES.length) {
+                this.logicalType = CONVERTED_TYPES[converted];
+            } else {
+                this.logicalType = null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(Map<Integer, Object> statistics, int rowGroups) {
+            if (statistics == null) {
+                nullCount = null;
+                minMaxKnown = false;
+                return;
+            }
+            Long nulls = (Long) statistics.get(3);
+            nullCount = nullCount == null || nulls == null ? null : nullCount + nulls;
+            // 不同值个数无法跨行组合并，只在单行组时给出
+            distinctCount = rowGroups == 1 ? (Long) statistics.get(4) : null;
+
+            // min_value/max_value（6/5）按类型的排序规则写入；旧字段 min/max（2/1）按有符号字节比较，只对数值可信
+            byte[] minBytes = (byte[]) statistics.get(6);
+            byte[] maxBytes = (byte[]) statistics.get(5);
+            if (minBytes == null && maxBytes == null && physicalType != 6 && physicalType != 7) {
+                minBytes = (byte[]) statistics.get(2);
+                maxBytes = (byte[]) statistics.get(1);
+            }
+            Comparable<Object> groupMin = (Comparable<Object>) decode(minBytes);
+            Comparable<Object> groupMax = (Comparable<Object>) decode(maxBytes);
+            if (groupMin == null || groupMax == null) {
+                minMaxKnown = false;
+            }
+            if (!minMaxKnown) {
+                return;
+            }
+            if (min == null || groupMin.compareTo(min) < 0) {
+                min = groupMin;
+            }
+            if (max == null || groupMax.compareTo(max) > 0) {
+                max = groupMax;
+            }
+        }
+
+        private Object decode(byte[] value) {
+            if (value == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN);
+            return switch (physicalType) {
+                case 0 -> value.length >= 1 ? value[0] != 0 : null;
+                case 1 -> value.length >= 4 ? (long) buffer.getInt() : null;
+                case 2 -> value.length >= 8 ? buffer.getLong() : null;
+                case 4 -> value.length >= 4 ? (double) buffer.getFloat() : null;
+                case 5 -> value.length >= 8 ? buffer.getDouble() : null;
+                case 6, 7 -> logicalType != null && STRING_TYPES.contains(logicalType)
+                    ? new String(value, StandardCharsets.UTF_8) : null;
+                default -> null;
+            };
+        }
+
+        ColumnSummaryDTO summary() {
+            ColumnSummaryDTO summary = new ColumnSummaryDTO();
+            summary.setName(name);
+            String physical = physicalType >= 0 && physicalType < PHYSICAL_TYPES.length
+                ? PHYSICAL_TYPES[physicalType] : String.valueOf(physicalType);
+            summary.setType(logicalType == null ? physical : physical + "(" + logicalType + ")");
+            summary.setNullCount(nullCount);
+            summary.setDistinctCount(distinctCount);
+            summary.setMin(minMaxKnown ? min : null);
+            summary.setMax(minMaxKnown ? max : null);
+            return summary;
+        }
+    }
+}
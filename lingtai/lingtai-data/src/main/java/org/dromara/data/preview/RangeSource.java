@@ -0,0 +1,15 @@
+package org.dromara.data.preview;
+
+import java.io.IOException;
+
+/**
+ * 按字节区间读取对象
+ */
+@FunctionalInterface
+public interface RangeSource {
+
+    /**
+     * 读取 [start, end] 区间，end 超过对象末尾时读到末尾为止
+     */
+    byte[] read(long start, long end) throws IOException;
+}
@@ -0,0 +1,279 @@
+package org.dromara.data.preview;
+
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.data.entity.dto.DataSetPreviewDTO;
+import org.dromara.data.properties.PreviewProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * CSV、TSV、JSONL 预览，只读取需要的字节区间
+ * <p>
+ * head 模式从文件开头读取，行数不够时区间翻倍，直到 maxHeadBytes；
+ * sample 模式在文件中均匀取 sampleSegments 个位置并发读取，从每个位置之后的第一个完整行开始取样。
+ * 区间末尾不完整的行丢弃，读到文件末尾时最后一行没有换行符也计入。
+ */
+public class TextPreviewReader {
+
+    private final RangeSource source;
+    private final long size;
+    private final String format;
+    private final PreviewProperties properties;
+
+    public TextPreviewReader(RangeSource source, long size, String format, PreviewProperties properties) {
+        this.source = source;
+        this.size = size;
+        this.format = format;
+        this.properties = properties;
+    }
+
+    /**
+     * 文件开头的 limit 行
+     */
+    public DataSetPreviewDTO head(int limit) throws IOException {
+        Head head = readHead(isCsv() ? limit + 1 : limit);
+        return build(head.records(), limit, "head");
+    }
+
+    /**
+     * 均匀分布的 limit 行，文件较小时整体读取后等间隔取样
+     */
+    public DataSetPreviewDTO sample(int limit, Executor executor) throws IOException {
+        long budget = (long) properties.getSampleSegments() * properties.getSampleRangeBytes();
+        if (size <= budget) {
+            Head head = readHead(Integer.MAX_VALUE);
+            List<String> records = head.records();
+            int skip = isCsv() ? 1 : 0;
+            List<String> picked = new ArrayList<>();
+            if (isCsv() && !records.isEmpty()) {
+                picked.add(records.get(0));
+            }
+            int body = records.size() - skip;
+            for (int i = 0; i < Math.min(limit, body); i++) {
+                picked.add(records.get(skip + (int) ((long) i * body / Math.min(limit, body))));
+            }
+            return build(picked, limit, "sample");
+        }
+
+        List<String> records = new ArrayList<>();
+        long bodyStart = 0;
+        if (isCsv()) {
+            Head head = readHead(1);
+            if (head.records().isEmpty()) {
+                return build(records, limit, "sample");
+            }
+            records.add(head.records().get(0));
+            bodyStart = head.firstLineEnd();
+        }
+
+        int segments = Math.max(1, Math.min(limit, properties.getSampleSegments()));
+        int perSegment = (limit + segments - 1) / segments;
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            long start = bodyStart + (size - bodyStart) * i / segments;
+            boolean aligned = i == 0;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return readSegment(start, aligned, perSegment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        }
+        try {
+            for (CompletableFuture<List<String>> future : futures) {
+                records.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+        return build(records, limit, "sample");
+    }
+
+    private List<String> readSegment(long start, boolean aligned, int count) throws IOException {
+        byte[] data = source.read(start, start + properties.getSampleRangeBytes() - 1);
+        int from = 0;
+        if (!aligned) {
+            // 从区间内第一个换行之后开始，前面是上一行的后半段
+            from = indexOf(data, 0) + 1;
+            if (from == 0) {
+                return List.of();
+            }
+        }
+        List<String> records = split(data, from, data.length, start + data.length >= size, false);
+        return records.size() > count ? records.subList(0, count) : records;
+    }
+
+    private Head readHead(int needed) throws IOException {
+        if (size == 0) {
+            return new Head(new ArrayList<>(), 0);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long target = Math.min(size, properties.getHeadRangeBytes());
+        while (true) {
+            buffer.write(source.read(buffer.size(), target - 1));
+            byte[] data = buffer.toByteArray();
+            boolean complete = data.length >= size;
+            List<String> records = split(data, 0, data.length, complete, true);
+            if (records.size() >= needed || complete || target >= properties.getMaxHeadBytes()) {
+                return new Head(records, indexOf(data, 0) + 1);
+            }
+            target = Math.min(Math.min(size, properties.getMaxHeadBytes()), target * 2);
+        }
+    }
+
+    /**
+     * 切分完整的行，CSV 引号内的换行不作为行结束
+     *
+     * @param complete 数据已到文件末尾
+     */
+    private List<String> split(byte[] data, int from, int to, boolean complete, boolean fileStart) {
+        if (!complete) {
+            to = lastIndexOf(data, from, to) + 1;
+        }
+        if (to <= from) {
+            return new ArrayList<>();
+        }
+        String text = new String(data, from, to - from, StandardCharsets.UTF_8);
+        if (fileStart && text.startsWith("\uFEFF")) {
+            text = text.substring(1);
+        }
+        List<String> records = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' && isCsv()) {
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                addRecord(records, text, start, i);
+                start = i + 1;
+            }
+        }
+        if (start < text.length() && complete) {
+            addRecord(records, text, start, text.length());
+        }
+        return records;
+    }
+
+    private static void addRecord(List<String> records, String text, int start, int end) {
+        if (end > start && text.charAt(end - 1) == '\r') {
+            end--;
+        }
+        if (end > start) {
+            records.add(text.substring(start, end));
+        }
+    }
+
+    private DataSetPreviewDTO build(List<String> records, int limit, String mode) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if (isCsv()) {
+            char delimiter = "tsv".equals(format) ? '\t' : ',';
+            List<String> header = records.isEmpty() ? List.of() : parseCsv(records.get(0), delimiter);
+            for (int i = 1; i < records.size() && rows.size() < limit; i++) {
+                List<String> values = parseCsv(records.get(i), delimiter);
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int j = 0; j < values.size(); j++) {
+                    row.put(j < header.size() ? header.get(j) : "_c" + j, values.get(j));
+                }
+                rows.add(row);
+            }
+        } else {
+            for (String record : records) {
+                if (rows.size() >= limit) {
+                    break;
+                }
+                String line = record.trim();
+                if (line.startsWith("{")) {
+                    try {
+                        rows.add(JsonUtils.parseMap(line));
+                    } catch (RuntimeException ignored) {
+                        // 不是合法 JSON 的行不计入样本
+                    }
+                }
+            }
+        }
+
+        ColumnProfiler profiler = new ColumnProfiler();
+        rows.forEach(profiler::add);
+        DataSetPreviewDTO preview = new DataSetPreviewDTO();
+        preview.setFormat(format);
+        preview.setObjectSize(size);
+        preview.setMode(mode);
+        preview.setColumns(profiler.summaries());
+        preview.setRows(rows);
+        return preview;
+    }
+
+    /**
+     * 解析一行 CSV，支持双引号包裹与 "" 转义
+     */
+    static List<String> parseCsv(String record, char delimiter) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private boolean isCsv() {
+        return "csv".equals(format) || "tsv".equals(format);
+    }
+
+    private static int indexOf(byte[] data, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return from - 1;
+    }
+
+    /**
+     * @param firstLineEnd 第一个换行之后的偏移，即 CSV 数据行的起点
+     */
+    private record Head(List<String> records, long firstLineEnd) {
+    }
+}
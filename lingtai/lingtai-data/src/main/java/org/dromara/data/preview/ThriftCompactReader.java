@@ -0,0 +1,163 @@
+package org.dromara.data.preview;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thrift Compact 协议的通用解码，用于读取 Parquet footer
+ * <p>
+ * 不依赖 IDL：结构体解码为“字段 ID → 值”的 Map，整数为 Long，binary 为 byte[]，
+ * list/set 为 List，map 为 Map，由调用方按 parquet.thrift 中的字段 ID 取值。
+ */
+class ThriftCompactReader {
+
+    private static final int STOP = 0;
+    private static final int BOOLEAN_TRUE = 1;
+    private static final int BOOLEAN_FALSE = 2;
+    private static final int BYTE = 3;
+    private static final int I16 = 4;
+    private static final int I32 = 5;
+    private static final int I64 = 6;
+    private static final int DOUBLE = 7;
+    private static final int BINARY = 8;
+    private static final int LIST = 9;
+    private static final int SET = 10;
+    private static final int MAP = 11;
+    private static final int STRUCT = 12;
+
+    /**
+     * 嵌套深度上限，防止损坏的数据导致栈溢出
+     */
+    private static final int MAX_DEPTH = 64;
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+    private int depth;
+
+    ThriftCompactReader(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    Map<Integer, Object> readStruct() throws IOException {
+        if (++depth > MAX_DEPTH) {
+            throw new IOException("Thrift 结构嵌套过深");
+        }
+        Map<Integer, Object> fields = new HashMap<>();
+        int lastId = 0;
+        while (true) {
+            int header = readByte() & 0xFF;
+            int type = header & 0x0F;
+            if (type == STOP) {
+                depth--;
+                return fields;
+            }
+            int delta = header >>> 4;
+            int id = delta != 0 ? lastId + delta : (short) zigzag(readVarint());
+            lastId = id;
+            fields.put(id, type == BOOLEAN_TRUE || type == BOOLEAN_FALSE ? type == BOOLEAN_TRUE : readValue(type));
+        }
+    }
+
+    private Object readValue(int type) throws IOException {
+        return switch (type) {
+            case BOOLEAN_TRUE, BOOLEAN_FALSE -> readByte() == BOOLEAN_TRUE;
+            case BYTE -> (long) readByte();
+            case I16, I32, I64 -> zigzag(readVarint());
+            case DOUBLE -> Double.longBitsToDouble(readLongLe());
+            case BINARY -> readBinary();
+            case LIST, SET -> readList();
+            case MAP -> readMap();
+            case STRUCT -> readStruct();
+            default -> throw new IOException("未知的 Thrift 类型: " + type);
+        };
+    }
+
+    private List<Object> readList() throws IOException {
+        int header = readByte() & 0xFF;
+        int size = header >>> 4;
+        if (size == 15) {
+            size = checkedSize(readVarint());
+        }
+        int elementType = header & 0x0F;
+        List<Object> values = new ArrayList<>(Math.min(size, limit - pos));
+        for (int i = 0; i < size; i++) {
+            values.add(readValue(elementType));
+        }
+        return values;
+    }
+
+    private Map<Object, Object> readMap() throws IOException {
+        int size = checkedSize(readVarint());
+        Map<Object, Object> values = new LinkedHashMap<>();
+        if (size == 0) {
+            return values;
+        }
+        int types = readByte() & 0xFF;
+        for (int i = 0; i < size; i++) {
+            values.put(readValue(types >>> 4), readValue(types & 0x0F));
+        }
+        return values;
+    }
+
+    private byte[] readBinary() throws IOException {
+        int length = checkedSize(readVarint());
+        byte[] value = new byte[length];
+        System.arraycopy(buf, pos, value, 0, length);
+        pos += length;
+        return value;
+    }
+
+    private long readLongLe() throws IOException {
+        require(8);
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (buf[pos + i] & 0xFF);
+        }
+        pos += 8;
+        return value;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Thrift varint 过长");
+    }
+
+    private byte readByte() throws IOException {
+        require(1);
+        return buf[pos++];
+    }
+
+    /**
+     * 长度不可能超过剩余字节数，超过说明数据已损坏
+     */
+    private int checkedSize(long size) throws IOException {
+        if (size < 0 || size > limit - pos) {
+            throw new IOException("Thrift 长度字段无效: " + size);
+        }
+        return (int) size;
+    }
+
+    private void require(int bytes) throws IOException {
+        if (pos + bytes > limit) {
+            throw new IOException("Thrift 数据不完整");
+        }
+    }
+
+    private static long zigzag(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
@@ -0,0 +1,194 @@
+package org.dromara.data.progress;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.properties.ProgressProperties;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进度状态流转的公共实现
+ * 每次变更都生成新的 {@link Progress} 对象再保存，读取方不会看到修改到一半的进度
+ * <p>
+ * 变更立即在本实例可见；写入共享存储与通知 {@link ProgressListener} 按任务合并：
+ * 同一任务在 coalesceMillis 内只刷出一次，其余更新暂存为待刷出值，由后台任务定时刷出，
+ * 因此分块级别的进度回调不会放大为同等数量的写入与推送；开始/成功/失败立即刷出。
+ * 刷出按 seq 去重，晚到的旧值不会覆盖已刷出的新值。
+ */
+@Slf4j
+public abstract class AbstractProgressStore implements ProgressStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    protected final ProgressProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final ObjectProvider<ProgressListener> listeners;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * 尚未刷出的合并更新
+     */
+    private final Map<String, Progress> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 本实例最近一次刷出的时间与 seq
+     */
+    private final Cache<String, long[]> lastFlush;
+
+    protected AbstractProgressStore(ProgressProperties properties, ScheduledExecutorService scheduledExecutorService,
+                                    ObjectProvider<ProgressListener> listeners) {
+        this.properties = properties;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.listeners = listeners;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.lastFlush = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+            .maximumSize(properties.getMaxEntries())
+            .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        long interval = Math.max(50L, properties.getCoalesceMillis());
+        scheduledExecutorService.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 读取当前进度，不存在返回 null
+     */
+    protected abstract Progress load(String taskId);
+
+    /**
+     * 保存到本实例，立即可见
+     */
+    protected abstract void putLocal(String taskId, Progress progress);
+
+    /**
+     * 写入共享存储（合并后调用），默认无共享存储
+     */
+    protected void persist(String taskId, Progress progress) {
+    }
+
+    @Override
+    public void start(String taskId, String message) {
+        synchronized (lock(taskId)) {
+            save(taskId, progress(current(taskId), 0, Status.RUNNING, message), true);
+        }
+    }
+
+    @Override
+    public void updatePercent(String taskId, int percent, String message) {
+        synchronized (lock(taskId)) {
+            Progress current = current(taskId);
+            // 若不存在则创建（防止空指针）
+            Status status = current != null ? Status.valueOf(current.getStatus()) : Status.RUNNING;
+            String msg = message != null ? message : (current != null ? current.getMessage() : "");
+            save(taskId, progress(current, Math.max(0, Math.min(100, percent)), status, msg), current == null);
+        }
+    }
+
+    @Override
+    public void success(String taskId, String message) {
+        synchronized (lock(taskId)) {
+            save(taskId, progress(current(taskId), 100, Status.SUCCESS, message), true);
+        }
+    }
+
+    @Override
+    public void fail(String taskId, String message) {
+        synchronized (lock(taskId)) {
+            Progress current = current(taskId);
+            save(taskId, progress(current, current != null ? current.getPercent() : 0, Status.FAILED, message), true);
+        }
+    }
+
+    @Override
+    public void remove(String taskId) {
+        pending.remove(taskId);
+        lastFlush.invalidate(taskId);
+    }
+
+    /**
+     * 刷出已到间隔的合并更新
+     */
+    void flush() {
+        long now = System.currentTimeMillis();
+        pending.forEach((taskId, progress) -> {
+            long[] last = lastFlush.getIfPresent(taskId);
+            if (last == null || now - last[0] >= properties.getCoalesceMillis()) {
+                // 只在值未被更新的写入覆盖时移除，避免丢失刷出期间的新进度
+                if (pending.remove(taskId, progress)) {
+                    flushOut(taskId, progress);
+                }
+            }
+        });
+    }
+
+    private Progress current(String taskId) {
+        Progress progress = pending.get(taskId);
+        return progress != null ? progress : load(taskId);
+    }
+
+    private void save(String taskId, Progress progress, boolean immediate) {
+        putLocal(taskId, progress);
+        long[] last = lastFlush.getIfPresent(taskId);
+        if (immediate || last == null || System.currentTimeMillis() - last[0] >= properties.getCoalesceMillis()) {
+            pending.remove(taskId);
+            flushOut(taskId, progress);
+        } else {
+            pending.put(taskId, progress);
+        }
+    }
+
+    private void flushOut(String taskId, Progress progress) {
+        // 同一任务的刷出串行执行，保证共享存储与监听器看到的 seq 单调递增
+        synchronized (lock(taskId)) {
+            long[] last = lastFlush.getIfPresent(taskId);
+            if (last != null && progress.getSeq() <= last[1]) {
+                return;
+            }
+            lastFlush.put(taskId, new long[]{System.currentTimeMillis(), progress.getSeq()});
+            try {
+                persist(taskId, progress);
+            } catch (Exception e) {
+                log.warn("写入任务进度失败，taskId={}: {}", taskId, e.getMessage());
+            }
+            listeners.orderedStream().forEach(listener -> {
+                try {
+                    listener.onProgress(taskId, progress);
+                } catch (Exception e) {
+                    log.warn("进度监听器处理异常，taskId={}: {}", taskId, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private Object lock(String taskId) {
+        return locks[(taskId.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private static Progress progress(Progress current, int percent, Status status, String message) {
+        Progress p = new Progress();
+        p.setPercent(percent);
+        p.setStatus(status.name());
+        p.setMessage(message);
+        p.setSeq(current != null ? current.getSeq() + 1 : 1);
+        return p;
+    }
+}
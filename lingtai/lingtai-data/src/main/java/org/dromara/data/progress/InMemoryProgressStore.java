@@ -0,0 +1,52 @@
+package org.dromara.data.progress;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.dromara.data.properties.ProgressProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 单实例内存进度存储
+ * 最后一次更新超过 ttl 后过期，任务数超过上限时淘汰
+ */
+@Component
+@ConditionalOnProperty(prefix = "lingtai.progress", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryProgressStore extends AbstractProgressStore {
+
+    private final Cache<String, Progress> progressCache;
+
+    public InMemoryProgressStore(ProgressProperties properties, ScheduledExecutorService scheduledExecutorService,
+                                 ObjectProvider<ProgressListener> listeners) {
+        super(properties, scheduledExecutorService, listeners);
+        this.progressCache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+            .maximumSize(properties.getMaxEntries())
+            .build();
+    }
+
+    @Override
+    protected Progress load(String taskId) {
+        return progressCache.getIfPresent(taskId);
+    }
+
+    @Override
+    protected void putLocal(String taskId, Progress progress) {
+        progressCache.put(taskId, progress);
+    }
+
+    @Override
+    public Progress get(String taskId) {
+        return progressCache.getIfPresent(taskId);
+    }
+
+    @Override
+    public void remove(String taskId) {
+        super.remove(taskId);
+        progressCache.invalidate(taskId);
+    }
+}
@@ -0,0 +1,16 @@
+package org.dromara.data.progress;
+
+/**
+ * 进度变更监听器
+ * 与写入共享存储同频回调（已按 lingtai.progress.coalesce-millis 合并），开始/成功/失败总会回调
+ */
+public interface ProgressListener {
+
+    /**
+     * 进度变更
+     *
+     * @param taskId   任务ID
+     * @param progress 最新进度，{@link ProgressStore.Progress#getSeq()} 在同一任务内递增
+     */
+    void onProgress(String taskId, ProgressStore.Progress progress);
+}
@@ -0,0 +1,96 @@
+package org.dromara.data.progress;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.common.sse.core.SseEmitterManager;
+import org.dromara.common.sse.dto.SseTopicEventDto;
+import org.dromara.data.properties.ProgressProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * 基于 SSE 的任务进度推送
+ * <p>
+ * 进度刷出时（已合并）经 Redis 频道广播，各实例推送给本机订阅了该任务的连接，
+ * 因此客户端连到任意实例都能收到推送。事件ID为进度的 seq：
+ * 连接建立时若当前进度比 Last-Event-ID 新则先补发一次当前进度，进度是状态而非日志，补发最新值即可续上；
+ * 成功/失败事件发出后服务端关闭连接。客户端应忽略 ID 不大于已收到的事件。
+ * <p>
+ * 需要开启 sse.enabled，未开启时不推送，订阅接口返回错误，客户端回退为轮询。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressSsePublisher implements ProgressListener {
+
+    private static final String TOPIC_PREFIX = "lingtai:progress:";
+
+    private final ObjectProvider<SseEmitterManager> sseEmitterManager;
+    private final ObjectProvider<ProgressStore> progressStore;
+    private final ProgressProperties properties;
+
+    @Override
+    public void onProgress(String taskId, ProgressStore.Progress progress) {
+        SseEmitterManager manager = sseEmitterManager.getIfAvailable();
+        if (manager != null) {
+            manager.publishTopicEvent(event(taskId, progress));
+        }
+    }
+
+    /**
+     * 订阅任务进度
+     *
+     * @param taskId      任务ID
+     * @param lastEventId 客户端重连时回传的最后一个事件ID，可为空
+     */
+    public SseEmitter subscribe(String taskId, String lastEventId) {
+        SseEmitterManager manager = sseEmitterManager.getIfAvailable();
+        if (manager == null) {
+            throw new ServiceException("未开启 SSE 推送，请使用进度查询接口");
+        }
+        SseEmitter emitter = manager.connectTopic(TOPIC_PREFIX + taskId, properties.getSseTimeoutSeconds() * 1000L);
+        ProgressStore.Progress current = progressStore.getObject().get(taskId);
+        if (current == null) {
+            return emitter;
+        }
+        try {
+            if (current.getSeq() > parseEventId(lastEventId)) {
+                manager.sendTopicEvent(emitter, event(taskId, current));
+            } else if (current.terminal()) {
+                // 客户端已收到结束事件
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 补发前已被实时推送的结束事件关闭
+            log.debug("补发任务进度失败，taskId={}: {}", taskId, e.getMessage());
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private static SseTopicEventDto event(String taskId, ProgressStore.Progress progress) {
+        SseTopicEventDto event = new SseTopicEventDto();
+        event.setTopic(TOPIC_PREFIX + taskId);
+        event.setId(String.valueOf(progress.getSeq()));
+        event.setName(progress.terminal() ? progress.getStatus().toLowerCase() : "progress");
+        event.setData(JsonUtils.toJsonString(progress));
+        event.setLast(progress.terminal());
+        return event;
+    }
+
+    private static long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
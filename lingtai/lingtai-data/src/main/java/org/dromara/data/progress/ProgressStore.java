@@ -1,85 +1,48 @@
 package org.dromara.data.progress;
 
 import lombok.Data;
-import org.springframework.stereotype.Component;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.Serializable;
 
 /**
  * 任务进度存储（线程安全）
  * key：taskId
+ * <p>
+ * 由 lingtai.progress.store 选择实现：memory 为单实例内存存储，redis 为多实例共享存储
  */
-@Component
-public class ProgressStore {
+public interface ProgressStore {
 
-    private final Map<String, Progress> progressMap = new ConcurrentHashMap<>();
+    void start(String taskId, String message);
 
-    public void start(String taskId, String message) {
-        Progress p = new Progress();
-        p.setPercent(0);
-        p.setStatus(Status.RUNNING.name());
-        p.setMessage(message);
-        progressMap.put(taskId, p);
-    }
+    void updatePercent(String taskId, int percent, String message);
 
-    public void updatePercent(String taskId, int percent, String message) {
-        Progress p = progressMap.get(taskId);
-        if (p != null) {
-            p.setPercent(Math.max(0, Math.min(100, percent)));
-            if (message != null) p.setMessage(message);
-        } else {
-            // 若不存在则创建（防止空指针）
-            start(taskId, message != null ? message : "");
-            updatePercent(taskId, percent, message);
-        }
-    }
+    void success(String taskId, String message);
 
-    public void success(String taskId, String message) {
-        Progress p = progressMap.get(taskId);
-        if (p != null) {
-            p.setPercent(100);
-            p.setStatus(Status.SUCCESS.name());
-            p.setMessage(message);
-        } else {
-            Progress np = new Progress();
-            np.setPercent(100);
-            np.setStatus(Status.SUCCESS.name());
-            np.setMessage(message);
-            progressMap.put(taskId, np);
-        }
-    }
-
-    public void fail(String taskId, String message) {
-        Progress p = progressMap.get(taskId);
-        if (p != null) {
-            p.setStatus(Status.FAILED.name());
-            p.setMessage(message);
-        } else {
-            Progress np = new Progress();
-            np.setPercent(0);
-            np.setStatus(Status.FAILED.name());
-            np.setMessage(message);
-            progressMap.put(taskId, np);
-        }
-    }
+    void fail(String taskId, String message);
 
-    public Progress get(String taskId) {
-        return progressMap.get(taskId);
-    }
+    Progress get(String taskId);
 
-    public void remove(String taskId) {
-        progressMap.remove(taskId);
-    }
+    void remove(String taskId);
 
     @Data
-    public static class Progress {
+    class Progress implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
         private int percent;   // 0 - 100
         private String status; // RUNNING / SUCCESS / FAILED
         private String message;
+        private long seq;      // 同一任务内递增的版本号，用作 SSE 事件ID
+
+        /**
+         * 是否为成功/失败等结束状态
+         */
+        public boolean terminal() {
+            return !Status.RUNNING.name().equals(status);
+        }
     }
 
-    private enum Status {
+    enum Status {
         RUNNING, SUCCESS, FAILED
     }
 }
@@ -0,0 +1,73 @@
+package org.dromara.data.progress;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.dromara.common.redis.utils.RedisUtils;
+import org.dromara.data.properties.ProgressProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Redis 进度存储（多实例共享）
+ * <p>
+ * 写入合并见 {@link AbstractProgressStore}：同一任务在 coalesceMillis 内只写一次 Redis。
+ * 读取优先走本地近端缓存（有效期 nearCacheMillis），写入方实例总能读到自己的最新进度。
+ */
+@Component
+@ConditionalOnProperty(prefix = "lingtai.progress", name = "store", havingValue = "redis")
+public class RedisProgressStore extends AbstractProgressStore {
+
+    private static final String KEY_PREFIX = "lingtai:progress:";
+
+    /**
+     * 近端缓存，包含本实例写入的最新值与从 Redis 读到的值
+     */
+    private final Cache<String, Progress> nearCache;
+
+    public RedisProgressStore(ProgressProperties properties, ScheduledExecutorService scheduledExecutorService,
+                              ObjectProvider<ProgressListener> listeners) {
+        super(properties, scheduledExecutorService, listeners);
+        this.nearCache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(properties.getNearCacheMillis()))
+            .maximumSize(properties.getMaxEntries())
+            .build();
+    }
+
+    @Override
+    protected Progress load(String taskId) {
+        return get(taskId);
+    }
+
+    @Override
+    protected void putLocal(String taskId, Progress progress) {
+        nearCache.put(taskId, progress);
+    }
+
+    @Override
+    protected void persist(String taskId, Progress progress) {
+        RedisUtils.setCacheObject(KEY_PREFIX + taskId, progress, Duration.ofSeconds(properties.getTtlSeconds()));
+    }
+
+    @Override
+    public Progress get(String taskId) {
+        Progress progress = nearCache.getIfPresent(taskId);
+        if (progress == null) {
+            progress = RedisUtils.getCacheObject(KEY_PREFIX + taskId);
+            if (progress != null) {
+                nearCache.put(taskId, progress);
+            }
+        }
+        return progress;
+    }
+
+    @Override
+    public void remove(String taskId) {
+        super.remove(taskId);
+        nearCache.invalidate(taskId);
+        RedisUtils.deleteObject(KEY_PREFIX + taskId);
+    }
+}
@@ -0,0 +1,52 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * 节点本地制品缓存配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.artifact-cache 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.artifact-cache")
+public class ArtifactCacheProperties {
+
+    /**
+     * 是否启用本地缓存，关闭时下载请求重定向到对象存储的临时链接
+     */
+    private boolean enabled = false;
+
+    /**
+     * 缓存目录
+     */
+    private String directory = Path.of(System.getProperty("java.io.tmpdir"), "lingtai-artifact-cache").toString();
+
+    /**
+     * 缓存占用磁盘上限（字节），默认 50GB；超过时按最近最少使用淘汰
+     */
+    private long maxSizeBytes = 50L * 1024 * 1024 * 1024;
+
+    /**
+     * 等待其他请求填充同一对象的最长时间（秒）
+     */
+    private long fillTimeoutSeconds = 3600;
+
+    /**
+     * 对象 ETag 为内容 MD5（非分块上传）时，填充后校验 MD5
+     */
+    private boolean verifyMd5 = true;
+
+    /**
+     * 启动加载已有缓存时重新计算 SHA-256 校验内容，缓存大时会拖慢启动
+     */
+    private boolean verifyOnLoad = false;
+
+    /**
+     * 临时下载链接有效期（秒），缓存关闭或对象不适合缓存时使用
+     */
+    private long presignExpireSeconds = 3600;
+}
@@ -0,0 +1,85 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 对象存储传输带宽限速配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.bandwidth 节点
+ * <p>
+ * 限速单位均为字节/秒，0 表示不限；入方向与出方向各自独立限速。
+ * 配置刷新后立即对后续申请生效，运行时也可通过接口临时覆盖。
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.bandwidth")
+public class BandwidthProperties {
+
+    /**
+     * 是否启用限速，关闭后仍统计吞吐
+     */
+    private boolean enabled = true;
+
+    /**
+     * 突发容量（秒）：空闲后允许以该时长的额度不等待直接传输
+     */
+    private double burstSeconds = 1.0;
+
+    /**
+     * 单次申请额度的最大字节数，大块读写拆分申请，使同级的流交替获得额度
+     */
+    private int chunkBytes = 64 * 1024;
+
+    /**
+     * 租户/用户级令牌桶空闲多久（秒）后回收
+     */
+    private long idleEvictSeconds = 600;
+
+    /**
+     * 吞吐统计采样间隔（秒）
+     */
+    private long sampleIntervalSeconds = 5;
+
+    /**
+     * 入方向（从源站拉取）限速
+     */
+    private Limits inbound = new Limits();
+
+    /**
+     * 出方向（写入对象存储）限速
+     */
+    private Limits outbound = new Limits();
+
+    @Data
+    public static class Limits {
+
+        /**
+         * 全进程限速
+         */
+        private long global;
+
+        /**
+         * 每个租户的默认限速
+         */
+        private long perTenant;
+
+        /**
+         * 每个用户的默认限速
+         */
+        private long perUser;
+
+        /**
+         * 按租户ID单独配置的限速，优先于 perTenant
+         */
+        private Map<String, Long> tenants = new HashMap<>();
+
+        /**
+         * 按用户ID单独配置的限速，优先于 perUser
+         */
+        private Map<String, Long> users = new HashMap<>();
+    }
+}
@@ -0,0 +1,33 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量登记模型与文件配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.bulk-register 节点
+ * <p>
+ * 批量插入走 MyBatis-Plus 的 BATCH 执行器，数据源 URL 需带 rewriteBatchedStatements=true，
+ * 驱动才会把一批 insert 改写为多值 insert 一次发送
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.bulk-register")
+public class BulkRegisterProperties {
+
+    /**
+     * 每批插入的行数，同时也是 flush 的间隔
+     */
+    private int batchSize = 500;
+
+    /**
+     * 单次请求最多登记的模型数
+     */
+    private int maxModels = 1000;
+
+    /**
+     * 单次请求最多登记的文件数（所有模型合计）
+     */
+    private int maxFiles = 200000;
+}
@@ -0,0 +1,47 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 目录检索配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.catalog 节点
+ * <p>
+ * 开启前需同时开启 easy-es（easy-es.enable: true）并配置搜索引擎地址
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.catalog")
+public class CatalogProperties {
+
+    /**
+     * 是否开启目录检索；关闭时不登记发件箱
+     */
+    private boolean enabled = false;
+
+    /**
+     * 发件箱轮询间隔（毫秒）
+     */
+    private long pollIntervalMillis = 1000;
+
+    /**
+     * 每次从发件箱取出的记录数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 全量重建时每批读取的行数
+     */
+    private int reindexPageSize = 1000;
+
+    /**
+     * 全量重建的间隔（小时），0 表示只在接口触发与索引不存在时执行
+     */
+    private long reindexIntervalHours = 0;
+
+    /**
+     * 单次检索最多返回的条数
+     */
+    private int maxPageSize = 100;
+}
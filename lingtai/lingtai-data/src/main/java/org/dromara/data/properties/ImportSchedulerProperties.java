@@ -0,0 +1,45 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 导入任务调度配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.import-scheduler 节点，限额均按实例计算
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.import-scheduler")
+public class ImportSchedulerProperties {
+
+    /**
+     * 同时执行的导入任务数上限
+     */
+    private int maxConcurrent = 8;
+
+    /**
+     * 单个用户同时执行的导入任务数上限
+     */
+    private int maxPerUser = 2;
+
+    /**
+     * 单个租户同时执行的导入任务数上限
+     */
+    private int maxPerTenant = 4;
+
+    /**
+     * 排队任务数上限，队列满时拒绝提交
+     */
+    private int queueCapacity = 200;
+
+    /**
+     * 单个用户排队任务数上限
+     */
+    private int maxQueuedPerUser = 50;
+
+    /**
+     * 用户可指定的优先级范围 [-maxUserPriority, maxUserPriority]，续传任务固定使用更高的优先级
+     */
+    private int maxUserPriority = 5;
+}
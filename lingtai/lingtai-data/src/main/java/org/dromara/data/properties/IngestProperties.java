@@ -0,0 +1,45 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 数据集压缩包导入配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.ingest 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.ingest")
+public class IngestProperties {
+
+    /**
+     * 不超过该大小（字节）的文件读入内存后并发上传，更大的文件在读取线程上分块上传
+     */
+    private int smallEntryThreshold = 8 * 1024 * 1024;
+
+    /**
+     * 单个导入任务读入内存、等待上传的字节数上限，读取线程超过后阻塞等待上传完成
+     */
+    private int maxBufferedBytes = 64 * 1024 * 1024;
+
+    /**
+     * 文件记录批量写库的条数
+     */
+    private int dbBatchSize = 500;
+
+    /**
+     * 单个压缩包最多导入的文件数
+     */
+    private int maxEntries = 1_000_000;
+
+    /**
+     * zip 条目名未声明 UTF-8 时使用的字符集，Windows 中文系统打包的 zip 一般为 GBK
+     */
+    private String zipCharset = "UTF-8";
+
+    /**
+     * 源站地址为本存储桶对象时，临时下载链接的有效期（秒）
+     */
+    private long presignExpireSeconds = 6 * 3600;
+}
@@ -0,0 +1,40 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 存储完整性巡检配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.integrity 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.integrity")
+public class IntegrityProperties {
+
+    /**
+     * 是否定期抽样重新校验已存储的文件
+     */
+    private boolean scrubEnabled = true;
+
+    /**
+     * 两轮巡检的间隔（秒）
+     */
+    private long scrubIntervalSeconds = 3600;
+
+    /**
+     * 启动后首轮巡检的延迟（秒）
+     */
+    private long scrubInitialDelaySeconds = 600;
+
+    /**
+     * 每轮从模型文件、数据集文件中各随机抽取的文件数
+     */
+    private int scrubSampleSize = 20;
+
+    /**
+     * 每轮最多下载的字节数，抽到的文件超出剩余额度时跳过；下载同时受对象下载流量限速
+     */
+    private long scrubMaxBytesPerRound = 10L * 1024 * 1024 * 1024;
+}
@@ -0,0 +1,70 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 数据集文件预览配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.preview 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.preview")
+public class PreviewProperties {
+
+    /**
+     * 默认返回的样本行数
+     */
+    private int defaultRows = 20;
+
+    /**
+     * 单次预览最多返回的样本行数
+     */
+    private int maxRows = 200;
+
+    /**
+     * 读取文件开头时第一次区间请求的字节数，行数不够时翻倍重读
+     */
+    private int headRangeBytes = 16 * 1024;
+
+    /**
+     * 读取文件开头时累计读取的字节数上限
+     */
+    private int maxHeadBytes = 1024 * 1024;
+
+    /**
+     * 抽样模式下的抽样位置数，各位置并发读取
+     */
+    private int sampleSegments = 8;
+
+    /**
+     * 抽样模式下每个位置读取的字节数
+     */
+    private int sampleRangeBytes = 16 * 1024;
+
+    /**
+     * Parquet 首次从文件末尾读取的字节数，footer 更大时再按实际长度补读
+     */
+    private int parquetTailBytes = 64 * 1024;
+
+    /**
+     * Parquet footer 长度上限，超过时不预览
+     */
+    private int maxParquetFooterBytes = 16 * 1024 * 1024;
+
+    /**
+     * 本地缓存条目数
+     */
+    private int localCacheSize = 1000;
+
+    /**
+     * 本地缓存有效期（秒）
+     */
+    private long localCacheSeconds = 600;
+
+    /**
+     * Redis 缓存有效期（秒），缓存键包含 ETag，文件覆盖后自然失效
+     */
+    private long redisCacheSeconds = 24 * 3600;
+}
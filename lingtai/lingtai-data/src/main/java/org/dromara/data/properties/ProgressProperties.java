@@ -0,0 +1,45 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务进度存储配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.progress 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.progress")
+public class ProgressProperties {
+
+    /**
+     * 存储类型：memory（单实例）, redis（多实例部署，任意实例都能查询进度）
+     */
+    private String store = "memory";
+
+    /**
+     * 进度最后一次更新后的保留时长（秒），过期自动删除
+     */
+    private long ttlSeconds = 3600;
+
+    /**
+     * 内存存储的最大任务数，超过后淘汰最久未更新的任务
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * 同一任务两次写入 Redis / 推送 SSE 的最小间隔（毫秒），期间的进度更新合并为一次；开始、成功、失败立即写入
+     */
+    private long coalesceMillis = 250;
+
+    /**
+     * Redis 存储的本地近端缓存有效期（毫秒）
+     */
+    private long nearCacheMillis = 500;
+
+    /**
+     * SSE 进度订阅连接的超时时间（秒），超时后客户端携带 Last-Event-ID 重连即可
+     */
+    private long sseTimeoutSeconds = 1800;
+}
@@ -0,0 +1,25 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 存储统计配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.stats 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.stats")
+public class StatsProperties {
+
+    /**
+     * 统计计数与明细表对账的间隔（秒），对账以一次聚合查询的结果修正增量计数的漂移
+     */
+    private long reconcileIntervalSeconds = 3600;
+
+    /**
+     * 启动后首次对账的延迟（秒），统计表为空时据此完成初始化
+     */
+    private long reconcileInitialDelaySeconds = 30;
+}
@@ -0,0 +1,45 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 模型文件张量索引配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.tensor-index 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.tensor-index")
+public class TensorIndexProperties {
+
+    /**
+     * 是否在模型文件上传、导入后自动建立索引
+     */
+    private boolean enabled = true;
+
+    /**
+     * 同时建立索引的文件数（全进程），回填也受此限制
+     */
+    private int concurrency = 2;
+
+    /**
+     * 第一次区间读取的字节数，safetensors 头或 GGUF 元数据更长时再补读
+     */
+    private int firstRangeBytes = 64 * 1024;
+
+    /**
+     * 文件头字节数上限，超过时索引失败（safetensors 规范上限为 100MB）
+     */
+    private long maxHeaderBytes = 100 * 1024 * 1024L;
+
+    /**
+     * 回填时每批查询的模型文件数
+     */
+    private int backfillBatchSize = 200;
+
+    /**
+     * 张量记录批量写库的条数
+     */
+    private int dbBatchSize = 500;
+}
@@ -0,0 +1,156 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对象存储传输配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.transfer 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.transfer")
+public class TransferProperties {
+
+    /**
+     * 分块大小（字节），默认 16MB；COS 单次分块上传最多 10000 块
+     */
+    private long partSize = 16 * 1024 * 1024L;
+
+    /**
+     * 单个上传任务同时在途的分块数
+     */
+    private int partConcurrency = 4;
+
+    /**
+     * 全局分块缓冲池中的缓冲区数量上限（所有上传任务共享）
+     */
+    private int bufferPoolSize = 16;
+
+    /**
+     * 是否使用堆外内存（DirectByteBuffer）作为分块缓冲区
+     */
+    private boolean directBuffers = true;
+
+    /**
+     * 单个分块上传失败后的最大重试次数
+     */
+    private int partMaxRetries = 3;
+
+    /**
+     * 分块上传线程池大小
+     */
+    private int partUploadThreads = 16;
+
+    /**
+     * 源站（HuggingFace 等）读超时（毫秒）
+     */
+    private int sourceReadTimeout = 120_000;
+
+    /**
+     * 访问 HuggingFace 私有/受限仓库时使用的 Access Token，可为空
+     */
+    private String hubToken;
+
+    /**
+     * HuggingFace Hub 地址，可指向镜像站或本地文件服务
+     */
+    private String hubEndpoint = "https://huggingface.co";
+
+    /**
+     * 仓库快照导入时全进程同时传输的文件数上限
+     */
+    private int snapshotConcurrency = 4;
+
+    /**
+     * 仓库快照导入未指定过滤规则时默认忽略的文件（glob）
+     */
+    private List<String> snapshotIgnorePatterns = new ArrayList<>(List.of(".gitattributes"));
+
+    /**
+     * 内容寻址对象引用数归零后的保留时长（小时），期间再次命中可直接复用
+     */
+    private long blobGraceHours = 24;
+
+    /**
+     * COS 客户端连接池配置
+     */
+    private Client client = new Client();
+
+    /**
+     * 导入断点日志配置
+     */
+    private Journal journal = new Journal();
+
+    @Data
+    public static class Client {
+
+        /**
+         * 单个客户端的最大 HTTP 连接数
+         */
+        private int maxConnections = 64;
+
+        /**
+         * 建立连接超时（毫秒）
+         */
+        private int connectionTimeout = 10_000;
+
+        /**
+         * 读写超时（毫秒）
+         */
+        private int socketTimeout = 60_000;
+
+        /**
+         * 从连接池获取连接的超时（毫秒）
+         */
+        private int connectionRequestTimeout = 10_000;
+
+        /**
+         * 空闲 HTTP 连接保活时间（毫秒），超过后由客户端的空闲连接回收线程关闭
+         */
+        private int idleConnectionAlive = 60_000;
+
+        /**
+         * 客户端空闲多久（秒）且无人持有时被回收
+         */
+        private long idleEvictSeconds = 600;
+    }
+
+    @Data
+    public static class Journal {
+
+        /**
+         * 是否在启动后自动续传中断的导入任务
+         */
+        private boolean resumeEnabled = true;
+
+        /**
+         * 执行实例心跳间隔（秒）
+         */
+        private long heartbeatSeconds = 30;
+
+        /**
+         * 心跳超过该时长（秒）未更新的 RUNNING 任务视为执行实例已退出，可被其他实例接管续传
+         */
+        private long staleSeconds = 120;
+
+        /**
+         * 同一任务最多自动续传次数，超过后标记失败
+         */
+        private int maxResumeAttempts = 3;
+
+        /**
+         * 不属于任何进行中导入任务的分块上传，初始化超过该时长（小时）后被清理
+         */
+        private long orphanUploadHours = 24;
+
+        /**
+         * 清理任务执行间隔（秒）
+         */
+        private long sweepIntervalSeconds = 600;
+    }
+}
@@ -0,0 +1,40 @@
+package org.dromara.data.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 浏览器直传会话配置
+ * 对应 nacos 中 lingtai-data.yml 的 lingtai.upload-session 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.upload-session")
+public class UploadSessionProperties {
+
+    /**
+     * 会话有效期（秒）：未完成的分块上传过期后 Abort；完成后重新计时，过期仍未登记的对象被删除
+     */
+    private long expireSeconds = 24 * 3600;
+
+    /**
+     * 分块预签名 URL 的有效期（秒）
+     */
+    private long presignExpireSeconds = 3600;
+
+    /**
+     * 单次最多签发的分块 URL 数
+     */
+    private int maxPresignBatch = 100;
+
+    /**
+     * 分块大小（字节），默认 16MB；文件过大时自动放大，保证分块数不超过 10000
+     */
+    private long partSize = 16 * 1024 * 1024L;
+
+    /**
+     * 过期会话清理任务的间隔（秒）
+     */
+    private long sweepIntervalSeconds = 600;
+}
@@ -0,0 +1,11 @@
+package org.dromara.data.scheduler;
+
+/**
+ * 导入任务的执行体
+ * 应在阻塞操作被中断后检查 {@link ImportTask#isCancelled()}，区分用户取消与服务停机
+ */
+@FunctionalInterface
+public interface ImportJob {
+
+    void run(ImportTask task) throws Exception;
+}
@@ -0,0 +1,403 @@
+package org.dromara.data.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.redis.utils.RedisUtils;
+import org.dromara.common.satoken.utils.LoginHelper;
+import org.dromara.data.entity.dto.ImportTaskInfoDTO;
+import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.properties.ImportSchedulerProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入任务调度器
+ * <p>
+ * 任务进入有界优先队列（优先级高者先、同优先级先提交者先），调度时按队列顺序跳过已达
+ * 用户/租户并发上限的任务，因此单个用户提交大量导入只会占用自己的并发额度，其他用户的任务照常开始。
+ * 执行线程来自 importTaskExecutor（开启虚拟线程时为虚拟线程），与 ForkJoinPool.commonPool 隔离。
+ * <p>
+ * 排队位置随调度变化写入任务进度消息，多实例部署时任意实例都能查询；取消请求经 Redis 广播到所有实例。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportScheduler implements ApplicationRunner {
+
+    private static final String CANCEL_TOPIC = "lingtai:import:cancel";
+
+    private static final ThreadLocal<ImportTask> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 前方任务数达到该值后按该值取整展示
+     */
+    private static final int POSITION_STEP = 10;
+
+    private final ImportSchedulerProperties properties;
+    private final ProgressStore progressStore;
+
+    @Resource(name = "importTaskExecutor")
+    private Executor importTaskExecutor;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final TreeSet<ImportTask> queue = new TreeSet<>(Comparator
+        .comparingInt(ImportTask::getPriority).reversed()
+        .thenComparingLong(ImportTask::getSeq));
+
+    private final Map<String, ImportTask> tasks = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> queuedByUser = new HashMap<>();
+    private final Map<Long, Integer> runningByUser = new HashMap<>();
+    private final Map<String, Integer> runningByTenant = new HashMap<>();
+    private int running;
+    private volatile boolean shutdown;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        RedisUtils.subscribe(CANCEL_TOPIC, ImportTaskInfoDTO.class,
+            request -> cancelLocal(request.getTaskId(), request.getUserId()));
+        log.info("初始化导入任务调度器成功");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        shutdown = true;
+    }
+
+    /**
+     * 当前线程正在执行的导入任务，不在调度器线程中时返回 null
+     */
+    public static ImportTask current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 当前线程正在执行的导入任务是否已被取消
+     */
+    public static boolean isCurrentCancelled() {
+        ImportTask task = CURRENT.get();
+        return task != null && task.isCancelled();
+    }
+
+    /**
+     * 当前登录用户ID，未登录时返回 fallback
+     */
+    public static Long currentUserId(Long fallback) {
+        try {
+            Long userId = LoginHelper.getUserId();
+            return userId != null ? userId : fallback;
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * 当前登录用户的租户ID，未登录时返回 null
+     */
+    public static String currentTenantId() {
+        try {
+            return LoginHelper.getTenantId();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 提交导入任务
+     *
+     * @param taskId         任务ID，调度器内唯一
+     * @param progressKey    排队位置写入的进度ID，为空时不写
+     * @param userId         用户ID，为空时不受用户并发限制
+     * @param tenantId       租户ID，为空时不受租户并发限制
+     * @param priority       优先级
+     * @param job            执行体
+     * @param onCancelQueued 排队中被取消时的处理，可为 null
+     * @throws ServiceException 队列已满
+     */
+    public ImportTask submit(String taskId, String progressKey, Long userId, String tenantId, int priority,
+                             ImportJob job, Runnable onCancelQueued) {
+        ImportTask task = new ImportTask(taskId, progressKey, userId, tenantId, priority,
+            sequence.incrementAndGet(), job, onCancelQueued);
+        List<ImportTask> started;
+        synchronized (this) {
+            if (shutdown) {
+                throw new ServiceException("服务正在停止，请稍后重试");
+            }
+            if (queue.size() >= properties.getQueueCapacity()) {
+                throw new ServiceException("导入队列已满，请稍后重试");
+            }
+            if (userId != null && queuedByUser.getOrDefault(userId, 0) >= properties.getMaxQueuedPerUser()) {
+                throw new ServiceException("排队中的导入任务过多，请等待已提交的任务完成");
+            }
+            if (tasks.putIfAbsent(taskId, task) != null) {
+                throw new ServiceException("导入任务已存在: " + taskId);
+            }
+            queue.add(task);
+            increment(queuedByUser, userId);
+            started = dispatch();
+        }
+        log.info("[SCHEDULER] 提交导入任务 taskId={}, userId={}, tenantId={}, priority={}",
+            taskId, userId, tenantId, priority);
+        afterDispatch(started);
+        return task;
+    }
+
+    /**
+     * 用户指定的优先级限制在允许范围内
+     */
+    public int userPriority(Integer priority) {
+        int max = Math.max(0, properties.getMaxUserPriority());
+        return priority == null ? 0 : Math.max(-max, Math.min(max, priority));
+    }
+
+    /**
+     * 续传任务的优先级，高于任何用户指定的优先级
+     */
+    public int resumePriority() {
+        return Math.max(0, properties.getMaxUserPriority()) + 1;
+    }
+
+    /**
+     * 取消任务，任务可能在任意实例上；本实例上没有时广播给其他实例
+     *
+     * @param taskId      任务ID
+     * @param requesterId 发起取消的用户，只能取消自己的任务；为空时不校验（管理员）
+     * @return 任务是否在本实例上并已取消
+     */
+    public boolean cancel(String taskId, Long requesterId) {
+        if (tasks.containsKey(taskId)) {
+            return cancelLocal(taskId, requesterId);
+        }
+        ImportTaskInfoDTO request = new ImportTaskInfoDTO();
+        request.setTaskId(taskId);
+        request.setUserId(requesterId);
+        RedisUtils.publish(CANCEL_TOPIC, request);
+        return false;
+    }
+
+    /**
+     * 查询本实例上的任务
+     */
+    public ImportTask get(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    /**
+     * 查询本实例上任务的调度状态，不存在或不属于请求者时返回 null
+     *
+     * @param requesterId 请求者，为空时不校验（管理员）
+     */
+    public synchronized ImportTaskInfoDTO info(String taskId, Long requesterId) {
+        ImportTask task = tasks.get(taskId);
+        if (task == null || requesterId != null && !requesterId.equals(task.getUserId())) {
+            return null;
+        }
+        return toInfo(task, position(task));
+    }
+
+    /**
+     * 查询本实例上某个用户的全部任务
+     */
+    public synchronized List<ImportTaskInfoDTO> listByUser(Long userId) {
+        List<ImportTaskInfoDTO> list = new ArrayList<>();
+        int position = 0;
+        for (ImportTask task : queue) {
+            position++;
+            if (Objects.equals(userId, task.getUserId())) {
+                list.add(toInfo(task, position));
+            }
+        }
+        for (ImportTask task : tasks.values()) {
+            if (task.getState() == ImportTask.State.RUNNING && Objects.equals(userId, task.getUserId())) {
+                list.add(toInfo(task, 0));
+            }
+        }
+        return list;
+    }
+
+    private boolean cancelLocal(String taskId, Long requesterId) {
+        ImportTask task;
+        List<ImportTask> started = List.of();
+        synchronized (this) {
+            task = tasks.get(taskId);
+            if (task == null || task.isCancelled()) {
+                return false;
+            }
+            if (requesterId != null && !requesterId.equals(task.getUserId())) {
+                log.warn("[SCHEDULER] 用户 {} 无权取消导入任务 taskId={}", requesterId, taskId);
+                return false;
+            }
+            if (task.getState() == ImportTask.State.QUEUED) {
+                queue.remove(task);
+                decrement(queuedByUser, task.getUserId());
+                tasks.remove(taskId);
+                task.markState(ImportTask.State.CANCELLED);
+                started = dispatch();
+            }
+        }
+        log.info("[SCHEDULER] 取消导入任务 taskId={}, state={}", taskId, task.getState());
+        task.markCancelled();
+        if (task.getState() == ImportTask.State.CANCELLED && task.onCancelQueued != null) {
+            task.onCancelQueued.run();
+        }
+        afterDispatch(started);
+        return true;
+    }
+
+    /**
+     * 按队列顺序启动未超出并发上限的任务，调用方持有锁
+     *
+     * @return 本次启动的任务
+     */
+    private List<ImportTask> dispatch() {
+        List<ImportTask> started = new ArrayList<>();
+        Iterator<ImportTask> it = queue.iterator();
+        while (running < properties.getMaxConcurrent() && it.hasNext()) {
+            ImportTask task = it.next();
+            if (task.getUserId() != null
+                && runningByUser.getOrDefault(task.getUserId(), 0) >= properties.getMaxPerUser()) {
+                continue;
+            }
+            if (task.getTenantId() != null
+                && runningByTenant.getOrDefault(task.getTenantId(), 0) >= properties.getMaxPerTenant()) {
+                continue;
+            }
+            it.remove();
+            decrement(queuedByUser, task.getUserId());
+            increment(runningByUser, task.getUserId());
+            increment(runningByTenant, task.getTenantId());
+            running++;
+            task.markRunning();
+            started.add(task);
+        }
+        return started;
+    }
+
+    /**
+     * 在锁外执行已启动的任务，并刷新排队任务的位置
+     */
+    private void afterDispatch(List<ImportTask> started) {
+        for (ImportTask task : started) {
+            try {
+                importTaskExecutor.execute(() -> execute(task));
+            } catch (RejectedExecutionException e) {
+                log.error("[SCHEDULER] 导入任务无法执行，taskId={}", task.getTaskId(), e);
+                if (task.getProgressKey() != null) {
+                    progressStore.fail(task.getProgressKey(), "导入失败：任务无法执行");
+                }
+                finish(task);
+            }
+        }
+        reportPositions();
+    }
+
+    private void execute(ImportTask task) {
+        task.bindRunner(Thread.currentThread());
+        CURRENT.set(task);
+        try {
+            if (!task.isCancelled()) {
+                task.job.run(task);
+            }
+        } catch (Exception e) {
+            log.error("[SCHEDULER] 导入任务执行异常，taskId={}", task.getTaskId(), e);
+        } finally {
+            CURRENT.remove();
+            task.unbindRunner();
+            finish(task);
+        }
+    }
+
+    private void finish(ImportTask task) {
+        List<ImportTask> started;
+        synchronized (this) {
+            tasks.remove(task.getTaskId(), task);
+            decrement(runningByUser, task.getUserId());
+            decrement(runningByTenant, task.getTenantId());
+            running--;
+            task.markState(task.isCancelled() ? ImportTask.State.CANCELLED : ImportTask.State.FINISHED);
+            started = shutdown ? List.of() : dispatch();
+        }
+        afterDispatch(started);
+    }
+
+    /**
+     * 展示的排队位置有变化的任务更新进度消息
+     * <p>
+     * 队首出队时所有排队任务的位置都会前移一位，若逐个报告精确位置，每次调度都要改写全部排队任务的进度。
+     * 因此前方任务数达到 {@link #POSITION_STEP} 后按该值取整展示，靠后的任务每前进一档才写一次。
+     */
+    private void reportPositions() {
+        List<ImportTask> changed = new ArrayList<>();
+        List<Integer> shown = new ArrayList<>();
+        synchronized (this) {
+            int ahead = 0;
+            for (ImportTask task : queue) {
+                int display = ahead < POSITION_STEP ? ahead : ahead / POSITION_STEP * POSITION_STEP;
+                ahead++;
+                if (task.getProgressKey() != null && task.reportedPosition != display) {
+                    task.reportedPosition = display;
+                    changed.add(task);
+                    shown.add(display);
+                }
+            }
+        }
+        for (int i = 0; i < changed.size(); i++) {
+            ImportTask task = changed.get(i);
+            if (task.getState() == ImportTask.State.QUEUED) {
+                int display = shown.get(i);
+                progressStore.updatePercent(task.getProgressKey(), 0,
+                    "排队中，前方还有 " + display + (display < POSITION_STEP ? "" : "+") + " 个任务");
+            }
+        }
+    }
+
+    private int position(ImportTask task) {
+        if (task.getState() != ImportTask.State.QUEUED) {
+            return 0;
+        }
+        return queue.headSet(task).size() + 1;
+    }
+
+    private ImportTaskInfoDTO toInfo(ImportTask task, int position) {
+        ImportTaskInfoDTO info = new ImportTaskInfoDTO();
+        info.setTaskId(task.getTaskId());
+        info.setUserId(task.getUserId());
+        info.setState(task.getState().name());
+        info.setPriority(task.getPriority());
+        info.setPosition(position);
+        info.setQueued(queue.size());
+        info.setRunning(running);
+        info.setSubmitTime(task.getSubmitTime());
+        info.setStartTime(task.getStartTime() == 0 ? null : task.getStartTime());
+        return info;
+    }
+
+    private static <K> void increment(Map<K, Integer> counts, K key) {
+        if (key != null) {
+            counts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    private static <K> void decrement(Map<K, Integer> counts, K key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, v) -> v > 1 ? v - 1 : null);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.dromara.data.scheduler;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 调度中的导入任务
+ * <p>
+ * 取消是协作式的：排队中的任务直接出队；执行中的任务被标记取消并中断执行线程，
+ * 执行体注册的取消回调（如中断其派生的文件传输）随后执行。
+ */
+@Slf4j
+@Getter
+public class ImportTask {
+
+    public enum State {
+        QUEUED, RUNNING, CANCELLED, FINISHED
+    }
+
+    /**
+     * 任务ID，调度器内唯一
+     */
+    private final String taskId;
+
+    /**
+     * 排队位置写入的进度ID，为空时不写
+     */
+    private final String progressKey;
+
+    private final Long userId;
+
+    private final String tenantId;
+
+    /**
+     * 优先级，越大越先执行
+     */
+    private final int priority;
+
+    /**
+     * 提交序号，同优先级先提交先执行
+     */
+    private final long seq;
+
+    private final long submitTime = System.currentTimeMillis();
+
+    final ImportJob job;
+
+    /**
+     * 排队中被取消时的处理
+     */
+    final Runnable onCancelQueued;
+
+    private volatile State state = State.QUEUED;
+
+    private volatile boolean cancelled;
+
+    private volatile long startTime;
+
+    /**
+     * 执行线程，与中断操作在本对象上互斥
+     */
+    Thread runner;
+
+    /**
+     * 最近一次写入进度的前方任务数（取整后）
+     */
+    int reportedPosition = -1;
+
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+
+    ImportTask(String taskId, String progressKey, Long userId, String tenantId, int priority, long seq,
+               ImportJob job, Runnable onCancelQueued) {
+        this.taskId = taskId;
+        this.progressKey = progressKey;
+        this.userId = userId;
+        this.tenantId = tenantId;
+        this.priority = priority;
+        this.seq = seq;
+        this.job = job;
+        this.onCancelQueued = onCancelQueued;
+    }
+
+    /**
+     * 注册取消回调，已取消时立即执行
+     */
+    public void onCancel(Runnable hook) {
+        cancelHooks.add(hook);
+        if (cancelled && cancelHooks.remove(hook)) {
+            runQuietly(hook);
+        }
+    }
+
+    synchronized void bindRunner(Thread thread) {
+        runner = thread;
+    }
+
+    /**
+     * 解除执行线程并清除取消留下的中断标记，线程池线程复用时不受影响
+     */
+    synchronized void unbindRunner() {
+        runner = null;
+        Thread.interrupted();
+    }
+
+    void markRunning() {
+        state = State.RUNNING;
+        startTime = System.currentTimeMillis();
+    }
+
+    void markState(State state) {
+        this.state = state;
+    }
+
+    void markCancelled() {
+        cancelled = true;
+        synchronized (this) {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+        for (Runnable hook : cancelHooks) {
+            if (cancelHooks.remove(hook)) {
+                runQuietly(hook);
+            }
+        }
+    }
+
+    private void runQuietly(Runnable hook) {
+        try {
+            hook.run();
+        } catch (Exception e) {
+            log.warn("[SCHEDULER] 取消回调执行异常，taskId={}: {}", taskId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package org.dromara.data.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.data.entity.CatalogDocument;
+import org.dromara.data.entity.CatalogOutbox;
+import org.dromara.data.entity.DataSets;
+import org.dromara.data.entity.ModelFileIndex;
+import org.dromara.data.entity.Models;
+import org.dromara.data.esmapper.CatalogDocumentMapper;
+import org.dromara.data.mapper.CatalogOutboxMapper;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.DataSetsMapper;
+import org.dromara.data.mapper.ModelFileIndexMapper;
+import org.dromara.data.properties.CatalogProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 目录索引任务
+ * <p>
+ * 增量：定时按主键顺序取出发件箱记录，按对象合并后读取当前行写入索引，行已不存在的删除文档；
+ * 写入使用外部版本号（对象最后一条发件箱记录的主键），乱序或重复处理时旧版本被搜索引擎拒绝，处理完删除发件箱记录。
+ * <p>
+ * 全量：先插入一条标记记录取得当前最大的发件箱主键作为版本号，按主键分页读取全部模型与数据集，
+ * 以 external_gte 写入并打上新的批次号，完成后删除批次号不符的文档（已删除对象的残留文档）。
+ * 重建期间的增量写入版本号更大，不会被重建覆盖；其他实例在重建期间写入的文档批次号较旧，可能被清理，在下次变更或重建时恢复。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lingtai.catalog", name = "enabled", havingValue = "true")
+public class CatalogIndexer {
+
+    /**
+     * 每次轮询最多连续处理的批数，避免长时间占用定时线程
+     */
+    private static final int MAX_BATCHES_PER_TICK = 20;
+
+    private static final String VERSION_CONFLICT = "version_conflict_engine_exception";
+
+    private static final String TARGET_REINDEX = "reindex";
+
+    private final CatalogOutboxMapper outboxMapper;
+    private final DataMapper dataMapper;
+    private final DataSetsMapper dataSetsMapper;
+    private final ModelFileIndexMapper modelFileIndexMapper;
+    private final CatalogDocumentMapper catalogMapper;
+    private final CatalogProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @Autowired
+    private ElasticsearchClient client;
+
+    @Resource(name = "taskExecutor")
+    private Executor taskExecutor;
+
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+    private volatile boolean indexReady;
+    private volatile long generation;
+    private volatile long lastReindexTime;
+
+    private final LongAdder indexedDocs = new LongAdder();
+    private final LongAdder deletedDocs = new LongAdder();
+    private final LongAdder failedDocs = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        long interval = Math.max(100L, properties.getPollIntervalMillis());
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (Exception e) {
+                log.error("[CATALOG] 处理发件箱失败", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        if (properties.getReindexIntervalHours() > 0) {
+            long hours = properties.getReindexIntervalHours();
+            scheduledExecutorService.scheduleWithFixedDelay(() -> {
+                try {
+                    reindex();
+                } catch (Exception e) {
+                    log.error("[CATALOG] 提交全量重建失败", e);
+                }
+            }, hours, hours, TimeUnit.HOURS);
+        }
+    }
+
+    /**
+     * 提交全量重建
+     *
+     * @return 已有重建在执行时返回 false
+     */
+    public boolean reindex() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(this::runReindex);
+        } catch (RuntimeException e) {
+            reindexing.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void poll() throws IOException {
+        if (!indexReady) {
+            if (!catalogMapper.existsIndex(CatalogDocument.INDEX)) {
+                catalogMapper.createIndex();
+                log.info("[CATALOG] 已创建索引 {}，开始全量重建", CatalogDocument.INDEX);
+                reindex();
+            }
+            indexReady = true;
+        }
+        for (int i = 0; i < MAX_BATCHES_PER_TICK; i++) {
+            if (!indexBatch()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 处理一批发件箱记录
+     *
+     * @return 发件箱可能还有剩余
+     */
+    private boolean indexBatch() throws IOException {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<CatalogOutbox> rows = outboxMapper.selectList(new LambdaQueryWrapper<CatalogOutbox>()
+            .orderByAsc(CatalogOutbox::getId).last("limit " + batchSize));
+        if (rows.isEmpty()) {
+            return false;
+        }
+        // 同一对象只写一次，版本号取最后一条记录
+        Map<String, Long> versions = new LinkedHashMap<>();
+        Set<Integer> modelIds = new HashSet<>();
+        Set<Integer> dataSetIds = new HashSet<>();
+        long oldest = Long.MAX_VALUE;
+        for (CatalogOutbox row : rows) {
+            if (row.getCreatedTime() != null) {
+                oldest = Math.min(oldest, row.getCreatedTime().getTime());
+            }
+            if (ICatalogOutboxService.TARGET_MODEL.equals(row.getTargetType())) {
+                modelIds.add(row.getTargetId());
+            } else if (ICatalogOutboxService.TARGET_DATASET.equals(row.getTargetType())) {
+                dataSetIds.add(row.getTargetId());
+            } else {
+                continue;
+            }
+            versions.merge(docId(row.getTargetType(), row.getTargetId()), row.getId(), Math::max);
+        }
+
+        Map<String, CatalogDocument> docs = new HashMap<>();
+        long gen = generation;
+        for (CatalogDocument doc : modelDocuments(modelIds.isEmpty() ? List.of()
+            : dataMapper.selectBatchIds(modelIds), gen)) {
+            docs.put(doc.getId(), doc);
+        }
+        for (CatalogDocument doc : dataSetDocuments(dataSetIds.isEmpty() ? List.of()
+            : dataSetsMapper.selectBatchIds(dataSetIds), gen)) {
+            docs.put(doc.getId(), doc);
+        }
+
+        Set<String> failed = new HashSet<>();
+        if (!versions.isEmpty()) {
+            BulkRequest.Builder bulk = new BulkRequest.Builder();
+            versions.forEach((id, version) -> {
+                CatalogDocument doc = docs.get(id);
+                if (doc != null) {
+                    bulk.operations(op -> op.index(i -> i.index(CatalogDocument.INDEX).id(id).document(doc)
+                        .version(version).versionType(VersionType.External)));
+                } else {
+                    bulk.operations(op -> op.delete(d -> d.index(CatalogDocument.INDEX).id(id)
+                        .version(version).versionType(VersionType.External)));
+                }
+            });
+            failed = failedIds(client.bulk(bulk.build()));
+            for (String id : versions.keySet()) {
+                if (!failed.contains(id)) {
+                    (docs.containsKey(id) ? indexedDocs : deletedDocs).increment();
+                }
+            }
+        }
+
+        // 写入失败的对象保留发件箱记录，下次重试
+        List<Long> done = new ArrayList<>();
+        for (CatalogOutbox row : rows) {
+            if (!failed.contains(docId(row.getTargetType(), row.getTargetId()))) {
+                done.add(row.getId());
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxMapper.deleteBatchIds(done);
+        }
+        if (oldest != Long.MAX_VALUE) {
+            long lag = System.currentTimeMillis() - oldest;
+            lastLagMillis.set(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+        }
+        if (!failed.isEmpty()) {
+            // 整批失败时不立即重试，等下一次轮询
+            return false;
+        }
+        return rows.size() >= batchSize;
+    }
+
+    private void runReindex() {
+        long gen = System.currentTimeMillis();
+        long started = gen;
+        try {
+            CatalogOutbox marker = new CatalogOutbox().setTargetType(TARGET_REINDEX).setTargetId(0)
+                .setCreatedTime(new Timestamp(started));
+            outboxMapper.insert(marker);
+            outboxMapper.deleteById(marker.getId());
+            long version = marker.getId();
+            generation = gen;
+
+            int pageSize = Math.max(1, properties.getReindexPageSize());
+            long models = 0;
+            int lastId = 0;
+            while (true) {
+                List<Models> page = dataMapper.selectList(new LambdaQueryWrapper<Models>()
+                    .gt(Models::getId, lastId).orderByAsc(Models::getId).last("limit " + pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                models += writeAll(modelDocuments(page, gen), version);
+                lastId = page.get(page.size() - 1).getId();
+            }
+            long dataSets = 0;
+            lastId = 0;
+            while (true) {
+                List<DataSets> page = dataSetsMapper.selectList(new LambdaQueryWrapper<DataSets>()
+                    .gt(DataSets::getId, lastId).orderByAsc(DataSets::getId).last("limit " + pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                dataSets += writeAll(dataSetDocuments(page, gen), version);
+                lastId = page.get(page.size() - 1).getId();
+            }
+
+            client.indices().refresh(r -> r.index(CatalogDocument.INDEX));
+            DeleteByQueryResponse purged = client.deleteByQuery(d -> d.index(CatalogDocument.INDEX)
+                .conflicts(Conflicts.Proceed)
+                .query(q -> q.bool(b -> b.mustNot(m -> m.term(t -> t.field("generation").value(gen))))));
+            lastReindexTime = System.currentTimeMillis();
+            log.info("[CATALOG] 全量重建完成：模型 {} 个，数据集 {} 个，清理残留文档 {} 个，耗时 {} ms",
+                models, dataSets, purged.deleted(), lastReindexTime - started);
+        } catch (Exception e) {
+            log.error("[CATALOG] 全量重建失败", e);
+        } finally {
+            reindexing.set(false);
+        }
+    }
+
+    /**
+     * 以 external_gte 写入一批文档；版本冲突说明重建开始后已有更新的增量写入，忽略
+     *
+     * @return 写入成功的文档数
+     */
+    private int writeAll(List<CatalogDocument> docs, long version) throws IOException {
+        if (docs.isEmpty()) {
+            return 0;
+        }
+        BulkRequest.Builder bulk = new BulkRequest.Builder();
+        for (CatalogDocument doc : docs) {
+            bulk.operations(op -> op.index(i -> i.index(CatalogDocument.INDEX).id(doc.getId()).document(doc)
+                .version(version).versionType(VersionType.ExternalGte)));
+        }
+        Set<String> failed = failedIds(client.bulk(bulk.build()));
+        return docs.size() - failed.size();
+    }
+
+    /**
+     * 提取写入失败的文档ID，版本冲突不算失败
+     */
+    private Set<String> failedIds(BulkResponse response) {
+        if (!response.errors()) {
+            return Set.of();
+        }
+        Set<String> failed = new HashSet<>();
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() != null && !VERSION_CONFLICT.equals(item.error().type())) {
+                failed.add(item.id());
+                failedDocs.increment();
+                log.warn("[CATALOG] 文档 {} 写入失败：{}", item.id(), item.error().reason());
+            }
+        }
+        return failed;
+    }
+
+    private List<CatalogDocument> modelDocuments(Collection<Models> models, long gen) {
+        if (models.isEmpty()) {
+            return List.of();
+        }
+        // 权重格式与参数量取自张量索引，一个模型的多个权重文件参数量累加
+        Map<Integer, Set<String>> formats = new HashMap<>();
+        Map<Integer, Long> parameters = new HashMap<>();
+        List<ModelFileIndex> indexes = modelFileIndexMapper.selectList(new LambdaQueryWrapper<ModelFileIndex>()
+            .select(ModelFileIndex::getModelId, ModelFileIndex::getFormat, ModelFileIndex::getParameterCount)
+            .in(ModelFileIndex::getModelId, models.stream().map(Models::getId).toList())
+            .eq(ModelFileIndex::getStatus, ModelFileIndex.STATUS_INDEXED));
+        for (ModelFileIndex index : indexes) {
+            if (StringUtils.isNotBlank(index.getFormat())) {
+                formats.computeIfAbsent(index.getModelId(), k -> new TreeSet<>())
+                    .add(index.getFormat().toLowerCase(Locale.ROOT));
+            }
+            if (index.getParameterCount() != null) {
+                parameters.merge(index.getModelId(), index.getParameterCount(), Long::sum);
+            }
+        }
+        List<CatalogDocument> docs = new ArrayList<>(models.size());
+        for (Models model : models) {
+            Set<String> modelFormats = formats.get(model.getId());
+            docs.add(new CatalogDocument()
+                .setId(docId(ICatalogOutboxService.TARGET_MODEL, model.getId()))
+                .setTargetType(ICatalogOutboxService.TARGET_MODEL)
+                .setTargetId(model.getId())
+                .setUserId(model.getUserId())
+                .setName(model.getName())
+                .setDescription(model.getDescription())
+                .setHubRepo(hubRepo(model.getHubUrl()))
+                .setVersion(model.getVersion())
+                .setStatus(model.getStatus())
+                .setFormats(modelFormats == null ? List.of() : new ArrayList<>(modelFormats))
+                .setParameterCount(parameters.get(model.getId()))
+                .setSize(model.getSize())
+                .setCreatedTime(millis(model.getCreatedTime()))
+                .setUpdatedTime(millis(model.getUpdatedTime()))
+                .setGeneration(gen));
+        }
+        return docs;
+    }
+
+    private List<CatalogDocument> dataSetDocuments(Collection<DataSets> dataSets, long gen) {
+        List<CatalogDocument> docs = new ArrayList<>(dataSets.size());
+        for (DataSets dataSet : dataSets) {
+            docs.add(new CatalogDocument()
+                .setId(docId(ICatalogOutboxService.TARGET_DATASET, dataSet.getId()))
+                .setTargetType(ICatalogOutboxService.TARGET_DATASET)
+                .setTargetId(dataSet.getId())
+                .setUserId(dataSet.getUserId())
+                .setName(dataSet.getName())
+                .setDescription(dataSet.getDescription())
+                .setHubRepo(hubRepo(dataSet.getHubUrl()))
+                .setVersion(dataSet.getVersion())
+                .setStatus(dataSet.getStatus())
+                .setDataType(dataSet.getDataType())
+                .setSource(dataSet.getSource())
+                .setFormats(List.of())
+                .setSize(dataSet.getSize())
+                .setCreatedTime(millis(dataSet.getCreatedTime()))
+                .setUpdatedTime(millis(dataSet.getUpdatedTime()))
+                .setGeneration(gen));
+        }
+        return docs;
+    }
+
+    static String docId(String targetType, Integer targetId) {
+        return targetType + "-" + targetId;
+    }
+
+    /**
+     * 从仓库地址中取出仓库路径，例如 https://huggingface.co/datasets/org/name -> org/name
+     */
+    static String hubRepo(String hubUrl) {
+        if (StringUtils.isBlank(hubUrl)) {
+            return null;
+        }
+        String repo = hubUrl.trim().replaceFirst("^[A-Za-z][A-Za-z0-9+.-]*://[^/]+/", "");
+        repo = StringUtils.removeStart(repo, "datasets/");
+        return StringUtils.removeEnd(repo, "/");
+    }
+
+    private static Long millis(Timestamp time) {
+        return time == null ? null : time.getTime();
+    }
+
+    public boolean isReindexing() {
+        return reindexing.get();
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getLastReindexTime() {
+        return lastReindexTime;
+    }
+
+    public long getIndexedDocs() {
+        return indexedDocs.sum();
+    }
+
+    public long getDeletedDocs() {
+        return deletedDocs.sum();
+    }
+
+    public long getFailedDocs() {
+        return failedDocs.sum();
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+}
@@ -0,0 +1,46 @@
+package org.dromara.data.search;
+
+import java.util.Arrays;
+
+/**
+ * 最近若干次耗时的滑动窗口，用于估算分位数
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long millis) {
+        samples[(int) (count % samples.length)] = millis;
+        count++;
+        totalMillis += millis;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    /**
+     * @return 累计次数、累计平均、历史最大，以及窗口内的 p50 p95 p99（毫秒）
+     */
+    public synchronized Snapshot snapshot() {
+        int size = (int) Math.min(count, samples.length);
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Snapshot(count, count == 0 ? 0 : totalMillis / count, maxMillis,
+            percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    public record Snapshot(long count, long avgMillis, long maxMillis, long p50Millis, long p95Millis, long p99Millis) {
+    }
+}
@@ -0,0 +1,20 @@
+package org.dromara.data.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * 制品下载服务
+ */
+public interface IArtifactService {
+
+    /**
+     * 下载模型文件，支持单区间 Range 请求
+     * 启用节点缓存时从本地缓存发送，否则重定向到对象存储临时链接
+     *
+     * @param fileId 模型文件ID
+     */
+    void downloadModelFile(Integer fileId, HttpServletRequest request, HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,22 @@
+package org.dromara.data.service;
+
+import java.util.Collection;
+
+/**
+ * 目录检索发件箱服务
+ * <p>
+ * 模型、数据集的增删改在同一事务中登记发件箱，由索引任务异步同步到搜索引擎；
+ * 只登记对象ID，索引时读取当前状态，漏登记的变更由全量重建修正
+ */
+public interface ICatalogOutboxService {
+
+    String TARGET_MODEL = "model";
+    String TARGET_DATASET = "dataset";
+
+    /**
+     * 登记变更，未开启目录检索时忽略
+     * @param targetType 对象类型
+     * @param ids 模型或数据集ID
+     */
+    void enqueue(String targetType, Collection<Integer> ids);
+}
@@ -0,0 +1,32 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.dto.CatalogSearchQueryDTO;
+import org.dromara.data.entity.dto.CatalogSearchResultDTO;
+import org.dromara.data.entity.dto.CatalogStatsDTO;
+
+/**
+ * 目录检索服务
+ * <p>
+ * 模型与数据集的全文检索，按相关度排序并返回高亮与分面统计；索引由发件箱异步同步，开启 lingtai.catalog.enabled 后可用
+ */
+public interface ICatalogSearchService {
+
+    /**
+     * 检索模型与数据集
+     *
+     * @param userId 当前用户，只看自己的时使用
+     */
+    CatalogSearchResultDTO search(CatalogSearchQueryDTO query, Long userId);
+
+    /**
+     * 提交全量重建
+     *
+     * @return 已有重建在执行时返回 false
+     */
+    boolean reindex();
+
+    /**
+     * 索引延迟、发件箱积压与检索耗时
+     */
+    CatalogStatsDTO stats();
+}
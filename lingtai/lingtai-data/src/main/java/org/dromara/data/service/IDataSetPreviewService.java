@@ -0,0 +1,19 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.dto.DataSetPreviewDTO;
+
+/**
+ * 数据集文件预览服务
+ */
+public interface IDataSetPreviewService {
+
+    /**
+     * 预览数据集文件：CSV、TSV、JSONL 返回样本行与列统计，Parquet 返回 footer 中的列结构与统计
+     * 只按区间读取对象的少量字节，结果按对象键与 ETag 缓存
+     *
+     * @param fileId 数据集文件ID
+     * @param rows   样本行数，为空时使用默认值
+     * @param mode   head（文件开头）或 sample（均匀抽样），为空时为 head
+     */
+    DataSetPreviewDTO preview(Integer fileId, Integer rows, String mode);
+}
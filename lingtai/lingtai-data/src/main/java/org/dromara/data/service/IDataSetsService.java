@@ -1,6 +1,8 @@
 package org.dromara.data.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
 import org.dromara.data.entity.dto.DataSetsDTO;
 import org.dromara.data.entity.dto.FileInfoDTO;
 
@@ -28,6 +30,16 @@ public interface IDataSetsService {
      */
     IPage<DataSetsDTO> pageDataSets(Integer pageNum, Integer pageSize, String name, String status, String dataType);
 
+    /**
+     * 游标分页查询数据集，按创建时间倒序
+     * @param query 分页大小与上一页返回的游标
+     * @param name 数据集名称前缀（可选）
+     * @param status 状态（可选）
+     * @param dataType 数据类型（可选）
+     * @return 一页数据集与下一页的游标
+     */
+    CursorPage<DataSetsDTO> cursorDataSets(CursorPageQuery query, String name, String status, String dataType);
+
     /**
      * 根据ID查询数据集
      * @param id 数据集ID
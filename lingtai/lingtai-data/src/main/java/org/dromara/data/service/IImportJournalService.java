@@ -0,0 +1,107 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.ImportJournal;
+import org.dromara.data.transfer.TransferCheckpoint;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 导入断点日志服务接口
+ */
+public interface IImportJournalService {
+
+    /**
+     * 导入目标：模型
+     */
+    String TARGET_MODEL = "MODEL";
+
+    /**
+     * 导入目标：数据集
+     */
+    String TARGET_DATASET = "DATASET";
+
+    /**
+     * 导入目标：模型仓库快照中的单个文件（targetId 为模型ID）
+     */
+    String TARGET_MODEL_FILE = "MODEL_FILE";
+
+    /**
+     * 创建断点日志，由当前实例执行
+     * @param taskId 进度任务ID
+     * @param targetType 导入目标类型
+     * @param targetId 导入目标ID
+     * @param userId 用户ID
+     * @param sourceUrl 源站地址
+     * @param objectKey COS 对象键
+     * @param contentSha256 源文件内容 SHA-256，未知时为 null
+     * @return 断点日志
+     */
+    ImportJournal begin(String taskId, String targetType, Integer targetId, Long userId, String sourceUrl,
+                        String objectKey, String contentSha256);
+
+    /**
+     * 基于断点日志构造传输断点（加载已提交分块）
+     * @param journal 断点日志
+     * @return 传输断点
+     */
+    TransferCheckpoint checkpoint(ImportJournal journal);
+
+    /**
+     * 标记导入完成
+     * @param journalId 断点日志ID
+     */
+    void complete(Long journalId);
+
+    /**
+     * 标记导入失败，分块上传由清理任务 Abort
+     * @param journalId 断点日志ID
+     * @param errorMessage 失败原因
+     */
+    void fail(Long journalId, String errorMessage);
+
+    /**
+     * 挂起导入（如服务停机时被中断、续传未能排队）：停止心跳、释放接管、保持 RUNNING，稍后由任意实例接管续传
+     * @param journalId 断点日志ID
+     */
+    void suspend(Long journalId);
+
+    /**
+     * 续传真正开始执行时调用，续传次数加一（同时更新传入对象）；接管后排队或被挂起不计次数
+     * @param journal 已接管的断点日志
+     */
+    void startResume(ImportJournal journal);
+
+    /**
+     * 接管心跳超时的 RUNNING 导入，不增加续传次数
+     * @param limit 最多接管数量
+     * @return 接管成功的断点日志
+     */
+    List<ImportJournal> claimStale(int limit);
+
+    /**
+     * 查询某个导入目标的全部断点日志
+     * @param targetType 导入目标类型
+     * @param targetId 导入目标ID
+     * @return 断点日志列表
+     */
+    List<ImportJournal> listByTarget(String targetType, Integer targetId);
+
+    /**
+     * 查询失败且分块上传尚未清理的导入
+     * @return 断点日志列表
+     */
+    List<ImportJournal> listFailedUploads();
+
+    /**
+     * 标记分块上传已清理
+     * @param journalId 断点日志ID
+     */
+    void markAborted(Long journalId);
+
+    /**
+     * 进行中导入占用的 uploadId，清理孤儿分块上传时跳过
+     * @return uploadId 集合
+     */
+    Set<String> listActiveUploadIds();
+}
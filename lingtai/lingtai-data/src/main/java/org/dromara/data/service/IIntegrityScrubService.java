@@ -0,0 +1,14 @@
+package org.dromara.data.service;
+
+/**
+ * 存储完整性巡检服务
+ */
+public interface IIntegrityScrubService {
+
+    /**
+     * 在后台执行一轮抽样巡检，已有巡检在执行时不重复提交
+     *
+     * @return 是否已提交
+     */
+    boolean scrub();
+}
@@ -0,0 +1,31 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.ImportJournal;
+import org.dromara.data.entity.Models;
+
+import java.util.List;
+
+/**
+ * HuggingFace 仓库快照导入服务接口
+ */
+public interface IModelSnapshotService {
+
+    /**
+     * 导入仓库某个 revision 下的全部匹配文件，阻塞直到所有文件结束
+     * @param model 已创建的 Importing 模型记录
+     * @param taskId 进度任务ID
+     * @param repoId 仓库ID，如 Qwen/Qwen2.5-7B-Instruct
+     * @param revision 分支、标签或 commit，为空时使用 main
+     * @param allowPatterns 仅导入匹配的文件（glob），为空表示全部
+     * @param ignorePatterns 忽略匹配的文件（glob）
+     * @return 是否全部导入成功
+     */
+    boolean importSnapshot(Models model, String taskId, String repoId, String revision,
+                           List<String> allowPatterns, List<String> ignorePatterns);
+
+    /**
+     * 续传中断的快照文件（由断点日志恢复任务调用）
+     * @param journal 已被当前实例接管的断点日志
+     */
+    void resumeFile(ImportJournal journal);
+}
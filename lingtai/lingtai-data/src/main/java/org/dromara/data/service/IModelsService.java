@@ -2,7 +2,12 @@ package org.dromara.data.service;
 
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
+import org.dromara.data.entity.ImportJournal;
 import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.ModelBulkRegisterDTO;
+import org.dromara.data.entity.dto.ModelBulkRegisterResultDTO;
 import org.dromara.data.entity.dto.ModelsDTO;
 
 
@@ -29,6 +34,16 @@ public interface IModelsService {
      */
     IPage<ModelsDTO> getModelsPage(Integer pageNum, Integer pageSize, String name, String status);
 
+    /**
+     * 游标分页查询当前用户的模型，按创建时间倒序
+     * @param query 分页大小与上一页返回的游标
+     * @param userId 用户ID
+     * @param name 模型名称前缀（可选）
+     * @param status 状态（可选）
+     * @return 一页模型与下一页的游标
+     */
+    CursorPage<ModelsDTO> getModelsCursor(CursorPageQuery query, Long userId, String name, String status);
+
     /**
      * 根据ID查询模型
      * @param id 模型ID
@@ -57,6 +72,14 @@ public interface IModelsService {
      */
     ModelsDTO createModel(ModelsDTO dto);
 
+    /**
+     * 批量登记模型及其文件，在一个事务中按批次插入
+     * @param dto 待登记的模型与是否全部成功才登记
+     * @param userId 模型所属用户ID
+     * @return 登记结果，含未登记的模型及原因
+     */
+    ModelBulkRegisterResultDTO bulkCreateModels(ModelBulkRegisterDTO dto, Long userId);
+
     /**
      * 更新模型信息
      * @param dto 模型DTO
@@ -126,6 +149,12 @@ public interface IModelsService {
 
     String startImportAsync(ModelsDTO dto);
 
+    /**
+     * 续传中断的 Hub 导入（由断点日志恢复任务调用）
+     * @param journal 已被当前实例接管的断点日志
+     */
+    void resumeHubImport(ImportJournal journal);
+
     List<FileInfoDTO> getFileInfo(Integer id);
 
     /**
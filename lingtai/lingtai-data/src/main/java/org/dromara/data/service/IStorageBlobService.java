@@ -0,0 +1,68 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.StorageBlob;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 内容寻址对象服务接口
+ * <p>
+ * 引用计数只统计 model_files / datasets_files 中的引用：写入文件记录时 {@link #retain} / {@link #retainFiles}，删除时 {@link #release}。
+ * 上传或命中只刷新 updated_time，不计数；引用数为 0 且超过保留期未被命中的对象才会被删除，
+ * 因此“已上传、尚未创建模型/数据集”的文件在保留期内是安全的。
+ * 删除前还会检查两张文件表中是否仍有记录按 blob_id 或 file_url 指向该对象，有则保留。
+ */
+public interface IStorageBlobService {
+
+    /**
+     * 按内容哈希查找对象，命中时刷新 updated_time
+     * @param sha256 内容 SHA-256
+     * @return 对象，不存在返回 null
+     */
+    StorageBlob findBySha256(String sha256);
+
+    /**
+     * 登记刚上传的对象；相同内容已存在时返回已有对象，调用方应删除自己刚上传的副本
+     * @param sha256 内容 SHA-256
+     * @param size 文件大小
+     * @param objectKey 刚上传的对象键
+     * @return 规范对象
+     */
+    StorageBlob register(String sha256, long size, String objectKey);
+
+    /**
+     * 增加引用
+     * @param blobId 对象ID
+     * @return 对象是否仍存在
+     */
+    boolean retain(Long blobId);
+
+    /**
+     * 批量增加引用，同一对象出现几次加几次；按出现次数分组，每组一条条件更新
+     * @param blobIds 对象ID（可重复，为空的忽略）
+     * @return 仍存在、已增加引用的对象ID
+     */
+    Set<Long> retainAll(Collection<Long> blobIds);
+
+    /**
+     * 为待写入的文件记录增加引用：按 fileUrl 对应的对象键、再按 sha256 找到对象，
+     * 找不到或对象已被清理的记录不关联；记录上已有的 blobId（客户端回传）不采信，只用于核对
+     * @param files 待写入的文件记录
+     * @param blobId 读取客户端回传的对象ID
+     * @param fileUrl 读取文件地址
+     * @param sha256 读取内容哈希
+     * @param setBlobId 写回实际关联的对象ID
+     */
+    <T> void retainFiles(List<T> files, Function<T, Long> blobId, Function<T, String> fileUrl,
+                         Function<T, String> sha256, BiConsumer<T, Long> setBlobId);
+
+    /**
+     * 减少引用
+     * @param blobIds 对象ID（可重复，为空的忽略）
+     */
+    void release(Collection<Long> blobIds);
+}
@@ -0,0 +1,66 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.DataSets;
+import org.dromara.data.entity.Models;
+import org.dromara.data.entity.dto.StorageStatsDTO;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * 模型/数据集存储统计服务接口
+ * <p>
+ * 统计保存在 storage_stats 计数表中，按 (对象类型, 用户, 状态/版本) 分行，查询只读少量计数行，与模型数量无关。
+ * 计数在新增、修改、删除时增量维护：修改前后各读一次受影响的行，按差值累加；
+ * 并发修改同一行可能产生漂移，由定时对账以一次聚合查询的结果修正。
+ */
+public interface IStorageStatsService {
+
+    String TARGET_MODEL = "model";
+    String TARGET_DATASET = "dataset";
+
+    /**
+     * 模型已插入
+     */
+    void modelCreated(Models model);
+
+    /**
+     * 一批模型已插入
+     */
+    void modelsCreated(Collection<Models> models);
+
+    /**
+     * 数据集已插入
+     */
+    void dataSetCreated(DataSets dataSet);
+
+    /**
+     * 执行可能改变模型用户、状态、版本或大小的修改/删除，并按修改前后的差值更新计数
+     * @param ids 受影响的模型ID
+     * @param mutation 修改操作
+     * @return 修改操作的返回值
+     */
+    <T> T trackModels(Collection<Integer> ids, Supplier<T> mutation);
+
+    /**
+     * 执行可能改变数据集用户、状态、版本或大小的修改/删除，并按修改前后的差值更新计数
+     * @param ids 受影响的数据集ID
+     * @param mutation 修改操作
+     * @return 修改操作的返回值
+     */
+    <T> T trackDataSets(Collection<Integer> ids, Supplier<T> mutation);
+
+    /**
+     * 查询统计
+     * @param targetType {@link #TARGET_MODEL} / {@link #TARGET_DATASET}
+     * @param userId 用户ID，为空时查询全局统计
+     * @return 统计结果
+     */
+    StorageStatsDTO getStats(String targetType, Long userId);
+
+    /**
+     * 以聚合查询结果修正计数
+     * @param targetType {@link #TARGET_MODEL} / {@link #TARGET_DATASET}
+     */
+    void reconcile(String targetType);
+}
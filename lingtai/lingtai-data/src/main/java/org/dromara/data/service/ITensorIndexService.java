@@ -0,0 +1,50 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.ModelFileIndex;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.ModelTensor;
+import org.dromara.data.entity.dto.ModelTensorIndexDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 模型文件张量索引服务
+ * 只按区间读取 safetensors 的 JSON 头与 GGUF 的元数据区，记录每个张量的名称、类型、形状与数据偏移
+ */
+public interface ITensorIndexService {
+
+    /**
+     * 异步建立索引，不是 safetensors / gguf 的文件忽略；在事务中调用时于提交后执行
+     */
+    void submit(Collection<ModelFiles> files);
+
+    /**
+     * 同步建立单个文件的索引，失败时记录 FAILED 状态，不抛异常
+     *
+     * @return 索引记录，不支持的文件格式返回 null
+     */
+    ModelFileIndex index(ModelFiles file);
+
+    /**
+     * 为目录中尚未成功索引的模型文件补建索引，后台执行
+     *
+     * @return 已有回填在执行时返回 false
+     */
+    boolean backfill();
+
+    /**
+     * 删除模型的张量索引，随模型文件一起删除
+     */
+    void deleteByModelIds(Collection<Integer> modelIds);
+
+    /**
+     * 模型的参数量与各文件索引状态
+     */
+    ModelTensorIndexDTO getModelIndex(Integer modelId);
+
+    /**
+     * 文件的张量列表，按数据偏移排序
+     */
+    List<ModelTensor> listTensors(Integer fileId);
+}
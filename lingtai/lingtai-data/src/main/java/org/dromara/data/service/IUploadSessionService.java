@@ -0,0 +1,63 @@
+package org.dromara.data.service;
+
+import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.UploadPartDTO;
+import org.dromara.data.entity.dto.UploadSessionCompleteDTO;
+import org.dromara.data.entity.dto.UploadSessionCreateDTO;
+import org.dromara.data.entity.dto.UploadSessionDTO;
+import org.dromara.data.entity.dto.UploadSessionRegisterDTO;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 浏览器直传会话服务
+ * <p>
+ * 服务端初始化分块上传并分批签发分块 URL，客户端直接 PUT 到存储桶；
+ * 完成时按 COS 上实际存在的分块核对客户端提交的分块列表，最后在一个事务中登记为模型文件
+ */
+public interface IUploadSessionService {
+
+    /**
+     * 创建会话并初始化分块上传，同时签发首批分块 URL
+     */
+    UploadSessionDTO create(UploadSessionCreateDTO dto, Long userId);
+
+    /**
+     * 签发分块 URL
+     *
+     * @param from  起始分块号，从 1 开始
+     * @param count 签发数量，超过单次上限时截断
+     */
+    List<UploadPartDTO> presignParts(Long sessionId, Long userId, int from, int count);
+
+    /**
+     * 核对分块并完成分块上传，重复调用返回同一结果
+     *
+     * @return 生成的文件，sha256 为空（服务端不经手文件内容）
+     */
+    FileInfoDTO complete(Long sessionId, UploadSessionCompleteDTO dto, Long userId);
+
+    /**
+     * 取消会话并 Abort 分块上传；已完成未登记的会话同时删除对象
+     */
+    boolean abort(Long sessionId, Long userId);
+
+    /**
+     * 将已完成的会话登记为模型文件，并累加模型大小
+     *
+     * @param superAdmin 是否超级管理员，超级管理员可以登记到他人的模型
+     * @return 新增的模型文件
+     */
+    List<FileInfoDTO> register(UploadSessionRegisterDTO dto, Long userId, boolean superAdmin);
+
+    /**
+     * 仍在上传中的会话的 UploadId，孤儿分块上传清理时跳过
+     */
+    Set<String> listActiveUploadIds();
+
+    /**
+     * 清理过期会话：未完成的 Abort 分块上传，完成后未登记的删除对象
+     */
+    void sweepExpired();
+}
@@ -0,0 +1,136 @@
+package org.dromara.data.service.impl;
+
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.core.utils.file.FileUtils;
+import org.dromara.data.cache.ArtifactCache;
+import org.dromara.data.cache.CachedArtifact;
+import org.dromara.data.cache.RangeFileChannel;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.properties.ArtifactCacheProperties;
+import org.dromara.data.service.IArtifactService;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 制品下载服务实现
+ * <p>
+ * 命中节点缓存时用 sendfile 发送：Undertow 下经 {@link ServletOutputStreamImpl#transferFrom} 直接写 socket，
+ * 其他容器退化为 {@link FileChannel#transferTo} 写入响应流。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactServiceImpl implements IArtifactService {
+
+    private final FileMapper fileMapper;
+    private final CosUtils cosUtils;
+    private final ArtifactCache artifactCache;
+    private final ArtifactCacheProperties properties;
+
+    @Override
+    public void downloadModelFile(Integer fileId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ModelFiles file = fileMapper.selectById(fileId);
+        if (file == null) {
+            throw new ServiceException("文件数据不存在!");
+        }
+        String key = cosUtils.keyOfUrl(file.getFileUrl());
+        if (key == null) {
+            // 不在本存储桶的外部地址
+            response.sendRedirect(file.getFileUrl());
+            return;
+        }
+        CachedArtifact artifact = null;
+        if (artifactCache.isEnabled()) {
+            try {
+                artifact = artifactCache.open(key);
+            } catch (IOException e) {
+                log.warn("[ARTIFACT] 本地缓存不可用，回退到对象存储直连: key={}, {}", key, e.getMessage());
+            }
+        }
+        if (artifact == null) {
+            response.sendRedirect(cosUtils.getPresignedUrl(key, properties.getPresignExpireSeconds()));
+            return;
+        }
+        try (artifact) {
+            send(artifact, file.getFileName(), request, response);
+        }
+    }
+
+    /**
+     * 发送缓存文件，单区间 Range 返回 206；多区间不常用，忽略 Range 返回完整内容
+     */
+    private void send(CachedArtifact artifact, String fileName, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        long size = artifact.getSize();
+        String eTag = "\"" + artifact.getETag() + "\"";
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        FileUtils.setAttachmentResponseHeader(response, StringUtils.blankToDefault(fileName, artifact.getObjectKey()));
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range 与当前 ETag 不一致说明客户端手里的分段已过期，返回完整内容
+        if (StringUtils.isNotBlank(rangeHeader) && (StringUtils.isBlank(ifRange) || eTag.equals(ifRange))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(Math.max(0, length));
+        if (length <= 0) {
+            return;
+        }
+        ServletOutputStream output = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(artifact.getFile(), StandardOpenOption.READ)) {
+            if (output instanceof ServletOutputStreamImpl undertow) {
+                RangeFileChannel view = new RangeFileChannel(channel, end + 1);
+                view.position(start);
+                undertow.transferFrom(view);
+            } else {
+                WritableByteChannel target = Channels.newChannel(output);
+                long position = start;
+                while (position <= end) {
+                    position += channel.transferTo(position, end + 1 - position, target);
+                }
+            }
+        }
+    }
+}
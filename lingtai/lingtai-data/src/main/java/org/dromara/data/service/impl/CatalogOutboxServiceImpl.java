@@ -0,0 +1,42 @@
+package org.dromara.data.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.dromara.data.entity.CatalogOutbox;
+import org.dromara.data.mapper.CatalogOutboxMapper;
+import org.dromara.data.properties.CatalogProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 目录检索发件箱服务实现
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogOutboxServiceImpl implements ICatalogOutboxService {
+
+    private final CatalogOutboxMapper outboxMapper;
+    private final CatalogProperties properties;
+
+    @Override
+    public void enqueue(String targetType, Collection<Integer> ids) {
+        if (!properties.isEnabled() || ids == null || ids.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<CatalogOutbox> rows = ids.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .map(id -> new CatalogOutbox().setTargetType(targetType).setTargetId(id).setCreatedTime(now))
+            .toList();
+        if (rows.size() == 1) {
+            outboxMapper.insert(rows.get(0));
+        } else if (!rows.isEmpty()) {
+            outboxMapper.insertBatch(rows);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.dromara.data.service.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.data.entity.CatalogDocument;
+import org.dromara.data.entity.CatalogOutbox;
+import org.dromara.data.entity.dto.CatalogSearchQueryDTO;
+import org.dromara.data.entity.dto.CatalogSearchResultDTO;
+import org.dromara.data.entity.dto.CatalogStatsDTO;
+import org.dromara.data.mapper.CatalogOutboxMapper;
+import org.dromara.data.properties.CatalogProperties;
+import org.dromara.data.search.CatalogIndexer;
+import org.dromara.data.search.LatencyWindow;
+import org.dromara.data.service.ICatalogSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 目录检索服务实现
+ * <p>
+ * 关键词在 name^3 hubRepo^2 description 上做 multi_match，其余条件作为 filter 不参与打分；
+ * 无关键词时按更新时间倒序。分面统计在同一次请求中以 terms 聚合返回。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lingtai.catalog", name = "enabled", havingValue = "true")
+public class CatalogSearchServiceImpl implements ICatalogSearchService {
+
+    /**
+     * from + size 不能超过搜索引擎的 index.max_result_window
+     */
+    private static final int MAX_RESULT_WINDOW = 10000;
+
+    private static final int FACET_SIZE = 20;
+
+    private static final List<String> FACETS = List.of("targetType", "status", "version", "dataType", "formats");
+
+    private final CatalogIndexer indexer;
+    private final CatalogOutboxMapper outboxMapper;
+    private final CatalogProperties properties;
+
+    @Autowired
+    private ElasticsearchClient client;
+
+    private final LatencyWindow latency = new LatencyWindow(1024);
+
+    @Override
+    public CatalogSearchResultDTO search(CatalogSearchQueryDTO query, Long userId) {
+        int pageSize = Math.min(Math.max(query.getPageSize() == null ? 20 : query.getPageSize(), 1),
+            properties.getMaxPageSize());
+        int pageNum = Math.max(query.getPageNum() == null ? 1 : query.getPageNum(), 1);
+        long from = (long) (pageNum - 1) * pageSize;
+        if (from + pageSize > MAX_RESULT_WINDOW) {
+            throw new ServiceException("只能查看前 " + MAX_RESULT_WINDOW + " 条结果，请缩小检索范围");
+        }
+        String keyword = StringUtils.trimToNull(query.getKeyword());
+
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+        if (keyword != null) {
+            bool.must(m -> m.multiMatch(mm -> mm.query(keyword).fields("name^3", "hubRepo^2", "description")));
+        }
+        filter(bool, "targetType", query.getTargetType());
+        filter(bool, "status", query.getStatus());
+        filter(bool, "version", query.getVersion());
+        filter(bool, "dataType", query.getDataType());
+        filter(bool, "formats", query.getFormat());
+        if (Boolean.TRUE.equals(query.getMine())) {
+            bool.filter(f -> f.term(t -> t.field("userId").value(userId)));
+        }
+        BoolQuery boolQuery = bool.build();
+
+        long start = System.nanoTime();
+        SearchResponse<CatalogDocument> response;
+        try {
+            response = client.search(s -> {
+                s.index(CatalogDocument.INDEX)
+                    .query(q -> q.bool(boolQuery))
+                    .from((int) from)
+                    .size(pageSize)
+                    .highlight(h -> h.preTags("<em>").postTags("</em>")
+                        .fields("name", f -> f.numberOfFragments(0))
+                        .fields("hubRepo", f -> f.numberOfFragments(0))
+                        .fields("description", f -> f.fragmentSize(150).numberOfFragments(2)));
+                if (keyword != null) {
+                    s.sort(so -> so.score(sc -> sc.order(SortOrder.Desc)));
+                }
+                s.sort(so -> so.field(f -> f.field("updatedTime").order(SortOrder.Desc)));
+                for (String facet : FACETS) {
+                    s.aggregations(facet, a -> a.terms(t -> t.field(facet).size(FACET_SIZE)));
+                }
+                return s;
+            }, CatalogDocument.class);
+        } catch (IOException e) {
+            log.error("[CATALOG] 检索失败", e);
+            throw new ServiceException("检索服务暂不可用");
+        } finally {
+            latency.record((System.nanoTime() - start) / 1_000_000);
+        }
+
+        CatalogSearchResultDTO result = new CatalogSearchResultDTO();
+        result.setTotal(response.hits().total() == null ? response.hits().hits().size()
+            : response.hits().total().value());
+        result.setTook(response.took());
+        for (Hit<CatalogDocument> hit : response.hits().hits()) {
+            CatalogDocument doc = hit.source();
+            if (doc == null) {
+                continue;
+            }
+            CatalogSearchResultDTO.Hit item = new CatalogSearchResultDTO.Hit();
+            item.setTargetType(doc.getTargetType());
+            item.setTargetId(doc.getTargetId());
+            item.setUserId(doc.getUserId());
+            item.setName(doc.getName());
+            item.setDescription(doc.getDescription());
+            item.setHubRepo(doc.getHubRepo());
+            item.setVersion(doc.getVersion());
+            item.setStatus(doc.getStatus());
+            item.setDataType(doc.getDataType());
+            item.setFormats(doc.getFormats());
+            item.setParameterCount(doc.getParameterCount());
+            item.setSize(doc.getSize());
+            item.setUpdatedTime(doc.getUpdatedTime());
+            item.setScore(hit.score());
+            item.setHighlights(hit.highlight());
+            result.getHits().add(item);
+        }
+        for (String facet : FACETS) {
+            Aggregate aggregate = response.aggregations().get(facet);
+            if (aggregate == null || !aggregate.isSterms()) {
+                continue;
+            }
+            List<CatalogSearchResultDTO.Bucket> buckets = new ArrayList<>();
+            for (StringTermsBucket bucket : aggregate.sterms().buckets().array()) {
+                CatalogSearchResultDTO.Bucket item = new CatalogSearchResultDTO.Bucket();
+                item.setValue(bucket.key().stringValue());
+                item.setCount(bucket.docCount());
+                buckets.add(item);
+            }
+            result.getFacets().put(facet, buckets);
+        }
+        return result;
+    }
+
+    private static void filter(BoolQuery.Builder bool, String field, String value) {
+        if (StringUtils.isNotBlank(value)) {
+            bool.filter(f -> f.term(t -> t.field(field).value(value.trim())));
+        }
+    }
+
+    @Override
+    public boolean reindex() {
+        return indexer.reindex();
+    }
+
+    @Override
+    public CatalogStatsDTO stats() {
+        CatalogStatsDTO stats = new CatalogStatsDTO();
+        Long pending = outboxMapper.selectCount(null);
+        stats.setPending(pending == null ? 0 : pending);
+        CatalogOutbox oldest = outboxMapper.selectOne(new LambdaQueryWrapper<CatalogOutbox>()
+            .orderByAsc(CatalogOutbox::getId).last("limit 1"));
+        if (oldest != null && oldest.getCreatedTime() != null) {
+            stats.setOldestPendingMillis(Math.max(0, System.currentTimeMillis() - oldest.getCreatedTime().getTime()));
+        }
+        stats.setLastLagMillis(indexer.getLastLagMillis());
+        stats.setMaxLagMillis(indexer.getMaxLagMillis());
+        stats.setIndexedDocs(indexer.getIndexedDocs());
+        stats.setDeletedDocs(indexer.getDeletedDocs());
+        stats.setFailedDocs(indexer.getFailedDocs());
+        stats.setReindexing(indexer.isReindexing());
+        stats.setGeneration(indexer.getGeneration());
+        stats.setLastReindexTime(indexer.getLastReindexTime());
+        LatencyWindow.Snapshot snapshot = latency.snapshot();
+        stats.setQueryCount(snapshot.count());
+        stats.setQueryAvgMillis(snapshot.avgMillis());
+        stats.setQueryMaxMillis(snapshot.maxMillis());
+        stats.setQueryP50Millis(snapshot.p50Millis());
+        stats.setQueryP95Millis(snapshot.p95Millis());
+        stats.setQueryP99Millis(snapshot.p99Millis());
+        return stats;
+    }
+}
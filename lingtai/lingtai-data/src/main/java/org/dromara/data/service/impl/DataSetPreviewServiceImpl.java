@@ -0,0 +1,153 @@
+package org.dromara.data.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qcloud.cos.model.ObjectMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.redis.utils.RedisUtils;
+import org.dromara.data.entity.DataSetsFiles;
+import org.dromara.data.entity.dto.DataSetPreviewDTO;
+import org.dromara.data.mapper.DataSetsFileMapper;
+import org.dromara.data.preview.ParquetFooterReader;
+import org.dromara.data.preview.RangeSource;
+import org.dromara.data.preview.TextPreviewReader;
+import org.dromara.data.properties.PreviewProperties;
+import org.dromara.data.service.IDataSetPreviewService;
+import org.dromara.data.transfer.BandwidthGovernor;
+import org.dromara.data.transfer.TransferSubject;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据集文件预览服务实现
+ * <p>
+ * 预览结果按“对象键 + ETag + 取样方式 + 行数”缓存两级：本地 Caffeine 与 Redis。
+ * ETag 随对象内容变化，文件被覆盖后旧缓存不会再被命中，只需等待过期。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataSetPreviewServiceImpl implements IDataSetPreviewService {
+
+    private static final String KEY_PREFIX = "lingtai:preview:";
+
+    private static final List<String> FORMATS = List.of("csv", "tsv", "jsonl", "parquet");
+
+    private final DataSetsFileMapper fileMapper;
+    private final CosUtils cosUtils;
+    private final PreviewProperties properties;
+    private final BandwidthGovernor bandwidthGovernor;
+
+    @Resource(name = "cosPartExecutor")
+    private Executor rangeExecutor;
+
+    private Cache<String, DataSetPreviewDTO> localCache;
+
+    @PostConstruct
+    public void init() {
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(properties.getLocalCacheSize())
+            .expireAfterWrite(Duration.ofSeconds(properties.getLocalCacheSeconds()))
+            .build();
+    }
+
+    @Override
+    public DataSetPreviewDTO preview(Integer fileId, Integer rows, String mode) {
+        DataSetsFiles file = fileMapper.selectById(fileId);
+        if (file == null) {
+            throw new ServiceException("文件数据不存在!");
+        }
+        String format = format(file);
+        if (!FORMATS.contains(format)) {
+            throw new ServiceException("仅支持预览 csv、tsv、jsonl、parquet 文件");
+        }
+        String key = cosUtils.keyOfUrl(file.getFileUrl());
+        if (key == null) {
+            throw new ServiceException("文件不在对象存储中，无法预览");
+        }
+        ObjectMetadata metadata = cosUtils.getObjectMetadata(key);
+        if (metadata == null) {
+            throw new ServiceException("文件已被删除");
+        }
+
+        int limit = Math.max(1, Math.min(rows == null ? properties.getDefaultRows() : rows, properties.getMaxRows()));
+        String previewMode = "parquet".equals(format) ? "footer" : "sample".equalsIgnoreCase(mode) ? "sample" : "head";
+        String eTag = metadata.getETag();
+        long size = metadata.getContentLength();
+        String cacheKey = KEY_PREFIX + key + ":" + eTag + ":" + previewMode + ":" + limit;
+
+        try {
+            return localCache.get(cacheKey, k -> {
+                DataSetPreviewDTO cached = RedisUtils.getCacheObject(k);
+                if (cached != null) {
+                    return cached;
+                }
+                DataSetPreviewDTO preview = load(key, eTag, size, format, previewMode, limit);
+                RedisUtils.setCacheObject(k, preview, Duration.ofSeconds(properties.getRedisCacheSeconds()));
+                return preview;
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("[PREVIEW] 预览文件失败: {}", key, e.getCause());
+            throw new ServiceException("预览文件失败：" + e.getCause().getMessage());
+        }
+    }
+
+    private DataSetPreviewDTO load(String key, String eTag, long size, String format, String mode, int limit) {
+        // 抽样的区间读取在线程池中进行，带上当前请求的流量归属
+        TransferSubject subject = bandwidthGovernor.currentSubject();
+        AtomicLong bytesRead = new AtomicLong();
+        RangeSource source = (start, end) -> {
+            try (BandwidthGovernor.Binding ignored = BandwidthGovernor.bind(subject)) {
+                byte[] data = cosUtils.readRange(key, start, end, eTag);
+                bytesRead.addAndGet(data.length);
+                return data;
+            }
+        };
+
+        long begin = System.currentTimeMillis();
+        try {
+            DataSetPreviewDTO preview;
+            if ("parquet".equals(format)) {
+                preview = new ParquetFooterReader(source, size, properties).read();
+            } else {
+                TextPreviewReader reader = new TextPreviewReader(source, size, format, properties);
+                preview = "sample".equals(mode) ? reader.sample(limit, rangeExecutor) : reader.head(limit);
+            }
+            preview.setETag(eTag);
+            preview.setBytesRead(bytesRead.get());
+            log.info("[PREVIEW] {} 预览完成，读取 {} 字节，耗时 {} ms",
+                key, bytesRead.get(), System.currentTimeMillis() - begin);
+            return preview;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 文件类型字段可能是扩展名也可能是用户填写的其他值，不是支持的格式时按文件名扩展名判断
+     */
+    private static String format(DataSetsFiles file) {
+        String type = normalizeFormat(file.getFileType());
+        if (!FORMATS.contains(type)) {
+            type = normalizeFormat(StringUtils.substringAfterLast(file.getFileName(), "."));
+        }
+        return type;
+    }
+
+    private static String normalizeFormat(String type) {
+        String format = StringUtils.blankToDefault(type, "").toLowerCase();
+        return "ndjson".equals(format) ? "jsonl" : format;
+    }
+}
@@ -8,16 +8,25 @@ import io.github.linpeilie.Converter;
 import jakarta.annotation.Resource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
 import org.dromara.data.entity.DataSets;
 import org.dromara.data.entity.DataSetsFiles;
 import org.dromara.data.entity.ModelFiles;
 import org.dromara.data.entity.dto.DataSetFileInfoDTO;
 import org.dromara.data.entity.dto.DataSetsDTO;
 import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.StorageStatsDTO;
+import org.dromara.data.ingest.ArchiveIngestor;
+import org.dromara.data.ingest.IngestResult;
 import org.dromara.data.mapper.DataSetsFileMapper;
 import org.dromara.data.mapper.DataSetsMapper; // 使用您提供的 Mapper
 import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.scheduler.ImportScheduler;
+import org.dromara.data.service.ICatalogOutboxService;
 import org.dromara.data.service.IDataSetsService;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.service.IStorageStatsService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -27,8 +36,9 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +52,11 @@ public class DataSetsServiceImpl implements IDataSetsService {
     private final DataSetsMapper dataSetsMapper;
     private final DataSetsFileMapper fileMapper;
     private final Converter converter;
+    private final IStorageBlobService storageBlobService;
+    private final IStorageStatsService storageStatsService;
+    private final ICatalogOutboxService catalogOutboxService;
+    private final ImportScheduler importScheduler;
+    private final ArchiveIngestor archiveIngestor;
     @Resource
     private ProgressStore progressStore; // 用于处理异步任务的进度存储
 
@@ -75,6 +90,25 @@ public class DataSetsServiceImpl implements IDataSetsService {
         return page.convert(e -> converter.convert(e, DataSetsDTO.class));
     }
 
+    @Override
+    public CursorPage<DataSetsDTO> cursorDataSets(CursorPageQuery query, String name, String status, String dataType) {
+        LambdaQueryWrapper<DataSets> wrapper = new LambdaQueryWrapper<>();
+        // 前缀匹配，'%name%' 无法利用索引
+        if (name != null && !name.isEmpty()) {
+            wrapper.likeRight(DataSets::getName, name);
+        }
+        if (status != null && !status.isEmpty()) {
+            wrapper.eq(DataSets::getStatus, status);
+        }
+        if (dataType != null && !dataType.isEmpty()) {
+            wrapper.eq(DataSets::getDataType, dataType);
+        }
+        String scope = "datasets:" + Objects.toString(name, "") + ":" + Objects.toString(status, "")
+            + ":" + Objects.toString(dataType, "");
+        return query.selectPage(dataSetsMapper, wrapper, DataSets::getCreatedTime, DataSets::getId, scope)
+            .convert(e -> converter.convert(e, DataSetsDTO.class));
+    }
+
     @Override
     public DataSetsDTO getDataSetById(Integer id) {
         DataSets dataSet = dataSetsMapper.selectById(id);
@@ -131,6 +165,8 @@ public class DataSetsServiceImpl implements IDataSetsService {
             log.error("创建数据集失败: 插入 DataSets 表失败");
             return null;
         }
+        storageStatsService.dataSetCreated(dataSet);
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_DATASET, List.of(dataSet.getId()));
 
         int dataSetId = dataSet.getId();
         log.info("主表 DataSets 创建成功: ID={}, Name={}", dataSetId, dataSet.getName());
@@ -166,6 +202,9 @@ public class DataSetsServiceImpl implements IDataSetsService {
 
                 filesToInsert.add(fileEntity);
             }
+            // 引用上传时登记的内容寻址对象（按文件地址查找，不采信回传的 blobId），对象已被清理则不再关联
+            storageBlobService.retainFiles(filesToInsert, DataSetsFiles::getBlobId, DataSetsFiles::getFileUrl,
+                DataSetsFiles::getSha256, DataSetsFiles::setBlobId);
 
             // 执行批量插入
             if (!filesToInsert.isEmpty()) {
@@ -206,14 +245,28 @@ public class DataSetsServiceImpl implements IDataSetsService {
     public boolean updateDataSet(DataSetsDTO dto) {
         DataSets dataSet = converter.convert(dto, DataSets.class);
         // 确保只更新非空字段
-        return dataSetsMapper.updateById(dataSet) > 0;
+        if (dataSet.getId() == null) {
+            return false;
+        }
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_DATASET, List.of(dataSet.getId()));
+        return storageStatsService.trackDataSets(List.of(dataSet.getId()), () -> dataSetsMapper.updateById(dataSet)) > 0;
     }
 
     @Override
     @Transactional
     public boolean deleteDataSets(List<Integer> ids) {
         // 实际应用中需要增加权限和状态校验
-        return dataSetsMapper.deleteBatchIds(ids) > 0;
+        // 删除文件记录并释放对内容寻址对象的引用
+        LambdaQueryWrapper<DataSetsFiles> wrapper = new LambdaQueryWrapper<DataSetsFiles>()
+            .in(DataSetsFiles::getDataSetId, ids);
+        List<Long> blobIds = fileMapper.selectList(wrapper).stream()
+            .map(DataSetsFiles::getBlobId)
+            .filter(Objects::nonNull)
+            .toList();
+        fileMapper.delete(wrapper);
+        storageBlobService.release(blobIds);
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_DATASET, ids);
+        return storageStatsService.trackDataSets(ids, () -> dataSetsMapper.deleteBatchIds(ids)) > 0;
     }
 
     @Override
@@ -236,22 +289,34 @@ public class DataSetsServiceImpl implements IDataSetsService {
 
         //TODO import from hub
 
-        // 3. 异步执行导入操作
-        CompletableFuture.runAsync(() -> {
-            // 确保 DTO 中包含新创建的 ID
-            newDataSet.setHubUrl(dto.getHubUrl());
-            newDataSet.setSource("hub_import");
-
-            boolean success = importDataSetFromHubWithProgress(newDataSet, taskId);
-
-            if (success) {
-                // 导入成功，更新最终状态
-                updateDataSetStatus(newDataSetId, "ready", BigDecimal.valueOf(100.00));
-            } else {
-                // 导入失败，更新错误状态
-                markDataSetError(newDataSetId, "Import failed during processing.");
-            }
-        });
+        // 3. 提交到导入调度器，按用户/租户并发限额排队执行
+        progressStore.start(taskId, "已加入导入队列");
+        newDataSet.setHubUrl(dto.getHubUrl());
+        newDataSet.setSource("hub_import");
+        try {
+            importScheduler.submit(taskId, taskId, ImportScheduler.currentUserId(newDataSet.getUserId()),
+                ImportScheduler.currentTenantId(), importScheduler.userPriority(dto.getPriority()), task -> {
+                    boolean success = importDataSetFromHubWithProgress(newDataSet, taskId);
+
+                    if (success) {
+                        // 导入成功，更新最终状态
+                        updateDataSetStatus(newDataSetId, "ready", BigDecimal.valueOf(100.00));
+                        progressStore.success(taskId, "数据集导入成功");
+                    } else {
+                        // 导入失败，更新错误状态（取消时先清除中断标记再写库）
+                        Thread.interrupted();
+                        markDataSetError(newDataSetId, "Import failed during processing.");
+                        progressStore.fail(taskId, task.isCancelled() ? "导入已取消" : "导入失败");
+                    }
+                }, () -> {
+                    markDataSetError(newDataSetId, "Import cancelled.");
+                    progressStore.fail(taskId, "导入已取消");
+                });
+        } catch (RuntimeException e) {
+            markDataSetError(newDataSetId, e.getMessage());
+            progressStore.fail(taskId, "导入失败：" + e.getMessage());
+            throw e;
+        }
 
         return taskId;
     }
@@ -260,38 +325,44 @@ public class DataSetsServiceImpl implements IDataSetsService {
     @Override
     @Transactional(noRollbackFor = Exception.class) // 导入失败不回滚，只更新状态为 Error
     public boolean importDataSetFromHubWithProgress(DataSetsDTO dto, String taskId) {
-        //TODO 从 Hub 导入数据集
         log.info("开始导入数据集，ID: {}, Hub URL: {}", dto.getId(), dto.getHubUrl());
 
         try {
-            // 模拟实际的导入过程，例如下载文件、解压、解析、写入元数据等
-            // =======================================================
-            Thread.sleep(1000); // 模拟准备工作
-
-            // 假设导入分为 5 个阶段，每个阶段更新一次进度
-            for (int i = 1; i <= 5; i++) {
-                // 模拟耗时操作
-                Thread.sleep(2000);
-
-                int percentage = i * 20;
-                String message = "Processing step " + i + "/5";
+            // 边下载边解压，进度按读取的压缩包字节数折算，留 5% 给写清单与更新数据集
+            AtomicInteger lastPercent = new AtomicInteger(-1);
+            IngestResult result = archiveIngestor.ingest(dto.getId(), dto.getDataType(), dto.getHubUrl(),
+                (transferred, total) -> {
+                    if (total <= 0) {
+                        return;
+                    }
+                    int percent = (int) Math.min(95, transferred * 95 / total);
+                    if (lastPercent.getAndSet(percent) != percent) {
+                        progressStore.updatePercent(taskId, percent, "正在导入数据集文件...");
+                        updateDataSetProgress(dto.getId(), BigDecimal.valueOf(percent));
+                    }
+                });
 
+            DataSets ds = new DataSets();
+            ds.setId(dto.getId());
+            ds.setSize(result.getTotalBytes());
+            ds.setFileCount(result.getFileCount());
+            ds.setFilePath(result.getManifestUrl());
+            ds.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
+            storageStatsService.trackDataSets(List.of(dto.getId()), () -> dataSetsMapper.updateById(ds));
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_DATASET, List.of(dto.getId()));
 
-                // 实时更新数据库进度 (可选，但通常推荐)
-                updateDataSetProgress(dto.getId(), BigDecimal.valueOf(percentage));
-            }
-            // =======================================================
-
-            // 假设导入成功
-            log.info("数据集导入完成，ID: {}", dto.getId());
+            log.info("数据集导入完成，ID: {}，文件数: {}", dto.getId(), result.getFileCount());
             return true;
 
         } catch (Exception e) {
             log.error("数据集导入失败，ID: {}", dto.getId(), e);
+            // 取消时先清除中断标记再写库，写完恢复，调用方据此判断是否为取消
+            boolean interrupted = Thread.interrupted();
             markDataSetError(dto.getId(), e.getMessage());
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
             return false;
-        } finally {
-            progressStore.remove(taskId); // 无论成功失败，任务完成后移除进度记录
         }
     }
 
@@ -341,7 +412,8 @@ public class DataSetsServiceImpl implements IDataSetsService {
         ds.setStatus(status);
         ds.setProgress(progress);
         ds.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
-        dataSetsMapper.updateById(ds);
+        storageStatsService.trackDataSets(List.of(dataSetId), () -> dataSetsMapper.updateById(ds));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_DATASET, List.of(dataSetId));
     }
 
     /**
@@ -365,7 +437,8 @@ public class DataSetsServiceImpl implements IDataSetsService {
             ds.setStatus("error");
             ds.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
             // 如果 DataSets 表有 error_message 字段，可以在此处设置
-            dataSetsMapper.updateById(ds);
+            storageStatsService.trackDataSets(List.of(dataSetId), () -> dataSetsMapper.updateById(ds));
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_DATASET, List.of(dataSetId));
             log.warn("数据集已标记为 Error 状态，ID={}，错误信息: {}", dataSetId, errMsg);
         } catch (Exception e) {
             log.error("标记数据集 Error 状态失败，id={}", dataSetId, e);
@@ -376,13 +449,12 @@ public class DataSetsServiceImpl implements IDataSetsService {
 
     @Override
     public DataSetsStatsDTO getDataSetStatsByUserId(Long userId) {
-        // 实际实现应使用 dataSetsMapper 进行 COUNT() 和 GROUP BY status 的聚合查询
-        // 这里仅返回一个模拟结果
+        StorageStatsDTO source = storageStatsService.getStats(IStorageStatsService.TARGET_DATASET, userId);
         DataSetsStatsDTO stats = new DataSetsStatsDTO();
-        stats.setTotal(10);
-        stats.setReady(8);
-        stats.setProcessing(1);
-        stats.setError(1);
+        stats.setTotal((int) source.getTotal());
+        stats.setReady((int) source.count("ready", "active"));
+        stats.setProcessing((int) source.count("pending", "importing", "processing"));
+        stats.setError((int) source.count("error"));
         return stats;
     }
 }
@@ -0,0 +1,320 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.data.entity.ImportJournal;
+import org.dromara.data.entity.ImportJournalPart;
+import org.dromara.data.enums.ImportJournalStatus;
+import org.dromara.data.mapper.ImportJournalMapper;
+import org.dromara.data.mapper.ImportJournalPartMapper;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.service.IImportJournalService;
+import org.dromara.data.transfer.TransferCheckpoint;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 导入断点日志服务实现
+ * <p>
+ * 每个分块上传成功后写入 import_journal_part，执行实例定期刷新心跳；
+ * 实例退出后心跳超时，任意实例都可以通过条件更新接管该导入并从最后提交的分块续传。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportJournalServiceImpl implements IImportJournalService {
+
+    /**
+     * 当前实例标识（pid@host）
+     */
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final ImportJournalMapper journalMapper;
+    private final ImportJournalPartMapper partMapper;
+    private final TransferProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * 当前实例正在执行、需要刷新心跳的导入
+     */
+    private final Set<Long> ownedJournals = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        long interval = properties.getJournal().getHeartbeatSeconds();
+        scheduledExecutorService.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ImportJournal begin(String taskId, String targetType, Integer targetId, Long userId, String sourceUrl,
+                               String objectKey, String contentSha256) {
+        Timestamp now = now();
+        ImportJournal journal = new ImportJournal()
+            .setTaskId(taskId)
+            .setTargetType(targetType)
+            .setTargetId(targetId)
+            .setUserId(userId)
+            .setSourceUrl(sourceUrl)
+            .setObjectKey(objectKey)
+            .setContentSha256(contentSha256)
+            .setCompletedBytes(0L)
+            .setStatus(ImportJournalStatus.RUNNING.name())
+            .setOwner(OWNER)
+            .setHeartbeatTime(now)
+            .setResumeCount(0)
+            .setCreatedTime(now)
+            .setUpdatedTime(now);
+        journalMapper.insert(journal);
+        ownedJournals.add(journal.getId());
+        log.info("[JOURNAL] 创建导入断点日志，id={}, taskId={}, key={}", journal.getId(), taskId, objectKey);
+        return journal;
+    }
+
+    @Override
+    public TransferCheckpoint checkpoint(ImportJournal journal) {
+        Map<Integer, String> parts = new ConcurrentHashMap<>();
+        if (journal.getUploadId() != null) {
+            partMapper.selectList(new LambdaQueryWrapper<ImportJournalPart>()
+                    .eq(ImportJournalPart::getJournalId, journal.getId()))
+                .forEach(part -> parts.put(part.getPartNumber(), part.getEtag()));
+        }
+        return new JournalCheckpoint(journal, parts);
+    }
+
+    @Override
+    public void complete(Long journalId) {
+        ownedJournals.remove(journalId);
+        journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+            .set(ImportJournal::getStatus, ImportJournalStatus.COMPLETED.name())
+            .set(ImportJournal::getUpdatedTime, now())
+            .eq(ImportJournal::getId, journalId));
+        // 分块明细只用于续传，完成后不再需要
+        deleteParts(journalId);
+    }
+
+    @Override
+    public void fail(Long journalId, String errorMessage) {
+        ownedJournals.remove(journalId);
+        journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+            .set(ImportJournal::getStatus, ImportJournalStatus.FAILED.name())
+            .set(ImportJournal::getErrorMessage, StringUtils.substring(errorMessage, 0, 500))
+            .set(ImportJournal::getUpdatedTime, now())
+            .eq(ImportJournal::getId, journalId));
+    }
+
+    @Override
+    public void suspend(Long journalId) {
+        ownedJournals.remove(journalId);
+        // 不再刷新心跳，超时后由任意实例重新接管
+        journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+            .set(ImportJournal::getOwner, null)
+            .set(ImportJournal::getUpdatedTime, now())
+            .eq(ImportJournal::getId, journalId)
+            .eq(ImportJournal::getOwner, OWNER)
+            .eq(ImportJournal::getStatus, ImportJournalStatus.RUNNING.name()));
+        log.info("[JOURNAL] 导入已挂起，等待续传，id={}", journalId);
+    }
+
+    @Override
+    public void startResume(ImportJournal journal) {
+        journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+            .setIncrBy(ImportJournal::getResumeCount, 1)
+            .set(ImportJournal::getUpdatedTime, now())
+            .eq(ImportJournal::getId, journal.getId()));
+        journal.setResumeCount(journal.getResumeCount() == null ? 1 : journal.getResumeCount() + 1);
+    }
+
+    @Override
+    public List<ImportJournal> claimStale(int limit) {
+        Timestamp deadline = new Timestamp(System.currentTimeMillis()
+            - TimeUnit.SECONDS.toMillis(properties.getJournal().getStaleSeconds()));
+        List<ImportJournal> stale = journalMapper.selectList(new LambdaQueryWrapper<ImportJournal>()
+            .eq(ImportJournal::getStatus, ImportJournalStatus.RUNNING.name())
+            .lt(ImportJournal::getHeartbeatTime, deadline)
+            .orderByAsc(ImportJournal::getId)
+            .last("limit " + limit));
+        List<ImportJournal> claimed = new ArrayList<>();
+        for (ImportJournal journal : stale) {
+            Timestamp now = now();
+            // 以原心跳时间做乐观锁，多个实例同时扫描时只有一个能接管
+            int rows = journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+                .set(ImportJournal::getOwner, OWNER)
+                .set(ImportJournal::getHeartbeatTime, now)
+                .eq(ImportJournal::getId, journal.getId())
+                .eq(ImportJournal::getStatus, ImportJournalStatus.RUNNING.name())
+                .eq(ImportJournal::getHeartbeatTime, journal.getHeartbeatTime()));
+            if (rows == 1) {
+                journal.setOwner(OWNER);
+                journal.setHeartbeatTime(now);
+                ownedJournals.add(journal.getId());
+                claimed.add(journal);
+                log.info("[JOURNAL] 接管中断的导入，id={}, taskId={}, 已完成 {} 字节", journal.getId(),
+                    journal.getTaskId(), journal.getCompletedBytes());
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public List<ImportJournal> listByTarget(String targetType, Integer targetId) {
+        return journalMapper.selectList(new LambdaQueryWrapper<ImportJournal>()
+            .eq(ImportJournal::getTargetType, targetType)
+            .eq(ImportJournal::getTargetId, targetId));
+    }
+
+    @Override
+    public List<ImportJournal> listFailedUploads() {
+        return journalMapper.selectList(new LambdaQueryWrapper<ImportJournal>()
+            .eq(ImportJournal::getStatus, ImportJournalStatus.FAILED.name())
+            .isNotNull(ImportJournal::getUploadId));
+    }
+
+    @Override
+    public void markAborted(Long journalId) {
+        journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+            .set(ImportJournal::getStatus, ImportJournalStatus.ABORTED.name())
+            .set(ImportJournal::getUpdatedTime, now())
+            .eq(ImportJournal::getId, journalId));
+        deleteParts(journalId);
+    }
+
+    @Override
+    public Set<String> listActiveUploadIds() {
+        return journalMapper.selectList(new LambdaQueryWrapper<ImportJournal>()
+                .select(ImportJournal::getUploadId)
+                .eq(ImportJournal::getStatus, ImportJournalStatus.RUNNING.name())
+                .isNotNull(ImportJournal::getUploadId))
+            .stream()
+            .map(ImportJournal::getUploadId)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * 刷新当前实例所有进行中导入的心跳
+     */
+    void heartbeat() {
+        if (ownedJournals.isEmpty()) {
+            return;
+        }
+        try {
+            journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+                .set(ImportJournal::getHeartbeatTime, now())
+                .in(ImportJournal::getId, ownedJournals)
+                .eq(ImportJournal::getOwner, OWNER)
+                .eq(ImportJournal::getStatus, ImportJournalStatus.RUNNING.name()));
+        } catch (Exception e) {
+            log.warn("[JOURNAL] 刷新导入心跳失败: {}", e.getMessage());
+        }
+    }
+
+    private void deleteParts(Long journalId) {
+        partMapper.delete(new LambdaQueryWrapper<ImportJournalPart>()
+            .eq(ImportJournalPart::getJournalId, journalId));
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * 持久化到断点日志的传输断点
+     */
+    private class JournalCheckpoint implements TransferCheckpoint {
+
+        private final ImportJournal journal;
+        private final Map<Integer, String> parts;
+
+        private JournalCheckpoint(ImportJournal journal, Map<Integer, String> parts) {
+            this.journal = journal;
+            this.parts = parts;
+        }
+
+        @Override
+        public String getUploadId() {
+            return journal.getUploadId();
+        }
+
+        @Override
+        public String getSourceEtag() {
+            return journal.getSourceEtag();
+        }
+
+        @Override
+        public Long getTotalSize() {
+            return journal.getTotalSize();
+        }
+
+        @Override
+        public Long getPartSize() {
+            return journal.getPartSize();
+        }
+
+        @Override
+        public Map<Integer, String> getCompletedParts() {
+            return Collections.unmodifiableMap(parts);
+        }
+
+        @Override
+        public void onInitiated(String uploadId, String sourceEtag, long totalSize, long partSize) {
+            journal.setUploadId(uploadId)
+                .setSourceEtag(sourceEtag)
+                .setTotalSize(totalSize)
+                .setPartSize(partSize)
+                .setCompletedBytes(0L);
+            journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+                .set(ImportJournal::getUploadId, uploadId)
+                .set(ImportJournal::getSourceEtag, sourceEtag)
+                .set(ImportJournal::getTotalSize, totalSize)
+                .set(ImportJournal::getPartSize, partSize)
+                .set(ImportJournal::getCompletedBytes, 0L)
+                .set(ImportJournal::getUpdatedTime, now())
+                .eq(ImportJournal::getId, journal.getId()));
+        }
+
+        @Override
+        public void onPartCompleted(int partNumber, long rangeStart, long rangeEnd, String etag) {
+            ImportJournalPart part = new ImportJournalPart()
+                .setJournalId(journal.getId())
+                .setPartNumber(partNumber)
+                .setRangeStart(rangeStart)
+                .setRangeEnd(rangeEnd)
+                .setEtag(etag)
+                .setCreatedTime(now());
+            // 续传时 COS 上缺失的分块会重新上传，覆盖原记录且不重复累计字节数
+            boolean replaced = parts.put(partNumber, etag) != null;
+            if (replaced) {
+                partMapper.delete(new LambdaQueryWrapper<ImportJournalPart>()
+                    .eq(ImportJournalPart::getJournalId, journal.getId())
+                    .eq(ImportJournalPart::getPartNumber, partNumber));
+            }
+            partMapper.insert(part);
+            journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+                .setIncrBy(ImportJournal::getCompletedBytes, replaced ? 0 : rangeEnd - rangeStart + 1)
+                .set(ImportJournal::getHeartbeatTime, now())
+                .eq(ImportJournal::getId, journal.getId()));
+        }
+
+        @Override
+        public void onReset() {
+            deleteParts(journal.getId());
+            parts.clear();
+            journal.setUploadId(null).setCompletedBytes(0L);
+            journalMapper.update(null, new LambdaUpdateWrapper<ImportJournal>()
+                .set(ImportJournal::getUploadId, null)
+                .set(ImportJournal::getCompletedBytes, 0L)
+                .set(ImportJournal::getUpdatedTime, now())
+                .eq(ImportJournal::getId, journal.getId()));
+        }
+    }
+}
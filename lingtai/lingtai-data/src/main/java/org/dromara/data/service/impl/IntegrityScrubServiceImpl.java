@@ -0,0 +1,253 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.qcloud.cos.model.ObjectMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.entity.DataSetsFiles;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.enums.ChecksumStatus;
+import org.dromara.data.integrity.ChecksumDigest;
+import org.dromara.data.integrity.Checksums;
+import org.dromara.data.mapper.DataSetsFileMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.properties.IntegrityProperties;
+import org.dromara.data.service.IIntegrityScrubService;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 存储完整性巡检服务实现
+ * <p>
+ * 每轮从模型文件与数据集文件中按随机主键各抽取若干条，整体下载对象并重新计算 SHA-256 与 CRC64，
+ * 与文件记录中的校验值、COS 记录的 CRC64 及文件大小比对，结果写回文件记录。
+ * 还没有校验值的历史文件在对象自身一致（CRC64 与 COS 相符）时补记校验值。
+ * 巡检在 taskExecutor 中执行，定时线程只负责提交；下载按对象下载流量限速，并受每轮字节额度限制。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IntegrityScrubServiceImpl implements IIntegrityScrubService {
+
+    private final FileMapper fileMapper;
+    private final DataSetsFileMapper dataSetsFileMapper;
+    private final CosUtils cosUtils;
+    private final IntegrityProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @Resource(name = "taskExecutor")
+    private Executor taskExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isScrubEnabled()) {
+            return;
+        }
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                scrub();
+            } catch (Exception e) {
+                log.error("[SCRUB] 提交巡检任务失败", e);
+            }
+        }, properties.getScrubInitialDelaySeconds(), properties.getScrubIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean scrub() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(this::runScrub);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void runScrub() {
+        Round round = new Round(properties.getScrubMaxBytesPerRound());
+        try {
+            int samples = Math.max(0, properties.getScrubSampleSize());
+            for (ModelFiles file : sample(samples, this::maxModelFileId, id -> fileMapper.selectOne(
+                new LambdaQueryWrapper<ModelFiles>().ge(ModelFiles::getId, id)
+                    .orderByAsc(ModelFiles::getId).last("limit 1")), ModelFiles::getId)) {
+                Result result = verify(round, "model_files", file.getId(), file.getFileUrl(), file.getFileSize(),
+                    file.getSha256(), file.getCrc64());
+                if (result != null) {
+                    fileMapper.updateById(new ModelFiles().setId(file.getId())
+                        .setSha256(file.getSha256() == null ? result.sha256() : null)
+                        .setCrc64(file.getCrc64() == null ? result.crc64() : null)
+                        .setChecksumStatus(result.status().name())
+                        .setVerifiedTime(result.time()));
+                }
+            }
+            for (DataSetsFiles file : sample(samples, this::maxDataSetFileId, id -> dataSetsFileMapper.selectOne(
+                new LambdaQueryWrapper<DataSetsFiles>().ge(DataSetsFiles::getId, id)
+                    .orderByAsc(DataSetsFiles::getId).last("limit 1")), DataSetsFiles::getId)) {
+                Result result = verify(round, "datasets_files", file.getId(), file.getFileUrl(), file.getFileSize(),
+                    file.getSha256(), file.getCrc64());
+                if (result != null) {
+                    dataSetsFileMapper.updateById(new DataSetsFiles().setId(file.getId())
+                        .setSha256(file.getSha256() == null ? result.sha256() : null)
+                        .setCrc64(file.getCrc64() == null ? result.crc64() : null)
+                        .setChecksumStatus(result.status().name())
+                        .setVerifiedTime(result.time()));
+                }
+            }
+            log.info("[SCRUB] 本轮巡检结束：校验 {} 个文件，{} 个不一致，跳过 {} 个，下载 {} 字节",
+                round.verified, round.mismatched, round.skipped, round.bytes);
+        } catch (Exception e) {
+            log.error("[SCRUB] 巡检失败", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 在 [1, 最大主键] 中取随机数，取不小于它的第一条记录；主键不连续时靠后的记录被抽中的概率略高
+     */
+    private <T> List<T> sample(int count, Supplier<Integer> maxId, IntFunction<T> firstFrom, Function<T, Integer> idOf) {
+        Integer max = maxId.get();
+        if (max == null || max <= 0 || count <= 0) {
+            return List.of();
+        }
+        Set<Integer> picked = new HashSet<>();
+        List<T> rows = new ArrayList<>();
+        for (int attempt = 0; attempt < count * 2 && rows.size() < count; attempt++) {
+            T row = firstFrom.apply(ThreadLocalRandom.current().nextInt(max) + 1);
+            if (row != null && picked.add(idOf.apply(row))) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Integer maxModelFileId() {
+        ModelFiles last = fileMapper.selectOne(new LambdaQueryWrapper<ModelFiles>()
+            .select(ModelFiles::getId).orderByDesc(ModelFiles::getId).last("limit 1"));
+        return last == null ? null : last.getId();
+    }
+
+    private Integer maxDataSetFileId() {
+        DataSetsFiles last = dataSetsFileMapper.selectOne(new LambdaQueryWrapper<DataSetsFiles>()
+            .select(DataSetsFiles::getId).orderByDesc(DataSetsFiles::getId).last("limit 1"));
+        return last == null ? null : last.getId();
+    }
+
+    /**
+     * 下载并校验一个文件
+     *
+     * @return 校验结果，跳过时返回 null
+     */
+    private Result verify(Round round, String table, Integer id, String fileUrl, Long fileSize,
+                          String sha256, String crc64) {
+        String key = cosUtils.keyOfUrl(fileUrl);
+        if (key == null) {
+            round.skipped++;
+            return null;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try {
+            ObjectMetadata metadata = cosUtils.getObjectMetadata(key);
+            if (metadata == null) {
+                return mismatch(round, table, id, key, "对象不存在", now);
+            }
+            long size = metadata.getContentLength();
+            if (size > round.remaining()) {
+                round.skipped++;
+                return null;
+            }
+            ChecksumDigest digest = new ChecksumDigest();
+            cosUtils.download(key, metadata.getETag(), new OutputStream() {
+                @Override
+                public void write(int b) {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    digest.update(b, off, len);
+                }
+            });
+            Checksums actual = digest.finish();
+            round.bytes += actual.size();
+
+            if (fileSize != null && fileSize != actual.size()) {
+                return mismatch(round, table, id, key, "大小不一致: 记录 " + fileSize + "，实际 " + actual.size(), now);
+            }
+            if (metadata.getCrc64Ecma() != null && !metadata.getCrc64Ecma().equals(actual.crc64())) {
+                return mismatch(round, table, id, key,
+                    "CRC64 与 COS 不一致: COS " + metadata.getCrc64Ecma() + "，实际 " + actual.crc64(), now);
+            }
+            if (crc64 != null && !crc64.equals(actual.crc64())) {
+                return mismatch(round, table, id, key, "CRC64 不一致: 记录 " + crc64 + "，实际 " + actual.crc64(), now);
+            }
+            if (sha256 != null && !sha256.equalsIgnoreCase(actual.sha256())) {
+                return mismatch(round, table, id, key, "SHA-256 不一致: 记录 " + sha256 + "，实际 " + actual.sha256(), now);
+            }
+            round.verified++;
+            log.debug("[SCRUB] {}#{} 校验通过，key={}", table, id, key);
+            return new Result(ChecksumStatus.VERIFIED, actual.sha256(), actual.crc64(), now);
+        } catch (Exception e) {
+            // 下载失败不代表内容损坏，不改变校验状态
+            log.warn("[SCRUB] {}#{} 下载失败，跳过，key={}: {}", table, id, key, e.getMessage());
+            round.skipped++;
+            return null;
+        }
+    }
+
+    private Result mismatch(Round round, String table, Integer id, String key, String reason, Timestamp now) {
+        log.error("[SCRUB] {}#{} 完整性校验失败，key={}: {}", table, id, key, reason);
+        round.verified++;
+        round.mismatched++;
+        return new Result(ChecksumStatus.MISMATCH, null, null, now);
+    }
+
+    /**
+     * @param sha256 实际内容的 SHA-256，不一致时为 null，不补记
+     * @param crc64  实际内容的 CRC64，不一致时为 null，不补记
+     */
+    private record Result(ChecksumStatus status, String sha256, String crc64, Timestamp time) {
+    }
+
+    /**
+     * 一轮巡检的统计，只在巡检线程中访问
+     */
+    private static class Round {
+
+        private final long budget;
+        private long bytes;
+        private int verified;
+        private int mismatched;
+        private int skipped;
+
+        Round(long budget) {
+            this.budget = budget;
+        }
+
+        long remaining() {
+            return budget - bytes;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.data.entity.ImportJournal;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.Models;
+import org.dromara.data.entity.StorageBlob;
+import org.dromara.data.enums.ChecksumStatus;
+import org.dromara.data.enums.ImportJournalStatus;
+import org.dromara.data.integrity.IntegrityException;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.scheduler.ImportScheduler;
+import org.dromara.data.scheduler.ImportTask;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.dromara.data.service.IImportJournalService;
+import org.dromara.data.service.IModelSnapshotService;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.service.IStorageStatsService;
+import org.dromara.data.service.ITensorIndexService;
+import org.dromara.data.transfer.BandwidthGovernor;
+import org.dromara.data.transfer.HubRepoClient;
+import org.dromara.data.transfer.HubRepoFile;
+import org.dromara.data.transfer.TransferProgressListener;
+import org.dromara.data.transfer.TransferResult;
+import org.dromara.data.transfer.TransferSubject;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HuggingFace 仓库快照导入服务实现
+ * <p>
+ * 列出 revision 下的文件并按 glob 过滤后，每个文件各自一条断点日志，提交到 hubFileExecutor 并发传输
+ * （线程数即全进程同时传输的文件数上限）。进度按全部文件的总字节数折算；
+ * 所有文件结束后选出主文件（优先 *.index.json），激活模型。LFS 文件的 SHA-256 由 Hub 预先给出，
+ * 已存在相同内容的对象时直接引用，fork 已有模型时大部分权重无需重新传输。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelSnapshotServiceImpl implements IModelSnapshotService {
+
+    private static final String DEFAULT_REVISION = "main";
+
+    private static final String STATUS_IMPORTING = "Importing";
+
+    /**
+     * 权重文件扩展名，无索引文件时在其中选最大的作为主文件
+     */
+    private static final Set<String> WEIGHT_EXTENSIONS = Set.of("safetensors", "bin", "gguf", "pt", "pth", "ckpt", "onnx");
+
+    private final HubRepoClient hubRepoClient;
+    private final DataMapper dataMapper;
+    private final FileMapper fileMapper;
+    private final CosUtils cosUtils;
+    private final ProgressStore progressStore;
+    private final IImportJournalService importJournalService;
+    private final IStorageBlobService storageBlobService;
+    private final IStorageStatsService storageStatsService;
+    private final ICatalogOutboxService catalogOutboxService;
+    private final TransferProperties properties;
+    private final ITensorIndexService tensorIndexService;
+
+    @Resource(name = "hubFileExecutor")
+    private Executor hubFileExecutor;
+
+    @Override
+    public boolean importSnapshot(Models model, String taskId, String repoId, String revision,
+                                  List<String> allowPatterns, List<String> ignorePatterns) {
+        String rev = StringUtils.isBlank(revision) ? DEFAULT_REVISION : revision.trim();
+        List<String> ignore = (allowPatterns == null || allowPatterns.isEmpty())
+            && (ignorePatterns == null || ignorePatterns.isEmpty())
+            ? properties.getSnapshotIgnorePatterns() : ignorePatterns;
+
+        // 1. 列出并过滤文件
+        List<HubRepoFile> files;
+        try {
+            files = hubRepoClient.listFiles(repoId, rev).stream()
+                .filter(file -> HubRepoClient.matches(file.getPath(), allowPatterns, ignore))
+                .toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("获取仓库文件列表被中断", e);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("仓库 " + repoId + "@" + rev + " 中没有匹配的文件");
+        }
+        long totalBytes = files.stream().mapToLong(file -> file.getSize() == null ? 0L : file.getSize()).sum();
+        log.info("[IMPORT] 开始导入仓库快照 {}@{}，modelId={}, 文件数={}, 总大小={} 字节",
+            repoId, rev, model.getId(), files.size(), totalBytes);
+        progressStore.updatePercent(taskId, 5, "共 " + files.size() + " 个文件，正在导入...");
+
+        // 2. 先为全部文件写入断点日志，实例中途退出时尚未开始的文件同样会被续传
+        List<ImportJournal> journals = new ArrayList<>(files.size());
+        for (HubRepoFile file : files) {
+            journals.add(importJournalService.begin(taskId, IImportJournalService.TARGET_MODEL_FILE, model.getId(),
+                model.getUserId(), hubRepoClient.resolveUrl(repoId, rev, file.getPath()),
+                cosUtils.objectKey(keyPrefix(model.getId()) + file.getPath()), file.contentSha256()));
+        }
+
+        // 3. 并发传输，进度按总字节数折算到 5% - 95%；任务被取消时中断正在传输的文件
+        ImportTask task = ImportScheduler.current();
+        Set<Thread> workers = new HashSet<>();
+        if (task != null) {
+            task.onCancel(() -> {
+                synchronized (workers) {
+                    workers.forEach(Thread::interrupt);
+                }
+            });
+        }
+        AtomicLong transferred = new AtomicLong();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(journals.size());
+        for (ImportJournal journal : journals) {
+            AtomicLong fileReported = new AtomicLong();
+            TransferProgressListener listener = (uploadedBytes, fileTotal) -> {
+                long all = transferred.addAndGet(uploadedBytes - fileReported.getAndSet(uploadedBytes));
+                if (totalBytes > 0) {
+                    int mapped = 5 + (int) Math.min(90, all * 90.0 / totalBytes);
+                    progressStore.updatePercent(taskId, mapped, "正在导入模型仓库文件...");
+                }
+            };
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Thread worker = Thread.currentThread();
+                synchronized (workers) {
+                    workers.add(worker);
+                }
+                try {
+                    return transferFile(journal, listener, task);
+                } finally {
+                    synchronized (workers) {
+                        workers.remove(worker);
+                        // 清除取消留下的中断标记，线程复用时不受影响
+                        Thread.interrupted();
+                    }
+                }
+            }, hubFileExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        if (task != null && task.isCancelled()) {
+            Thread.interrupted();
+            markModelError(model.getId());
+            progressStore.fail(taskId, "导入已取消");
+            return false;
+        }
+
+        return finishIfDone(model.getId(), taskId);
+    }
+
+    @Override
+    public void resumeFile(ImportJournal journal) {
+        CompletableFuture.runAsync(() -> {
+            Integer modelId = journal.getTargetId();
+            importJournalService.startResume(journal);
+            int maxAttempts = properties.getJournal().getMaxResumeAttempts();
+            if (journal.getResumeCount() != null && journal.getResumeCount() > maxAttempts) {
+                log.error("[IMPORT] 快照文件续传次数超过 {} 次，放弃续传，journalId={}", maxAttempts, journal.getId());
+                importJournalService.fail(journal.getId(), "超过最大续传次数");
+            } else if (dataMapper.selectById(modelId) == null) {
+                log.warn("[IMPORT] 模型记录已删除，放弃续传，journalId={}, modelId={}", journal.getId(), modelId);
+                importJournalService.fail(journal.getId(), "模型记录不存在");
+                return;
+            } else {
+                log.info("[IMPORT] 续传快照文件，journalId={}, key={}", journal.getId(), journal.getObjectKey());
+                transferFile(journal, null, null);
+            }
+            finishIfDone(modelId, journal.getTaskId());
+        }, hubFileExecutor);
+    }
+
+    /**
+     * 传输单个文件并登记 ModelFiles，异常不外抛
+     * <p>
+     * 源站给出内容 SHA-256（LFS 文件）且对象已存在时直接引用，不再传输
+     */
+    private boolean transferFile(ImportJournal journal, TransferProgressListener listener, ImportTask task) {
+        if (task != null && task.isCancelled()) {
+            importJournalService.fail(journal.getId(), "已取消");
+            return false;
+        }
+        try {
+            String sha256 = journal.getContentSha256();
+            StorageBlob blob = sha256 == null ? null : storageBlobService.findBySha256(sha256);
+            String key;
+            long size;
+            String crc64 = null;
+            if (blob != null) {
+                key = blob.getObjectKey();
+                size = blob.getSize();
+                log.info("[IMPORT] 内容已存在，跳过传输，sha256={}, key={}", sha256, key);
+                if (listener != null) {
+                    listener.onProgress(size, size);
+                }
+            } else {
+                // 文件传输线程不是调度线程，显式绑定限速归属
+                TransferSubject subject = task != null
+                    ? new TransferSubject(task.getTenantId(), task.getUserId())
+                    : new TransferSubject(null, journal.getUserId());
+                TransferResult transfer;
+                try (BandwidthGovernor.Binding ignored = BandwidthGovernor.bind(subject)) {
+                    transfer = cosUtils.transferToKey(journal.getSourceUrl(), journal.getObjectKey(),
+                        listener, importJournalService.checkpoint(journal));
+                }
+                key = transfer.getKey();
+                size = transfer.getSize();
+                if (sha256 != null && transfer.getSha256() != null && !sha256.equalsIgnoreCase(transfer.getSha256())) {
+                    // 仓库文件列表给出的 LFS 哈希与实际内容不一致
+                    cosUtils.deleteObject(key);
+                    throw new IntegrityException("SHA-256 不一致: 期望 " + sha256 + "，实际 " + transfer.getSha256());
+                }
+                sha256 = sha256 != null ? sha256 : transfer.getSha256();
+                crc64 = transfer.getCrc64();
+                if (sha256 != null) {
+                    blob = storageBlobService.register(sha256, size, key);
+                    if (blob.getId() == null) {
+                        blob = null;
+                    } else if (!key.equals(blob.getObjectKey())) {
+                        // 相同内容被并发导入，保留先登记的一份
+                        cosUtils.deleteObject(key);
+                        key = blob.getObjectKey();
+                    }
+                }
+            }
+
+            String fileName = fileNameOf(journal);
+            // 登记后、关闭日志前实例退出时，续传会再次走到这里，避免重复登记
+            boolean exists = fileMapper.exists(new LambdaQueryWrapper<ModelFiles>()
+                .eq(ModelFiles::getModelId, journal.getTargetId())
+                .eq(ModelFiles::getFileName, fileName));
+            if (!exists) {
+                ModelFiles file = new ModelFiles();
+                file.setModelId(journal.getTargetId());
+                file.setFileUrl(cosUtils.getPublicUrl(key));
+                file.setFileName(fileName);
+                file.setFileSize(size);
+                file.setFileType(StringUtils.substringAfterLast(fileName, ".").toLowerCase());
+                file.setIsPrimary(0);
+                file.setBlobId(blob != null && storageBlobService.retain(blob.getId()) ? blob.getId() : null);
+                file.setSha256(sha256);
+                file.setCrc64(crc64);
+                file.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+                if (crc64 != null) {
+                    // 传输时已与源站大小、哈希及 COS 的 CRC64 比对
+                    file.setChecksumStatus(ChecksumStatus.VERIFIED.name());
+                    file.setVerifiedTime(file.getCreatedTime());
+                }
+                fileMapper.insert(file);
+                tensorIndexService.submit(List.of(file));
+            }
+            importJournalService.complete(journal.getId());
+            return true;
+        } catch (Exception e) {
+            if (task != null && task.isCancelled()) {
+                Thread.interrupted();
+                log.warn("[IMPORT] 快照文件导入已取消，key={}", journal.getObjectKey());
+                importJournalService.fail(journal.getId(), "已取消");
+                return false;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("[IMPORT] 快照文件导入被中断，等待续传，key={}", journal.getObjectKey());
+                importJournalService.suspend(journal.getId());
+                return false;
+            }
+            log.error("[IMPORT] 快照文件导入失败，key={}, url={}", journal.getObjectKey(), journal.getSourceUrl(), e);
+            importJournalService.fail(journal.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 模型的全部文件都结束后收尾：有失败则标记 Error，否则选出主文件并激活模型
+     * <p>
+     * 多个文件可能同时结束并各自走到这里，状态只从 Importing 条件更新，更新成功的一方负责后续的
+     * 主文件标记、目录同步与进度通知
+     *
+     * @return 是否已成功激活
+     */
+    private boolean finishIfDone(Integer modelId, String taskId) {
+        List<ImportJournal> journals = importJournalService.listByTarget(IImportJournalService.TARGET_MODEL_FILE, modelId);
+        if (journals.stream().anyMatch(j -> ImportJournalStatus.RUNNING.name().equals(j.getStatus()))) {
+            return false;
+        }
+        long failed = journals.stream().filter(j -> !ImportJournalStatus.COMPLETED.name().equals(j.getStatus())).count();
+        if (failed > 0) {
+            if (markModelError(modelId)) {
+                progressStore.fail(taskId, "导入失败：" + failed + " 个文件导入失败");
+            }
+            return false;
+        }
+
+        List<ModelFiles> files = fileMapper.selectList(new LambdaQueryWrapper<ModelFiles>()
+            .eq(ModelFiles::getModelId, modelId));
+        ModelFiles primary = choosePrimary(files);
+
+        Models update = new Models();
+        update.setFilePath(primary == null ? null : primary.getFileUrl());
+        update.setSize(files.stream().mapToLong(f -> f.getFileSize() == null ? 0L : f.getFileSize()).sum());
+        update.setStatus("Active");
+        update.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
+        int rows = storageStatsService.trackModels(List.of(modelId), () -> dataMapper.update(update,
+            new LambdaQueryWrapper<Models>()
+                .eq(Models::getId, modelId)
+                .eq(Models::getStatus, STATUS_IMPORTING)));
+        if (rows != 1) {
+            // 其他文件的收尾已激活模型，或模型已被取消/删除
+            return false;
+        }
+        if (primary != null && !Integer.valueOf(1).equals(primary.getIsPrimary())) {
+            ModelFiles primaryUpdate = new ModelFiles();
+            primaryUpdate.setId(primary.getId());
+            primaryUpdate.setIsPrimary(1);
+            fileMapper.updateById(primaryUpdate);
+        }
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(modelId));
+        progressStore.success(taskId, "模型仓库导入成功，共 " + files.size() + " 个文件");
+        log.info("[IMPORT] 仓库快照导入完成，modelId={}, 文件数={}, 主文件={}", modelId, files.size(),
+            primary == null ? null : primary.getFileName());
+        return true;
+    }
+
+    /**
+     * 主文件：优先 safetensors 索引，其次任意 *.index.json，否则取最大的权重文件，再否则取最大的文件
+     */
+    static ModelFiles choosePrimary(List<ModelFiles> files) {
+        Comparator<ModelFiles> bySize = Comparator.comparingLong(f -> f.getFileSize() == null ? 0L : f.getFileSize());
+        return files.stream()
+            .filter(f -> f.getFileName().endsWith(".safetensors.index.json"))
+            .findFirst()
+            .or(() -> files.stream().filter(f -> f.getFileName().endsWith(".index.json")).findFirst())
+            .or(() -> files.stream().filter(f -> WEIGHT_EXTENSIONS.contains(f.getFileType())).max(bySize))
+            .or(() -> files.stream().max(bySize))
+            .orElse(null);
+    }
+
+    private static String keyPrefix(Integer modelId) {
+        return "hf/" + modelId + "/";
+    }
+
+    /**
+     * 对象键中模型目录之后的部分即仓库内相对路径
+     */
+    private static String fileNameOf(ImportJournal journal) {
+        String marker = keyPrefix(journal.getTargetId());
+        String key = journal.getObjectKey();
+        return key.substring(key.indexOf(marker) + marker.length());
+    }
+
+    /**
+     * 仍在导入中的模型标记为 Error
+     *
+     * @return 是否由本次调用完成标记
+     */
+    private boolean markModelError(Integer modelId) {
+        Models error = new Models();
+        error.setStatus("Error");
+        error.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
+        int rows = storageStatsService.trackModels(List.of(modelId), () -> dataMapper.update(error,
+            new LambdaQueryWrapper<Models>()
+                .eq(Models::getId, modelId)
+                .eq(Models::getStatus, STATUS_IMPORTING)));
+        if (rows != 1) {
+            return false;
+        }
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(modelId));
+        return true;
+    }
+}
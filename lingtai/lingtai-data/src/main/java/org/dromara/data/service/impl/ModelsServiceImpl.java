@@ -1,6 +1,7 @@
 package org.dromara.data.service.impl;
 
 import cn.dev33.satoken.stp.StpUtil;
+import cn.hutool.core.collection.ListUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -8,28 +9,49 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import jakarta.annotation.Resource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.MapstructUtils;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.data.entity.ImportJournal;
 import org.dromara.data.entity.ModelFiles;
 import org.dromara.data.entity.Models;
+import org.dromara.data.entity.StorageBlob;
 import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.ModelBulkRegisterDTO;
+import org.dromara.data.entity.dto.ModelBulkRegisterResultDTO;
 import org.dromara.data.entity.dto.ModelsDTO;
+import org.dromara.data.entity.dto.StorageStatsDTO;
+import org.dromara.data.enums.ChecksumStatus;
 import org.dromara.data.mapper.DataMapper;
 import org.dromara.data.mapper.FileMapper;
 import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.properties.BulkRegisterProperties;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.scheduler.ImportScheduler;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.dromara.data.service.IImportJournalService;
+import org.dromara.data.service.IModelSnapshotService;
 import org.dromara.data.service.IModelsService;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.service.IStorageStatsService;
+import org.dromara.data.service.ITensorIndexService;
+import org.dromara.data.transfer.TransferResult;
 import org.dromara.data.utils.CosUtils; // 导入 CosUtils
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.sql.Timestamp;
 import java.text.DecimalFormat;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.function.LongConsumer;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -47,10 +69,15 @@ public class ModelsServiceImpl implements IModelsService {
     private final CosUtils cosUtils; // 注入 CosUtils
     @Resource
     private final ProgressStore progressStore;
-
-    // 移除 IHubImportTaskService 相关的注入
-    // @Resource
-    // private IHubImportTaskService hubImportTaskService;
+    private final IImportJournalService importJournalService;
+    private final IModelSnapshotService modelSnapshotService;
+    private final IStorageBlobService storageBlobService;
+    private final IStorageStatsService storageStatsService;
+    private final ICatalogOutboxService catalogOutboxService;
+    private final TransferProperties transferProperties;
+    private final ImportScheduler importScheduler;
+    private final ITensorIndexService tensorIndexService;
+    private final BulkRegisterProperties bulkRegisterProperties;
 
     @Override
     public List<ModelsDTO> getAllModels() {
@@ -79,6 +106,22 @@ public class ModelsServiceImpl implements IModelsService {
         return dataMapper.selectVoPage(page, queryWrapper);
     }
 
+    @Override
+    public CursorPage<ModelsDTO> getModelsCursor(CursorPageQuery query, Long userId, String name, String status) {
+        LambdaQueryWrapper<Models> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Models::getUserId, userId);
+        // 前缀匹配，'%name%' 无法利用索引
+        if (name != null && !name.trim().isEmpty()) {
+            queryWrapper.likeRight(Models::getName, name);
+        }
+        if (status != null && !status.trim().isEmpty()) {
+            queryWrapper.eq(Models::getStatus, status);
+        }
+        String scope = "models:" + userId + ":" + Objects.toString(name, "") + ":" + Objects.toString(status, "");
+        return query.selectPage(dataMapper, queryWrapper, Models::getCreatedTime, Models::getId, scope)
+            .convert(model -> MapstructUtils.convert(model, ModelsDTO.class));
+    }
+
     @Override
     public ModelsDTO getModelById(Integer id) {
         if (id == null) {
@@ -154,6 +197,8 @@ public class ModelsServiceImpl implements IModelsService {
         int result = dataMapper.insert(model);
 
         if (result > 0 && model.getId() != null) {
+            storageStatsService.modelCreated(model);
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(model.getId()));
             log.info("主表 Models 创建成功: ID={}, Name={}", model.getId(), model.getName());
 
             // =======================================================
@@ -161,32 +206,19 @@ public class ModelsServiceImpl implements IModelsService {
             ModelFiles[] modelFilesArray = dto.getModelFiles();
 
             if (modelFilesArray != null && modelFilesArray.length > 0) {
-                int successCount = 0;
                 int  modelId = model.getId(); // 获取新生成的模型ID
-
-                // 循环遍历数组中的每一个 ModelFiles 对象
+                List<ModelFiles> files = new ArrayList<>(modelFilesArray.length);
                 for (ModelFiles file : modelFilesArray) {
                     if (file == null) continue;
-
                     // 设置外键关联ID
                     file.setModelId(modelId);
-                    // 设置创建时间
-                    file.setCreatedTime(now);
-
-                    // 【可选】设置其他默认值 (isPrimary应该由前端发送，这里作为保险)
-                    if (file.getIsPrimary() == null) {
-                        // 如果前端没有标记，默认为非主文件 (0)
-                        file.setIsPrimary(0);
-                    }
-
-                    // 调用 FileMapper 存储单条文件详情
-                    if (fileMapper.insert(file) > 0) {
-                        successCount++;
-                    }
+                    files.add(file);
                 }
+                insertModelFiles(files, now);
 
-                log.info("子表 ModelFiles 批量存储完成: Model ID={}, 成功插入 {} / {} 条记录",
-                    modelId, successCount, modelFilesArray.length);
+                log.info("子表 ModelFiles 批量存储完成: Model ID={}, 插入 {} 条记录", modelId, files.size());
+                // 权重文件提交后建立张量索引
+                tensorIndexService.submit(files);
             }
             // =======================================================
 
@@ -204,6 +236,139 @@ public class ModelsServiceImpl implements IModelsService {
         return modelUpdate;
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public ModelBulkRegisterResultDTO bulkCreateModels(ModelBulkRegisterDTO dto, Long userId) {
+        long start = System.currentTimeMillis();
+        List<ModelsDTO> requested = dto == null || dto.getModels() == null ? List.of() : dto.getModels();
+        if (requested.size() > bulkRegisterProperties.getMaxModels()) {
+            throw new ServiceException("单次最多登记 " + bulkRegisterProperties.getMaxModels() + " 个模型");
+        }
+        long requestedFiles = requested.stream().filter(Objects::nonNull)
+            .mapToLong(m -> m.getModelFiles() == null ? 0 : m.getModelFiles().length).sum();
+        if (requestedFiles > bulkRegisterProperties.getMaxFiles()) {
+            throw new ServiceException("单次最多登记 " + bulkRegisterProperties.getMaxFiles() + " 个文件");
+        }
+
+        ModelBulkRegisterResultDTO result = new ModelBulkRegisterResultDTO();
+        result.setRequested(requested.size());
+
+        // 1. 校验：名称为空、与已有模型重名、请求内重名的模型不登记
+        Set<String> existingNames = existingModelNames(requested, userId);
+        Set<String> seenNames = new HashSet<>();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Models> models = new ArrayList<>(requested.size());
+        List<Integer> indexes = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            result.getModelIds().add(null);
+            ModelsDTO item = requested.get(i);
+            String name = item == null ? null : item.getName();
+            String reason = null;
+            if (name == null || name.trim().isEmpty()) {
+                reason = "模型名称不能为空";
+            } else if (existingNames.contains(name)) {
+                reason = "模型名称已存在";
+            } else if (!seenNames.add(name)) {
+                reason = "请求中模型名称重复";
+            }
+            if (reason != null) {
+                result.getFailures().add(new ModelBulkRegisterResultDTO.Failure(i, name, reason));
+                continue;
+            }
+            Models model = new Models();
+            model.setUserId(userId);
+            model.setName(name);
+            model.setDescription(item.getDescription());
+            model.setFilePath(item.getFilePath());
+            model.setVersion(item.getVersion());
+            model.setSize(item.getSize());
+            model.setStatus(item.getStatus() != null ? item.getStatus() : "Inactive");
+            model.setCreatedTime(now);
+            model.setUpdatedTime(now);
+            models.add(model);
+            indexes.add(i);
+        }
+        if (models.isEmpty() || (Boolean.TRUE.equals(dto.getAtomic()) && !result.getFailures().isEmpty())) {
+            result.setElapsedMillis(System.currentTimeMillis() - start);
+            log.warn("批量登记模型未执行: 请求 {} 个，校验失败 {} 个", requested.size(), result.getFailures().size());
+            return result;
+        }
+
+        // 2. 批量插入模型，回填自增主键
+        dataMapper.insertBatch(models, bulkRegisterProperties.getBatchSize());
+        storageStatsService.modelsCreated(models);
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, models.stream().map(Models::getId).toList());
+
+        // 3. 批量插入文件
+        List<ModelFiles> files = new ArrayList<>();
+        for (int k = 0; k < models.size(); k++) {
+            Models model = models.get(k);
+            int index = indexes.get(k);
+            result.getModelIds().set(index, model.getId());
+            ModelFiles[] modelFiles = requested.get(index).getModelFiles();
+            if (modelFiles == null) {
+                continue;
+            }
+            for (ModelFiles file : modelFiles) {
+                if (file == null) continue;
+                files.add(file.setId(null).setModelId(model.getId()));
+            }
+        }
+        insertModelFiles(files, now);
+        // 权重文件提交后建立张量索引
+        tensorIndexService.submit(files);
+
+        result.setCreated(models.size());
+        result.setFileCount(files.size());
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("批量登记模型完成: 请求 {} 个，登记 {} 个模型、{} 个文件，失败 {} 个，耗时 {} ms",
+            requested.size(), models.size(), files.size(), result.getFailures().size(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 当前用户已有的、与请求中同名的模型名称，按批次 in 查询
+     */
+    private Set<String> existingModelNames(List<ModelsDTO> requested, Long userId) {
+        List<String> names = requested.stream()
+            .filter(Objects::nonNull)
+            .map(ModelsDTO::getName)
+            .filter(name -> name != null && !name.trim().isEmpty())
+            .distinct()
+            .toList();
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : ListUtil.partition(names, bulkRegisterProperties.getBatchSize())) {
+            dataMapper.selectList(new LambdaQueryWrapper<Models>()
+                    .select(Models::getName)
+                    .eq(Models::getUserId, userId)
+                    .in(Models::getName, chunk))
+                .forEach(model -> existing.add(model.getName()));
+        }
+        return existing;
+    }
+
+    /**
+     * 批量插入模型文件：引用计数按对象合并后更新，文件按批次走 BATCH 执行器插入
+     * <p>
+     * 逐条 insert 时每个文件一次往返，分片很多的模型（数千个 shard）登记很慢
+     */
+    private void insertModelFiles(List<ModelFiles> files, Timestamp now) {
+        if (files.isEmpty()) {
+            return;
+        }
+        // 引用上传时登记的内容寻址对象（按文件地址查找，不采信回传的 blobId），对象已被清理则不再关联
+        storageBlobService.retainFiles(files, ModelFiles::getBlobId, ModelFiles::getFileUrl,
+            ModelFiles::getSha256, ModelFiles::setBlobId);
+        for (ModelFiles file : files) {
+            file.setCreatedTime(now);
+            if (file.getIsPrimary() == null) {
+                // 如果前端没有标记，默认为非主文件 (0)
+                file.setIsPrimary(0);
+            }
+        }
+        fileMapper.insertBatch(files, bulkRegisterProperties.getBatchSize());
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updateModel(ModelsDTO dto) {
@@ -248,7 +413,8 @@ public class ModelsServiceImpl implements IModelsService {
 
         model.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
 
-        int result = dataMapper.updateById(model);
+        int result = storageStatsService.trackModels(List.of(model.getId()), () -> dataMapper.updateById(model));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(model.getId()));
         log.info("更新模型{}: ID={}", result > 0 ? "成功" : "失败", dto.getId());
         return result > 0;
     }
@@ -261,7 +427,9 @@ public class ModelsServiceImpl implements IModelsService {
             return false;
         }
 
-        int result = dataMapper.deleteById(id);
+        releaseModelFiles(List.of(id));
+        int result = storageStatsService.trackModels(List.of(id), () -> dataMapper.deleteById(id));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(id));
         log.info("删除模型{}: ID={}", result > 0 ? "成功" : "失败", id);
         return result > 0;
     }
@@ -274,56 +442,16 @@ public class ModelsServiceImpl implements IModelsService {
             return false;
         }
 
-        int result = dataMapper.deleteBatchIds(ids);
+        releaseModelFiles(ids);
+        int result = storageStatsService.trackModels(ids, () -> dataMapper.deleteBatchIds(ids));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, ids);
         log.info("批量删除模型{}: 删除数量={}", result > 0 ? "成功" : "失败", result);
         return result > 0;
     }
 
     @Override
     public ModelsStatsDTO getModelStats() {
-        LambdaQueryWrapper<Models> queryWrapper = new LambdaQueryWrapper<>();
-
-        // 总数
-        Long total = dataMapper.selectCount(queryWrapper);
-
-        // 激活状态的模型数
-        LambdaQueryWrapper<Models> activeWrapper = new LambdaQueryWrapper<>();
-        activeWrapper.eq(Models::getStatus, "Active");
-        Long active = dataMapper.selectCount(activeWrapper);
-
-        // 非激活状态的模型数
-        LambdaQueryWrapper<Models> inactiveWrapper = new LambdaQueryWrapper<>();
-        inactiveWrapper.eq(Models::getStatus, "Inactive");
-        Long inactive = dataMapper.selectCount(inactiveWrapper);
-
-        // 错误状态的模型数
-        LambdaQueryWrapper<Models> errorWrapper = new LambdaQueryWrapper<>();
-        errorWrapper.eq(Models::getStatus, "Error");
-        Long error = dataMapper.selectCount(errorWrapper);
-
-        // 计算总存储大小
-        List<Models> allModels = dataMapper.selectList(queryWrapper);
-        Long totalSize = allModels.stream()
-            .mapToLong(m -> m.getSize() != null ? m.getSize() : 0L)
-            .sum();
-
-        // 版本数量（去重）
-        Long versions = allModels.stream()
-            .map(Models::getVersion)
-            .filter(v -> v != null && !v.isEmpty())
-            .distinct()
-            .count();
-
-        ModelsStatsDTO stats = new ModelsStatsDTO();
-        stats.setTotal(total.intValue());
-        stats.setActive(active.intValue());
-        stats.setInactive(inactive.intValue());
-        stats.setError(error.intValue());
-        stats.setVersions(versions.intValue());
-        stats.setStorageUsed(totalSize);
-        stats.setStorageUsedFormatted(formatFileSize(totalSize));
-
-        return stats;
+        return toModelsStats(storageStatsService.getStats(IStorageStatsService.TARGET_MODEL, null));
     }
 
     @Override
@@ -332,50 +460,18 @@ public class ModelsServiceImpl implements IModelsService {
             log.warn("查询用户模型统计失败: 用户ID为空");
             return new ModelsStatsDTO();
         }
+        return toModelsStats(storageStatsService.getStats(IStorageStatsService.TARGET_MODEL, userId.longValue()));
+    }
 
-        LambdaQueryWrapper<Models> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Models::getUserId, userId);
-
-        // 总数
-        Long total = dataMapper.selectCount(queryWrapper);
-
-        // 激活状态的模型数
-        LambdaQueryWrapper<Models> activeWrapper = new LambdaQueryWrapper<>();
-        activeWrapper.eq(Models::getUserId, userId).eq(Models::getStatus, "Active");
-        Long active = dataMapper.selectCount(activeWrapper);
-
-        // 非激活状态的模型数
-        LambdaQueryWrapper<Models> inactiveWrapper = new LambdaQueryWrapper<>();
-        inactiveWrapper.eq(Models::getUserId, userId).eq(Models::getStatus, "Inactive");
-        Long inactive = dataMapper.selectCount(inactiveWrapper);
-
-        // 错误状态的模型数
-        LambdaQueryWrapper<Models> errorWrapper = new LambdaQueryWrapper<>();
-        errorWrapper.eq(Models::getUserId, userId).eq(Models::getStatus, "Error");
-        Long error = dataMapper.selectCount(errorWrapper);
-
-        // 计算总存储大小
-        List<Models> userModels = dataMapper.selectList(queryWrapper);
-        Long totalSize = userModels.stream()
-            .mapToLong(m -> m.getSize() != null ? m.getSize() : 0L)
-            .sum();
-
-        // 版本数量（去重）
-        Long versions = userModels.stream()
-            .map(Models::getVersion)
-            .filter(v -> v != null && !v.isEmpty())
-            .distinct()
-            .count();
-
+    private ModelsStatsDTO toModelsStats(StorageStatsDTO source) {
         ModelsStatsDTO stats = new ModelsStatsDTO();
-        stats.setTotal(total.intValue());
-        stats.setActive(active.intValue());
-        stats.setInactive(inactive.intValue());
-        stats.setError(error.intValue());
-        stats.setVersions(versions.intValue());
-        stats.setStorageUsed(totalSize);
-        stats.setStorageUsedFormatted(formatFileSize(totalSize));
-
+        stats.setTotal((int) source.getTotal());
+        stats.setActive((int) source.count("Active"));
+        stats.setInactive((int) source.count("Inactive"));
+        stats.setError((int) source.count("Error"));
+        stats.setVersions((int) source.getVersions());
+        stats.setStorageUsed(source.getStorageUsed());
+        stats.setStorageUsedFormatted(formatFileSize(source.getStorageUsed()));
         return stats;
     }
 
@@ -396,7 +492,8 @@ public class ModelsServiceImpl implements IModelsService {
         model.setStatus("Active");
         model.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
 
-        int result = dataMapper.updateById(model);
+        int result = storageStatsService.trackModels(List.of(id), () -> dataMapper.updateById(model));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(id));
         log.info("部署模型{}: ID={}", result > 0 ? "成功" : "失败", id);
         return result > 0;
     }
@@ -418,7 +515,8 @@ public class ModelsServiceImpl implements IModelsService {
         model.setStatus("Inactive");
         model.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
 
-        int result = dataMapper.updateById(model);
+        int result = storageStatsService.trackModels(List.of(id), () -> dataMapper.updateById(model));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(id));
         log.info("停用模型{}: ID={}", result > 0 ? "成功" : "失败", id);
         return result > 0;
     }
@@ -461,12 +559,11 @@ public class ModelsServiceImpl implements IModelsService {
     /**
      * 真正执行下载并上传的方法（同步执行），接收外部传入的 taskId 用于上报进度
      * <p>
-     * 事务注意：本方法会在出现异常时尝试将 DB 状态设为 Error，
-     * 由于是跨 IO（可能分片上传很久），需要谨慎考虑事务边界。
+     * 事务注意：传输可能持续很久，且 Importing 记录与断点日志必须立即可见才能在实例重启后续传，
+     * 因此本方法不开启事务，失败时将记录标记为 Error 而不是回滚。
      *
      * @return
      */
-    @Transactional(rollbackFor = Exception.class)
     public boolean importModelFromHubWithProgress(ModelsDTO dto, String taskId) {
         if (dto == null || dto.getHubUrl() == null || dto.getHubUrl().isEmpty()) {
             progressStore.fail(taskId, "Hub URL 为空");
@@ -498,6 +595,8 @@ public class ModelsServiceImpl implements IModelsService {
             progressStore.fail(taskId, "创建模型记录失败");
             throw new RuntimeException("创建模型记录失败");
         }
+        storageStatsService.modelCreated(model);
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(model.getId()));
         log.info("创建初始模型记录成功，id={}", model.getId());
         progressStore.updatePercent(taskId, 1, "已创建数据库记录");
 
@@ -507,282 +606,221 @@ public class ModelsServiceImpl implements IModelsService {
             : dto.getName().replaceAll("[^a-zA-Z0-9._-]", "_");
         String fileName = model.getId() + "_" + safeName;
 
-        HttpURLConnection conn = null;
-        InputStream input = null;
-        try {
-            // 3) 打开 Hub URL 流（支持 http/https）
-            URL url = new URL(dto.getHubUrl());
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setConnectTimeout(15_000);
-            conn.setReadTimeout(120_000);
-            conn.setRequestProperty("User-Agent", "EdgeAI-Model-Importer/1.0");
-            conn.connect();
-
-            int responseCode = conn.getResponseCode();
-            if (responseCode >= 400) {
-                String msg = "下载失败，HTTP 响应码: " + responseCode;
-                log.error(msg);
-                progressStore.fail(taskId, msg);
-                // 将模型标记为 Error
-                markModelError(model.getId(), "下载失败 HTTP " + responseCode);
-                return false;
-            }
-
-            long totalSize = conn.getContentLengthLong();
-            if (totalSize <= 0) {
-                log.warn("远端未返回 Content-Length（或为0），将按未知大小处理");
-                // 若 totalSize <= 0，进度条将以已上传字节数为基准展示（可能无法做百分比）
-            }
-
-            input = conn.getInputStream();
-
-            progressStore.updatePercent(taskId, 5, "开始下载并上传到 COS");
-
-            // 4) 定义回调：cosUtils 会在每次分片上传后回调已上传字节数。
-            LongConsumer progressCallback = uploadedBytes -> {
-                try {
-                    int percent;
-                    if (totalSize > 0) {
-                        percent = (int) Math.min(100, (uploadedBytes * 100.0) / totalSize);
-                    } else {
-                        // 当 totalSize 未知时，无法精确计算百分比，改为根据字节数做粗略展示（最多到99）
-                        long kb = uploadedBytes / 1024;
-                        percent = (int) Math.min(99, 1 + kb / 1024); // 每 MB 增 1%
-                    }
-                    progressStore.updatePercent(taskId, percent, "上传中 " + percent + "%");
-                } catch (Exception e) {
-                    log.warn("进度回调处理异常", e);
-                }
-            };
-
-            // 5) 调用 CosUtils 的流式上传（分块上传），传入 InputStream 和 progressCallback
-            String cosKey = cosUtils.uploadStreamWithProgress(input, fileName, totalSize, progressCallback);
-
-            // 6) 上传成功，更新 DB
-            Models update = new Models();
-            update.setId(model.getId());
-            update.setFilePath(cosKey);
-            update.setSize(totalSize > 0 ? totalSize : null);
-            update.setStatus("Active");
-            update.setUpdatedTime(new java.sql.Timestamp(System.currentTimeMillis()));
-            dataMapper.updateById(update);
-
-            progressStore.success(taskId, "上传完成，模型已激活");
-            log.info("任务成功，modelId={}, cosKey={}", model.getId(), cosKey);
-            return true;
-
-        } catch (Exception e) {
-            log.error("导入任务失败，modelId={}, url={}", model.getId(), dto.getHubUrl(), e);
-            progressStore.fail(taskId, "任务失败：" + e.getMessage());
-
-            // 标记 DB 为 Error（不回滚 insert，保持记录用于排查）
-            markModelError(model.getId(), e.getMessage());
-            return false;
-
-        } finally {
-            // 7) 关闭资源
-            try {
-                if (input != null) input.close();
-            } catch (Exception ignored) {}
-            if (conn != null) conn.disconnect();
-        }
+        // 3) 写入断点日志后开始传输
+        ImportJournal journal = importJournalService.begin(taskId, IImportJournalService.TARGET_MODEL,
+            model.getId(), model.getUserId(), dto.getHubUrl(), cosUtils.objectKey(fileName), null);
+        progressStore.updatePercent(taskId, 5, "开始下载并上传到 COS");
+        return runJournaledImport(journal);
     }
-    /**
-     * 从 HuggingFace 下载模型文件（支持大文件）。
-     * @param hubUrl 如：https://huggingface.co/xxxx/xxx/resolve/main/model.safetensors
-     * @return 下载后的本地临时文件 File
-     */
-    public File downloadModelFromHub(String hubUrl) throws IOException {
-
-        log.info("[IMPORT] 开始下载 HuggingFace 模型: {}", hubUrl);
 
-        // 为下载的模型创建临时文件（自动随机命名）
-        String fileName = hubUrl.substring(hubUrl.lastIndexOf("/") + 1);
-        File tempFile = File.createTempFile("hf_", "_" + fileName);
-
-        // 重试次数（防止网络抖动）
-        int maxRetry = 3;
+    @Override
+    public String startImportAsync(ModelsDTO dto) {
 
-        for (int attempt = 1; attempt <= maxRetry; attempt++) {
-            try {
-                return doDownload(hubUrl, tempFile);
-            } catch (Exception e) {
-                log.warn("[IMPORT] 下载失败 attempt={}/{}: {}", attempt, maxRetry, e.getMessage());
+        // 生成 taskId
+        String taskId = "task-" + UUID.randomUUID();
 
-                if (attempt == maxRetry) {
-                    throw new IOException("下载模型失败（重试次数耗尽）: " + e.getMessage());
-                }
+        // 初始化任务状态
+        progressStore.start(taskId, "已加入导入队列");
 
-                try { Thread.sleep(1000); } catch (Exception ignored) {}
-            }
+        // 提交到导入调度器，按用户/租户并发限额排队执行
+        try {
+            importScheduler.submit(taskId, taskId, ImportScheduler.currentUserId(dto.getUserId()),
+                ImportScheduler.currentTenantId(),
+                importScheduler.userPriority(dto.getPriority()), task -> runImport(dto, taskId),
+                () -> progressStore.fail(taskId, "导入已取消"));
+        } catch (RuntimeException e) {
+            progressStore.fail(taskId, "导入失败：" + e.getMessage());
+            throw e;
         }
 
-        return tempFile; // 理论不会到这里
+        // 返回 taskId 给前端
+        return taskId;
     }
 
-
     /**
-     * 执行一次实际下载
+     * 在调度器线程中执行导入
      */
-    private File doDownload(String hubUrl, File destFile) throws IOException {
-
-        URL url = new URL(hubUrl);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-
-        conn.setConnectTimeout(10000);
-        conn.setReadTimeout(10000);
-        conn.setRequestMethod("GET");
-        conn.setInstanceFollowRedirects(true);
-        conn.addRequestProperty("User-Agent", "Mozilla/5.0");
-
-        int status = conn.getResponseCode();
-
-        // HuggingFace 有时会 302 跳转到真实原始文件地址
-        if (status == HttpURLConnection.HTTP_MOVED_TEMP ||
-            status == HttpURLConnection.HTTP_MOVED_PERM ||
-            status == HttpURLConnection.HTTP_SEE_OTHER) {
-
-            String newUrl = conn.getHeaderField("Location");
-            log.info("[IMPORT] HuggingFace 302 跳转至真实地址: {}", newUrl);
-            return doDownload(newUrl, destFile); // 递归处理
-        }
-
-        if (status != 200) {
-            throw new IOException("下载失败，HTTP 状态码: " + status);
-        }
-
-        long contentLength = conn.getContentLengthLong();
-        log.info("[IMPORT] 文件大小: {} MB", contentLength / 1024 / 1024);
-
-        try (
-            InputStream input = conn.getInputStream();
-            FileOutputStream output = new FileOutputStream(String.valueOf(destFile))
-        ) {
+    private void runImport(ModelsDTO dto, String taskId) {
+        progressStore.updatePercent(taskId, 0, "任务已开始，准备下载模型文件...");
+        Models model = new Models();
+        try {
+            // ==========================================================
+            // 1. 先写入 Importing 记录与断点日志，实例重启后据此续传
+            // ==========================================================
+            String hubUrl = dto.getHubUrl().trim();
+            model.setName(dto.getName());
+            model.setDescription(dto.getDescription());
+            model.setHubUrl(hubUrl);
+            model.setVersion(dto.getVersion());
+            model.setUserId(dto.getUserId());
+            model.setStatus("Importing");
+            model.setCreatedTime(Timestamp.valueOf(LocalDateTime.now()));
+            model.setUpdatedTime(Timestamp.valueOf(LocalDateTime.now()));
+            dataMapper.insert(model);
+            storageStatsService.modelCreated(model);
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(model.getId()));
+
+            if (!hubUrl.toLowerCase().startsWith("http")) {
+                // ----------------------------------------------------------
+                // 仓库ID：导入整个仓库快照（分片权重、索引、tokenizer、配置文件）
+                // ----------------------------------------------------------
+                log.info("[IMPORT] 按仓库快照导入: repo={}, revision={}", hubUrl, dto.getRevision());
+                modelSnapshotService.importSnapshot(model, taskId, hubUrl, dto.getRevision(),
+                    dto.getAllowPatterns(), dto.getIgnorePatterns());
+                return;
+            }
 
-            byte[] buffer = new byte[1024 * 1024]; // 1MB 缓冲
-            int bytesRead;
-            long totalRead = 0;
+            // ==========================================================
+            // 2. 单文件地址：从源站直传对象存储（Range 并发拉取，不落本地磁盘）
+            // ==========================================================
+            String fileName = "hf_" + UUID.randomUUID() + "_" + hubUrl.substring(hubUrl.lastIndexOf("/") + 1);
+            ImportJournal journal = importJournalService.begin(taskId, IImportJournalService.TARGET_MODEL,
+                model.getId(), dto.getUserId(), hubUrl, cosUtils.objectKey(fileName), null);
+            progressStore.updatePercent(taskId, 5, "正在从 HuggingFace 导入模型至对象存储...");
+            runJournaledImport(journal);
 
-            while ((bytesRead = input.read(buffer)) != -1) {
-                output.write(buffer, 0, bytesRead);
-                totalRead += bytesRead;
+        } catch (Exception e) {
 
-                // 这里如果你需要更新下载进度，可以添加回调
-                // 但现在不需要，因为前端只关心上传进度
+            log.error("[IMPORT] 模型导入失败: {}", e.getMessage(), e);
+            if (ImportScheduler.isCurrentCancelled()) {
+                // 清除取消留下的中断标记，保证后续写库不受影响
+                Thread.interrupted();
+            }
+            progressStore.fail(taskId, ImportScheduler.isCurrentCancelled() ? "导入已取消" : "导入失败：" + e.getMessage());
+            if (model.getId() != null) {
+                markModelError(model.getId(), e.getMessage());
             }
 
-            output.flush();
         }
-
-        log.info("[IMPORT] 模型文件已下载到: {}", destFile.getAbsolutePath());
-
-        return destFile;
     }
 
-
     @Override
-    public String startImportAsync(ModelsDTO dto) {
-
-        // 生成 taskId
-        String taskId = "task-" + System.currentTimeMillis();
-
-        // 初始化任务状态
-        progressStore.start(taskId, "任务已开始，准备下载模型文件...");
-
-        // 异步执行任务
-        CompletableFuture.runAsync(() -> {
-
-            File tempLocalFile = null;
-
-            try {
-                // ==========================================================
-                // 1. 下载 HuggingFace 模型
-                // ==========================================================
-                progressStore.updatePercent(taskId, 5, "正在从 HuggingFace 下载模型...");
-
-
-                // ----------------------------------------------------------
-                // 【核心修改】自动构造完整的下载 URL
-                // ----------------------------------------------------------
-                String hubUrl = dto.getHubUrl();
-
-                if (hubUrl != null && !hubUrl.trim().isEmpty() && !hubUrl.toLowerCase().startsWith("http")) {
-                    // 假设约定：主模型文件在 main 分支下，文件名为 model.safetensors
-                    String fullDownloadUrl = "https://huggingface.co/" + hubUrl + "/resolve/main/model.safetensors";
-                    dto.setHubUrl(fullDownloadUrl); // 将修正后的 URL 设回 DTO
-                    log.info("[IMPORT] 自动构造下载 URL: {}", fullDownloadUrl);
-                }
-
-                tempLocalFile = downloadModelFromHub(dto.getHubUrl());
-                long fileSize = tempLocalFile.length();
-                progressStore.updatePercent(taskId, 30, "模型下载完成，准备上传至对象存储...");
-
-                // ==========================================================
-                // 2. 上传 COS（带进度）
-                // ==========================================================
-                String fileName = tempLocalFile.getName();
-                InputStream fileStream = new FileInputStream(tempLocalFile);
-
-                progressStore.updatePercent(taskId, 35, "开始上传模型文件至对象存储...");
-
-                String cosKey = cosUtils.uploadStreamWithProgress(
-                    fileStream,
-                    fileName,
-                    fileSize,
-                    percent -> {
-                        // 强制将结果转换为 int，解决潜在的 long -> int 赋值问题
-                        int mapped = 30 + (int) ((percent * 60.0) / 100.0);
-
-                        // 或者，如果您确定 percent 是 int，并且 percent * 60 不会溢出 int，可以使用：
-                        // int mapped = 30 + (percent * 60) / 100;
+    public void resumeHubImport(ImportJournal journal) {
+        String taskId = journal.getTaskId();
+        importJournalService.startResume(journal);
+        int maxAttempts = transferProperties.getJournal().getMaxResumeAttempts();
+        if (journal.getResumeCount() != null && journal.getResumeCount() > maxAttempts) {
+            log.error("[IMPORT] 模型导入续传次数超过 {} 次，放弃续传，journalId={}", maxAttempts, journal.getId());
+            importJournalService.fail(journal.getId(), "超过最大续传次数");
+            markModelError(journal.getTargetId(), "超过最大续传次数");
+            progressStore.fail(taskId, "导入失败：超过最大续传次数");
+            return;
+        }
+        if (dataMapper.selectById(journal.getTargetId()) == null) {
+            log.warn("[IMPORT] 模型记录已删除，放弃续传，journalId={}, modelId={}", journal.getId(), journal.getTargetId());
+            importJournalService.fail(journal.getId(), "模型记录不存在");
+            return;
+        }
+        log.info("[IMPORT] 续传模型导入，journalId={}, modelId={}, 已完成 {} 字节",
+            journal.getId(), journal.getTargetId(), journal.getCompletedBytes());
+        progressStore.updatePercent(taskId, 5, "服务已恢复，正在续传模型文件...");
+        runJournaledImport(journal);
+    }
 
-                        progressStore.updatePercent(taskId, mapped, "正在上传模型文件...");
+    /**
+     * 按断点日志执行传输：成功后激活模型并关闭日志；
+     * 被中断（服务停机）时保留日志待续传，其余失败标记 Error，分块上传由清理任务 Abort
+     */
+    private boolean runJournaledImport(ImportJournal journal) {
+        String taskId = journal.getTaskId();
+        try {
+            TransferResult transfer = cosUtils.transferToKey(journal.getSourceUrl(), journal.getObjectKey(),
+                (uploadedBytes, totalSize) -> {
+                    if (totalSize > 0) {
+                        // 按 COS 分块进度折算到 5% - 95%
+                        int mapped = 5 + (int) (uploadedBytes * 90.0 / totalSize);
+                        progressStore.updatePercent(taskId, mapped, "正在导入模型文件...");
                     }
-                );
-
-                String fileUrl = cosUtils.getPublicUrl(cosKey);
-                progressStore.updatePercent(taskId, 95, "上传完成，正在写入数据库...");
-
-
-                // ==========================================================
-                // 3. 写入数据库
-                // ==========================================================
-                Models model = new Models();
-                model.setName(dto.getName());
-                model.setDescription(dto.getDescription());
-                model.setHubUrl(dto.getHubUrl());
-                model.setFilePath(fileUrl);
-                model.setVersion(dto.getVersion());
-                model.setSize(fileSize);
-                model.setUserId(dto.getUserId());
-                model.setStatus("Active");
-                model.setCreatedTime(Timestamp.valueOf(LocalDateTime.now()));
-                model.setUpdatedTime(Timestamp.valueOf(LocalDateTime.now()));
-
-                dataMapper.insert(model);
-
-
-                // ==========================================================
-                // 4. 标记成功
-                // ==========================================================
-                progressStore.success(taskId, "模型导入成功！");
-
-            } catch (Exception e) {
+                },
+                importJournalService.checkpoint(journal));
+            progressStore.updatePercent(taskId, 95, "上传完成，正在写入数据库...");
+
+            String key = transfer.getKey();
+            StorageBlob blob = null;
+            if (transfer.getSha256() != null) {
+                blob = storageBlobService.register(transfer.getSha256(), transfer.getSize(), key);
+                if (blob.getId() == null) {
+                    blob = null;
+                } else if (!key.equals(blob.getObjectKey())) {
+                    // 相同内容已导入过，保留先登记的一份
+                    cosUtils.deleteObject(key);
+                    key = blob.getObjectKey();
+                }
+            }
+            insertImportedFile(journal, key, transfer, blob);
 
-                log.error("[IMPORT] 模型导入失败: {}", e.getMessage(), e);
-                progressStore.fail(taskId, "导入失败：" + e.getMessage());
+            Models update = new Models();
+            update.setId(journal.getTargetId());
+            update.setFilePath(cosUtils.getPublicUrl(key));
+            update.setSize(transfer.getSize());
+            update.setStatus("Active");
+            update.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
+            storageStatsService.trackModels(List.of(update.getId()), () -> dataMapper.updateById(update));
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(update.getId()));
+            importJournalService.complete(journal.getId());
 
-            } finally {
+            progressStore.success(taskId, "模型导入成功！");
+            log.info("任务成功，modelId={}, cosKey={}", journal.getTargetId(), key);
+            return true;
 
-                if (tempLocalFile != null && tempLocalFile.exists()) {
-                    try { tempLocalFile.delete(); } catch (Exception ignored) {}
-                }
+        } catch (Exception e) {
+            if (ImportScheduler.isCurrentCancelled()) {
+                // 用户取消：清除中断标记后关闭日志，分块上传由清理任务 Abort
+                Thread.interrupted();
+                log.warn("[IMPORT] 模型导入已取消，modelId={}", journal.getTargetId());
+                progressStore.fail(taskId, "导入已取消");
+                importJournalService.fail(journal.getId(), "已取消");
+                markModelError(journal.getTargetId(), "已取消");
+                return false;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // 服务停机打断的导入保持 Importing，由接管实例续传
+                log.warn("[IMPORT] 模型导入被中断，等待续传，modelId={}", journal.getTargetId());
+                importJournalService.suspend(journal.getId());
+                return false;
             }
+            log.error("导入任务失败，modelId={}, url={}", journal.getTargetId(), journal.getSourceUrl(), e);
+            progressStore.fail(taskId, "导入失败：" + e.getMessage());
+            importJournalService.fail(journal.getId(), e.getMessage());
 
-        });
+            // 标记 DB 为 Error（不回滚 insert，保持记录用于排查）
+            markModelError(journal.getTargetId(), e.getMessage());
+            return false;
+        }
+    }
 
-        // 返回 taskId 给前端
-        return taskId;
+    /**
+     * 登记单文件导入的文件记录，保存传输时计算的 SHA-256 与 CRC64，与快照导入、直传上传一致
+     */
+    private void insertImportedFile(ImportJournal journal, String key, TransferResult transfer, StorageBlob blob) {
+        String objectKey = journal.getObjectKey();
+        String fileName = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+        // 登记后、关闭日志前实例退出时，续传会再次走到这里，避免重复登记
+        boolean exists = fileMapper.exists(new LambdaQueryWrapper<ModelFiles>()
+            .eq(ModelFiles::getModelId, journal.getTargetId())
+            .eq(ModelFiles::getFileName, fileName));
+        if (exists) {
+            return;
+        }
+        ModelFiles file = new ModelFiles();
+        file.setModelId(journal.getTargetId());
+        file.setFileUrl(cosUtils.getPublicUrl(key));
+        file.setFileName(fileName);
+        file.setFileSize(transfer.getSize());
+        file.setFileType(StringUtils.substringAfterLast(fileName, ".").toLowerCase());
+        // 单文件导入只有这一个文件
+        file.setIsPrimary(1);
+        file.setBlobId(blob != null && storageBlobService.retain(blob.getId()) ? blob.getId() : null);
+        file.setSha256(transfer.getSha256());
+        file.setCrc64(transfer.getCrc64());
+        file.setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        if (transfer.getCrc64() != null) {
+            // 传输时已与源站大小及 COS 的 CRC64 比对
+            file.setChecksumStatus(ChecksumStatus.VERIFIED.name());
+            file.setVerifiedTime(file.getCreatedTime());
+        }
+        fileMapper.insert(file);
+        tensorIndexService.submit(List.of(file));
     }
 
     @Override
@@ -821,6 +859,21 @@ public class ModelsServiceImpl implements IModelsService {
     }
 
 
+    /**
+     * 删除模型的文件记录并释放对内容寻址对象的引用
+     */
+    private void releaseModelFiles(List<Integer> modelIds) {
+        LambdaQueryWrapper<ModelFiles> wrapper = new LambdaQueryWrapper<ModelFiles>()
+            .in(ModelFiles::getModelId, modelIds);
+        List<Long> blobIds = fileMapper.selectList(wrapper).stream()
+            .map(ModelFiles::getBlobId)
+            .filter(Objects::nonNull)
+            .toList();
+        fileMapper.delete(wrapper);
+        storageBlobService.release(blobIds);
+        tensorIndexService.deleteByModelIds(modelIds);
+    }
+
     /**
      * 将指定 modelId 的状态标记为 Error，并写入错误信息（更新 updatedTime）
      */
@@ -831,7 +884,8 @@ public class ModelsServiceImpl implements IModelsService {
             m.setStatus("Error");
             m.setUpdatedTime(new Timestamp(System.currentTimeMillis()));
             // 若你的 Models 表有字段存错误信息，可以设置，例如 m.setErrorMessage(errMsg);
-            dataMapper.updateById(m);
+            storageStatsService.trackModels(List.of(modelId), () -> dataMapper.updateById(m));
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(modelId));
         } catch (Exception e) {
             log.error("标记模型 Error 状态失败，id={}", modelId, e);
         }
@@ -0,0 +1,333 @@
+package org.dromara.data.service.impl;
+
+import cn.hutool.core.collection.ListUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.entity.DataSetsFiles;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.StorageBlob;
+import org.dromara.data.mapper.DataSetsFileMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.mapper.StorageBlobMapper;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 内容寻址对象服务实现
+ * <p>
+ * 所有计数变更都是单条条件更新；删除时以“引用数为 0 且 updated_time 早于保留期”为条件，
+ * 与并发的命中（刷新 updated_time）互斥，删除成功后才删除 COS 对象。
+ * <p>
+ * 启动时先为未带 blob_id 的历史文件记录补上引用，完成后才开始清理；清理时仍按 blob_id 与 file_url
+ * 检查两张文件表，计数与实际引用不一致时保留对象。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageBlobServiceImpl implements IStorageBlobService {
+
+    /**
+     * 单次清理的对象数上限
+     */
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    /**
+     * 批量增加引用时单条语句 in 列表的长度上限
+     */
+    private static final int RETAIN_BATCH_SIZE = 1000;
+
+    /**
+     * 补齐引用时每批扫描的文件记录数
+     */
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final StorageBlobMapper blobMapper;
+    private final FileMapper modelFileMapper;
+    private final DataSetsFileMapper dataSetsFileMapper;
+    private final CosUtils cosUtils;
+    private final TransferProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        long interval = properties.getJournal().getSweepIntervalSeconds();
+        // 历史记录的引用补齐后再开始清理
+        scheduledExecutorService.execute(() -> {
+            backfillReferences();
+            scheduledExecutorService.scheduleWithFixedDelay(this::sweepUnreferenced, interval, interval, TimeUnit.SECONDS);
+        });
+    }
+
+    @Override
+    public StorageBlob findBySha256(String sha256) {
+        StorageBlob blob = blobMapper.selectOne(new LambdaQueryWrapper<StorageBlob>()
+            .eq(StorageBlob::getSha256, sha256));
+        if (blob == null) {
+            return null;
+        }
+        // 刷新失败说明恰好被清理，按不存在处理
+        int rows = blobMapper.update(null, new LambdaUpdateWrapper<StorageBlob>()
+            .set(StorageBlob::getUpdatedTime, now())
+            .eq(StorageBlob::getId, blob.getId()));
+        return rows == 1 ? blob : null;
+    }
+
+    @Override
+    public StorageBlob register(String sha256, long size, String objectKey) {
+        StorageBlob existing = findBySha256(sha256);
+        if (existing != null) {
+            return existing;
+        }
+        Timestamp now = now();
+        StorageBlob blob = new StorageBlob()
+            .setSha256(sha256)
+            .setObjectKey(objectKey)
+            .setSize(size)
+            .setRefCount(0)
+            .setCreatedTime(now)
+            .setUpdatedTime(now);
+        try {
+            blobMapper.insert(blob);
+            return blob;
+        } catch (DuplicateKeyException e) {
+            // 相同内容被并发登记；胜者恰好又被清理时退化为不去重（返回无ID的对象）
+            StorageBlob winner = findBySha256(sha256);
+            return winner != null ? winner : blob.setId(null);
+        }
+    }
+
+    @Override
+    public boolean retain(Long blobId) {
+        if (blobId == null) {
+            return false;
+        }
+        return blobMapper.update(null, new LambdaUpdateWrapper<StorageBlob>()
+            .setIncrBy(StorageBlob::getRefCount, 1)
+            .set(StorageBlob::getUpdatedTime, now())
+            .eq(StorageBlob::getId, blobId)) == 1;
+    }
+
+    @Override
+    public Set<Long> retainAll(Collection<Long> blobIds) {
+        Map<Long, Long> counts = blobIds.stream().filter(Objects::nonNull)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        if (counts.isEmpty()) {
+            return Set.of();
+        }
+        Map<Long, List<Long>> byCount = counts.entrySet().stream().collect(Collectors.groupingBy(
+            Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        Timestamp now = now();
+        byCount.forEach((count, ids) -> {
+            for (List<Long> chunk : ListUtil.partition(ids, RETAIN_BATCH_SIZE)) {
+                blobMapper.update(null, new LambdaUpdateWrapper<StorageBlob>()
+                    .setIncrBy(StorageBlob::getRefCount, count)
+                    .set(StorageBlob::getUpdatedTime, now)
+                    .in(StorageBlob::getId, chunk));
+            }
+        });
+        // 更新已锁定命中的行，同一事务内查到的即为增加了引用的对象
+        Set<Long> retained = new HashSet<>();
+        for (List<Long> chunk : ListUtil.partition(new ArrayList<>(counts.keySet()), RETAIN_BATCH_SIZE)) {
+            blobMapper.selectList(new LambdaQueryWrapper<StorageBlob>()
+                    .select(StorageBlob::getId)
+                    .in(StorageBlob::getId, chunk))
+                .forEach(blob -> retained.add(blob.getId()));
+        }
+        return retained;
+    }
+
+    @Override
+    public <T> void retainFiles(List<T> files, Function<T, Long> blobId, Function<T, String> fileUrl,
+                                Function<T, String> sha256, BiConsumer<T, Long> setBlobId) {
+        // 客户端回传的 blobId 不可信，一律按文件地址解析，回传值只用于核对
+        List<Long> resolved = resolve(files, fileUrl, sha256);
+        for (int i = 0; i < files.size(); i++) {
+            T file = files.get(i);
+            Long claimed = blobId.apply(file);
+            if (claimed != null && !claimed.equals(resolved.get(i))) {
+                log.warn("[BLOB] 文件记录回传的对象ID {} 与文件地址对应的对象 {} 不一致，按地址关联，url={}",
+                    claimed, resolved.get(i), fileUrl.apply(file));
+            }
+            setBlobId.accept(file, resolved.get(i));
+        }
+        Set<Long> retained = retainAll(resolved);
+        for (int i = 0; i < files.size(); i++) {
+            Long id = resolved.get(i);
+            if (id != null && !retained.contains(id)) {
+                setBlobId.accept(files.get(i), null);
+            }
+        }
+    }
+
+    @Override
+    public void release(Collection<Long> blobIds) {
+        blobIds.stream().filter(Objects::nonNull).forEach(blobId ->
+            blobMapper.update(null, new LambdaUpdateWrapper<StorageBlob>()
+                .setDecrBy(StorageBlob::getRefCount, 1)
+                .set(StorageBlob::getUpdatedTime, now())
+                .eq(StorageBlob::getId, blobId)
+                .gt(StorageBlob::getRefCount, 0)));
+    }
+
+    /**
+     * 删除无引用且超过保留期的对象
+     */
+    void sweepUnreferenced() {
+        try {
+            Timestamp deadline = new Timestamp(System.currentTimeMillis()
+                - TimeUnit.HOURS.toMillis(properties.getBlobGraceHours()));
+            List<StorageBlob> candidates = blobMapper.selectList(new LambdaQueryWrapper<StorageBlob>()
+                .eq(StorageBlob::getRefCount, 0)
+                .lt(StorageBlob::getUpdatedTime, deadline)
+                .last("limit " + SWEEP_BATCH_SIZE));
+            for (StorageBlob blob : candidates) {
+                if (referenced(blob)) {
+                    // 仍有记录按地址或ID引用（计数缺失），刷新时间后留到下一个保留期再检查
+                    blobMapper.update(null, new LambdaUpdateWrapper<StorageBlob>()
+                        .set(StorageBlob::getUpdatedTime, now())
+                        .eq(StorageBlob::getId, blob.getId()));
+                    log.warn("[BLOB] 对象仍被文件记录引用但计数为 0，跳过删除，key={}", blob.getObjectKey());
+                    continue;
+                }
+                int rows = blobMapper.delete(new LambdaQueryWrapper<StorageBlob>()
+                    .eq(StorageBlob::getId, blob.getId())
+                    .eq(StorageBlob::getRefCount, 0)
+                    .lt(StorageBlob::getUpdatedTime, deadline));
+                if (rows == 1) {
+                    cosUtils.deleteObject(blob.getObjectKey());
+                    log.info("[BLOB] 删除无引用对象，sha256={}, key={}", blob.getSha256(), blob.getObjectKey());
+                }
+            }
+        } catch (Exception e) {
+            log.error("[BLOB] 清理无引用对象失败", e);
+        }
+    }
+
+    /**
+     * 是否仍有文件记录按 blob_id 或 file_url 指向该对象
+     */
+    private boolean referenced(StorageBlob blob) {
+        String url = cosUtils.getPublicUrl(blob.getObjectKey());
+        return modelFileMapper.exists(new LambdaQueryWrapper<ModelFiles>()
+                .eq(ModelFiles::getBlobId, blob.getId())
+                .or()
+                .eq(ModelFiles::getFileUrl, url))
+            || dataSetsFileMapper.exists(new LambdaQueryWrapper<DataSetsFiles>()
+                .eq(DataSetsFiles::getBlobId, blob.getId())
+                .or()
+                .eq(DataSetsFiles::getFileUrl, url));
+    }
+
+    /**
+     * 为未带 blob_id 的文件记录补上引用，只处理 blob_id 为空的记录，多实例同时执行也不会重复计数
+     */
+    void backfillReferences() {
+        try {
+            int models = backfill(modelFileMapper, ModelFiles::getId, ModelFiles::getBlobId,
+                ModelFiles::getFileUrl, ModelFiles::getSha256);
+            int dataSets = backfill(dataSetsFileMapper, DataSetsFiles::getId, DataSetsFiles::getBlobId,
+                DataSetsFiles::getFileUrl, DataSetsFiles::getSha256);
+            if (models > 0 || dataSets > 0) {
+                log.info("[BLOB] 补齐文件记录引用：模型文件 {} 条，数据集文件 {} 条", models, dataSets);
+            }
+        } catch (Exception e) {
+            log.error("[BLOB] 补齐文件记录引用失败", e);
+        }
+    }
+
+    private <T> int backfill(BaseMapper<T> mapper, SFunction<T, Integer> idColumn, SFunction<T, Long> blobColumn,
+                             SFunction<T, String> urlColumn, SFunction<T, String> shaColumn) {
+        int bound = 0;
+        int lastId = 0;
+        while (true) {
+            List<T> rows = mapper.selectList(new LambdaQueryWrapper<T>()
+                .select(idColumn, urlColumn, shaColumn)
+                .isNull(blobColumn)
+                .gt(idColumn, lastId)
+                .orderByAsc(idColumn)
+                .last("limit " + BACKFILL_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                return bound;
+            }
+            lastId = idColumn.apply(rows.get(rows.size() - 1));
+            List<Long> resolved = resolve(rows, urlColumn, shaColumn);
+            for (int i = 0; i < rows.size(); i++) {
+                Long blobId = resolved.get(i);
+                // 先增加引用再关联，关联失败（已被其他实例补齐）时归还
+                if (blobId == null || !retain(blobId)) {
+                    continue;
+                }
+                int updated = mapper.update(null, new LambdaUpdateWrapper<T>()
+                    .set(blobColumn, blobId)
+                    .eq(idColumn, idColumn.apply(rows.get(i)))
+                    .isNull(blobColumn));
+                if (updated == 1) {
+                    bound++;
+                } else {
+                    release(List.of(blobId));
+                }
+            }
+        }
+    }
+
+    /**
+     * 按 fileUrl 对应的对象键、再按 sha256 查找文件指向的对象，结果与 files 一一对应，找不到为 null
+     */
+    private <T> List<Long> resolve(List<T> files, Function<T, String> fileUrl, Function<T, String> sha256) {
+        List<Long> resolved = new ArrayList<>(files.size());
+        if (files.isEmpty()) {
+            return resolved;
+        }
+        List<String> keys = files.stream().map(file -> cosUtils.keyOfUrl(fileUrl.apply(file))).toList();
+        Map<String, Long> byKey = lookup(StorageBlob::getObjectKey, keys);
+        Map<String, Long> bySha256 = lookup(StorageBlob::getSha256, files.stream().map(sha256).toList());
+        for (int i = 0; i < files.size(); i++) {
+            Long id = keys.get(i) == null ? null : byKey.get(keys.get(i));
+            String hash = sha256.apply(files.get(i));
+            if (id == null && hash != null) {
+                id = bySha256.get(hash);
+            }
+            resolved.add(id);
+        }
+        return resolved;
+    }
+
+    private Map<String, Long> lookup(SFunction<StorageBlob, String> column, List<String> values) {
+        List<String> distinct = values.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : ListUtil.partition(distinct, RETAIN_BATCH_SIZE)) {
+            blobMapper.selectList(new LambdaQueryWrapper<StorageBlob>()
+                    .select(StorageBlob::getId, column)
+                    .in(column, chunk))
+                .forEach(blob -> ids.put(column.apply(blob), blob.getId()));
+        }
+        return ids;
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,241 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.entity.DataSets;
+import org.dromara.data.entity.Models;
+import org.dromara.data.entity.StorageStats;
+import org.dromara.data.entity.dto.StorageStatsDTO;
+import org.dromara.data.entity.dto.StorageStatsRow;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.DataSetsMapper;
+import org.dromara.data.mapper.StorageStatsMapper;
+import org.dromara.data.properties.StatsProperties;
+import org.dromara.data.service.IStorageStatsService;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 模型/数据集存储统计服务实现
+ * <p>
+ * 一个对象计入 4 行：(用户, 状态)、(全局, 状态)、(用户, 版本)、(全局, 版本)。
+ * 增量更新只写差值不为 0 的行，每行一次原子 upsert；计数更新失败只记录日志，等待对账修正，不影响业务操作。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageStatsServiceImpl implements IStorageStatsService {
+
+    private static final String DIM_STATUS = "status";
+    private static final String DIM_VERSION = "version";
+
+    /**
+     * 全局统计行的用户ID
+     */
+    private static final long GLOBAL_USER_ID = 0L;
+
+    private final StorageStatsMapper statsMapper;
+    private final DataMapper dataMapper;
+    private final DataSetsMapper dataSetsMapper;
+    private final StatsProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            reconcile(TARGET_MODEL);
+            reconcile(TARGET_DATASET);
+        }, properties.getReconcileInitialDelaySeconds(), properties.getReconcileIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void modelCreated(Models model) {
+        applyChange(TARGET_MODEL, List.of(), List.of(row(model)));
+    }
+
+    @Override
+    public void modelsCreated(Collection<Models> models) {
+        applyChange(TARGET_MODEL, List.of(), models.stream().map(this::row).toList());
+    }
+
+    @Override
+    public void dataSetCreated(DataSets dataSet) {
+        applyChange(TARGET_DATASET, List.of(), List.of(row(dataSet)));
+    }
+
+    @Override
+    public <T> T trackModels(Collection<Integer> ids, Supplier<T> mutation) {
+        if (ids == null || ids.isEmpty()) {
+            return mutation.get();
+        }
+        List<StorageStatsRow> before = dataMapper.selectBatchIds(ids).stream().map(this::row).toList();
+        T result = mutation.get();
+        List<StorageStatsRow> after = dataMapper.selectBatchIds(ids).stream().map(this::row).toList();
+        applyChange(TARGET_MODEL, before, after);
+        return result;
+    }
+
+    @Override
+    public <T> T trackDataSets(Collection<Integer> ids, Supplier<T> mutation) {
+        if (ids == null || ids.isEmpty()) {
+            return mutation.get();
+        }
+        List<StorageStatsRow> before = dataSetsMapper.selectBatchIds(ids).stream().map(this::row).toList();
+        T result = mutation.get();
+        List<StorageStatsRow> after = dataSetsMapper.selectBatchIds(ids).stream().map(this::row).toList();
+        applyChange(TARGET_DATASET, before, after);
+        return result;
+    }
+
+    @Override
+    public StorageStatsDTO getStats(String targetType, Long userId) {
+        List<StorageStats> rows = statsMapper.selectList(new LambdaQueryWrapper<StorageStats>()
+            .eq(StorageStats::getTargetType, targetType)
+            .eq(StorageStats::getUserId, userId != null ? userId : GLOBAL_USER_ID)
+            .gt(StorageStats::getItemCount, 0));
+        StorageStatsDTO stats = new StorageStatsDTO();
+        for (StorageStats row : rows) {
+            if (DIM_STATUS.equals(row.getDim())) {
+                stats.getStatusCounts().merge(row.getDimValue(), row.getItemCount(), Long::sum);
+                stats.setTotal(stats.getTotal() + row.getItemCount());
+                stats.setStorageUsed(stats.getStorageUsed() + row.getSizeBytes());
+            } else if (DIM_VERSION.equals(row.getDim()) && !row.getDimValue().isEmpty()) {
+                stats.setVersions(stats.getVersions() + 1);
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public void reconcile(String targetType) {
+        try {
+            List<StorageStatsRow> rows = TARGET_MODEL.equals(targetType)
+                ? statsMapper.aggregateModels()
+                : statsMapper.aggregateDataSets();
+            Map<StatKey, long[]> expected = new HashMap<>();
+            for (StorageStatsRow row : rows) {
+                accumulate(expected, row, 1);
+            }
+
+            Map<StatKey, StorageStats> current = new HashMap<>();
+            for (StorageStats stat : statsMapper.selectList(new LambdaQueryWrapper<StorageStats>()
+                .eq(StorageStats::getTargetType, targetType))) {
+                current.put(new StatKey(stat.getUserId(), stat.getDim(), stat.getDimValue()), stat);
+            }
+
+            int fixed = 0;
+            List<StorageStats> inserts = new ArrayList<>();
+            for (Map.Entry<StatKey, long[]> entry : expected.entrySet()) {
+                StatKey key = entry.getKey();
+                long[] value = entry.getValue();
+                StorageStats stat = current.remove(key);
+                if (stat == null) {
+                    inserts.add(new StorageStats()
+                        .setTargetType(targetType)
+                        .setUserId(key.userId())
+                        .setDim(key.dim())
+                        .setDimValue(key.dimValue())
+                        .setItemCount(value[0])
+                        .setSizeBytes(value[1])
+                        .setUpdatedTime(now()));
+                } else if (stat.getItemCount() != value[0] || stat.getSizeBytes() != value[1]) {
+                    statsMapper.updateById(new StorageStats()
+                        .setId(stat.getId())
+                        .setItemCount(value[0])
+                        .setSizeBytes(value[1])
+                        .setUpdatedTime(now()));
+                    fixed++;
+                }
+            }
+            if (!inserts.isEmpty()) {
+                statsMapper.insertBatch(inserts);
+            }
+            // 明细中已不存在的计数行
+            List<Long> stale = current.values().stream().map(StorageStats::getId).toList();
+            if (!stale.isEmpty()) {
+                statsMapper.deleteBatchIds(stale);
+            }
+            if (fixed + inserts.size() + stale.size() > 0) {
+                log.info("[STATS] {} 统计对账完成，修正 {} 行，新增 {} 行，删除 {} 行",
+                    targetType, fixed, inserts.size(), stale.size());
+            }
+        } catch (Exception e) {
+            log.error("[STATS] {} 统计对账失败", targetType, e);
+        }
+    }
+
+    private void applyChange(String targetType, List<StorageStatsRow> before, List<StorageStatsRow> after) {
+        Map<StatKey, long[]> deltas = new HashMap<>();
+        before.forEach(row -> accumulate(deltas, row, -1));
+        after.forEach(row -> accumulate(deltas, row, 1));
+        deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            try {
+                statsMapper.upsertDelta(targetType, key.userId(), key.dim(), key.dimValue(), delta[0], delta[1]);
+            } catch (Exception e) {
+                log.warn("[STATS] 更新统计计数失败，等待对账修正，key={}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 将一组对象的数量与大小按 sign 累加到所属的 4 个计数行
+     */
+    private static void accumulate(Map<StatKey, long[]> target, StorageStatsRow row, int sign) {
+        long count = sign * (row.getItemCount() != null ? row.getItemCount() : 0L);
+        long size = sign * (row.getSizeBytes() != null ? row.getSizeBytes() : 0L);
+        String status = Objects.toString(row.getStatus(), "");
+        String version = Objects.toString(row.getVersion(), "");
+        List<StatKey> keys = new ArrayList<>(4);
+        keys.add(new StatKey(GLOBAL_USER_ID, DIM_STATUS, status));
+        keys.add(new StatKey(GLOBAL_USER_ID, DIM_VERSION, version));
+        if (row.getUserId() != null && row.getUserId() != GLOBAL_USER_ID) {
+            keys.add(new StatKey(row.getUserId(), DIM_STATUS, status));
+            keys.add(new StatKey(row.getUserId(), DIM_VERSION, version));
+        }
+        for (StatKey key : keys) {
+            long[] value = target.computeIfAbsent(key, k -> new long[2]);
+            value[0] += count;
+            value[1] += size;
+        }
+    }
+
+    private StorageStatsRow row(Models model) {
+        return row(model.getUserId(), model.getStatus(), model.getVersion(), model.getSize());
+    }
+
+    private StorageStatsRow row(DataSets dataSet) {
+        return row(dataSet.getUserId(), dataSet.getStatus(), dataSet.getVersion(), dataSet.getSize());
+    }
+
+    private static StorageStatsRow row(Long userId, String status, String version, Long size) {
+        StorageStatsRow row = new StorageStatsRow();
+        row.setUserId(userId);
+        row.setStatus(status);
+        row.setVersion(version);
+        row.setItemCount(1L);
+        row.setSizeBytes(size);
+        return row;
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    private record StatKey(Long userId, String dim, String dimValue) {
+    }
+}
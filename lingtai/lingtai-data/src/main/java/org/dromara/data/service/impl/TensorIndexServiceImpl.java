@@ -0,0 +1,316 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.qcloud.cos.model.ObjectMetadata;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.data.entity.ModelFileIndex;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.ModelTensor;
+import org.dromara.data.entity.dto.ModelTensorIndexDTO;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.mapper.ModelFileIndexMapper;
+import org.dromara.data.mapper.ModelTensorMapper;
+import org.dromara.data.preview.RangeSource;
+import org.dromara.data.properties.TensorIndexProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.dromara.data.service.ITensorIndexService;
+import org.dromara.data.tensor.GgufHeaderReader;
+import org.dromara.data.tensor.SafetensorsHeaderReader;
+import org.dromara.data.tensor.TensorHeader;
+import org.dromara.data.tensor.TensorInfo;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 模型文件张量索引服务实现
+ * <p>
+ * 索引在 tensorIndexExecutor 中执行；同一文件同时只有一个索引任务，重复提交被忽略。
+ * 回填按主键游标分批查询模型文件，用信号量把在途任务数限制在 concurrency 以内。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TensorIndexServiceImpl implements ITensorIndexService {
+
+    private static final List<String> FORMATS = List.of("safetensors", "gguf");
+
+    private final FileMapper fileMapper;
+    private final ModelFileIndexMapper indexMapper;
+    private final ModelTensorMapper tensorMapper;
+    private final CosUtils cosUtils;
+    private final TensorIndexProperties properties;
+    private final ICatalogOutboxService catalogOutboxService;
+
+    @Resource(name = "tensorIndexExecutor")
+    private Executor indexExecutor;
+
+    @Resource(name = "taskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * 正在索引的文件ID
+     */
+    private final Set<Integer> indexing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    @Override
+    public void submit(Collection<ModelFiles> files) {
+        if (!properties.isEnabled() || files == null) {
+            return;
+        }
+        List<ModelFiles> targets = files.stream()
+            .filter(file -> file != null && file.getId() != null && formatOf(file) != null)
+            .toList();
+        if (targets.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 文件记录提交后再索引，事务回滚时不留下索引记录
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(targets);
+                }
+            });
+        } else {
+            enqueue(targets);
+        }
+    }
+
+    private void enqueue(List<ModelFiles> files) {
+        for (ModelFiles file : files) {
+            indexExecutor.execute(() -> index(file));
+        }
+    }
+
+    @Override
+    public ModelFileIndex index(ModelFiles file) {
+        String format = formatOf(file);
+        if (format == null) {
+            return null;
+        }
+        if (!indexing.add(file.getId())) {
+            log.debug("[TENSOR] 文件 {} 正在建立索引，忽略重复提交", file.getId());
+            return null;
+        }
+        ModelFileIndex index = new ModelFileIndex()
+            .setFileId(file.getId())
+            .setModelId(file.getModelId())
+            .setFormat(format);
+        try {
+            String key = cosUtils.keyOfUrl(file.getFileUrl());
+            if (key == null) {
+                throw new ServiceException("文件不在对象存储中");
+            }
+            ObjectMetadata metadata = cosUtils.getObjectMetadata(key);
+            if (metadata == null) {
+                throw new ServiceException("文件已被删除");
+            }
+            // 带 ETag 读取，索引过程中文件被覆盖则失败，不会混合两个版本的内容
+            RangeSource source = (start, end) -> cosUtils.readRange(key, start, end, metadata.getETag());
+            long size = metadata.getContentLength();
+            TensorHeader header = "gguf".equals(format)
+                ? GgufHeaderReader.read(source, size, properties.getFirstRangeBytes(), properties.getMaxHeaderBytes())
+                : SafetensorsHeaderReader.read(source, size, properties.getFirstRangeBytes(), properties.getMaxHeaderBytes());
+
+            List<ModelTensor> tensors = new ArrayList<>(header.tensors().size());
+            for (TensorInfo tensor : header.tensors()) {
+                tensors.add(new ModelTensor()
+                    .setFileId(file.getId())
+                    .setName(tensor.name())
+                    .setDtype(tensor.dtype())
+                    .setShape(JsonUtils.toJsonString(tensor.shape()))
+                    .setNumElements(tensor.numElements())
+                    .setDataStart(tensor.dataStart())
+                    .setDataEnd(tensor.dataEnd()));
+            }
+            index.setStatus(ModelFileIndex.STATUS_INDEXED)
+                .setTensorCount(tensors.size())
+                .setParameterCount(header.parameterCount())
+                .setHeaderBytes(header.headerBytes())
+                .setMetadata(JsonUtils.toJsonString(header.metadata()));
+            save(index, tensors);
+            // 权重格式与参数量随索引变化，同步到目录检索
+            catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(file.getModelId()));
+            log.info("[TENSOR] 文件 {} 索引完成：{} 个张量，参数量 {}，文件头 {} 字节",
+                file.getId(), tensors.size(), index.getParameterCount(), index.getHeaderBytes());
+        } catch (Exception e) {
+            log.warn("[TENSOR] 文件 {} 索引失败: {}", file.getId(), e.getMessage());
+            index.setStatus(ModelFileIndex.STATUS_FAILED)
+                .setTensorCount(0)
+                .setParameterCount(0L)
+                .setErrorMsg(StringUtils.substring(e.getMessage(), 0, 500));
+            try {
+                save(index, List.of());
+            } catch (Exception ex) {
+                log.error("[TENSOR] 记录文件 {} 的索引失败状态失败", file.getId(), ex);
+            }
+        } finally {
+            indexing.remove(file.getId());
+        }
+        return index;
+    }
+
+    private void save(ModelFileIndex index, List<ModelTensor> tensors) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        tensorMapper.delete(new LambdaQueryWrapper<ModelTensor>().eq(ModelTensor::getFileId, index.getFileId()));
+        int batchSize = Math.max(1, properties.getDbBatchSize());
+        for (int from = 0; from < tensors.size(); from += batchSize) {
+            tensorMapper.insertBatch(tensors.subList(from, Math.min(tensors.size(), from + batchSize)));
+        }
+        ModelFileIndex existing = indexMapper.selectOne(new LambdaQueryWrapper<ModelFileIndex>()
+            .eq(ModelFileIndex::getFileId, index.getFileId()));
+        // 整行替换，避免重新索引后残留上一次的失败原因或元数据
+        if (existing != null) {
+            indexMapper.deleteById(existing.getId());
+        }
+        index.setCreatedTime(existing != null ? existing.getCreatedTime() : now).setUpdatedTime(now);
+        indexMapper.insert(index);
+    }
+
+    @Override
+    public boolean backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(this::runBackfill);
+        } catch (RuntimeException e) {
+            backfilling.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void runBackfill() {
+        int concurrency = Math.max(1, properties.getConcurrency());
+        Semaphore inFlight = new Semaphore(concurrency);
+        int lastId = 0;
+        int submitted = 0;
+        log.info("[TENSOR] 开始回填张量索引");
+        try {
+            while (true) {
+                List<ModelFiles> page = fileMapper.selectList(new LambdaQueryWrapper<ModelFiles>()
+                    .gt(ModelFiles::getId, lastId)
+                    .and(w -> w.in(ModelFiles::getFileType, FORMATS)
+                        .or().likeLeft(ModelFiles::getFileName, ".safetensors")
+                        .or().likeLeft(ModelFiles::getFileName, ".gguf"))
+                    .orderByAsc(ModelFiles::getId)
+                    .last("limit " + Math.max(1, properties.getBackfillBatchSize())));
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).getId();
+                Set<Integer> indexed = indexMapper.selectList(new LambdaQueryWrapper<ModelFileIndex>()
+                        .select(ModelFileIndex::getFileId)
+                        .in(ModelFileIndex::getFileId, page.stream().map(ModelFiles::getId).toList())
+                        .eq(ModelFileIndex::getStatus, ModelFileIndex.STATUS_INDEXED))
+                    .stream().map(ModelFileIndex::getFileId).collect(Collectors.toSet());
+                for (ModelFiles file : page) {
+                    if (indexed.contains(file.getId()) || formatOf(file) == null) {
+                        continue;
+                    }
+                    inFlight.acquire();
+                    try {
+                        indexExecutor.execute(() -> {
+                            try {
+                                index(file);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                    submitted++;
+                }
+            }
+            inFlight.acquire(concurrency);
+            log.info("[TENSOR] 张量索引回填完成，共处理 {} 个文件", submitted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[TENSOR] 张量索引回填被中断，已提交 {} 个文件", submitted);
+        } catch (Exception e) {
+            log.error("[TENSOR] 张量索引回填失败，已提交 {} 个文件", submitted, e);
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    @Override
+    public void deleteByModelIds(Collection<Integer> modelIds) {
+        if (modelIds == null || modelIds.isEmpty()) {
+            return;
+        }
+        LambdaQueryWrapper<ModelFileIndex> wrapper = new LambdaQueryWrapper<ModelFileIndex>()
+            .in(ModelFileIndex::getModelId, modelIds);
+        List<Integer> fileIds = indexMapper.selectList(wrapper.select(ModelFileIndex::getFileId)).stream()
+            .map(ModelFileIndex::getFileId)
+            .toList();
+        if (!fileIds.isEmpty()) {
+            tensorMapper.delete(new LambdaQueryWrapper<ModelTensor>().in(ModelTensor::getFileId, fileIds));
+        }
+        indexMapper.delete(new LambdaQueryWrapper<ModelFileIndex>().in(ModelFileIndex::getModelId, modelIds));
+    }
+
+    @Override
+    public ModelTensorIndexDTO getModelIndex(Integer modelId) {
+        List<ModelFileIndex> files = indexMapper.selectList(new LambdaQueryWrapper<ModelFileIndex>()
+            .eq(ModelFileIndex::getModelId, modelId)
+            .orderByAsc(ModelFileIndex::getFileId));
+        long parameterCount = 0;
+        int tensorCount = 0;
+        for (ModelFileIndex file : files) {
+            if (ModelFileIndex.STATUS_INDEXED.equals(file.getStatus())) {
+                parameterCount += Objects.requireNonNullElse(file.getParameterCount(), 0L);
+                tensorCount += Objects.requireNonNullElse(file.getTensorCount(), 0);
+            }
+        }
+        ModelTensorIndexDTO dto = new ModelTensorIndexDTO();
+        dto.setModelId(modelId);
+        dto.setParameterCount(parameterCount);
+        dto.setTensorCount(tensorCount);
+        dto.setFiles(files);
+        return dto;
+    }
+
+    @Override
+    public List<ModelTensor> listTensors(Integer fileId) {
+        return tensorMapper.selectList(new LambdaQueryWrapper<ModelTensor>()
+            .eq(ModelTensor::getFileId, fileId)
+            .orderByAsc(ModelTensor::getDataStart));
+    }
+
+    /**
+     * 按文件类型字段或文件名扩展名判断格式，不支持时返回 null
+     */
+    private static String formatOf(ModelFiles file) {
+        String type = StringUtils.blankToDefault(file.getFileType(), "").toLowerCase();
+        if (FORMATS.contains(type)) {
+            return type;
+        }
+        String extension = StringUtils.substringAfterLast(StringUtils.blankToDefault(file.getFileName(), ""), ".").toLowerCase();
+        return FORMATS.contains(extension) ? extension : null;
+    }
+}
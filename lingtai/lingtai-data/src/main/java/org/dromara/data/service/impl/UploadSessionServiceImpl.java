@@ -0,0 +1,483 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.qcloud.cos.model.ObjectMetadata;
+import com.qcloud.cos.model.PartETag;
+import com.qcloud.cos.model.PartSummary;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.Models;
+import org.dromara.data.entity.UploadSession;
+import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.UploadPartDTO;
+import org.dromara.data.entity.dto.UploadSessionCompleteDTO;
+import org.dromara.data.entity.dto.UploadSessionCreateDTO;
+import org.dromara.data.entity.dto.UploadSessionDTO;
+import org.dromara.data.entity.dto.UploadSessionRegisterDTO;
+import org.dromara.data.enums.UploadSessionStatus;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.mapper.UploadSessionMapper;
+import org.dromara.data.properties.UploadSessionProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.dromara.data.service.IStorageStatsService;
+import org.dromara.data.service.ITensorIndexService;
+import org.dromara.data.service.IUploadSessionService;
+import org.dromara.data.transfer.ParallelMultipartUploader;
+import org.dromara.data.utils.CosUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 浏览器直传会话服务实现
+ * <p>
+ * 文件内容不经过服务端，因此没有 SHA-256，也不参与内容寻址去重；对象的 CRC64 取自 COS 完成分块上传的响应，
+ * 客户端提交了 CRC64 时在完成时比对，SHA-256 由存储完整性巡检抽样时补记。
+ * 会话以状态列的乐观更新保证完成、取消、登记与过期清理之间互斥。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionServiceImpl implements IUploadSessionService {
+
+    /**
+     * COS 分块（最后一块除外）的最小大小
+     */
+    private static final long MIN_PART_SIZE = 1024 * 1024L;
+
+    private static final int SWEEP_BATCH_SIZE = 200;
+
+    private static final Pattern UPLOAD_DIR = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private final UploadSessionMapper sessionMapper;
+    private final DataMapper dataMapper;
+    private final FileMapper fileMapper;
+    private final CosUtils cosUtils;
+    private final IStorageStatsService storageStatsService;
+    private final ICatalogOutboxService catalogOutboxService;
+    private final ITensorIndexService tensorIndexService;
+    private final UploadSessionProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                sweepExpired();
+            } catch (Exception e) {
+                log.error("[UPLOAD] 清理过期直传会话失败", e);
+            }
+        }, properties.getSweepIntervalSeconds(), properties.getSweepIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public UploadSessionDTO create(UploadSessionCreateDTO dto, Long userId) {
+        String fileName = dto == null ? null : dto.getFileName();
+        if (!isSafeFileName(fileName)) {
+            throw new ServiceException("文件名不合法");
+        }
+        if (dto.getFileSize() == null || dto.getFileSize() <= 0) {
+            throw new ServiceException("文件大小必须大于 0");
+        }
+        String uploadDir = StringUtils.isBlank(dto.getUploadDir()) ? UUID.randomUUID().toString() : dto.getUploadDir();
+        if (!UPLOAD_DIR.matcher(uploadDir).matches()) {
+            throw new ServiceException("上传目录不合法");
+        }
+
+        long fileSize = dto.getFileSize();
+        long partSize = partSize(fileSize);
+        int partCount = (int) ((fileSize + partSize - 1) / partSize);
+        // 每个会话独占一个子目录：同一目录、同名文件的会话不会共用对象，清理一个会话不会删掉另一个会话已登记的对象
+        String sessionDir = UUID.randomUUID().toString().replace("-", "");
+        String key = cosUtils.objectKey("model/" + userId + "/" + uploadDir + "/" + sessionDir + "/" + fileName);
+        String uploadId = cosUtils.initiateMultipartUpload(key);
+
+        Timestamp now = now();
+        UploadSession session = new UploadSession()
+            .setUserId(userId)
+            .setFileName(fileName)
+            .setFileSize(fileSize)
+            .setPartSize(partSize)
+            .setPartCount(partCount)
+            .setObjectKey(key)
+            .setUploadId(uploadId)
+            .setStatus(UploadSessionStatus.ACTIVE.name())
+            .setExpireTime(expireFrom(now))
+            .setCreatedTime(now)
+            .setUpdatedTime(now);
+        try {
+            sessionMapper.insert(session);
+        } catch (RuntimeException e) {
+            cosUtils.abortMultipartUpload(key, uploadId);
+            throw e;
+        }
+        log.info("[UPLOAD] 创建直传会话 {}，key={}, 大小={}, 分块 {} x {}",
+            session.getId(), key, fileSize, partCount, partSize);
+
+        UploadSessionDTO result = toDTO(session, uploadDir);
+        result.setParts(presign(session, 1, properties.getMaxPresignBatch()));
+        return result;
+    }
+
+    @Override
+    public List<UploadPartDTO> presignParts(Long sessionId, Long userId, int from, int count) {
+        UploadSession session = load(sessionId, userId);
+        if (!UploadSessionStatus.ACTIVE.name().equals(session.getStatus())
+            || session.getExpireTime().getTime() <= System.currentTimeMillis()) {
+            throw new ServiceException("会话已结束或已过期");
+        }
+        if (from < 1 || from > session.getPartCount() || count < 1) {
+            throw new ServiceException("分块号超出范围: 1 ~ " + session.getPartCount());
+        }
+        return presign(session, from, count);
+    }
+
+    @Override
+    public FileInfoDTO complete(Long sessionId, UploadSessionCompleteDTO dto, Long userId) {
+        UploadSession session = load(sessionId, userId);
+        String status = session.getStatus();
+        if (UploadSessionStatus.COMPLETED.name().equals(status) || UploadSessionStatus.REGISTERED.name().equals(status)) {
+            return toFileInfo(session);
+        }
+        if (!transition(session, UploadSessionStatus.ACTIVE, UploadSessionStatus.COMPLETING)) {
+            throw new ServiceException("会话已结束或正在完成");
+        }
+
+        String key = session.getObjectKey();
+        List<PartSummary> stored = cosUtils.listParts(key, session.getUploadId());
+        String crc64;
+        if (stored == null) {
+            // 分块上传已不存在：上次完成请求可能已在 COS 生效而未来得及记录
+            ObjectMetadata metadata = cosUtils.getObjectMetadata(key);
+            if (metadata == null || metadata.getContentLength() != session.getFileSize()) {
+                transition(session, UploadSessionStatus.COMPLETING, UploadSessionStatus.ABORTED);
+                throw new ServiceException("分块上传已失效，请重新上传");
+            }
+            crc64 = metadata.getCrc64Ecma();
+        } else {
+            List<PartETag> partETags;
+            try {
+                partETags = verifyParts(session, dto == null ? null : dto.getParts(), stored);
+                crc64 = cosUtils.completeMultipartUpload(key, session.getUploadId(), partETags);
+            } catch (RuntimeException e) {
+                // 分块不完整或完成失败时回到上传中，客户端补传后可以重新完成
+                transition(session, UploadSessionStatus.COMPLETING, UploadSessionStatus.ACTIVE);
+                throw e instanceof ServiceException ? e : new ServiceException("完成分块上传失败: " + e.getMessage());
+            }
+        }
+
+        if (dto != null && StringUtils.isNotBlank(dto.getCrc64()) && !dto.getCrc64().equals(crc64)) {
+            cosUtils.deleteObject(key);
+            transition(session, UploadSessionStatus.COMPLETING, UploadSessionStatus.ABORTED);
+            log.error("[UPLOAD] 直传会话 {} 完整性校验失败，key={}: 客户端 CRC64 {}，COS {}",
+                sessionId, key, dto.getCrc64(), crc64);
+            throw new ServiceException("完整性校验失败: CRC64 不一致，请重新上传");
+        }
+
+        Timestamp now = now();
+        session.setCrc64(crc64).setExpireTime(expireFrom(now));
+        sessionMapper.update(null, new LambdaUpdateWrapper<UploadSession>()
+            .set(UploadSession::getStatus, UploadSessionStatus.COMPLETED.name())
+            .set(UploadSession::getCrc64, crc64)
+            .set(UploadSession::getExpireTime, session.getExpireTime())
+            .set(UploadSession::getUpdatedTime, now)
+            .eq(UploadSession::getId, sessionId)
+            .eq(UploadSession::getStatus, UploadSessionStatus.COMPLETING.name()));
+        log.info("[UPLOAD] 直传会话 {} 完成，key={}, CRC64={}", sessionId, key, crc64);
+        return toFileInfo(session);
+    }
+
+    @Override
+    public boolean abort(Long sessionId, Long userId) {
+        UploadSession session = load(sessionId, userId);
+        for (UploadSessionStatus from : List.of(UploadSessionStatus.ACTIVE, UploadSessionStatus.COMPLETED)) {
+            if (from.name().equals(session.getStatus()) && transition(session, from, UploadSessionStatus.ABORTED)) {
+                cleanUp(session, from);
+                log.info("[UPLOAD] 取消直传会话 {}，key={}", sessionId, session.getObjectKey());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<FileInfoDTO> register(UploadSessionRegisterDTO dto, Long userId, boolean superAdmin) {
+        if (dto == null || dto.getModelId() == null || dto.getSessionIds() == null || dto.getSessionIds().isEmpty()) {
+            throw new ServiceException("模型ID与会话ID不能为空");
+        }
+        Models model = dataMapper.selectById(dto.getModelId());
+        if (model == null || (!superAdmin && !Objects.equals(model.getUserId(), userId))) {
+            throw new ServiceException("模型不存在");
+        }
+
+        Set<Long> sessionIds = new LinkedHashSet<>(dto.getSessionIds());
+        Map<Long, UploadSession> sessions = sessionMapper.selectBatchIds(sessionIds).stream()
+            .collect(Collectors.toMap(UploadSession::getId, s -> s));
+        Timestamp now = now();
+        List<ModelFiles> files = new ArrayList<>(sessionIds.size());
+        long totalSize = 0;
+        for (Long sessionId : sessionIds) {
+            UploadSession session = sessions.get(sessionId);
+            if (session == null || !Objects.equals(session.getUserId(), userId)) {
+                throw new ServiceException("会话不存在: " + sessionId);
+            }
+            if (!UploadSessionStatus.COMPLETED.name().equals(session.getStatus())) {
+                throw new ServiceException("会话未完成或已登记: " + sessionId);
+            }
+            ModelFiles file = new ModelFiles()
+                .setModelId(model.getId())
+                .setFileUrl(cosUtils.getPublicUrl(session.getObjectKey()))
+                .setFileName(session.getFileName())
+                .setFileSize(session.getFileSize())
+                .setFileType(fileType(session.getFileName()))
+                .setIsPrimary(sessionId.equals(dto.getPrimarySessionId()) ? 1 : 0)
+                .setCrc64(session.getCrc64())
+                .setCreatedTime(now);
+            fileMapper.insert(file);
+            // 与过期清理、取消互斥：状态已变化时整个登记回滚
+            int updated = sessionMapper.update(null, new LambdaUpdateWrapper<UploadSession>()
+                .set(UploadSession::getStatus, UploadSessionStatus.REGISTERED.name())
+                .set(UploadSession::getModelFileId, file.getId())
+                .set(UploadSession::getUpdatedTime, now)
+                .eq(UploadSession::getId, sessionId)
+                .eq(UploadSession::getStatus, UploadSessionStatus.COMPLETED.name()));
+            if (updated != 1) {
+                throw new ServiceException("会话状态已变化: " + sessionId);
+            }
+            files.add(file);
+            totalSize += session.getFileSize();
+        }
+
+        long addedSize = totalSize;
+        storageStatsService.trackModels(List.of(model.getId()), () -> dataMapper.update(null,
+            new LambdaUpdateWrapper<Models>()
+                .setSql("size = ifnull(size, 0) + " + addedSize)
+                .set(Models::getUpdatedTime, now)
+                .eq(Models::getId, model.getId())));
+        catalogOutboxService.enqueue(ICatalogOutboxService.TARGET_MODEL, List.of(model.getId()));
+        // 权重文件提交后建立张量索引
+        tensorIndexService.submit(files);
+        log.info("[UPLOAD] 登记直传文件到模型 {}：{} 个文件，共 {} 字节", model.getId(), files.size(), totalSize);
+
+        List<FileInfoDTO> result = new ArrayList<>(files.size());
+        for (ModelFiles file : files) {
+            result.add(toFileInfo(file));
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> listActiveUploadIds() {
+        return sessionMapper.selectList(new LambdaQueryWrapper<UploadSession>()
+                .select(UploadSession::getUploadId)
+                .in(UploadSession::getStatus, UploadSessionStatus.ACTIVE.name(), UploadSessionStatus.COMPLETING.name()))
+            .stream()
+            .map(UploadSession::getUploadId)
+            .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void sweepExpired() {
+        List<UploadSession> expired = sessionMapper.selectList(new LambdaQueryWrapper<UploadSession>()
+            .in(UploadSession::getStatus, UploadSessionStatus.ACTIVE.name(),
+                UploadSessionStatus.COMPLETING.name(), UploadSessionStatus.COMPLETED.name())
+            .lt(UploadSession::getExpireTime, now())
+            .orderByAsc(UploadSession::getExpireTime)
+            .last("limit " + SWEEP_BATCH_SIZE));
+        for (UploadSession session : expired) {
+            UploadSessionStatus from = UploadSessionStatus.valueOf(session.getStatus());
+            // 先抢占状态再清理，避免删除正在登记的对象
+            if (!transition(session, from, UploadSessionStatus.EXPIRED)) {
+                continue;
+            }
+            try {
+                cleanUp(session, from);
+                log.info("[UPLOAD] 清理过期直传会话 {}（{}），key={}", session.getId(), from, session.getObjectKey());
+            } catch (Exception e) {
+                log.error("[UPLOAD] 清理过期直传会话 {} 失败，key={}", session.getId(), session.getObjectKey(), e);
+            }
+        }
+    }
+
+    /**
+     * 按会话原状态清理存储：上传中的 Abort 分块上传，已生成对象的删除对象；
+     * 正在完成的两者都可能存在
+     */
+    private void cleanUp(UploadSession session, UploadSessionStatus from) {
+        if (from != UploadSessionStatus.COMPLETED) {
+            cosUtils.abortMultipartUpload(session.getObjectKey(), session.getUploadId());
+        }
+        if (from != UploadSessionStatus.ACTIVE) {
+            cosUtils.deleteObject(session.getObjectKey());
+        }
+    }
+
+    /**
+     * 核对客户端提交的分块与 COS 上实际存在的分块：分块号连续、ETag 一致、
+     * 除最后一块外大小恰好为分块大小，总大小等于文件大小
+     *
+     * @return 按分块号升序的 PartETag
+     */
+    private List<PartETag> verifyParts(UploadSession session, List<UploadPartDTO> submitted, List<PartSummary> stored) {
+        int partCount = session.getPartCount();
+        if (submitted == null || submitted.size() != partCount) {
+            throw new ServiceException("分块数不一致: 应为 " + partCount);
+        }
+        Map<Integer, String> submittedETags = new HashMap<>();
+        for (UploadPartDTO part : submitted) {
+            if (part == null || part.getPartNumber() == null || StringUtils.isBlank(part.getEtag())) {
+                throw new ServiceException("分块号与 ETag 不能为空");
+            }
+            submittedETags.put(part.getPartNumber(), normalizeETag(part.getEtag()));
+        }
+        Map<Integer, PartSummary> storedParts = new HashMap<>();
+        for (PartSummary part : stored) {
+            storedParts.put(part.getPartNumber(), part);
+        }
+
+        List<PartETag> partETags = new ArrayList<>(partCount);
+        long lastSize = session.getFileSize() - (long) (partCount - 1) * session.getPartSize();
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            PartSummary part = storedParts.get(partNumber);
+            if (part == null) {
+                throw new ServiceException("分块 " + partNumber + " 未上传");
+            }
+            String eTag = normalizeETag(part.getETag());
+            if (!eTag.equals(submittedETags.get(partNumber))) {
+                throw new ServiceException("分块 " + partNumber + " 的 ETag 不一致，请重新上传该分块");
+            }
+            long expectedSize = partNumber == partCount ? lastSize : session.getPartSize();
+            if (part.getSize() != expectedSize) {
+                throw new ServiceException("分块 " + partNumber + " 大小不一致: 应为 " + expectedSize + "，实际 " + part.getSize());
+            }
+            partETags.add(new PartETag(partNumber, part.getETag()));
+        }
+        return partETags;
+    }
+
+    private List<UploadPartDTO> presign(UploadSession session, int from, int count) {
+        int to = Math.min(session.getPartCount(), from + Math.min(count, properties.getMaxPresignBatch()) - 1);
+        List<UploadPartDTO> parts = new ArrayList<>(Math.max(0, to - from + 1));
+        for (int partNumber = from; partNumber <= to; partNumber++) {
+            UploadPartDTO part = new UploadPartDTO();
+            part.setPartNumber(partNumber);
+            part.setUrl(cosUtils.getPresignedPartUrl(session.getObjectKey(), session.getUploadId(), partNumber,
+                properties.getPresignExpireSeconds()));
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    /**
+     * 分块大小：不小于配置值，文件过大时放大到分块数不超过 COS 上限，并按 1MB 对齐
+     */
+    private long partSize(long fileSize) {
+        long minForCount = (fileSize + ParallelMultipartUploader.MAX_PART_COUNT - 1) / ParallelMultipartUploader.MAX_PART_COUNT;
+        long partSize = Math.max(Math.max(properties.getPartSize(), MIN_PART_SIZE), minForCount);
+        return (partSize + MIN_PART_SIZE - 1) / MIN_PART_SIZE * MIN_PART_SIZE;
+    }
+
+    private UploadSession load(Long sessionId, Long userId) {
+        UploadSession session = sessionId == null ? null : sessionMapper.selectById(sessionId);
+        if (session == null || !Objects.equals(session.getUserId(), userId)) {
+            throw new ServiceException("会话不存在");
+        }
+        return session;
+    }
+
+    private boolean transition(UploadSession session, UploadSessionStatus from, UploadSessionStatus to) {
+        boolean updated = sessionMapper.update(null, new LambdaUpdateWrapper<UploadSession>()
+            .set(UploadSession::getStatus, to.name())
+            .set(UploadSession::getUpdatedTime, now())
+            .eq(UploadSession::getId, session.getId())
+            .eq(UploadSession::getStatus, from.name())) > 0;
+        if (updated) {
+            session.setStatus(to.name());
+        }
+        return updated;
+    }
+
+    /**
+     * 相对路径，不允许绝对路径、反斜杠与 . / .. 段
+     */
+    private static boolean isSafeFileName(String fileName) {
+        if (StringUtils.isBlank(fileName) || fileName.length() > 500
+            || fileName.startsWith("/") || fileName.contains("\\")) {
+            return false;
+        }
+        for (String segment : fileName.split("/", -1)) {
+            if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalizeETag(String eTag) {
+        return StringUtils.strip(eTag.trim(), "\"").toLowerCase();
+    }
+
+    private static String fileType(String fileName) {
+        String name = StringUtils.substringAfterLast(fileName, "/");
+        return StringUtils.substringAfterLast(name.isEmpty() ? fileName : name, ".").toLowerCase();
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session, String uploadDir) {
+        UploadSessionDTO dto = new UploadSessionDTO();
+        dto.setSessionId(session.getId());
+        dto.setUploadDir(uploadDir);
+        dto.setFileName(session.getFileName());
+        dto.setFileSize(session.getFileSize());
+        dto.setPartSize(session.getPartSize());
+        dto.setPartCount(session.getPartCount());
+        dto.setStatus(session.getStatus());
+        dto.setExpireTime(session.getExpireTime());
+        return dto;
+    }
+
+    private FileInfoDTO toFileInfo(UploadSession session) {
+        FileInfoDTO dto = new FileInfoDTO();
+        dto.setFileUrl(cosUtils.getPublicUrl(session.getObjectKey()));
+        dto.setFileName(session.getFileName());
+        dto.setFileSize(session.getFileSize());
+        dto.setFileType(fileType(session.getFileName()));
+        dto.setCrc64(session.getCrc64());
+        dto.setId(session.getModelFileId());
+        return dto;
+    }
+
+    private static FileInfoDTO toFileInfo(ModelFiles file) {
+        FileInfoDTO dto = new FileInfoDTO();
+        dto.setId(file.getId());
+        dto.setModelId(file.getModelId());
+        dto.setFileUrl(file.getFileUrl());
+        dto.setFileName(file.getFileName());
+        dto.setFileSize(file.getFileSize());
+        dto.setFileType(file.getFileType());
+        dto.setIsPrimary(file.getIsPrimary());
+        dto.setCreatedTime(file.getCreatedTime());
+        dto.setCrc64(file.getCrc64());
+        return dto;
+    }
+
+    private Timestamp expireFrom(Timestamp now) {
+        return new Timestamp(now.getTime() + TimeUnit.SECONDS.toMillis(properties.getExpireSeconds()));
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,218 @@
+package org.dromara.data.tensor;
+
+import org.dromara.data.preview.RangeSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GGUF 文件头解析：元数据键值对与张量信息
+ * <p>
+ * 布局为 “GGUF + 版本 + 张量数 + 键值对数 + 键值对 + 张量信息”，张量数据从对齐到 general.alignment 的位置开始，
+ * 张量信息中的偏移相对于数据区起点。v1 的计数与字符串长度为 u32，v2、v3 为 u64。
+ * 元数据中的长数组（如词表）只记录元素类型与长度，定长元素直接跳过不下载。
+ */
+public final class GgufHeaderReader {
+
+    private static final int MAGIC = 0x46554747;
+
+    private static final int DEFAULT_ALIGNMENT = 32;
+
+    /**
+     * 元数据数组元素数不超过该值时保留内容
+     */
+    private static final int MAX_INLINE_ARRAY = 16;
+
+    private static final int MAX_TENSORS = 1_000_000;
+
+    private static final String[] VALUE_TYPES = {
+        "uint8", "int8", "uint16", "int16", "uint32", "int32", "float32", "bool", "string", "array",
+        "uint64", "int64", "float64"
+    };
+
+    private static final int[] VALUE_SIZES = {1, 1, 2, 2, 4, 4, 4, 1, -1, -1, 8, 8, 8};
+
+    /**
+     * ggml_type 枚举值（ggml.h）→ 类型
+     */
+    private static final Map<Integer, GgmlType> GGML_TYPES = Map.ofEntries(
+        Map.entry(0, new GgmlType("F32", 1, 4)),
+        Map.entry(1, new GgmlType("F16", 1, 2)),
+        Map.entry(2, new GgmlType("Q4_0", 32, 18)),
+        Map.entry(3, new GgmlType("Q4_1", 32, 20)),
+        Map.entry(6, new GgmlType("Q5_0", 32, 22)),
+        Map.entry(7, new GgmlType("Q5_1", 32, 24)),
+        Map.entry(8, new GgmlType("Q8_0", 32, 34)),
+        Map.entry(9, new GgmlType("Q8_1", 32, 36)),
+        Map.entry(10, new GgmlType("Q2_K", 256, 84)),
+        Map.entry(11, new GgmlType("Q3_K", 256, 110)),
+        Map.entry(12, new GgmlType("Q4_K", 256, 144)),
+        Map.entry(13, new GgmlType("Q5_K", 256, 176)),
+        Map.entry(14, new GgmlType("Q6_K", 256, 210)),
+        Map.entry(15, new GgmlType("Q8_K", 256, 292)),
+        Map.entry(16, new GgmlType("IQ2_XXS", 256, 66)),
+        Map.entry(17, new GgmlType("IQ2_XS", 256, 74)),
+        Map.entry(18, new GgmlType("IQ3_XXS", 256, 98)),
+        Map.entry(19, new GgmlType("IQ1_S", 256, 50)),
+        Map.entry(20, new GgmlType("IQ4_NL", 32, 18)),
+        Map.entry(21, new GgmlType("IQ3_S", 256, 110)),
+        Map.entry(22, new GgmlType("IQ2_S", 256, 82)),
+        Map.entry(23, new GgmlType("IQ4_XS", 256, 136)),
+        Map.entry(24, new GgmlType("I8", 1, 1)),
+        Map.entry(25, new GgmlType("I16", 1, 2)),
+        Map.entry(26, new GgmlType("I32", 1, 4)),
+        Map.entry(27, new GgmlType("I64", 1, 8)),
+        Map.entry(28, new GgmlType("F64", 1, 8)),
+        Map.entry(29, new GgmlType("IQ1_M", 256, 56)),
+        Map.entry(30, new GgmlType("BF16", 1, 2)));
+
+    private final RangeCursor cursor;
+    private int version;
+
+    private GgufHeaderReader(RangeCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @param firstChunk     第一次区间读取的字节数
+     * @param maxHeaderBytes 文件头字节数上限
+     */
+    public static TensorHeader read(RangeSource source, long size, int firstChunk, long maxHeaderBytes)
+        throws IOException {
+        return new GgufHeaderReader(new RangeCursor(source, size, firstChunk, maxHeaderBytes)).read();
+    }
+
+    private TensorHeader read() throws IOException {
+        if (cursor.readInt() != MAGIC) {
+            throw new IOException("不是 GGUF 文件");
+        }
+        version = cursor.readInt();
+        if (version < 1 || version > 3) {
+            throw new IOException("不支持的 GGUF 版本: " + version);
+        }
+        long tensorCount = readCount();
+        long kvCount = readCount();
+        if (tensorCount < 0 || tensorCount > MAX_TENSORS || kvCount < 0) {
+            throw new IOException("GGUF 文件头计数无效");
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (long i = 0; i < kvCount; i++) {
+            String key = readString();
+            metadata.put(key, readValue(cursor.readInt()));
+        }
+        long alignment = metadata.get("general.alignment") instanceof Number number
+            ? number.longValue() : DEFAULT_ALIGNMENT;
+        if (alignment <= 0) {
+            alignment = DEFAULT_ALIGNMENT;
+        }
+
+        List<String> names = new ArrayList<>();
+        List<long[]> shapes = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        for (long i = 0; i < tensorCount; i++) {
+            names.add(readString());
+            int dims = cursor.readInt();
+            if (dims < 0 || dims > 8) {
+                throw new IOException("GGUF 张量维度无效: " + dims);
+            }
+            long[] shape = new long[dims];
+            for (int d = 0; d < dims; d++) {
+                shape[d] = readCount();
+            }
+            shapes.add(shape);
+            types.add(cursor.readInt());
+            offsets.add(cursor.readLong());
+        }
+
+        long headerBytes = cursor.position();
+        long dataStart = (headerBytes + alignment - 1) / alignment * alignment;
+        List<TensorInfo> tensors = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            GgmlType type = GGML_TYPES.get(types.get(i));
+            long start = dataStart + offsets.get(i);
+            Long end = null;
+            String dtype = "GGML_" + types.get(i);
+            if (type != null) {
+                dtype = type.name();
+                long elements = new TensorInfo(names.get(i), dtype, shapes.get(i), start, null).numElements();
+                end = start + elements / type.blockSize() * type.typeSize();
+            }
+            tensors.add(new TensorInfo(names.get(i), dtype, shapes.get(i), start, end));
+        }
+        tensors.sort(Comparator.comparingLong(TensorInfo::dataStart));
+        return new TensorHeader("gguf", tensors, metadata, headerBytes);
+    }
+
+    private Object readValue(int type) throws IOException {
+        return switch (type) {
+            case 0 -> cursor.readUnsignedByte();
+            case 1 -> (int) (byte) cursor.readUnsignedByte();
+            case 2 -> readShort() & 0xFFFF;
+            case 3 -> (int) (short) readShort();
+            case 4 -> cursor.readInt() & 0xFFFFFFFFL;
+            case 5 -> cursor.readInt();
+            case 6 -> Float.intBitsToFloat(cursor.readInt());
+            case 7 -> cursor.readUnsignedByte() != 0;
+            case 8 -> readString();
+            case 9 -> readArray();
+            case 10, 11 -> cursor.readLong();
+            case 12 -> Double.longBitsToDouble(cursor.readLong());
+            default -> throw new IOException("未知的 GGUF 元数据类型: " + type);
+        };
+    }
+
+    private Object readArray() throws IOException {
+        int type = cursor.readInt();
+        long length = readCount();
+        if (length < 0) {
+            throw new IOException("GGUF 数组长度无效: " + length);
+        }
+        if (length <= MAX_INLINE_ARRAY) {
+            List<Object> values = new ArrayList<>((int) length);
+            for (long i = 0; i < length; i++) {
+                values.add(readValue(type));
+            }
+            return values;
+        }
+        if (type >= 0 && type < VALUE_SIZES.length && VALUE_SIZES[type] > 0) {
+            cursor.skip(length * VALUE_SIZES[type]);
+        } else if (type == 8) {
+            for (long i = 0; i < length; i++) {
+                cursor.skip(readCount());
+            }
+        } else {
+            for (long i = 0; i < length; i++) {
+                readValue(type);
+            }
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", type >= 0 && type < VALUE_TYPES.length ? VALUE_TYPES[type] : String.valueOf(type));
+        summary.put("length", length);
+        return summary;
+    }
+
+    private int readShort() throws IOException {
+        return cursor.readUnsignedByte() | cursor.readUnsignedByte() << 8;
+    }
+
+    private String readString() throws IOException {
+        return cursor.readString(readCount());
+    }
+
+    private long readCount() throws IOException {
+        return version == 1 ? cursor.readInt() & 0xFFFFFFFFL : cursor.readLong();
+    }
+
+    /**
+     * @param blockSize 每块元素数
+     * @param typeSize  每块字节数
+     */
+    private record GgmlType(String name, int blockSize, int typeSize) {
+    }
+}
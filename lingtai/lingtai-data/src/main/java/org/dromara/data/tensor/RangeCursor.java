@@ -0,0 +1,95 @@
+package org.dromara.data.tensor;
+
+import org.dromara.data.preview.RangeSource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 在区间读取之上的顺序小端读取，按需分段拉取，每段长度翻倍直到 MAX_CHUNK
+ * 跳过的字节不会被下载
+ */
+class RangeCursor {
+
+    private static final int MAX_CHUNK = 4 * 1024 * 1024;
+
+    private final RangeSource source;
+    private final long size;
+    private final long limit;
+    private byte[] chunk = new byte[0];
+    private long chunkStart;
+    private long position;
+    private int nextChunk;
+
+    /**
+     * @param firstChunk 第一段的字节数
+     * @param limit      允许读到的最大偏移，超过视为文件头过大
+     */
+    RangeCursor(RangeSource source, long size, int firstChunk, long limit) {
+        this.source = source;
+        this.size = size;
+        this.nextChunk = firstChunk;
+        this.limit = limit;
+    }
+
+    long position() {
+        return position;
+    }
+
+    void skip(long bytes) throws IOException {
+        if (bytes < 0 || position + bytes > size) {
+            throw new EOFException("文件不完整");
+        }
+        position += bytes;
+    }
+
+    int readUnsignedByte() throws IOException {
+        ensure(1);
+        return chunk[(int) (position++ - chunkStart)] & 0xFF;
+    }
+
+    int readInt() throws IOException {
+        ensure(4);
+        int offset = (int) (position - chunkStart);
+        position += 4;
+        return (chunk[offset] & 0xFF) | (chunk[offset + 1] & 0xFF) << 8
+            | (chunk[offset + 2] & 0xFF) << 16 | (chunk[offset + 3] & 0xFF) << 24;
+    }
+
+    long readLong() throws IOException {
+        long low = readInt() & 0xFFFFFFFFL;
+        long high = readInt() & 0xFFFFFFFFL;
+        return high << 32 | low;
+    }
+
+    String readString(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("字符串长度无效: " + length);
+        }
+        ensure((int) length);
+        String value = new String(chunk, (int) (position - chunkStart), (int) length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > size) {
+            throw new EOFException("文件不完整");
+        }
+        if (position + bytes > limit) {
+            throw new IOException("文件头超过 " + limit + " 字节上限");
+        }
+        if (position >= chunkStart && position + bytes <= chunkStart + chunk.length) {
+            return;
+        }
+        long end = Math.min(size, position + Math.max(bytes, nextChunk));
+        byte[] data = source.read(position, end - 1);
+        if (data.length < bytes) {
+            throw new EOFException("文件不完整");
+        }
+        chunk = data;
+        chunkStart = position;
+        nextChunk = Math.min(MAX_CHUNK, nextChunk * 2);
+    }
+}
@@ -0,0 +1,90 @@
+package org.dromara.data.tensor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.data.preview.RangeSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * safetensors 文件头解析
+ * <p>
+ * 文件以 8 字节小端 u64 的头长度 N 开始，随后是 N 字节 JSON：
+ * 每个张量为 {"dtype", "shape", "data_offsets": [begin, end]}，偏移相对于头之后的数据区；
+ * 可选的 "__metadata__" 为字符串键值对。先读取 firstChunk 字节，头更长时再补读一次。
+ */
+public final class SafetensorsHeaderReader {
+
+    private static final String METADATA_KEY = "__metadata__";
+
+    private SafetensorsHeaderReader() {
+    }
+
+    public static TensorHeader read(RangeSource source, long size, int firstChunk, long maxHeaderBytes)
+        throws IOException {
+        if (size < 8) {
+            throw new IOException("不是 safetensors 文件");
+        }
+        byte[] head = source.read(0, Math.min(size, firstChunk) - 1);
+        if (head.length < 8) {
+            throw new IOException("文件不完整");
+        }
+        long length = ByteBuffer.wrap(head, 0, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        if (length <= 0 || length > size - 8 || length > maxHeaderBytes) {
+            throw new IOException("safetensors 头长度无效: " + length);
+        }
+
+        JsonNode root;
+        if (8 + length <= head.length) {
+            root = JsonUtils.getObjectMapper().readTree(head, 8, (int) length);
+        } else {
+            byte[] json = source.read(8, 8 + length - 1);
+            if (json.length < length) {
+                throw new IOException("文件不完整");
+            }
+            root = JsonUtils.getObjectMapper().readTree(json);
+        }
+        if (root == null || !root.isObject()) {
+            throw new IOException("safetensors 头不是 JSON 对象");
+        }
+
+        long dataStart = 8 + length;
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        List<TensorInfo> tensors = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode node = field.getValue();
+            if (METADATA_KEY.equals(field.getKey())) {
+                node.fields().forEachRemaining(entry -> metadata.put(entry.getKey(), entry.getValue().asText()));
+                continue;
+            }
+            JsonNode shapeNode = node.path("shape");
+            JsonNode offsets = node.path("data_offsets");
+            if (!node.path("dtype").isTextual() || !shapeNode.isArray() || offsets.size() != 2) {
+                throw new IOException("张量 " + field.getKey() + " 的描述不完整");
+            }
+            long[] shape = new long[shapeNode.size()];
+            for (int i = 0; i < shape.length; i++) {
+                shape[i] = shapeNode.get(i).asLong();
+            }
+            long begin = offsets.get(0).asLong();
+            long end = offsets.get(1).asLong();
+            if (begin < 0 || end < begin || dataStart + end > size) {
+                throw new IOException("张量 " + field.getKey() + " 的数据偏移超出文件范围");
+            }
+            tensors.add(new TensorInfo(field.getKey(), node.get("dtype").asText(), shape,
+                dataStart + begin, dataStart + end));
+        }
+        tensors.sort(Comparator.comparingLong(TensorInfo::dataStart));
+        return new TensorHeader("safetensors", tensors, metadata, dataStart);
+    }
+}
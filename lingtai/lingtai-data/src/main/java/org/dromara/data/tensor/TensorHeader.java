@@ -0,0 +1,23 @@
+package org.dromara.data.tensor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 模型文件头的解析结果
+ *
+ * @param format      文件格式：safetensors、gguf
+ * @param tensors     张量列表，按数据偏移排序
+ * @param metadata    文件头元数据
+ * @param headerBytes 文件头字节数
+ */
+public record TensorHeader(String format, List<TensorInfo> tensors, Map<String, Object> metadata, long headerBytes) {
+
+    public long parameterCount() {
+        long count = 0;
+        for (TensorInfo tensor : tensors) {
+            count = Math.addExact(count, tensor.numElements());
+        }
+        return count;
+    }
+}
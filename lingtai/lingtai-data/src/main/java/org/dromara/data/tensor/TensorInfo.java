@@ -0,0 +1,24 @@
+package org.dromara.data.tensor;
+
+/**
+ * 文件头中的一个张量
+ *
+ * @param name      张量名
+ * @param dtype     数据类型
+ * @param shape     形状
+ * @param dataStart 数据起始偏移（文件内绝对偏移）
+ * @param dataEnd   数据结束偏移（不含），无法计算时为 null
+ */
+public record TensorInfo(String name, String dtype, long[] shape, long dataStart, Long dataEnd) {
+
+    /**
+     * 元素数，标量为 1
+     */
+    public long numElements() {
+        long count = 1;
+        for (long dim : shape) {
+            count = Math.multiplyExact(count, dim);
+        }
+        return count;
+    }
+}
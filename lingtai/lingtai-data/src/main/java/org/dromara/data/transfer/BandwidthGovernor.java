@@ -0,0 +1,358 @@
+package org.dromara.data.transfer;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.redis.utils.RedisUtils;
+import org.dromara.data.entity.dto.BandwidthLimitDTO;
+import org.dromara.data.entity.dto.BandwidthStatsDTO;
+import org.dromara.data.properties.BandwidthProperties;
+import org.dromara.data.scheduler.ImportScheduler;
+import org.dromara.data.scheduler.ImportTask;
+import org.dromara.data.transfer.TrafficClass.Direction;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 全进程传输带宽调度
+ * <p>
+ * 每个方向一棵三级令牌桶：全局 -> 租户 -> 用户。每次读写按字节数同时向三级预约额度，
+ * 等待其中最长的一级，因此任何一级都不会超速；限速为 0 的级别不建桶。
+ * 所有进出对象存储和源站的流都经 {@link #throttle} 包装，吞吐按 {@link TrafficClass} 统计。
+ * <p>
+ * 限速取值顺序：运行时覆盖（按键 -> 级别默认） -> 配置（按键 -> 级别默认）。
+ * 运行时覆盖通过 Redis 广播到所有实例，但只在内存中保存，重启后以配置为准。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BandwidthGovernor implements ApplicationRunner {
+
+    private static final String LIMIT_TOPIC = "lingtai:transfer:bandwidth";
+
+    /**
+     * 运行时覆盖中表示级别默认值的键
+     */
+    private static final String DEFAULT_KEY = "*";
+
+    private static final ThreadLocal<TransferSubject> BOUND = new ThreadLocal<>();
+
+    public enum Level {
+        GLOBAL, TENANT, USER
+    }
+
+    private final BandwidthProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final Map<Direction, TokenBucket> globalBuckets = new EnumMap<>(Map.of(
+        Direction.INBOUND, new TokenBucket(),
+        Direction.OUTBOUND, new TokenBucket()));
+
+    /**
+     * direction:level:key -> 令牌桶
+     */
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * direction:level:key -> 运行时覆盖的限速
+     */
+    private final Map<String, Long> overrides = new ConcurrentHashMap<>();
+
+    private final Map<TrafficClass, ClassStats> stats = new EnumMap<>(TrafficClass.class);
+
+    @PostConstruct
+    public void init() {
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            stats.put(trafficClass, new ClassStats());
+        }
+        long interval = Math.max(1, properties.getSampleIntervalSeconds());
+        scheduledExecutorService.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        RedisUtils.subscribe(LIMIT_TOPIC, BandwidthLimitDTO.class, this::applyLimit);
+        log.info("初始化传输带宽调度成功");
+    }
+
+    /**
+     * 将当前线程的传输归属到指定租户和用户，直到返回的绑定被关闭
+     * <p>
+     * 用于在导入调度线程之外（如快照文件传输线程）发起的传输
+     */
+    public static Binding bind(TransferSubject subject) {
+        TransferSubject previous = BOUND.get();
+        BOUND.set(subject);
+        return () -> {
+            if (previous == null) {
+                BOUND.remove();
+            } else {
+                BOUND.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 当前线程传输的归属方：显式绑定 -> 正在执行的导入任务 -> 登录用户
+     */
+    public TransferSubject currentSubject() {
+        TransferSubject bound = BOUND.get();
+        if (bound != null) {
+            return bound;
+        }
+        ImportTask task = ImportScheduler.current();
+        if (task != null) {
+            return new TransferSubject(task.getTenantId(), task.getUserId());
+        }
+        Long userId = ImportScheduler.currentUserId(null);
+        return userId == null ? TransferSubject.ANONYMOUS : new TransferSubject(ImportScheduler.currentTenantId(), userId);
+    }
+
+    /**
+     * 包装输入流，读取的字节计入限速与吞吐统计
+     */
+    public InputStream throttle(InputStream input, TrafficClass trafficClass, TransferSubject subject) {
+        return new ThrottledInputStream(input, this, trafficClass, subject);
+    }
+
+    /**
+     * 包装输出流，写出的字节计入限速与吞吐统计
+     */
+    public OutputStream throttle(OutputStream output, TrafficClass trafficClass, TransferSubject subject) {
+        return new ThrottledOutputStream(output, this, trafficClass, subject);
+    }
+
+    /**
+     * 为已传输或即将传输的字节申请额度，超速时阻塞到额度可用
+     *
+     * @throws InterruptedException 等待期间被中断（如导入任务被取消）
+     */
+    public void acquire(TrafficClass trafficClass, TransferSubject subject, long bytes) throws InterruptedException {
+        if (bytes <= 0) {
+            return;
+        }
+        ClassStats classStats = stats.get(trafficClass);
+        classStats.bytes.add(bytes);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Direction direction = trafficClass.getDirection();
+        long now = System.nanoTime();
+        long burstNanos = (long) (Math.max(0, properties.getBurstSeconds()) * 1_000_000_000d);
+
+        long wait = globalBuckets.get(direction).reserve(bytes, limit(direction, Level.GLOBAL, null), burstNanos, now);
+        if (subject.tenantId() != null) {
+            wait = Math.max(wait, reserve(direction, Level.TENANT, subject.tenantId(), bytes, burstNanos, now));
+        }
+        if (subject.userId() != null) {
+            wait = Math.max(wait, reserve(direction, Level.USER, String.valueOf(subject.userId()), bytes, burstNanos, now));
+        }
+        if (wait > 0) {
+            classStats.throttledNanos.add(wait);
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    int chunkBytes() {
+        return Math.max(1024, properties.getChunkBytes());
+    }
+
+    void streamOpened(TrafficClass trafficClass) {
+        stats.get(trafficClass).activeStreams.incrementAndGet();
+    }
+
+    void streamClosed(TrafficClass trafficClass) {
+        stats.get(trafficClass).activeStreams.decrementAndGet();
+    }
+
+    private long reserve(Direction direction, Level level, String key, long bytes, long burstNanos, long now) {
+        long rate = limit(direction, level, key);
+        if (rate <= 0) {
+            return 0;
+        }
+        return buckets.computeIfAbsent(bucketKey(direction, level, key), k -> new TokenBucket())
+            .reserve(bytes, rate, burstNanos, now);
+    }
+
+    /**
+     * 生效的限速（字节/秒），0 表示不限
+     */
+    public long limit(Direction direction, Level level, String key) {
+        Long override = overrides.get(bucketKey(direction, level, key));
+        if (override == null && level != Level.GLOBAL) {
+            override = overrides.get(bucketKey(direction, level, null));
+        }
+        if (override != null) {
+            return override;
+        }
+        BandwidthProperties.Limits limits = direction == Direction.INBOUND
+            ? properties.getInbound() : properties.getOutbound();
+        return switch (level) {
+            case GLOBAL -> limits.getGlobal();
+            case TENANT -> limits.getTenants().getOrDefault(key, limits.getPerTenant());
+            case USER -> limits.getUsers().getOrDefault(key, limits.getPerUser());
+        };
+    }
+
+    /**
+     * 设置运行时限速并广播到所有实例
+     */
+    public void setLimit(BandwidthLimitDTO limit) {
+        parseDirection(limit.getDirection());
+        Level level = parseLevel(limit.getLevel());
+        if (level == Level.GLOBAL && StringUtils.isNotBlank(limit.getKey())) {
+            throw new ServiceException("全局限速不需要指定 key");
+        }
+        if (limit.getBytesPerSecond() != null && limit.getBytesPerSecond() < 0) {
+            throw new ServiceException("限速不能为负数");
+        }
+        applyLimit(limit);
+        RedisUtils.publish(LIMIT_TOPIC, limit);
+    }
+
+    /**
+     * 当前生效的全局与级别默认限速，以及所有运行时覆盖
+     */
+    public List<BandwidthLimitDTO> listLimits() {
+        List<BandwidthLimitDTO> limits = new ArrayList<>();
+        for (Direction direction : Direction.values()) {
+            for (Level level : Level.values()) {
+                limits.add(toLimit(direction, level, null, limit(direction, level, null)));
+            }
+        }
+        overrides.forEach((bucketKey, rate) -> {
+            String[] parts = bucketKey.split(":", 3);
+            if (!DEFAULT_KEY.equals(parts[2])) {
+                limits.add(toLimit(Direction.valueOf(parts[0]), Level.valueOf(parts[1]), parts[2], rate));
+            }
+        });
+        return limits;
+    }
+
+    /**
+     * 各流量分类在本实例上的吞吐
+     */
+    public List<BandwidthStatsDTO> listStats() {
+        List<BandwidthStatsDTO> result = new ArrayList<>();
+        stats.forEach((trafficClass, classStats) -> {
+            BandwidthStatsDTO dto = new BandwidthStatsDTO();
+            dto.setTrafficClass(trafficClass.name());
+            dto.setDirection(trafficClass.getDirection().name());
+            dto.setTotalBytes(classStats.bytes.sum());
+            dto.setBytesPerSecond(classStats.bytesPerSecond);
+            dto.setThrottledMillis(TimeUnit.NANOSECONDS.toMillis(classStats.throttledNanos.sum()));
+            dto.setActiveStreams(classStats.activeStreams.get());
+            result.add(dto);
+        });
+        return result;
+    }
+
+    private void applyLimit(BandwidthLimitDTO limit) {
+        try {
+            String bucketKey = bucketKey(parseDirection(limit.getDirection()), parseLevel(limit.getLevel()), limit.getKey());
+            if (limit.getBytesPerSecond() == null) {
+                overrides.remove(bucketKey);
+            } else {
+                overrides.put(bucketKey, limit.getBytesPerSecond());
+            }
+            log.info("[BANDWIDTH] 更新限速 {} = {}", bucketKey,
+                limit.getBytesPerSecond() == null ? "配置值" : limit.getBytesPerSecond() + " B/s");
+        } catch (Exception e) {
+            log.warn("[BANDWIDTH] 忽略无效的限速设置: {}", limit, e);
+        }
+    }
+
+    /**
+     * 采样吞吐并回收空闲的租户/用户级令牌桶
+     */
+    void sample() {
+        try {
+            long now = System.nanoTime();
+            stats.forEach((trafficClass, classStats) -> {
+                long total = classStats.bytes.sum();
+                long elapsed = now - classStats.lastSampleNanos;
+                if (elapsed > 0) {
+                    classStats.bytesPerSecond = (long) ((total - classStats.lastTotal) * 1_000_000_000d / elapsed);
+                }
+                classStats.lastTotal = total;
+                classStats.lastSampleNanos = now;
+                if (classStats.bytesPerSecond > 0) {
+                    log.debug("[BANDWIDTH] {} 吞吐 {} B/s，活动流 {}", trafficClass, classStats.bytesPerSecond,
+                        classStats.activeStreams.get());
+                }
+            });
+            long idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleEvictSeconds());
+            buckets.values().removeIf(bucket -> bucket.isIdle(idleNanos, now));
+        } catch (Exception e) {
+            log.error("[BANDWIDTH] 吞吐采样失败", e);
+        }
+    }
+
+    private static String bucketKey(Direction direction, Level level, String key) {
+        return direction.name() + ":" + level.name() + ":" + (StringUtils.isBlank(key) ? DEFAULT_KEY : key);
+    }
+
+    private static BandwidthLimitDTO toLimit(Direction direction, Level level, String key, long rate) {
+        BandwidthLimitDTO dto = new BandwidthLimitDTO();
+        dto.setDirection(direction.name());
+        dto.setLevel(level.name());
+        dto.setKey(key);
+        dto.setBytesPerSecond(rate);
+        return dto;
+    }
+
+    private static Direction parseDirection(String direction) {
+        try {
+            return Direction.valueOf(StringUtils.upperCase(direction));
+        } catch (Exception e) {
+            throw new ServiceException("无效的方向: " + direction);
+        }
+    }
+
+    private static Level parseLevel(String level) {
+        try {
+            return Level.valueOf(StringUtils.upperCase(level));
+        } catch (Exception e) {
+            throw new ServiceException("无效的限速级别: " + level);
+        }
+    }
+
+    /**
+     * 传输归属绑定，关闭时恢复之前的绑定
+     */
+    public interface Binding extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static class ClassStats {
+
+        final LongAdder bytes = new LongAdder();
+
+        final LongAdder throttledNanos = new LongAdder();
+
+        final AtomicInteger activeStreams = new AtomicInteger();
+
+        volatile long bytesPerSecond;
+
+        long lastTotal;
+
+        long lastSampleNanos = System.nanoTime();
+    }
+}
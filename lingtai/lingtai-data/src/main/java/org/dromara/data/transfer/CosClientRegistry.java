@@ -0,0 +1,272 @@
+package org.dromara.data.transfer;
+
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.ClientConfig;
+import com.qcloud.cos.auth.BasicCOSCredentials;
+import com.qcloud.cos.region.Region;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.properties.TransferProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * COS 客户端注册表
+ * <p>
+ * 按 region/bucket/secretId 缓存长生命周期的 {@link COSClient}，复用其 HTTP 连接池与 TLS 会话。
+ * 与 OssFactory 一致：配置变化时重建客户端；旧客户端被标记为退役，最后一个租约归还后才真正 shutdown，
+ * 因此不会打断仍在进行中的分块上传。长时间空闲且无人持有的客户端由后台任务回收。
+ * <p>
+ * 使用方式：
+ * <pre>
+ * try (CosClientRegistry.Lease lease = registry.lease(region, bucket, secretId, secretKey)) {
+ *     lease.client().putObject(...);
+ * }
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CosClientRegistry {
+
+    private final Map<String, ClientHolder> clientCache = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final TransferProperties properties;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(this::evictIdleClients, 60L, 60L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 租用一个客户端，用完必须 close 归还（不会关闭底层客户端）
+     */
+    public Lease lease(String region, String bucket, String secretId, String secretKey) {
+        ClientSpec spec = new ClientSpec(region, bucket, secretId, secretKey, properties.getClient());
+        String key = region + ":" + bucket + ":" + secretId;
+        while (true) {
+            ClientHolder holder = clientCache.get(key);
+            // 客户端不存在或配置不相同则重新构建
+            if (holder == null || !holder.spec.equals(spec)) {
+                lock.lock();
+                try {
+                    holder = clientCache.get(key);
+                    if (holder == null || !holder.spec.equals(spec)) {
+                        ClientHolder fresh = new ClientHolder(key, spec, buildClient(spec));
+                        clientCache.put(key, fresh);
+                        createdCount.increment();
+                        log.info("创建COS客户端 key => {}", key);
+                        if (holder != null) {
+                            log.info("COS客户端配置变更，退役旧客户端 key => {}", key);
+                            holder.retire();
+                        }
+                        holder = fresh;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // 租约获取失败说明客户端恰好被回收，重新取
+            if (holder.tryAcquire()) {
+                return new Lease(holder);
+            }
+        }
+    }
+
+    /**
+     * 回收长时间空闲且无人持有的客户端
+     */
+    void evictIdleClients() {
+        long idleMillis = TimeUnit.SECONDS.toMillis(properties.getClient().getIdleEvictSeconds());
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            clientCache.entrySet().removeIf(entry -> {
+                ClientHolder holder = entry.getValue();
+                if (holder.leases.get() == 0 && now - holder.lastUsedTime.get() > idleMillis) {
+                    log.info("回收空闲COS客户端 key => {}", entry.getKey());
+                    holder.retire();
+                    evictedCount.increment();
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 连接池指标
+     */
+    public List<ClientMetrics> getMetrics() {
+        List<ClientMetrics> metrics = new ArrayList<>();
+        for (ClientHolder holder : clientCache.values()) {
+            ClientMetrics m = new ClientMetrics();
+            m.setKey(holder.key);
+            m.setRegion(holder.spec.region());
+            m.setBucket(holder.spec.bucket());
+            m.setMaxConnections(holder.spec.maxConnections());
+            m.setActiveLeases(Math.max(0, holder.leases.get()));
+            m.setTotalLeases(holder.totalLeases.sum());
+            m.setCreatedTime(holder.createdTime);
+            m.setLastUsedTime(holder.lastUsedTime.get());
+            m.setClientsCreated(createdCount.sum());
+            m.setClientsEvicted(evictedCount.sum());
+            metrics.add(m);
+        }
+        return metrics;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        lock.lock();
+        try {
+            clientCache.values().forEach(holder -> holder.client.shutdown());
+            clientCache.clear();
+            log.info("====关闭所有COS客户端====");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private COSClient buildClient(ClientSpec spec) {
+        ClientConfig clientConfig = new ClientConfig(new Region(spec.region()));
+        clientConfig.setMaxConnectionsCount(spec.maxConnections());
+        clientConfig.setConnectionTimeout(spec.connectionTimeout());
+        clientConfig.setSocketTimeout(spec.socketTimeout());
+        clientConfig.setConnectionRequestTimeout(spec.connectionRequestTimeout());
+        clientConfig.setIdleConnectionAlive(spec.idleConnectionAlive());
+        return new COSClient(new BasicCOSCredentials(spec.secretId(), spec.secretKey()), clientConfig);
+    }
+
+    /**
+     * 客户端配置快照，任一字段变化都会触发重建
+     */
+    private record ClientSpec(String region, String bucket, String secretId, String secretKey,
+                              int maxConnections, int connectionTimeout, int socketTimeout,
+                              int connectionRequestTimeout, int idleConnectionAlive) {
+
+        ClientSpec(String region, String bucket, String secretId, String secretKey, TransferProperties.Client client) {
+            this(region, bucket, secretId, secretKey, client.getMaxConnections(), client.getConnectionTimeout(),
+                client.getSocketTimeout(), client.getConnectionRequestTimeout(), client.getIdleConnectionAlive());
+        }
+
+        @Override
+        public String toString() {
+            // 避免密钥出现在日志中
+            return region + ":" + bucket + ":" + secretId;
+        }
+    }
+
+    private static final class ClientHolder {
+
+        private final String key;
+        private final ClientSpec spec;
+        private final COSClient client;
+        private final long createdTime = System.currentTimeMillis();
+        private final AtomicLong lastUsedTime = new AtomicLong(createdTime);
+        private final LongAdder totalLeases = new LongAdder();
+        /**
+         * 当前租约数，-1 表示已关闭
+         */
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile boolean retired;
+
+        private ClientHolder(String key, ClientSpec spec, COSClient client) {
+            this.key = key;
+            this.spec = spec;
+            this.client = client;
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int n = leases.get();
+                if (n < 0) {
+                    return false;
+                }
+                if (leases.compareAndSet(n, n + 1)) {
+                    totalLeases.increment();
+                    lastUsedTime.set(System.currentTimeMillis());
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            lastUsedTime.set(System.currentTimeMillis());
+            if (leases.decrementAndGet() == 0 && retired) {
+                closeIfIdle();
+            }
+        }
+
+        private void retire() {
+            retired = true;
+            closeIfIdle();
+        }
+
+        private void closeIfIdle() {
+            if (leases.compareAndSet(0, -1)) {
+                client.shutdown();
+                log.info("COS客户端已关闭 key => {}", key);
+            }
+        }
+    }
+
+    /**
+     * 客户端租约
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final ClientHolder holder;
+        private boolean closed;
+
+        private Lease(ClientHolder holder) {
+            this.holder = holder;
+        }
+
+        public COSClient client() {
+            return holder.client;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                holder.release();
+            }
+        }
+    }
+
+    @Data
+    public static class ClientMetrics {
+        private String key;
+        private String region;
+        private String bucket;
+        private Integer maxConnections;
+        private Integer activeLeases;
+        private Long totalLeases;
+        private Long createdTime;
+        private Long lastUsedTime;
+        private Long clientsCreated;
+        private Long clientsEvicted;
+    }
+}
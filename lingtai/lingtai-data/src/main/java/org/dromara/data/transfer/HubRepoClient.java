@@ -0,0 +1,124 @@
+package org.dromara.data.transfer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.data.properties.TransferProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * HuggingFace Hub 仓库访问
+ * <p>
+ * 通过 tree 接口递归列出某个 revision 下的全部文件（含大小），并生成 resolve 下载地址。
+ * Hub 地址由 lingtai.transfer.hub-endpoint 配置，可替换为镜像站或任意按相同路径提供文件的 HTTP 服务。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HubRepoClient {
+
+    private static final String USER_AGENT = "EdgeAI-Model-Importer/1.0";
+
+    /**
+     * Link: <https://huggingface.co/api/...&cursor=xxx>; rel="next"
+     */
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"next\"");
+
+    private final TransferProperties properties;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofSeconds(15))
+        .build();
+
+    /**
+     * 列出仓库某个 revision 下的全部文件（不含目录），自动翻页
+     */
+    public List<HubRepoFile> listFiles(String repoId, String revision) throws IOException, InterruptedException {
+        String url = endpoint() + "/api/models/" + repoId + "/tree/" + encode(revision) + "?recursive=true";
+        List<HubRepoFile> files = new ArrayList<>();
+        while (url != null) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(properties.getSourceReadTimeout()))
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/json")
+                .GET();
+            if (StringUtils.isNotBlank(properties.getHubToken())) {
+                builder.header("Authorization", "Bearer " + properties.getHubToken());
+            }
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("获取仓库文件列表失败，repo=" + repoId + ", revision=" + revision
+                    + ", HTTP 状态码: " + response.statusCode());
+            }
+            List<HubRepoFile> page = JsonUtils.parseArray(response.body(), HubRepoFile.class);
+            page.stream().filter(file -> "file".equals(file.getType())).forEach(files::add);
+            url = response.headers().firstValue("Link").map(HubRepoClient::nextLink).orElse(null);
+        }
+        log.info("[IMPORT] 仓库 {}@{} 共 {} 个文件", repoId, revision, files.size());
+        return files;
+    }
+
+    /**
+     * 仓库文件的下载地址
+     */
+    public String resolveUrl(String repoId, String revision, String path) {
+        String encodedPath = Arrays.stream(path.split("/"))
+            .map(HubRepoClient::encode)
+            .collect(Collectors.joining("/"));
+        return endpoint() + "/" + repoId + "/resolve/" + encode(revision) + "/" + encodedPath;
+    }
+
+    /**
+     * 按 glob 过滤文件路径，语义与 huggingface_hub 的 allow_patterns / ignore_patterns 一致：
+     * allow 为空表示全部允许，命中任一 ignore 即排除；{@code *} 可跨目录匹配
+     */
+    public static boolean matches(String path, List<String> allowPatterns, List<String> ignorePatterns) {
+        if (allowPatterns != null && !allowPatterns.isEmpty()
+            && allowPatterns.stream().noneMatch(glob -> globMatches(glob, path))) {
+            return false;
+        }
+        return ignorePatterns == null || ignorePatterns.stream().noneMatch(glob -> globMatches(glob, path));
+    }
+
+    static boolean globMatches(String glob, String path) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.trim().toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.matches(regex.toString(), path);
+    }
+
+    private String endpoint() {
+        return StringUtils.removeEnd(properties.getHubEndpoint(), "/");
+    }
+
+    private static String nextLink(String header) {
+        Matcher matcher = NEXT_LINK.matcher(header);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
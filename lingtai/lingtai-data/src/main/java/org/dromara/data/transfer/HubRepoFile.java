@@ -0,0 +1,62 @@
+package org.dromara.data.transfer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * HuggingFace 仓库中的一个条目（/api/models/{repo}/tree/{revision} 的返回项）
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class HubRepoFile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 条目类型：file, directory
+     */
+    private String type;
+
+    /**
+     * 仓库内相对路径
+     */
+    private String path;
+
+    /**
+     * 文件大小（字节），LFS 文件为实际内容大小
+     */
+    private Long size;
+
+    /**
+     * git blob id
+     */
+    private String oid;
+
+    /**
+     * LFS 信息，仅 LFS 托管的大文件有
+     */
+    private Lfs lfs;
+
+    /**
+     * 内容 SHA-256，仅 LFS 文件可预知
+     */
+    public String contentSha256() {
+        return lfs == null ? null : lfs.getOid();
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Lfs implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 内容 SHA-256
+         */
+        private String oid;
+
+        private Long size;
+    }
+}
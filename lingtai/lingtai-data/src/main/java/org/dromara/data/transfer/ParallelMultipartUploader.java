@@ -0,0 +1,349 @@
+package org.dromara.data.transfer;
+
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.exception.CosServiceException;
+import com.qcloud.cos.model.*;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.properties.TransferProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * 流水线式分块上传引擎
+ * <p>
+ * 调用线程作为唯一的读取者，从 {@link PartBufferPool} 借用缓冲区按顺序填充分块，
+ * 填满后交给 cosPartExecutor 并发上传，单个任务最多 partConcurrency 个分块在途。
+ * 分块完成即归还缓冲区并回调进度，ETag 按分块号有序收集，单个分块失败按配置重试，
+ * 最终失败则等待在途分块结束后 Abort 整个分块上传。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParallelMultipartUploader {
+
+    /**
+     * COS 单个分块上传任务的最大分块数
+     */
+    public static final int MAX_PART_COUNT = 10000;
+
+    private final PartBufferPool bufferPool;
+    private final TransferProperties properties;
+    private final BandwidthGovernor bandwidthGovernor;
+
+    @Resource(name = "cosPartExecutor")
+    private Executor partExecutor;
+
+    /**
+     * 将输入流以分块上传方式写入 COS，方法返回时上传已完成（或已 Abort）
+     *
+     * @param cosClient        COS 客户端
+     * @param bucket           存储桶
+     * @param key              对象键
+     * @param input            数据源，由本方法负责关闭
+     * @param totalSize        数据总大小，未知时传 -1
+     * @param progressCallback 已上传字节数回调（单调递增），可为 null
+     * @param trafficClass     上传流量分类，限速归属取调用线程的 {@link BandwidthGovernor#currentSubject()}
+     * @return 完成分块上传的响应，含对象键与 COS 计算的 CRC64
+     */
+    public CompleteMultipartUploadResult upload(COSClient cosClient, String bucket, String key, InputStream input,
+                         long totalSize, LongConsumer progressCallback, TrafficClass trafficClass) {
+        TransferSubject subject = bandwidthGovernor.currentSubject();
+        int partSize = bufferPool.getBufferSize();
+        if (totalSize > 0 && (totalSize + partSize - 1) / partSize > MAX_PART_COUNT) {
+            closeQuietly(input);
+            throw new IllegalArgumentException("文件过大，分块数超过 " + MAX_PART_COUNT
+                + "，请调大 lingtai.transfer.part-size");
+        }
+
+        String uploadId = null;
+        int concurrency = Math.max(1, properties.getPartConcurrency());
+        Semaphore inFlight = new Semaphore(concurrency);
+        Map<Integer, PartETag> partETags = new ConcurrentSkipListMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong uploadedBytes = new AtomicLong();
+        AtomicLong reportedBytes = new AtomicLong();
+
+        try {
+            // 1. 初始化分块上传
+            uploadId = initiate(cosClient, bucket, key);
+
+            // 2. 顺序读取、并发上传
+            ReadableByteChannel channel = Channels.newChannel(input);
+            int partNumber = 1;
+            boolean eof = false;
+            while (!eof && failure.get() == null) {
+                inFlight.acquire();
+                ByteBuffer buffer;
+                try {
+                    buffer = bufferPool.acquire();
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                try {
+                    eof = fill(channel, buffer);
+                } catch (IOException e) {
+                    bufferPool.release(buffer);
+                    inFlight.release();
+                    throw e;
+                }
+                buffer.flip();
+                // 空流也至少上传一个空分块，否则无法完成分块上传
+                if (!buffer.hasRemaining() && partNumber > 1) {
+                    bufferPool.release(buffer);
+                    inFlight.release();
+                    break;
+                }
+                if (partNumber > MAX_PART_COUNT) {
+                    bufferPool.release(buffer);
+                    inFlight.release();
+                    throw new IllegalStateException("分块数超过 " + MAX_PART_COUNT + "，请调大 lingtai.transfer.part-size");
+                }
+
+                final int currentPart = partNumber++;
+                final String currentUploadId = uploadId;
+                try {
+                    partExecutor.execute(() -> {
+                        try {
+                            if (failure.get() != null) {
+                                return;
+                            }
+                            int size = buffer.remaining();
+                            PartETag eTag = uploadPartWithRetry(cosClient, bucket, key, currentUploadId, currentPart, buffer,
+                                trafficClass, subject);
+                            partETags.put(currentPart, eTag);
+                            long uploaded = uploadedBytes.addAndGet(size);
+                            reportProgress(progressCallback, reportedBytes, uploaded);
+                            log.debug("分块 {} 上传成功，已上传 {} / {} 字节", currentPart, uploaded, totalSize);
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            bufferPool.release(buffer);
+                            inFlight.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    bufferPool.release(buffer);
+                    inFlight.release();
+                    throw e;
+                }
+            }
+
+            // 3. 等待所有在途分块结束
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+            if (failure.get() != null) {
+                throw new IllegalStateException("分块上传失败: " + failure.get().getMessage(), failure.get());
+            }
+
+            // 4. 按分块号顺序完成分块上传
+            CompleteMultipartUploadResult result = complete(cosClient, bucket, key, uploadId,
+                new ArrayList<>(partETags.values()));
+            log.info("分块上传完成，key={}, 总大小={} 字节", key, uploadedBytes.get());
+            return result;
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            failure.compareAndSet(null, e);
+            // 等待在途分块结束后再 Abort，避免 Abort 之后仍有分块写入
+            inFlight.acquireUninterruptibly(concurrency);
+            inFlight.release(concurrency);
+            abortQuietly(cosClient, bucket, key, uploadId);
+            throw new RuntimeException("COS 分块上传失败: " + e.getMessage(), e);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    /**
+     * 初始化分块上传
+     *
+     * @return uploadId
+     */
+    public String initiate(COSClient cosClient, String bucket, String key) {
+        InitiateMultipartUploadRequest initRequest = new InitiateMultipartUploadRequest(bucket, key);
+        initRequest.setCannedACL(CannedAccessControlList.PublicRead);
+        String uploadId = cosClient.initiateMultipartUpload(initRequest).getUploadId();
+        log.info("初始化分块上传，key={}, UploadId={}, 并发={}", key, uploadId, properties.getPartConcurrency());
+        return uploadId;
+    }
+
+    /**
+     * 完成分块上传，partETags 必须按分块号升序
+     */
+    public CompleteMultipartUploadResult complete(COSClient cosClient, String bucket, String key,
+                                                  String uploadId, List<PartETag> partETags) {
+        return cosClient.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+    }
+
+    /**
+     * 查询分块上传在 COS 上已存在的分块
+     *
+     * @return 分块号 -> PartETag，分块上传不存在（已完成或已 Abort）时返回 null
+     */
+    public Map<Integer, PartETag> listUploadedParts(COSClient cosClient, String bucket, String key, String uploadId) {
+        Map<Integer, PartETag> parts = new HashMap<>();
+        ListPartsRequest request = new ListPartsRequest(bucket, key, uploadId);
+        try {
+            PartListing listing;
+            do {
+                listing = cosClient.listParts(request);
+                for (PartSummary part : listing.getParts()) {
+                    parts.put(part.getPartNumber(), new PartETag(part.getPartNumber(), part.getETag()));
+                }
+                request.setPartNumberMarker(listing.getNextPartNumberMarker());
+            } while (listing.isTruncated());
+        } catch (CosServiceException e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+        return parts;
+    }
+
+    /**
+     * 读满缓冲区或读到流末尾
+     *
+     * @return 是否已到达流末尾
+     */
+    private boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 上传单个分块，失败按指数退避重试；每次重试都从缓冲区副本重新读取
+     * <p>
+     * 发送的字节经 {@link BandwidthGovernor} 限速，重试重新发送的字节同样计入
+     */
+    public PartETag uploadPartWithRetry(COSClient cosClient, String bucket, String key, String uploadId,
+                                 int partNumber, ByteBuffer buffer, TrafficClass trafficClass,
+                                 TransferSubject subject) throws InterruptedException {
+        int maxRetries = Math.max(0, properties.getPartMaxRetries());
+        for (int attempt = 0; ; attempt++) {
+            ByteBuffer data = buffer.duplicate();
+            UploadPartRequest request = new UploadPartRequest();
+            request.setBucketName(bucket);
+            request.setKey(key);
+            request.setUploadId(uploadId);
+            request.setPartNumber(partNumber);
+            request.setPartSize(data.remaining());
+            InputStream throttled = bandwidthGovernor.throttle(new ByteBufferInputStream(data), trafficClass, subject);
+            request.setInputStream(throttled);
+            try {
+                return cosClient.uploadPart(request).getPartETag();
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                long backoff = 500L << Math.min(attempt, 5);
+                log.warn("分块 {} 上传失败，{} ms 后重试 ({}/{}): {}", partNumber, backoff, attempt + 1, maxRetries, e.getMessage());
+                Thread.sleep(backoff);
+            } finally {
+                closeQuietly(throttled);
+            }
+        }
+    }
+
+    void reportProgress(LongConsumer progressCallback, AtomicLong reportedBytes, long uploaded) {
+        if (progressCallback == null) {
+            return;
+        }
+        // 分块乱序完成，只上报比上次更大的值，保证回调值单调递增
+        synchronized (reportedBytes) {
+            if (uploaded <= reportedBytes.get()) {
+                return;
+            }
+            reportedBytes.set(uploaded);
+            try {
+                progressCallback.accept(uploaded);
+            } catch (Exception e) {
+                log.warn("进度回调处理异常", e);
+            }
+        }
+    }
+
+    /**
+     * 取消分块上传，失败只记录日志
+     */
+    public void abortQuietly(COSClient cosClient, String bucket, String key, String uploadId) {
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            cosClient.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+            log.warn("分块上传失败，已取消上传任务，UploadId: {}", uploadId);
+        } catch (Exception e) {
+            log.error("取消分块上传失败，UploadId: {}", uploadId, e);
+        }
+    }
+
+    private void closeQuietly(InputStream input) {
+        try {
+            if (input != null) {
+                input.close();
+            }
+        } catch (Exception e) {
+            log.error("关闭输入流失败", e);
+        }
+    }
+
+    /**
+     * 基于 ByteBuffer 的只读输入流，支持堆外缓冲区
+     */
+    static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
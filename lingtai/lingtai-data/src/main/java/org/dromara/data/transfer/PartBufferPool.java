@@ -0,0 +1,89 @@
+package org.dromara.data.transfer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.properties.TransferProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分块缓冲池（进程内共享，容量有上限）
+ * <p>
+ * 所有分块上传任务从这里借用固定大小的缓冲区，用完归还复用，
+ * 因此无论同时有多少个导入任务，分块数据占用的内存都不会超过 bufferSize * capacity。
+ * 缓冲区按需懒分配，池满时 {@link #acquire()} 阻塞等待其他任务归还。
+ */
+@Slf4j
+@Component
+public class PartBufferPool {
+
+    private final int bufferSize;
+    private final int capacity;
+    private final boolean direct;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    public PartBufferPool(TransferProperties properties) {
+        if (properties.getPartSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("lingtai.transfer.part-size 不能超过 2GB");
+        }
+        this.bufferSize = (int) properties.getPartSize();
+        this.capacity = Math.max(1, properties.getBufferPoolSize());
+        this.direct = properties.isDirectBuffers();
+        this.permits = new Semaphore(capacity, true);
+        log.info("初始化分块缓冲池: bufferSize={} 字节, capacity={}, direct={}", bufferSize, capacity, direct);
+    }
+
+    /**
+     * 借出一个已清空的缓冲区，池中无可用缓冲区时阻塞
+     */
+    public ByteBuffer acquire() throws InterruptedException {
+        permits.acquire();
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            buffer = direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+            allocated.incrementAndGet();
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        buffer.clear();
+        idle.offer(buffer);
+        permits.release();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 当前可借出的缓冲区数量
+     */
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * 已实际分配的缓冲区数量
+     */
+    public int getAllocated() {
+        return allocated.get();
+    }
+}
@@ -0,0 +1,586 @@
+package org.dromara.data.transfer;
+
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.model.CompleteMultipartUploadResult;
+import com.qcloud.cos.model.PartETag;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.data.integrity.Checksums;
+import org.dromara.data.integrity.DigestingInputStream;
+import org.dromara.data.integrity.IntegrityException;
+import org.dromara.data.integrity.OrderedChecksum;
+import org.dromara.data.properties.TransferProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongConsumer;
+
+/**
+ * 源站直传对象存储的导入管道（不落本地磁盘）
+ * <p>
+ * 先用 {@code Range: bytes=0-0} 探测源站：
+ * <ul>
+ *     <li>返回 206：按分块大小切分字节区间，并发拉取各区间，每个区间读入缓冲池中的一个缓冲区后
+ *     直接作为对应分块号上传，内存占用受 {@link PartBufferPool} 与在途分块数约束；</li>
+ *     <li>返回 200：源站不支持 Range，直接复用该响应流走单流流水线上传。</li>
+ * </ul>
+ * 传入 {@link TransferCheckpoint} 时，Range 模式会复用上次的 uploadId 并跳过已提交的分块；
+ * 单流模式无法跳过已下载的字节，总是重新上传。
+ * <p>
+ * Range 模式直接访问探测时重定向后的地址，该地址可能是有时效的 CDN 签名地址：区间请求返回 401/403/410 时，
+ * 从原始地址重新探测，大小与 ETag 不变才换用新地址继续，已上传的分块不受影响。
+ * <p>
+ * 拉取与上传的字节分别按 {@link TrafficClass#IMPORT_DOWNLOAD}、{@link TrafficClass#IMPORT_UPLOAD} 限速，
+ * 归属取发起传输的线程上的 {@link BandwidthGovernor#currentSubject()}。
+ * <p>
+ * 数据流经时计算 SHA-256 与 CRC64（Range 模式按分块号顺序计入）：字节数与源站声明的大小不一致、
+ * 或源站 ETag 是内容 SHA-256 而与实际内容不一致时，不完成分块上传；完成后 COS 返回的 CRC64
+ * 与本地不一致时删除对象。三种情况都以 {@link IntegrityException} 失败。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RangeStreamImporter {
+
+    private static final String USER_AGENT = "EdgeAI-Model-Importer/1.0";
+
+    private final ParallelMultipartUploader multipartUploader;
+    private final PartBufferPool bufferPool;
+    private final TransferProperties properties;
+    private final BandwidthGovernor bandwidthGovernor;
+
+    @Resource(name = "cosPartExecutor")
+    private Executor partExecutor;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofSeconds(15))
+        .build();
+
+    /**
+     * 将源站文件传输到 COS
+     *
+     * @param listener 进度监听器，可为 null
+     */
+    public TransferResult transfer(COSClient cosClient, String bucket, String key, String sourceUrl,
+                                   TransferProgressListener listener) throws IOException, InterruptedException {
+        return transfer(cosClient, bucket, key, sourceUrl, listener, null);
+    }
+
+    /**
+     * 将源站文件传输到 COS，支持断点续传
+     *
+     * @param listener   进度监听器，可为 null
+     * @param checkpoint 传输断点，可为 null
+     */
+    public TransferResult transfer(COSClient cosClient, String bucket, String key, String sourceUrl,
+                                   TransferProgressListener listener, TransferCheckpoint checkpoint)
+        throws IOException, InterruptedException {
+        TransferSubject subject = bandwidthGovernor.currentSubject();
+        HttpResponse<InputStream> probe = send(URI.create(sourceUrl), "bytes=0-0", null);
+        int status = probe.statusCode();
+        if (status >= 400) {
+            probe.body().close();
+            throw new IOException("下载失败，HTTP 状态码: " + status);
+        }
+
+        String eTag = resolveETag(probe);
+        if (status == 206) {
+            probe.body().close();
+            long length = parseTotalLength(probe.headers().firstValue("Content-Range").orElse(null));
+            // 重定向后的最终地址（如 HuggingFace CDN），后续 Range 请求直接访问，避免每个分块都走一次 302
+            URI resolved = probe.uri();
+            if (length > bufferPool.getBufferSize()) {
+                log.info("[IMPORT] 源站支持 Range，按区间并发拉取: url={}, size={}", resolved, length);
+                // If-Range 只接受强校验 ETag，且必须是最终地址返回的 ETag
+                String validator = probe.headers().firstValue("ETag")
+                    .filter(tag -> !tag.startsWith("W/"))
+                    .orElse(null);
+                RangeSource source = new RangeSource(sourceUrl, length, eTag, new RangeTarget(resolved, validator));
+                return rangeTransfer(cosClient, bucket, key, source, length, eTag,
+                    toCallback(listener, length), checkpoint, subject);
+            }
+            log.info("[IMPORT] 文件较小，按单流拉取: url={}, size={}", resolved, length);
+            HttpResponse<InputStream> full = send(resolved, null, null);
+            if (full.statusCode() != 200) {
+                full.body().close();
+                throw new IOException("下载失败，HTTP 状态码: " + full.statusCode());
+            }
+            discardCheckpoint(cosClient, bucket, key, checkpoint);
+            return streamTransfer(cosClient, bucket, key, full, eTag, listener, subject);
+        }
+
+        log.info("[IMPORT] 源站不支持 Range，回退为单流拉取: url={}", probe.uri());
+        discardCheckpoint(cosClient, bucket, key, checkpoint);
+        return streamTransfer(cosClient, bucket, key, probe, eTag, listener, subject);
+    }
+
+    /**
+     * 单流模式：边下载边走分块流水线上传，读到流末尾时校验大小与 SHA-256，不一致则不完成上传
+     */
+    private TransferResult streamTransfer(COSClient cosClient, String bucket, String key, HttpResponse<InputStream> response,
+                                          String eTag, TransferProgressListener listener, TransferSubject subject)
+        throws IntegrityException {
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        DigestingInputStream input = new DigestingInputStream(
+            bandwidthGovernor.throttle(response.body(), TrafficClass.IMPORT_DOWNLOAD, subject),
+            length, Checksums.sha256OfETag(eTag));
+        CompleteMultipartUploadResult completed = multipartUploader.upload(cosClient, bucket, key, input, length,
+            toCallback(listener, length), TrafficClass.IMPORT_UPLOAD);
+        Checksums checksums = input.checksums();
+        verifyStored(cosClient, bucket, key, checksums, completed.getCrc64Ecma());
+
+        TransferResult result = new TransferResult();
+        result.setKey(key);
+        result.setSize(checksums.size());
+        result.setSourceETag(eTag);
+        result.setRangeMode(false);
+        result.setPartCount((int) ((checksums.size() + bufferPool.getBufferSize() - 1) / bufferPool.getBufferSize()));
+        result.setSha256(checksums.sha256());
+        result.setCrc64(checksums.crc64());
+        return result;
+    }
+
+    /**
+     * COS 返回的 CRC64 与本地计算的不一致时删除对象
+     */
+    private void verifyStored(COSClient cosClient, String bucket, String key, Checksums checksums, String storedCrc64)
+        throws IntegrityException {
+        try {
+            checksums.verifyStored(key, storedCrc64);
+        } catch (IntegrityException e) {
+            log.error("[IMPORT] {}，删除对象", e.getMessage());
+            cosClient.deleteObject(bucket, key);
+            throw e;
+        }
+    }
+
+    /**
+     * Range 模式：区间 i 对应分块号 i + 1，拉取与上传在同一任务内完成
+     * <p>
+     * 缓冲区由派发线程按分块号顺序借出，分块上传后交给 {@link OrderedChecksum} 按顺序计入摘要，
+     * 计入后才归还缓冲区与在途额度。续传时已提交的分块不再下载，不计算校验值。
+     */
+    private TransferResult rangeTransfer(COSClient cosClient, String bucket, String key, RangeSource source, long length,
+                                         String eTag, LongConsumer progressCallback,
+                                         TransferCheckpoint checkpoint, TransferSubject subject) {
+        long partSize = bufferPool.getBufferSize();
+        int partCount = (int) ((length + partSize - 1) / partSize);
+        if (partCount > ParallelMultipartUploader.MAX_PART_COUNT) {
+            throw new IllegalArgumentException("文件过大，分块数超过 " + ParallelMultipartUploader.MAX_PART_COUNT
+                + "，请调大 lingtai.transfer.part-size");
+        }
+
+        int concurrency = Math.max(1, properties.getPartConcurrency());
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicReferenceArray<PartETag> partETags = new AtomicReferenceArray<>(partCount);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong uploadedBytes = new AtomicLong();
+        AtomicLong reportedBytes = new AtomicLong();
+        String uploadId = null;
+        OrderedChecksum ordered = null;
+
+        try {
+            Map<Integer, PartETag> resumed = resumeParts(cosClient, bucket, key, checkpoint, eTag, length, partSize);
+            if (resumed != null) {
+                uploadId = checkpoint.getUploadId();
+                log.info("[IMPORT] 断点续传，key={}, UploadId={}, 已完成分块 {}/{}", key, uploadId, resumed.size(), partCount);
+            } else {
+                uploadId = multipartUploader.initiate(cosClient, bucket, key);
+                if (checkpoint != null) {
+                    checkpoint.onInitiated(uploadId, eTag, length, partSize);
+                }
+                resumed = Map.of();
+            }
+            if (resumed.isEmpty()) {
+                ordered = new OrderedChecksum(0);
+            } else {
+                log.info("[IMPORT] 续传的分块未经过本实例，不计算校验值，key={}", key);
+            }
+            final OrderedChecksum digest = ordered;
+
+            for (int i = 0; i < partCount && failure.get() == null; i++) {
+                final int index = i;
+                final long start = i * partSize;
+                final long end = Math.min(length, start + partSize) - 1;
+                PartETag done = resumed.get(index + 1);
+                if (done != null) {
+                    partETags.set(index, done);
+                    multipartUploader.reportProgress(progressCallback, reportedBytes, uploadedBytes.addAndGet(end - start + 1));
+                    continue;
+                }
+                inFlight.acquire();
+                ByteBuffer buffer;
+                try {
+                    buffer = bufferPool.acquire();
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                Runnable release = () -> {
+                    bufferPool.release(buffer);
+                    inFlight.release();
+                };
+                final String currentUploadId = uploadId;
+                try {
+                    partExecutor.execute(() -> {
+                        boolean handedOff = false;
+                        try {
+                            if (failure.get() != null) {
+                                return;
+                            }
+                            fetchRangeWithRetry(source, start, end, buffer, subject);
+                            buffer.flip();
+                            int size = buffer.remaining();
+                            PartETag partETag = multipartUploader.uploadPartWithRetry(
+                                cosClient, bucket, key, currentUploadId, index + 1, buffer,
+                                TrafficClass.IMPORT_UPLOAD, subject);
+                            if (checkpoint != null) {
+                                checkpoint.onPartCompleted(index + 1, start, end, partETag.getETag());
+                            }
+                            partETags.set(index, partETag);
+                            long uploaded = uploadedBytes.addAndGet(size);
+                            multipartUploader.reportProgress(progressCallback, reportedBytes, uploaded);
+                            if (digest != null) {
+                                handedOff = true;
+                                digest.submit(index, buffer, release);
+                            }
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                            if (digest != null) {
+                                // 之后的分块不会再轮到，释放暂存的分块
+                                digest.discard();
+                            }
+                        } finally {
+                            if (!handedOff) {
+                                release.run();
+                            }
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    release.run();
+                    throw e;
+                }
+            }
+
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+            if (failure.get() != null) {
+                throw new IllegalStateException("区间拉取/上传失败: " + failure.get().getMessage(), failure.get());
+            }
+
+            Checksums checksums = ordered == null ? null : ordered.finish();
+            String expectedSha256 = Checksums.sha256OfETag(eTag);
+            if (checksums != null && expectedSha256 != null && !expectedSha256.equals(checksums.sha256())) {
+                throw new IntegrityException("SHA-256 不一致: 期望 " + expectedSha256 + "，实际 " + checksums.sha256());
+            }
+
+            List<PartETag> orderedETags = new ArrayList<>(partCount);
+            for (int i = 0; i < partCount; i++) {
+                orderedETags.add(partETags.get(i));
+            }
+            CompleteMultipartUploadResult completed = multipartUploader.complete(cosClient, bucket, key, uploadId,
+                orderedETags);
+            uploadId = null;
+            if (checksums != null) {
+                verifyStored(cosClient, bucket, key, checksums, completed.getCrc64Ecma());
+            }
+            log.info("[IMPORT] Range 并发导入完成，key={}, 分块数={}, 总大小={} 字节", key, partCount, length);
+
+            TransferResult result = new TransferResult();
+            result.setKey(key);
+            result.setSize(length);
+            result.setSourceETag(eTag);
+            result.setRangeMode(true);
+            result.setPartCount(partCount);
+            if (checksums != null) {
+                result.setSha256(checksums.sha256());
+                result.setCrc64(checksums.crc64());
+            }
+            return result;
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            failure.compareAndSet(null, e);
+            if (ordered != null) {
+                ordered.discard();
+            }
+            inFlight.acquireUninterruptibly(concurrency);
+            inFlight.release(concurrency);
+            if (checkpoint == null || e instanceof IntegrityException) {
+                // 校验失败时已上传的分块续传后仍然不可用，一并取消
+                multipartUploader.abortQuietly(cosClient, bucket, key, uploadId);
+            } else {
+                // 保留分块上传供续传，由断点持有方决定何时清理
+                log.warn("[IMPORT] Range 导入中断，保留分块上传待续传，key={}, UploadId={}", key, uploadId);
+            }
+            throw new RuntimeException("Range 并发导入失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 校验断点是否可续传，返回可复用的分块；不可续传时 Abort 旧的分块上传并返回 null
+     * <p>
+     * 以断点记录与 COS 实际已上传分块的交集为准，两边 ETag 一致的分块才跳过
+     */
+    private Map<Integer, PartETag> resumeParts(COSClient cosClient, String bucket, String key, TransferCheckpoint checkpoint,
+                                               String eTag, long length, long partSize) {
+        if (checkpoint == null || checkpoint.getUploadId() == null) {
+            return null;
+        }
+        String uploadId = checkpoint.getUploadId();
+        boolean sameSource = eTag != null && eTag.equals(checkpoint.getSourceEtag())
+            && Long.valueOf(length).equals(checkpoint.getTotalSize())
+            && Long.valueOf(partSize).equals(checkpoint.getPartSize());
+        if (!sameSource) {
+            log.info("[IMPORT] 源文件或分块大小已变化，放弃续传，key={}, UploadId={}", key, uploadId);
+            multipartUploader.abortQuietly(cosClient, bucket, key, uploadId);
+            checkpoint.onReset();
+            return null;
+        }
+        Map<Integer, PartETag> uploaded = multipartUploader.listUploadedParts(cosClient, bucket, key, uploadId);
+        if (uploaded == null) {
+            log.info("[IMPORT] 分块上传已不存在，重新上传，key={}, UploadId={}", key, uploadId);
+            checkpoint.onReset();
+            return null;
+        }
+        Map<Integer, PartETag> resumed = new HashMap<>();
+        checkpoint.getCompletedParts().forEach((partNumber, partETag) -> {
+            PartETag actual = uploaded.get(partNumber);
+            if (actual != null && StringUtils.equals(actual.getETag(), partETag)) {
+                resumed.put(partNumber, actual);
+            }
+        });
+        return resumed;
+    }
+
+    /**
+     * 单流模式无法续传，清理上次遗留的分块上传
+     */
+    private void discardCheckpoint(COSClient cosClient, String bucket, String key, TransferCheckpoint checkpoint) {
+        if (checkpoint != null && checkpoint.getUploadId() != null) {
+            multipartUploader.abortQuietly(cosClient, bucket, key, checkpoint.getUploadId());
+            checkpoint.onReset();
+        }
+    }
+
+    /**
+     * 拉取一个字节区间到缓冲区，失败清空缓冲区后重试
+     * <p>
+     * 地址过期时先重新解析再立即重试一次，不计入重试次数
+     */
+    void fetchRangeWithRetry(RangeSource source, long start, long end, ByteBuffer buffer,
+                             TransferSubject subject) throws IOException, InterruptedException {
+        int maxRetries = Math.max(0, properties.getPartMaxRetries());
+        boolean refreshed = false;
+        for (int attempt = 0; ; ) {
+            buffer.clear();
+            RangeTarget target = source.current();
+            try {
+                fetchRange(target.uri(), start, end, target.validator(), buffer, subject);
+                return;
+            } catch (SourceExpiredException e) {
+                if (!refreshed) {
+                    refreshed = true;
+                    source.refresh(target, e.getMessage());
+                    continue;
+                }
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                backoff(start, end, attempt++, maxRetries, e);
+            } catch (IOException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                backoff(start, end, attempt++, maxRetries, e);
+            }
+        }
+    }
+
+    private void backoff(long start, long end, int attempt, int maxRetries, IOException e) throws InterruptedException {
+        long backoff = 500L << Math.min(attempt, 5);
+        log.warn("区间 {}-{} 拉取失败，{} ms 后重试 ({}/{}): {}", start, end, backoff, attempt + 1, maxRetries, e.getMessage());
+        Thread.sleep(backoff);
+    }
+
+    private void fetchRange(URI source, long start, long end, String eTag, ByteBuffer buffer,
+                            TransferSubject subject) throws IOException, InterruptedException {
+        long expected = end - start + 1;
+        HttpResponse<InputStream> response = send(source, "bytes=" + start + "-" + end, eTag);
+        try (InputStream body = bandwidthGovernor.throttle(response.body(), TrafficClass.IMPORT_DOWNLOAD, subject)) {
+            int status = response.statusCode();
+            if (status == 401 || status == 403 || status == 410) {
+                // 签名地址过期或失效
+                throw new SourceExpiredException("区间请求被拒绝，HTTP 状态码: " + status);
+            }
+            if (status != 206) {
+                // 带 If-Range 时源文件已变化会返回 200 全量内容
+                throw new IOException("区间请求未返回 206，HTTP 状态码: " + response.statusCode());
+            }
+            ReadableByteChannel channel = Channels.newChannel(body);
+            buffer.limit((int) expected);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            if (buffer.position() != expected) {
+                throw new IOException("区间数据不完整: 期望 " + expected + " 字节，实际 " + buffer.position() + " 字节");
+            }
+        }
+    }
+
+    /**
+     * Range 模式当前访问的地址与对应的 If-Range 校验值
+     */
+    record RangeTarget(URI uri, String validator) {
+    }
+
+    /**
+     * Range 模式的拉取地址，由各分块共享
+     * <p>
+     * 地址过期时从原始地址重新探测；多个分块同时遇到过期时只探测一次，其余直接使用新地址
+     */
+    final class RangeSource {
+
+        private final String sourceUrl;
+        private final long length;
+        private final String eTag;
+        private volatile RangeTarget target;
+
+        RangeSource(String sourceUrl, long length, String eTag, RangeTarget target) {
+            this.sourceUrl = sourceUrl;
+            this.length = length;
+            this.eTag = eTag;
+            this.target = target;
+        }
+
+        RangeTarget current() {
+            return target;
+        }
+
+        /**
+         * 重新解析地址；源文件大小或 ETag 已变化时失败，已上传的分块不能与新内容拼接
+         *
+         * @param stale 请求失败时使用的地址
+         */
+        synchronized RangeTarget refresh(RangeTarget stale, String reason) throws IOException, InterruptedException {
+            if (target != stale) {
+                return target;
+            }
+            log.info("[IMPORT] {}，从原始地址重新解析: url={}", reason, sourceUrl);
+            HttpResponse<InputStream> probe = send(URI.create(sourceUrl), "bytes=0-0", null);
+            probe.body().close();
+            if (probe.statusCode() != 206) {
+                throw new IOException("重新解析源站地址失败，HTTP 状态码: " + probe.statusCode());
+            }
+            long total = parseTotalLength(probe.headers().firstValue("Content-Range").orElse(null));
+            String current = resolveETag(probe);
+            if (total != length || !StringUtils.equals(eTag, current)) {
+                throw new IOException("源文件已变化: 大小 " + length + " -> " + total + "，ETag " + eTag + " -> " + current);
+            }
+            String validator = probe.headers().firstValue("ETag")
+                .filter(tag -> !tag.startsWith("W/"))
+                .orElse(null);
+            target = new RangeTarget(probe.uri(), validator);
+            return target;
+        }
+    }
+
+    /**
+     * 区间请求被拒绝，通常是签名地址已过期
+     */
+    static class SourceExpiredException extends IOException {
+
+        SourceExpiredException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 以单个 GET 顺序读取源站文件，用于只能整体流式消费的场景（如边下载边解压）
+     * 调用方负责关闭响应体
+     */
+    public HttpResponse<InputStream> open(String sourceUrl) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(URI.create(sourceUrl), null, null);
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("源站下载失败，HTTP 状态码: " + response.statusCode());
+        }
+        return response;
+    }
+
+    HttpResponse<InputStream> send(URI uri, String range, String ifRange) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(Duration.ofMillis(properties.getSourceReadTimeout()))
+            .header("User-Agent", USER_AGENT)
+            .GET();
+        if (range != null) {
+            builder.header("Range", range);
+        }
+        if (StringUtils.isNotBlank(ifRange)) {
+            builder.header("If-Range", ifRange);
+        }
+        if (StringUtils.isNotBlank(properties.getHubToken()) && isHubHost(uri.getHost())) {
+            builder.header("Authorization", "Bearer " + properties.getHubToken());
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Token 只发给 HuggingFace 或配置的 Hub 地址，不泄露给重定向后的第三方 CDN
+     */
+    private boolean isHubHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        return host.endsWith("huggingface.co") || host.equalsIgnoreCase(URI.create(properties.getHubEndpoint()).getHost());
+    }
+
+    private LongConsumer toCallback(TransferProgressListener listener, long total) {
+        return listener == null ? null : transferred -> listener.onProgress(transferred, total);
+    }
+
+    private String resolveETag(HttpResponse<?> response) {
+        return response.headers().firstValue("X-Linked-Etag")
+            .or(() -> response.headers().firstValue("ETag"))
+            .orElse(null);
+    }
+
+    /**
+     * 解析 Content-Range: bytes 0-0/12345
+     */
+    private long parseTotalLength(String contentRange) throws IOException {
+        if (contentRange == null || !contentRange.contains("/")) {
+            throw new IOException("源站返回 206 但缺少 Content-Range");
+        }
+        String total = contentRange.substring(contentRange.lastIndexOf('/') + 1).trim();
+        if ("*".equals(total)) {
+            throw new IOException("源站未返回文件总大小");
+        }
+        return Long.parseLong(total);
+    }
+}
@@ -0,0 +1,66 @@
+package org.dromara.data.transfer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * 限速输入流
+ * <p>
+ * 先读后记账：单次最多读取 chunkBytes 字节，读到的字节数向 {@link BandwidthGovernor} 申请额度，
+ * 超速时在返回前阻塞；等待中被中断抛出 {@link InterruptedIOException} 并保留中断标记。
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    private final BandwidthGovernor governor;
+    private final TrafficClass trafficClass;
+    private final TransferSubject subject;
+    private boolean closed;
+
+    ThrottledInputStream(InputStream in, BandwidthGovernor governor, TrafficClass trafficClass, TransferSubject subject) {
+        super(in);
+        this.governor = governor;
+        this.trafficClass = trafficClass;
+        this.subject = subject;
+        governor.streamOpened(trafficClass);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            pay(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, Math.min(len, governor.chunkBytes()));
+        if (n > 0) {
+            pay(n);
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                governor.streamClosed(trafficClass);
+            }
+        }
+        super.close();
+    }
+
+    private void pay(int bytes) throws IOException {
+        try {
+            governor.acquire(trafficClass, subject, bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("传输被中断");
+        }
+    }
+}
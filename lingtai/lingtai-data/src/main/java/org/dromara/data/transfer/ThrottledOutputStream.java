@@ -0,0 +1,66 @@
+package org.dromara.data.transfer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * 限速输出流
+ * <p>
+ * 先记账后写出：大块写入按 chunkBytes 拆分，每块申请到额度后再写给下游；
+ * 等待中被中断抛出 {@link InterruptedIOException} 并保留中断标记。
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    private final BandwidthGovernor governor;
+    private final TrafficClass trafficClass;
+    private final TransferSubject subject;
+    private boolean closed;
+
+    ThrottledOutputStream(OutputStream out, BandwidthGovernor governor, TrafficClass trafficClass, TransferSubject subject) {
+        super(out);
+        this.governor = governor;
+        this.trafficClass = trafficClass;
+        this.subject = subject;
+        governor.streamOpened(trafficClass);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        pay(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int chunk = governor.chunkBytes();
+        while (len > 0) {
+            int n = Math.min(len, chunk);
+            pay(n);
+            out.write(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                governor.streamClosed(trafficClass);
+            }
+        }
+        super.close();
+    }
+
+    private void pay(int bytes) throws IOException {
+        try {
+            governor.acquire(trafficClass, subject, bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("传输被中断");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.dromara.data.transfer;
+
+/**
+ * 预约式令牌桶（GCRA）
+ * <p>
+ * 不保存令牌数，只记录“理论到达时间” tat：每申请 n 字节 tat 后移 n / rate 秒，
+ * tat 超前当前时间不超过突发容量时立即放行，否则返回需要等待的时长。
+ * 申请即记账，并发申请按先后顺序排队；速率变化只影响之后的申请。
+ */
+final class TokenBucket {
+
+    private long tat;
+
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    /**
+     * 预约额度
+     *
+     * @param bytes      申请字节数
+     * @param rate       速率（字节/秒），不大于 0 时不限速
+     * @param burstNanos 突发容量（纳秒）
+     * @param now        当前时间（System.nanoTime）
+     * @return 需要等待的纳秒数
+     */
+    synchronized long reserve(long bytes, long rate, long burstNanos, long now) {
+        lastUsedNanos = now;
+        if (rate <= 0) {
+            tat = now;
+            return 0;
+        }
+        long cost = (long) (bytes * 1_000_000_000d / rate);
+        tat = Math.max(tat, now) + cost;
+        return Math.max(0, tat - now - burstNanos);
+    }
+
+    /**
+     * 空闲超过 idleNanos 且没有未偿还的预约
+     */
+    synchronized boolean isIdle(long idleNanos, long now) {
+        return tat <= now && now - lastUsedNanos > idleNanos;
+    }
+}
@@ -0,0 +1,38 @@
+package org.dromara.data.transfer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 传输流量分类，吞吐按分类统计，限速按方向共享
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TrafficClass {
+
+    /**
+     * 从源站（HuggingFace 等）拉取导入数据
+     */
+    IMPORT_DOWNLOAD(Direction.INBOUND),
+
+    /**
+     * 导入数据写入对象存储
+     */
+    IMPORT_UPLOAD(Direction.OUTBOUND),
+
+    /**
+     * 用户上传的文件写入对象存储
+     */
+    USER_UPLOAD(Direction.OUTBOUND),
+
+    /**
+     * 从对象存储下载到本地（如节点制品缓存）
+     */
+    OBJECT_DOWNLOAD(Direction.INBOUND);
+
+    private final Direction direction;
+
+    public enum Direction {
+        INBOUND, OUTBOUND
+    }
+}
@@ -0,0 +1,53 @@
+package org.dromara.data.transfer;
+
+import java.util.Map;
+
+/**
+ * 传输断点
+ * <p>
+ * Range 模式下由 {@link RangeStreamImporter} 在初始化分块上传、每个分块上传成功后回调，
+ * 实现方负责持久化；进程重启后用同一个断点再次传输，会复用 uploadId 并跳过已提交的分块。
+ * 传入断点时传输失败不会 Abort 分块上传，由断点的持有方决定续传或清理。
+ */
+public interface TransferCheckpoint {
+
+    /**
+     * 上次的分块上传ID，首次传输返回 null
+     */
+    String getUploadId();
+
+    /**
+     * 上次记录的源站 ETag，与本次探测结果不一致时放弃续传
+     */
+    String getSourceEtag();
+
+    /**
+     * 上次记录的源文件总大小
+     */
+    Long getTotalSize();
+
+    /**
+     * 上次使用的分块大小
+     */
+    Long getPartSize();
+
+    /**
+     * 已提交的分块：分块号 -> 分块 ETag
+     */
+    Map<Integer, String> getCompletedParts();
+
+    /**
+     * 新建分块上传后回调
+     */
+    void onInitiated(String uploadId, String sourceEtag, long totalSize, long partSize);
+
+    /**
+     * 单个分块上传成功后回调，回调返回即视为该分块已持久化
+     */
+    void onPartCompleted(int partNumber, long rangeStart, long rangeEnd, String etag);
+
+    /**
+     * 上次的分块上传无法继续使用（源文件变化、分块大小变化或源站不再支持 Range），已提交分块作废
+     */
+    void onReset();
+}
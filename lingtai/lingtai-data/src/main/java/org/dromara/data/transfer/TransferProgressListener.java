@@ -0,0 +1,16 @@
+package org.dromara.data.transfer;
+
+/**
+ * 传输进度监听器
+ */
+@FunctionalInterface
+public interface TransferProgressListener {
+
+    /**
+     * 每完成一个分块回调一次，transferred 单调递增
+     *
+     * @param transferred 已写入对象存储的字节数
+     * @param total       总字节数，未知时为 -1
+     */
+    void onProgress(long transferred, long total);
+}
@@ -0,0 +1,49 @@
+package org.dromara.data.transfer;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 源站到对象存储的一次传输结果
+ */
+@Data
+public class TransferResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 对象存储中的对象键
+     */
+    private String key;
+
+    /**
+     * 实际传输的字节数
+     */
+    private Long size;
+
+    /**
+     * 源站返回的 ETag（HuggingFace 优先取 X-Linked-Etag）
+     */
+    private String sourceETag;
+
+    /**
+     * 是否使用了 HTTP Range 并发下载
+     */
+    private Boolean rangeMode;
+
+    /**
+     * 分块数
+     */
+    private Integer partCount;
+
+    /**
+     * 传输时计算的内容 SHA-256，续传时部分分块未经过本实例，为 null
+     */
+    private String sha256;
+
+    /**
+     * 传输时计算的内容 CRC64，已与 COS 返回的值比对；续传时为 null
+     */
+    private String crc64;
+}
@@ -0,0 +1,12 @@
+package org.dromara.data.transfer;
+
+/**
+ * 传输的归属方，决定计入哪个租户和用户的限速
+ *
+ * @param tenantId 租户ID，为空时不受租户级限速
+ * @param userId   用户ID，为空时不受用户级限速
+ */
+public record TransferSubject(String tenantId, Long userId) {
+
+    public static final TransferSubject ANONYMOUS = new TransferSubject(null, null);
+}
@@ -1,18 +1,31 @@
 package org.dromara.data.utils;
 
-import com.qcloud.cos.COSClient;
-import com.qcloud.cos.ClientConfig;
-import com.qcloud.cos.auth.BasicCOSCredentials;
-import com.qcloud.cos.auth.COSCredentials;
+import com.qcloud.cos.exception.CosServiceException;
+import com.qcloud.cos.http.HttpMethodName;
 import com.qcloud.cos.model.*;
-import com.qcloud.cos.region.Region;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.dromara.data.integrity.Checksums;
+import org.dromara.data.integrity.DigestingInputStream;
+import org.dromara.data.integrity.IntegrityException;
+import org.dromara.data.integrity.StoredObject;
+import org.dromara.data.transfer.BandwidthGovernor;
+import org.dromara.data.transfer.CosClientRegistry;
+import org.dromara.data.transfer.ParallelMultipartUploader;
+import org.dromara.data.transfer.RangeStreamImporter;
+import org.dromara.data.transfer.TrafficClass;
+import org.dromara.data.transfer.TransferCheckpoint;
+import org.dromara.data.transfer.TransferProgressListener;
+import org.dromara.data.transfer.TransferResult;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
@@ -32,148 +45,109 @@ public class CosUtils {
 
     // 分块上传的阈值，大于此值使用分块上传（默认100MB）
     private static final long MULTIPART_UPLOAD_THRESHOLD = 100 * 1024 * 1024L;
-    // 每个分块的大小（默认50MB）
-    private static final long PART_SIZE = 50 * 1024 * 1024L;
 
-    private COSClient getClient() {
-        COSCredentials cred = new BasicCOSCredentials(secretId, secretKey);
-        ClientConfig clientConfig = new ClientConfig(new Region(region));
-        return new COSClient(cred, clientConfig);
-    }
+    @Resource
+    private ParallelMultipartUploader multipartUploader;
+
+    @Resource
+    private CosClientRegistry clientRegistry;
+
+    @Resource
+    private RangeStreamImporter rangeStreamImporter;
+
+    @Resource
+    private BandwidthGovernor bandwidthGovernor;
 
     /**
-     * 智能上传：根据文件大小自动选择普通上传或分块上传
+     * 从注册表租用长生命周期客户端，用完 close 归还即可，不要 shutdown
      */
-    public String uploadFile(InputStream inputStream, String fileName, long contentLength) {
+    private CosClientRegistry.Lease leaseClient() {
+        return clientRegistry.lease(region, bucket, secretId, secretKey);
+    }
 
+    /**
+     * 智能上传：根据文件大小自动选择普通上传或分块上传，按用户上传流量限速
+     * <p>
+     * 上传的同时计算 SHA-256 与 CRC64：读到的字节数与 contentLength 不一致时上传不会完成，
+     * COS 返回的 CRC64 与本地不一致时删除对象，两种情况都抛出异常
+     */
+    public StoredObject uploadFile(InputStream inputStream, String fileName, long contentLength) {
+        String key = prefix + fileName;
+        DigestingInputStream digesting = new DigestingInputStream(inputStream, contentLength, null);
+        String storedCrc64;
         if (contentLength > MULTIPART_UPLOAD_THRESHOLD) {
             log.info("文件大小 {} 字节，使用分块上传", contentLength);
-            return uploadFileMultipart(inputStream, fileName, contentLength);
+            storedCrc64 = uploadFileMultipart(digesting, key, contentLength);
         } else {
             log.info("文件大小 {} 字节，使用普通上传", contentLength);
-            return uploadFileNormal(inputStream, fileName, contentLength);
+            storedCrc64 = putObject(key, digesting, contentLength, TrafficClass.USER_UPLOAD);
         }
+        Checksums checksums = digesting.checksums();
+        verifyStored(key, checksums, storedCrc64);
+        return new StoredObject(key, checksums);
     }
 
     /**
-     * 普通上传（小文件）
+     * @return COS 返回的 CRC64，未返回时为 null
      */
-    private String uploadFileNormal(InputStream inputStream, String fileName, long contentLength) {
-        COSClient cosClient = getClient();
-        try {
-            String key = prefix + fileName;
-
+    private String putObject(String key, InputStream inputStream, long contentLength, TrafficClass trafficClass) {
+        try (CosClientRegistry.Lease lease = leaseClient();
+             InputStream throttled = bandwidthGovernor.throttle(inputStream, trafficClass,
+                 bandwidthGovernor.currentSubject())) {
             ObjectMetadata metadata = new ObjectMetadata();
             metadata.setContentLength(contentLength);
 
-            PutObjectRequest request = new PutObjectRequest(bucket, key, inputStream, metadata);
+            PutObjectRequest request = new PutObjectRequest(bucket, key, throttled, metadata);
             request.setCannedAcl(CannedAccessControlList.PublicRead);
 
-            cosClient.putObject(request);
-            return key;
+            return lease.client().putObject(request).getCrc64Ecma();
         } catch (Exception e) {
             throw new RuntimeException("文件上传失败", e);
-        } finally {
-            cosClient.shutdown();
         }
     }
 
     /**
-     * 分块上传（大文件）
+     * 对象存储中的 CRC64 与本地计算的不一致时删除对象并抛出异常
      */
-    private String uploadFileMultipart(InputStream inputStream, String fileName, long contentLength) {
-        COSClient cosClient = getClient();
-        String key = prefix + fileName;
-        String uploadId = null;
-
+    public void verifyStored(String key, Checksums checksums, String storedCrc64) {
         try {
-            // 1. 初始化分块上传
-            InitiateMultipartUploadRequest initRequest =
-                new InitiateMultipartUploadRequest(bucket, key);
-            initRequest.setCannedACL(CannedAccessControlList.PublicRead);
-
-            InitiateMultipartUploadResult initResponse = cosClient.initiateMultipartUpload(initRequest);
-            uploadId = initResponse.getUploadId();
-            log.info("初始化分块上传，UploadId: {}", uploadId);
-
-            // 2. 上传分块
-            List<PartETag> partETags = new ArrayList<>();
-            long uploadedBytes = 0;
-            int partNumber = 1;
-            byte[] buffer = new byte[(int) PART_SIZE];
-
-            while (uploadedBytes < contentLength) {
-                // 计算当前分块大小
-                long currentPartSize = Math.min(PART_SIZE, contentLength - uploadedBytes);
-
-                // 读取分块数据
-                int bytesRead = 0;
-                int totalRead = 0;
-                while (totalRead < currentPartSize &&
-                    (bytesRead = inputStream.read(buffer, totalRead,
-                        (int)(currentPartSize - totalRead))) != -1) {
-                    totalRead += bytesRead;
-                }
+            checksums.verifyStored(key, storedCrc64);
+        } catch (IntegrityException e) {
+            log.error("[INTEGRITY] {}，删除对象", e.getMessage());
+            deleteObject(key);
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
 
-                if (totalRead == 0) {
-                    break;
-                }
+    /**
+     * 上传到指定对象键：已知大小且不超过分块阈值时普通上传，否则分块上传
+     *
+     * @param contentLength 数据大小，未知时传 -1
+     * @return COS 返回的 CRC64，由调用方与本地计算的值比对，未返回时为 null
+     */
+    public String uploadToKey(String key, InputStream input, long contentLength, TrafficClass trafficClass) {
+        if (contentLength >= 0 && contentLength <= MULTIPART_UPLOAD_THRESHOLD) {
+            return putObject(key, input, contentLength, trafficClass);
+        }
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            return multipartUploader.upload(lease.client(), bucket, key, input, contentLength, null, trafficClass)
+                .getCrc64Ecma();
+        }
+    }
 
-                // 创建分块输入流
-                java.io.ByteArrayInputStream partInputStream =
-                    new java.io.ByteArrayInputStream(buffer, 0, totalRead);
-
-                // 上传分块
-                UploadPartRequest uploadPartRequest = new UploadPartRequest();
-                uploadPartRequest.setBucketName(bucket);
-                uploadPartRequest.setKey(key);
-                uploadPartRequest.setUploadId(uploadId);
-                uploadPartRequest.setPartNumber(partNumber);
-                uploadPartRequest.setInputStream(partInputStream);
-                uploadPartRequest.setPartSize(totalRead);
-
-                UploadPartResult uploadPartResult = cosClient.uploadPart(uploadPartRequest);
-                partETags.add(uploadPartResult.getPartETag());
-
-                uploadedBytes += totalRead;
-                log.info("上传分块 {}/{}，已上传 {} 字节 / {} 字节 ({} %)",
-                    partNumber,
-                    (contentLength + PART_SIZE - 1) / PART_SIZE,
+    /**
+     * 分块上传（大文件），分块并发上传，缓冲区来自共享缓冲池
+     *
+     * @return COS 返回的 CRC64
+     */
+    private String uploadFileMultipart(InputStream inputStream, String key, long contentLength) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            return multipartUploader.upload(lease.client(), bucket, key, inputStream, contentLength, uploadedBytes ->
+                log.info("已上传 {} 字节 / {} 字节 ({} %)",
                     uploadedBytes,
                     contentLength,
-                    String.format("%.2f", uploadedBytes * 100.0 / contentLength));
-
-                partNumber++;
-            }
-
-            // 3. 完成分块上传
-            CompleteMultipartUploadRequest completeRequest =
-                new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags);
-            cosClient.completeMultipartUpload(completeRequest);
-
-            log.info("分块上传完成，文件: {}", key);
-            return key;
-
-        } catch (Exception e) {
-            // 上传失败，取消分块上传
-            if (uploadId != null) {
-                try {
-                    AbortMultipartUploadRequest abortRequest =
-                        new AbortMultipartUploadRequest(bucket, key, uploadId);
-                    cosClient.abortMultipartUpload(abortRequest);
-                    log.warn("分块上传失败，已取消上传任务，UploadId: {}", uploadId);
-                } catch (Exception abortException) {
-                    log.error("取消分块上传失败", abortException);
-                }
-            }
-            throw new RuntimeException("分块上传失败", e);
-        } finally {
-            try {
-                inputStream.close();
-            } catch (Exception e) {
-                log.error("关闭输入流失败", e);
-            }
-            cosClient.shutdown();
+                    String.format("%.2f", uploadedBytes * 100.0 / contentLength)),
+                TrafficClass.USER_UPLOAD).getCrc64Ecma();
         }
     }
 
@@ -181,15 +155,12 @@ public class CosUtils {
      * 生成临时访问链接（私有读时用）
      */
     public String getPresignedUrl(String key, long expireSeconds) {
-        COSClient cosClient = getClient();
-        try {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
             Date expiration = new Date(System.currentTimeMillis() + expireSeconds * 1000L);
             GeneratePresignedUrlRequest request =
                 new GeneratePresignedUrlRequest(bucket, key);
-            URL url = cosClient.generatePresignedUrl(request.withExpiration(expiration));
+            URL url = lease.client().generatePresignedUrl(request.withExpiration(expiration));
             return url.toString();
-        } finally {
-            cosClient.shutdown();
         }
     }
 
@@ -205,6 +176,8 @@ public class CosUtils {
     }
     /**
      * 支持边读 InputStream 边分块上传 COS（带进度）
+     *
+     * @param progressCallback 进度回调，参数为 0 - 100 的百分比，每完成一个分块回调一次
      */
     public String uploadStreamWithProgress(
         InputStream input,
@@ -212,99 +185,225 @@ public class CosUtils {
         long totalSize,
         java.util.function.LongConsumer progressCallback
     ) {
-        COSClient cosClient = getClient();
-
-        String key = prefix + fileName;
-        String uploadId = null;
-
-        try {
-            // 1. 初始化分块上传
-            InitiateMultipartUploadRequest initRequest =
-                new InitiateMultipartUploadRequest(bucket, key);
-            initRequest.setCannedACL(CannedAccessControlList.PublicRead);
-
-            InitiateMultipartUploadResult initResponse =
-                cosClient.initiateMultipartUpload(initRequest);
-            uploadId = initResponse.getUploadId();
-            log.info("初始化分块上传，UploadId: {}", uploadId);
-
-            List<PartETag> partETags = new ArrayList<>();
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            String key = prefix + fileName;
+            return multipartUploader.upload(lease.client(), bucket, key, input, totalSize, uploadedBytes -> {
+                if (progressCallback != null && totalSize > 0) {
+                    int percent = (int) (uploadedBytes * 100.0 / totalSize);
+                    progressCallback.accept(Math.min(percent, 100));
+                }
+            }, TrafficClass.IMPORT_UPLOAD).getKey();
+        }
+    }
 
-            byte[] buffer = new byte[(int) PART_SIZE]; // 使用你配置的50MB分片
-            long uploadedBytes = 0;
-            int partNumber = 1;
+    /**
+     * 从源站 URL 直接导入 COS，不经过本地临时文件
+     * 源站支持 Range 时按区间并发拉取，否则单流拉取
+     *
+     * @param listener 进度监听器，可为 null
+     */
+    public TransferResult transferFromUrl(String sourceUrl, String fileName, TransferProgressListener listener) {
+        return transferToKey(sourceUrl, objectKey(fileName), listener, null);
+    }
 
-            while (true) {
+    /**
+     * 从源站 URL 导入到指定对象键，传入断点时支持续传
+     *
+     * @param listener   进度监听器，可为 null
+     * @param checkpoint 传输断点，可为 null
+     */
+    public TransferResult transferToKey(String sourceUrl, String key, TransferProgressListener listener,
+                                        TransferCheckpoint checkpoint) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            return rangeStreamImporter.transfer(lease.client(), bucket, key, sourceUrl, listener, checkpoint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("导入被中断", e);
+        } catch (IntegrityException e) {
+            throw new RuntimeException("完整性校验失败: " + e.getMessage(), e);
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("源站下载失败: " + e.getMessage(), e);
+        }
+    }
 
-                // 从 inputStream 读一片到 buffer
-                int bytesRead = input.read(buffer);
-                if (bytesRead == -1) break;   // EOF
+    /**
+     * 公有读 URL 对应的对象键，不是本存储桶的地址时返回 null
+     */
+    public String keyOfUrl(String url) {
+        String base = getPublicUrl("");
+        if (url == null || !url.startsWith(base) || url.length() == base.length()) {
+            return null;
+        }
+        return url.substring(base.length());
+    }
 
-                // 2. 上传该分片
-                UploadPartRequest uploadPartRequest = new UploadPartRequest();
-                uploadPartRequest.setBucketName(bucket);
-                uploadPartRequest.setKey(key);
-                uploadPartRequest.setUploadId(uploadId);
-                uploadPartRequest.setPartNumber(partNumber);
-                uploadPartRequest.setInputStream(
-                    new java.io.ByteArrayInputStream(buffer, 0, bytesRead)
-                );
-                uploadPartRequest.setPartSize(bytesRead);
+    /**
+     * 查询对象元数据，对象不存在时返回 null
+     */
+    public ObjectMetadata getObjectMetadata(String key) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            return lease.client().getObjectMetadata(bucket, key);
+        } catch (CosServiceException e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
 
-                UploadPartResult uploadPartResult =
-                    cosClient.uploadPart(uploadPartRequest);
+    /**
+     * 下载对象写入输出流，按对象下载流量限速；输出流由调用方关闭
+     *
+     * @param eTag 期望的 ETag，不为空时对象已被覆盖则失败
+     * @return 对象元数据
+     */
+    public ObjectMetadata download(String key, String eTag, OutputStream output) throws IOException {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            GetObjectRequest request = new GetObjectRequest(bucket, key);
+            if (eTag != null) {
+                request.setMatchingETagConstraints(List.of(eTag));
+            }
+            COSObject object = lease.client().getObject(request);
+            if (object == null) {
+                throw new IOException("对象已变化: " + key);
+            }
+            try (InputStream input = bandwidthGovernor.throttle(object.getObjectContent(),
+                TrafficClass.OBJECT_DOWNLOAD, bandwidthGovernor.currentSubject())) {
+                input.transferTo(output);
+            }
+            return object.getObjectMetadata();
+        }
+    }
 
-                partETags.add(uploadPartResult.getPartETag());
+    /**
+     * 读取对象的一个字节区间，按对象下载流量限速
+     *
+     * @param start 起始偏移（含）
+     * @param end   结束偏移（含），超过对象末尾时读到末尾为止
+     * @param eTag  期望的 ETag，不为空时对象已被覆盖则失败
+     */
+    public byte[] readRange(String key, long start, long end, String eTag) throws IOException {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            GetObjectRequest request = new GetObjectRequest(bucket, key);
+            request.setRange(start, end);
+            if (eTag != null) {
+                request.setMatchingETagConstraints(List.of(eTag));
+            }
+            COSObject object = lease.client().getObject(request);
+            if (object == null) {
+                throw new IOException("对象已变化: " + key);
+            }
+            try (InputStream input = bandwidthGovernor.throttle(object.getObjectContent(),
+                TrafficClass.OBJECT_DOWNLOAD, bandwidthGovernor.currentSubject())) {
+                return input.readAllBytes();
+            }
+        }
+    }
 
-                uploadedBytes += bytesRead;
+    /**
+     * 文件名对应的对象键
+     */
+    public String objectKey(String fileName) {
+        return prefix + fileName;
+    }
 
-                // 进度回调
-                if (progressCallback != null && totalSize > 0) {
-                    int percent = (int) (uploadedBytes * 100.0 / totalSize);
-                    progressCallback.accept(Math.min(percent, 100));
-                }
+    /**
+     * 删除对象
+     */
+    public void deleteObject(String key) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            lease.client().deleteObject(bucket, key);
+        }
+    }
 
-                log.info("上传分片 {} 成功，已上传 {} / {} ({}%)",
-                    partNumber,
-                    uploadedBytes,
-                    totalSize,
-                    String.format("%.2f", uploadedBytes * 100.0 / totalSize)
-                );
+    /**
+     * 取消分块上传
+     */
+    public void abortMultipartUpload(String key, String uploadId) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            multipartUploader.abortQuietly(lease.client(), bucket, key, uploadId);
+        }
+    }
 
-                partNumber++;
-            }
+    /**
+     * 列出前缀下所有未完成的分块上传
+     */
+    public List<MultipartUpload> listMultipartUploads() {
+        List<MultipartUpload> uploads = new ArrayList<>();
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            ListMultipartUploadsRequest request = new ListMultipartUploadsRequest(bucket);
+            request.setPrefix(prefix);
+            MultipartUploadListing listing;
+            do {
+                listing = lease.client().listMultipartUploads(request);
+                uploads.addAll(listing.getMultipartUploads());
+                request.setKeyMarker(listing.getNextKeyMarker());
+                request.setUploadIdMarker(listing.getNextUploadIdMarker());
+            } while (listing.isTruncated());
+        }
+        return uploads;
+    }
 
-            // 3. 完成分片上传
-            CompleteMultipartUploadRequest completeRequest =
-                new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags);
-            cosClient.completeMultipartUpload(completeRequest);
+    /**
+     * 初始化一个由客户端直传分块的分块上传
+     *
+     * @return UploadId
+     */
+    public String initiateMultipartUpload(String key) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            return multipartUploader.initiate(lease.client(), bucket, key);
+        }
+    }
 
-            log.info("COS 分片上传完成：{}", key);
-            return key;
+    /**
+     * 生成上传单个分块的预签名 URL，客户端以 PUT 方式直接把分块写入存储桶，响应头 ETag 即分块 ETag
+     */
+    public String getPresignedPartUrl(String key, String uploadId, int partNumber, long expireSeconds) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            Date expiration = new Date(System.currentTimeMillis() + expireSeconds * 1000L);
+            GeneratePresignedUrlRequest request =
+                new GeneratePresignedUrlRequest(bucket, key, HttpMethodName.PUT);
+            request.addRequestParameter("uploadId", uploadId);
+            request.addRequestParameter("partNumber", String.valueOf(partNumber));
+            URL url = lease.client().generatePresignedUrl(request.withExpiration(expiration));
+            return url.toString();
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("COS 分片上传失败", e);
-
-            // 上传失败要 Abort
-            if (uploadId != null) {
-                try {
-                    cosClient.abortMultipartUpload(
-                        new AbortMultipartUploadRequest(bucket, key, uploadId)
-                    );
-                } catch (Exception ex) {
-                    log.error("Abort 分片失败", ex);
-                }
+    /**
+     * 列出分块上传在 COS 上已存在的分块（含大小），按分块号升序
+     *
+     * @return 分块上传不存在（已完成或已 Abort）时返回 null
+     */
+    public List<PartSummary> listParts(String key, String uploadId) {
+        List<PartSummary> parts = new ArrayList<>();
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            ListPartsRequest request = new ListPartsRequest(bucket, key, uploadId);
+            PartListing listing;
+            do {
+                listing = lease.client().listParts(request);
+                parts.addAll(listing.getParts());
+                request.setPartNumberMarker(listing.getNextPartNumberMarker());
+            } while (listing.isTruncated());
+        } catch (CosServiceException e) {
+            if (e.getStatusCode() == 404) {
+                return null;
             }
-
-            throw new RuntimeException("COS 分片上传失败", e);
-
-        } finally {
-            try {
-                input.close();
-            } catch (Exception ignore) {}
-            cosClient.shutdown();
+            throw e;
         }
+        parts.sort(Comparator.comparingInt(PartSummary::getPartNumber));
+        return parts;
     }
 
+    /**
+     * 完成分块上传，partETags 必须按分块号升序
+     *
+     * @return COS 计算的整个对象的 CRC64
+     */
+    public String completeMultipartUpload(String key, String uploadId, List<PartETag> partETags) {
+        try (CosClientRegistry.Lease lease = leaseClient()) {
+            return multipartUploader.complete(lease.client(), bucket, key, uploadId, partETags).getCrc64Ecma();
+        }
+    }
 
 }
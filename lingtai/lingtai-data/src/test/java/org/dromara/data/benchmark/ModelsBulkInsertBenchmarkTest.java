@@ -0,0 +1,149 @@
+package org.dromara.data.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.dromara.data.entity.Models;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.properties.BulkRegisterProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 批量登记模型的插入吞吐：BaseMapperPlus.insertBatch（BATCH 执行器 + rewriteBatchedStatements）与逐行 insert 对比
+ * <p>
+ * 每轮插入一个满额请求（lingtai.bulk-register.max-models 行），按默认 batch-size 分批，两种方式都在一个事务内提交；
+ * 先预热，再各取多轮的中位数；批量插入的吞吐须达到逐行插入的 {@link #MIN_SPEEDUP} 倍。
+ */
+@Slf4j
+@Tag(MysqlBenchmarkSupport.TAG)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("批量登记模型插入吞吐基准")
+public class ModelsBulkInsertBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final long USER_ID = 1L;
+    /**
+     * 批量插入相对逐行插入的最低提升倍数，低于该值说明批量改写未生效（如 rewriteBatchedStatements 丢失）
+     */
+    private static final double MIN_SPEEDUP = 3.0;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = MysqlBenchmarkSupport.container();
+
+    private static final BulkRegisterProperties PROPERTIES = new BulkRegisterProperties();
+
+    private static HikariDataSource dataSource;
+    private static SqlSessionFactory sqlSessionFactory;
+
+    @BeforeAll
+    public static void setUp() throws SQLException {
+        dataSource = MysqlBenchmarkSupport.dataSource(MYSQL);
+        MysqlBenchmarkSupport.createModelsTable(dataSource);
+        sqlSessionFactory = MysqlBenchmarkSupport.sqlSessionFactory(dataSource, DataMapper.class);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("批量插入吞吐至少是逐行插入的 3 倍，且回填自增主键")
+    public void batchedInsertOutperformsPerRow() throws SQLException {
+        int rows = PROPERTIES.getMaxModels();
+
+        double perRow = measure("逐行 insert", rows, models -> {
+            try (SqlSession session = sqlSessionFactory.openSession(false)) {
+                DataMapper mapper = session.getMapper(DataMapper.class);
+                models.forEach(mapper::insert);
+                session.commit();
+            }
+        });
+        double batched = measure("insertBatch", rows, models -> {
+            // insertBatch 经 Db.saveBatch 自行打开 BATCH 会话并提交，这里的会话只用来取得 Mapper
+            try (SqlSession session = sqlSessionFactory.openSession(false)) {
+                session.getMapper(DataMapper.class).insertBatch(models, PROPERTIES.getBatchSize());
+            }
+        });
+
+        double speedup = batched / perRow;
+        log.info("[BENCHMARK] {} 行/请求，batch-size={}：逐行 {} 行/秒，批量 {} 行/秒，提升 {} 倍",
+            rows, PROPERTIES.getBatchSize(), Math.round(perRow), Math.round(batched), String.format("%.1f", speedup));
+        Assertions.assertTrue(speedup >= MIN_SPEEDUP,
+            String.format("批量插入（%.0f 行/秒）应至少是逐行插入（%.0f 行/秒）的 %.0f 倍，实际 %.1f 倍",
+                batched, perRow, MIN_SPEEDUP, speedup));
+    }
+
+    /**
+     * 多轮插入，返回吞吐（行/秒）的中位数；每轮后核对行数与回填的主键
+     */
+    private static double measure(String name, int rows, Consumer<List<Models>> insert) throws SQLException {
+        double[] throughput = new double[MEASURE_ROUNDS];
+        for (int round = -WARMUP_ROUNDS; round < MEASURE_ROUNDS; round++) {
+            MysqlBenchmarkSupport.execute(dataSource, List.of("truncate table models"));
+            List<Models> models = models(rows, round);
+            long start = System.nanoTime();
+            insert.accept(models);
+            long elapsed = System.nanoTime() - start;
+
+            Assertions.assertEquals(rows, countModels(), name + " 插入行数不一致");
+            Assertions.assertEquals(rows, models.stream().map(Models::getId).filter(Objects::nonNull).distinct().count(),
+                name + " 未回填自增主键");
+            if (round >= 0) {
+                throughput[round] = rows * 1_000_000_000d / elapsed;
+            }
+        }
+        Arrays.sort(throughput);
+        return throughput[MEASURE_ROUNDS / 2];
+    }
+
+    private static List<Models> models(int rows, int round) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Models> models = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            models.add(new Models()
+                .setUserId(USER_ID)
+                .setName("bench-" + round + "-" + i)
+                .setDescription("bulk register benchmark")
+                .setFilePath("https://bucket.example.com/model/" + USER_ID + "/bench/" + i + ".safetensors")
+                .setVersion("v1")
+                .setSize(1L << 20)
+                .setStatus("Inactive")
+                .setCreatedTime(now)
+                .setUpdatedTime(now));
+        }
+        return models;
+    }
+
+    private static long countModels() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from models")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
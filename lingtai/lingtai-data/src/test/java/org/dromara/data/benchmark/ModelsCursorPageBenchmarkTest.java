@@ -0,0 +1,306 @@
+package org.dromara.data.benchmark;
+
+import cn.hutool.extra.spring.SpringUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
+import org.dromara.data.entity.Models;
+import org.dromara.data.mapper.DataMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 模型游标分页的深翻页代价：第 1000 页与第 1 页读取的行数相同
+ * <p>
+ * 按 lingtai.sql 建立 idx_models_user_created 后，沿 getModelsCursor 的条件（user_id，按 created_time desc, id desc）
+ * 逐页翻到第 1000 页。代价以 MySQL 会话的 Handler_read_* 计数衡量，不受机器快慢影响；同时对第 1000 页的 SQL 做 EXPLAIN，
+ * 确认走该索引且没有 filesort，并与同一深度的 OFFSET 分页对比。读取行数与执行计划只作断言，耗时只记日志，不作断言。
+ */
+@Slf4j
+@Tag(MysqlBenchmarkSupport.TAG)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("模型游标分页深翻页基准")
+public class ModelsCursorPageBenchmarkTest {
+
+    private static final long USER_ID = 1L;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 1000;
+
+    /**
+     * 目标用户比翻到的页数多出的行，其中含 created_time 为空的行
+     */
+    private static final int EXTRA_ROWS = 500;
+
+    /**
+     * 其他用户各自的行数，使索引中不只有目标用户
+     */
+    private static final int OTHER_USERS = 3;
+    private static final int OTHER_USER_ROWS = 20000;
+
+    private static final int TIMING_ROUNDS = 50;
+
+    /**
+     * 前后两次读取 Handler 计数本身带来的差异容差
+     */
+    private static final long READ_TOLERANCE = 5;
+
+    private static final String INDEX = "idx_models_user_created";
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = MysqlBenchmarkSupport.container();
+
+    private static HikariDataSource dataSource;
+    private static SqlSessionFactory sqlSessionFactory;
+
+    @BeforeAll
+    public static void setUp() throws SQLException, IOException {
+        // 游标签名秘钥
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource(MysqlBenchmarkSupport.TAG,
+            Map.of("mybatis-plus.cursorSecret", "benchmark-cursor-secret")));
+        context.refresh();
+        new SpringUtil().setApplicationContext(context);
+
+        dataSource = MysqlBenchmarkSupport.dataSource(MYSQL);
+        MysqlBenchmarkSupport.createModelsTable(dataSource);
+        MysqlBenchmarkSupport.execute(dataSource, MysqlBenchmarkSupport.lingtaiSql("alter table models add index"));
+        populate();
+        MysqlBenchmarkSupport.execute(dataSource, List.of("analyze table models"));
+        sqlSessionFactory = MysqlBenchmarkSupport.sqlSessionFactory(dataSource, DataMapper.class);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("第 1000 页与第 1 页读取行数相同，走联合索引且无 filesort")
+    public void deepPageCostsSameAsFirstPage() throws SQLException {
+        List<Integer> expected = expectedIds(PAGES * PAGE_SIZE);
+        List<Integer> seen = new ArrayList<>(PAGES * PAGE_SIZE);
+
+        try (SqlSession session = sqlSessionFactory.openSession(true)) {
+            DataMapper mapper = session.getMapper(DataMapper.class);
+            Connection connection = session.getConnection();
+
+            String cursor = null;
+            String lastCursor = null;
+            long firstReads = 0;
+            long lastReads = 0;
+            for (int page = 1; page <= PAGES; page++) {
+                boolean probe = page == 1 || page == PAGES;
+                LambdaQueryWrapper<Models> wrapper = wrapper();
+                long before = probe ? handlerReads(connection) : 0;
+                CursorPage<Models> result = new CursorPageQuery(PAGE_SIZE, cursor)
+                    .selectPage(mapper, wrapper, Models::getCreatedTime, Models::getId, scope());
+                if (page == 1) {
+                    firstReads = handlerReads(connection) - before;
+                } else if (page == PAGES) {
+                    lastReads = handlerReads(connection) - before;
+                    assertUsesIndex(session, connection, wrapper);
+                    lastCursor = cursor;
+                }
+                Assertions.assertEquals(PAGE_SIZE, result.getRows().size(), "第 " + page + " 页行数不足");
+                Assertions.assertTrue(result.isHasMore(), "第 " + page + " 页之后应还有数据");
+                result.getRows().forEach(model -> seen.add(model.getId()));
+                cursor = result.getNextCursor();
+            }
+            // 逐页拼接的结果与一次性排序的结果一致：不重复、不遗漏
+            Assertions.assertEquals(expected, seen);
+
+            long offsetReads = offsetReads(connection);
+            log.info("[BENCHMARK] 中位耗时：游标第 1 页 {} ms，游标第 {} 页 {} ms，OFFSET 第 {} 页 {} ms",
+                String.format("%.3f", cursorMillis(session, mapper, null)), PAGES,
+                String.format("%.3f", cursorMillis(session, mapper, lastCursor)), PAGES,
+                String.format("%.3f", offsetMillis(connection)));
+
+            Assertions.assertTrue(lastReads <= firstReads + READ_TOLERANCE,
+                String.format("第 %d 页读取 %d 行，第 1 页读取 %d 行，深翻页不应读取更多行", PAGES, lastReads, firstReads));
+            Assertions.assertTrue(lastReads <= 2L * (PAGE_SIZE + 1) + READ_TOLERANCE,
+                "游标分页每页应只读取 pageSize+1 行左右，实际 " + lastReads);
+            // 计数确实反映了扫描量：同一深度的 OFFSET 要读过前面所有行
+            Assertions.assertTrue(offsetReads >= (long) (PAGES - 1) * PAGE_SIZE,
+                "OFFSET 第 " + PAGES + " 页读取 " + offsetReads + " 行");
+        }
+    }
+
+    /**
+     * 与 ModelsServiceImpl.getModelsCursor 不带名称、状态过滤时的条件一致
+     */
+    private static LambdaQueryWrapper<Models> wrapper() {
+        return new LambdaQueryWrapper<Models>().eq(Models::getUserId, USER_ID);
+    }
+
+    private static String scope() {
+        return "models:" + USER_ID + "::";
+    }
+
+    /**
+     * 对翻页实际执行的 SQL（含游标条件、排序与 limit）做 EXPLAIN
+     */
+    private static void assertUsesIndex(SqlSession session, Connection connection, LambdaQueryWrapper<Models> wrapper)
+        throws SQLException {
+        MappedStatement statement = session.getConfiguration().getMappedStatement(DataMapper.class.getName() + ".selectList");
+        MapperMethod.ParamMap<Object> parameter = new MapperMethod.ParamMap<>();
+        parameter.put(Constants.WRAPPER, wrapper);
+        parameter.put("param1", wrapper);
+        BoundSql boundSql = statement.getBoundSql(parameter);
+        try (PreparedStatement explain = connection.prepareStatement("explain " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameter, boundSql).setParameters(explain);
+            try (ResultSet rs = explain.executeQuery()) {
+                Assertions.assertTrue(rs.next());
+                String key = rs.getString("key");
+                String extra = rs.getString("Extra");
+                String plan = String.format("EXPLAIN 第 %d 页：type=%s, key=%s, Extra=%s", PAGES, rs.getString("type"), key, extra);
+                Assertions.assertEquals(INDEX, key, "游标分页应使用 " + INDEX + "，" + plan);
+                Assertions.assertFalse(extra != null && extra.contains("filesort"), "游标分页不应 filesort，" + plan);
+            }
+        }
+    }
+
+    private static double cursorMillis(SqlSession session, DataMapper mapper, String cursor) {
+        long[] nanos = new long[TIMING_ROUNDS];
+        for (int i = 0; i < TIMING_ROUNDS; i++) {
+            // 同一条 SQL 与参数会命中会话缓存
+            session.clearCache();
+            long start = System.nanoTime();
+            new CursorPageQuery(PAGE_SIZE, cursor).selectPage(mapper, wrapper(), Models::getCreatedTime, Models::getId, scope());
+            nanos[i] = System.nanoTime() - start;
+        }
+        return median(nanos);
+    }
+
+    private static double offsetMillis(Connection connection) throws SQLException {
+        long[] nanos = new long[TIMING_ROUNDS];
+        for (int i = 0; i < TIMING_ROUNDS; i++) {
+            long start = System.nanoTime();
+            offsetPage(connection);
+            nanos[i] = System.nanoTime() - start;
+        }
+        return median(nanos);
+    }
+
+    private static long offsetReads(Connection connection) throws SQLException {
+        long before = handlerReads(connection);
+        offsetPage(connection);
+        return handlerReads(connection) - before;
+    }
+
+    /**
+     * /page 接口同一深度的 OFFSET 分页
+     */
+    private static void offsetPage(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "select * from models where user_id = ? order by created_time desc, id desc limit ?, ?")) {
+            statement.setLong(1, USER_ID);
+            statement.setInt(2, (PAGES - 1) * PAGE_SIZE);
+            statement.setInt(3, PAGE_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rs.getInt("id");
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前会话各 Handler_read_* 计数之和，即存储引擎读取的行数
+     */
+    private static long handlerReads(Connection connection) throws SQLException {
+        long total = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("show session status like 'Handler_read%'")) {
+            while (rs.next()) {
+                total += rs.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    private static List<Integer> expectedIds(int limit) throws SQLException {
+        List<Integer> ids = new ArrayList<>(limit);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "select id from models where user_id = ? order by created_time desc, id desc limit ?")) {
+            statement.setLong(1, USER_ID);
+            statement.setInt(2, limit);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 目标用户的 created_time 每 3 行相同（检验主键决胜），每 100 行有一行为空；其他用户的行与之交错
+     */
+    private static void populate() throws SQLException {
+        long base = Timestamp.valueOf("2026-01-01 00:00:00").getTime();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "insert into models (user_id, name, status, created_time, updated_time) values (?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            int targetRows = PAGES * PAGE_SIZE + EXTRA_ROWS;
+            int total = targetRows + OTHER_USERS * OTHER_USER_ROWS;
+            int pending = 0;
+            for (int i = 0; i < total; i++) {
+                boolean target = i < targetRows;
+                long userId = target ? USER_ID : USER_ID + 1 + (i - targetRows) % OTHER_USERS;
+                int seq = target ? i : (i - targetRows) / OTHER_USERS;
+                Timestamp created = target && seq % 100 == 99 ? null : new Timestamp(base + (seq / 3) * 1000L);
+                statement.setLong(1, userId);
+                statement.setString(2, "cursor-" + userId + "-" + seq);
+                statement.setString(3, "Inactive");
+                statement.setTimestamp(4, created);
+                statement.setTimestamp(5, created);
+                statement.addBatch();
+                if (++pending == 1000) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static double median(long[] nanos) {
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1_000_000d;
+    }
+}
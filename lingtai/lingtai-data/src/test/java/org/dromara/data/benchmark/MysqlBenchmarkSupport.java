@@ -0,0 +1,127 @@
+package org.dromara.data.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * 基准测试公共部分：MySQL 容器、数据源与不依赖 Spring 的 MyBatis-Plus 会话工厂
+ * <p>
+ * models 等基础表由业务库维护，不在 lingtai.sql 中，这里按实体字段建表；lingtai.sql 中的索引由各测试按需执行。
+ * <p>
+ * 基准测试打 @Tag("benchmark")，默认的 dev 测试不会运行，需要本机 Docker：
+ * <pre>{@code
+ * mvn -pl lingtai/lingtai-data test -DskipTests=false -Dprofiles.active=benchmark
+ * }</pre>
+ */
+final class MysqlBenchmarkSupport {
+
+    static final String TAG = "benchmark";
+
+    /**
+     * 测试的工作目录为模块目录
+     */
+    private static final Path LINGTAI_SQL = Path.of("../../script/sql/lingtai.sql");
+
+    private static final String MODELS_DDL = """
+        create table models (
+          id            int           not null auto_increment,
+          user_id       bigint        default null,
+          project_id    int           default null,
+          name          varchar(255)  default null,
+          description   text,
+          file_path     varchar(1024) default null,
+          version       varchar(64)   default null,
+          size          bigint        default null,
+          class_config  json          default null,
+          status        varchar(32)   default null,
+          progress      decimal(5,2)  default null,
+          loss          decimal(10,4) default null,
+          accuracy      decimal(5,4)  default null,
+          created_time  timestamp     null default null,
+          updated_time  timestamp     null default null,
+          hub_url       varchar(1024) default null,
+          primary key (id)
+        ) engine=innodb""";
+
+    private MysqlBenchmarkSupport() {
+    }
+
+    static MySQLContainer<?> container() {
+        return new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+            .withDatabaseName("lingtai")
+            .withCommand("--character-set-server=utf8mb4", "--innodb-buffer-pool-size=256M");
+    }
+
+    /**
+     * 与 nacos datasource.yml 一致，开启 rewriteBatchedStatements
+     */
+    static HikariDataSource dataSource(MySQLContainer<?> mysql) {
+        String url = mysql.getJdbcUrl();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true&serverTimezone=GMT%2B8");
+        config.setUsername(mysql.getUsername());
+        config.setPassword(mysql.getPassword());
+        config.setMaximumPoolSize(2);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * 注册 Mapper 并构建会话工厂，构建时会登记到 GlobalConfig，Db.saveBatch 等静态工具可以找到
+     */
+    static SqlSessionFactory sqlSessionFactory(DataSource dataSource, Class<?>... mappers) {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setEnvironment(new Environment(TAG, new JdbcTransactionFactory(), dataSource));
+        Arrays.stream(mappers).forEach(configuration::addMapper);
+        return new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    static void createModelsTable(DataSource dataSource) throws SQLException {
+        execute(dataSource, List.of("drop table if exists models", MODELS_DDL));
+    }
+
+    /**
+     * lingtai.sql 中以 prefix 开头的语句（忽略大小写、注释与多余空白）
+     */
+    static List<String> lingtaiSql(String prefix) throws IOException {
+        String script = Files.readAllLines(LINGTAI_SQL, StandardCharsets.UTF_8).stream()
+            .filter(line -> !line.trim().startsWith("--"))
+            .collect(Collectors.joining("\n"));
+        List<String> statements = Arrays.stream(script.split(";"))
+            .map(sql -> sql.trim().replaceAll("\\s+", " "))
+            .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT)))
+            .toList();
+        if (statements.isEmpty()) {
+            throw new IllegalStateException("lingtai.sql 中没有以 " + prefix + " 开头的语句");
+        }
+        return statements;
+    }
+
+    static void execute(DataSource dataSource, List<String> statements) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.dromara.data.search;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.dromara.data.entity.CatalogDocument;
+import org.dromara.data.entity.CatalogOutbox;
+import org.dromara.data.entity.DataSets;
+import org.dromara.data.entity.ModelFileIndex;
+import org.dromara.data.entity.Models;
+import org.dromara.data.esmapper.CatalogDocumentMapper;
+import org.dromara.data.mapper.CatalogOutboxMapper;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.DataSetsMapper;
+import org.dromara.data.mapper.ModelFileIndexMapper;
+import org.dromara.data.properties.CatalogProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 目录索引测试
+ * <p>
+ * 搜索引擎用进程内替身 {@link InMemorySearchServer}，发件箱、模型、数据集与张量索引用内存实现代替。
+ */
+@Tag("dev")
+@DisplayName("目录索引测试")
+public class CatalogIndexerTest {
+
+    private static final long USER_ID = 7L;
+
+    private static InMemorySearchServer search;
+
+    private final List<CatalogOutbox> outbox = new ArrayList<>();
+    private final Map<Integer, Models> models = new TreeMap<>();
+    private final Map<Integer, DataSets> dataSets = new TreeMap<>();
+    private final List<ModelFileIndex> fileIndexes = new ArrayList<>();
+    private final AtomicLong outboxIds = new AtomicLong();
+
+    private CatalogProperties properties;
+    private DataMapper dataMapper;
+    private CatalogIndexer indexer;
+
+    @BeforeAll
+    public static void startSearch() throws IOException {
+        // Lambda 条件构造器按实体的表信息解析列名
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, CatalogOutbox.class);
+        TableInfoHelper.initTableInfo(assistant, Models.class);
+        TableInfoHelper.initTableInfo(assistant, DataSets.class);
+        TableInfoHelper.initTableInfo(assistant, ModelFileIndex.class);
+        search = InMemorySearchServer.start();
+    }
+
+    @AfterAll
+    public static void stopSearch() throws IOException {
+        search.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        search.reset();
+        properties = new CatalogProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(100);
+
+        CatalogOutboxMapper outboxMapper = mock(CatalogOutboxMapper.class);
+        when(outboxMapper.selectList(any())).thenAnswer(invocation -> outbox.stream()
+            .sorted(Comparator.comparing(CatalogOutbox::getId))
+            .limit(properties.getBatchSize())
+            .toList());
+        when(outboxMapper.deleteBatchIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            int before = outbox.size();
+            outbox.removeIf(row -> ids.contains(row.getId()));
+            return before - outbox.size();
+        });
+        when(outboxMapper.insert(any(CatalogOutbox.class))).thenAnswer(invocation -> {
+            CatalogOutbox row = invocation.getArgument(0);
+            outbox.add(row.setId(outboxIds.incrementAndGet()));
+            return 1;
+        });
+        when(outboxMapper.deleteById(any(Serializable.class))).thenAnswer(invocation -> {
+            Object id = invocation.getArgument(0);
+            return outbox.removeIf(row -> row.getId().equals(id)) ? 1 : 0;
+        });
+
+        dataMapper = mock(DataMapper.class);
+        when(dataMapper.selectBatchIds(anyCollection())).thenAnswer(invocation ->
+            rows(models, invocation.getArgument(0)));
+        // 全量重建按主键分页：第一页返回全部，第二页为空
+        when(dataMapper.selectList(any())).thenAnswer(invocation -> List.copyOf(models.values()))
+            .thenAnswer(invocation -> List.of());
+
+        DataSetsMapper dataSetsMapper = mock(DataSetsMapper.class);
+        when(dataSetsMapper.selectBatchIds(anyCollection())).thenAnswer(invocation ->
+            rows(dataSets, invocation.getArgument(0)));
+        when(dataSetsMapper.selectList(any())).thenAnswer(invocation -> List.copyOf(dataSets.values()))
+            .thenAnswer(invocation -> List.of());
+
+        ModelFileIndexMapper modelFileIndexMapper = mock(ModelFileIndexMapper.class);
+        when(modelFileIndexMapper.selectList(any())).thenAnswer(invocation -> fileIndexes.stream()
+            .filter(index -> ModelFileIndex.STATUS_INDEXED.equals(index.getStatus()))
+            .toList());
+
+        indexer = new CatalogIndexer(outboxMapper, dataMapper, dataSetsMapper, modelFileIndexMapper,
+            mock(CatalogDocumentMapper.class), properties, mock(ScheduledExecutorService.class));
+        ReflectionTestUtils.setField(indexer, "client", search.client());
+        ReflectionTestUtils.setField(indexer, "taskExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    @DisplayName("增量索引：按对象合并发件箱记录，版本号取最后一条，完成后删除记录")
+    public void indexesOutboxByTarget() {
+        model(1, "Llama-3-8B", "https://huggingface.co/meta-llama/Llama-3-8B/");
+        dataSet(2, "alpaca-cleaned", "https://huggingface.co/datasets/yahma/alpaca-cleaned");
+        fileIndexes.add(index(1, "SafeTensors", 4_000_000_000L, ModelFileIndex.STATUS_INDEXED));
+        fileIndexes.add(index(1, "gguf", 4_030_000_000L, ModelFileIndex.STATUS_INDEXED));
+        fileIndexes.add(index(1, "pickle", 1L, ModelFileIndex.STATUS_FAILED));
+        enqueue(ICatalogOutboxService.TARGET_MODEL, 1);
+        enqueue(ICatalogOutboxService.TARGET_DATASET, 2);
+        long lastModelRow = enqueue(ICatalogOutboxService.TARGET_MODEL, 1);
+
+        Assertions.assertEquals(Boolean.FALSE, indexBatch());
+
+        Assertions.assertTrue(outbox.isEmpty());
+        Assertions.assertEquals(Set.of("model-1", "dataset-2"), search.ids());
+        Assertions.assertEquals(lastModelRow, search.version("model-1"));
+        JsonNode model = search.source("model-1");
+        Assertions.assertEquals("Llama-3-8B", model.path("name").asText());
+        Assertions.assertEquals("meta-llama/Llama-3-8B", model.path("hubRepo").asText());
+        Assertions.assertEquals("gguf", model.path("formats").path(0).asText());
+        Assertions.assertEquals("safetensors", model.path("formats").path(1).asText());
+        Assertions.assertEquals(2, model.path("formats").size());
+        Assertions.assertEquals(8_030_000_000L, model.path("parameterCount").asLong());
+        Assertions.assertEquals("yahma/alpaca-cleaned", search.source("dataset-2").path("hubRepo").asText());
+        Assertions.assertEquals(2, indexer.getIndexedDocs());
+    }
+
+    @Test
+    @DisplayName("增量索引：旧版本被拒绝不覆盖新文档，行已删除的对象删除文档")
+    public void rejectsStaleVersionsAndDeletesMissingRows() {
+        model(1, "resnet-50", null);
+        model(2, "bert-base", null);
+        enqueue(ICatalogOutboxService.TARGET_MODEL, 1);
+        enqueue(ICatalogOutboxService.TARGET_MODEL, 2);
+        indexBatch();
+        long current = search.version("model-1");
+
+        // 更新的写入已经到达搜索引擎，重放的旧记录不能把它覆盖
+        search.put("model-1", current + 10, new CatalogDocument().setId("model-1").setName("resnet-50-newer"));
+        models.get(1).setName("resnet-50-stale");
+        enqueue(ICatalogOutboxService.TARGET_MODEL, 1);
+        models.remove(2);
+        long deleteRow = enqueue(ICatalogOutboxService.TARGET_MODEL, 2);
+
+        indexBatch();
+
+        Assertions.assertTrue(outbox.isEmpty(), "版本冲突不算失败，记录应被删除");
+        Assertions.assertEquals("resnet-50-newer", search.source("model-1").path("name").asText());
+        Assertions.assertEquals(0, indexer.getFailedDocs());
+        Assertions.assertNull(search.source("model-2"));
+        Assertions.assertEquals(deleteRow, search.version("model-2"));
+        Assertions.assertEquals(1, indexer.getDeletedDocs());
+    }
+
+    @Test
+    @DisplayName("增量索引：写入失败的对象保留发件箱记录，下次轮询重试")
+    public void keepsOutboxRowsOfFailedDocuments() {
+        model(1, "whisper-small", null);
+        model(2, "whisper-base", null);
+        enqueue(ICatalogOutboxService.TARGET_MODEL, 1);
+        long failedRow = enqueue(ICatalogOutboxService.TARGET_MODEL, 2);
+        search.fail("model-2");
+
+        Assertions.assertEquals(Boolean.FALSE, indexBatch());
+
+        Assertions.assertEquals(List.of(failedRow), outbox.stream().map(CatalogOutbox::getId).toList());
+        Assertions.assertEquals(Set.of("model-1"), search.ids());
+        Assertions.assertEquals(1, indexer.getFailedDocs());
+
+        search.recover("model-2");
+        indexBatch();
+
+        Assertions.assertTrue(outbox.isEmpty());
+        Assertions.assertEquals(Set.of("model-1", "model-2"), search.ids());
+        Assertions.assertEquals(failedRow, search.version("model-2"));
+    }
+
+    @Test
+    @DisplayName("增量索引：满批时提示还有剩余，轮询连续处理")
+    public void reportsRemainingRowsWhenBatchIsFull() {
+        properties.setBatchSize(2);
+        for (int id = 1; id <= 5; id++) {
+            model(id, "model-" + id, null);
+            enqueue(ICatalogOutboxService.TARGET_MODEL, id);
+        }
+
+        Assertions.assertEquals(Boolean.TRUE, indexBatch());
+        Assertions.assertEquals(3, outbox.size());
+
+        ReflectionTestUtils.setField(indexer, "indexReady", true);
+        ReflectionTestUtils.invokeMethod(indexer, "poll");
+
+        Assertions.assertTrue(outbox.isEmpty());
+        Assertions.assertEquals(5, search.ids().size());
+    }
+
+    @Test
+    @DisplayName("全量重建：写入全部对象并清理旧批次的残留文档，不覆盖重建开始后的增量写入")
+    public void reindexPurgesStaleGenerationsAndKeepsNewerWrites() {
+        model(1, "t5-small", null);
+        model(2, "t5-base", null);
+        dataSet(3, "squad", null);
+        // 已删除对象在旧批次留下的文档
+        search.put("model-99", 1, new CatalogDocument().setId("model-99").setName("deleted").setGeneration(1L));
+
+        // 重建读出模型之后，模型 2 被修改并先由增量索引写入
+        AtomicLong incrementalRow = new AtomicLong();
+        when(dataMapper.selectList(any())).thenAnswer(invocation -> {
+            List<Models> page = List.copyOf(models.values());
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            models.put(2, new Models().setId(2).setUserId(USER_ID).setName("t5-base-newer").setVersion("v2")
+                .setStatus("Active").setCreatedTime(now).setUpdatedTime(now));
+            incrementalRow.set(enqueue(ICatalogOutboxService.TARGET_MODEL, 2));
+            indexBatch();
+            return page;
+        }).thenAnswer(invocation -> List.of());
+
+        Assertions.assertTrue(indexer.reindex());
+
+        Assertions.assertFalse(indexer.isReindexing());
+        Assertions.assertTrue(outbox.isEmpty(), "重建的标记记录应被删除");
+        long generation = indexer.getGeneration();
+        Assertions.assertTrue(generation > 0);
+        Assertions.assertEquals(Set.of("model-1", "model-2", "dataset-3"), search.ids());
+        for (String id : List.of("model-1", "model-2", "dataset-3")) {
+            Assertions.assertEquals(generation, search.source(id).path("generation").asLong(), id);
+        }
+        Assertions.assertEquals("t5-base-newer", search.source("model-2").path("name").asText());
+        Assertions.assertEquals(incrementalRow.get(), search.version("model-2"));
+        Assertions.assertTrue(search.version("model-1") < incrementalRow.get());
+        Assertions.assertEquals("squad", search.source("dataset-3").path("name").asText());
+        Assertions.assertTrue(indexer.getLastReindexTime() > 0);
+    }
+
+    @Test
+    @DisplayName("仓库地址解析为仓库路径")
+    public void parsesHubRepo() {
+        Assertions.assertEquals("org/name", CatalogIndexer.hubRepo("https://huggingface.co/org/name"));
+        Assertions.assertEquals("org/name", CatalogIndexer.hubRepo("https://huggingface.co/datasets/org/name/"));
+        Assertions.assertEquals("org/name", CatalogIndexer.hubRepo(" https://hf-mirror.com/org/name "));
+        Assertions.assertNull(CatalogIndexer.hubRepo(" "));
+    }
+
+    private Boolean indexBatch() {
+        return ReflectionTestUtils.invokeMethod(indexer, "indexBatch");
+    }
+
+    private long enqueue(String targetType, int targetId) {
+        CatalogOutbox row = new CatalogOutbox()
+            .setId(outboxIds.incrementAndGet())
+            .setTargetType(targetType)
+            .setTargetId(targetId)
+            .setCreatedTime(new Timestamp(System.currentTimeMillis()));
+        outbox.add(row);
+        return row.getId();
+    }
+
+    private void model(int id, String name, String hubUrl) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        models.put(id, new Models().setId(id).setUserId(USER_ID).setName(name).setHubUrl(hubUrl)
+            .setVersion("v1").setStatus("Active").setCreatedTime(now).setUpdatedTime(now));
+    }
+
+    private void dataSet(int id, String name, String hubUrl) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        dataSets.put(id, new DataSets().setId(id).setUserId(USER_ID).setName(name).setHubUrl(hubUrl)
+            .setVersion("v1").setStatus("Active").setDataType("text").setSource("hub")
+            .setCreatedTime(now).setUpdatedTime(now));
+    }
+
+    private static ModelFileIndex index(int modelId, String format, long parameters, String status) {
+        return new ModelFileIndex().setModelId(modelId).setFormat(format).setParameterCount(parameters).setStatus(status);
+    }
+
+    private static <T> List<T> rows(Map<Integer, T> table, Collection<?> ids) {
+        return ids.stream().map(table::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,561 @@
+package org.dromara.data.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内的搜索引擎替身
+ * <p>
+ * 用 JDK 自带的 HttpServer 实现目录索引用到的接口（_bulk、_search、_refresh、_delete_by_query），
+ * 响应结构与 Elasticsearch 相同，ElasticsearchClient 可以直接连接。只实现目录索引依赖的语义：
+ * 外部版本号（含删除留下的版本）、bool 查询中的 multi_match / term、按非字母数字切分的匹配与高亮、terms 聚合。
+ * 不认识的查询返回 400，避免测试在不支持的语义上误判通过。
+ */
+public class InMemorySearchServer implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    /**
+     * 文档，source 为空表示已删除、只保留版本号
+     */
+    private record Stored(long version, ObjectNode source) {
+    }
+
+    private final HttpServer server;
+    private final RestClient restClient;
+    private final ElasticsearchClient client;
+
+    private final Map<String, Stored> docs = new ConcurrentHashMap<>();
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final List<JsonNode> searches = new CopyOnWriteArrayList<>();
+
+    private InMemorySearchServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        restClient = RestClient.builder(new HttpHost(server.getAddress().getHostString(), server.getAddress().getPort()))
+            .build();
+        client = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+    }
+
+    public static InMemorySearchServer start() throws IOException {
+        return new InMemorySearchServer();
+    }
+
+    public ElasticsearchClient client() {
+        return client;
+    }
+
+    /**
+     * 清空文档、失败设置与请求记录
+     */
+    public void reset() {
+        docs.clear();
+        failing.clear();
+        searches.clear();
+    }
+
+    /**
+     * 之后写入该文档时返回非版本冲突的错误
+     */
+    public void fail(String id) {
+        failing.add(id);
+    }
+
+    public void recover(String id) {
+        failing.remove(id);
+    }
+
+    /**
+     * 直接放入一个文档
+     */
+    public void put(String id, long version, Object source) {
+        docs.put(id, new Stored(version, JSON.valueToTree(source)));
+    }
+
+    /**
+     * 现存文档的 _source，不存在时返回 null
+     */
+    public JsonNode source(String id) {
+        Stored stored = docs.get(id);
+        return stored == null ? null : stored.source();
+    }
+
+    /**
+     * 文档的版本号（含已删除的），没有记录时返回 null
+     */
+    public Long version(String id) {
+        Stored stored = docs.get(id);
+        return stored == null ? null : stored.version();
+    }
+
+    /**
+     * 现存文档的ID
+     */
+    public Set<String> ids() {
+        Set<String> ids = new HashSet<>();
+        docs.forEach((id, stored) -> {
+            if (stored.source() != null) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * 最近一次检索请求体
+     */
+    public JsonNode lastSearch() {
+        return searches.isEmpty() ? null : searches.get(searches.size() - 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        restClient.close();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            JsonNode response;
+            int status = 200;
+            try {
+                if (path.endsWith("/_bulk")) {
+                    response = bulk(new String(body, StandardCharsets.UTF_8));
+                } else if (path.endsWith("/_search")) {
+                    response = search(JSON.readTree(body), query != null && query.contains("typed_keys=true"));
+                } else if (path.endsWith("/_refresh")) {
+                    response = JSON.createObjectNode().set("_shards", shards());
+                } else if (path.endsWith("/_delete_by_query")) {
+                    response = deleteByQuery(JSON.readTree(body));
+                } else {
+                    status = 404;
+                    response = error("resource_not_found_exception", "不支持的接口 " + path, status);
+                }
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                response = error("parsing_exception", e.getMessage(), status);
+            }
+            byte[] bytes = JSON.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private JsonNode bulk(String body) throws IOException {
+        ArrayNode items = JSON.createArrayNode();
+        boolean errors = false;
+        Iterator<String> lines = body.lines().filter(line -> !line.isBlank()).iterator();
+        while (lines.hasNext()) {
+            JsonNode action = JSON.readTree(lines.next());
+            String op = action.fieldNames().next();
+            JsonNode meta = action.get(op);
+            boolean write = "index".equals(op) || "create".equals(op);
+            ObjectNode source = write ? (ObjectNode) JSON.readTree(lines.next()) : null;
+            if (!write && !"delete".equals(op)) {
+                throw new IllegalArgumentException("不支持的批量操作 " + op);
+            }
+            String id = meta.get("_id").asText();
+            ObjectNode item = JSON.createObjectNode();
+            ObjectNode result = item.putObject(op);
+            result.put("_index", meta.path("_index").asText());
+            result.put("_id", id);
+            if (failing.contains(id)) {
+                errors = true;
+                result.put("status", 400);
+                result.set("error", cause("mapper_parsing_exception", "failed to parse document [" + id + "]"));
+            } else {
+                errors |= apply(result, id, meta, source, write);
+            }
+            items.add(item);
+        }
+        ObjectNode response = JSON.createObjectNode();
+        response.put("took", 1);
+        response.put("errors", errors);
+        response.set("items", items);
+        return response;
+    }
+
+    /**
+     * 按外部版本号写入或删除一个文档
+     *
+     * @return 是否出错
+     */
+    private synchronized boolean apply(ObjectNode result, String id, JsonNode meta, ObjectNode source, boolean write) {
+        Stored current = docs.get(id);
+        String versionType = meta.path("version_type").asText("internal");
+        long version;
+        if ("external".equals(versionType) || "external_gte".equals(versionType)) {
+            version = meta.get("version").asLong();
+            boolean gte = "external_gte".equals(versionType);
+            if (current != null && (gte ? version < current.version() : version <= current.version())) {
+                result.put("status", 409);
+                result.set("error", cause("version_conflict_engine_exception", "[" + id + "]: version conflict, current version ["
+                    + current.version() + "] is higher or equal to the one provided [" + version + "]"));
+                return true;
+            }
+        } else {
+            version = current == null ? 1 : current.version() + 1;
+        }
+        boolean exists = current != null && current.source() != null;
+        docs.put(id, new Stored(version, write ? source : null));
+        if (write) {
+            result.put("status", exists ? 200 : 201);
+            result.put("result", exists ? "updated" : "created");
+        } else {
+            result.put("status", exists ? 200 : 404);
+            result.put("result", exists ? "deleted" : "not_found");
+        }
+        result.put("_version", version);
+        result.put("_seq_no", 0);
+        result.put("_primary_term", 1);
+        result.set("_shards", shards());
+        return false;
+    }
+
+    private JsonNode search(JsonNode request, boolean typedKeys) {
+        searches.add(request);
+        JsonNode query = request.path("query");
+        Set<String> terms = new HashSet<>();
+        collectTerms(query, terms);
+
+        List<Map.Entry<String, ObjectNode>> matched = new ArrayList<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        docs.forEach((id, stored) -> {
+            if (stored.source() == null) {
+                return;
+            }
+            Double score = query.isMissingNode() ? Double.valueOf(1) : score(query, stored.source());
+            if (score != null) {
+                matched.add(Map.entry(id, stored.source()));
+                scores.put(id, score);
+            }
+        });
+        matched.sort(comparator(request.path("sort"), scores));
+
+        int from = request.path("from").asInt(0);
+        int size = request.path("size").asInt(10);
+        ArrayNode hits = JSON.createArrayNode();
+        for (Map.Entry<String, ObjectNode> entry : matched.subList(Math.min(from, matched.size()),
+            Math.min(from + size, matched.size()))) {
+            ObjectNode hit = hits.addObject();
+            hit.put("_index", "lingtai_catalog");
+            hit.put("_id", entry.getKey());
+            hit.put("_score", scores.get(entry.getKey()));
+            hit.set("_source", entry.getValue());
+            ObjectNode highlight = highlight(request.path("highlight"), entry.getValue(), terms);
+            if (!highlight.isEmpty()) {
+                hit.set("highlight", highlight);
+            }
+        }
+
+        ObjectNode response = JSON.createObjectNode();
+        response.put("took", 1);
+        response.put("timed_out", false);
+        response.set("_shards", shards());
+        ObjectNode hitsNode = response.putObject("hits");
+        hitsNode.putObject("total").put("value", matched.size()).put("relation", "eq");
+        hitsNode.set("hits", hits);
+        JsonNode aggregations = request.has("aggregations") ? request.get("aggregations") : request.path("aggs");
+        if (aggregations.isObject() && !aggregations.isEmpty()) {
+            response.set("aggregations", aggregations(aggregations, matched, typedKeys));
+        }
+        return response;
+    }
+
+    private JsonNode deleteByQuery(JsonNode request) {
+        JsonNode query = request.path("query");
+        int deleted = 0;
+        synchronized (this) {
+            for (Map.Entry<String, Stored> entry : docs.entrySet()) {
+                Stored stored = entry.getValue();
+                if (stored.source() != null && score(query, stored.source()) != null) {
+                    entry.setValue(new Stored(stored.version(), null));
+                    deleted++;
+                }
+            }
+        }
+        ObjectNode response = JSON.createObjectNode();
+        response.put("took", 1);
+        response.put("timed_out", false);
+        response.put("total", deleted);
+        response.put("deleted", deleted);
+        response.put("batches", 1);
+        response.put("version_conflicts", 0);
+        response.put("noops", 0);
+        response.putObject("retries").put("bulk", 0).put("search", 0);
+        response.put("throttled_millis", 0);
+        response.put("requests_per_second", -1.0);
+        response.put("throttled_until_millis", 0);
+        response.putArray("failures");
+        return response;
+    }
+
+    /**
+     * 文档匹配查询时返回得分，不匹配时返回 null
+     */
+    private static Double score(JsonNode query, ObjectNode source) {
+        String type = query.fieldNames().next();
+        JsonNode body = query.get(type);
+        switch (type) {
+            case "match_all":
+                return 1d;
+            case "bool": {
+                double score = 0;
+                for (JsonNode clause : clauses(body.path("must"))) {
+                    Double s = score(clause, source);
+                    if (s == null) {
+                        return null;
+                    }
+                    score += s;
+                }
+                for (JsonNode clause : clauses(body.path("filter"))) {
+                    if (score(clause, source) == null) {
+                        return null;
+                    }
+                }
+                for (JsonNode clause : clauses(body.path("must_not"))) {
+                    if (score(clause, source) != null) {
+                        return null;
+                    }
+                }
+                return score;
+            }
+            case "multi_match": {
+                Set<String> terms = tokens(body.path("query").asText());
+                double score = 0;
+                for (JsonNode field : body.path("fields")) {
+                    String[] parts = field.asText().split("\\^", 2);
+                    double boost = parts.length > 1 ? Double.parseDouble(parts[1]) : 1;
+                    for (String token : tokenList(source.path(parts[0]).asText(""))) {
+                        if (terms.contains(token)) {
+                            score += boost;
+                        }
+                    }
+                }
+                return score > 0 ? score : null;
+            }
+            case "term": {
+                String field = body.fieldNames().next();
+                JsonNode value = body.get(field);
+                String expected = (value.isObject() ? value.path("value") : value).asText();
+                JsonNode actual = source.path(field);
+                if (actual.isArray()) {
+                    for (JsonNode element : actual) {
+                        if (expected.equals(element.asText())) {
+                            return 0d;
+                        }
+                    }
+                    return null;
+                }
+                return !actual.isMissingNode() && !actual.isNull() && expected.equals(actual.asText()) ? 0d : null;
+            }
+            default:
+                throw new IllegalArgumentException("不支持的查询 " + type);
+        }
+    }
+
+    private static List<JsonNode> clauses(JsonNode node) {
+        List<JsonNode> clauses = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(clauses::add);
+        } else if (node.isObject()) {
+            clauses.add(node);
+        }
+        return clauses;
+    }
+
+    /**
+     * 查询中 multi_match 的所有词，用于高亮
+     */
+    private static void collectTerms(JsonNode node, Set<String> terms) {
+        if (node.isObject()) {
+            JsonNode multiMatch = node.get("multi_match");
+            if (multiMatch != null) {
+                terms.addAll(tokens(multiMatch.path("query").asText()));
+            }
+            node.forEach(child -> collectTerms(child, terms));
+        } else if (node.isArray()) {
+            node.forEach(child -> collectTerms(child, terms));
+        }
+    }
+
+    private static Comparator<Map.Entry<String, ObjectNode>> comparator(JsonNode sort, Map<String, Double> scores) {
+        Comparator<Map.Entry<String, ObjectNode>> comparator = (a, b) -> 0;
+        for (JsonNode item : clauses(sort)) {
+            String field = item.isTextual() ? item.asText() : item.fieldNames().next();
+            boolean desc = item.isObject() && "desc".equals(item.get(field).path("order").asText());
+            Comparator<Map.Entry<String, ObjectNode>> next = "_score".equals(field)
+                ? Comparator.comparing((Map.Entry<String, ObjectNode> entry) -> scores.get(entry.getKey()))
+                : Comparator.comparing((Map.Entry<String, ObjectNode> entry) -> entry.getValue().path(field)
+                    .asDouble(Double.NEGATIVE_INFINITY));
+            comparator = comparator.thenComparing(desc ? next.reversed() : next);
+        }
+        return comparator.thenComparing(Map.Entry::getKey);
+    }
+
+    /**
+     * 把字段中与查询词相同的词用前后标签包起来；number_of_fragments 为 0 时返回整个字段，
+     * 否则返回从第一个命中词附近开始、不超过 fragment_size 的片段
+     */
+    private static ObjectNode highlight(JsonNode highlight, ObjectNode source, Set<String> terms) {
+        ObjectNode result = JSON.createObjectNode();
+        if (highlight.isMissingNode() || terms.isEmpty()) {
+            return result;
+        }
+        String pre = highlight.path("pre_tags").path(0).asText("<em>");
+        String post = highlight.path("post_tags").path(0).asText("</em>");
+        Map<String, JsonNode> fields = new LinkedHashMap<>();
+        JsonNode fieldsNode = highlight.path("fields");
+        if (fieldsNode.isArray()) {
+            fieldsNode.forEach(item -> item.fields().forEachRemaining(e -> fields.put(e.getKey(), e.getValue())));
+        } else {
+            fieldsNode.fields().forEachRemaining(e -> fields.put(e.getKey(), e.getValue()));
+        }
+        fields.forEach((field, options) -> {
+            String text = source.path(field).asText("");
+            Matcher matcher = TOKEN.matcher(text);
+            int first = -1;
+            while (matcher.find()) {
+                if (terms.contains(matcher.group().toLowerCase(Locale.ROOT))) {
+                    first = matcher.start();
+                    break;
+                }
+            }
+            if (first < 0) {
+                return;
+            }
+            int fragmentSize = options.path("fragment_size").asInt(100);
+            String fragment = text;
+            if (options.path("number_of_fragments").asInt(5) != 0 && text.length() > fragmentSize) {
+                int start = Math.max(0, Math.min(first, text.length() - fragmentSize));
+                fragment = text.substring(start, start + fragmentSize);
+            }
+            StringBuilder marked = new StringBuilder();
+            Matcher tokens = TOKEN.matcher(fragment);
+            int last = 0;
+            while (tokens.find()) {
+                if (terms.contains(tokens.group().toLowerCase(Locale.ROOT))) {
+                    marked.append(fragment, last, tokens.start()).append(pre).append(tokens.group()).append(post);
+                    last = tokens.end();
+                }
+            }
+            marked.append(fragment.substring(last));
+            result.putArray(field).add(marked.toString());
+        });
+        return result;
+    }
+
+    /**
+     * terms 聚合：按文档数降序、取值升序，数组字段的每个元素各计一次
+     */
+    private static ObjectNode aggregations(JsonNode aggregations, List<Map.Entry<String, ObjectNode>> matched,
+                                           boolean typedKeys) {
+        ObjectNode result = JSON.createObjectNode();
+        aggregations.fields().forEachRemaining(entry -> {
+            JsonNode terms = entry.getValue().get("terms");
+            if (terms == null) {
+                throw new IllegalArgumentException("不支持的聚合 " + entry.getKey());
+            }
+            String field = terms.path("field").asText();
+            int size = terms.path("size").asInt(10);
+            Map<String, Long> counts = new TreeMap<>();
+            for (Map.Entry<String, ObjectNode> doc : matched) {
+                JsonNode value = doc.getValue().path(field);
+                if (value.isArray()) {
+                    Set<String> distinct = new HashSet<>();
+                    value.forEach(element -> distinct.add(element.asText()));
+                    distinct.forEach(v -> counts.merge(v, 1L, Long::sum));
+                } else if (!value.isMissingNode() && !value.isNull()) {
+                    counts.merge(value.asText(), 1L, Long::sum);
+                }
+            }
+            List<Map.Entry<String, Long>> sorted = new ArrayList<>(counts.entrySet());
+            sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.<String, Long>comparingByKey()));
+            ObjectNode aggregate = result.putObject(typedKeys ? "sterms#" + entry.getKey() : entry.getKey());
+            aggregate.put("doc_count_error_upper_bound", 0);
+            aggregate.put("sum_other_doc_count", sorted.stream().skip(size).mapToLong(Map.Entry::getValue).sum());
+            ArrayNode buckets = aggregate.putArray("buckets");
+            sorted.stream().limit(size).forEach(bucket -> buckets.addObject()
+                .put("key", bucket.getKey()).put("doc_count", bucket.getValue()));
+        });
+        return result;
+    }
+
+    private static Set<String> tokens(String text) {
+        return new HashSet<>(tokenList(text));
+    }
+
+    private static List<String> tokenList(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            tokens.add(matcher.group().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    private static ObjectNode shards() {
+        ObjectNode shards = JSON.createObjectNode();
+        shards.put("total", 1);
+        shards.put("successful", 1);
+        shards.put("skipped", 0);
+        shards.put("failed", 0);
+        return shards;
+    }
+
+    private static ObjectNode cause(String type, String reason) {
+        ObjectNode cause = JSON.createObjectNode();
+        cause.put("type", type);
+        cause.put("reason", reason);
+        return cause;
+    }
+
+    private static ObjectNode error(String type, String reason, int status) {
+        ObjectNode error = JSON.createObjectNode();
+        ObjectNode cause = cause(type, reason);
+        error.set("error", cause.deepCopy().set("root_cause", JSON.createArrayNode().add(cause)));
+        error.put("status", status);
+        return error;
+    }
+}
@@ -0,0 +1,181 @@
+package org.dromara.data.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.data.entity.CatalogDocument;
+import org.dromara.data.entity.dto.CatalogSearchQueryDTO;
+import org.dromara.data.entity.dto.CatalogSearchResultDTO;
+import org.dromara.data.mapper.CatalogOutboxMapper;
+import org.dromara.data.properties.CatalogProperties;
+import org.dromara.data.search.CatalogIndexer;
+import org.dromara.data.search.InMemorySearchServer;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 目录检索测试
+ * <p>
+ * 搜索引擎用进程内替身 {@link InMemorySearchServer}，直接放入文档后检索，核对相关度排序、高亮、过滤与分面。
+ */
+@Tag("dev")
+@DisplayName("目录检索测试")
+public class CatalogSearchServiceImplTest {
+
+    private static final long USER_ID = 7L;
+    private static final long OTHER_USER_ID = 8L;
+
+    private static InMemorySearchServer search;
+
+    private CatalogSearchServiceImpl service;
+
+    @BeforeAll
+    public static void startSearch() throws IOException {
+        search = InMemorySearchServer.start();
+    }
+
+    @AfterAll
+    public static void stopSearch() throws IOException {
+        search.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        search.reset();
+        put(model(1, USER_ID, "Llama-3-8B-Instruct", "meta-llama/Llama-3-8B-Instruct",
+            "Instruction tuned Llama model", "Active", List.of("safetensors"), 1000));
+        put(model(2, USER_ID, "Mistral-7B", "mistralai/Mistral-7B-v0.1",
+            "Outperforms Llama 2 13B on all benchmarks", "Active", List.of("gguf", "safetensors"), 3000));
+        put(new CatalogDocument().setId("dataset-3").setTargetType(ICatalogOutboxService.TARGET_DATASET).setTargetId(3)
+            .setUserId(USER_ID).setName("alpaca").setDescription("Instruction data generated for llama fine tuning")
+            .setStatus("Inactive").setDataType("text").setFormats(List.of()).setUpdatedTime(2000L));
+        put(model(4, OTHER_USER_ID, "resnet-50", "microsoft/resnet-50",
+            "Image classification", "Active", List.of("onnx"), 4000));
+
+        CatalogProperties properties = new CatalogProperties();
+        properties.setEnabled(true);
+        service = new CatalogSearchServiceImpl(mock(CatalogIndexer.class), mock(CatalogOutboxMapper.class), properties);
+        ReflectionTestUtils.setField(service, "client", search.client());
+    }
+
+    @Test
+    @DisplayName("关键词检索：按字段权重排序，同分按更新时间倒序，返回高亮")
+    public void ranksAndHighlightsKeywordMatches() {
+        CatalogSearchResultDTO result = service.search(query("llama"), USER_ID);
+
+        Assertions.assertEquals(3, result.getTotal());
+        Assertions.assertEquals(List.of("Llama-3-8B-Instruct", "Mistral-7B", "alpaca"),
+            result.getHits().stream().map(CatalogSearchResultDTO.Hit::getName).toList());
+        CatalogSearchResultDTO.Hit top = result.getHits().get(0);
+        Assertions.assertTrue(top.getScore() > result.getHits().get(1).getScore());
+        Assertions.assertEquals(List.of("<em>Llama</em>-3-8B-Instruct"), top.getHighlights().get("name"));
+        Assertions.assertEquals(List.of("meta-<em>llama</em>/<em>Llama</em>-3-8B-Instruct"), top.getHighlights().get("hubRepo"));
+        Assertions.assertEquals(List.of("Instruction tuned <em>Llama</em> model"), top.getHighlights().get("description"));
+        CatalogSearchResultDTO.Hit second = result.getHits().get(1);
+        Assertions.assertFalse(second.getHighlights().containsKey("name"));
+        Assertions.assertEquals(List.of("Outperforms <em>Llama</em> 2 13B on all benchmarks"),
+            second.getHighlights().get("description"));
+
+        JsonNode request = search.lastSearch();
+        JsonNode multiMatch = request.path("query").path("bool").path("must").path(0).path("multi_match");
+        Assertions.assertEquals("llama", multiMatch.path("query").asText());
+        Assertions.assertEquals("[\"name^3\",\"hubRepo^2\",\"description\"]", multiMatch.path("fields").toString());
+        Assertions.assertEquals("<em>", request.path("highlight").path("pre_tags").path(0).asText());
+        Assertions.assertTrue(request.path("sort").path(0).has("_score"));
+    }
+
+    @Test
+    @DisplayName("分面：在过滤后的结果上统计，数组字段每个取值各计一次")
+    public void countsFacetsOverMatchedDocuments() {
+        CatalogSearchResultDTO result = service.search(query("llama"), USER_ID);
+
+        Assertions.assertEquals(Map.of("model", 2L, "dataset", 1L), facet(result, "targetType"));
+        Assertions.assertEquals(Map.of("Active", 2L, "Inactive", 1L), facet(result, "status"));
+        Assertions.assertEquals(Map.of("safetensors", 2L, "gguf", 1L), facet(result, "formats"));
+        Assertions.assertEquals(Map.of("text", 1L), facet(result, "dataType"));
+        // 取值多的排在前面
+        Assertions.assertEquals("safetensors", result.getFacets().get("formats").get(0).getValue());
+
+        CatalogSearchResultDTO all = service.search(query(null), USER_ID);
+        Assertions.assertEquals(Map.of("safetensors", 2L, "gguf", 1L, "onnx", 1L), facet(all, "formats"));
+    }
+
+    @Test
+    @DisplayName("过滤条件不参与打分；无关键词时按更新时间倒序且没有高亮")
+    public void filtersWithoutKeyword() {
+        CatalogSearchQueryDTO query = query(null);
+        query.setStatus("Active");
+        query.setFormat("safetensors");
+        CatalogSearchResultDTO result = service.search(query, USER_ID);
+
+        Assertions.assertEquals(List.of("Mistral-7B", "Llama-3-8B-Instruct"),
+            result.getHits().stream().map(CatalogSearchResultDTO.Hit::getName).toList());
+        Assertions.assertTrue(result.getHits().stream().allMatch(hit -> hit.getHighlights() == null || hit.getHighlights().isEmpty()));
+        Assertions.assertFalse(search.lastSearch().path("sort").path(0).has("_score"));
+
+        CatalogSearchQueryDTO mine = query(null);
+        mine.setMine(true);
+        Assertions.assertEquals(List.of("resnet-50"), service.search(mine, OTHER_USER_ID).getHits().stream()
+            .map(CatalogSearchResultDTO.Hit::getName).toList());
+
+        CatalogSearchQueryDTO dataSets = query("llama");
+        dataSets.setTargetType(ICatalogOutboxService.TARGET_DATASET);
+        CatalogSearchResultDTO dataSetResult = service.search(dataSets, USER_ID);
+        Assertions.assertEquals(1, dataSetResult.getTotal());
+        Assertions.assertEquals(Integer.valueOf(3), dataSetResult.getHits().get(0).getTargetId());
+    }
+
+    @Test
+    @DisplayName("分页：total 为全部命中数；超出结果窗口时拒绝")
+    public void pagesWithinResultWindow() {
+        CatalogSearchQueryDTO query = query(null);
+        query.setPageSize(1);
+        query.setPageNum(2);
+        CatalogSearchResultDTO result = service.search(query, USER_ID);
+
+        Assertions.assertEquals(4, result.getTotal());
+        Assertions.assertEquals(List.of("Mistral-7B"), result.getHits().stream().map(CatalogSearchResultDTO.Hit::getName).toList());
+
+        CatalogSearchQueryDTO deep = query(null);
+        deep.setPageSize(100);
+        deep.setPageNum(101);
+        Assertions.assertThrows(ServiceException.class, () -> service.search(deep, USER_ID));
+        Assertions.assertEquals(1, service.stats().getQueryCount());
+    }
+
+    private static CatalogSearchQueryDTO query(String keyword) {
+        CatalogSearchQueryDTO query = new CatalogSearchQueryDTO();
+        query.setKeyword(keyword);
+        return query;
+    }
+
+    private static Map<String, Long> facet(CatalogSearchResultDTO result, String name) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        result.getFacets().getOrDefault(name, List.of()).forEach(bucket -> counts.put(bucket.getValue(), bucket.getCount()));
+        return counts;
+    }
+
+    private static CatalogDocument model(int id, long userId, String name, String hubRepo, String description,
+                                         String status, List<String> formats, long updatedTime) {
+        return new CatalogDocument().setId("model-" + id).setTargetType(ICatalogOutboxService.TARGET_MODEL).setTargetId(id)
+            .setUserId(userId).setName(name).setHubRepo(hubRepo).setDescription(description).setVersion("v1")
+            .setStatus(status).setFormats(formats).setUpdatedTime(updatedTime);
+    }
+
+    private static void put(CatalogDocument doc) {
+        search.put(doc.getId(), 1, doc);
+    }
+}
@@ -0,0 +1,487 @@
+package org.dromara.data.service.impl;
+
+import cn.hutool.extra.spring.SpringUtil;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.dromara.data.entity.ImportJournal;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.Models;
+import org.dromara.data.entity.StorageBlob;
+import org.dromara.data.enums.ImportJournalStatus;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.progress.ProgressStore;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.dromara.data.service.IImportJournalService;
+import org.dromara.data.service.IStorageBlobService;
+import org.dromara.data.service.IStorageStatsService;
+import org.dromara.data.service.ITensorIndexService;
+import org.dromara.data.transfer.HubRepoClient;
+import org.dromara.data.transfer.TransferCheckpoint;
+import org.dromara.data.transfer.TransferProgressListener;
+import org.dromara.data.transfer.TransferResult;
+import org.dromara.data.utils.CosUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 仓库快照导入测试
+ * <p>
+ * 用 JDK 自带的 HttpServer 模拟 Hub：tree 接口分两页返回文件列表，resolve 接口返回文件内容；
+ * 对象存储、数据库与断点日志用内存实现代替。
+ */
+@Tag("dev")
+@DisplayName("仓库快照导入测试")
+public class ModelSnapshotServiceImplTest {
+
+    private static final String REPO = "org/demo";
+    private static final String TASK_ID = "task-1";
+    private static final int MODEL_ID = 1;
+    private static final int FILE_THREADS = 2;
+
+    /**
+     * 仓库内容：相对路径 -> 文件内容，.safetensors 按 LFS 文件返回 SHA-256
+     */
+    private static final Map<String, byte[]> REPO_FILES = new LinkedHashMap<>();
+
+    /**
+     * 下载时返回 500 的文件
+     */
+    private static final Set<String> FAILING = ConcurrentHashMap.newKeySet();
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    private static HttpServer server;
+    private static String endpoint;
+
+    private ModelSnapshotServiceImpl service;
+    private InMemoryJournalService journalService;
+    private ExecutorService hubFileExecutor;
+    private ProgressStore progressStore;
+    private ICatalogOutboxService catalogOutboxService;
+
+    private final Map<String, byte[]> bucket = new ConcurrentHashMap<>();
+    private final List<ModelFiles> fileRows = new ArrayList<>();
+    private final AtomicReference<String> modelStatus = new AtomicReference<>();
+    private final AtomicReference<Integer> primaryFileId = new AtomicReference<>();
+    private final AtomicInteger transferring = new AtomicInteger();
+    private final AtomicInteger maxTransferring = new AtomicInteger();
+
+    @BeforeAll
+    public static void startHub() throws IOException {
+        // JsonUtils 从 Spring 容器获取 ObjectMapper
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(ObjectMapper.class, ObjectMapper::new);
+        context.refresh();
+        new SpringUtil().setApplicationContext(context);
+        // Lambda 条件构造器按实体的表信息解析列名
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Models.class);
+        TableInfoHelper.initTableInfo(assistant, ModelFiles.class);
+
+        REPO_FILES.put(".gitattributes", "*.safetensors filter=lfs diff=lfs merge=lfs -text\n".getBytes(StandardCharsets.UTF_8));
+        REPO_FILES.put("config.json", "{\"model_type\":\"llama\"}".getBytes(StandardCharsets.UTF_8));
+        REPO_FILES.put("model-00001-of-00002.safetensors", randomBytes(300_000, 1));
+        REPO_FILES.put("model-00002-of-00002.safetensors", randomBytes(200_000, 2));
+        REPO_FILES.put("model.safetensors.index.json", "{\"weight_map\":{}}".getBytes(StandardCharsets.UTF_8));
+        REPO_FILES.put("tokenizer/tokenizer.json", "{\"version\":\"1.0\"}".getBytes(StandardCharsets.UTF_8));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/models/" + REPO + "/tree/main", ModelSnapshotServiceImplTest::tree);
+        server.createContext("/" + REPO + "/resolve/main/", ModelSnapshotServiceImplTest::resolve);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        endpoint = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    public static void stopHub() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TransferProperties properties = new TransferProperties();
+        properties.setHubEndpoint(endpoint);
+        modelStatus.set("Importing");
+        journalService = new InMemoryJournalService();
+        progressStore = mock(ProgressStore.class);
+        catalogOutboxService = mock(ICatalogOutboxService.class);
+
+        DataMapper dataMapper = mock(DataMapper.class);
+        // 模拟 where id = ? and status = 'Importing' 的条件更新
+        when(dataMapper.update(any(Models.class), any())).thenAnswer(invocation -> {
+            Models update = invocation.getArgument(0);
+            return modelStatus.compareAndSet("Importing", update.getStatus()) ? 1 : 0;
+        });
+
+        FileMapper fileMapper = mock(FileMapper.class);
+        when(fileMapper.insert(any(ModelFiles.class))).thenAnswer(invocation -> {
+            ModelFiles file = invocation.getArgument(0);
+            synchronized (fileRows) {
+                file.setId(fileRows.size() + 1);
+                fileRows.add(file);
+            }
+            return 1;
+        });
+        when(fileMapper.selectList(any())).thenAnswer(invocation -> {
+            synchronized (fileRows) {
+                return new ArrayList<>(fileRows);
+            }
+        });
+        when(fileMapper.updateById(any(ModelFiles.class))).thenAnswer(invocation -> {
+            ModelFiles update = invocation.getArgument(0);
+            primaryFileId.set(update.getId());
+            return 1;
+        });
+
+        CosUtils cosUtils = mock(CosUtils.class);
+        when(cosUtils.objectKey(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cosUtils.getPublicUrl(anyString())).thenAnswer(invocation -> "https://bucket.local/" + invocation.getArgument(0));
+        when(cosUtils.transferToKey(anyString(), anyString(), any(), any())).thenAnswer(invocation ->
+            download(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        IStorageBlobService storageBlobService = mock(IStorageBlobService.class);
+        AtomicLong blobIds = new AtomicLong();
+        when(storageBlobService.register(anyString(), anyLong(), anyString())).thenAnswer(invocation ->
+            new StorageBlob().setId(blobIds.incrementAndGet()).setSha256(invocation.getArgument(0))
+                .setSize(invocation.getArgument(1)).setObjectKey(invocation.getArgument(2)));
+        when(storageBlobService.retain(any())).thenReturn(true);
+
+        IStorageStatsService storageStatsService = mock(IStorageStatsService.class);
+        when(storageStatsService.trackModels(anyCollection(), any())).thenAnswer(invocation ->
+            ((Supplier<?>) invocation.getArgument(1)).get());
+
+        service = new ModelSnapshotServiceImpl(new HubRepoClient(properties), dataMapper, fileMapper, cosUtils,
+            progressStore, journalService, storageBlobService, storageStatsService, catalogOutboxService, properties,
+            mock(ITensorIndexService.class));
+        hubFileExecutor = Executors.newFixedThreadPool(FILE_THREADS);
+        ReflectionTestUtils.setField(service, "hubFileExecutor", hubFileExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hubFileExecutor.shutdownNow();
+        FAILING.clear();
+    }
+
+    @DisplayName("翻页列出文件、按 glob 过滤、并发传输，并以索引文件为主文件激活模型")
+    @Test
+    public void testImportSnapshot() {
+        Assertions.assertTrue(service.importSnapshot(model(), TASK_ID, REPO, null, null, null));
+
+        // 默认忽略 .gitattributes，其余文件按原路径登记
+        List<String> names = fileRows.stream().map(ModelFiles::getFileName).sorted().toList();
+        Assertions.assertEquals(REPO_FILES.keySet().stream().filter(path -> !".gitattributes".equals(path)).sorted().toList(), names);
+        for (ModelFiles file : fileRows) {
+            byte[] expected = REPO_FILES.get(file.getFileName());
+            Assertions.assertArrayEquals(expected, bucket.get("hf/" + MODEL_ID + "/" + file.getFileName()));
+            Assertions.assertEquals((long) expected.length, file.getFileSize());
+        }
+        ModelFiles primary = fileRows.stream().filter(file -> file.getId().equals(primaryFileId.get())).findFirst().orElseThrow();
+        Assertions.assertEquals("model.safetensors.index.json", primary.getFileName());
+
+        Assertions.assertEquals("Active", modelStatus.get());
+        Assertions.assertTrue(maxTransferring.get() <= FILE_THREADS, "同时传输的文件数超过线程池上限");
+        // 进度按总字节数折算，全部传完时为 95%
+        verify(progressStore, atLeastOnce()).updatePercent(eq(TASK_ID), eq(95), anyString());
+        verify(progressStore, times(1)).success(eq(TASK_ID), anyString());
+        verify(catalogOutboxService, times(1)).enqueue(anyString(), anyCollection());
+    }
+
+    @DisplayName("按 allow_patterns 只导入匹配的文件")
+    @Test
+    public void testAllowPatterns() {
+        Assertions.assertTrue(service.importSnapshot(model(), TASK_ID, REPO, null, List.of("*.json"), null));
+
+        List<String> names = fileRows.stream().map(ModelFiles::getFileName).sorted().toList();
+        Assertions.assertEquals(List.of("config.json", "model.safetensors.index.json", "tokenizer/tokenizer.json"), names);
+    }
+
+    @DisplayName("有文件导入失败时模型标记为 Error，只通知一次")
+    @Test
+    public void testFileFailure() {
+        FAILING.add("tokenizer/tokenizer.json");
+
+        Assertions.assertFalse(service.importSnapshot(model(), TASK_ID, REPO, null, null, null));
+
+        Assertions.assertEquals("Error", modelStatus.get());
+        Assertions.assertEquals(1, journalService.journals.values().stream()
+            .filter(journal -> ImportJournalStatus.FAILED.name().equals(journal.getStatus())).count());
+        verify(progressStore, times(1)).fail(eq(TASK_ID), anyString());
+        verify(progressStore, never()).success(anyString(), anyString());
+    }
+
+    @DisplayName("多个文件同时收尾时模型只激活一次")
+    @Test
+    public void testConcurrentFinish() throws Exception {
+        for (String path : List.of("config.json", "model.safetensors.index.json")) {
+            ImportJournal journal = journalService.begin(TASK_ID, IImportJournalService.TARGET_MODEL_FILE, MODEL_ID,
+                1L, endpoint + "/" + REPO + "/resolve/main/" + path, "hf/" + MODEL_ID + "/" + path, null);
+            journalService.complete(journal.getId());
+            fileRows.add(new ModelFiles().setId(fileRows.size() + 1).setModelId(MODEL_ID).setFileName(path)
+                .setFileType("json").setFileSize(10L).setIsPrimary(0));
+        }
+
+        int finishers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(finishers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < finishers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return ReflectionTestUtils.<Boolean>invokeMethod(service, "finishIfDone", MODEL_ID, TASK_ID);
+                }));
+            }
+            start.countDown();
+            int activated = 0;
+            for (Future<Boolean> result : results) {
+                if (Boolean.TRUE.equals(result.get())) {
+                    activated++;
+                }
+            }
+            Assertions.assertEquals(1, activated);
+        } finally {
+            pool.shutdownNow();
+        }
+        Assertions.assertEquals("Active", modelStatus.get());
+        verify(catalogOutboxService, times(1)).enqueue(anyString(), anyCollection());
+        verify(progressStore, times(1)).success(eq(TASK_ID), anyString());
+    }
+
+    /**
+     * 代替 CosUtils.transferToKey：从模拟的 Hub 下载后写入内存中的存储桶
+     */
+    private TransferResult download(String url, String key, TransferProgressListener listener) throws Exception {
+        int running = transferring.incrementAndGet();
+        maxTransferring.accumulateAndGet(running, Math::max);
+        try {
+            HttpResponse<byte[]> response = HTTP.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("源站下载失败，HTTP 状态码: " + response.statusCode());
+            }
+            byte[] body = response.body();
+            bucket.put(key, body);
+            if (listener != null) {
+                listener.onProgress(body.length, body.length);
+            }
+            TransferResult result = new TransferResult();
+            result.setKey(key);
+            result.setSize((long) body.length);
+            result.setSha256(sha256(body));
+            result.setCrc64("0");
+            return result;
+        } finally {
+            transferring.decrementAndGet();
+        }
+    }
+
+    private static Models model() {
+        Models model = new Models();
+        model.setId(MODEL_ID);
+        model.setUserId(1L);
+        model.setStatus("Importing");
+        return model;
+    }
+
+    /**
+     * /api/models/{repo}/tree/main：第一页带 Link 头指向第二页，目录条目应被跳过
+     */
+    private static void tree(HttpExchange exchange) throws IOException {
+        List<String> paths = new ArrayList<>(REPO_FILES.keySet());
+        boolean secondPage = exchange.getRequestURI().getQuery() != null
+            && exchange.getRequestURI().getQuery().contains("cursor=2");
+        List<String> page = secondPage ? paths.subList(3, paths.size()) : paths.subList(0, 3);
+        StringBuilder json = new StringBuilder("[");
+        if (!secondPage) {
+            json.append("{\"type\":\"directory\",\"path\":\"tokenizer\",\"size\":0},");
+        }
+        for (String path : page) {
+            byte[] content = REPO_FILES.get(path);
+            json.append("{\"type\":\"file\",\"path\":\"").append(path).append("\",\"size\":").append(content.length);
+            if (path.endsWith(".safetensors")) {
+                json.append(",\"lfs\":{\"oid\":\"").append(sha256(content)).append("\",\"size\":").append(content.length).append('}');
+            }
+            json.append("},");
+        }
+        json.setLength(json.length() - 1);
+        json.append(']');
+        if (!secondPage) {
+            exchange.getResponseHeaders().add("Link",
+                "<" + endpoint + "/api/models/" + REPO + "/tree/main?recursive=true&cursor=2>; rel=\"next\"");
+        }
+        send(exchange, 200, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * /{repo}/resolve/main/{path}：返回文件内容
+     */
+    private static void resolve(HttpExchange exchange) throws IOException {
+        String prefix = "/" + REPO + "/resolve/main/";
+        String path = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(prefix.length()), StandardCharsets.UTF_8);
+        byte[] content = REPO_FILES.get(path);
+        if (content == null) {
+            send(exchange, 404, new byte[0]);
+        } else if (FAILING.contains(path)) {
+            send(exchange, 500, new byte[0]);
+        } else {
+            send(exchange, 200, content);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 内存中的断点日志
+     */
+    private static class InMemoryJournalService implements IImportJournalService {
+
+        private final Map<Long, ImportJournal> journals = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public ImportJournal begin(String taskId, String targetType, Integer targetId, Long userId, String sourceUrl,
+                                   String objectKey, String contentSha256) {
+            ImportJournal journal = new ImportJournal()
+                .setId(ids.incrementAndGet())
+                .setTaskId(taskId)
+                .setTargetType(targetType)
+                .setTargetId(targetId)
+                .setUserId(userId)
+                .setSourceUrl(sourceUrl)
+                .setObjectKey(objectKey)
+                .setContentSha256(contentSha256)
+                .setStatus(ImportJournalStatus.RUNNING.name())
+                .setResumeCount(0)
+                .setCreatedTime(new Timestamp(System.currentTimeMillis()));
+            journals.put(journal.getId(), journal);
+            return journal;
+        }
+
+        @Override
+        public TransferCheckpoint checkpoint(ImportJournal journal) {
+            return null;
+        }
+
+        @Override
+        public void complete(Long journalId) {
+            journals.get(journalId).setStatus(ImportJournalStatus.COMPLETED.name());
+        }
+
+        @Override
+        public void fail(Long journalId, String errorMessage) {
+            journals.get(journalId).setStatus(ImportJournalStatus.FAILED.name()).setErrorMessage(errorMessage);
+        }
+
+        @Override
+        public void suspend(Long journalId) {
+        }
+
+        @Override
+        public void startResume(ImportJournal journal) {
+            journal.setResumeCount(journal.getResumeCount() + 1);
+        }
+
+        @Override
+        public List<ImportJournal> claimStale(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<ImportJournal> listByTarget(String targetType, Integer targetId) {
+            return journals.values().stream()
+                .filter(journal -> targetType.equals(journal.getTargetType()) && targetId.equals(journal.getTargetId()))
+                .map(journal -> new ImportJournal().setId(journal.getId()).setStatus(journal.getStatus()))
+                .toList();
+        }
+
+        @Override
+        public List<ImportJournal> listFailedUploads() {
+            return List.of();
+        }
+
+        @Override
+        public void markAborted(Long journalId) {
+        }
+
+        @Override
+        public Set<String> listActiveUploadIds() {
+            return Set.of();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.StorageBlob;
+import org.dromara.data.mapper.DataSetsFileMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.mapper.StorageBlobMapper;
+import org.dromara.data.properties.TransferProperties;
+import org.dromara.data.utils.CosUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 内容寻址对象服务测试
+ * <p>
+ * 对象表保存在内存中，查询按条件构造器的参数值匹配 ID、对象键或 SHA-256，增加引用的更新记录命中的对象ID。
+ */
+@Tag("dev")
+@DisplayName("内容寻址对象服务测试")
+public class StorageBlobServiceImplTest {
+
+    private static final String BASE_URL = "https://bucket.local/";
+
+    private final List<StorageBlob> blobs = List.of(
+        new StorageBlob().setId(1L).setObjectKey("blobs/a").setSha256("aaa"),
+        new StorageBlob().setId(2L).setObjectKey("blobs/b").setSha256("bbb"));
+
+    /**
+     * 每次增加引用的更新涉及的对象ID
+     */
+    private final List<Set<Long>> retains = new ArrayList<>();
+
+    @BeforeAll
+    public static void initTableInfo() {
+        // Lambda 条件构造器按实体的表信息解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), StorageBlob.class);
+    }
+
+    @DisplayName("文件记录按文件地址关联对象，再按 SHA-256 兜底；客户端回传的 blobId 不采信，也不增加其引用")
+    @Test
+    public void testRetainFilesIgnoresClaimedBlobId() {
+        StorageBlobMapper blobMapper = mock(StorageBlobMapper.class);
+        when(blobMapper.selectList(any())).thenAnswer(invocation -> {
+            Collection<Object> values = params(invocation.getArgument(0));
+            return blobs.stream().filter(blob -> values.contains(blob.getId()) || values.contains(blob.getObjectKey())
+                || values.contains(blob.getSha256())).toList();
+        });
+        when(blobMapper.update(any(), any())).thenAnswer(invocation -> {
+            Set<Long> ids = params(invocation.getArgument(1)).stream()
+                .filter(Long.class::isInstance).map(Long.class::cast).collect(Collectors.toSet());
+            retains.add(ids);
+            return ids.size();
+        });
+        CosUtils cosUtils = mock(CosUtils.class);
+        when(cosUtils.keyOfUrl(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return url.startsWith(BASE_URL) ? url.substring(BASE_URL.length()) : null;
+        });
+        StorageBlobServiceImpl service = new StorageBlobServiceImpl(blobMapper, mock(FileMapper.class),
+            mock(DataSetsFileMapper.class), cosUtils, new TransferProperties(), mock(ScheduledExecutorService.class));
+
+        // 地址指向对象 1，却回传对象 2
+        ModelFiles mismatched = new ModelFiles().setFileUrl(BASE_URL + "blobs/a").setBlobId(2L);
+        // 地址不在本存储桶，回传对象 2
+        ModelFiles foreign = new ModelFiles().setFileUrl("https://other.example/weights.bin").setBlobId(2L);
+        // 地址不是登记过的对象，按 SHA-256 找到对象 2
+        ModelFiles byHash = new ModelFiles().setFileUrl(BASE_URL + "upload/weights.bin").setSha256("bbb");
+
+        service.retainFiles(List.of(mismatched, foreign, byHash), ModelFiles::getBlobId, ModelFiles::getFileUrl,
+            ModelFiles::getSha256, ModelFiles::setBlobId);
+
+        Assertions.assertEquals(1L, mismatched.getBlobId());
+        Assertions.assertNull(foreign.getBlobId());
+        Assertions.assertEquals(2L, byHash.getBlobId());
+        // 对象 1、2 各加一次引用，合并为一条更新
+        Assertions.assertEquals(List.of(Set.of(1L, 2L)), retains);
+    }
+
+    private static Collection<Object> params(Wrapper<?> wrapper) {
+        return ((AbstractWrapper<?, ?, ?>) wrapper).getParamNameValuePairs().values();
+    }
+}
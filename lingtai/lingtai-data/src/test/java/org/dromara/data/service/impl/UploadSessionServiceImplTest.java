@@ -0,0 +1,662 @@
+package org.dromara.data.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.qcloud.cos.model.ObjectMetadata;
+import com.qcloud.cos.model.PartETag;
+import com.qcloud.cos.model.PartSummary;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.dromara.common.core.exception.ServiceException;
+import org.dromara.data.entity.ModelFiles;
+import org.dromara.data.entity.Models;
+import org.dromara.data.entity.UploadSession;
+import org.dromara.data.entity.dto.FileInfoDTO;
+import org.dromara.data.entity.dto.UploadPartDTO;
+import org.dromara.data.entity.dto.UploadSessionCompleteDTO;
+import org.dromara.data.entity.dto.UploadSessionCreateDTO;
+import org.dromara.data.entity.dto.UploadSessionDTO;
+import org.dromara.data.entity.dto.UploadSessionRegisterDTO;
+import org.dromara.data.enums.UploadSessionStatus;
+import org.dromara.data.integrity.Crc64;
+import org.dromara.data.mapper.DataMapper;
+import org.dromara.data.mapper.FileMapper;
+import org.dromara.data.mapper.UploadSessionMapper;
+import org.dromara.data.properties.UploadSessionProperties;
+import org.dromara.data.service.ICatalogOutboxService;
+import org.dromara.data.service.IStorageStatsService;
+import org.dromara.data.service.ITensorIndexService;
+import org.dromara.data.utils.CosUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 浏览器直传会话测试
+ * <p>
+ * 对象存储用内存实现代替：分块上传按 UploadId 保存客户端 PUT 的分块，完成时按 PartETag 拼接为对象并返回 CRC64，
+ * 与 COS 一样在分块上传完成或 Abort 后 ListParts 返回不存在。会话表保存在内存中，
+ * update 按条件构造器的 where 条件比较后再赋值，与数据库的条件更新一样在完成、取消、登记与过期清理之间互斥。
+ */
+@Tag("dev")
+@DisplayName("浏览器直传会话测试")
+public class UploadSessionServiceImplTest {
+
+    private static final long USER_ID = 7L;
+    private static final int MODEL_ID = 1;
+    private static final long MB = 1024 * 1024L;
+
+    /**
+     * 按 1MB 分块为 3 块，最后一块 512KB
+     */
+    private static final byte[] CONTENT = randomBytes((int) (2 * MB + 512 * 1024));
+
+    private static final Pattern PARAM = Pattern.compile("(\\w+)\\s*=\\s*#\\{ew\\.paramNameValuePairs\\.(\\w+)}");
+
+    private final Map<Long, UploadSession> rows = new LinkedHashMap<>();
+    private final List<ModelFiles> fileRows = new CopyOnWriteArrayList<>();
+    private final InMemoryCos cos = new InMemoryCos();
+
+    /**
+     * 登记写入文件行时执行，用来让过期清理恰好插在登记的条件更新之前
+     */
+    private volatile Runnable beforeFileInsert;
+
+    private CosUtils cosUtils;
+    private IStorageStatsService storageStatsService;
+    private ITensorIndexService tensorIndexService;
+    private UploadSessionServiceImpl service;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        // Lambda 条件构造器按实体的表信息解析列名
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, UploadSession.class);
+        TableInfoHelper.initTableInfo(assistant, Models.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        UploadSessionProperties properties = new UploadSessionProperties();
+        properties.setPartSize(MB);
+        properties.setMaxPresignBatch(2);
+
+        UploadSessionMapper sessionMapper = mock(UploadSessionMapper.class);
+        when(sessionMapper.insert(any(UploadSession.class))).thenAnswer(invocation -> {
+            UploadSession session = invocation.getArgument(0);
+            synchronized (rows) {
+                session.setId((long) rows.size() + 1);
+                rows.put(session.getId(), copy(session));
+            }
+            return 1;
+        });
+        when(sessionMapper.selectById(any())).thenAnswer(invocation -> row(invocation.getArgument(0)));
+        when(sessionMapper.selectBatchIds(any())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0)
+            .stream().map(this::row).filter(Objects::nonNull).toList());
+        when(sessionMapper.update(any(), any())).thenAnswer(invocation -> update(invocation.getArgument(1)));
+        // 只有过期清理按条件查询会话：未结束且已过期
+        when(sessionMapper.selectList(any())).thenAnswer(invocation -> {
+            synchronized (rows) {
+                return rows.values().stream()
+                    .filter(row -> List.of(UploadSessionStatus.ACTIVE.name(), UploadSessionStatus.COMPLETING.name(),
+                        UploadSessionStatus.COMPLETED.name()).contains(row.getStatus()))
+                    .filter(row -> row.getExpireTime().getTime() < System.currentTimeMillis())
+                    .map(UploadSessionServiceImplTest::copy)
+                    .toList();
+            }
+        });
+
+        DataMapper dataMapper = mock(DataMapper.class);
+        when(dataMapper.selectById(MODEL_ID)).thenReturn(new Models().setId(MODEL_ID).setUserId(USER_ID));
+
+        FileMapper fileMapper = mock(FileMapper.class);
+        when(fileMapper.insert(any(ModelFiles.class))).thenAnswer(invocation -> {
+            Runnable hook = beforeFileInsert;
+            if (hook != null) {
+                hook.run();
+            }
+            ModelFiles file = invocation.getArgument(0);
+            synchronized (fileRows) {
+                file.setId(fileRows.size() + 1);
+                fileRows.add(file);
+            }
+            return 1;
+        });
+
+        cosUtils = mock(CosUtils.class);
+        when(cosUtils.objectKey(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cosUtils.getPublicUrl(anyString())).thenAnswer(invocation -> "https://bucket.local/" + invocation.getArgument(0));
+        when(cosUtils.initiateMultipartUpload(anyString())).thenAnswer(invocation -> cos.initiate(invocation.getArgument(0)));
+        when(cosUtils.getPresignedPartUrl(anyString(), anyString(), anyInt(), anyLong())).thenAnswer(invocation ->
+            "https://bucket.local/" + invocation.getArgument(0) + "?uploadId=" + invocation.getArgument(1)
+                + "&partNumber=" + invocation.getArgument(2));
+        when(cosUtils.listParts(anyString(), anyString())).thenAnswer(invocation -> cos.listParts(invocation.getArgument(1)));
+        when(cosUtils.completeMultipartUpload(anyString(), anyString(), any())).thenAnswer(invocation ->
+            cos.complete(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(cosUtils.getObjectMetadata(anyString())).thenAnswer(invocation -> cos.metadata(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            cos.uploads.remove(invocation.<String>getArgument(1));
+            return null;
+        }).when(cosUtils).abortMultipartUpload(anyString(), anyString());
+        doAnswer(invocation -> {
+            cos.objects.remove(invocation.<String>getArgument(0));
+            return null;
+        }).when(cosUtils).deleteObject(anyString());
+
+        storageStatsService = mock(IStorageStatsService.class);
+        when(storageStatsService.trackModels(anyCollection(), any())).thenAnswer(invocation ->
+            ((Supplier<?>) invocation.getArgument(1)).get());
+        tensorIndexService = mock(ITensorIndexService.class);
+
+        service = new UploadSessionServiceImpl(sessionMapper, dataMapper, fileMapper, cosUtils, storageStatsService,
+            mock(ICatalogOutboxService.class), tensorIndexService, properties, mock(ScheduledExecutorService.class));
+    }
+
+    @DisplayName("创建、签发分块 URL、完成并登记为模型文件；已登记的会话不能取消，也不会被过期清理")
+    @Test
+    public void testLifecycle() {
+        UploadSessionDTO created = create();
+        Long id = created.getSessionId();
+        Assertions.assertEquals(3, created.getPartCount());
+        Assertions.assertEquals(MB, created.getPartSize());
+        // 一次最多签发 2 个分块，其余按需签发
+        Assertions.assertEquals(List.of(1, 2), partNumbers(created.getParts()));
+        Assertions.assertEquals(List.of(3), partNumbers(service.presignParts(id, USER_ID, 3, 2)));
+        Assertions.assertThrows(ServiceException.class, () -> service.presignParts(id, USER_ID, 4, 1));
+        Assertions.assertThrows(ServiceException.class, () -> service.presignParts(id, USER_ID + 1, 1, 1));
+
+        FileInfoDTO completed = service.complete(id, completion(uploadAll(id), crc64(CONTENT)), USER_ID);
+        Assertions.assertEquals(crc64(CONTENT), completed.getCrc64());
+        Assertions.assertEquals(UploadSessionStatus.COMPLETED.name(), status(id));
+        Assertions.assertArrayEquals(CONTENT, cos.objects.get(row(id).getObjectKey()));
+        Assertions.assertTrue(cos.uploads.isEmpty());
+        // 重复完成直接返回结果
+        Assertions.assertEquals(crc64(CONTENT), service.complete(id, null, USER_ID).getCrc64());
+        Assertions.assertThrows(ServiceException.class, () -> service.presignParts(id, USER_ID, 1, 1));
+
+        List<FileInfoDTO> files = service.register(registration(id), USER_ID, false);
+
+        Assertions.assertEquals(1, files.size());
+        ModelFiles file = fileRows.get(0);
+        Assertions.assertEquals("https://bucket.local/" + row(id).getObjectKey(), file.getFileUrl());
+        Assertions.assertEquals((long) CONTENT.length, file.getFileSize());
+        Assertions.assertEquals("safetensors", file.getFileType());
+        Assertions.assertEquals(1, file.getIsPrimary());
+        Assertions.assertEquals(crc64(CONTENT), file.getCrc64());
+        Assertions.assertEquals(UploadSessionStatus.REGISTERED.name(), status(id));
+        Assertions.assertEquals(file.getId(), row(id).getModelFileId());
+        verify(storageStatsService).trackModels(eq(List.of(MODEL_ID)), any());
+        verify(tensorIndexService).submit(any());
+
+        Assertions.assertFalse(service.abort(id, USER_ID));
+        Assertions.assertThrows(ServiceException.class, () -> service.register(registration(id), USER_ID, false));
+        expire(id);
+        service.sweepExpired();
+        Assertions.assertEquals(UploadSessionStatus.REGISTERED.name(), status(id));
+        Assertions.assertTrue(cos.objects.containsKey(row(id).getObjectKey()));
+    }
+
+    @DisplayName("分块 ETag 或大小与 COS 上的不一致时回到上传中，补传后可以重新完成")
+    @Test
+    public void testVerifyPartsMismatch() {
+        Long id = create().getSessionId();
+        List<UploadPartDTO> parts = uploadAll(id);
+
+        UploadPartDTO stale = part(2, "\"0123456789abcdef0123456789abcdef\"");
+        ServiceException error = Assertions.assertThrows(ServiceException.class, () ->
+            service.complete(id, completion(List.of(parts.get(0), stale, parts.get(2)), null), USER_ID));
+        Assertions.assertTrue(error.getMessage().contains("ETag 不一致"), error.getMessage());
+        Assertions.assertEquals(UploadSessionStatus.ACTIVE.name(), status(id));
+
+        // 第 1 块被少传了 1 字节，ETag 与 COS 一致但大小不对
+        UploadPartDTO truncated = upload(id, 1, Arrays.copyOf(slice(1), (int) MB - 1));
+        error = Assertions.assertThrows(ServiceException.class, () ->
+            service.complete(id, completion(List.of(truncated, parts.get(1), parts.get(2)), null), USER_ID));
+        Assertions.assertTrue(error.getMessage().contains("大小不一致"), error.getMessage());
+        Assertions.assertEquals(UploadSessionStatus.ACTIVE.name(), status(id));
+        Assertions.assertFalse(cos.objects.containsKey(row(id).getObjectKey()));
+
+        Assertions.assertEquals(List.of(1), partNumbers(service.presignParts(id, USER_ID, 1, 1)));
+        UploadPartDTO fixed = upload(id, 1, slice(1));
+        service.complete(id, completion(List.of(fixed, parts.get(1), parts.get(2)), crc64(CONTENT)), USER_ID);
+        Assertions.assertEquals(UploadSessionStatus.COMPLETED.name(), status(id));
+        Assertions.assertArrayEquals(CONTENT, cos.objects.get(row(id).getObjectKey()));
+    }
+
+    @DisplayName("客户端 CRC64 与 COS 不一致时删除对象并取消会话")
+    @Test
+    public void testCrc64Mismatch() {
+        Long id = create().getSessionId();
+        List<UploadPartDTO> parts = uploadAll(id);
+
+        ServiceException error = Assertions.assertThrows(ServiceException.class, () ->
+            service.complete(id, completion(parts, "1"), USER_ID));
+
+        Assertions.assertTrue(error.getMessage().contains("CRC64 不一致"), error.getMessage());
+        Assertions.assertEquals(UploadSessionStatus.ABORTED.name(), status(id));
+        Assertions.assertFalse(cos.objects.containsKey(row(id).getObjectKey()));
+        Assertions.assertTrue(cos.uploads.isEmpty());
+        Assertions.assertThrows(ServiceException.class, () -> service.complete(id, completion(parts, null), USER_ID));
+    }
+
+    @DisplayName("完成请求已在 COS 生效但响应丢失：重试时按对象元数据恢复；分块上传与对象都不存在时会话作废")
+    @Test
+    public void testRecoverCompletedUpload() {
+        Long id = create().getSessionId();
+        List<UploadPartDTO> parts = uploadAll(id);
+        cos.loseNextCompleteResponse = true;
+
+        Assertions.assertThrows(ServiceException.class, () -> service.complete(id, completion(parts, crc64(CONTENT)), USER_ID));
+        Assertions.assertEquals(UploadSessionStatus.ACTIVE.name(), status(id));
+        Assertions.assertNull(cos.listParts(row(id).getUploadId()));
+
+        FileInfoDTO recovered = service.complete(id, completion(parts, crc64(CONTENT)), USER_ID);
+        Assertions.assertEquals(crc64(CONTENT), recovered.getCrc64());
+        Assertions.assertEquals(UploadSessionStatus.COMPLETED.name(), status(id));
+        Assertions.assertEquals(crc64(CONTENT), row(id).getCrc64());
+
+        // 分块上传被生命周期规则清理
+        Long lost = create().getSessionId();
+        uploadAll(lost);
+        cos.uploads.remove(row(lost).getUploadId());
+        ServiceException error = Assertions.assertThrows(ServiceException.class, () ->
+            service.complete(lost, completion(List.of(), null), USER_ID));
+        Assertions.assertTrue(error.getMessage().contains("分块上传已失效"), error.getMessage());
+        Assertions.assertEquals(UploadSessionStatus.ABORTED.name(), status(lost));
+    }
+
+    @DisplayName("取消：上传中的 Abort 分块上传，已完成的删除对象，已取消的不再处理")
+    @Test
+    public void testAbort() {
+        Long active = create().getSessionId();
+        uploadAll(active);
+        Long completed = create().getSessionId();
+        service.complete(completed, completion(uploadAll(completed), null), USER_ID);
+
+        Assertions.assertThrows(ServiceException.class, () -> service.abort(active, USER_ID + 1));
+        Assertions.assertTrue(service.abort(active, USER_ID));
+        Assertions.assertTrue(service.abort(completed, USER_ID));
+
+        Assertions.assertEquals(UploadSessionStatus.ABORTED.name(), status(active));
+        Assertions.assertEquals(UploadSessionStatus.ABORTED.name(), status(completed));
+        Assertions.assertTrue(cos.uploads.isEmpty());
+        Assertions.assertTrue(cos.objects.isEmpty());
+        verify(cosUtils, never()).deleteObject(row(active).getObjectKey());
+        verify(cosUtils, never()).abortMultipartUpload(row(completed).getObjectKey(), row(completed).getUploadId());
+        Assertions.assertFalse(service.abort(active, USER_ID));
+    }
+
+    @DisplayName("登记与过期清理争用 COMPLETED→REGISTERED：先抢到状态的一方生效，另一方不做任何改动")
+    @Test
+    public void testRegisterRacesSweep() throws Exception {
+        // 清理插在登记读取会话之后、条件更新之前
+        Long swept = completedSession();
+        expire(swept);
+        beforeFileInsert = service::sweepExpired;
+        ServiceException error = Assertions.assertThrows(ServiceException.class, () ->
+            service.register(registration(swept), USER_ID, false));
+        beforeFileInsert = null;
+        Assertions.assertTrue(error.getMessage().contains("会话状态已变化"), error.getMessage());
+        Assertions.assertEquals(UploadSessionStatus.EXPIRED.name(), status(swept));
+        Assertions.assertFalse(cos.objects.containsKey(row(swept).getObjectKey()));
+        verify(storageStatsService, never()).trackModels(anyCollection(), any());
+        verify(tensorIndexService, never()).submit(any());
+
+        // 登记先完成，清理不再选中该会话
+        Long registered = completedSession();
+        expire(registered);
+        service.register(registration(registered), USER_ID, false);
+        service.sweepExpired();
+        Assertions.assertEquals(UploadSessionStatus.REGISTERED.name(), status(registered));
+        Assertions.assertTrue(cos.objects.containsKey(row(registered).getObjectKey()));
+
+        // 同时发起：登记成功当且仅当会话为 REGISTERED 且对象仍在
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 20; i++) {
+                Long id = completedSession();
+                expire(id);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> register = pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.register(registration(id), USER_ID, false);
+                        return true;
+                    } catch (ServiceException e) {
+                        return false;
+                    }
+                });
+                Future<?> sweep = pool.submit(() -> {
+                    start.await();
+                    service.sweepExpired();
+                    return null;
+                });
+                start.countDown();
+                sweep.get();
+                boolean won = register.get();
+                Assertions.assertEquals(won ? UploadSessionStatus.REGISTERED.name() : UploadSessionStatus.EXPIRED.name(), status(id));
+                Assertions.assertEquals(won, cos.objects.containsKey(row(id).getObjectKey()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @DisplayName("过期清理：停在完成中的会话既 Abort 分块上传也删除对象，COS 完成前后中断的两种情况都清理干净")
+    @Test
+    public void testSweepStaleCompleting() {
+        // 完成请求在 COS 生效前中断，分块上传仍在
+        Long beforeComplete = create().getSessionId();
+        uploadAll(beforeComplete);
+        // 完成请求在 COS 生效后中断，对象已生成
+        Long afterComplete = create().getSessionId();
+        List<UploadPartDTO> parts = uploadAll(afterComplete);
+        UploadSession session = row(afterComplete);
+        cos.complete(session.getObjectKey(), session.getUploadId(), parts.stream()
+            .map(part -> new PartETag(part.getPartNumber(), part.getEtag())).toList());
+        // 未过期的会话不受影响
+        Long fresh = create().getSessionId();
+        for (Long id : List.of(beforeComplete, afterComplete)) {
+            setStatus(id, UploadSessionStatus.COMPLETING);
+            expire(id);
+        }
+
+        service.sweepExpired();
+
+        for (Long id : List.of(beforeComplete, afterComplete)) {
+            UploadSession stale = row(id);
+            Assertions.assertEquals(UploadSessionStatus.EXPIRED.name(), stale.getStatus());
+            verify(cosUtils).abortMultipartUpload(stale.getObjectKey(), stale.getUploadId());
+            verify(cosUtils).deleteObject(stale.getObjectKey());
+            Assertions.assertFalse(cos.uploads.containsKey(stale.getUploadId()));
+            Assertions.assertFalse(cos.objects.containsKey(stale.getObjectKey()));
+        }
+        Assertions.assertEquals(UploadSessionStatus.ACTIVE.name(), status(fresh));
+        Assertions.assertTrue(cos.uploads.containsKey(row(fresh).getUploadId()));
+    }
+
+    private UploadSessionDTO create() {
+        UploadSessionCreateDTO dto = new UploadSessionCreateDTO();
+        dto.setFileName("weights/model.safetensors");
+        dto.setFileSize((long) CONTENT.length);
+        dto.setUploadDir("upload-1");
+        return service.create(dto, USER_ID);
+    }
+
+    private Long completedSession() {
+        Long id = create().getSessionId();
+        service.complete(id, completion(uploadAll(id), null), USER_ID);
+        return id;
+    }
+
+    /**
+     * 模拟客户端按签发的 URL 依次上传全部分块
+     */
+    private List<UploadPartDTO> uploadAll(Long sessionId) {
+        List<UploadPartDTO> parts = new ArrayList<>();
+        for (int partNumber = 1; partNumber <= 3; partNumber++) {
+            parts.add(upload(sessionId, partNumber, slice(partNumber)));
+        }
+        return parts;
+    }
+
+    private UploadPartDTO upload(Long sessionId, int partNumber, byte[] data) {
+        return part(partNumber, cos.putPart(row(sessionId).getUploadId(), partNumber, data));
+    }
+
+    private static UploadPartDTO part(int partNumber, String eTag) {
+        UploadPartDTO part = new UploadPartDTO();
+        part.setPartNumber(partNumber);
+        part.setEtag(eTag);
+        return part;
+    }
+
+    private static byte[] slice(int partNumber) {
+        int from = (int) ((partNumber - 1) * MB);
+        return Arrays.copyOfRange(CONTENT, from, (int) Math.min(CONTENT.length, from + MB));
+    }
+
+    private static UploadSessionCompleteDTO completion(List<UploadPartDTO> parts, String crc64) {
+        UploadSessionCompleteDTO dto = new UploadSessionCompleteDTO();
+        dto.setParts(parts);
+        dto.setCrc64(crc64);
+        return dto;
+    }
+
+    private static UploadSessionRegisterDTO registration(Long sessionId) {
+        UploadSessionRegisterDTO dto = new UploadSessionRegisterDTO();
+        dto.setModelId(MODEL_ID);
+        dto.setSessionIds(List.of(sessionId));
+        dto.setPrimarySessionId(sessionId);
+        return dto;
+    }
+
+    private static List<Integer> partNumbers(List<UploadPartDTO> parts) {
+        return parts.stream().map(UploadPartDTO::getPartNumber).toList();
+    }
+
+    private UploadSession row(Long id) {
+        synchronized (rows) {
+            UploadSession row = rows.get(id);
+            return row == null ? null : copy(row);
+        }
+    }
+
+    private String status(Long id) {
+        return row(id).getStatus();
+    }
+
+    private void setStatus(Long id, UploadSessionStatus status) {
+        synchronized (rows) {
+            rows.get(id).setStatus(status.name());
+        }
+    }
+
+    private void expire(Long id) {
+        synchronized (rows) {
+            rows.get(id).setExpireTime(new Timestamp(System.currentTimeMillis() - 1000));
+        }
+    }
+
+    /**
+     * 条件更新：where 中的列都与当前行相同时才赋值，返回影响行数
+     */
+    private int update(LambdaUpdateWrapper<UploadSession> wrapper) {
+        Map<String, Object> where = columns(wrapper.getSqlSegment(), wrapper.getParamNameValuePairs());
+        Map<String, Object> set = columns(wrapper.getSqlSet(), wrapper.getParamNameValuePairs());
+        synchronized (rows) {
+            UploadSession row = rows.get((Long) where.get("id"));
+            if (row == null) {
+                return 0;
+            }
+            for (Map.Entry<String, Object> condition : where.entrySet()) {
+                if (!Objects.equals(condition.getValue(), ReflectionTestUtils.getField(row, property(condition.getKey())))) {
+                    return 0;
+                }
+            }
+            set.forEach((column, value) -> ReflectionTestUtils.setField(row, property(column), value));
+            return 1;
+        }
+    }
+
+    private static Map<String, Object> columns(String sql, Map<String, Object> params) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        Matcher matcher = PARAM.matcher(sql);
+        while (matcher.find()) {
+            columns.put(matcher.group(1), params.get(matcher.group(2)));
+        }
+        return columns;
+    }
+
+    private static String property(String column) {
+        TableInfo table = TableInfoHelper.getTableInfo(UploadSession.class);
+        if (column.equals(table.getKeyColumn())) {
+            return table.getKeyProperty();
+        }
+        return table.getFieldList().stream()
+            .filter(field -> field.getColumn().equals(column))
+            .map(TableFieldInfo::getProperty)
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("未知列: " + column));
+    }
+
+    private static UploadSession copy(UploadSession session) {
+        UploadSession copy = new UploadSession();
+        BeanUtils.copyProperties(session, copy);
+        return copy;
+    }
+
+    private static String crc64(byte[] data) {
+        Crc64 crc64 = new Crc64();
+        crc64.update(data, 0, data.length);
+        return crc64.toUnsignedString();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(17).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * 内存中的对象存储：分块上传按 UploadId 保存已上传的分块，ETag 为分块的 MD5
+     */
+    private static final class InMemoryCos {
+
+        private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final AtomicInteger uploadIds = new AtomicInteger();
+
+        /**
+         * 下一次完成分块上传在生效后抛出异常，模拟响应丢失
+         */
+        private volatile boolean loseNextCompleteResponse;
+
+        String initiate(String key) {
+            String uploadId = "upload-" + uploadIds.incrementAndGet();
+            uploads.put(uploadId, new ConcurrentSkipListMap<>());
+            return uploadId;
+        }
+
+        /**
+         * 客户端 PUT 一个分块，返回响应头中的 ETag
+         */
+        String putPart(String uploadId, int partNumber, byte[] data) {
+            Map<Integer, byte[]> parts = uploads.get(uploadId);
+            if (parts == null) {
+                throw new IllegalStateException("NoSuchUpload: " + uploadId);
+            }
+            parts.put(partNumber, data);
+            return eTag(data);
+        }
+
+        /**
+         * 分块上传不存在时返回 null，与 CosUtils.listParts 一致
+         */
+        List<PartSummary> listParts(String uploadId) {
+            Map<Integer, byte[]> parts = uploads.get(uploadId);
+            if (parts == null) {
+                return null;
+            }
+            List<PartSummary> summaries = new ArrayList<>();
+            parts.forEach((partNumber, data) -> {
+                PartSummary summary = new PartSummary();
+                summary.setPartNumber(partNumber);
+                summary.setETag(eTag(data));
+                summary.setSize(data.length);
+                summaries.add(summary);
+            });
+            return summaries;
+        }
+
+        String complete(String key, String uploadId, List<PartETag> partETags) {
+            Map<Integer, byte[]> parts = uploads.get(uploadId);
+            if (parts == null) {
+                throw new IllegalStateException("NoSuchUpload: " + uploadId);
+            }
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            for (PartETag partETag : partETags) {
+                byte[] data = parts.get(partETag.getPartNumber());
+                if (data == null || !eTag(data).equals(partETag.getETag())) {
+                    throw new IllegalStateException("InvalidPart: " + partETag.getPartNumber());
+                }
+                object.writeBytes(data);
+            }
+            uploads.remove(uploadId);
+            objects.put(key, object.toByteArray());
+            if (loseNextCompleteResponse) {
+                loseNextCompleteResponse = false;
+                throw new IllegalStateException("Read timed out");
+            }
+            return crc64(object.toByteArray());
+        }
+
+        ObjectMetadata metadata(String key) {
+            byte[] data = objects.get(key);
+            if (data == null) {
+                return null;
+            }
+            String crc64 = crc64(data);
+            ObjectMetadata metadata = new ObjectMetadata() {
+                @Override
+                public String getCrc64Ecma() {
+                    return crc64;
+                }
+            };
+            metadata.setContentLength(data.length);
+            return metadata;
+        }
+
+        private static String eTag(byte[] data) {
+            try {
+                return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data)) + "\"";
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.dromara.data.transfer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dromara.data.properties.TransferProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 源站直传导入的区间拉取测试
+ * <p>
+ * 用 JDK 自带的 HttpServer 模拟源站：原始地址 302 到带代次的 CDN 地址，代次变化后旧地址返回 403，
+ * 相当于签名地址过期。
+ */
+@Tag("dev")
+@DisplayName("源站直传导入的区间拉取测试")
+public class RangeStreamImporterTest {
+
+    private static final int SIZE = 4096;
+    private static final int PART = 512;
+
+    private final byte[] content = new byte[SIZE];
+    private final AtomicInteger generation = new AtomicInteger(1);
+    private final AtomicInteger resolveRequests = new AtomicInteger();
+    private final AtomicInteger rejectedRequests = new AtomicInteger();
+    private volatile String eTag = "\"sha-1\"";
+    /**
+     * 过期地址的请求在返回 403 前等待，让并发的分块都拿到同一个旧地址
+     */
+    private volatile CountDownLatch rejectGate = new CountDownLatch(0);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String sourceUrl;
+    private RangeStreamImporter importer;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new Random(7L).nextBytes(content);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/file", this::resolve);
+        server.createContext("/cdn/", this::cdn);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.start();
+        sourceUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/file";
+
+        TransferProperties properties = new TransferProperties();
+        properties.setPartMaxRetries(0);
+        BandwidthGovernor bandwidthGovernor = mock(BandwidthGovernor.class);
+        when(bandwidthGovernor.throttle(any(InputStream.class), any(), any()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        importer = new RangeStreamImporter(mock(ParallelMultipartUploader.class), mock(PartBufferPool.class),
+            properties, bandwidthGovernor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("地址过期：从原始地址重新解析后继续拉取，不消耗重试次数")
+    public void refreshesExpiredAddress() throws Exception {
+        RangeStreamImporter.RangeSource source = source();
+        generation.incrementAndGet();
+
+        ByteBuffer buffer = ByteBuffer.allocate(PART);
+        importer.fetchRangeWithRetry(source, PART, 2 * PART - 1, buffer, null);
+
+        Assertions.assertArrayEquals(Arrays.copyOfRange(content, PART, 2 * PART), bytes(buffer));
+        Assertions.assertEquals(1, resolveRequests.get());
+        Assertions.assertTrue(source.current().uri().getPath().endsWith("/cdn/2"));
+        Assertions.assertEquals("\"sha-1\"", source.current().validator());
+    }
+
+    @Test
+    @DisplayName("多个分块同时遇到过期：只重新解析一次，各分块内容正确")
+    public void refreshesOnceForConcurrentParts() throws Exception {
+        RangeStreamImporter.RangeSource source = source();
+        int parts = SIZE / PART;
+        rejectGate = new CountDownLatch(parts);
+        generation.incrementAndGet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(parts);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < parts; i++) {
+                int start = i * PART;
+                futures.add(pool.submit(() -> {
+                    ByteBuffer buffer = ByteBuffer.allocate(PART);
+                    importer.fetchRangeWithRetry(source, start, start + PART - 1, buffer, null);
+                    return bytes(buffer);
+                }));
+            }
+            for (int i = 0; i < parts; i++) {
+                Assertions.assertArrayEquals(Arrays.copyOfRange(content, i * PART, (i + 1) * PART), futures.get(i).get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Assertions.assertEquals(parts, rejectedRequests.get());
+        Assertions.assertEquals(1, resolveRequests.get());
+    }
+
+    @Test
+    @DisplayName("重新解析时源文件已变化：失败而不是把新内容拼进已上传的分块")
+    public void failsWhenSourceChanged() throws Exception {
+        RangeStreamImporter.RangeSource source = source();
+        generation.incrementAndGet();
+        eTag = "\"sha-2\"";
+
+        IOException e = Assertions.assertThrows(IOException.class,
+            () -> importer.fetchRangeWithRetry(source, 0, PART - 1, ByteBuffer.allocate(PART), null));
+        Assertions.assertTrue(e.getMessage().startsWith("源文件已变化"), e.getMessage());
+        Assertions.assertEquals(1, resolveRequests.get());
+        Assertions.assertTrue(source.current().uri().getPath().endsWith("/cdn/1"));
+    }
+
+    /**
+     * 当前代次的地址，等同于探测阶段重定向后的地址
+     */
+    private RangeStreamImporter.RangeSource source() {
+        URI cdn = URI.create(sourceUrl.replace("/file", "/cdn/" + generation.get()));
+        return importer.new RangeSource(sourceUrl, SIZE, eTag, new RangeStreamImporter.RangeTarget(cdn, eTag));
+    }
+
+    private void resolve(HttpExchange exchange) throws IOException {
+        resolveRequests.incrementAndGet();
+        exchange.getResponseHeaders().add("Location", "/cdn/" + generation.get());
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private void cdn(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)) != generation.get()) {
+            rejectedRequests.incrementAndGet();
+            rejectGate.countDown();
+            try {
+                rejectGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(403, -1);
+            exchange.close();
+            return;
+        }
+        // bytes=start-end
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String[] bounds = range.substring("bytes=".length()).split("-");
+        int start = Integer.parseInt(bounds[0]);
+        int end = Integer.parseInt(bounds[1]);
+        exchange.getResponseHeaders().add("ETag", eTag);
+        exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + SIZE);
+        exchange.sendResponseHeaders(206, end - start + 1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content, start, end - start + 1);
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -4,6 +4,8 @@ import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import jakarta.annotation.Resource;
 import org.dromara.common.core.domain.R;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
 import org.dromara.nodes.entity.Nodes; // 实体类
 import org.dromara.nodes.entity.dto.NodesDto; // DTO 类
 import org.dromara.nodes.service.NodesService;
@@ -123,6 +125,22 @@ public class NodesContronller {
         return R.ok(dtoList);
     }
 
+    /**
+     * 5.1 【查询-游标分页列表】按创建时间倒序游标分页查询节点信息
+     * GET /api/edgeai/nodes/cursor?pageSize=10&cursor=上一页返回的nextCursor
+     * @param query 分页大小与游标
+     * @return 一页节点与下一页的游标
+     */
+    @GetMapping("/cursor")
+    public R<CursorPage<NodesDto>> cursor(CursorPageQuery query) {
+        CursorPage<NodesDto> page = nodesService.list(query).convert(nodes -> {
+            NodesDto dto = new NodesDto();
+            BeanUtils.copyProperties(nodes, dto);
+            return dto;
+        });
+        return R.ok(page);
+    }
+
     /**
      * 6. 【查询-可视化数据】根据项目 ID 查询节点信息（使用 DTO 优化返回结果）
      * GET /api/edgeai/nodes/visualization/{projectid}
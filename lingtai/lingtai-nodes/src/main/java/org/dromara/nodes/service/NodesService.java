@@ -2,6 +2,8 @@ package org.dromara.nodes.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
 import org.dromara.nodes.entity.Nodes;
 import org.dromara.nodes.entity.dto.NodesDto; // DTO 可以在 service 层用于更复杂的业务逻辑，但此处保持简单，只返回 Entity
 
@@ -22,6 +24,14 @@ public interface NodesService extends IService<Nodes> {
      */
     IPage<Nodes> list(Integer pageNum, Integer pageSize);
 
+    /**
+     * 【对应Controller中的游标分页查询】
+     * 按创建时间倒序游标分页查询节点信息，翻页代价与页码无关。
+     * @param query 分页大小与上一页返回的游标
+     * @return 一页节点与下一页的游标
+     */
+    CursorPage<Nodes> list(CursorPageQuery query);
+
     /**
      * 【对应Controller中的可视化查询】
      * 根据项目ID查询用于可视化的节点列表。
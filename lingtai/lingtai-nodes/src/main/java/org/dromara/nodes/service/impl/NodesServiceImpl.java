@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
+import org.dromara.common.mybatis.core.page.CursorPage;
+import org.dromara.common.mybatis.core.page.CursorPageQuery;
 import org.dromara.nodes.entity.Nodes;
 import org.dromara.nodes.mapper.NodesMapper;
 import org.dromara.nodes.service.NodesService;
@@ -45,6 +47,18 @@ public class NodesServiceImpl extends ServiceImpl<NodesMapper, Nodes> implements
         return baseMapper.selectPage(page, wrapper);
     }
 
+    /**
+     * 【自定义方法实现】游标分页查询节点信息
+     * 以 (created_time, id) 定位上一页末尾，配合 idx_nodes_created 索引，深翻页不再扫描跳过的行
+     * @param query 分页大小与上一页返回的游标
+     * @return 一页节点与下一页的游标
+     */
+    @Override
+    public CursorPage<Nodes> list(CursorPageQuery query) {
+        LambdaQueryWrapper<Nodes> wrapper = new LambdaQueryWrapper<>();
+        return query.selectPage(baseMapper, wrapper, Nodes::getCreatedTime, Nodes::getId, "nodes");
+    }
+
     /**
      * 【自定义方法实现】根据项目ID查询用于可视化的节点列表
      * @param projectid 项目ID
@@ -0,0 +1,31 @@
+package org.dromara.projects.config;
+
+import org.dromara.projects.properties.TrainingLogProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 训练日志推送线程池配置
+ */
+@Configuration
+public class TrainingLogConfig {
+
+    /**
+     * 训练日志推送线程池
+     * 每个订阅者同时最多占用一个线程，慢客户端只阻塞自己的推送，文件读取不受影响；
+     * 固定线程数即全进程同时在写的 SSE 连接数上限（lingtai.training-log.send-threads）。
+     */
+    @Bean(name = "trainingLogExecutor")
+    public Executor trainingLogExecutor(TrainingLogProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, properties.getSendThreads());
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("TrainingLog-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package org.dromara.projects.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.dromara.common.core.domain.R;
+import org.dromara.projects.domain.vo.SchedulerNodeVO;
+import org.dromara.projects.domain.vo.TrainingTaskVO;
+import org.dromara.projects.scheduler.TrainingScheduler;
+import org.dromara.projects.service.ITrainingTaskService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 训练调度控制器
+ */
+@RestController
+@RequestMapping("/training/scheduler")
+@RequiredArgsConstructor
+public class TrainingSchedulerController {
+
+    private final ITrainingTaskService trainingTaskService;
+
+    private final TrainingScheduler trainingScheduler;
+
+    /**
+     * 查询排队中的训练任务及未能调度的原因
+     */
+    @GetMapping("/queue")
+    public R<List<TrainingTaskVO>> queue() {
+        List<TrainingTaskVO> list = trainingTaskService.selectQueuedTasks();
+        list.forEach(vo -> vo.setScheduleReason(trainingScheduler.blockedReason(vo.getId())));
+        return R.ok(list);
+    }
+
+    /**
+     * 查询各节点的容量与分配情况
+     */
+    @GetMapping("/nodes")
+    public R<List<SchedulerNodeVO>> nodes() {
+        return R.ok(trainingScheduler.nodes());
+    }
+}
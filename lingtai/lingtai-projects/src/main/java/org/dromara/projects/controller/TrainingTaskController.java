@@ -3,12 +3,17 @@ package org.dromara.projects.controller;
 import lombok.RequiredArgsConstructor;
 import org.dromara.common.core.domain.R;
 import org.dromara.projects.domain.dto.ClusterInfoDTO;
+import org.dromara.projects.domain.dto.TrainingMetricQueryDTO;
 import org.dromara.projects.domain.dto.TrainingTaskDTO;
 import org.dromara.projects.domain.dto.TrainingTaskUpdateDTO;
+import org.dromara.projects.domain.vo.TrainingMetricSeriesVO;
 import org.dromara.projects.domain.vo.TrainingTaskVO;
+import org.dromara.projects.logs.TrainingLogStreamer;
 import org.dromara.projects.service.ITrainingTaskService;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -27,6 +32,8 @@ public class TrainingTaskController {
 
     private final ITrainingTaskService trainingTaskService;
 
+    private final TrainingLogStreamer trainingLogStreamer;
+
     /**
      * 查询训练任务列表
      */
@@ -90,6 +97,25 @@ public class TrainingTaskController {
         return R.ok(vo);
     }
 
+    /**
+     * 获取训练指标曲线
+     */
+    @GetMapping("/{id}/metrics")
+    public R<List<TrainingMetricSeriesVO>> getMetrics(@PathVariable Long id, @Validated TrainingMetricQueryDTO dto) {
+        List<TrainingMetricSeriesVO> series = trainingTaskService.getTaskMetrics(id, dto);
+        return R.ok(series);
+    }
+
+    /**
+     * 实时查看训练日志（SSE），事件ID为日志的字节偏移
+     * 断线重连时浏览器自动携带 Last-Event-ID，从该位置续读；也可用 offset 指定起始位置，都不传时从末尾附近开始
+     */
+    @GetMapping(value = "/{id}/log/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLog(@PathVariable Long id, @RequestParam(required = false) Long offset,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return trainingLogStreamer.subscribe(id, lastEventId, offset);
+    }
+
     /**
      * 删除训练任务
      */
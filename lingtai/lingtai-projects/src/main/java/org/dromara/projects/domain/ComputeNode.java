@@ -0,0 +1,55 @@
+package org.dromara.projects.domain;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 计算节点对象 nodes（只读）
+ * <p>
+ * 节点由 lingtai-nodes 维护，这里只读取调度需要的字段。cpu、gpu、memory 为节点上报的描述文本，
+ * 如 "16 vCPU"、"2x RTX-3090-24G"、"64GB"。
+ */
+@Data
+@TableName("nodes")
+public class ComputeNode implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private String name;
+
+    /**
+     * 节点状态
+     */
+    private String state;
+
+    private String role;
+
+    private String cpu;
+
+    private String gpu;
+
+    private String memory;
+
+    /**
+     * CPU 使用率（百分比）
+     */
+    private Double cpuUsage;
+
+    /**
+     * 内存使用率（百分比）
+     */
+    private Double memoryUsage;
+
+    /**
+     * 最近一次心跳时间
+     */
+    private Date heartbeat;
+}
@@ -0,0 +1,78 @@
+package org.dromara.projects.domain;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 训练指标数据块对象 training_metric_block
+ * <p>
+ * 一次训练运行的逐轮指标按列压缩后分块保存，每块最多 128 个点；level 为降采样层级，
+ * 0 为原始点，n 层的每个点汇总 n-1 层的 8 个点（最小、最大、合计、计数）。
+ */
+@Data
+@TableName("training_metric_block")
+public class TrainingMetricBlock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 训练任务ID
+     */
+    private Long taskId;
+
+    /**
+     * 训练服务返回的运行ID
+     */
+    private String runId;
+
+    /**
+     * 降采样层级
+     */
+    private Integer level;
+
+    /**
+     * 块序号，同一层级内递增
+     */
+    private Integer blockNo;
+
+    /**
+     * 块内第一个点的轮次
+     */
+    private Integer firstRound;
+
+    /**
+     * 块覆盖到的最后一轮
+     */
+    private Integer lastRound;
+
+    /**
+     * 点数
+     */
+    private Integer pointCount;
+
+    /**
+     * 压缩后的列数据
+     */
+    private byte[] data;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private Date updateTime;
+}
@@ -51,6 +51,56 @@ public class TrainingTask implements Serializable {
      */
     private String logPath;
 
+    /**
+     * 训练服务返回的运行ID，用于订阅进度
+     */
+    private String runId;
+
+    /**
+     * 运行该训练的训练服务地址
+     */
+    private String sidecarEndpoint;
+
+    /**
+     * 调度优先级，越大越优先，可抢占优先级更低的任务
+     */
+    private Integer priority;
+
+    /**
+     * 每个 worker 需要的 CPU 核数
+     */
+    private Integer cpuPerWorker;
+
+    /**
+     * 每个 worker 需要的内存（MB）
+     */
+    private Integer memoryPerWorker;
+
+    /**
+     * 每个 worker 需要的 GPU 卡数
+     */
+    private Integer gpuPerWorker;
+
+    /**
+     * 调度结果：每个 worker 所在的节点ID，逗号分隔
+     */
+    private String placement;
+
+    /**
+     * 进入调度队列的时间
+     */
+    private Date queuedTime;
+
+    /**
+     * 最近一次分配节点的时间
+     */
+    private Date scheduledTime;
+
+    /**
+     * 被抢占的次数
+     */
+    private Integer preemptCount;
+
     /**
      * 当前损失值
      */
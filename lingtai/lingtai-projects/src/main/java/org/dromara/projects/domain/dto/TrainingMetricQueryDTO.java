@@ -0,0 +1,43 @@
+package org.dromara.projects.domain.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 训练指标曲线查询对象
+ */
+@Data
+public class TrainingMetricQueryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 运行ID，为空时查询任务当前的运行
+     */
+    private String runId;
+
+    /**
+     * 指标名称，多个用逗号分隔，为空时返回全部指标
+     */
+    private String metrics;
+
+    /**
+     * 起始轮次，为空时从第一轮开始
+     */
+    private Integer fromRound;
+
+    /**
+     * 结束轮次，为空时到最新一轮
+     */
+    private Integer toRound;
+
+    /**
+     * 曲线最多返回的点数
+     */
+    @Min(value = 1, message = "点数不能小于1")
+    @Max(value = 2000, message = "点数不能大于2000")
+    private Integer points;
+}
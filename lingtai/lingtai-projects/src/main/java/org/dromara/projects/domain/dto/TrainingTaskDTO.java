@@ -35,4 +35,28 @@ public class TrainingTaskDTO implements Serializable {
     private Float lr;
 
     private String remark;
+
+    /**
+     * 调度优先级，为空时为 0
+     */
+    @Min(value = 0, message = "优先级不能小于0")
+    private Integer priority;
+
+    /**
+     * 每个 worker 需要的 CPU 核数，为空时取调度配置的默认值
+     */
+    @Min(value = 1, message = "CPU 核数不能小于1")
+    private Integer cpuPerWorker;
+
+    /**
+     * 每个 worker 需要的内存（MB），为空时取调度配置的默认值
+     */
+    @Min(value = 1, message = "内存不能小于1MB")
+    private Integer memoryPerWorker;
+
+    /**
+     * 每个 worker 需要的 GPU 卡数，为空时取调度配置的默认值
+     */
+    @Min(value = 0, message = "GPU 卡数不能小于0")
+    private Integer gpuPerWorker;
 }
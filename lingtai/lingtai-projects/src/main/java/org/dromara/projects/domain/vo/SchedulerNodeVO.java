@@ -0,0 +1,55 @@
+package org.dromara.projects.domain.vo;
+
+import lombok.Data;
+
+/**
+ * 调度视角的节点容量
+ */
+@Data
+public class SchedulerNodeVO {
+
+    private Long id;
+
+    private String name;
+
+    private String state;
+
+    /**
+     * 是否参与调度
+     */
+    private Boolean schedulable;
+
+    /**
+     * 不参与调度的原因
+     */
+    private String reason;
+
+    private Double totalCpu;
+
+    private Double totalMemoryMb;
+
+    private Integer totalGpu;
+
+    /**
+     * 已分配给训练任务的资源
+     */
+    private Double reservedCpu;
+
+    private Double reservedMemoryMb;
+
+    private Integer reservedGpu;
+
+    /**
+     * 可分配的资源，已扣除分配与节点实测占用
+     */
+    private Double availableCpu;
+
+    private Double availableMemoryMb;
+
+    private Integer availableGpu;
+
+    /**
+     * 占用该节点的训练任务数
+     */
+    private Integer tasks;
+}
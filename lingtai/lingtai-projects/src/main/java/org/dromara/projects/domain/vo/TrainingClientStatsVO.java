@@ -0,0 +1,39 @@
+package org.dromara.projects.domain.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 训练客户端单轮统计视图对象
+ */
+@Data
+public class TrainingClientStatsVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 客户端ID
+     */
+    private String clientId;
+
+    /**
+     * 本轮样本数
+     */
+    private Long numSamples;
+
+    /**
+     * 本轮本地损失
+     */
+    private Float loss;
+
+    /**
+     * 本轮本地准确率
+     */
+    private Float accuracy;
+
+    /**
+     * 本轮耗时（毫秒）
+     */
+    private Long durationMs;
+}
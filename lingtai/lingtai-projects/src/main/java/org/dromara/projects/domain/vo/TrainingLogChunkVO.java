@@ -0,0 +1,24 @@
+package org.dromara.projects.domain.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 训练日志推送的一批行
+ */
+@Data
+public class TrainingLogChunkVO {
+
+    /**
+     * 第一行的字节偏移
+     */
+    private Long offset;
+
+    /**
+     * 最后一行之后的字节偏移，与事件ID相同，重连时从这里续读
+     */
+    private Long next;
+
+    private List<String> lines;
+}
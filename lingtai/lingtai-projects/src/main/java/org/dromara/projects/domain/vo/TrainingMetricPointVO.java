@@ -0,0 +1,39 @@
+package org.dromara.projects.domain.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 训练指标曲线上的一个点，降采样后为一个轮次区间的汇总
+ */
+@Data
+public class TrainingMetricPointVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 区间内第一个点的轮次
+     */
+    private Integer round;
+
+    /**
+     * 区间最小值，区间内没有有效值时为空
+     */
+    private Double min;
+
+    /**
+     * 区间最大值
+     */
+    private Double max;
+
+    /**
+     * 区间平均值
+     */
+    private Double avg;
+
+    /**
+     * 区间内的原始点数
+     */
+    private Long count;
+}
@@ -0,0 +1,51 @@
+package org.dromara.projects.domain.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 训练指标曲线视图对象
+ */
+@Data
+public class TrainingMetricSeriesVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 训练任务ID
+     */
+    private Long taskId;
+
+    /**
+     * 训练服务返回的运行ID
+     */
+    private String runId;
+
+    /**
+     * 指标名称（loss accuracy clients samples durationMs）
+     */
+    private String metric;
+
+    /**
+     * 查询的起始轮次
+     */
+    private Integer fromRound;
+
+    /**
+     * 查询的结束轮次
+     */
+    private Integer toRound;
+
+    /**
+     * 每个点汇总的轮数，1 表示原始点
+     */
+    private Integer step;
+
+    /**
+     * 曲线上的点，按轮次升序
+     */
+    private List<TrainingMetricPointVO> points = new ArrayList<>();
+}
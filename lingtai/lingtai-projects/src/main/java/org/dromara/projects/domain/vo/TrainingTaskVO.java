@@ -13,6 +13,7 @@ import org.dromara.projects.enums.TrainingTaskStatus;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.List;
 
 /**
  * 训练任务视图对象
@@ -48,6 +49,59 @@ public class TrainingTaskVO implements Serializable {
      * 日志路径
      */
     private String logPath;
+    /**
+     * 训练服务返回的运行ID
+     */
+    private String runId;
+
+    /**
+     * 运行该训练的训练服务地址
+     */
+    private String sidecarEndpoint;
+
+    /**
+     * 调度优先级，越大越优先，可抢占优先级更低的任务
+     */
+    private Integer priority;
+
+    /**
+     * 每个 worker 需要的 CPU 核数
+     */
+    private Integer cpuPerWorker;
+
+    /**
+     * 每个 worker 需要的内存（MB）
+     */
+    private Integer memoryPerWorker;
+
+    /**
+     * 每个 worker 需要的 GPU 卡数
+     */
+    private Integer gpuPerWorker;
+
+    /**
+     * 调度结果：每个 worker 所在的节点ID，逗号分隔
+     */
+    private String placement;
+
+    /**
+     * 进入调度队列的时间
+     */
+    private Date queuedTime;
+
+    /**
+     * 最近一次分配节点的时间
+     */
+    private Date scheduledTime;
+
+    /**
+     * 被抢占的次数
+     */
+    private Integer preemptCount;
+    /**
+     * 排队中的任务最近一轮未能调度的原因
+     */
+    private String scheduleReason;
     /**
      * 当前损失值
      */
@@ -83,6 +137,11 @@ public class TrainingTaskVO implements Serializable {
     // 备注
     private String remark;
 
+    /**
+     * 最近一轮各客户端的统计，仅在进度订阅中的任务上返回
+     */
+    private List<TrainingClientStatsVO> clients;
+
     /**
      * 创建者
      */
@@ -46,7 +46,17 @@ public enum TrainingTaskStatus {
     /**
      * 失败
      */
-    FAILED;
+    FAILED,
+
+    /**
+     * 失联：所属训练服务不可用，恢复后重新订阅进度
+     */
+    ORPHANED,
+
+    /**
+     * 排队中：等待调度器分配节点
+     */
+    QUEUED;
 
     // 添加状态码映射（可根据实际需求调整）
     private static final Map<String, TrainingTaskStatus> NAME_TO_ENUM_MAP =
@@ -94,6 +104,8 @@ public enum TrainingTaskStatus {
             case COMPLETED -> "已完成";
             case STARTED -> "已启动";
             case FAILED -> "失败";
+            case ORPHANED -> "失联";
+            case QUEUED -> "排队中";
             default -> "未知状态";
         };
     }
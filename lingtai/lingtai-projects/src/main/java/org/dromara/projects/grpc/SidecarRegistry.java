@@ -0,0 +1,313 @@
+package org.dromara.projects.grpc;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.edgeai.training.api.CapacityReply;
+import com.edgeai.training.api.CapacityRequest;
+import com.edgeai.training.api.TrainingServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.health.v1.HealthGrpc;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.enums.TrainingTaskStatus;
+import org.dromara.projects.mapper.TrainingTaskMapper;
+import org.dromara.projects.properties.TrainingSidecarProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 训练服务（sidecar）注册表
+ * <p>
+ * 为每个训练服务维护一个 channel，地址来自配置与注册中心，定时刷新。
+ * 定时用 grpc.health.v1 检查健康并通过 GetCapacity 读取容量，连续失败达到阈值判定失联，恢复后判定上线，
+ * 状态变化以 {@link SidecarStateEvent} 发布。
+ * 新训练分配给负载（运行中的训练数 / 容量）最低的健康训练服务；暂停、停止、进度等调用发往训练所属的训练服务。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SidecarRegistry {
+
+    /**
+     * 健康检查的服务名
+     */
+    private static final String HEALTH_SERVICE = TrainingServiceGrpc.SERVICE_NAME;
+
+    /**
+     * 注册中心实例元数据中的 gRPC 端口，缺省时使用实例端口
+     */
+    private static final String GRPC_PORT_METADATA = "grpc.port";
+
+    private static final List<TrainingTaskStatus> ACTIVE =
+        List.of(TrainingTaskStatus.RUNNING, TrainingTaskStatus.STARTED, TrainingTaskStatus.PAUSED);
+
+    private final TrainingSidecarProperties properties;
+    private final TrainingTaskMapper taskMapper;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+
+    private final Map<String, Sidecar> sidecars = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+                check();
+            } catch (Exception e) {
+                log.error("[SIDECAR] 检查训练服务失败", e);
+            }
+        }, 0, Math.max(1, properties.getHealthIntervalSeconds()), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sidecars.values().forEach(sidecar -> sidecar.channel.shutdown());
+        sidecars.clear();
+    }
+
+    /**
+     * 为新训练选择负载最低的健康训练服务，并预占一个名额
+     *
+     * @param exclude 本次已尝试失败的地址
+     */
+    public Sidecar acquire(Collection<String> exclude) {
+        List<Sidecar> healthy = sidecars.values().stream()
+            .filter(Sidecar::isHealthy)
+            .filter(sidecar -> !exclude.contains(sidecar.endpoint))
+            .toList();
+        if (healthy.isEmpty()) {
+            throw new RuntimeException("没有可用的训练服务");
+        }
+        synchronized (this) {
+            Sidecar chosen = healthy.stream()
+                .filter(sidecar -> sidecar.load.get() < sidecar.capacity)
+                .min(Comparator.comparingDouble((Sidecar sidecar) -> (double) sidecar.load.get() / sidecar.capacity)
+                    .thenComparingInt(sidecar -> sidecar.load.get()))
+                .orElseThrow(() -> new RuntimeException("训练服务均已满载，请稍后再试"));
+            chosen.load.incrementAndGet();
+            return chosen;
+        }
+    }
+
+    /**
+     * 训练所属的训练服务；没有记录所属的旧任务发往任一健康的训练服务
+     */
+    public Sidecar route(String endpoint) {
+        if (StringUtils.isBlank(endpoint)) {
+            return sidecars.values().stream().filter(Sidecar::isHealthy).findFirst()
+                .orElseThrow(() -> new RuntimeException("没有可用的训练服务"));
+        }
+        Sidecar sidecar = sidecars.get(endpoint);
+        if (sidecar == null || !sidecar.isHealthy()) {
+            throw new RuntimeException("训练服务 " + endpoint + " 不可用");
+        }
+        return sidecar;
+    }
+
+    public boolean isHealthy(String endpoint) {
+        Sidecar sidecar = endpoint == null ? null : sidecars.get(endpoint);
+        return sidecar != null && sidecar.isHealthy();
+    }
+
+    /**
+     * 按配置与注册中心刷新训练服务列表，消失的训练服务按失联处理
+     */
+    private void refresh() {
+        Set<String> endpoints = resolve();
+        if (endpoints == null) {
+            return;
+        }
+        for (String endpoint : endpoints) {
+            sidecars.computeIfAbsent(endpoint, this::connect);
+        }
+        for (String endpoint : List.copyOf(sidecars.keySet())) {
+            if (!endpoints.contains(endpoint)) {
+                Sidecar removed = sidecars.remove(endpoint);
+                removed.channel.shutdown();
+                log.warn("[SIDECAR] 训练服务 {} 已下线", endpoint);
+                eventPublisher.publishEvent(new SidecarStateEvent(endpoint, false));
+            }
+        }
+    }
+
+    /**
+     * @return 训练服务地址；注册中心不可用时返回 null，保留现有列表
+     */
+    private Set<String> resolve() {
+        Set<String> endpoints = new LinkedHashSet<>();
+        properties.getEndpoints().stream().filter(StringUtils::isNotBlank).map(String::trim).forEach(endpoints::add);
+        if (StringUtils.isNotBlank(properties.getServiceName())) {
+            DiscoveryClient client = discoveryClient.getIfAvailable();
+            if (client != null) {
+                try {
+                    for (ServiceInstance instance : client.getInstances(properties.getServiceName())) {
+                        String port = instance.getMetadata().get(GRPC_PORT_METADATA);
+                        endpoints.add(instance.getHost() + ":" + (StringUtils.isNotBlank(port) ? port : instance.getPort()));
+                    }
+                } catch (Exception e) {
+                    log.warn("[SIDECAR] 从注册中心获取训练服务失败: {}", e.getMessage());
+                    return null;
+                }
+            }
+        }
+        if (endpoints.isEmpty()) {
+            endpoints.add(properties.getHost() + ":" + properties.getPort());
+        }
+        return endpoints;
+    }
+
+    private Sidecar connect(String endpoint) {
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(endpoint).usePlaintext().build();
+        log.info("[SIDECAR] 已创建到训练服务 {} 的连接", endpoint);
+        return new Sidecar(endpoint, channel, properties.getDefaultCapacity());
+    }
+
+    /**
+     * 健康检查并刷新容量与负载
+     */
+    private void check() {
+        Map<String, Integer> running = runningByEndpoint();
+        for (Sidecar sidecar : sidecars.values()) {
+            boolean serving = probe(sidecar);
+            int reportedActive = 0;
+            if (serving) {
+                try {
+                    CapacityReply capacity = sidecar.blockingStub()
+                        .withDeadlineAfter(properties.getHealthTimeoutMillis(), TimeUnit.MILLISECONDS)
+                        .getCapacity(CapacityRequest.getDefaultInstance());
+                    sidecar.capacity = capacity.getMaxRuns() > 0 ? capacity.getMaxRuns() : properties.getDefaultCapacity();
+                    reportedActive = capacity.getActiveRuns();
+                } catch (StatusRuntimeException e) {
+                    // 旧版训练服务没有 GetCapacity，使用默认容量
+                    sidecar.capacity = properties.getDefaultCapacity();
+                }
+            }
+            sidecar.capacity = Math.max(1, sidecar.capacity);
+            // 其他实例分配的训练也记在库里，取库中运行数与训练服务上报数的较大者
+            sidecar.load.set(Math.max(running.getOrDefault(sidecar.endpoint, 0), reportedActive));
+
+            if (serving) {
+                sidecar.failures = 0;
+                if (!Boolean.TRUE.equals(sidecar.healthy)) {
+                    sidecar.healthy = true;
+                    log.info("[SIDECAR] 训练服务 {} 可用，容量 {}，负载 {}", sidecar.endpoint, sidecar.capacity, sidecar.load.get());
+                    eventPublisher.publishEvent(new SidecarStateEvent(sidecar.endpoint, true));
+                }
+            } else if (++sidecar.failures >= Math.max(1, properties.getUnhealthyThreshold())
+                && !Boolean.FALSE.equals(sidecar.healthy)) {
+                sidecar.healthy = false;
+                log.warn("[SIDECAR] 训练服务 {} 连续 {} 次健康检查失败，判定失联", sidecar.endpoint, sidecar.failures);
+                eventPublisher.publishEvent(new SidecarStateEvent(sidecar.endpoint, false));
+            }
+        }
+    }
+
+    private boolean probe(Sidecar sidecar) {
+        try {
+            HealthCheckResponse response = HealthGrpc.newBlockingStub(sidecar.channel)
+                .withDeadlineAfter(properties.getHealthTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .check(HealthCheckRequest.newBuilder().setService(HEALTH_SERVICE).build());
+            return response.getStatus() == HealthCheckResponse.ServingStatus.SERVING;
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() != Status.Code.UNAVAILABLE) {
+                log.debug("[SIDECAR] 训练服务 {} 健康检查失败: {}", sidecar.endpoint, e.getStatus());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 各训练服务上运行中（含暂停）的训练数
+     */
+    private Map<String, Integer> runningByEndpoint() {
+        List<Map<String, Object>> rows = taskMapper.selectMaps(new QueryWrapper<TrainingTask>()
+            .select("sidecar_endpoint", "count(*) as runs")
+            .in("status", ACTIVE.stream().map(Enum::name).toList())
+            .isNotNull("sidecar_endpoint")
+            .groupBy("sidecar_endpoint"));
+        Map<String, Integer> running = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object endpoint = row.get("sidecar_endpoint");
+            Object runs = row.get("runs");
+            if (endpoint != null && runs instanceof Number number) {
+                running.put(Objects.toString(endpoint), number.intValue());
+            }
+        }
+        return running;
+    }
+
+    /**
+     * 单个训练服务的连接与状态
+     */
+    public static final class Sidecar {
+
+        private final String endpoint;
+        private final ManagedChannel channel;
+        private final TrainingServiceGrpc.TrainingServiceBlockingStub blockingStub;
+        private final TrainingServiceGrpc.TrainingServiceStub asyncStub;
+        private final AtomicInteger load = new AtomicInteger();
+        private volatile int capacity;
+        /**
+         * 尚未检查过时为 null
+         */
+        private volatile Boolean healthy;
+        private volatile int failures;
+
+        Sidecar(String endpoint, ManagedChannel channel, int capacity) {
+            this.endpoint = endpoint;
+            this.channel = channel;
+            this.capacity = Math.max(1, capacity);
+            this.blockingStub = TrainingServiceGrpc.newBlockingStub(channel);
+            this.asyncStub = TrainingServiceGrpc.newStub(channel);
+        }
+
+        public String endpoint() {
+            return endpoint;
+        }
+
+        public TrainingServiceGrpc.TrainingServiceBlockingStub blockingStub() {
+            return blockingStub;
+        }
+
+        public TrainingServiceGrpc.TrainingServiceStub asyncStub() {
+            return asyncStub;
+        }
+
+        public boolean isHealthy() {
+            return Boolean.TRUE.equals(healthy);
+        }
+
+        /**
+         * 启动失败时归还预占的名额
+         */
+        public void release() {
+            load.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+}
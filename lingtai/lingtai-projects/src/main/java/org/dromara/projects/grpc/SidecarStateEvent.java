@@ -0,0 +1,10 @@
+package org.dromara.projects.grpc;
+
+/**
+ * 训练服务状态变化事件
+ *
+ * @param endpoint 训练服务地址
+ * @param healthy  true 表示上线或恢复，false 表示失联或下线
+ */
+public record SidecarStateEvent(String endpoint, boolean healthy) {
+}
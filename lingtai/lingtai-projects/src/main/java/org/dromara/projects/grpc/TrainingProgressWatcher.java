@@ -0,0 +1,385 @@
+package org.dromara.projects.grpc;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.edgeai.training.api.ClientStats;
+import com.edgeai.training.api.ProgressEvent;
+import com.edgeai.training.api.WatchProgressRequest;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.domain.vo.TrainingClientStatsVO;
+import org.dromara.projects.enums.TrainingTaskStatus;
+import org.dromara.projects.mapper.TrainingTaskMapper;
+import org.dromara.projects.metrics.TrainingMetricStore;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 训练进度订阅
+ * <p>
+ * 启动训练后通过异步 stub 订阅 WatchProgress 流，每收到一轮进度就写回训练任务（进度、轮数、当前损失），
+ * 收到终态时写入最终损失与状态；每轮指标同时追加到 {@link TrainingMetricStore}。流异常断开时按指数退避重连，并从已记录的下一轮继续。每个任务同一时刻只保留一个订阅。
+ * <p>
+ * 订阅发往训练所属的训练服务。训练服务失联时其上的训练标记为失联并取消订阅；
+ * 训练服务上线（包括本服务启动后的首次检查）时重新订阅其上运行中与失联的训练，训练服务已不认识的运行标记为失败。
+ * <p>
+ * 多实例部署时每个训练只由取得 {@link TrainingRunLease} 的实例订阅与写回，失联也只由该实例判定；
+ * 没有实例订阅的训练由判定失联的实例接手标记。各实例定时接管无人订阅的训练，持有者宕机后由其他实例继续。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingProgressWatcher {
+
+    private static final long MAX_BACKOFF_MILLIS = 60_000L;
+
+    /**
+     * 接管无人订阅的训练的间隔，与订阅归属锁的过期时间相当
+     */
+    private static final long ADOPT_INTERVAL_SECONDS = 30;
+
+    private static final List<TrainingTaskStatus> ACTIVE =
+        List.of(TrainingTaskStatus.RUNNING, TrainingTaskStatus.STARTED, TrainingTaskStatus.PAUSED);
+
+    private static final List<TrainingTaskStatus> TERMINAL =
+        List.of(TrainingTaskStatus.COMPLETED, TrainingTaskStatus.STOPPED, TrainingTaskStatus.FAILED);
+
+    private final SidecarRegistry sidecarRegistry;
+    private final TrainingTaskMapper baseMapper;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final TrainingMetricStore metricStore;
+    private final TrainingRunLease runLease;
+
+    private final Map<Long, Watch> watches = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                adopt(null);
+            } catch (Exception e) {
+                log.error("[TRAIN] 接管训练任务的进度订阅失败", e);
+            }
+        }, ADOPT_INTERVAL_SECONDS, ADOPT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 训练服务失联时标记其上的训练，上线时重新订阅
+     */
+    @EventListener
+    public void onSidecarState(SidecarStateEvent event) {
+        if (event.healthy()) {
+            int resumed = adopt(event.endpoint());
+            if (resumed > 0) {
+                log.info("[TRAIN] 训练服务 {} 可用，重新订阅 {} 个训练任务", event.endpoint(), resumed);
+            }
+            return;
+        }
+        List<TrainingTask> tasks = baseMapper.selectList(new LambdaQueryWrapper<TrainingTask>()
+            .select(TrainingTask::getId)
+            .eq(TrainingTask::getSidecarEndpoint, event.endpoint())
+            .in(TrainingTask::getStatus, ACTIVE));
+        // 其他实例订阅的训练由其自行判定，本实例看到的失联可能只是本实例到训练服务的网络问题
+        List<Long> orphaned = new ArrayList<>();
+        for (TrainingTask task : tasks) {
+            if (runLease.tryAcquire(task.getId())) {
+                orphaned.add(task.getId());
+            }
+        }
+        if (orphaned.isEmpty()) {
+            return;
+        }
+        // 先停止订阅，标记完成后再释放归属，避免其他实例在标记前接管
+        orphaned.forEach(this::stop);
+        try {
+            baseMapper.update(null, new LambdaUpdateWrapper<TrainingTask>()
+                .set(TrainingTask::getStatus, TrainingTaskStatus.ORPHANED)
+                .in(TrainingTask::getId, orphaned)
+                .eq(TrainingTask::getSidecarEndpoint, event.endpoint())
+                .in(TrainingTask::getStatus, ACTIVE));
+        } finally {
+            orphaned.forEach(this::cancel);
+        }
+        log.warn("[TRAIN] 训练服务 {} 失联，{} 个训练任务标记为失联", event.endpoint(), orphaned.size());
+    }
+
+    /**
+     * 订阅训练进度，已有订阅时替换；其他实例已在订阅时不订阅
+     *
+     * @param fromRound 从该轮开始推送，0 表示从最新一轮开始
+     */
+    public void watch(Long taskId, String runId, String endpoint, int fromRound) {
+        watch(new Watch(taskId, runId, endpoint, fromRound - 1, 0));
+    }
+
+    public boolean isWatching(Long taskId) {
+        return watches.containsKey(taskId);
+    }
+
+    /**
+     * 取消订阅并释放归属，任务被删除时调用
+     */
+    public void cancel(Long taskId) {
+        stop(taskId);
+        metricStore.close(taskId);
+        runLease.release(taskId);
+    }
+
+    /**
+     * 最近一轮各客户端的统计
+     */
+    public List<TrainingClientStatsVO> latestClients(Long taskId) {
+        Watch watch = watches.get(taskId);
+        return watch == null ? null : watch.clients;
+    }
+
+    /**
+     * 订阅所属训练服务可用、尚无实例订阅的训练
+     *
+     * @param endpoint 只处理该训练服务上的训练，为空时处理全部
+     * @return 本实例新订阅的训练数
+     */
+    private int adopt(String endpoint) {
+        List<TrainingTask> tasks = baseMapper.selectList(new LambdaQueryWrapper<TrainingTask>()
+            .eq(StringUtils.isNotBlank(endpoint), TrainingTask::getSidecarEndpoint, endpoint)
+            .in(TrainingTask::getStatus, TrainingTaskStatus.RUNNING, TrainingTaskStatus.STARTED,
+                TrainingTaskStatus.PAUSED, TrainingTaskStatus.ORPHANED)
+            .isNotNull(TrainingTask::getRunId));
+        int resumed = 0;
+        for (TrainingTask task : tasks) {
+            if (isWatching(task.getId()) || !sidecarRegistry.isHealthy(task.getSidecarEndpoint())) {
+                continue;
+            }
+            Watch watch = new Watch(task.getId(), task.getRunId(), task.getSidecarEndpoint(), nextRound(task.getRounds()) - 1, 0);
+            if (watch(watch)) {
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    /**
+     * @return 是否已发起订阅；其他实例持有归属或训练服务不可用时为 false
+     */
+    private boolean watch(Watch watch) {
+        if (!runLease.tryAcquire(watch.taskId)) {
+            log.debug("[TRAIN] 训练任务 {} 由其他实例订阅", watch.taskId);
+            return false;
+        }
+        Watch previous = watches.put(watch.taskId, watch);
+        if (previous != null) {
+            previous.cancel();
+        }
+        WatchProgressRequest request = WatchProgressRequest.newBuilder()
+            .setProjectId(watch.taskId.toString())
+            .setRunId(watch.runId)
+            .setFromRound(Math.max(0, watch.lastRound + 1))
+            .build();
+        try {
+            sidecarRegistry.route(watch.endpoint).asyncStub().watchProgress(request, watch);
+            return true;
+        } catch (RuntimeException e) {
+            // 训练服务不可用，等上线事件重新订阅
+            release(watch);
+            log.warn("[TRAIN] 订阅训练任务 {} 的进度失败: {}", watch.taskId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 只停止订阅，保留归属
+     */
+    private void stop(Long taskId) {
+        Watch watch = watches.remove(taskId);
+        if (watch != null) {
+            watch.cancel();
+        }
+    }
+
+    /**
+     * 订阅结束：仍是当前订阅时释放内存状态与归属
+     */
+    private void release(Watch watch) {
+        if (watches.remove(watch.taskId, watch)) {
+            metricStore.close(watch.taskId);
+            runLease.release(watch.taskId);
+        }
+    }
+
+    private static int nextRound(Integer rounds) {
+        return rounds == null || rounds <= 0 ? 0 : rounds + 1;
+    }
+
+    /**
+     * 写回一轮进度；已结束的任务不再被覆盖
+     */
+    private void apply(Long taskId, String runId, ProgressEvent event) {
+        LambdaUpdateWrapper<TrainingTask> wrapper = new LambdaUpdateWrapper<TrainingTask>()
+            .set(TrainingTask::getProgress, BigDecimal.valueOf(event.getProgress()))
+            .set(TrainingTask::getRounds, event.getRound())
+            .set(TrainingTask::getCurrentLoss, event.getLoss())
+            .eq(TrainingTask::getId, taskId)
+            .eq(TrainingTask::getRunId, runId)
+            .notIn(TrainingTask::getStatus, TERMINAL);
+        TrainingTaskStatus status = TrainingTaskStatus.fromName(event.getStatus());
+        if (status != null) {
+            wrapper.set(TrainingTask::getStatus, status);
+            if (status.isTerminalState()) {
+                wrapper.set(TrainingTask::getFinalLoss, event.getFinalLoss());
+                if (StringUtils.isNotBlank(event.getLogPath())) {
+                    wrapper.set(TrainingTask::getLogPath, event.getLogPath());
+                }
+                if (StringUtils.isNotBlank(event.getMessage())) {
+                    wrapper.set(TrainingTask::getRemark, StringUtils.substring(event.getMessage(), 0, 500));
+                }
+            }
+        }
+        baseMapper.update(null, wrapper);
+    }
+
+    private void markLost(Long taskId, String runId, String reason) {
+        baseMapper.update(null, new LambdaUpdateWrapper<TrainingTask>()
+            .set(TrainingTask::getStatus, TrainingTaskStatus.FAILED)
+            .set(TrainingTask::getRemark, reason)
+            .eq(TrainingTask::getId, taskId)
+            .eq(TrainingTask::getRunId, runId)
+            .notIn(TrainingTask::getStatus, TERMINAL));
+    }
+
+    /**
+     * 任务已结束、已失联或已重新启动，不再重连
+     */
+    private boolean isFinished(Long taskId, String runId) {
+        TrainingTask task = baseMapper.selectById(taskId);
+        return task == null || !runId.equals(task.getRunId()) || task.getStatus() == null
+            || task.getStatus().isTerminalState() || TrainingTaskStatus.ORPHANED.equals(task.getStatus());
+    }
+
+    private static TrainingClientStatsVO toVO(ClientStats stats) {
+        TrainingClientStatsVO vo = new TrainingClientStatsVO();
+        vo.setClientId(stats.getClientId());
+        vo.setNumSamples(stats.getNumSamples());
+        vo.setLoss(stats.getLoss());
+        vo.setAccuracy(stats.getAccuracy());
+        vo.setDurationMs(stats.getDurationMs());
+        return vo;
+    }
+
+    /**
+     * 单个任务的订阅，回调在 gRPC 线程中执行
+     */
+    private class Watch implements ClientResponseObserver<WatchProgressRequest, ProgressEvent> {
+
+        private final Long taskId;
+        private final String runId;
+        private final String endpoint;
+        private volatile int attempt;
+        private volatile int lastRound;
+        private volatile boolean cancelled;
+        private volatile List<TrainingClientStatsVO> clients;
+        private volatile ClientCallStreamObserver<WatchProgressRequest> call;
+
+        Watch(Long taskId, String runId, String endpoint, int lastRound, int attempt) {
+            this.taskId = taskId;
+            this.runId = runId;
+            this.endpoint = endpoint;
+            this.lastRound = lastRound;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<WatchProgressRequest> requestStream) {
+            this.call = requestStream;
+        }
+
+        void cancel() {
+            cancelled = true;
+            ClientCallStreamObserver<WatchProgressRequest> current = call;
+            if (current != null) {
+                current.cancel("订阅已取消", null);
+            }
+        }
+
+        private boolean active() {
+            return !cancelled && watches.get(taskId) == this;
+        }
+
+        @Override
+        public void onNext(ProgressEvent event) {
+            if (!active()) {
+                return;
+            }
+            attempt = 0;
+            lastRound = Math.max(lastRound, event.getRound());
+            clients = event.getClientsList().stream().map(TrainingProgressWatcher::toVO).toList();
+            try {
+                apply(taskId, runId, event);
+            } catch (Exception e) {
+                // 写库失败只丢这一轮，后续轮次会覆盖
+                log.error("[TRAIN] 写回训练任务 {} 第 {} 轮进度失败", taskId, event.getRound(), e);
+            }
+            try {
+                metricStore.append(taskId, runId, event);
+            } catch (Exception e) {
+                log.error("[TRAIN] 记录训练任务 {} 第 {} 轮指标失败", taskId, event.getRound(), e);
+            }
+            log.debug("[TRAIN] 任务 {} 第 {}/{} 轮，损失 {}，状态 {}", taskId, event.getRound(),
+                event.getTotalRounds(), event.getLoss(), event.getStatus());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (!active()) {
+                return;
+            }
+            Status status = Status.fromThrowable(t);
+            if (status.getCode() == Status.Code.NOT_FOUND) {
+                // 训练服务已不认识这次运行（例如训练服务重启），不再重连
+                log.warn("[TRAIN] 训练任务 {} 的运行 {} 已不存在: {}", taskId, runId, status.getDescription());
+                try {
+                    markLost(taskId, runId, "训练运行已丢失: " + status.getDescription());
+                } finally {
+                    release(this);
+                }
+                return;
+            }
+            long delay = Math.min(MAX_BACKOFF_MILLIS, 1000L << Math.min(attempt, 6));
+            log.warn("[TRAIN] 训练任务 {} 的进度订阅断开（{}），{} ms 后重连", taskId, status.getCode(), delay);
+            scheduledExecutorService.schedule(() -> {
+                if (!active()) {
+                    return;
+                }
+                try {
+                    if (isFinished(taskId, runId)) {
+                        release(this);
+                        return;
+                    }
+                    watch(new Watch(taskId, runId, endpoint, lastRound, attempt + 1));
+                } catch (Exception e) {
+                    release(this);
+                    log.error("[TRAIN] 重连训练任务 {} 的进度订阅失败", taskId, e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onCompleted() {
+            release(this);
+            log.info("[TRAIN] 训练任务 {} 的进度流已结束，最后一轮 {}", taskId, lastRound);
+        }
+    }
+}
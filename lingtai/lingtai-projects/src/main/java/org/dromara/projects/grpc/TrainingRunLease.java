@@ -0,0 +1,83 @@
+package org.dromara.projects.grpc;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.redis.utils.RedisUtils;
+import org.redisson.api.RLock;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 训练任务的订阅归属
+ * <p>
+ * 每个实例的 {@link SidecarRegistry} 都会发布训练服务上线事件，若各实例都订阅同一运行，进度与指标块会被重复写入。
+ * 订阅前按任务ID取得 Redisson 锁，只有持有者订阅、写回进度并判定失联；锁由看门狗续期，
+ * 实例宕机后约 30 秒过期，由其他实例接管。
+ * <p>
+ * 订阅回调在 gRPC 线程中执行，锁以固定的持有者ID加锁与解锁，不绑定具体线程。
+ */
+@Slf4j
+@Component
+public class TrainingRunLease {
+
+    private static final String LOCK_KEY = "lingtai:training:watch:";
+
+    /**
+     * Redisson 以客户端ID与该值共同标识持有者，同一实例内的各线程视为同一持有者
+     */
+    private static final long HOLDER = 1L;
+
+    private final Set<Long> owned = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 取得任务的订阅归属，本实例已持有时直接返回 true
+     *
+     * @return false 表示由其他实例订阅，或 Redis 不可用
+     */
+    public synchronized boolean tryAcquire(Long taskId) {
+        if (owned.contains(taskId)) {
+            return true;
+        }
+        try {
+            if (!lock(taskId).tryLockAsync(HOLDER).toCompletableFuture().join()) {
+                return false;
+            }
+        } catch (Exception e) {
+            log.warn("[TRAIN] 获取训练任务 {} 的订阅归属失败: {}", taskId, e.getMessage());
+            return false;
+        }
+        owned.add(taskId);
+        return true;
+    }
+
+    public boolean isOwner(Long taskId) {
+        return owned.contains(taskId);
+    }
+
+    /**
+     * 释放归属，未持有时忽略
+     */
+    public synchronized void release(Long taskId) {
+        if (!owned.remove(taskId)) {
+            return;
+        }
+        try {
+            lock(taskId).unlockAsync(HOLDER).toCompletableFuture().join();
+        } catch (Exception e) {
+            // 看门狗已停止续期，锁到期后自动释放
+            log.warn("[TRAIN] 释放训练任务 {} 的订阅归属失败: {}", taskId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List.copyOf(owned).forEach(this::release);
+    }
+
+    private static RLock lock(Long taskId) {
+        return RedisUtils.getClient().getLock(LOCK_KEY + taskId);
+    }
+}
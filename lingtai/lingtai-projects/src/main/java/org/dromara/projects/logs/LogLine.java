@@ -0,0 +1,11 @@
+package org.dromara.projects.logs;
+
+/**
+ * 日志中的一行
+ *
+ * @param start 行首的字节偏移
+ * @param end   下一行的字节偏移，即从这里续读
+ * @param text  行内容，不含换行符
+ */
+record LogLine(long start, long end, String text) {
+}
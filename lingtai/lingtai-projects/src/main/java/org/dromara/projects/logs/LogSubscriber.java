@@ -0,0 +1,227 @@
+package org.dromara.projects.logs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.json.utils.JsonUtils;
+import org.dromara.common.sse.core.SseEmitterManager;
+import org.dromara.common.sse.dto.SseTopicEventDto;
+import org.dromara.projects.domain.vo.TrainingLogChunkVO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一个 SSE 连接
+ * <p>
+ * 读取线程只把行放进本连接的有界缓冲并唤起推送，推送在 trainingLogExecutor 中进行，同一连接同时只有一个推送任务。
+ * 缓冲满时丢弃最旧的行，记下丢弃的字节区间，在下一批行之前以 gap 事件告知客户端。
+ * <p>
+ * 事件：
+ * <ul>
+ *     <li>log：一批行，ID 为最后一行之后的字节偏移</li>
+ *     <li>gap：一段未推送的内容 {from, to}，ID 为 to</li>
+ *     <li>reset：日志文件被截断或轮转，之后的偏移从新文件开头算起</li>
+ *     <li>end：训练已结束且日志已读完 {status, next}，随后关闭连接</li>
+ * </ul>
+ */
+@Slf4j
+final class LogSubscriber {
+
+    private final SseEmitterManager manager;
+    private final SseEmitter emitter;
+    private final String topic;
+    private final Executor executor;
+    private final int capacity;
+    private final int batchLines;
+
+    private final Deque<LogLine> buffer = new ArrayDeque<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private Runnable onClose = () -> {
+    };
+
+    /**
+     * 尚未告知客户端的丢弃区间，没有时为 -1
+     */
+    private long gapFrom = -1;
+    private long gapTo = -1;
+    private boolean reset;
+    private String endStatus;
+    private long endOffset;
+
+    LogSubscriber(SseEmitterManager manager, SseEmitter emitter, String topic, Executor executor,
+                  int capacity, int batchLines) {
+        this.manager = manager;
+        this.emitter = emitter;
+        this.topic = topic;
+        this.executor = executor;
+        this.capacity = Math.max(1, capacity);
+        this.batchLines = Math.max(1, batchLines);
+    }
+
+    void onClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    void offer(LogLine line) {
+        synchronized (this) {
+            if (closed.get() || endStatus != null) {
+                return;
+            }
+            if (buffer.size() >= capacity) {
+                LogLine dropped = buffer.pollFirst();
+                markGap(dropped.start(), dropped.end());
+            }
+            buffer.addLast(line);
+        }
+        schedule();
+    }
+
+    /**
+     * 记录一段不推送的内容，如补发超过上限时跳过的部分
+     */
+    void gap(long from, long to) {
+        synchronized (this) {
+            markGap(from, to);
+        }
+        schedule();
+    }
+
+    /**
+     * 文件被截断或轮转，丢弃尚未推送的旧内容
+     */
+    void reset() {
+        synchronized (this) {
+            buffer.clear();
+            gapFrom = -1;
+            gapTo = -1;
+            reset = true;
+        }
+        schedule();
+    }
+
+    /**
+     * 推送完缓冲中的行后发送结束事件并关闭连接
+     */
+    void end(String status, long offset) {
+        synchronized (this) {
+            endStatus = status;
+            endOffset = offset;
+        }
+        schedule();
+    }
+
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            buffer.clear();
+        }
+        onClose.run();
+        try {
+            emitter.complete();
+        } catch (Exception ignore) {
+        }
+    }
+
+    private void markGap(long from, long to) {
+        if (gapFrom < 0) {
+            gapFrom = from;
+        }
+        gapTo = to;
+    }
+
+    private void schedule() {
+        if (!closed.get() && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get()) {
+                SseTopicEventDto event;
+                synchronized (this) {
+                    event = next();
+                    if (event == null) {
+                        scheduled.set(false);
+                        return;
+                    }
+                }
+                manager.sendTopicEvent(emitter, event);
+                if (event.isLast()) {
+                    close();
+                }
+            }
+        } catch (Exception e) {
+            log.debug("[TRAIN-LOG] 推送失败，关闭连接 {}: {}", topic, e.getMessage());
+            close();
+        } finally {
+            if (closed.get()) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 下一个要发送的事件，调用时持有本对象的锁
+     */
+    private SseTopicEventDto next() {
+        if (reset) {
+            reset = false;
+            return event("reset", "0", Map.of(), false);
+        }
+        if (gapFrom >= 0) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("from", gapFrom);
+            data.put("to", gapTo);
+            SseTopicEventDto event = event("gap", String.valueOf(gapTo), data, false);
+            gapFrom = -1;
+            gapTo = -1;
+            return event;
+        }
+        if (!buffer.isEmpty()) {
+            List<String> lines = new ArrayList<>(Math.min(batchLines, buffer.size()));
+            long offset = buffer.peekFirst().start();
+            long next = offset;
+            while (!buffer.isEmpty() && lines.size() < batchLines) {
+                LogLine line = buffer.pollFirst();
+                lines.add(line.text());
+                next = line.end();
+            }
+            TrainingLogChunkVO chunk = new TrainingLogChunkVO();
+            chunk.setOffset(offset);
+            chunk.setNext(next);
+            chunk.setLines(lines);
+            return event("log", String.valueOf(next), chunk, false);
+        }
+        if (endStatus != null) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("status", endStatus);
+            data.put("next", endOffset);
+            return event("end", String.valueOf(endOffset), data, true);
+        }
+        return null;
+    }
+
+    private SseTopicEventDto event(String name, String id, Object data, boolean last) {
+        SseTopicEventDto event = new SseTopicEventDto();
+        event.setTopic(topic);
+        event.setId(id);
+        event.setName(name);
+        event.setData(JsonUtils.toJsonString(data));
+        event.setLast(last);
+        return event;
+    }
+}
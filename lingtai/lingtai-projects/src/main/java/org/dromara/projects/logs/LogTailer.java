@@ -0,0 +1,273 @@
+package org.dromara.projects.logs;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 跟随一个日志文件
+ * <p>
+ * 同一次训练的所有连接共用一个读取器。读取器用 FileChannel 按位置读取，只把以换行结尾的完整行切出来推送，
+ * 末尾未写完的半行留到下次读取，因此每行的字节偏移是确定的：客户端按事件ID续读既不重复也不遗漏。
+ * 文件变小视为截断，文件标识变化视为轮转（先读完旧文件），两种情况都从新文件开头重新计算偏移。
+ * <p>
+ * 读取、补发与加入订阅都持有本对象的锁，新连接补发到当前位置后才开始接收实时行，两者之间不会有缺口。
+ */
+@Slf4j
+final class LogTailer {
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    final Path path;
+    final Long taskId;
+    final String runId;
+
+    private final int maxLineBytes;
+    private final List<LogSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private FileChannel channel;
+    private Object fileKey;
+
+    /**
+     * 已切成行推送出去的字节位置，总在行边界上
+     */
+    private long position;
+    private volatile long idleSince = System.currentTimeMillis();
+    private volatile boolean finished;
+    private String finishedStatus;
+    private boolean closed;
+
+    LogTailer(Path path, Long taskId, String runId, int maxLineBytes) {
+        this.path = path;
+        this.taskId = taskId;
+        this.runId = runId;
+        this.maxLineBytes = Math.max(1, maxLineBytes);
+    }
+
+    /**
+     * 读取新写入的完整行并分发给所有连接
+     */
+    synchronized void poll() throws IOException {
+        if (finished || !open()) {
+            return;
+        }
+        long size = channel.size();
+        if (size < position) {
+            log.info("[TRAIN-LOG] 日志 {} 被截断（{} -> {}），从头读取", path, position, size);
+            position = 0;
+            subscribers.forEach(LogSubscriber::reset);
+        }
+        if (size > position) {
+            position = readLines(position, size, this::dispatch);
+        }
+    }
+
+    /**
+     * 加入一个连接：先补发 from 到当前位置之间的行，再接收实时行
+     *
+     * @param from        客户端已收到的位置，为空时从末尾往前 initialTail 字节处的行首开始
+     * @param initialTail 未指定位置时往前推送的字节数
+     * @param maxCatchup  最多补发的字节数，超出部分发送 gap 事件
+     * @return 读取器已关闭时返回 false，调用方应换一个读取器
+     */
+    synchronized boolean subscribe(LogSubscriber subscriber, Long from, long initialTail, long maxCatchup) throws IOException {
+        if (closed) {
+            return false;
+        }
+        subscriber.onClose(() -> unsubscribe(subscriber));
+        poll();
+        if (channel != null) {
+            long start;
+            if (from == null) {
+                start = Math.max(0, position - initialTail);
+                start = start == 0 ? 0 : alignToLine(start, position);
+            } else if (from > position) {
+                // 客户端的位置属于截断或轮转前的文件
+                subscriber.reset();
+                start = 0;
+            } else {
+                start = Math.max(0, from);
+            }
+            if (position - start > maxCatchup) {
+                long skipTo = alignToLine(position - maxCatchup, position);
+                subscriber.gap(start, skipTo);
+                start = skipTo;
+            }
+            if (start < position) {
+                readLines(start, position, subscriber::offer);
+            }
+        }
+        subscribers.add(subscriber);
+        if (finished) {
+            subscriber.end(finishedStatus, position);
+        }
+        return true;
+    }
+
+    /**
+     * 训练已结束：读完剩余的行后通知所有连接
+     */
+    synchronized void finish(String status) throws IOException {
+        if (finished) {
+            return;
+        }
+        poll();
+        finished = true;
+        finishedStatus = status;
+        subscribers.forEach(subscriber -> subscriber.end(status, position));
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 没有连接的起始时间，有连接时返回 -1
+     */
+    long idleSince() {
+        subscribers.removeIf(LogSubscriber::isClosed);
+        return subscribers.isEmpty() ? idleSince : -1;
+    }
+
+    synchronized void close() {
+        closed = true;
+        subscribers.forEach(LogSubscriber::close);
+        subscribers.clear();
+        closeChannel();
+    }
+
+    private void unsubscribe(LogSubscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+            idleSince = System.currentTimeMillis();
+        }
+    }
+
+    private void dispatch(LogLine line) {
+        for (LogSubscriber subscriber : subscribers) {
+            subscriber.offer(line);
+        }
+    }
+
+    /**
+     * 打开文件；文件已被轮转时读完旧文件后打开新文件
+     *
+     * @return 文件是否可读
+     */
+    private boolean open() throws IOException {
+        Object currentKey;
+        try {
+            currentKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            // 文件尚未创建，或轮转过程中旧文件已移走、新文件未创建；已打开的旧文件继续读完
+            return channel != null;
+        }
+        if (channel != null && currentKey != null && !Objects.equals(currentKey, fileKey)) {
+            long size = channel.size();
+            if (size > position) {
+                readLines(position, size, this::dispatch);
+            }
+            log.info("[TRAIN-LOG] 日志 {} 已轮转，从新文件开头读取", path);
+            closeChannel();
+            position = 0;
+            subscribers.forEach(LogSubscriber::reset);
+        }
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            fileKey = currentKey;
+        }
+        return true;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+            }
+            channel = null;
+            fileKey = null;
+        }
+    }
+
+    /**
+     * 读取 [from, limit) 内的完整行，单行超过 maxLineBytes 时按该长度断开
+     *
+     * @return 最后一个完整行之后的位置，未写完的半行不计入
+     */
+    private long readLines(long from, long limit, Consumer<LogLine> sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        byte[] line = new byte[maxLineBytes];
+        int length = 0;
+        long lineStart = from;
+        long pos = from;
+        while (pos < limit) {
+            buffer.clear();
+            buffer.limit((int) Math.min(CHUNK_BYTES, limit - pos));
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    sink.accept(new LogLine(lineStart, pos + i + 1, decode(line, length)));
+                    length = 0;
+                    lineStart = pos + i + 1;
+                } else {
+                    if (length == line.length) {
+                        // 超长行在放不下的字节之前断开，恰好满长的行仍以换行结束
+                        sink.accept(new LogLine(lineStart, pos + i, decode(line, length)));
+                        length = 0;
+                        lineStart = pos + i;
+                    }
+                    line[length++] = b;
+                }
+            }
+            pos += read;
+        }
+        return lineStart;
+    }
+
+    /**
+     * from 之后第一个行首，limit 之前没有换行时返回 limit
+     */
+    private long alignToLine(long from, long limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.min(CHUNK_BYTES, maxLineBytes + 1));
+        long pos = from;
+        while (pos < limit) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), limit - pos));
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return limit;
+    }
+
+    private static String decode(byte[] bytes, int length) {
+        int end = length;
+        if (end > 0 && bytes[end - 1] == '\r') {
+            end--;
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+}
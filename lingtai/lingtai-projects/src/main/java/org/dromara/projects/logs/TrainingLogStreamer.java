@@ -0,0 +1,295 @@
+package org.dromara.projects.logs;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.sse.core.SseEmitterManager;
+import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.mapper.TrainingTaskMapper;
+import org.dromara.projects.properties.TrainingLogProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 训练日志实时推送
+ * <p>
+ * 每次训练的日志文件只有一个 {@link LogTailer} 读取，所有查看该训练的 SSE 连接共用。文件变化由 WatchService 通知后立即读取，
+ * 另有定时轮询兜底（共享存储、文件尚未创建等收不到通知的情况），同时检查训练是否已结束。
+ * <p>
+ * 事件ID为字节偏移，断线重连时浏览器自动携带 Last-Event-ID，从该位置续读；连接到任一实例都可以续读，不经过 Redis 广播。
+ * 需要开启 sse.enabled，未开启时订阅接口返回错误。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingLogStreamer {
+
+    private static final String TOPIC_PREFIX = "lingtai:training-log:";
+
+    private final TrainingLogProperties properties;
+    private final TrainingTaskMapper taskMapper;
+    private final ObjectProvider<SseEmitterManager> sseEmitterManager;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    @Resource(name = "trainingLogExecutor")
+    private Executor trainingLogExecutor;
+
+    /**
+     * 任务ID:运行ID -> 读取器
+     */
+    private final Map<String, LogTailer> tailers = new ConcurrentHashMap<>();
+
+    /**
+     * 已注册通知的目录 -> 使用该目录的读取器数
+     */
+    private final Map<Path, Integer> watchedDirs = new HashMap<>();
+    private final Map<Path, WatchKey> watchKeys = new HashMap<>();
+
+    private WatchService watchService;
+
+    @PostConstruct
+    public void init() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(this::watchLoop, "training-log-watch");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("[TRAIN-LOG] 不支持文件变化通知，仅按 {} ms 轮询: {}", properties.getPollIntervalMillis(), e.getMessage());
+        }
+        long interval = Math.max(100, properties.getPollIntervalMillis());
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (Exception e) {
+                log.error("[TRAIN-LOG] 轮询训练日志失败", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tailers.values().forEach(LogTailer::close);
+        tailers.clear();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * 订阅训练日志
+     *
+     * @param taskId      训练任务ID
+     * @param lastEventId 客户端重连时回传的最后一个事件ID（字节偏移），可为空
+     * @param offset      指定的起始字节偏移，Last-Event-ID 为空时使用；都为空时从末尾附近开始
+     */
+    public SseEmitter subscribe(Long taskId, String lastEventId, Long offset) {
+        SseEmitterManager manager = sseEmitterManager.getIfAvailable();
+        if (manager == null) {
+            throw new RuntimeException("未开启 SSE 推送，无法实时查看日志");
+        }
+        TrainingTask task = taskMapper.selectById(taskId);
+        if (task == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
+        if (StringUtils.isBlank(task.getLogPath())) {
+            throw new RuntimeException("训练日志尚未生成");
+        }
+        Path path = resolve(task.getLogPath());
+        String key = taskId + ":" + StringUtils.blankToDefault(task.getRunId(), "");
+        String topic = TOPIC_PREFIX + key;
+        Long from = parseOffset(lastEventId, offset);
+
+        AtomicReference<LogSubscriber> holder = new AtomicReference<>();
+        SseEmitter emitter = manager.connectTopic(topic, properties.getSseTimeoutSeconds() * 1000L, () -> {
+            LogSubscriber subscriber = holder.get();
+            if (subscriber != null) {
+                subscriber.close();
+            }
+        });
+        LogSubscriber subscriber = new LogSubscriber(manager, emitter, topic, trainingLogExecutor,
+            properties.getSubscriberBufferLines(), properties.getBatchLines());
+        holder.set(subscriber);
+        try {
+            while (true) {
+                LogTailer tailer = tailers.computeIfAbsent(key, k -> open(path, taskId, task.getRunId()));
+                if (tailer.subscribe(subscriber, from, properties.getInitialTailBytes(), properties.getMaxCatchupBytes())) {
+                    if (task.getStatus() != null && task.getStatus().isTerminalState()) {
+                        tailer.finish(task.getStatus().name());
+                    }
+                    break;
+                }
+                // 读取器刚因空闲被关闭，重新打开
+                tailers.remove(key, tailer);
+            }
+        } catch (IOException e) {
+            subscriber.close();
+            throw new RuntimeException("读取训练日志失败: " + e.getMessage());
+        }
+        return emitter;
+    }
+
+    private LogTailer open(Path path, Long taskId, String runId) {
+        watch(path.getParent());
+        return new LogTailer(path, taskId, runId, properties.getMaxLineBytes());
+    }
+
+    private void tick() {
+        if (tailers.isEmpty()) {
+            return;
+        }
+        List<Long> taskIds = tailers.values().stream().map(tailer -> tailer.taskId).distinct().toList();
+        Map<Long, TrainingTask> tasks = taskMapper.selectList(new LambdaQueryWrapper<TrainingTask>()
+                .select(TrainingTask::getId, TrainingTask::getRunId, TrainingTask::getStatus)
+                .in(TrainingTask::getId, taskIds))
+            .stream().collect(Collectors.toMap(TrainingTask::getId, Function.identity()));
+        long now = System.currentTimeMillis();
+        long idleMillis = TimeUnit.SECONDS.toMillis(properties.getIdleCloseSeconds());
+        tailers.forEach((key, tailer) -> {
+            try {
+                tailer.poll();
+                if (!tailer.isFinished()) {
+                    TrainingTask task = tasks.get(tailer.taskId);
+                    if (task == null) {
+                        tailer.finish("DELETED");
+                    } else if (!Objects.equals(StringUtils.blankToDefault(task.getRunId(), ""),
+                        StringUtils.blankToDefault(tailer.runId, ""))) {
+                        // 任务已重新启动或被抢占，这次运行的日志不会再增长
+                        tailer.finish(task.getStatus() == null ? "RESTARTED" : task.getStatus().name());
+                    } else if (task.getStatus() != null && task.getStatus().isTerminalState()) {
+                        tailer.finish(task.getStatus().name());
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("[TRAIN-LOG] 读取训练日志 {} 失败: {}", tailer.path, e.getMessage());
+            }
+            long idleSince = tailer.idleSince();
+            if (idleSince > 0 && now - idleSince > idleMillis && tailers.remove(key, tailer)) {
+                tailer.close();
+                unwatch(tailer.path.getParent());
+            }
+        });
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        pollDir(dir, null);
+                    } else {
+                        pollDir(dir, dir.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.info("[TRAIN-LOG] 文件变化通知已停止");
+        }
+    }
+
+    /**
+     * 读取目录下发生变化的日志，file 为空时读取该目录下的所有日志
+     */
+    private void pollDir(Path dir, Path file) {
+        for (LogTailer tailer : tailers.values()) {
+            if (file == null ? dir.equals(tailer.path.getParent()) : file.equals(tailer.path)) {
+                try {
+                    tailer.poll();
+                } catch (Exception e) {
+                    log.warn("[TRAIN-LOG] 读取训练日志 {} 失败: {}", tailer.path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void watch(Path dir) {
+        if (watchService == null || dir == null) {
+            return;
+        }
+        synchronized (watchedDirs) {
+            int count = watchedDirs.getOrDefault(dir, 0);
+            watchedDirs.put(dir, count + 1);
+            if (count > 0) {
+                return;
+            }
+            try {
+                watchKeys.put(dir, dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            } catch (IOException | ClosedWatchServiceException e) {
+                // 目录尚未创建等情况靠轮询
+                log.debug("[TRAIN-LOG] 目录 {} 无法注册变化通知: {}", dir, e.getMessage());
+            }
+        }
+    }
+
+    private void unwatch(Path dir) {
+        if (watchService == null || dir == null) {
+            return;
+        }
+        synchronized (watchedDirs) {
+            int count = watchedDirs.getOrDefault(dir, 0) - 1;
+            if (count > 0) {
+                watchedDirs.put(dir, count);
+                return;
+            }
+            watchedDirs.remove(dir);
+            WatchKey key = watchKeys.remove(dir);
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    private Path resolve(String logPath) {
+        Path path = Paths.get(logPath).toAbsolutePath().normalize();
+        List<String> allowed = properties.getAllowedDirs();
+        if (!allowed.isEmpty() && allowed.stream()
+            .map(dir -> Paths.get(dir).toAbsolutePath().normalize())
+            .noneMatch(path::startsWith)) {
+            throw new RuntimeException("训练日志不在允许读取的目录中");
+        }
+        return path;
+    }
+
+    private static Long parseOffset(String lastEventId, Long offset) {
+        if (StringUtils.isNotBlank(lastEventId)) {
+            try {
+                return Math.max(0, Long.parseLong(lastEventId.trim()));
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return offset == null ? null : Math.max(0, offset);
+    }
+}
@@ -0,0 +1,13 @@
+package org.dromara.projects.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.dromara.projects.domain.ComputeNode;
+
+/**
+ * 计算节点Mapper接口（只读）
+ */
+@Mapper
+public interface ComputeNodeMapper extends BaseMapper<ComputeNode> {
+
+}
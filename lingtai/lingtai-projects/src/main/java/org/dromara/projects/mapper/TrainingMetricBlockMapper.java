@@ -0,0 +1,13 @@
+package org.dromara.projects.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.dromara.projects.domain.TrainingMetricBlock;
+
+/**
+ * 训练指标数据块Mapper接口
+ */
+@Mapper
+public interface TrainingMetricBlockMapper extends BaseMapper<TrainingMetricBlock> {
+
+}
@@ -0,0 +1,32 @@
+package org.dromara.projects.metrics;
+
+/**
+ * 按位读取，与 {@link BitWriter} 对应
+ */
+final class BitReader {
+
+    private final byte[] buffer;
+    private long position;
+
+    BitReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    boolean readBit() {
+        int index = (int) (position >>> 3);
+        if (index >= buffer.length) {
+            throw new IllegalStateException("指标数据块已读完");
+        }
+        boolean bit = (buffer[index] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
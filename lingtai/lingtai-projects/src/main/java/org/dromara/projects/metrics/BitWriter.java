@@ -0,0 +1,44 @@
+package org.dromara.projects.metrics;
+
+import java.util.Arrays;
+
+/**
+ * 按位写入的缓冲区，高位在前
+ */
+final class BitWriter {
+
+    private byte[] buffer = new byte[64];
+    private long bits;
+
+    void writeBit(boolean bit) {
+        ensure(1);
+        if (bit) {
+            buffer[(int) (bits >>> 3)] |= (byte) (0x80 >>> (bits & 7));
+        }
+        bits++;
+    }
+
+    /**
+     * 写入 value 的低 count 位
+     */
+    void writeBits(long value, int count) {
+        ensure(count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                buffer[(int) (bits >>> 3)] |= (byte) (0x80 >>> (bits & 7));
+            }
+            bits++;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bits + 7) >>> 3));
+    }
+
+    private void ensure(int count) {
+        int needed = (int) ((bits + count + 7) >>> 3);
+        if (needed > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(needed, buffer.length * 2));
+        }
+    }
+}
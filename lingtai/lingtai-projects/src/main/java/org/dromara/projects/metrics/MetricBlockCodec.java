@@ -0,0 +1,212 @@
+package org.dromara.projects.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 指标数据块编解码
+ * <p>
+ * 按列存储：轮次列用二阶差分编码，逐轮递增时每点只占 1 位；数值列用 Gorilla 的异或编码，
+ * 与上一点相同只占 1 位，变化时只写有效位。各列独立成段，读取单个指标时跳过其余列。
+ * <pre>
+ * version(1) | count(4) | columns(1) | len(4) 轮次列 | len(4) 数值列 0 | ... | len(4) 数值列 n-1
+ * </pre>
+ */
+final class MetricBlockCodec {
+
+    private static final int VERSION = 1;
+
+    private MetricBlockCodec() {
+    }
+
+    /**
+     * 解码结果，未请求的列为 null
+     */
+    record Decoded(int[] rounds, double[][] values) {
+    }
+
+    static byte[] encode(int[] rounds, double[][] values, int count) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(count);
+            out.writeByte(values.length);
+            writeSection(out, encodeRounds(rounds, count));
+            for (double[] column : values) {
+                writeSection(out, encodeValues(column, count));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param wanted 需要解码的数值列，为 null 时解码全部
+     */
+    static Decoded decode(byte[] data, boolean[] wanted) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("不支持的指标数据块版本: " + version);
+            }
+            int count = in.readInt();
+            int columns = in.readUnsignedByte();
+            int[] rounds = decodeRounds(readSection(in), count);
+            double[][] values = new double[columns][];
+            for (int i = 0; i < columns; i++) {
+                if (wanted == null || (i < wanted.length && wanted[i])) {
+                    values[i] = decodeValues(readSection(in), count);
+                } else {
+                    in.skipNBytes(in.readInt());
+                }
+            }
+            return new Decoded(rounds, values);
+        } catch (IOException e) {
+            throw new IllegalStateException("指标数据块已损坏", e);
+        }
+    }
+
+    private static void writeSection(DataOutputStream out, byte[] section) throws IOException {
+        out.writeInt(section.length);
+        out.write(section);
+    }
+
+    private static byte[] readSection(DataInputStream in) throws IOException {
+        byte[] section = new byte[in.readInt()];
+        in.readFully(section);
+        return section;
+    }
+
+    private static byte[] encodeRounds(int[] rounds, int count) {
+        BitWriter writer = new BitWriter();
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                writer.writeBits(rounds[0], 32);
+            } else {
+                long delta = (long) rounds[i] - previous;
+                long dod = delta - previousDelta;
+                if (dod == 0) {
+                    writer.writeBit(false);
+                } else if (dod >= -63 && dod <= 64) {
+                    writer.writeBits(0b10, 2);
+                    writer.writeBits(dod, 7);
+                } else if (dod >= -255 && dod <= 256) {
+                    writer.writeBits(0b110, 3);
+                    writer.writeBits(dod, 9);
+                } else if (dod >= -2047 && dod <= 2048) {
+                    writer.writeBits(0b1110, 4);
+                    writer.writeBits(dod, 12);
+                } else {
+                    writer.writeBits(0b1111, 4);
+                    writer.writeBits(dod, 33);
+                }
+                previousDelta = delta;
+            }
+            previous = rounds[i];
+        }
+        return writer.toByteArray();
+    }
+
+    private static int[] decodeRounds(byte[] section, int count) {
+        int[] rounds = new int[count];
+        BitReader reader = new BitReader(section);
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                previous = (int) reader.readBits(32);
+            } else {
+                long dod;
+                if (!reader.readBit()) {
+                    dod = 0;
+                } else if (!reader.readBit()) {
+                    dod = signed(reader.readBits(7), 7);
+                } else if (!reader.readBit()) {
+                    dod = signed(reader.readBits(9), 9);
+                } else if (!reader.readBit()) {
+                    dod = signed(reader.readBits(12), 12);
+                } else {
+                    dod = signed(reader.readBits(33), 33);
+                }
+                previousDelta += dod;
+                previous += previousDelta;
+            }
+            rounds[i] = (int) previous;
+        }
+        return rounds;
+    }
+
+    /**
+     * 把 bits 位补码还原为有符号数，与论文一致，正数一侧多一个值
+     */
+    private static long signed(long value, int bits) {
+        long max = 1L << (bits - 1);
+        return value > max ? value - (1L << bits) : value;
+    }
+
+    private static byte[] encodeValues(double[] column, int count) {
+        BitWriter writer = new BitWriter();
+        long previous = 0;
+        int previousLeading = Integer.MAX_VALUE;
+        int previousTrailing = 0;
+        for (int i = 0; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(column[i]);
+            if (i == 0) {
+                writer.writeBits(bits, 64);
+                previous = bits;
+                continue;
+            }
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                writer.writeBit(false);
+                continue;
+            }
+            writer.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading != Integer.MAX_VALUE && leading >= previousLeading && trailing >= previousTrailing) {
+                // 落在上一个有效位窗口内，沿用窗口
+                writer.writeBit(false);
+                writer.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                writer.writeBit(true);
+                writer.writeBits(leading, 5);
+                writer.writeBits(meaningful - 1, 6);
+                writer.writeBits(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    private static double[] decodeValues(byte[] section, int count) {
+        double[] column = new double[count];
+        BitReader reader = new BitReader(section);
+        long previous = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                previous = reader.readBits(64);
+            } else if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leading = (int) reader.readBits(5);
+                    int meaningful = (int) reader.readBits(6) + 1;
+                    trailing = 64 - leading - meaningful;
+                }
+                previous ^= reader.readBits(64 - leading - trailing) << trailing;
+            }
+            column[i] = Double.longBitsToDouble(previous);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,474 @@
+package org.dromara.projects.metrics;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.edgeai.training.api.ClientStats;
+import com.edgeai.training.api.ProgressEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.projects.domain.TrainingMetricBlock;
+import org.dromara.projects.domain.vo.TrainingMetricPointVO;
+import org.dromara.projects.domain.vo.TrainingMetricSeriesVO;
+import org.dromara.projects.mapper.TrainingMetricBlockMapper;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 训练指标时序存储
+ * <p>
+ * 每次训练运行的逐轮指标追加到内存中的当前块，每追加一点写回一次该块（压缩后不过几 KB），重启后从最后一块恢复。
+ * 块满 128 点后封存，并每 8 点汇总为上一层级的一个点，逐级向上最多 3 层，每点分别覆盖 8、64、512 个原始点。
+ * <p>
+ * 查询时按请求的点数算出每点应覆盖的轮数，选用不超过该轮数的最粗层级，该层尚未覆盖的首尾退回下一层补齐，
+ * 最后合并为不超过请求点数的区间，区间内部的边界按汇总点对齐。一万轮的曲线按 300 点查询时读取约 1250 个汇总点，返回约 300 个点。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingMetricStore {
+
+    /**
+     * 记录的指标：损失、客户端平均准确率、参与客户端数、样本数、本轮耗时（最慢客户端，毫秒）
+     */
+    public static final List<String> METRICS = List.of("loss", "accuracy", "clients", "samples", "durationMs");
+
+    private static final int BLOCK_POINTS = 128;
+
+    private static final int ROLLUP_FACTOR = 8;
+
+    private static final int MAX_LEVEL = 3;
+
+    /**
+     * 汇总层每个指标占 4 列：最小、最大、合计、计数
+     */
+    private static final int ROLLUP_COLUMNS = 4;
+
+    private final TrainingMetricBlockMapper blockMapper;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+
+    /**
+     * 追加一轮指标，不晚于已记录轮次的事件（重连补发、暂停）被忽略
+     */
+    public void append(Long taskId, String runId, ProgressEvent event) {
+        if (event.getRound() <= 0) {
+            return;
+        }
+        Series target = series.compute(taskId, (id, existing) ->
+            existing != null && existing.runId.equals(runId) ? existing : new Series(id, runId));
+        synchronized (target) {
+            target.append(event.getRound(), values(event));
+        }
+    }
+
+    /**
+     * 释放运行的内存状态，训练结束或订阅取消时调用
+     */
+    public void close(Long taskId) {
+        series.remove(taskId);
+    }
+
+    /**
+     * 删除任务的全部指标
+     */
+    public void delete(Long taskId) {
+        series.remove(taskId);
+        blockMapper.delete(new LambdaQueryWrapper<TrainingMetricBlock>()
+            .eq(TrainingMetricBlock::getTaskId, taskId));
+    }
+
+    /**
+     * 查询指标曲线
+     *
+     * @param metrics   指标名称，需在 {@link #METRICS} 中
+     * @param fromRound 起始轮次，为空时从第一轮开始
+     * @param toRound   结束轮次，为空时到最新一轮
+     * @param points    每条曲线最多返回的点数
+     */
+    public List<TrainingMetricSeriesVO> query(Long taskId, String runId, List<String> metrics,
+                                              Integer fromRound, Integer toRound, int points) {
+        TrainingMetricBlock latest = blockMapper.selectOne(new LambdaQueryWrapper<TrainingMetricBlock>()
+            .select(TrainingMetricBlock::getLastRound)
+            .eq(TrainingMetricBlock::getTaskId, taskId)
+            .eq(TrainingMetricBlock::getRunId, runId)
+            .eq(TrainingMetricBlock::getLevel, 0)
+            .orderByDesc(TrainingMetricBlock::getBlockNo)
+            .last("limit 1"));
+        int from = fromRound == null ? 1 : Math.max(1, fromRound);
+        int to = latest == null ? 0 : toRound == null ? latest.getLastRound() : Math.min(toRound, latest.getLastRound());
+        int span = Math.max(0, to - from + 1);
+        int step = Math.max(1, (span + points - 1) / points);
+        int level = 0;
+        while (level < MAX_LEVEL && pow(level + 1) <= step) {
+            level++;
+        }
+        int[] indexes = metrics.stream().mapToInt(METRICS::indexOf).toArray();
+        List<Sample> samples = span == 0 ? List.of() : collect(taskId, runId, level, from, to, indexes);
+
+        List<TrainingMetricSeriesVO> result = new ArrayList<>(indexes.length);
+        for (int m = 0; m < indexes.length; m++) {
+            TrainingMetricSeriesVO vo = new TrainingMetricSeriesVO();
+            vo.setTaskId(taskId);
+            vo.setRunId(runId);
+            vo.setMetric(metrics.get(m));
+            vo.setFromRound(from);
+            vo.setToRound(to);
+            vo.setStep(step);
+            TrainingMetricPointVO point = null;
+            int bucket = -1;
+            for (Sample sample : samples) {
+                int index = (sample.round - from) / step;
+                if (point == null || index != bucket) {
+                    point = new TrainingMetricPointVO();
+                    point.setRound(sample.round);
+                    point.setCount(0L);
+                    vo.getPoints().add(point);
+                    bucket = index;
+                }
+                merge(point, sample, m);
+            }
+            result.add(vo);
+        }
+        return result;
+    }
+
+    /**
+     * 读取某一层级在 [from, to] 内的点，该层未覆盖的首尾从下一层补齐，结果按轮次升序
+     */
+    private List<Sample> collect(Long taskId, String runId, int level, int from, int to, int[] indexes) {
+        List<TrainingMetricBlock> blocks = blockMapper.selectList(new LambdaQueryWrapper<TrainingMetricBlock>()
+            .eq(TrainingMetricBlock::getTaskId, taskId)
+            .eq(TrainingMetricBlock::getRunId, runId)
+            .eq(TrainingMetricBlock::getLevel, level)
+            .ge(TrainingMetricBlock::getLastRound, from)
+            .le(TrainingMetricBlock::getFirstRound, to)
+            .orderByAsc(TrainingMetricBlock::getBlockNo));
+        boolean[] wanted = new boolean[level == 0 ? METRICS.size() : METRICS.size() * ROLLUP_COLUMNS];
+        for (int index : indexes) {
+            if (level == 0) {
+                wanted[index] = true;
+            } else {
+                for (int c = 0; c < ROLLUP_COLUMNS; c++) {
+                    wanted[index * ROLLUP_COLUMNS + c] = true;
+                }
+            }
+        }
+        List<Sample> samples = new ArrayList<>();
+        int covered = from - 1;
+        for (TrainingMetricBlock block : blocks) {
+            MetricBlockCodec.Decoded decoded = MetricBlockCodec.decode(block.getData(), wanted);
+            int[] rounds = decoded.rounds();
+            double[][] values = decoded.values();
+            for (int i = 0; i < rounds.length; i++) {
+                // 汇总点只在整体落在范围内时使用，跨越边界的部分由下一层补齐
+                int end = level == 0 ? rounds[i] : i + 1 < rounds.length ? rounds[i + 1] - 1 : block.getLastRound();
+                if (rounds[i] < from || end > to) {
+                    continue;
+                }
+                Sample sample = new Sample(rounds[i], indexes.length);
+                for (int m = 0; m < indexes.length; m++) {
+                    if (level == 0) {
+                        double value = values[indexes[m]][i];
+                        if (!Double.isNaN(value)) {
+                            sample.min[m] = value;
+                            sample.max[m] = value;
+                            sample.sum[m] = value;
+                            sample.count[m] = 1;
+                        }
+                    } else {
+                        int base = indexes[m] * ROLLUP_COLUMNS;
+                        sample.min[m] = values[base][i];
+                        sample.max[m] = values[base + 1][i];
+                        sample.sum[m] = values[base + 2][i];
+                        sample.count[m] = (long) values[base + 3][i];
+                    }
+                }
+                samples.add(sample);
+                covered = end;
+            }
+        }
+        if (level == 0) {
+            return samples;
+        }
+        if (samples.isEmpty()) {
+            return collect(taskId, runId, level - 1, from, to, indexes);
+        }
+        List<Sample> result = new ArrayList<>();
+        int first = samples.get(0).round;
+        if (first > from) {
+            result.addAll(collect(taskId, runId, level - 1, from, first - 1, indexes));
+        }
+        result.addAll(samples);
+        if (covered < to) {
+            result.addAll(collect(taskId, runId, level - 1, covered + 1, to, indexes));
+        }
+        return result;
+    }
+
+    private static void merge(TrainingMetricPointVO point, Sample sample, int m) {
+        long count = sample.count[m];
+        if (count == 0) {
+            return;
+        }
+        long total = point.getCount() + count;
+        point.setMin(point.getMin() == null ? sample.min[m] : Math.min(point.getMin(), sample.min[m]));
+        point.setMax(point.getMax() == null ? sample.max[m] : Math.max(point.getMax(), sample.max[m]));
+        double sum = (point.getAvg() == null ? 0 : point.getAvg() * point.getCount()) + sample.sum[m];
+        point.setAvg(sum / total);
+        point.setCount(total);
+    }
+
+    private static double[] values(ProgressEvent event) {
+        double[] values = new double[METRICS.size()];
+        values[0] = event.getLoss();
+        values[2] = event.getClientsCount();
+        if (event.getClientsCount() == 0) {
+            values[1] = Double.NaN;
+            values[3] = Double.NaN;
+            values[4] = Double.NaN;
+            return values;
+        }
+        double accuracy = 0;
+        long samples = 0;
+        long duration = 0;
+        for (ClientStats client : event.getClientsList()) {
+            accuracy += client.getAccuracy();
+            samples += client.getNumSamples();
+            duration = Math.max(duration, client.getDurationMs());
+        }
+        values[1] = accuracy / event.getClientsCount();
+        values[3] = samples;
+        values[4] = duration;
+        return values;
+    }
+
+    /**
+     * 汇总 [start, end) 内的点为上一层级的一个点
+     */
+    private static double[] rollup(Head source, int start, int end) {
+        double[] point = new double[METRICS.size() * ROLLUP_COLUMNS];
+        for (int m = 0; m < METRICS.size(); m++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            long count = 0;
+            for (int i = start; i < end; i++) {
+                if (source.level == 0) {
+                    double value = source.values[m][i];
+                    if (Double.isNaN(value)) {
+                        continue;
+                    }
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    sum += value;
+                    count++;
+                } else {
+                    int base = m * ROLLUP_COLUMNS;
+                    long c = (long) source.values[base + 3][i];
+                    if (c == 0) {
+                        continue;
+                    }
+                    min = Math.min(min, source.values[base][i]);
+                    max = Math.max(max, source.values[base + 1][i]);
+                    sum += source.values[base + 2][i];
+                    count += c;
+                }
+            }
+            int base = m * ROLLUP_COLUMNS;
+            point[base] = count == 0 ? Double.NaN : min;
+            point[base + 1] = count == 0 ? Double.NaN : max;
+            point[base + 2] = sum;
+            point[base + 3] = count;
+        }
+        return point;
+    }
+
+    private static int pow(int level) {
+        int value = 1;
+        for (int i = 0; i < level; i++) {
+            value *= ROLLUP_FACTOR;
+        }
+        return value;
+    }
+
+    /**
+     * 一次运行各层级的当前块，调用方持有对象锁
+     */
+    private final class Series {
+
+        private final Long taskId;
+        private final String runId;
+        private final Head[] heads = new Head[MAX_LEVEL + 1];
+        private boolean loaded;
+
+        Series(Long taskId, String runId) {
+            this.taskId = taskId;
+            this.runId = runId;
+        }
+
+        void append(int round, double[] values) {
+            if (!loaded) {
+                load();
+            }
+            Head head = heads[0];
+            if (round <= head.coveredRound) {
+                return;
+            }
+            head.add(round, values, round);
+            flush(head);
+            if (head.count == BLOCK_POINTS) {
+                seal(0);
+            }
+        }
+
+        private void load() {
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                TrainingMetricBlock last = blockMapper.selectOne(new LambdaQueryWrapper<TrainingMetricBlock>()
+                    .eq(TrainingMetricBlock::getTaskId, taskId)
+                    .eq(TrainingMetricBlock::getRunId, runId)
+                    .eq(TrainingMetricBlock::getLevel, level)
+                    .orderByDesc(TrainingMetricBlock::getBlockNo)
+                    .last("limit 1"));
+                heads[level] = last == null ? new Head(level, 0, 0) : Head.restore(last);
+            }
+            loaded = true;
+        }
+
+        /**
+         * 封存已满的块，按 8 点一组汇总到上一层级
+         */
+        private void seal(int level) {
+            Head full = heads[level];
+            heads[level] = new Head(level, full.blockNo + 1, full.coveredRound);
+            if (level == MAX_LEVEL) {
+                return;
+            }
+            for (int start = 0; start < full.count; start += ROLLUP_FACTOR) {
+                int end = Math.min(full.count, start + ROLLUP_FACTOR);
+                // 汇总点覆盖到下一组开始之前，最后一组覆盖到源块的末尾
+                int covered = end < full.count ? full.rounds[end] - 1 : full.coveredRound;
+                Head parent = heads[level + 1];
+                parent.add(full.rounds[start], rollup(full, start, end), covered);
+                if (parent.count == BLOCK_POINTS) {
+                    flush(parent);
+                    seal(level + 1);
+                }
+            }
+            if (heads[level + 1].count > 0) {
+                flush(heads[level + 1]);
+            }
+        }
+
+        private void flush(Head head) {
+            TrainingMetricBlock block = new TrainingMetricBlock();
+            block.setFirstRound(head.rounds[0]);
+            block.setLastRound(head.coveredRound);
+            block.setPointCount(head.count);
+            block.setData(MetricBlockCodec.encode(head.rounds, head.values, head.count));
+            try {
+                if (head.id == null) {
+                    block.setTaskId(taskId);
+                    block.setRunId(runId);
+                    block.setLevel(head.level);
+                    block.setBlockNo(head.blockNo);
+                    try {
+                        blockMapper.insert(block);
+                    } catch (DuplicateKeyException e) {
+                        // 订阅在实例间交接时，上一个订阅者可能已写入同一块；内存中的块由库中恢复后追加，直接覆盖
+                        block.setId(existingId(head));
+                        blockMapper.updateById(block);
+                    }
+                    head.id = block.getId();
+                } else {
+                    block.setId(head.id);
+                    blockMapper.updateById(block);
+                }
+            } catch (Exception e) {
+                // 内存中的块仍然完整，下一次追加时再写
+                log.error("[TRAIN] 写入训练任务 {} 的指标块 {}/{} 失败", taskId, head.level, head.blockNo, e);
+            }
+        }
+
+        private Long existingId(Head head) {
+            TrainingMetricBlock existing = blockMapper.selectOne(new LambdaQueryWrapper<TrainingMetricBlock>()
+                .select(TrainingMetricBlock::getId)
+                .eq(TrainingMetricBlock::getTaskId, taskId)
+                .eq(TrainingMetricBlock::getRunId, runId)
+                .eq(TrainingMetricBlock::getLevel, head.level)
+                .eq(TrainingMetricBlock::getBlockNo, head.blockNo));
+            if (existing == null) {
+                throw new IllegalStateException("指标块 " + head.level + "/" + head.blockNo + " 插入冲突但查不到已有记录");
+            }
+            return existing.getId();
+        }
+    }
+
+    /**
+     * 某一层级正在追加的块
+     */
+    private static final class Head {
+
+        private final int level;
+        private final int blockNo;
+        private final int[] rounds = new int[BLOCK_POINTS];
+        private final double[][] values;
+        private Long id;
+        private int count;
+        private int coveredRound;
+
+        Head(int level, int blockNo, int coveredRound) {
+            this.level = level;
+            this.blockNo = blockNo;
+            this.coveredRound = coveredRound;
+            this.values = new double[level == 0 ? METRICS.size() : METRICS.size() * ROLLUP_COLUMNS][BLOCK_POINTS];
+        }
+
+        static Head restore(TrainingMetricBlock block) {
+            if (block.getPointCount() >= BLOCK_POINTS) {
+                return new Head(block.getLevel(), block.getBlockNo() + 1, block.getLastRound());
+            }
+            Head head = new Head(block.getLevel(), block.getBlockNo(), block.getLastRound());
+            MetricBlockCodec.Decoded decoded = MetricBlockCodec.decode(block.getData(), null);
+            head.id = block.getId();
+            head.count = block.getPointCount();
+            System.arraycopy(decoded.rounds(), 0, head.rounds, 0, head.count);
+            for (int c = 0; c < head.values.length && c < decoded.values().length; c++) {
+                System.arraycopy(decoded.values()[c], 0, head.values[c], 0, head.count);
+            }
+            return head;
+        }
+
+        void add(int round, double[] point, int covered) {
+            rounds[count] = round;
+            for (int c = 0; c < values.length; c++) {
+                values[c][count] = point[c];
+            }
+            count++;
+            coveredRound = covered;
+        }
+    }
+
+    /**
+     * 查询时的一个点，按请求的指标顺序保存
+     */
+    private static final class Sample {
+
+        private final int round;
+        private final double[] min;
+        private final double[] max;
+        private final double[] sum;
+        private final long[] count;
+
+        Sample(int round, int metrics) {
+            this.round = round;
+            this.min = new double[metrics];
+            this.max = new double[metrics];
+            this.sum = new double[metrics];
+            this.count = new long[metrics];
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.dromara.projects.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 训练日志实时查看配置
+ * 对应 nacos 中 lingtai-projects.yml 的 lingtai.training-log 节点
+ * <p>
+ * 日志文件由训练服务写入，本服务需要能以相同路径读到（同机部署或共享存储）。
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.training-log")
+public class TrainingLogProperties {
+
+    /**
+     * 允许读取的日志目录，为空时不限制
+     */
+    private List<String> allowedDirs = new ArrayList<>();
+
+    /**
+     * 兜底轮询间隔（毫秒）；文件变化主要靠 WatchService 通知，共享存储上通知不可靠时靠轮询发现
+     */
+    private long pollIntervalMillis = 1000;
+
+    /**
+     * 每个订阅者最多缓存的行数，客户端跟不上时丢弃最旧的行并发送 gap 事件
+     */
+    private int subscriberBufferLines = 2000;
+
+    /**
+     * 每个 SSE 事件最多携带的行数
+     */
+    private int batchLines = 200;
+
+    /**
+     * 单行最大字节数，超过时按该长度截断为多行
+     */
+    private int maxLineBytes = 8192;
+
+    /**
+     * 未指定偏移量时从文件末尾往前多少字节开始推送
+     */
+    private long initialTailBytes = 64 * 1024;
+
+    /**
+     * 断线重连时最多补发的字节数，超出部分以 gap 事件告知
+     */
+    private long maxCatchupBytes = 4 * 1024 * 1024;
+
+    /**
+     * 没有订阅者后保留文件读取器的时长（秒），期间重连无需重新打开文件
+     */
+    private long idleCloseSeconds = 60;
+
+    /**
+     * 向订阅者推送的线程数
+     */
+    private int sendThreads = 4;
+
+    /**
+     * SSE 连接的超时时间（秒），超时后客户端携带 Last-Event-ID 重连即可
+     */
+    private long sseTimeoutSeconds = 1800;
+}
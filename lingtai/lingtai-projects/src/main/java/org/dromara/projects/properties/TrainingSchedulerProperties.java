@@ -0,0 +1,83 @@
+package org.dromara.projects.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 训练调度配置
+ * 对应 nacos 中 lingtai-projects.yml 的 lingtai.scheduler 节点
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lingtai.scheduler")
+public class TrainingSchedulerProperties {
+
+    /**
+     * 是否启用调度；关闭时启动训练直接提交到训练服务，不占用节点资源
+     */
+    private boolean enabled = true;
+
+    /**
+     * 调度间隔（秒）
+     */
+    private long intervalSeconds = 5;
+
+    /**
+     * 节点心跳超过该时长（秒）视为离线，不参与调度
+     */
+    private long heartbeatTimeoutSeconds = 120;
+
+    /**
+     * 可调度的节点状态，不区分大小写
+     */
+    private List<String> schedulableStates = new ArrayList<>(List.of("RUNNING", "IDLE", "ONLINE"));
+
+    /**
+     * 任务未指定时每个 worker 的 CPU 核数
+     */
+    private int defaultCpuPerWorker = 2;
+
+    /**
+     * 任务未指定时每个 worker 的内存（MB）
+     */
+    private int defaultMemoryPerWorker = 4096;
+
+    /**
+     * 任务未指定时每个 worker 的 GPU 卡数
+     */
+    private int defaultGpuPerWorker = 0;
+
+    /**
+     * 普通用户可设置的最高优先级，超过时按该值处理；超级管理员不受限
+     */
+    private int maxUserPriority = 0;
+
+    /**
+     * 普通用户每个 worker 可申请的最多 CPU 核数
+     */
+    private int maxUserCpuPerWorker = 16;
+
+    /**
+     * 普通用户每个 worker 可申请的最多内存（MB）
+     */
+    private int maxUserMemoryPerWorker = 65536;
+
+    /**
+     * 普通用户每个 worker 可申请的最多 GPU 卡数
+     */
+    private int maxUserGpuPerWorker = 1;
+
+    /**
+     * 每排队该时长（分钟）有效优先级加 1，0 表示不老化
+     */
+    private long agingMinutes = 10;
+
+    /**
+     * 是否允许高优先级任务抢占低优先级任务
+     */
+    private boolean preemption = true;
+}
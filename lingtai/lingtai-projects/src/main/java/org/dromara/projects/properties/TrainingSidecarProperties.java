@@ -0,0 +1,57 @@
+package org.dromara.projects.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 训练服务（sidecar）连接配置
+ * 对应 nacos 中 lingtai-projects.yml 的 grpc.training 节点
+ * <p>
+ * 训练服务地址取 endpoints 与注册中心中 serviceName 的实例之和；两者都为空时使用 host:port
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "grpc.training")
+public class TrainingSidecarProperties {
+
+    /**
+     * 单个训练服务的地址，未配置 endpoints 与 serviceName 时使用
+     */
+    private String host = "localhost";
+
+    private int port = 50051;
+
+    /**
+     * 训练服务地址列表（host:port）
+     */
+    private List<String> endpoints = new ArrayList<>();
+
+    /**
+     * 注册中心中的训练服务名，为空时不从注册中心发现
+     */
+    private String serviceName;
+
+    /**
+     * 训练服务未上报容量时，每个训练服务可同时运行的训练数
+     */
+    private int defaultCapacity = 4;
+
+    /**
+     * 健康检查与服务发现的间隔（秒）
+     */
+    private long healthIntervalSeconds = 5;
+
+    /**
+     * 健康检查超时（毫秒）
+     */
+    private long healthTimeoutMillis = 2000;
+
+    /**
+     * 连续失败多少次判定训练服务失联，其上的训练标记为失联
+     */
+    private int unhealthyThreshold = 3;
+}
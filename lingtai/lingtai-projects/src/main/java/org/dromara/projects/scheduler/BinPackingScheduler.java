@@ -0,0 +1,321 @@
+package org.dromara.projects.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 训练任务调度算法
+ * <p>
+ * 每轮按有效优先级（优先级加上按等待时长的老化）从高到低处理排队任务。同一优先级内按用户的主导份额（DRF）从低到高轮转，
+ * 份额相同时按入队先后。一个任务的全部 worker 作为一组放置：逐个 worker 选择放下后剩余资源最少的节点（best-fit），
+ * 任一 worker 放不下则整组放弃、不占资源，后面较小的任务继续放置。
+ * <p>
+ * 放不下且允许抢占时，从优先级更低的运行中任务里按优先级从低到高、启动时间从晚到早挑选，凑够资源后再逐个剔除多余的，
+ * 只抢占必要的任务。老化只影响排序，不用于抢占。
+ * <p>
+ * 算法不依赖 Spring 与数据库，{@link TrainingScheduler} 与测试中的调度模拟器共用。
+ */
+public class BinPackingScheduler {
+
+    /**
+     * 调度策略
+     *
+     * @param bestFit     true 为 best-fit，false 为 first-fit
+     * @param fairShare   同一优先级内按用户主导份额轮转，false 时按入队先后
+     * @param preemption  允许抢占低优先级任务
+     * @param agingMillis 每等待该时长有效优先级加 1，0 表示不老化
+     */
+    public record Policy(boolean bestFit, boolean fairShare, boolean preemption, long agingMillis) {
+    }
+
+    /**
+     * 单个任务最多考察的抢占候选数
+     */
+    private static final int MAX_VICTIMS = 64;
+
+    private final Policy policy;
+
+    public BinPackingScheduler(Policy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * 计算一轮调度，不修改入参
+     *
+     * @param nodes   可调度的节点
+     * @param running 占用资源的任务，抢占候选与用户份额从中计算
+     * @param queue   排队中的任务
+     * @param now     当前时间（毫秒），用于老化
+     */
+    public ScheduleDecision schedule(List<SchedulerNode> nodes, List<RunningJob> running, List<PendingJob> queue, long now) {
+        Round round = new Round(nodes, running);
+        List<PendingJob> sorted = new ArrayList<>(queue);
+        sorted.sort(Comparator.comparingLong((PendingJob job) -> -effectivePriority(job, now))
+            .thenComparingLong(PendingJob::submittedAt)
+            .thenComparing(PendingJob::id));
+        int start = 0;
+        while (start < sorted.size()) {
+            long priority = effectivePriority(sorted.get(start), now);
+            int end = start;
+            while (end < sorted.size() && effectivePriority(sorted.get(end), now) == priority) {
+                end++;
+            }
+            List<PendingJob> tier = sorted.subList(start, end);
+            if (policy.fairShare()) {
+                round.placeFairly(tier);
+            } else {
+                tier.forEach(round::place);
+            }
+            start = end;
+        }
+        return round.decision;
+    }
+
+    private long effectivePriority(PendingJob job, long now) {
+        if (policy.agingMillis() <= 0) {
+            return job.priority();
+        }
+        return job.priority() + Math.max(0, now - job.submittedAt()) / policy.agingMillis();
+    }
+
+    /**
+     * 一轮调度的工作状态
+     */
+    private final class Round {
+
+        private final List<SchedulerNode> nodes;
+        private final Map<Long, Integer> indexes = new HashMap<>();
+        private final Resources[] free;
+        private final Resources total;
+        private final Resources scale;
+        private final List<RunningJob> running;
+        private final Map<Long, Resources> usage = new HashMap<>();
+        private final ScheduleDecision decision = new ScheduleDecision();
+        private List<RunningJob> victimOrder;
+
+        Round(List<SchedulerNode> nodes, List<RunningJob> running) {
+            this.nodes = new ArrayList<>(nodes);
+            this.nodes.sort(Comparator.comparing(SchedulerNode::id));
+            this.free = new Resources[this.nodes.size()];
+            Resources sum = Resources.ZERO;
+            double cpu = 0;
+            double memory = 0;
+            int gpu = 0;
+            for (int i = 0; i < this.nodes.size(); i++) {
+                SchedulerNode node = this.nodes.get(i);
+                indexes.put(node.id(), i);
+                free[i] = node.available();
+                sum = sum.plus(node.total());
+                cpu = Math.max(cpu, node.total().cpu());
+                memory = Math.max(memory, node.total().memoryMb());
+                gpu = Math.max(gpu, node.total().gpu());
+            }
+            this.total = sum;
+            this.scale = new Resources(cpu, memory, gpu);
+            this.running = new ArrayList<>(running);
+            for (RunningJob job : running) {
+                usage.merge(job.userId(), job.demand(), Resources::plus);
+            }
+        }
+
+        private double share(Long userId) {
+            return usage.getOrDefault(userId, Resources.ZERO).dominantShare(total);
+        }
+
+        /**
+         * 同一优先级内按用户份额轮转，每放置一个任务重新比较
+         */
+        void placeFairly(List<PendingJob> tier) {
+            Map<Long, Deque<PendingJob>> byUser = new LinkedHashMap<>();
+            for (PendingJob job : tier) {
+                byUser.computeIfAbsent(job.userId(), id -> new ArrayDeque<>()).add(job);
+            }
+            Comparator<Long> order = Comparator.comparingDouble(this::share)
+                .thenComparingLong(user -> byUser.get(user).peek().submittedAt());
+            PriorityQueue<Long> users = new PriorityQueue<>(order);
+            users.addAll(byUser.keySet());
+            while (!users.isEmpty()) {
+                Long user = users.poll();
+                Deque<PendingJob> jobs = byUser.get(user);
+                boolean preempted = place(jobs.poll());
+                if (!jobs.isEmpty()) {
+                    users.add(user);
+                }
+                if (preempted) {
+                    // 抢占改变了其他用户的份额，重新排序
+                    List<Long> remaining = new ArrayList<>(users);
+                    users = new PriorityQueue<>(order);
+                    users.addAll(remaining);
+                }
+            }
+        }
+
+        /**
+         * 放置一个任务
+         *
+         * @return 是否发生了抢占
+         */
+        boolean place(PendingJob job) {
+            List<Long> placed = fit(job, free);
+            if (placed != null) {
+                commit(job, placed);
+                return false;
+            }
+            if (policy.preemption() && preempt(job)) {
+                return true;
+            }
+            decision.getBlocked().put(job.id(), reason(job));
+            return false;
+        }
+
+        private void commit(PendingJob job, List<Long> placed) {
+            decision.getPlacements().put(job.id(), placed);
+            usage.merge(job.userId(), job.demand(), Resources::plus);
+        }
+
+        private String reason(PendingJob job) {
+            boolean anyNode = nodes.stream().anyMatch(node -> node.total().covers(job.perWorker()));
+            if (!anyNode) {
+                return "没有节点能容纳单个 worker（" + describe(job.perWorker()) + "）";
+            }
+            return "资源不足，等待释放（" + job.workers() + " 个 worker，每个 " + describe(job.perWorker()) + "）";
+        }
+
+        /**
+         * 逐个 worker 放置，成功时扣减 slots 并返回各 worker 的节点，失败时 slots 不变
+         */
+        private List<Long> fit(PendingJob job, Resources[] slots) {
+            int[] chosen = new int[job.workers()];
+            for (int w = 0; w < job.workers(); w++) {
+                int best = -1;
+                double bestScore = Double.MAX_VALUE;
+                for (int i = 0; i < slots.length; i++) {
+                    if (!slots[i].covers(job.perWorker())) {
+                        continue;
+                    }
+                    if (!policy.bestFit()) {
+                        best = i;
+                        break;
+                    }
+                    double score = leftover(slots[i].minus(job.perWorker()));
+                    if (score < bestScore) {
+                        bestScore = score;
+                        best = i;
+                    }
+                }
+                if (best < 0) {
+                    for (int k = 0; k < w; k++) {
+                        slots[chosen[k]] = slots[chosen[k]].plus(job.perWorker());
+                    }
+                    return null;
+                }
+                slots[best] = slots[best].minus(job.perWorker());
+                chosen[w] = best;
+            }
+            List<Long> placed = new ArrayList<>(chosen.length);
+            for (int index : chosen) {
+                placed.add(nodes.get(index).id());
+            }
+            return placed;
+        }
+
+        /**
+         * 剩余资源按最大节点归一化后求和，GPU 空闲计入，使不需要 GPU 的任务避开 GPU 节点
+         */
+        private double leftover(Resources rest) {
+            double score = 0;
+            if (scale.cpu() > 0) {
+                score += rest.cpu() / scale.cpu();
+            }
+            if (scale.memoryMb() > 0) {
+                score += rest.memoryMb() / scale.memoryMb();
+            }
+            if (scale.gpu() > 0) {
+                score += (double) rest.gpu() / scale.gpu();
+            }
+            return score;
+        }
+
+        private boolean preempt(PendingJob job) {
+            if (victimOrder == null) {
+                victimOrder = running.stream()
+                    .sorted(Comparator.comparingInt(RunningJob::priority)
+                        .thenComparing(Comparator.comparingLong(RunningJob::startedAt).reversed()))
+                    .toList();
+            }
+            List<RunningJob> candidates = victimOrder.stream()
+                .takeWhile(r -> r.priority() < job.priority())
+                .limit(MAX_VICTIMS)
+                .toList();
+            if (candidates.isEmpty()) {
+                return false;
+            }
+            List<RunningJob> victims = new ArrayList<>();
+            Resources[] trial = free.clone();
+            boolean fits = false;
+            for (RunningJob candidate : candidates) {
+                victims.add(candidate);
+                release(trial, candidate);
+                if (fit(job, trial.clone()) != null) {
+                    fits = true;
+                    break;
+                }
+            }
+            if (!fits) {
+                return false;
+            }
+            // 逐个尝试去掉，去掉后仍放得下的不抢占
+            for (int k = victims.size() - 1; k >= 0 && victims.size() > 1; k--) {
+                Resources[] without = free.clone();
+                for (int v = 0; v < victims.size(); v++) {
+                    if (v != k) {
+                        release(without, victims.get(v));
+                    }
+                }
+                if (fit(job, without) != null) {
+                    victims.remove(k);
+                }
+            }
+            List<Long> victimIds = new ArrayList<>(victims.size());
+            for (RunningJob victim : victims) {
+                release(free, victim);
+                running.remove(victim);
+                usage.computeIfPresent(victim.userId(), (user, used) -> used.minus(victim.demand()));
+                victimIds.add(victim.id());
+            }
+            victimOrder = null;
+            commit(job, fit(job, free));
+            decision.getPreemptions().put(job.id(), victimIds);
+            return true;
+        }
+
+        private void release(Resources[] slots, RunningJob job) {
+            for (Long nodeId : job.nodeIds()) {
+                Integer index = indexes.get(nodeId);
+                if (index != null) {
+                    slots[index] = slots[index].plus(job.perWorker());
+                }
+            }
+        }
+    }
+
+    static String describe(Resources resources) {
+        StringBuilder text = new StringBuilder();
+        text.append(trim(resources.cpu())).append(" 核 ").append(trim(resources.memoryMb())).append(" MB");
+        if (resources.gpu() > 0) {
+            text.append(' ').append(resources.gpu()).append(" GPU");
+        }
+        return text.toString();
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,63 @@
+package org.dromara.projects.scheduler;
+
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.projects.domain.ComputeNode;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 从节点上报的描述文本解析资源总量
+ * <p>
+ * cpu 取第一个数字；memory 按 TB/GB/MB 换算为 MB，没有单位时按 GB；gpu 为空或 none 时为 0，
+ * 带 "2x"、" x2"、"*2" 前后缀时为卡数，否则按 1 张卡计。
+ */
+final class NodeResources {
+
+    private static final Pattern NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)");
+    private static final Pattern MEMORY = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*([TGMtgm])?[iI]?[bB]?");
+    private static final Pattern GPU_COUNT = Pattern.compile("^\\s*(\\d+)\\s*[xX*]|(?:\\s[xX]|\\*)\\s*(\\d+)\\s*$");
+
+    private NodeResources() {
+    }
+
+    static Resources total(ComputeNode node) {
+        return new Resources(cpu(node.getCpu()), memoryMb(node.getMemory()), gpu(node.getGpu()));
+    }
+
+    static double cpu(String text) {
+        if (StringUtils.isBlank(text)) {
+            return 0;
+        }
+        Matcher matcher = NUMBER.matcher(text);
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+    }
+
+    static double memoryMb(String text) {
+        if (StringUtils.isBlank(text)) {
+            return 0;
+        }
+        Matcher matcher = MEMORY.matcher(text);
+        if (!matcher.find()) {
+            return 0;
+        }
+        double value = Double.parseDouble(matcher.group(1));
+        String unit = matcher.group(2) == null ? "G" : matcher.group(2).toUpperCase();
+        return switch (unit) {
+            case "T" -> value * 1024 * 1024;
+            case "M" -> value;
+            default -> value * 1024;
+        };
+    }
+
+    static int gpu(String text) {
+        if (StringUtils.isBlank(text) || "none".equalsIgnoreCase(text.trim()) || "0".equals(text.trim())) {
+            return 0;
+        }
+        Matcher matcher = GPU_COUNT.matcher(text);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+        }
+        return 1;
+    }
+}
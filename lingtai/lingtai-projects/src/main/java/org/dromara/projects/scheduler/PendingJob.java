@@ -0,0 +1,15 @@
+package org.dromara.projects.scheduler;
+
+/**
+ * 排队中的训练任务
+ *
+ * @param workers     需要同时放置的 worker 数，全部放下才启动
+ * @param perWorker   每个 worker 的资源
+ * @param submittedAt 入队时间（毫秒）
+ */
+public record PendingJob(Long id, Long userId, int priority, int workers, Resources perWorker, long submittedAt) {
+
+    public Resources demand() {
+        return perWorker.times(workers);
+    }
+}
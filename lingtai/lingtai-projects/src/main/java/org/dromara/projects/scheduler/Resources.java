@@ -0,0 +1,53 @@
+package org.dromara.projects.scheduler;
+
+/**
+ * 一组资源：CPU 核数、内存（MB）、GPU 卡数
+ */
+public record Resources(double cpu, double memoryMb, int gpu) {
+
+    public static final Resources ZERO = new Resources(0, 0, 0);
+
+    public Resources plus(Resources other) {
+        return new Resources(cpu + other.cpu, memoryMb + other.memoryMb, gpu + other.gpu);
+    }
+
+    public Resources minus(Resources other) {
+        return new Resources(cpu - other.cpu, memoryMb - other.memoryMb, gpu - other.gpu);
+    }
+
+    public Resources times(int count) {
+        return new Resources(cpu * count, memoryMb * count, gpu * count);
+    }
+
+    /**
+     * 各维度都不小于 demand
+     */
+    public boolean covers(Resources demand) {
+        return cpu >= demand.cpu && memoryMb >= demand.memoryMb && gpu >= demand.gpu;
+    }
+
+    /**
+     * 各维度取较小值，负数按 0 计
+     */
+    public Resources min(Resources other) {
+        return new Resources(Math.max(0, Math.min(cpu, other.cpu)), Math.max(0, Math.min(memoryMb, other.memoryMb)),
+            Math.max(0, Math.min(gpu, other.gpu)));
+    }
+
+    /**
+     * 主导份额：各维度占 total 比例的最大值，total 为 0 的维度不计
+     */
+    public double dominantShare(Resources total) {
+        double share = 0;
+        if (total.cpu > 0) {
+            share = Math.max(share, cpu / total.cpu);
+        }
+        if (total.memoryMb > 0) {
+            share = Math.max(share, memoryMb / total.memoryMb);
+        }
+        if (total.gpu > 0) {
+            share = Math.max(share, (double) gpu / total.gpu);
+        }
+        return share;
+    }
+}
@@ -0,0 +1,16 @@
+package org.dromara.projects.scheduler;
+
+import java.util.List;
+
+/**
+ * 已放置并占用资源的训练任务
+ *
+ * @param nodeIds   每个 worker 所在的节点
+ * @param startedAt 放置时间（毫秒），抢占时优先选择最近启动、损失最少的任务
+ */
+public record RunningJob(Long id, Long userId, int priority, Resources perWorker, List<Long> nodeIds, long startedAt) {
+
+    public Resources demand() {
+        return perWorker.times(nodeIds.size());
+    }
+}
@@ -0,0 +1,39 @@
+package org.dromara.projects.scheduler;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一轮调度的结果
+ */
+@Getter
+public class ScheduleDecision {
+
+    /**
+     * 放置结果：任务ID -> 每个 worker 的节点ID，按放置顺序
+     */
+    private final Map<Long, List<Long>> placements = new LinkedHashMap<>();
+
+    /**
+     * 为放置某个任务而需要抢占的任务：任务ID -> 被抢占的任务ID
+     */
+    private final Map<Long, List<Long>> preemptions = new LinkedHashMap<>();
+
+    /**
+     * 本轮未能放置的任务及原因
+     */
+    private final Map<Long, String> blocked = new LinkedHashMap<>();
+
+    /**
+     * 全部被抢占的任务
+     */
+    public List<Long> preempted() {
+        List<Long> all = new ArrayList<>();
+        preemptions.values().forEach(all::addAll);
+        return all;
+    }
+}
@@ -0,0 +1,10 @@
+package org.dromara.projects.scheduler;
+
+/**
+ * 参与调度的节点
+ *
+ * @param total     节点总资源
+ * @param available 当前可分配的资源，已扣除运行中任务的预留与节点实测占用
+ */
+public record SchedulerNode(Long id, String name, Resources total, Resources available) {
+}
@@ -0,0 +1,292 @@
+package org.dromara.projects.scheduler;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
+import org.dromara.common.redis.utils.RedisUtils;
+import org.dromara.projects.domain.ComputeNode;
+import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.domain.vo.SchedulerNodeVO;
+import org.dromara.projects.enums.TrainingTaskStatus;
+import org.dromara.projects.mapper.ComputeNodeMapper;
+import org.dromara.projects.mapper.TrainingTaskMapper;
+import org.dromara.projects.properties.TrainingSchedulerProperties;
+import org.dromara.projects.service.ITrainingTaskService;
+import org.redisson.api.RLock;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 训练任务调度器
+ * <p>
+ * 启动训练时任务进入排队（QUEUED），由调度器定时按节点剩余资源分配：读取 lingtai-nodes 维护的节点，
+ * 扣除已分配给训练任务的资源与节点实测占用后交给 {@link BinPackingScheduler}，再按结果抢占与启动。
+ * 多实例部署时用 Redis 锁保证同一时刻只有一个实例在调度。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingScheduler {
+
+    private static final String LOCK_KEY = "lingtai:training:scheduler";
+
+    /**
+     * 占用节点资源的任务状态
+     */
+    private static final List<TrainingTaskStatus> HOLDING = List.of(TrainingTaskStatus.STARTED,
+        TrainingTaskStatus.RUNNING, TrainingTaskStatus.PAUSED, TrainingTaskStatus.ORPHANED);
+
+    private final TrainingSchedulerProperties properties;
+    private final TrainingTaskMapper taskMapper;
+    private final ComputeNodeMapper nodeMapper;
+    private final ITrainingTaskService taskService;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * 最近一轮未能调度的任务及原因
+     */
+    private volatile Map<Long, String> blocked = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (Exception e) {
+                log.error("[SCHEDULER] 调度训练任务失败", e);
+            }
+        }, properties.getIntervalSeconds(), Math.max(1, properties.getIntervalSeconds()), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 排队中的任务最近一轮未能调度的原因，没有记录时返回 null
+     */
+    public String blockedReason(Long taskId) {
+        return blocked.get(taskId);
+    }
+
+    /**
+     * 各节点的总量、已分配与可分配资源
+     */
+    public List<SchedulerNodeVO> nodes() {
+        List<TrainingTask> holding = holding();
+        Map<Long, Resources> reserved = reserved(holding);
+        Map<Long, Integer> tasks = new HashMap<>();
+        for (TrainingTask task : holding) {
+            placement(task).stream().distinct().forEach(nodeId -> tasks.merge(nodeId, 1, Integer::sum));
+        }
+        long now = System.currentTimeMillis();
+        List<SchedulerNodeVO> list = new ArrayList<>();
+        for (ComputeNode node : nodeMapper.selectList(new LambdaQueryWrapper<ComputeNode>().orderByAsc(ComputeNode::getId))) {
+            Resources total = NodeResources.total(node);
+            Resources used = reserved.getOrDefault(node.getId(), Resources.ZERO);
+            Resources available = available(node, total, used);
+            String reason = unschedulable(node, total, now);
+            SchedulerNodeVO vo = new SchedulerNodeVO();
+            vo.setId(node.getId());
+            vo.setName(node.getName());
+            vo.setState(node.getState());
+            vo.setSchedulable(reason == null);
+            vo.setReason(reason);
+            vo.setTotalCpu(total.cpu());
+            vo.setTotalMemoryMb(total.memoryMb());
+            vo.setTotalGpu(total.gpu());
+            vo.setReservedCpu(used.cpu());
+            vo.setReservedMemoryMb(used.memoryMb());
+            vo.setReservedGpu(used.gpu());
+            vo.setAvailableCpu(available.cpu());
+            vo.setAvailableMemoryMb(available.memoryMb());
+            vo.setAvailableGpu(available.gpu());
+            vo.setTasks(tasks.getOrDefault(node.getId(), 0));
+            list.add(vo);
+        }
+        return list;
+    }
+
+    private void tick() throws InterruptedException {
+        RLock lock = RedisUtils.getClient().getLock(LOCK_KEY);
+        if (!lock.tryLock(0, TimeUnit.SECONDS)) {
+            // 其他实例正在调度
+            return;
+        }
+        try {
+            schedule();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule() {
+        List<TrainingTask> queued = taskMapper.selectList(new LambdaQueryWrapper<TrainingTask>()
+            .eq(TrainingTask::getStatus, TrainingTaskStatus.QUEUED)
+            .orderByAsc(TrainingTask::getQueuedTime));
+        if (queued.isEmpty()) {
+            blocked = Collections.emptyMap();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<TrainingTask> holding = holding();
+        Map<Long, Resources> reserved = reserved(holding);
+        List<SchedulerNode> nodes = new ArrayList<>();
+        for (ComputeNode node : nodeMapper.selectList(new LambdaQueryWrapper<>())) {
+            Resources total = NodeResources.total(node);
+            if (unschedulable(node, total, now) == null) {
+                Resources used = reserved.getOrDefault(node.getId(), Resources.ZERO);
+                nodes.add(new SchedulerNode(node.getId(), node.getName(), total, available(node, total, used)));
+            }
+        }
+        List<RunningJob> running = holding.stream()
+            .map(task -> new RunningJob(task.getId(), task.getUserId(), priority(task), perWorker(task), placement(task),
+                time(task.getScheduledTime(), task.getUpdateTime())))
+            .toList();
+        List<PendingJob> pending = queued.stream()
+            .map(task -> new PendingJob(task.getId(), task.getUserId(), priority(task), workers(task), perWorker(task),
+                time(task.getQueuedTime(), task.getCreateTime())))
+            .toList();
+
+        BinPackingScheduler scheduler = new BinPackingScheduler(new BinPackingScheduler.Policy(true, true,
+            properties.isPreemption(), TimeUnit.MINUTES.toMillis(properties.getAgingMinutes())));
+        ScheduleDecision decision = scheduler.schedule(nodes, running, pending, now);
+
+        Map<Long, String> reasons = new LinkedHashMap<>(decision.getBlocked());
+        Set<Long> failed = new HashSet<>();
+        for (Long victim : decision.preempted()) {
+            try {
+                taskService.preemptTask(victim);
+                log.info("[SCHEDULER] 抢占训练任务 {}", victim);
+            } catch (Exception e) {
+                failed.add(victim);
+                log.warn("[SCHEDULER] 抢占训练任务 {} 失败: {}", victim, e.getMessage());
+            }
+        }
+        decision.getPlacements().forEach((taskId, nodeIds) -> {
+            List<Long> victims = decision.getPreemptions().getOrDefault(taskId, List.of());
+            if (victims.stream().anyMatch(failed::contains)) {
+                reasons.put(taskId, "抢占未完成，下一轮重试");
+                return;
+            }
+            String placement = nodeIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+            try {
+                taskService.launchTask(taskId, placement);
+                log.info("[SCHEDULER] 训练任务 {} 分配到节点 {}", taskId, placement);
+            } catch (Exception e) {
+                reasons.put(taskId, e.getMessage());
+                log.warn("[SCHEDULER] 启动训练任务 {} 失败: {}", taskId, e.getMessage());
+            }
+        });
+        blocked = reasons;
+    }
+
+    private List<TrainingTask> holding() {
+        return taskMapper.selectList(new LambdaQueryWrapper<TrainingTask>()
+            .in(TrainingTask::getStatus, HOLDING)
+            .isNotNull(TrainingTask::getPlacement));
+    }
+
+    /**
+     * 各节点已分配给训练任务的资源
+     */
+    private Map<Long, Resources> reserved(List<TrainingTask> holding) {
+        Map<Long, Resources> reserved = new HashMap<>();
+        for (TrainingTask task : holding) {
+            Resources perWorker = perWorker(task);
+            for (Long nodeId : placement(task)) {
+                reserved.merge(nodeId, perWorker, Resources::plus);
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * 可分配资源取 总量-已分配 与 总量×(1-实测使用率) 中较小者，避免把被其他进程占用的资源分配出去
+     */
+    private Resources available(ComputeNode node, Resources total, Resources reserved) {
+        Resources measured = new Resources(total.cpu() * (1 - percent(node.getCpuUsage())),
+            total.memoryMb() * (1 - percent(node.getMemoryUsage())), total.gpu());
+        return total.minus(reserved).min(measured);
+    }
+
+    private static double percent(Double usage) {
+        if (usage == null || usage.isNaN()) {
+            return 0;
+        }
+        return Math.min(100, Math.max(0, usage)) / 100;
+    }
+
+    /**
+     * 节点不参与调度的原因，可调度时返回 null
+     */
+    private String unschedulable(ComputeNode node, Resources total, long now) {
+        boolean stateOk = StringUtils.isNotBlank(node.getState()) && properties.getSchedulableStates().stream()
+            .anyMatch(state -> state.equalsIgnoreCase(node.getState().trim()));
+        if (!stateOk) {
+            return "节点状态为 " + node.getState();
+        }
+        if (node.getHeartbeat() == null
+            || now - node.getHeartbeat().getTime() > TimeUnit.SECONDS.toMillis(properties.getHeartbeatTimeoutSeconds())) {
+            return "心跳超时";
+        }
+        if (total.cpu() <= 0 || total.memoryMb() <= 0) {
+            return "无法识别节点资源";
+        }
+        return null;
+    }
+
+    private Resources perWorker(TrainingTask task) {
+        int cpu = task.getCpuPerWorker() != null ? task.getCpuPerWorker() : properties.getDefaultCpuPerWorker();
+        int memory = task.getMemoryPerWorker() != null ? task.getMemoryPerWorker() : properties.getDefaultMemoryPerWorker();
+        int gpu = task.getGpuPerWorker() != null ? task.getGpuPerWorker() : properties.getDefaultGpuPerWorker();
+        return new Resources(cpu, memory, gpu);
+    }
+
+    /**
+     * worker 数：参与训练的计算节点数，未设置时取客户端数
+     */
+    private static int workers(TrainingTask task) {
+        if (task.getNumComputers() != null && task.getNumComputers() > 0) {
+            return task.getNumComputers();
+        }
+        if (task.getNumClients() != null && task.getNumClients() > 0) {
+            return task.getNumClients();
+        }
+        return 1;
+    }
+
+    private static int priority(TrainingTask task) {
+        return task.getPriority() == null ? 0 : task.getPriority();
+    }
+
+    private static List<Long> placement(TrainingTask task) {
+        if (StringUtils.isBlank(task.getPlacement())) {
+            return List.of();
+        }
+        return Arrays.stream(task.getPlacement().split(","))
+            .map(String::trim)
+            .filter(StringUtils::isNotBlank)
+            .map(Long::valueOf)
+            .toList();
+    }
+
+    private static long time(Date preferred, Date fallback) {
+        Date date = preferred != null ? preferred : fallback;
+        return date == null ? 0 : date.getTime();
+    }
+}
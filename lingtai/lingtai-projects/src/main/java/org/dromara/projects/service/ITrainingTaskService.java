@@ -2,8 +2,10 @@ package org.dromara.projects.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.domain.dto.TrainingMetricQueryDTO;
 import org.dromara.projects.domain.dto.TrainingTaskDTO;
 import org.dromara.projects.domain.dto.TrainingTaskUpdateDTO;
+import org.dromara.projects.domain.vo.TrainingMetricSeriesVO;
 import org.dromara.projects.domain.vo.TrainingTaskVO;
 import java.util.List;
 
@@ -32,6 +34,23 @@ public interface ITrainingTaskService {
      */
     TrainingTaskVO startTask(TrainingTaskDTO dto);
 
+    /**
+     * 查询排队中的训练任务，按入队先后
+     */
+    List<TrainingTaskVO> selectQueuedTasks();
+
+    /**
+     * 把排队中的任务提交到训练服务，由调度器调用
+     *
+     * @param placement 每个 worker 所在的节点ID，逗号分隔
+     */
+    TrainingTaskVO launchTask(Long taskId, String placement);
+
+    /**
+     * 停止运行中的任务并放回队列，由调度器在抢占时调用
+     */
+    Boolean preemptTask(Long taskId);
+
     /**
      * 暂停训练任务
      */
@@ -47,6 +66,11 @@ public interface ITrainingTaskService {
      */
     TrainingTaskVO getTaskProgress(Long projectId);
 
+    /**
+     * 查询训练指标曲线，按请求的点数降采样
+     */
+    List<TrainingMetricSeriesVO> getTaskMetrics(Long id, TrainingMetricQueryDTO dto);
+
     /**
      * 删除训练任务
      */
@@ -2,26 +2,45 @@ package org.dromara.projects.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.edgeai.training.api.*;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dromara.common.core.utils.StringUtils;
 import org.dromara.common.satoken.utils.LoginHelper;
 import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.domain.dto.TrainingMetricQueryDTO;
 import org.dromara.projects.domain.dto.TrainingTaskDTO;
 import org.dromara.projects.domain.dto.TrainingTaskUpdateDTO;
+import org.dromara.projects.domain.vo.TrainingMetricSeriesVO;
 import org.dromara.projects.domain.vo.TrainingTaskVO;
 import org.dromara.projects.enums.TrainingTaskStatus;
+import org.dromara.projects.grpc.SidecarRegistry;
+import org.dromara.projects.grpc.TrainingProgressWatcher;
 import org.dromara.projects.mapper.TrainingTaskMapper;
+import org.dromara.projects.metrics.TrainingMetricStore;
+import org.dromara.projects.properties.TrainingSchedulerProperties;
 import org.dromara.projects.service.ITrainingTaskService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 训练任务Service实现
+ * <p>
+ * 启动训练只提交任务并拿到运行ID，随即返回；训练进度由 {@link TrainingProgressWatcher} 订阅 WatchProgress 流后写回。
+ * 新训练由 {@link SidecarRegistry} 分配到负载最低的训练服务，之后的调用都发往该训练服务。
+ * 启用调度时，启动训练只把任务放入队列，由 {@link org.dromara.projects.scheduler.TrainingScheduler} 分配节点后调用
+ * {@link #launchTask} 提交。
  *
  * @author 86185
  */
@@ -30,10 +49,26 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TrainingTaskServiceImpl implements ITrainingTaskService {
 
-    private final TrainingServiceGrpc.TrainingServiceBlockingStub trainingServiceStub;
+    /**
+     * 一元调用的超时时间
+     */
+    private static final long CALL_TIMEOUT_SECONDS = 10;
+
+    /**
+     * 指标曲线默认返回的点数
+     */
+    private static final int DEFAULT_METRIC_POINTS = 300;
+
+    private final SidecarRegistry sidecarRegistry;
 
     private final TrainingTaskMapper baseMapper;
 
+    private final TrainingProgressWatcher progressWatcher;
+
+    private final TrainingMetricStore metricStore;
+
+    private final TrainingSchedulerProperties schedulerProperties;
+
     @Override
     public List<TrainingTaskVO> selectTaskList(TrainingTaskDTO dto) {
         LambdaQueryWrapper<TrainingTask> wrapper = new LambdaQueryWrapper<>();
@@ -45,6 +80,13 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
         return baseMapper.selectVoList(wrapper);
     }
 
+    @Override
+    public List<TrainingTaskVO> selectQueuedTasks() {
+        return baseMapper.selectVoList(new LambdaQueryWrapper<TrainingTask>()
+            .eq(TrainingTask::getStatus, TrainingTaskStatus.QUEUED)
+            .orderByAsc(TrainingTask::getQueuedTime));
+    }
+
     @Override
     public TrainingTaskVO selectTaskById(Long id) {
         TrainingTaskVO task = baseMapper.selectVoById(id);
@@ -62,6 +104,7 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
         BeanUtil.copyProperties(dto, task);
         task.setUserId(LoginHelper.getUserId());
         task.setStatus(TrainingTaskStatus.PENDING);
+        limitRequest(task);
         return baseMapper.insert(task) > 0;
     }
 
@@ -76,27 +119,186 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
         if (!task.getStatus().equals(TrainingTaskStatus.PENDING)) {
             throw new RuntimeException("训练任务已启动");
         }
+        // 本次训练的参数与资源需求，未传的沿用创建时的值
+        if (dto.getTotalEpochs() != null) {
+            task.setTotalEpochs(dto.getTotalEpochs());
+        }
+        if (dto.getBatchSize() != null) {
+            task.setBatchSize(dto.getBatchSize());
+        }
+        if (dto.getLr() != null) {
+            task.setLr(BigDecimal.valueOf(dto.getLr()));
+        }
+        if (dto.getPriority() != null) {
+            task.setPriority(dto.getPriority());
+        }
+        if (dto.getCpuPerWorker() != null) {
+            task.setCpuPerWorker(dto.getCpuPerWorker());
+        }
+        if (dto.getMemoryPerWorker() != null) {
+            task.setMemoryPerWorker(dto.getMemoryPerWorker());
+        }
+        if (dto.getGpuPerWorker() != null) {
+            task.setGpuPerWorker(dto.getGpuPerWorker());
+        }
+        if (task.getTotalEpochs() == null || task.getBatchSize() == null || task.getLr() == null) {
+            throw new RuntimeException("训练轮数、批大小与学习率不能为空");
+        }
+        limitRequest(task);
+
+        if (schedulerProperties.isEnabled()) {
+            // 进入排队，由调度器按节点资源分配后启动
+            task.setStatus(TrainingTaskStatus.QUEUED);
+            task.setQueuedTime(new Date());
+            baseMapper.updateById(task);
+            log.info("Training task queued: {}", taskId);
+            return convertToVO(task);
+        }
+        return launch(task, List.of());
+    }
+
+    /**
+     * 普通用户的优先级与每个 worker 的资源按调度配置的上限截断，避免随意抢占他人或占满节点；超级管理员不受限
+     */
+    private void limitRequest(TrainingTask task) {
+        if (LoginHelper.isSuperAdmin()) {
+            return;
+        }
+        task.setPriority(cap(task.getPriority(), schedulerProperties.getMaxUserPriority()));
+        task.setCpuPerWorker(cap(task.getCpuPerWorker(), schedulerProperties.getMaxUserCpuPerWorker()));
+        task.setMemoryPerWorker(cap(task.getMemoryPerWorker(), schedulerProperties.getMaxUserMemoryPerWorker()));
+        task.setGpuPerWorker(cap(task.getGpuPerWorker(), schedulerProperties.getMaxUserGpuPerWorker()));
+    }
+
+    private static Integer cap(Integer value, int max) {
+        return value == null ? null : Math.min(value, max);
+    }
+
+    @Override
+    public TrainingTaskVO launchTask(Long taskId, String placement) {
+        // 只有仍在排队的任务才能被认领，避免多个实例或重复调度重复启动
+        Date now = new Date();
+        boolean claimed = baseMapper.update(null, new LambdaUpdateWrapper<TrainingTask>()
+            .set(TrainingTask::getStatus, TrainingTaskStatus.STARTED)
+            .set(TrainingTask::getPlacement, placement)
+            .set(TrainingTask::getScheduledTime, now)
+            .eq(TrainingTask::getId, taskId)
+            .eq(TrainingTask::getStatus, TrainingTaskStatus.QUEUED)) > 0;
+        if (!claimed) {
+            throw new RuntimeException("训练任务不在排队中");
+        }
+        TrainingTask task = baseMapper.selectById(taskId);
+        if (task == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
+        try {
+            return launch(task, Arrays.asList(placement.split(",")));
+        } catch (RuntimeException e) {
+            if (TrainingTaskStatus.STARTED.equals(task.getStatus())) {
+                // 尚未提交到训练服务（例如训练服务均已满载），放回队列等下一轮
+                baseMapper.update(null, new LambdaUpdateWrapper<TrainingTask>()
+                    .set(TrainingTask::getStatus, TrainingTaskStatus.QUEUED)
+                    .set(TrainingTask::getPlacement, null)
+                    .eq(TrainingTask::getId, taskId)
+                    .eq(TrainingTask::getStatus, TrainingTaskStatus.STARTED)
+                    .isNull(TrainingTask::getRunId));
+            }
+            throw e;
+        }
+    }
 
+    @Override
+    public Boolean preemptTask(Long taskId) {
+        TrainingTask task = baseMapper.selectById(taskId);
+        if (task == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
+        if (StringUtils.isNotBlank(task.getRunId()) && !TrainingTaskStatus.ORPHANED.equals(task.getStatus())) {
+            StopRequest request = StopRequest.newBuilder()
+                .setProjectId(taskId.toString())
+                .build();
+            StopReply reply = sidecarRegistry.route(task.getSidecarEndpoint()).blockingStub()
+                .withDeadlineAfter(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .stopTrain(request);
+            if (!reply.getSuccess()) {
+                throw new RuntimeException("训练服务拒绝停止训练");
+            }
+        }
+        // 先取消订阅再清空运行ID，旧运行的停止事件不会覆盖排队状态
+        progressWatcher.cancel(taskId);
+        int preempted = task.getPreemptCount() == null ? 0 : task.getPreemptCount();
+        return baseMapper.update(null, new LambdaUpdateWrapper<TrainingTask>()
+            .set(TrainingTask::getStatus, TrainingTaskStatus.QUEUED)
+            .set(TrainingTask::getRunId, null)
+            .set(TrainingTask::getPlacement, null)
+            .set(TrainingTask::getProgress, BigDecimal.ZERO)
+            .set(TrainingTask::getPreemptCount, preempted + 1)
+            .eq(TrainingTask::getId, taskId)
+            .in(TrainingTask::getStatus, TrainingTaskStatus.STARTED, TrainingTaskStatus.RUNNING,
+                TrainingTaskStatus.PAUSED, TrainingTaskStatus.ORPHANED)) > 0;
+    }
+
+    /**
+     * 提交到训练服务并订阅进度
+     *
+     * @param nodes 每个 worker 所在的节点ID，未经调度时为空
+     */
+    private TrainingTaskVO launch(TrainingTask task, List<String> nodes) {
+        Long taskId = task.getId();
         try {
             // 2. 调用 gRPC 启动训练
             PiTrainRequest request = PiTrainRequest.newBuilder()
                 .setProjectId(taskId.toString())
-                .setEpochs(dto.getTotalEpochs())
-                .setBatchSize(dto.getBatchSize())
-                .setLr(dto.getLr())
+                .setEpochs(task.getTotalEpochs())
+                .setBatchSize(task.getBatchSize())
+                .setLr(task.getLr().floatValue())
+                .addAllNodes(nodes)
                 .build();
 
-            log.info("Starting training task via gRPC: {}", taskId);
-            PiTrainReply reply = trainingServiceStub.piTrain(request);
+            // 分配到负载最低的训练服务，连接不上时换下一个
+            Set<String> tried = new HashSet<>();
+            PiTrainReply reply;
+            String endpoint;
+            while (true) {
+                SidecarRegistry.Sidecar sidecar = sidecarRegistry.acquire(tried);
+                endpoint = sidecar.endpoint();
+                log.info("Starting training task via gRPC: {}, sidecar={}", taskId, endpoint);
+                try {
+                    reply = sidecar.blockingStub().withDeadlineAfter(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                        .piTrain(request);
+                    break;
+                } catch (StatusRuntimeException e) {
+                    sidecar.release();
+                    if (e.getStatus().getCode() != Status.Code.UNAVAILABLE) {
+                        throw e;
+                    }
+                    log.warn("Sidecar {} unavailable, trying next: {}", endpoint, e.getMessage());
+                    tried.add(endpoint);
+                }
+            }
 
-            // 3. 更新训练结果
-            task.setFinalLoss(reply.getFinalLoss());
-            task.setStatus(TrainingTaskStatus.valueOf(reply.getStatus()));
+            // 3. 记录运行ID并订阅进度
+            if (StringUtils.isBlank(reply.getRunId())) {
+                // 旧版训练服务在训练结束后才返回，直接记录结果
+                task.setFinalLoss(reply.getFinalLoss());
+                task.setStatus(TrainingTaskStatus.valueOf(reply.getStatus()));
+                task.setRounds(reply.getRounds());
+                task.setLogPath(reply.getLogPath());
+                task.setSidecarEndpoint(endpoint);
+                baseMapper.updateById(task);
+                return convertToVO(task);
+            }
+            TrainingTaskStatus status = TrainingTaskStatus.fromName(reply.getStatus());
+            task.setRunId(reply.getRunId());
+            task.setSidecarEndpoint(endpoint);
+            task.setStatus(status == null ? TrainingTaskStatus.RUNNING : status);
             task.setRounds(reply.getRounds());
+            task.setProgress(BigDecimal.ZERO);
             task.setLogPath(reply.getLogPath());
             baseMapper.updateById(task);
+            progressWatcher.watch(taskId, reply.getRunId(), endpoint, 0);
 
-            log.info("Training task started successfully: {}", taskId);
+            log.info("Training task started successfully: {}, runId={}", taskId, reply.getRunId());
             return convertToVO(task);
 
         } catch (StatusRuntimeException e) {
@@ -110,13 +312,19 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
 
     @Override
     public Boolean pauseTask(Long taskId) {
+        TrainingTask current = baseMapper.selectById(taskId);
+        if (current == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
         try {
             PauseRequest request = PauseRequest.newBuilder()
                 .setProjectId(taskId.toString())
                 .build();
 
             log.info("Pausing training task: {}", taskId);
-            PauseReply reply = trainingServiceStub.pauseTrain(request);
+            PauseReply reply = sidecarRegistry.route(current.getSidecarEndpoint()).blockingStub()
+                .withDeadlineAfter(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .pauseTrain(request);
 
             if (reply.getSuccess()) {
                 // 更新数据库状态
@@ -136,13 +344,26 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
 
     @Override
     public Boolean stopTask(Long taskId) {
+        TrainingTask current = baseMapper.selectById(taskId);
+        if (current == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
+        if (TrainingTaskStatus.QUEUED.equals(current.getStatus())) {
+            // 尚未分配节点，直接出队
+            return baseMapper.update(null, new LambdaUpdateWrapper<TrainingTask>()
+                .set(TrainingTask::getStatus, TrainingTaskStatus.STOPPED)
+                .eq(TrainingTask::getId, taskId)
+                .eq(TrainingTask::getStatus, TrainingTaskStatus.QUEUED)) > 0;
+        }
         try {
             StopRequest request = StopRequest.newBuilder()
                 .setProjectId(taskId.toString())
                 .build();
 
             log.info("Stopping training task: {}", taskId);
-            StopReply reply = trainingServiceStub.stopTrain(request);
+            StopReply reply = sidecarRegistry.route(current.getSidecarEndpoint()).blockingStub()
+                .withDeadlineAfter(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .stopTrain(request);
 
             if (reply.getSuccess()) {
                 // 更新数据库状态
@@ -162,13 +383,37 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
 
     @Override
     public TrainingTaskVO getTaskProgress(Long taskId) {
+        TrainingTask current = baseMapper.selectById(taskId);
+        if (current == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
+        if (TrainingTaskStatus.QUEUED.equals(current.getStatus())) {
+            return convertToVO(current);
+        }
+        if (StringUtils.isNotBlank(current.getRunId())) {
+            // 进度由订阅写回，这里只读库；订阅已断开的运行中任务重新订阅
+            if (current.getStatus() != null && !current.getStatus().isTerminalState()
+                && !TrainingTaskStatus.PENDING.equals(current.getStatus())
+                && !TrainingTaskStatus.ORPHANED.equals(current.getStatus())
+                && !progressWatcher.isWatching(taskId)) {
+                int rounds = current.getRounds() == null ? 0 : current.getRounds();
+                progressWatcher.watch(taskId, current.getRunId(), current.getSidecarEndpoint(),
+                    rounds <= 0 ? 0 : rounds + 1);
+            }
+            TrainingTaskVO vo = convertToVO(current);
+            vo.setClients(progressWatcher.latestClients(taskId));
+            return vo;
+        }
+        // 旧版训练服务没有进度流，轮询一元接口
         try {
             ProgressRequest request = ProgressRequest.newBuilder()
                 .setProjectId(taskId.toString())
                 .build();
 
             log.info("Getting training progress: {}", taskId);
-            ProgressReply reply = trainingServiceStub.getProgress(request);
+            ProgressReply reply = sidecarRegistry.route(current.getSidecarEndpoint()).blockingStub()
+                .withDeadlineAfter(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .getProgress(request);
 
             // 更新数据库中的进度信息
             TrainingTask task = baseMapper.selectById(taskId);
@@ -201,9 +446,32 @@ public class TrainingTaskServiceImpl implements ITrainingTaskService {
             stopTask(task.getId());
         }
 
+        progressWatcher.cancel(id);
+        metricStore.delete(id);
         return baseMapper.deleteById(id) > 0;
     }
 
+    @Override
+    public List<TrainingMetricSeriesVO> getTaskMetrics(Long id, TrainingMetricQueryDTO dto) {
+        TrainingTask task = baseMapper.selectById(id);
+        if (task == null) {
+            throw new RuntimeException("训练任务不存在");
+        }
+        String runId = StringUtils.isNotBlank(dto.getRunId()) ? dto.getRunId() : task.getRunId();
+        if (StringUtils.isBlank(runId)) {
+            throw new RuntimeException("训练任务尚未启动");
+        }
+        List<String> metrics = StringUtils.isBlank(dto.getMetrics()) ? TrainingMetricStore.METRICS
+            : Arrays.stream(dto.getMetrics().split(",")).map(String::trim).filter(StringUtils::isNotBlank).distinct().toList();
+        for (String metric : metrics) {
+            if (!TrainingMetricStore.METRICS.contains(metric)) {
+                throw new RuntimeException("不支持的指标: " + metric);
+            }
+        }
+        int points = dto.getPoints() == null ? DEFAULT_METRIC_POINTS : dto.getPoints();
+        return metricStore.query(id, runId, metrics, dto.getFromRound(), dto.getToRound(), points);
+    }
+
     @Override
     public Boolean updateTask(Long id, TrainingTaskUpdateDTO dto) {
         //根据前端传回来的有的数据进行更新
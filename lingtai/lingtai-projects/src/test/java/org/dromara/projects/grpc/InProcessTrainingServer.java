@@ -0,0 +1,316 @@
+package org.dromara.projects.grpc;
+
+import com.edgeai.training.api.*;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 进程内的模拟训练服务
+ * <p>
+ * 代替外部训练服务：PiTrain 立即返回运行ID，由测试调用 {@link #advance(String)} 逐轮推进，
+ * 损失按指数衰减，每轮为若干模拟客户端生成统计，通过 WatchProgress 推送。已推送的事件保留在内存中，
+ * 订阅时按 from_round 补发；{@link #disconnect()} 模拟连接断开，{@link #restart()} 模拟训练服务重启后忘记所有运行。
+ * 同时提供 grpc.health.v1 健康检查与容量查询。
+ */
+public class InProcessTrainingServer extends TrainingServiceGrpc.TrainingServiceImplBase implements AutoCloseable {
+
+    private static final int CLIENT_COUNT = 3;
+
+    private final String name = "lingtai-training-" + UUID.randomUUID();
+    private final int capacity;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final HealthStatusManager health = new HealthStatusManager();
+    private final List<ManagedChannel> channels = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<WatchProgressRequest> watchRequests = new LinkedBlockingQueue<>();
+
+    private Server server;
+
+    private InProcessTrainingServer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static InProcessTrainingServer start(int capacity) throws IOException {
+        InProcessTrainingServer training = new InProcessTrainingServer(capacity);
+        training.server = InProcessServerBuilder.forName(training.name)
+            .addService(training)
+            .addService(training.health.getHealthService())
+            .build().start();
+        training.health.setStatus(TrainingServiceGrpc.SERVICE_NAME, HealthCheckResponse.ServingStatus.SERVING);
+        return training;
+    }
+
+    /**
+     * 新建一个连接，关闭服务时一并关闭
+     */
+    public ManagedChannel channel() {
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * 已处理的 WatchProgress 请求；请求入队时订阅已登记（或已回复 NOT_FOUND）
+     */
+    public BlockingQueue<WatchProgressRequest> watchRequests() {
+        return watchRequests;
+    }
+
+    /**
+     * 推进一轮，返回推送的事件
+     */
+    public ProgressEvent advance(String projectId) {
+        Run run = runs.get(projectId);
+        if (run == null) {
+            throw new IllegalStateException("没有训练: " + projectId);
+        }
+        return run.tick();
+    }
+
+    /**
+     * 以 UNAVAILABLE 断开所有进度订阅，运行继续保留
+     */
+    public void disconnect() {
+        runs.values().forEach(Run::disconnect);
+    }
+
+    /**
+     * 断开所有订阅并忘记所有运行
+     */
+    public void restart() {
+        disconnect();
+        runs.clear();
+    }
+
+    @Override
+    public void close() {
+        health.enterTerminalState();
+        channels.forEach(ManagedChannel::shutdownNow);
+        if (server != null) {
+            server.shutdownNow();
+        }
+    }
+
+    @Override
+    public void piTrain(PiTrainRequest request, StreamObserver<PiTrainReply> responseObserver) {
+        Run run = runs.compute(request.getProjectId(), (projectId, existing) -> existing != null && !existing.finished
+            ? existing
+            : new Run(projectId, UUID.randomUUID().toString(), Math.max(1, request.getEpochs())));
+        responseObserver.onNext(PiTrainReply.newBuilder()
+            .setProjectId(run.projectId)
+            .setRunId(run.runId)
+            .setStatus("RUNNING")
+            .setRounds(run.round)
+            .setLogPath(run.logPath())
+            .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void pauseTrain(PauseRequest request, StreamObserver<PauseReply> responseObserver) {
+        Run run = runs.get(request.getProjectId());
+        boolean success = run != null && run.pause();
+        responseObserver.onNext(PauseReply.newBuilder().setSuccess(success).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void stopTrain(StopRequest request, StreamObserver<StopReply> responseObserver) {
+        Run run = runs.get(request.getProjectId());
+        boolean success = run != null && run.finish("STOPPED", null);
+        responseObserver.onNext(StopReply.newBuilder().setSuccess(success).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getProgress(ProgressRequest request, StreamObserver<ProgressReply> responseObserver) {
+        Run run = runs.get(request.getProjectId());
+        if (run == null) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription("没有训练: " + request.getProjectId())
+                .asRuntimeException());
+            return;
+        }
+        ProgressEvent last = run.last();
+        responseObserver.onNext(ProgressReply.newBuilder()
+            .setProjectId(run.projectId)
+            .setProgress(last == null ? 0 : last.getProgress())
+            .setRound(last == null ? 0 : last.getRound())
+            .setLoss(last == null ? 0 : last.getLoss())
+            .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getCapacity(CapacityRequest request, StreamObserver<CapacityReply> responseObserver) {
+        int active = (int) runs.values().stream().filter(run -> !run.finished).count();
+        responseObserver.onNext(CapacityReply.newBuilder()
+            .setMaxRuns(capacity)
+            .setActiveRuns(active)
+            .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void watchProgress(WatchProgressRequest request, StreamObserver<ProgressEvent> responseObserver) {
+        Run run = runs.get(request.getProjectId());
+        if (run == null || !run.runId.equals(request.getRunId())) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription("没有运行: " + request.getRunId())
+                .asRuntimeException());
+        } else {
+            run.subscribe((ServerCallStreamObserver<ProgressEvent>) responseObserver, request.getFromRound());
+        }
+        watchRequests.add(request);
+    }
+
+    /**
+     * 一次模拟训练，所有状态变化在对象锁内进行，保证事件顺序
+     */
+    private static class Run {
+
+        private final String projectId;
+        private final String runId;
+        private final int totalRounds;
+        private final List<ProgressEvent> history = new ArrayList<>();
+        private final List<ServerCallStreamObserver<ProgressEvent>> watchers = new ArrayList<>();
+        private int round;
+        private float loss = 2.5f;
+        private boolean paused;
+        private volatile boolean finished;
+
+        Run(String projectId, String runId, int totalRounds) {
+            this.projectId = projectId;
+            this.runId = runId;
+            this.totalRounds = totalRounds;
+        }
+
+        String logPath() {
+            return "logs/" + projectId + "/" + runId + ".log";
+        }
+
+        synchronized ProgressEvent last() {
+            return history.isEmpty() ? null : history.get(history.size() - 1);
+        }
+
+        synchronized ProgressEvent tick() {
+            if (paused || finished) {
+                throw new IllegalStateException("训练未在运行: " + projectId);
+            }
+            round++;
+            loss = (float) (2.5 * Math.exp(-0.15 * round));
+            ProgressEvent.Builder event = event(round == totalRounds ? "COMPLETED" : "RUNNING");
+            for (int i = 0; i < CLIENT_COUNT; i++) {
+                event.addClients(ClientStats.newBuilder()
+                    .setClientId("client-" + i)
+                    .setNumSamples(1000L + 100L * i)
+                    .setLoss(loss + 0.01f * i)
+                    .setAccuracy((float) Math.min(0.99, 1 - loss / 3))
+                    .setDurationMs(200L + 50L * i));
+            }
+            if (round == totalRounds) {
+                event.setFinalLoss(loss);
+            }
+            ProgressEvent built = event.build();
+            publish(built);
+            if (round == totalRounds) {
+                close();
+            }
+            return built;
+        }
+
+        synchronized boolean pause() {
+            if (finished || paused) {
+                return false;
+            }
+            paused = true;
+            publish(event("PAUSED").build());
+            return true;
+        }
+
+        synchronized boolean finish(String status, String message) {
+            if (finished) {
+                return false;
+            }
+            ProgressEvent.Builder event = event(status).setFinalLoss(loss);
+            if (message != null) {
+                event.setMessage(message);
+            }
+            publish(event.build());
+            close();
+            return true;
+        }
+
+        synchronized void subscribe(ServerCallStreamObserver<ProgressEvent> observer, int fromRound) {
+            // from_round 为 0 时只补发最新一条
+            List<ProgressEvent> replay = fromRound <= 0
+                ? (history.isEmpty() ? List.of() : List.of(history.get(history.size() - 1)))
+                : history.stream().filter(e -> e.getRound() >= fromRound).toList();
+            replay.forEach(observer::onNext);
+            if (finished) {
+                observer.onCompleted();
+                return;
+            }
+            observer.setOnCancelHandler(() -> {
+                synchronized (this) {
+                    watchers.remove(observer);
+                }
+            });
+            watchers.add(observer);
+        }
+
+        synchronized void disconnect() {
+            for (ServerCallStreamObserver<ProgressEvent> watcher : watchers) {
+                if (!watcher.isCancelled()) {
+                    watcher.onError(Status.UNAVAILABLE.withDescription("连接断开").asRuntimeException());
+                }
+            }
+            watchers.clear();
+        }
+
+        private ProgressEvent.Builder event(String status) {
+            return ProgressEvent.newBuilder()
+                .setProjectId(projectId)
+                .setRunId(runId)
+                .setRound(round)
+                .setTotalRounds(totalRounds)
+                .setProgress(100f * round / totalRounds)
+                .setLoss(loss)
+                .setStatus(status)
+                .setLogPath(logPath());
+        }
+
+        private void publish(ProgressEvent event) {
+            history.add(event);
+            for (ServerCallStreamObserver<ProgressEvent> watcher : List.copyOf(watchers)) {
+                if (!watcher.isCancelled()) {
+                    watcher.onNext(event);
+                }
+            }
+        }
+
+        private void close() {
+            finished = true;
+            for (ServerCallStreamObserver<ProgressEvent> watcher : watchers) {
+                if (!watcher.isCancelled()) {
+                    watcher.onCompleted();
+                }
+            }
+            watchers.clear();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package org.dromara.projects.grpc;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.edgeai.training.api.PiTrainRequest;
+import com.edgeai.training.api.ProgressEvent;
+import com.edgeai.training.api.TrainingServiceGrpc;
+import com.edgeai.training.api.WatchProgressRequest;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.dromara.projects.domain.TrainingTask;
+import org.dromara.projects.enums.TrainingTaskStatus;
+import org.dromara.projects.mapper.TrainingTaskMapper;
+import org.dromara.projects.metrics.TrainingMetricStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 训练进度订阅测试
+ * <p>
+ * 训练服务用进程内替身 {@link InProcessTrainingServer}，由测试逐轮推进、断开连接或模拟重启；
+ * 重连任务交给测试执行，核对退避间隔。收到的轮次从指标写入中记录，任务写回从 update 的条件构造器中读取。
+ * 订阅归属默认由本实例取得，需要时改为由其他实例持有。
+ */
+@Tag("dev")
+@DisplayName("训练进度订阅测试")
+public class TrainingProgressWatcherTest {
+
+    private static final String ENDPOINT = "sidecar-1:50051";
+    private static final long TASK_ID = 42L;
+    private static final String PROJECT_ID = String.valueOf(TASK_ID);
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final BlockingQueue<Integer> rounds = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Reconnect> reconnects = new LinkedBlockingQueue<>();
+    private final BlockingQueue<LambdaUpdateWrapper<TrainingTask>> updates = new LinkedBlockingQueue<>();
+
+    private InProcessTrainingServer training;
+    private SidecarRegistry sidecarRegistry;
+    private TrainingRunLease runLease;
+    private TrainingTaskMapper taskMapper;
+    private TrainingMetricStore metricStore;
+    private TrainingProgressWatcher watcher;
+    private String runId;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        // Lambda 条件构造器按实体的表信息解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TrainingTask.class);
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        training = InProcessTrainingServer.start(4);
+
+        sidecarRegistry = mock(SidecarRegistry.class);
+        when(sidecarRegistry.route(ENDPOINT)).thenReturn(new SidecarRegistry.Sidecar(ENDPOINT, training.channel(), 4));
+        when(sidecarRegistry.isHealthy(ENDPOINT)).thenReturn(true);
+
+        runLease = mock(TrainingRunLease.class);
+        when(runLease.tryAcquire(any())).thenReturn(true);
+
+        taskMapper = mock(TrainingTaskMapper.class);
+        when(taskMapper.update(any(), any())).thenAnswer(invocation -> {
+            updates.add(invocation.getArgument(1));
+            return 1;
+        });
+
+        metricStore = mock(TrainingMetricStore.class);
+        doAnswer(invocation -> {
+            rounds.add(invocation.<ProgressEvent>getArgument(2).getRound());
+            return null;
+        }).when(metricStore).append(any(), any(), any());
+
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        when(executor.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+            reconnects.add(new Reconnect(invocation.getArgument(0), invocation.getArgument(1)));
+            return null;
+        });
+
+        watcher = new TrainingProgressWatcher(sidecarRegistry, taskMapper, executor, metricStore, runLease);
+        runId = TrainingServiceGrpc.newBlockingStub(training.channel())
+            .piTrain(PiTrainRequest.newBuilder().setProjectId(PROJECT_ID).setEpochs(10).build())
+            .getRunId();
+        when(taskMapper.selectById(TASK_ID)).thenReturn(task(TrainingTaskStatus.RUNNING));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        watcher.cancel(TASK_ID);
+        training.close();
+    }
+
+    @Test
+    @DisplayName("按 from_round 补发已完成的轮次，之后继续接收新轮次；from_round 为 0 时只补发最新一轮")
+    public void replaysFromRound() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            training.advance(PROJECT_ID);
+        }
+        watcher.watch(TASK_ID, runId, ENDPOINT, 2);
+
+        Assertions.assertEquals(2, nextWatch().getFromRound());
+        Assertions.assertEquals(List.of(2, 3), nextRounds(2));
+        training.advance(PROJECT_ID);
+        Assertions.assertEquals(4, nextRound());
+        Assertions.assertEquals(3, watcher.latestClients(TASK_ID).size());
+        // 每收到一轮写回一次
+        Assertions.assertEquals(List.of(2, 3, 4), drainUpdates().stream().map(update -> setValues(update).get("rounds")).toList());
+
+        // 替换订阅：旧订阅取消，新订阅只补发最新一轮
+        watcher.watch(TASK_ID, runId, ENDPOINT, 0);
+        Assertions.assertEquals(0, nextWatch().getFromRound());
+        Assertions.assertEquals(4, nextRound());
+        training.advance(PROJECT_ID);
+        Assertions.assertEquals(5, nextRound());
+        Assertions.assertNull(rounds.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("断线后按指数退避重连，从已记录的下一轮继续，收到进度后退避归零")
+    public void reconnectsWithBackoff() throws InterruptedException {
+        training.advance(PROJECT_ID);
+        training.advance(PROJECT_ID);
+        watcher.watch(TASK_ID, runId, ENDPOINT, 1);
+        Assertions.assertEquals(1, nextWatch().getFromRound());
+        Assertions.assertEquals(List.of(1, 2), nextRounds(2));
+
+        // 重连后没有新轮次，退避逐次翻倍
+        training.disconnect();
+        Reconnect first = nextReconnect();
+        Assertions.assertEquals(1000L, first.delay());
+        Assertions.assertTrue(watcher.isWatching(TASK_ID));
+        first.task().run();
+        Assertions.assertEquals(3, nextWatch().getFromRound());
+
+        training.disconnect();
+        Reconnect second = nextReconnect();
+        Assertions.assertEquals(2000L, second.delay());
+        second.task().run();
+        Assertions.assertEquals(3, nextWatch().getFromRound());
+
+        training.disconnect();
+        Reconnect third = nextReconnect();
+        Assertions.assertEquals(4000L, third.delay());
+        // 断线期间训练继续
+        training.advance(PROJECT_ID);
+        third.task().run();
+        Assertions.assertEquals(3, nextWatch().getFromRound());
+        // 断线期间的第 3 轮补发一次，前两轮不重复
+        Assertions.assertEquals(3, nextRound());
+
+        training.disconnect();
+        Assertions.assertEquals(1000L, nextReconnect().delay());
+        Assertions.assertNull(rounds.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("任务已结束时不再重连")
+    public void stopsReconnectingWhenTaskFinished() throws InterruptedException {
+        training.advance(PROJECT_ID);
+        watcher.watch(TASK_ID, runId, ENDPOINT, 1);
+        nextWatch();
+        Assertions.assertEquals(1, nextRound());
+
+        training.disconnect();
+        Reconnect reconnect = nextReconnect();
+        when(taskMapper.selectById(TASK_ID)).thenReturn(task(TrainingTaskStatus.STOPPED));
+        reconnect.task().run();
+
+        Assertions.assertFalse(watcher.isWatching(TASK_ID));
+        Assertions.assertNull(training.watchRequests().poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("训练服务重启后不认识这次运行（NOT_FOUND）：任务标记为失败，不再重连")
+    public void marksLostRunFailed() throws InterruptedException {
+        training.advance(PROJECT_ID);
+        watcher.watch(TASK_ID, runId, ENDPOINT, 1);
+        nextWatch();
+        Assertions.assertEquals(1, nextRound());
+
+        training.restart();
+        Reconnect reconnect = nextReconnect();
+        Assertions.assertEquals(1000L, reconnect.delay());
+        reconnect.task().run();
+        WatchProgressRequest request = nextWatch();
+        Assertions.assertEquals(runId, request.getRunId());
+        Assertions.assertEquals(2, request.getFromRound());
+
+        LambdaUpdateWrapper<TrainingTask> lost = awaitUpdate(TrainingTaskStatus.FAILED);
+        Map<String, Object> values = setValues(lost);
+        Assertions.assertEquals(List.of("status", "remark"), List.copyOf(values.keySet()));
+        Assertions.assertTrue(values.get("remark").toString().startsWith("训练运行已丢失"));
+        // 只更新这次运行，且不覆盖已结束的任务
+        Assertions.assertTrue(lost.getParamNameValuePairs().containsValue(runId));
+        Assertions.assertTrue(lost.getSqlSegment().contains("NOT IN"));
+
+        verify(metricStore, timeout(TIMEOUT_SECONDS * 1000)).close(TASK_ID);
+        verify(runLease, timeout(TIMEOUT_SECONDS * 1000)).release(TASK_ID);
+        Assertions.assertFalse(watcher.isWatching(TASK_ID));
+        Assertions.assertNull(reconnects.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("订阅归属：其他实例订阅的训练不重复订阅；训练服务上线时接管无人订阅的训练，从已记录的下一轮继续")
+    public void watchesOnlyOwnedRuns() throws InterruptedException {
+        training.advance(PROJECT_ID);
+        training.advance(PROJECT_ID);
+        TrainingTask task = task(TrainingTaskStatus.ORPHANED);
+        task.setRounds(1);
+        when(taskMapper.selectList(any())).thenReturn(List.of(task));
+
+        when(runLease.tryAcquire(TASK_ID)).thenReturn(false);
+        watcher.watch(TASK_ID, runId, ENDPOINT, 1);
+        watcher.onSidecarState(new SidecarStateEvent(ENDPOINT, true));
+        Assertions.assertFalse(watcher.isWatching(TASK_ID));
+        Assertions.assertNull(training.watchRequests().poll(200, TimeUnit.MILLISECONDS));
+
+        when(runLease.tryAcquire(TASK_ID)).thenReturn(true);
+        watcher.onSidecarState(new SidecarStateEvent(ENDPOINT, true));
+        Assertions.assertEquals(2, nextWatch().getFromRound());
+        Assertions.assertEquals(2, nextRound());
+        Assertions.assertTrue(watcher.isWatching(TASK_ID));
+    }
+
+    @Test
+    @DisplayName("训练服务失联：只标记本实例订阅或无人订阅的训练，标记后才释放归属")
+    public void marksOrphanedOnlyWhenOwned() throws InterruptedException {
+        training.advance(PROJECT_ID);
+        watcher.watch(TASK_ID, runId, ENDPOINT, 1);
+        nextWatch();
+        Assertions.assertEquals(1, nextRound());
+        drainUpdates();
+        clearInvocations(taskMapper, runLease);
+
+        // 其他实例持有归属时不标记
+        TrainingTask other = task(TrainingTaskStatus.RUNNING);
+        other.setId(TASK_ID + 1);
+        when(taskMapper.selectList(any())).thenReturn(List.of(task(TrainingTaskStatus.RUNNING), other));
+        when(runLease.tryAcquire(TASK_ID + 1)).thenReturn(false);
+        watcher.onSidecarState(new SidecarStateEvent(ENDPOINT, false));
+
+        LambdaUpdateWrapper<TrainingTask> orphaned = awaitUpdate(TrainingTaskStatus.ORPHANED);
+        Assertions.assertTrue(orphaned.getParamNameValuePairs().containsValue(TASK_ID));
+        Assertions.assertFalse(orphaned.getParamNameValuePairs().containsValue(TASK_ID + 1));
+        Assertions.assertFalse(watcher.isWatching(TASK_ID));
+        InOrder order = inOrder(taskMapper, runLease);
+        order.verify(taskMapper).update(any(), any());
+        order.verify(runLease).release(TASK_ID);
+        verify(runLease, never()).release(TASK_ID + 1);
+
+        // 已停止订阅，之后的轮次不再写回
+        training.advance(PROJECT_ID);
+        Assertions.assertNull(rounds.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private WatchProgressRequest nextWatch() throws InterruptedException {
+        WatchProgressRequest request = training.watchRequests().poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Assertions.assertNotNull(request, "训练服务没有收到订阅");
+        return request;
+    }
+
+    private int nextRound() throws InterruptedException {
+        Integer round = rounds.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Assertions.assertNotNull(round, "没有收到进度");
+        return round;
+    }
+
+    private List<Integer> nextRounds(int count) throws InterruptedException {
+        List<Integer> received = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            received.add(nextRound());
+        }
+        return received;
+    }
+
+    private Reconnect nextReconnect() throws InterruptedException {
+        Reconnect reconnect = reconnects.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Assertions.assertNotNull(reconnect, "没有安排重连");
+        return reconnect;
+    }
+
+    private List<LambdaUpdateWrapper<TrainingTask>> drainUpdates() {
+        List<LambdaUpdateWrapper<TrainingTask>> drained = new ArrayList<>();
+        updates.drainTo(drained);
+        return drained;
+    }
+
+    private LambdaUpdateWrapper<TrainingTask> awaitUpdate(TrainingTaskStatus status) throws InterruptedException {
+        while (true) {
+            LambdaUpdateWrapper<TrainingTask> update = updates.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Assertions.assertNotNull(update, "没有把任务更新为 " + status);
+            if (status.equals(setValues(update).get("status"))) {
+                return update;
+            }
+        }
+    }
+
+    /**
+     * update 的 set 部分：列名到参数值
+     */
+    private static Map<String, Object> setValues(LambdaUpdateWrapper<TrainingTask> update) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String assignment : update.getSqlSet().split(",")) {
+            String[] pair = assignment.split("=", 2);
+            String param = pair[1].substring(pair[1].lastIndexOf('.') + 1, pair[1].length() - 1);
+            values.put(pair[0], update.getParamNameValuePairs().get(param));
+        }
+        return values;
+    }
+
+    private TrainingTask task(TrainingTaskStatus status) {
+        TrainingTask task = new TrainingTask();
+        task.setId(TASK_ID);
+        task.setRunId(runId);
+        task.setStatus(status);
+        task.setSidecarEndpoint(ENDPOINT);
+        return task;
+    }
+
+    private record Reconnect(Runnable task, long delay) {
+    }
+}
@@ -0,0 +1,187 @@
+package org.dromara.projects.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 指标数据块编解码测试
+ * <p>
+ * 数值按 doubleToRawLongBits 比较，NaN 与 -0.0 也须原样还原。各段长度从块头之后的 len 字段读取，用来核对每点占用的位数。
+ */
+@Tag("dev")
+@DisplayName("指标数据块编解码测试")
+public class MetricBlockCodecTest {
+
+    /**
+     * version(1) + count(4) + columns(1)
+     */
+    private static final int HEADER_BYTES = 6;
+
+    private static final long[][] DOD_BUCKETS = {
+        // 二阶差分, 每点位数
+        {0, 1},
+        {64, 9}, {-63, 9},
+        {65, 12}, {-64, 12}, {256, 12}, {-255, 12},
+        {257, 16}, {-256, 16}, {2048, 16}, {-2047, 16},
+        {2049, 37}, {-2048, 37},
+    };
+
+    @Test
+    @DisplayName("轮次：二阶差分落在各区间边界两侧时按对应位数编码并原样还原")
+    public void encodesEachDodBoundary() {
+        for (long[] bucket : DOD_BUCKETS) {
+            long dod = bucket[0];
+            int[] rounds = rounds(1_000_000, dod, 8);
+            byte[] data = MetricBlockCodec.encode(rounds, new double[0][], rounds.length);
+
+            Assertions.assertArrayEquals(rounds, MetricBlockCodec.decode(data, null).rounds(), "dod " + dod);
+            // 首轮 32 位，之后 8 个点同属一个区间，正好凑满整字节
+            Assertions.assertEquals((32 + 8 * bucket[1]) / 8, sectionLength(data, 0), "dod " + dod);
+        }
+    }
+
+    @Test
+    @DisplayName("轮次：超过 12 位区间的跳变用 33 位编码，正负方向都能还原")
+    public void encodesLargeRoundJumps() {
+        int[] rounds = {1, 2, 2_000_000_000, 2_000_000_001, Integer.MAX_VALUE};
+        byte[] data = MetricBlockCodec.encode(rounds, new double[0][], rounds.length);
+
+        Assertions.assertArrayEquals(rounds, MetricBlockCodec.decode(data, null).rounds());
+    }
+
+    @Test
+    @DisplayName("数值：与上一点相同时异或为 0，每点只占 1 位")
+    public void encodesRepeatedValueInOneBit() {
+        double[] column = new double[128];
+        Arrays.fill(column, 0.5);
+        byte[] data = MetricBlockCodec.encode(rounds(1, 0, 127), new double[][]{column}, column.length);
+
+        assertColumnEquals(column, MetricBlockCodec.decode(data, null).values()[0]);
+        // 首点 64 位，其余 127 点各 1 位
+        Assertions.assertEquals((64 + 127 + 7) / 8, sectionLength(data, 1));
+    }
+
+    @Test
+    @DisplayName("数值：NaN、正负无穷、-0.0 与非规格化数按原始位还原")
+    public void encodesSpecialValues() {
+        double[] column = {1.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN,
+            Double.longBitsToDouble(0x7ff8000000000001L), -0.0, 0.0, Double.MIN_VALUE, Double.MAX_VALUE,
+            -Double.MAX_VALUE, Double.POSITIVE_INFINITY, 1.0};
+        byte[] data = MetricBlockCodec.encode(rounds(1, 0, column.length - 1), new double[][]{column}, column.length);
+
+        assertColumnEquals(column, MetricBlockCodec.decode(data, null).values()[0]);
+    }
+
+    @Test
+    @DisplayName("数值：异或结果首尾都是 1 时写满 64 个有效位，前导零超过 31 个时按 31 截断")
+    public void encodesFullWidthXor() {
+        long one = Double.doubleToRawLongBits(1.0);
+        double[] column = {
+            1.0,
+            // 异或为 0x8000000000000001，有效位 64，记为 63
+            Double.longBitsToDouble(one ^ 0x8000000000000001L),
+            // 沿用 64 位窗口
+            Double.longBitsToDouble(one ^ 0x0000000000000002L),
+            1.0,
+            0.0,
+            // 异或为 1，前导零 63 位，只记 31 位，有效位 33
+            Double.longBitsToDouble(1L),
+            Double.longBitsToDouble(3L),
+            Double.longBitsToDouble(0xffffffffffffffffL),
+        };
+        byte[] data = MetricBlockCodec.encode(rounds(1, 0, column.length - 1), new double[][]{column}, column.length);
+
+        assertColumnEquals(column, MetricBlockCodec.decode(data, null).values()[0]);
+    }
+
+    @Test
+    @DisplayName("数值：随机序列往返一致")
+    public void encodesRandomValues() {
+        Random random = new Random(42L);
+        double[][] values = new double[3][128];
+        for (int i = 0; i < 128; i++) {
+            values[0][i] = random.nextDouble();
+            values[1][i] = Double.longBitsToDouble(random.nextLong());
+            values[2][i] = random.nextInt(4);
+        }
+        byte[] data = MetricBlockCodec.encode(rounds(1, 0, 127), values, 128);
+
+        MetricBlockCodec.Decoded decoded = MetricBlockCodec.decode(data, null);
+        for (int c = 0; c < values.length; c++) {
+            assertColumnEquals(values[c], decoded.values()[c]);
+        }
+    }
+
+    @Test
+    @DisplayName("单点块：只写首轮与各列首值，只编码 count 个点")
+    public void encodesSinglePoint() {
+        int[] rounds = new int[128];
+        rounds[0] = 7;
+        double[][] values = {new double[128], new double[128]};
+        values[0][0] = 3.25;
+        values[1][0] = Double.NaN;
+        byte[] data = MetricBlockCodec.encode(rounds, values, 1);
+
+        MetricBlockCodec.Decoded decoded = MetricBlockCodec.decode(data, null);
+        Assertions.assertArrayEquals(new int[]{7}, decoded.rounds());
+        assertColumnEquals(new double[]{3.25}, decoded.values()[0]);
+        assertColumnEquals(new double[]{Double.NaN}, decoded.values()[1]);
+        Assertions.assertEquals(4, sectionLength(data, 0));
+        Assertions.assertEquals(8, sectionLength(data, 1));
+    }
+
+    @Test
+    @DisplayName("按列读取：未请求的列跳过且为 null，超出 wanted 长度的列同样跳过")
+    public void decodesWantedColumnsOnly() {
+        double[][] values = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+        byte[] data = MetricBlockCodec.encode(new int[]{1, 2, 3}, values, 3);
+
+        MetricBlockCodec.Decoded decoded = MetricBlockCodec.decode(data, new boolean[]{false, true});
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, decoded.rounds());
+        Assertions.assertNull(decoded.values()[0]);
+        assertColumnEquals(values[1], decoded.values()[1]);
+        Assertions.assertNull(decoded.values()[2]);
+    }
+
+    /**
+     * 从 start 开始、相邻差初始为 0，之后每点的二阶差分都为 dod
+     */
+    private static int[] rounds(int start, long dod, int points) {
+        int[] rounds = new int[points + 1];
+        rounds[0] = start;
+        long delta = 0;
+        for (int i = 1; i <= points; i++) {
+            delta += dod;
+            rounds[i] = (int) (rounds[i - 1] + delta);
+        }
+        return rounds;
+    }
+
+    /**
+     * 第 section 段的字节数，0 为轮次列
+     */
+    private static int sectionLength(byte[] data, int section) {
+        int offset = HEADER_BYTES;
+        for (int i = 0; ; i++) {
+            int length = ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16)
+                | ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+            if (i == section) {
+                return length;
+            }
+            offset += 4 + length;
+        }
+    }
+
+    private static void assertColumnEquals(double[] expected, double[] actual) {
+        Assertions.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]),
+                "第 " + i + " 个点: " + expected[i] + " / " + actual[i]);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.dromara.projects.metrics;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.edgeai.training.api.ClientStats;
+import com.edgeai.training.api.ProgressEvent;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.dromara.projects.domain.TrainingMetricBlock;
+import org.dromara.projects.domain.vo.TrainingMetricPointVO;
+import org.dromara.projects.domain.vo.TrainingMetricSeriesVO;
+import org.dromara.projects.mapper.TrainingMetricBlockMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntUnaryOperator;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 训练指标时序存储测试
+ * <p>
+ * 指标块保存在内存列表中，查询条件按 eq/ge/le 的调用顺序从条件构造器的参数中读取。
+ * 期望值直接由原始逐轮数值按查询区间汇总得出，与各层级汇总点合并后的结果比较。
+ */
+@Tag("dev")
+@DisplayName("训练指标时序存储测试")
+public class TrainingMetricStoreTest {
+
+    private static final long TASK_ID = 42L;
+    private static final String RUN_ID = "run-1";
+    private static final int ROUNDS = 1024;
+
+    private final List<TrainingMetricBlock> blocks = new ArrayList<>();
+    private final List<Integer> levelsRead = new ArrayList<>();
+
+    private final double[] loss = new double[ROUNDS + 1];
+    private final double[] accuracy = new double[ROUNDS + 1];
+
+    private TrainingMetricBlockMapper blockMapper;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        // Lambda 条件构造器按实体的表信息解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), TrainingMetricBlock.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        blockMapper = mock(TrainingMetricBlockMapper.class);
+        when(blockMapper.insert(any(TrainingMetricBlock.class))).thenAnswer(invocation -> {
+            TrainingMetricBlock block = invocation.getArgument(0);
+            block.setId((long) blocks.size() + 1);
+            blocks.add(block);
+            return 1;
+        });
+        when(blockMapper.updateById(any(TrainingMetricBlock.class))).thenAnswer(invocation -> {
+            TrainingMetricBlock update = invocation.getArgument(0);
+            TrainingMetricBlock block = blocks.get(update.getId().intValue() - 1);
+            block.setFirstRound(update.getFirstRound());
+            block.setLastRound(update.getLastRound());
+            block.setPointCount(update.getPointCount());
+            block.setData(update.getData());
+            return 1;
+        });
+        when(blockMapper.selectOne(any())).thenAnswer(invocation -> {
+            // taskId, runId, level[, blockNo]，取该层级最后一块
+            List<Object> params = params(invocation.getArgument(0));
+            return blocks.stream()
+                .filter(block -> block.getTaskId().equals(params.get(0)) && block.getRunId().equals(params.get(1))
+                    && block.getLevel().equals(params.get(2))
+                    && (params.size() < 4 || block.getBlockNo().equals(params.get(3))))
+                .max(Comparator.comparing(TrainingMetricBlock::getBlockNo))
+                .orElse(null);
+        });
+        when(blockMapper.selectList(any())).thenAnswer(invocation -> {
+            // taskId, runId, level, lastRound >= from, firstRound <= to
+            List<Object> params = params(invocation.getArgument(0));
+            levelsRead.add((Integer) params.get(2));
+            return blocks.stream()
+                .filter(block -> block.getTaskId().equals(params.get(0)) && block.getRunId().equals(params.get(1))
+                    && block.getLevel().equals(params.get(2))
+                    && block.getLastRound() >= (Integer) params.get(3) && block.getFirstRound() <= (Integer) params.get(4))
+                .sorted(Comparator.comparing(TrainingMetricBlock::getBlockNo))
+                .toList();
+        });
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            loss[round] = (float) (2.5 * Math.exp(-0.003 * round) + 0.1 * Math.sin(round));
+            // 奇数轮没有客户端上报，准确率记为 NaN，汇总时跳过
+            accuracy[round] = round % 2 == 0 ? (float) (0.5 + 0.4 * Math.cos(round / 10.0)) : Double.NaN;
+        }
+    }
+
+    @Test
+    @DisplayName("两级汇总：1024 轮按 16 点查询时只读第 2 层，每点的最小、最大、平均与原始 64 轮一致，NaN 不计数")
+    public void queriesRollupLevel() {
+        TrainingMetricStore store = new TrainingMetricStore(blockMapper);
+        append(store, 1, ROUNDS);
+
+        List<TrainingMetricSeriesVO> series = store.query(TASK_ID, RUN_ID, List.of("loss", "accuracy"), null, null, 16);
+
+        Assertions.assertEquals(List.of(2), levelsRead);
+        Assertions.assertEquals(64, series.get(0).getStep().intValue());
+        IntUnaryOperator window = round -> (round - 1) / 64 * 64 + 1;
+        assertPoints(loss, window, 1, ROUNDS, 64, series.get(0).getPoints());
+        assertPoints(accuracy, window, 1, ROUNDS, 64, series.get(1).getPoints());
+        Assertions.assertEquals(32L, series.get(1).getPoints().get(0).getCount().longValue());
+    }
+
+    @Test
+    @DisplayName("逐层补齐：上层未覆盖的部分退回下层；重启后从最后一块恢复，补发的旧轮次被忽略，封存后生成上层汇总")
+    public void fallsBackToFinerLevelAndRestores() {
+        append(new TrainingMetricStore(blockMapper), 1, 1000);
+
+        // 每点 100 轮应读第 2 层，此时只有第 1 层覆盖到 896 轮，其余从第 0 层补齐
+        List<TrainingMetricSeriesVO> series = new TrainingMetricStore(blockMapper)
+            .query(TASK_ID, RUN_ID, List.of("loss"), null, null, 10);
+        Assertions.assertEquals(List.of(2, 1, 0), levelsRead);
+        Assertions.assertEquals(100, series.get(0).getStep().intValue());
+        // 区间内的边界按汇总点对齐：896 轮之前每个原始点归入所在汇总点的起始轮次
+        assertPoints(loss, round -> round <= 896 ? (round - 1) / 8 * 8 + 1 : round, 1, 1000, 100, series.get(0).getPoints());
+
+        TrainingMetricStore restarted = new TrainingMetricStore(blockMapper);
+        append(restarted, 990, ROUNDS);
+        // 第 0 层 8 块，第 1 层与第 2 层各 1 块，没有重复写入的块
+        Assertions.assertEquals(10, blocks.size());
+        Assertions.assertEquals(128, blocks.stream().filter(block -> block.getLevel() == 1).findFirst()
+            .orElseThrow().getPointCount().intValue());
+
+        levelsRead.clear();
+        series = restarted.query(TASK_ID, RUN_ID, List.of("loss"), null, null, 16);
+        Assertions.assertEquals(List.of(2), levelsRead);
+        assertPoints(loss, round -> (round - 1) / 64 * 64 + 1, 1, ROUNDS, 64, series.get(0).getPoints());
+    }
+
+    private void append(TrainingMetricStore store, int from, int to) {
+        for (int round = from; round <= to; round++) {
+            ProgressEvent.Builder event = ProgressEvent.newBuilder()
+                .setRunId(RUN_ID)
+                .setRound(round)
+                .setLoss((float) loss[round]);
+            if (!Double.isNaN(accuracy[round])) {
+                event.addClients(ClientStats.newBuilder()
+                    .setClientId("client-0")
+                    .setNumSamples(1000L)
+                    .setAccuracy((float) accuracy[round])
+                    .setDurationMs(200L));
+            }
+            store.append(TASK_ID, RUN_ID, event.build());
+        }
+    }
+
+    /**
+     * 按原始点所属汇总点的起始轮次分到查询区间，逐区间比较
+     *
+     * @param sampleStart 原始轮次所在汇总点（或原始点自身）的起始轮次
+     */
+    private static void assertPoints(double[] raw, IntUnaryOperator sampleStart, int from, int to, int step,
+                                     List<TrainingMetricPointVO> points) {
+        Map<Integer, double[]> expected = new TreeMap<>();
+        for (int round = from; round <= to; round++) {
+            int start = sampleStart.applyAsInt(round);
+            // 首轮、最小、最大、合计、计数
+            double[] bucket = expected.computeIfAbsent((start - from) / step,
+                index -> new double[]{start, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0, 0});
+            bucket[0] = Math.min(bucket[0], start);
+            if (!Double.isNaN(raw[round])) {
+                bucket[1] = Math.min(bucket[1], raw[round]);
+                bucket[2] = Math.max(bucket[2], raw[round]);
+                bucket[3] += raw[round];
+                bucket[4]++;
+            }
+        }
+        Assertions.assertEquals(expected.size(), points.size());
+        int i = 0;
+        for (double[] bucket : expected.values()) {
+            TrainingMetricPointVO point = points.get(i++);
+            String message = "第 " + i + " 个点";
+            Assertions.assertEquals((int) bucket[0], point.getRound().intValue(), message);
+            Assertions.assertEquals((long) bucket[4], point.getCount().longValue(), message);
+            Assertions.assertEquals(bucket[1], point.getMin().doubleValue(), message);
+            Assertions.assertEquals(bucket[2], point.getMax().doubleValue(), message);
+            Assertions.assertEquals(bucket[3] / bucket[4], point.getAvg().doubleValue(), 1e-9, message);
+        }
+    }
+
+    /**
+     * 条件构造器的参数值，按调用顺序排列
+     */
+    private static List<Object> params(LambdaQueryWrapper<TrainingMetricBlock> wrapper) {
+        return wrapper.getParamNameValuePairs().entrySet().stream()
+            .sorted(Comparator.comparingInt(entry -> Integer.parseInt(entry.getKey().substring(Constants.WRAPPER_PARAM.length()))))
+            .map(Map.Entry::getValue)
+            .toList();
+    }
+}
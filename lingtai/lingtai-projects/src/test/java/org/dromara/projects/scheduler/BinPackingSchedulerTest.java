@@ -0,0 +1,140 @@
+package org.dromara.projects.scheduler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 训练任务调度算法测试
+ */
+@Tag("dev")
+@DisplayName("训练任务调度算法测试")
+public class BinPackingSchedulerTest {
+
+    private static final BinPackingScheduler.Policy FIFO = new BinPackingScheduler.Policy(true, false, false, 0);
+    private static final BinPackingScheduler.Policy FIRST_FIT = new BinPackingScheduler.Policy(false, false, false, 0);
+    private static final BinPackingScheduler.Policy FAIR = new BinPackingScheduler.Policy(true, true, false, 0);
+    private static final BinPackingScheduler.Policy PREEMPTIVE = new BinPackingScheduler.Policy(true, false, true, 0);
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    @DisplayName("best-fit：选放下后剩余最少的节点，不需要 GPU 的任务避开 GPU 节点；first-fit 选第一个放得下的")
+    public void choosesBestFitNode() {
+        List<SchedulerNode> nodes = List.of(
+            node(1, cpu(16), 4),
+            node(2, cpu(16), 0),
+            node(3, cpu(4), 0),
+            node(4, cpu(8), 0));
+        List<PendingJob> queue = List.of(
+            pending(1, 1, 0, 1, cpu(4), 1),
+            pending(2, 1, 0, 1, cpu(12), 2));
+
+        ScheduleDecision bestFit = new BinPackingScheduler(FIFO).schedule(nodes, List.of(), queue, NOW);
+        Assertions.assertEquals(List.of(3L), bestFit.getPlacements().get(1L));
+        // 两个 16 核节点剩余相同，GPU 节点的空闲卡计入剩余
+        Assertions.assertEquals(List.of(2L), bestFit.getPlacements().get(2L));
+
+        ScheduleDecision firstFit = new BinPackingScheduler(FIRST_FIT).schedule(nodes, List.of(), queue, NOW);
+        Assertions.assertEquals(List.of(1L), firstFit.getPlacements().get(1L));
+        Assertions.assertEquals(List.of(1L), firstFit.getPlacements().get(2L));
+    }
+
+    @Test
+    @DisplayName("成组放置：任一 worker 放不下则整组不占资源，后面较小的任务继续放置")
+    public void placesGangAllOrNothing() {
+        List<SchedulerNode> nodes = List.of(node(1, cpu(8), 0), node(2, cpu(8), 0));
+        List<PendingJob> queue = List.of(
+            // 3 个 6 核 worker，两个节点只放得下 2 个
+            pending(1, 1, 0, 3, cpu(6), 1),
+            pending(2, 1, 0, 1, cpu(16), 2),
+            pending(3, 2, 0, 2, cpu(8), 3));
+
+        ScheduleDecision decision = new BinPackingScheduler(FIFO).schedule(nodes, List.of(), queue, NOW);
+
+        Assertions.assertEquals(Map.of(3L, List.of(1L, 2L)), decision.getPlacements());
+        Assertions.assertTrue(decision.getBlocked().get(1L).startsWith("资源不足"));
+        Assertions.assertTrue(decision.getBlocked().get(2L).startsWith("没有节点能容纳单个 worker"));
+        Assertions.assertTrue(decision.getPreemptions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("抢占：只抢占优先级更低的任务，按优先级从低到高、启动从晚到早挑选，多挑的不抢占")
+    public void preemptsLowestPriorityMostRecentFirst() {
+        // 两个节点都已占满
+        List<SchedulerNode> nodes = List.of(node(1, cpu(8), Resources.ZERO), node(2, cpu(8), Resources.ZERO));
+        List<RunningJob> running = List.of(
+            running(11, 1, 0, cpu(2), 1, 100),
+            running(12, 1, 0, cpu(2), 2, 300),
+            running(13, 2, 0, cpu(6), 1, 200),
+            running(14, 2, 5, cpu(6), 2, 400));
+        BinPackingScheduler scheduler = new BinPackingScheduler(PREEMPTIVE);
+
+        // 依次尝试 12、13 后放得下；去掉 12 仍放得下，只抢占 13
+        ScheduleDecision decision = scheduler.schedule(nodes, running, List.of(pending(1, 3, 10, 1, cpu(6), 1)), NOW);
+        Assertions.assertEquals(Map.of(1L, List.of(13L)), decision.getPreemptions());
+        Assertions.assertEquals(List.of(1L), decision.getPlacements().get(1L));
+
+        // 需要两个节点各 6 核：优先级 0 的任务不够，还要抢占优先级 5 的 14；之后 12 已不必要
+        decision = scheduler.schedule(nodes, running, List.of(pending(1, 3, 10, 2, cpu(6), 1)), NOW);
+        Assertions.assertEquals(List.of(13L, 14L), decision.preempted().stream().sorted().toList());
+        Assertions.assertEquals(List.of(1L, 2L), decision.getPlacements().get(1L).stream().sorted().toList());
+
+        // 优先级不高于任何运行中任务时不抢占
+        decision = scheduler.schedule(nodes, running, List.of(pending(1, 3, 0, 1, cpu(2), 1)), NOW);
+        Assertions.assertTrue(decision.getPreemptions().isEmpty());
+        Assertions.assertTrue(decision.getBlocked().containsKey(1L));
+
+        // 不允许抢占时同样只排队
+        decision = new BinPackingScheduler(FIFO).schedule(nodes, running, List.of(pending(1, 3, 10, 1, cpu(6), 1)), NOW);
+        Assertions.assertTrue(decision.getPreemptions().isEmpty());
+        Assertions.assertTrue(decision.getBlocked().containsKey(1L));
+    }
+
+    @Test
+    @DisplayName("公平份额：先按优先级，同一优先级内主导份额低的用户先放置，份额相同按入队先后")
+    public void ordersByDominantShareWithinPriority() {
+        // 节点 2 已被用户 1 占满，用户 1 的份额为 4/12
+        List<SchedulerNode> nodes = List.of(node(1, cpu(8), 0), node(2, cpu(4), Resources.ZERO));
+        List<RunningJob> running = List.of(running(20, 1, 0, cpu(4), 2, 0));
+        List<PendingJob> queue = List.of(
+            pending(1, 1, 0, 1, cpu(4), 1),
+            pending(2, 1, 0, 1, cpu(4), 2),
+            pending(3, 2, 0, 1, cpu(4), 3),
+            pending(4, 3, 0, 1, cpu(4), 4),
+            pending(5, 1, 5, 1, cpu(4), 5));
+
+        ScheduleDecision fair = new BinPackingScheduler(FAIR).schedule(nodes, running, queue, NOW);
+        // 高优先级的 5 不受份额影响；之后用户 2 与 3 份额都为 0，用户 2 入队较早
+        Assertions.assertEquals(List.of(5L, 3L), List.copyOf(fair.getPlacements().keySet()));
+        Assertions.assertEquals(List.of(1L, 2L, 4L), fair.getBlocked().keySet().stream().sorted().toList());
+
+        ScheduleDecision fifo = new BinPackingScheduler(FIFO).schedule(nodes, running, queue, NOW);
+        Assertions.assertEquals(List.of(5L, 1L), List.copyOf(fifo.getPlacements().keySet()));
+    }
+
+    private static Resources cpu(double cores) {
+        return new Resources(cores, cores * 1024, 0);
+    }
+
+    private static SchedulerNode node(long id, Resources total, int gpu) {
+        Resources withGpu = new Resources(total.cpu(), total.memoryMb(), gpu);
+        return new SchedulerNode(id, "node-" + id, withGpu, withGpu);
+    }
+
+    private static SchedulerNode node(long id, Resources total, Resources available) {
+        return new SchedulerNode(id, "node-" + id, total, available);
+    }
+
+    private static PendingJob pending(long id, long userId, int priority, int workers, Resources perWorker, long submittedAt) {
+        return new PendingJob(id, userId, priority, workers, perWorker, submittedAt);
+    }
+
+    private static RunningJob running(long id, long userId, int priority, Resources perWorker, long nodeId, long startedAt) {
+        return new RunningJob(id, userId, priority, perWorker, List.of(nodeId), startedAt);
+    }
+}
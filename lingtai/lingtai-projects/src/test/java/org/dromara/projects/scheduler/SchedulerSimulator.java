@@ -0,0 +1,379 @@
+package org.dromara.projects.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * 调度模拟器
+ * <p>
+ * 按种子生成一组合成节点与任务序列，用离散事件回放：每次有任务到达或完成时调用一次调度算法，
+ * 被抢占的任务回到队列并从头重跑。同一序列依次回放几种策略，比较等待时间、资源分配率、抢占代价、
+ * 用户间公平性以及单次调度的计算耗时。
+ * <p>
+ * 节点：60% 为 16 核 64GB，25% 为 32 核 128GB，15% 为 16 核 128GB 4 卡 GPU。
+ * 任务：用户按 1/(i+1) 的权重提交，75% 优先级 0、20% 为 5、5% 为 10；每个任务 1~8 个 worker，
+ * 每个 worker 1~8 核，内存为核数的 2 或 4 倍 GB，有 GPU 节点时 5% 的任务每个 worker 需要 1 卡；
+ * 时长服从中位数 20 分钟的对数正态分布，截断在 1 分钟到 6 小时；到达间隔服从指数分布，使 CPU 提交量约为容量乘以负载。
+ */
+final class SchedulerSimulator {
+
+    private static final int[] WORKERS = {1, 1, 1, 2, 2, 4, 4, 8};
+
+    private static final int[] CPUS = {1, 2, 2, 4, 4, 8};
+
+    private static final int HIGH_PRIORITY = 10;
+
+    private final long agingMillis;
+
+    /**
+     * 合成负载
+     *
+     * @param nodes 节点数
+     * @param jobs  任务数
+     * @param users 提交任务的用户数
+     * @param load  目标负载，按 CPU 计的提交量与集群容量之比
+     * @param seed  随机种子，相同种子生成相同的节点与任务
+     */
+    record Workload(int nodes, int jobs, int users, double load, long seed) {
+    }
+
+    /**
+     * 一种策略的回放结果
+     *
+     * @param unscheduled                始终无法放置的任务数
+     * @param makespanSeconds            最后一个任务完成的时间
+     * @param highPriorityP95WaitSeconds 最高优先级任务的等待时间 P95
+     * @param cpuUtilization             CPU 分配率，已分配核时与总核时之比
+     * @param wastedCpuHours             被抢占而作废的核时
+     * @param fairness                   各用户平均减速比倒数的 Jain 指数，1 表示各用户等待程度一致
+     * @param rounds                     调度计算次数
+     */
+    record Result(String policy, int completed, int unscheduled, long makespanSeconds,
+                  double avgWaitSeconds, double p50WaitSeconds, double p95WaitSeconds, double highPriorityP95WaitSeconds,
+                  double cpuUtilization, double gpuUtilization, int preemptions, double wastedCpuHours, double fairness,
+                  int rounds, double avgRoundMicros, double maxRoundMicros) {
+    }
+
+    /**
+     * @param agingMillis 默认策略的老化时长，与线上调度一致
+     */
+    SchedulerSimulator(long agingMillis) {
+        this.agingMillis = agingMillis;
+    }
+
+    /**
+     * 比较的策略：线上默认策略，以及依次去掉抢占、公平份额与 best-fit 的对照
+     */
+    Map<String, BinPackingScheduler.Policy> policies() {
+        Map<String, BinPackingScheduler.Policy> policies = new LinkedHashMap<>();
+        policies.put("best-fit + 公平份额 + 抢占", new BinPackingScheduler.Policy(true, true, true, agingMillis));
+        policies.put("best-fit + 公平份额", new BinPackingScheduler.Policy(true, true, false, agingMillis));
+        policies.put("best-fit + 先来先服务", new BinPackingScheduler.Policy(true, false, false, 0));
+        policies.put("first-fit + 先来先服务", new BinPackingScheduler.Policy(false, false, false, 0));
+        return policies;
+    }
+
+    /**
+     * 在同一组节点与任务上回放各策略
+     */
+    List<Result> run(Workload workload, Map<String, BinPackingScheduler.Policy> policies) {
+        Random random = new Random(workload.seed());
+        List<SchedulerNode> fleet = fleet(workload.nodes(), random);
+        List<Job> trace = trace(fleet, workload.jobs(), workload.users(), workload.load(), random);
+        List<Result> results = new ArrayList<>();
+        policies.forEach((name, policy) ->
+            results.add(new Replay(fleet, trace, new BinPackingScheduler(policy)).run(name)));
+        return results;
+    }
+
+    private static List<SchedulerNode> fleet(int count, Random random) {
+        List<SchedulerNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double kind = random.nextDouble();
+            Resources total;
+            if (kind < 0.6) {
+                total = new Resources(16, 64 * 1024, 0);
+            } else if (kind < 0.85) {
+                total = new Resources(32, 128 * 1024, 0);
+            } else {
+                total = new Resources(16, 128 * 1024, 4);
+            }
+            nodes.add(new SchedulerNode((long) i + 1, "sim-" + (i + 1), total, total));
+        }
+        return nodes;
+    }
+
+    private static List<Job> trace(List<SchedulerNode> fleet, int count, int users, double load, Random random) {
+        boolean gpus = fleet.stream().anyMatch(node -> node.total().gpu() > 0);
+        double[] weights = new double[users];
+        double weightSum = 0;
+        for (int u = 0; u < users; u++) {
+            weights[u] = 1.0 / (u + 1);
+            weightSum += weights[u];
+        }
+        List<Job> jobs = new ArrayList<>(count);
+        double work = 0;
+        for (int i = 0; i < count; i++) {
+            double pick = random.nextDouble() * weightSum;
+            int user = 0;
+            while (user < users - 1 && pick >= weights[user]) {
+                pick -= weights[user];
+                user++;
+            }
+            double p = random.nextDouble();
+            int priority = p < 0.75 ? 0 : p < 0.95 ? 5 : HIGH_PRIORITY;
+            int workers = WORKERS[random.nextInt(WORKERS.length)];
+            int cpu = CPUS[random.nextInt(CPUS.length)];
+            int memory = cpu * (random.nextBoolean() ? 2 : 4) * 1024;
+            int gpu = gpus && random.nextDouble() < 0.05 ? 1 : 0;
+            long duration = (long) Math.min(6 * 3600_000.0,
+                Math.max(60_000.0, 1200_000.0 * Math.exp(0.8 * random.nextGaussian())));
+            jobs.add(new Job((long) i + 1, (long) user + 1, priority, workers, new Resources(cpu, memory, gpu), duration));
+            work += (double) cpu * workers * duration;
+        }
+        double capacity = fleet.stream().mapToDouble(node -> node.total().cpu()).sum();
+        double meanInterval = work / count / (capacity * load);
+        long time = 0;
+        for (Job job : jobs) {
+            time += (long) (-Math.log(1 - random.nextDouble()) * meanInterval);
+            job.submittedAt = time;
+        }
+        return jobs;
+    }
+
+    /**
+     * 合成任务，回放时记录首次启动与完成时间
+     */
+    private static final class Job {
+
+        private final Long id;
+        private final Long userId;
+        private final int priority;
+        private final int workers;
+        private final Resources perWorker;
+        private final long duration;
+        private long submittedAt;
+        private long firstStart = -1;
+        private long finishedAt = -1;
+
+        Job(Long id, Long userId, int priority, int workers, Resources perWorker, long duration) {
+            this.id = id;
+            this.userId = userId;
+            this.priority = priority;
+            this.workers = workers;
+            this.perWorker = perWorker;
+            this.duration = duration;
+        }
+
+        PendingJob pending() {
+            return new PendingJob(id, userId, priority, workers, perWorker, submittedAt);
+        }
+    }
+
+    private record Event(long time, Job job, int attempt) {
+    }
+
+    private record Placement(Job job, List<Long> nodeIds, long start, int attempt) {
+    }
+
+    /**
+     * 一种策略的回放
+     */
+    private static final class Replay {
+
+        private final List<SchedulerNode> fleet;
+        private final List<Job> trace;
+        private final BinPackingScheduler scheduler;
+        private final Map<Long, Integer> indexes = new HashMap<>();
+        private final Resources[] free;
+        private final Resources total;
+        private final Map<Long, Job> queue = new LinkedHashMap<>();
+        private final Map<Long, Placement> running = new HashMap<>();
+        private final Map<Long, Integer> attempts = new HashMap<>();
+        /**
+         * 到达事件的 attempt 为 -1，同一时刻先处理完成再处理到达
+         */
+        private final PriorityQueue<Event> events = new PriorityQueue<>(Comparator.comparingLong(Event::time)
+            .thenComparing(event -> event.attempt() < 0 ? 1 : 0));
+
+        private Resources allocated = Resources.ZERO;
+        private double cpuTime;
+        private double gpuTime;
+        private double wastedCpu;
+        private int preemptions;
+        private int rounds;
+        private long roundNanos;
+        private long maxRoundNanos;
+
+        Replay(List<SchedulerNode> fleet, List<Job> trace, BinPackingScheduler scheduler) {
+            this.fleet = fleet;
+            this.trace = trace.stream().map(job -> {
+                Job copy = new Job(job.id, job.userId, job.priority, job.workers, job.perWorker, job.duration);
+                copy.submittedAt = job.submittedAt;
+                return copy;
+            }).toList();
+            this.scheduler = scheduler;
+            this.free = new Resources[fleet.size()];
+            Resources sum = Resources.ZERO;
+            for (int i = 0; i < fleet.size(); i++) {
+                indexes.put(fleet.get(i).id(), i);
+                free[i] = fleet.get(i).total();
+                sum = sum.plus(fleet.get(i).total());
+            }
+            this.total = sum;
+        }
+
+        Result run(String policy) {
+            this.trace.forEach(job -> events.add(new Event(job.submittedAt, job, -1)));
+            long now = 0;
+            while (!events.isEmpty()) {
+                long time = events.peek().time();
+                account(time - now);
+                now = time;
+                while (!events.isEmpty() && events.peek().time() == now) {
+                    Event event = events.poll();
+                    if (event.attempt() < 0) {
+                        queue.put(event.job().id, event.job());
+                    } else {
+                        finish(event, now);
+                    }
+                }
+                if (!queue.isEmpty()) {
+                    schedule(now);
+                }
+            }
+            return report(policy, now);
+        }
+
+        private void account(long elapsed) {
+            if (elapsed <= 0) {
+                return;
+            }
+            cpuTime += allocated.cpu() * elapsed;
+            gpuTime += (double) allocated.gpu() * elapsed;
+        }
+
+        private void finish(Event event, long now) {
+            Placement placement = running.get(event.job().id);
+            if (placement == null || placement.attempt() != event.attempt()) {
+                // 已被抢占，作废的完成事件
+                return;
+            }
+            running.remove(event.job().id);
+            release(placement);
+            event.job().finishedAt = now;
+        }
+
+        private void schedule(long now) {
+            List<SchedulerNode> nodes = new ArrayList<>(fleet.size());
+            for (int i = 0; i < fleet.size(); i++) {
+                SchedulerNode node = fleet.get(i);
+                nodes.add(new SchedulerNode(node.id(), node.name(), node.total(), free[i]));
+            }
+            List<RunningJob> holding = running.values().stream()
+                .map(p -> new RunningJob(p.job().id, p.job().userId, p.job().priority, p.job().perWorker,
+                    p.nodeIds(), p.start()))
+                .toList();
+            List<PendingJob> pending = queue.values().stream().map(Job::pending).toList();
+
+            long started = System.nanoTime();
+            ScheduleDecision decision = scheduler.schedule(nodes, holding, pending, now);
+            long elapsed = System.nanoTime() - started;
+            rounds++;
+            roundNanos += elapsed;
+            maxRoundNanos = Math.max(maxRoundNanos, elapsed);
+
+            for (Long victimId : decision.preempted()) {
+                Placement victim = running.remove(victimId);
+                if (victim == null) {
+                    continue;
+                }
+                release(victim);
+                wastedCpu += victim.job().perWorker.cpu() * victim.nodeIds().size() * (now - victim.start());
+                preemptions++;
+                queue.put(victimId, victim.job());
+            }
+            decision.getPlacements().forEach((jobId, nodeIds) -> {
+                Job job = queue.remove(jobId);
+                int attempt = attempts.merge(jobId, 1, Integer::sum);
+                Placement placement = new Placement(job, nodeIds, now, attempt);
+                for (Long nodeId : nodeIds) {
+                    int index = indexes.get(nodeId);
+                    free[index] = free[index].minus(job.perWorker);
+                }
+                running.put(jobId, placement);
+                allocated = allocated.plus(job.perWorker.times(nodeIds.size()));
+                if (job.firstStart < 0) {
+                    job.firstStart = now;
+                }
+                events.add(new Event(now + job.duration, job, attempt));
+            });
+        }
+
+        private void release(Placement placement) {
+            allocated = allocated.minus(placement.job().perWorker.times(placement.nodeIds().size()));
+            for (Long nodeId : placement.nodeIds()) {
+                int index = indexes.get(nodeId);
+                free[index] = free[index].plus(placement.job().perWorker);
+            }
+        }
+
+        private Result report(String policy, long makespan) {
+            List<Job> done = trace.stream().filter(job -> job.finishedAt >= 0).toList();
+            double[] waits = done.stream().mapToDouble(job -> (job.firstStart - job.submittedAt) / 1000.0).sorted().toArray();
+            double[] highWaits = done.stream().filter(job -> job.priority >= HIGH_PRIORITY)
+                .mapToDouble(job -> (job.firstStart - job.submittedAt) / 1000.0).sorted().toArray();
+
+            // 各用户平均减速比（等待加运行除以运行）的倒数，求 Jain 指数
+            Map<Long, double[]> slowdowns = new HashMap<>();
+            for (Job job : done) {
+                double slowdown = (double) (job.finishedAt - job.submittedAt) / job.duration;
+                double[] acc = slowdowns.computeIfAbsent(job.userId, id -> new double[2]);
+                acc[0] += slowdown;
+                acc[1]++;
+            }
+            double sum = 0;
+            double squares = 0;
+            for (double[] acc : slowdowns.values()) {
+                double x = acc[1] / acc[0];
+                sum += x;
+                squares += x * x;
+            }
+
+            return new Result(policy,
+                done.size(),
+                (int) trace.stream().filter(job -> job.firstStart < 0).count(),
+                makespan / 1000,
+                round(Arrays.stream(waits).average().orElse(0)),
+                round(percentile(waits, 0.5)),
+                round(percentile(waits, 0.95)),
+                round(percentile(highWaits, 0.95)),
+                round(makespan == 0 || total.cpu() == 0 ? 0 : cpuTime / (total.cpu() * makespan)),
+                round(makespan == 0 || total.gpu() == 0 ? 0 : gpuTime / ((double) total.gpu() * makespan)),
+                preemptions,
+                round(wastedCpu / 3600_000.0),
+                round(squares == 0 ? 1 : sum * sum / (slowdowns.size() * squares)),
+                rounds,
+                round(rounds == 0 ? 0 : roundNanos / 1000.0 / rounds),
+                round(maxRoundNanos / 1000.0));
+        }
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package org.dromara.projects.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dromara.projects.properties.TrainingSchedulerProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调度策略基准测试
+ * <p>
+ * 用 {@link SchedulerSimulator} 在同一组合成节点与任务上回放各策略。打 @Tag("benchmark")，默认的 dev 测试不会运行：
+ * <pre>{@code
+ * mvn -pl lingtai/lingtai-projects test -DskipTests=false -Dprofiles.active=benchmark
+ * }</pre>
+ */
+@Slf4j
+@Tag("benchmark")
+@DisplayName("调度策略基准测试")
+public class SchedulerSimulatorBenchmarkTest {
+
+    private static final long AGING_MILLIS = TimeUnit.MINUTES.toMillis(new TrainingSchedulerProperties().getAgingMinutes());
+
+    private final SchedulerSimulator simulator = new SchedulerSimulator(AGING_MILLIS);
+
+    @Test
+    @DisplayName("50 个节点、2000 个任务：抢占缩短高优先级任务的等待，其余策略不抢占")
+    public void comparesPolicies() {
+        SchedulerSimulator.Workload workload = new SchedulerSimulator.Workload(50, 2000, 10, 0.9, 42L);
+        List<SchedulerSimulator.Result> results = simulator.run(workload, simulator.policies());
+        results.forEach(SchedulerSimulatorBenchmarkTest::report);
+
+        for (SchedulerSimulator.Result result : results) {
+            Assertions.assertEquals(workload.jobs(), result.completed(), result.policy());
+            Assertions.assertEquals(0, result.unscheduled(), result.policy());
+        }
+        SchedulerSimulator.Result preemptive = results.get(0);
+        SchedulerSimulator.Result fair = results.get(1);
+        Assertions.assertTrue(preemptive.preemptions() > 0);
+        results.subList(1, results.size()).forEach(result -> Assertions.assertEquals(0, result.preemptions(), result.policy()));
+        Assertions.assertTrue(preemptive.highPriorityP95WaitSeconds() <= fair.highPriorityP95WaitSeconds(),
+            "抢占后高优先级任务 P95 等待 " + preemptive.highPriorityP95WaitSeconds() + " 秒，不抢占时 "
+                + fair.highPriorityP95WaitSeconds() + " 秒");
+    }
+
+    @Test
+    @DisplayName("1000 个节点、10000 个任务：单次调度计算的平均耗时低于 100 毫秒")
+    public void schedulesLargeFleet() {
+        SchedulerSimulator.Workload workload = new SchedulerSimulator.Workload(1000, 10000, 100, 0.9, 42L);
+        Map.Entry<String, BinPackingScheduler.Policy> defaults = simulator.policies().entrySet().iterator().next();
+        SchedulerSimulator.Result result = simulator.run(workload, Map.of(defaults.getKey(), defaults.getValue())).get(0);
+        report(result);
+
+        Assertions.assertEquals(workload.jobs(), result.completed());
+        Assertions.assertTrue(result.avgRoundMicros() < 100_000, "单次调度平均耗时 " + result.avgRoundMicros() + " 微秒");
+    }
+
+    private static void report(SchedulerSimulator.Result result) {
+        log.info("[BENCH] {}：完成 {}，等待 avg/p50/p95 {}/{}/{} 秒，高优先级 p95 {} 秒，CPU 分配率 {}，GPU 分配率 {}，"
+                + "抢占 {} 次（作废 {} 核时），公平性 {}，调度 {} 次，平均 {} 微秒，最大 {} 微秒",
+            result.policy(), result.completed(), result.avgWaitSeconds(), result.p50WaitSeconds(), result.p95WaitSeconds(),
+            result.highPriorityP95WaitSeconds(), result.cpuUtilization(), result.gpuUtilization(), result.preemptions(),
+            result.wastedCpuHours(), result.fairness(), result.rounds(), result.avgRoundMicros(), result.maxRoundMicros());
+    }
+}
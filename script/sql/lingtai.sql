@@ -0,0 +1,219 @@
+-- ----------------------------
+-- 灵台业务增量表（models / datasets 等基础表由业务库维护）
+-- ----------------------------
+
+-- ----------------------------
+-- 导入断点日志表
+-- ----------------------------
+create table import_journal (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  task_id           varchar(64)   not null                   comment '进度任务ID',
+  target_type       varchar(20)   not null                   comment '导入目标类型（MODEL DATASET）',
+  target_id         int(11)       not null                   comment '导入目标ID',
+  user_id           bigint(20)             default null      comment '用户ID',
+  source_url        varchar(1000) not null                   comment '源站地址',
+  source_etag       varchar(255)           default null      comment '源站ETag',
+  content_sha256    char(64)               default null      comment '源文件内容SHA-256（可预知时）',
+  total_size        bigint(20)             default null      comment '源文件总大小（字节）',
+  part_size         bigint(20)             default null      comment '分块大小（字节）',
+  object_key        varchar(500)  not null                   comment 'COS对象键',
+  upload_id         varchar(255)           default null      comment 'COS分块上传ID',
+  completed_bytes   bigint(20)    not null default 0         comment '已提交分块字节数',
+  status            varchar(20)   not null default 'RUNNING' comment '状态（RUNNING COMPLETED FAILED ABORTED）',
+  owner             varchar(128)           default null      comment '执行实例（pid@host）',
+  heartbeat_time    datetime(3)            default null      comment '执行实例心跳时间',
+  resume_count      int(11)       not null default 0         comment '已自动续传次数',
+  error_message     varchar(500)           default null      comment '失败原因',
+  created_time      datetime               default null      comment '创建时间',
+  updated_time      datetime               default null      comment '更新时间',
+  primary key (id),
+  key idx_import_journal_status (status, heartbeat_time),
+  key idx_import_journal_task (task_id)
+) engine=innodb comment ='导入断点日志表';
+
+-- ----------------------------
+-- 导入断点分块表
+-- ----------------------------
+create table import_journal_part (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  journal_id        bigint(20)    not null                   comment '导入断点日志ID',
+  part_number       int(11)       not null                   comment '分块号',
+  range_start       bigint(20)    not null                   comment '源文件字节区间起点',
+  range_end         bigint(20)    not null                   comment '源文件字节区间终点',
+  etag              varchar(255)  not null                   comment '分块ETag',
+  created_time      datetime               default null      comment '创建时间',
+  primary key (id),
+  key idx_import_journal_part (journal_id, part_number)
+) engine=innodb comment ='导入断点分块表';
+
+-- ----------------------------
+-- 内容寻址对象表
+-- ----------------------------
+create table storage_blob (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  sha256            char(64)      not null                   comment '内容SHA-256',
+  object_key        varchar(500)  not null                   comment 'COS对象键',
+  size              bigint(20)    not null default 0         comment '文件大小（字节）',
+  ref_count         int(11)       not null default 0         comment '引用次数',
+  created_time      datetime               default null      comment '创建时间',
+  updated_time      datetime(3)            default null      comment '最近引用或命中时间',
+  primary key (id),
+  unique key uk_storage_blob_sha256 (sha256),
+  key idx_storage_blob_ref (ref_count, updated_time),
+  key idx_storage_blob_object_key (object_key)
+) engine=innodb comment ='内容寻址对象表';
+
+alter table model_files    add column blob_id bigint(20) default null comment '内容寻址对象ID';
+alter table datasets_files add column blob_id bigint(20) default null comment '内容寻址对象ID';
+alter table model_files    add key idx_model_files_blob (blob_id), add key idx_model_files_url (file_url(255));
+alter table datasets_files add key idx_datasets_files_blob (blob_id), add key idx_datasets_files_url (file_url(255));
+
+-- ----------------------------
+-- 模型/数据集存储统计计数表
+-- ----------------------------
+create table storage_stats (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  target_type       varchar(16)   not null                   comment '统计对象（model / dataset）',
+  user_id           bigint(20)    not null default 0         comment '用户ID，0 为全局',
+  dim               varchar(16)   not null                   comment '统计维度（status / version）',
+  dim_value         varchar(128)  not null default ''        comment '维度取值',
+  item_count        bigint(20)    not null default 0         comment '数量',
+  size_bytes        bigint(20)    not null default 0         comment '存储大小（字节）',
+  updated_time      datetime               default null      comment '更新时间',
+  primary key (id),
+  unique key uk_storage_stats (target_type, user_id, dim, dim_value)
+) engine=innodb comment ='模型/数据集存储统计计数表';
+
+-- ----------------------------
+-- 模型文件张量索引表
+-- ----------------------------
+create table model_file_index (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  file_id           int(11)       not null                   comment '模型文件ID（model_files.id）',
+  model_id          int(11)       not null                   comment '模型ID',
+  format            varchar(16)   not null                   comment '文件格式（safetensors gguf）',
+  status            varchar(16)   not null                   comment '状态（INDEXED FAILED）',
+  tensor_count      int(11)       not null default 0         comment '张量数',
+  parameter_count   bigint(20)    not null default 0         comment '参数量（各张量元素数之和）',
+  header_bytes      bigint(20)             default null      comment '文件头字节数',
+  metadata          mediumtext             default null      comment '文件头元数据（JSON）',
+  error_msg         varchar(500)           default null      comment '失败原因',
+  created_time      datetime               default null      comment '创建时间',
+  updated_time      datetime               default null      comment '更新时间',
+  primary key (id),
+  unique key uk_model_file_index_file (file_id),
+  key idx_model_file_index_model (model_id)
+) engine=innodb comment ='模型文件张量索引表';
+
+-- ----------------------------
+-- 模型张量表
+-- ----------------------------
+create table model_tensor (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  file_id           int(11)       not null                   comment '模型文件ID（model_files.id）',
+  name              varchar(512)  not null                   comment '张量名',
+  dtype             varchar(32)   not null                   comment '数据类型（F16 BF16 Q4_K 等）',
+  shape             varchar(255)  not null                   comment '形状（JSON 数组）',
+  num_elements      bigint(20)    not null default 0         comment '元素数',
+  data_start        bigint(20)    not null                   comment '数据起始偏移（文件内绝对偏移）',
+  data_end          bigint(20)             default null      comment '数据结束偏移（不含），未知类型为空',
+  primary key (id),
+  key idx_model_tensor_file (file_id)
+) engine=innodb comment ='模型张量表';
+
+-- ----------------------------
+-- 文件完整性校验值
+-- ----------------------------
+alter table model_files    add column sha256          char(64)    default null comment '内容SHA-256',
+                           add column crc64           varchar(20) default null comment '内容CRC-64/ECMA-182',
+                           add column checksum_status varchar(16) default null comment '完整性校验状态（VERIFIED/MISMATCH）',
+                           add column verified_time   datetime    default null comment '最近一次完整性校验时间';
+alter table datasets_files add column sha256          char(64)    default null comment '内容SHA-256',
+                           add column crc64           varchar(20) default null comment '内容CRC-64/ECMA-182',
+                           add column checksum_status varchar(16) default null comment '完整性校验状态（VERIFIED/MISMATCH）',
+                           add column verified_time   datetime    default null comment '最近一次完整性校验时间';
+
+-- ----------------------------
+-- 浏览器直传会话表
+-- ----------------------------
+create table upload_session (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  user_id           bigint(20)    not null                   comment '用户ID',
+  file_name         varchar(500)  not null                   comment '文件名（上传目录内相对路径）',
+  file_size         bigint(20)    not null                   comment '文件大小（字节）',
+  part_size         bigint(20)    not null                   comment '分块大小（字节）',
+  part_count        int(11)       not null                   comment '分块数',
+  object_key        varchar(500)  not null                   comment 'COS对象键',
+  upload_id         varchar(255)  not null                   comment 'COS分块上传ID',
+  status            varchar(20)   not null default 'ACTIVE'  comment '状态（ACTIVE COMPLETING COMPLETED REGISTERED ABORTED EXPIRED）',
+  crc64             varchar(20)            default null      comment '完成后COS返回的CRC64',
+  model_file_id     int(11)                default null      comment '登记后的模型文件ID',
+  expire_time       datetime               default null      comment '过期时间，过期未登记的上传被清理',
+  created_time      datetime               default null      comment '创建时间',
+  updated_time      datetime               default null      comment '更新时间',
+  primary key (id),
+  key idx_upload_session_status (status, expire_time),
+  key idx_upload_session_user (user_id)
+) engine=innodb comment ='浏览器直传会话表';
+
+-- ----------------------------
+-- 游标分页索引：(过滤列, created_time, id) 与 order by created_time desc, id desc 一致
+-- ----------------------------
+alter table models   add index idx_models_user_created (user_id, created_time, id);
+alter table datasets add index idx_datasets_created    (created_time, id);
+alter table nodes    add index idx_nodes_created       (created_time, id);
+
+-- ----------------------------
+-- 目录检索发件箱表：模型/数据集变更时与业务写入同事务登记，由索引任务增量同步到搜索引擎
+-- ----------------------------
+create table catalog_outbox (
+  id                bigint(20)    not null auto_increment    comment '主键，同时作为搜索文档的外部版本号',
+  target_type       varchar(16)   not null                   comment '对象类型（model dataset）',
+  target_id         int(11)       not null                   comment '模型或数据集ID',
+  created_time      datetime(3)   not null                   comment '登记时间，用于计算索引延迟',
+  primary key (id)
+) engine=innodb comment ='目录检索发件箱表';
+
+-- ----------------------------
+-- 训练任务：记录训练服务返回的运行ID，用于订阅进度流与重启后续订
+-- ----------------------------
+alter table training_task add column run_id varchar(64) default null comment '训练服务返回的运行ID' after log_path;
+
+-- ----------------------------
+-- 训练任务：记录运行所在的训练服务，暂停、停止、进度订阅发往该训练服务
+-- ----------------------------
+alter table training_task add column sidecar_endpoint varchar(128) default null comment '运行该训练的训练服务地址' after run_id;
+alter table training_task add index idx_training_task_sidecar (sidecar_endpoint, status);
+
+-- ----------------------------
+-- 训练指标数据块表：逐轮指标按列压缩分块保存，level 0 为原始点，n 层每点汇总 n-1 层的 8 个点
+-- ----------------------------
+create table training_metric_block (
+  id                bigint(20)    not null auto_increment    comment '主键',
+  task_id           bigint(20)    not null                   comment '训练任务ID',
+  run_id            varchar(64)   not null                   comment '训练服务返回的运行ID',
+  level             tinyint(4)    not null default 0         comment '降采样层级（0 原始点，1 每点 8 轮，2 每点 64 轮，3 每点 512 轮）',
+  block_no          int(11)       not null                   comment '块序号，同一层级内递增',
+  first_round       int(11)       not null                   comment '块内第一个点的轮次',
+  last_round        int(11)       not null                   comment '块覆盖到的最后一轮',
+  point_count       int(11)       not null                   comment '点数，满 128 点封存',
+  data              blob          not null                   comment '压缩后的列数据',
+  create_time       datetime               default null      comment '创建时间',
+  update_time       datetime               default null      comment '更新时间',
+  primary key (id),
+  unique key uk_training_metric_block (task_id, run_id, level, block_no),
+  key idx_training_metric_block_round (task_id, run_id, level, last_round)
+) engine=innodb comment ='训练指标数据块表';
+
+-- ----------------------------
+-- 训练任务：资源需求与调度结果，启动训练后进入排队，由调度器按节点剩余资源分配
+-- ----------------------------
+alter table training_task add column priority          int(11)       default 0    comment '调度优先级，越大越优先' after sidecar_endpoint;
+alter table training_task add column cpu_per_worker    int(11)       default null comment '每个 worker 的 CPU 核数' after priority;
+alter table training_task add column memory_per_worker int(11)       default null comment '每个 worker 的内存（MB）' after cpu_per_worker;
+alter table training_task add column gpu_per_worker    int(11)       default null comment '每个 worker 的 GPU 卡数' after memory_per_worker;
+alter table training_task add column placement         varchar(1024) default null comment '每个 worker 所在的节点ID，逗号分隔' after gpu_per_worker;
+alter table training_task add column queued_time       datetime      default null comment '进入调度队列的时间' after placement;
+alter table training_task add column scheduled_time    datetime      default null comment '最近一次分配节点的时间' after queued_time;
+alter table training_task add column preempt_count     int(11)       default 0    comment '被抢占的次数' after scheduled_time;
+alter table training_task add index idx_training_task_queue (status, queued_time);